@@ -0,0 +1,294 @@
+package com.ecm.core.benchmark;
+
+import com.ecm.core.entity.Document;
+import com.ecm.core.entity.Folder;
+import com.ecm.core.entity.Group;
+import com.ecm.core.entity.Node;
+import com.ecm.core.entity.Permission;
+import com.ecm.core.entity.Permission.AuthorityType;
+import com.ecm.core.entity.Permission.PermissionType;
+import com.ecm.core.entity.User;
+import com.ecm.core.model.Tag;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.PDPageContentStream;
+import org.apache.pdfbox.pdmodel.common.PDRectangle;
+import org.apache.pdfbox.pdmodel.font.PDType1Font;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+import java.util.function.Function;
+import javax.imageio.ImageIO;
+
+/**
+ * Deterministic synthetic data for the JMH benchmarks: folder chains of a given depth with ACLs on
+ * every level, users with group memberships, documents with metadata, tags and extracted text, and
+ * content bytes of a given size. Everything derives from a fixed seed so runs on different commits
+ * measure the same inputs.
+ */
+public final class BenchmarkData {
+
+    public static final long SEED = 20240611L;
+
+    private static final String[] WORDS = {
+        "invoice", "contract", "amendment", "payment", "supplier", "quarterly", "report", "approval",
+        "the", "of", "and", "to", "for", "with", "under", "agreement", "delivery", "terms", "total",
+        "shall", "party", "notice", "period", "renewal", "budget", "project", "review", "draft"
+    };
+    private static final String[] MIME_TYPES = {
+        "application/pdf", "image/png", "text/plain",
+        "application/vnd.openxmlformats-officedocument.wordprocessingml.document"
+    };
+
+    private BenchmarkData() {
+    }
+
+    /**
+     * Folder chain from the root to a leaf, {@code depth} folders long, all inheriting permissions.
+     * The leaf is the last element.
+     */
+    public static List<Folder> folderChain(int depth) {
+        List<Folder> chain = new ArrayList<>(depth);
+        Folder parent = null;
+        StringBuilder path = new StringBuilder();
+        for (int level = 0; level < depth; level++) {
+            Folder folder = new Folder();
+            folder.setId(uuid(level));
+            folder.setName("folder-" + level);
+            folder.setCreatedBy("system");
+            folder.setInheritPermissions(true);
+            folder.setParent(parent);
+            path.append('/').append(folder.getName());
+            folder.setPath(path.toString());
+            chain.add(folder);
+            parent = folder;
+        }
+        return chain;
+    }
+
+    /**
+     * {@code aclsPerNode} entries on every node of the chain for groups the benchmark user is not in,
+     * plus one READ grant for {@code grantedAuthority} on the root only, so an inherited grant has to
+     * walk the whole chain.
+     */
+    public static Map<UUID, List<Permission>> acls(List<? extends Node> chain, int aclsPerNode, String grantedAuthority) {
+        Random random = new Random(SEED);
+        PermissionType[] types = PermissionType.values();
+        Map<UUID, List<Permission>> byNode = new HashMap<>();
+        for (Node node : chain) {
+            List<Permission> permissions = new ArrayList<>(aclsPerNode + 1);
+            for (int i = 0; i < aclsPerNode; i++) {
+                permissions.add(permission(node, "GROUP_dept_" + random.nextInt(500), AuthorityType.GROUP,
+                    types[random.nextInt(types.length)], random.nextInt(10) > 0));
+            }
+            byNode.put(node.getId(), permissions);
+        }
+        Node root = chain.get(0);
+        byNode.get(root.getId()).add(permission(root, grantedAuthority, AuthorityType.GROUP, PermissionType.READ, true));
+        return byNode;
+    }
+
+    /**
+     * A user who belongs to {@code groups} groups; the first is named {@code memberOf}.
+     */
+    public static User user(String username, String memberOf, int groups) {
+        User user = new User();
+        user.setId(uuid(username.hashCode()));
+        user.setUsername(username);
+        for (int i = 0; i < groups; i++) {
+            Group group = new Group();
+            group.setId(uuid(100_000 + i));
+            group.setName(i == 0 ? memberOf : "GROUP_member_" + i);
+            user.getGroups().add(group);
+        }
+        return user;
+    }
+
+    /**
+     * A document under {@code parent} with {@code metadataEntries} metadata and property values,
+     * {@code tags} tags and {@code textChars} characters of extracted text.
+     */
+    public static Document document(Node parent, int metadataEntries, int tags, int textChars) {
+        Random random = new Random(SEED);
+        Document document = new Document();
+        document.setId(uuid(7));
+        document.setName("Supplier Agreement 2024-" + random.nextInt(1000) + ".pdf");
+        document.setDescription(text(160, SEED + 1));
+        document.setMimeType(MIME_TYPES[0]);
+        document.setFileSize(1_048_576L + random.nextInt(4_000_000));
+        document.setCreatedBy("alice");
+        document.setLastModifiedBy("bob");
+        document.setParent(parent);
+        document.setPath((parent != null ? parent.getPath() : "") + "/" + document.getName());
+        Map<String, Object> metadata = new LinkedHashMap<>();
+        Map<String, Object> properties = new LinkedHashMap<>();
+        for (int i = 0; i < metadataEntries; i++) {
+            metadata.put("field" + i, i % 3 == 0 ? random.nextInt(100_000) : WORDS[random.nextInt(WORDS.length)]);
+            properties.put("ecm:prop" + i, WORDS[random.nextInt(WORDS.length)] + "-" + i);
+        }
+        metadata.put("department", "finance");
+        document.setMetadata(metadata);
+        document.setProperties(properties);
+        for (int i = 0; i < tags; i++) {
+            Tag tag = new Tag();
+            tag.setName("tag-" + i);
+            document.getTags().add(tag);
+        }
+        if (textChars > 0) {
+            document.setTextContent(text(textChars, SEED + 2));
+        }
+        return document;
+    }
+
+    /**
+     * Word-salad text of {@code chars} characters broken into lines of about 80 characters.
+     */
+    public static String text(int chars, long seed) {
+        Random random = new Random(seed);
+        StringBuilder text = new StringBuilder(chars + 16);
+        int lineLength = 0;
+        while (text.length() < chars) {
+            String word = WORDS[random.nextInt(WORDS.length)];
+            text.append(word);
+            lineLength += word.length();
+            if (lineLength > 80) {
+                text.append('\n');
+                lineLength = 0;
+            } else {
+                text.append(' ');
+                lineLength++;
+            }
+        }
+        text.setLength(chars);
+        return text.toString();
+    }
+
+    /**
+     * {@code text} with roughly {@code changedPercent} of its lines rewritten, inserted or removed,
+     * as a later version of the same file would be.
+     */
+    public static String edit(String text, int changedPercent, long seed) {
+        Random random = new Random(seed);
+        String[] lines = text.split("\n", -1);
+        StringBuilder edited = new StringBuilder(text.length() + text.length() / 10);
+        for (String line : lines) {
+            if (random.nextInt(100) < changedPercent) {
+                switch (random.nextInt(3)) {
+                    case 0 -> edited.append(text(line.length() + 1, random.nextLong()).trim()).append('\n');
+                    case 1 -> edited.append(line).append('\n').append(text(60, random.nextLong()).trim()).append('\n');
+                    default -> {
+                        // line removed
+                    }
+                }
+            } else {
+                edited.append(line).append('\n');
+            }
+        }
+        return edited.toString();
+    }
+
+    /**
+     * Incompressible content of {@code size} bytes.
+     */
+    public static byte[] content(int size, long seed) {
+        byte[] bytes = new byte[size];
+        new Random(seed).nextBytes(bytes);
+        return bytes;
+    }
+
+    /**
+     * A PNG photo-like image (gradient plus noise) of the given size.
+     */
+    public static byte[] png(int width, int height) throws IOException {
+        Random random = new Random(SEED);
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                int r = (x * 255 / width + random.nextInt(32)) & 0xFF;
+                int g = (y * 255 / height + random.nextInt(32)) & 0xFF;
+                int b = ((x + y) * 255 / (width + height) + random.nextInt(32)) & 0xFF;
+                image.setRGB(x, y, (r << 16) | (g << 8) | b);
+            }
+        }
+        Graphics2D graphics = image.createGraphics();
+        graphics.setColor(Color.WHITE);
+        graphics.fillRect(width / 4, height / 4, width / 2, height / 8);
+        graphics.dispose();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(image, "png", out);
+        return out.toByteArray();
+    }
+
+    /**
+     * An A4 text PDF of {@code pages} pages, about 50 lines of text each.
+     */
+    public static byte[] pdf(int pages) throws IOException {
+        try (PDDocument pdf = new PDDocument()) {
+            for (int page = 0; page < pages; page++) {
+                PDPage pdPage = new PDPage(PDRectangle.A4);
+                pdf.addPage(pdPage);
+                try (PDPageContentStream stream = new PDPageContentStream(pdf, pdPage)) {
+                    stream.beginText();
+                    stream.setFont(PDType1Font.HELVETICA, 10);
+                    stream.setLeading(14);
+                    stream.newLineAtOffset(50, 790);
+                    for (String line : text(50 * 82, SEED + page).split("\n")) {
+                        stream.showText(line);
+                        stream.newLine();
+                    }
+                    stream.endText();
+                }
+            }
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            pdf.save(out);
+            return out.toByteArray();
+        }
+    }
+
+    /**
+     * In-memory stand-in for a Spring Data repository interface: the named methods are answered by
+     * the given functions of their arguments, anything else throws. Keeps benchmarks free of mocking
+     * frameworks, whose per-call bookkeeping would dominate the measured code.
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> T repository(Class<T> type, Map<String, Function<Object[], Object>> methods) {
+        return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] {type}, (proxy, method, args) -> {
+            Function<Object[], Object> answer = methods.get(method.getName());
+            if (answer != null) {
+                return answer.apply(args);
+            }
+            return switch (method.getName()) {
+                case "toString" -> type.getSimpleName() + "(benchmark)";
+                case "hashCode" -> System.identityHashCode(proxy);
+                case "equals" -> proxy == args[0];
+                default -> throw new UnsupportedOperationException(type.getSimpleName() + "." + method.getName());
+            };
+        });
+    }
+
+    private static Permission permission(Node node, String authority, AuthorityType authorityType,
+                                         PermissionType type, boolean allowed) {
+        Permission permission = new Permission();
+        permission.setNode(node);
+        permission.setAuthority(authority);
+        permission.setAuthorityType(authorityType);
+        permission.setPermission(type);
+        permission.setAllowed(allowed);
+        return permission;
+    }
+
+    private static UUID uuid(long value) {
+        return new UUID(SEED, value);
+    }
+}
@@ -0,0 +1,101 @@
+package com.ecm.core.preview;
+
+import com.ecm.core.benchmark.BenchmarkData;
+import com.ecm.core.entity.Document;
+import com.ecm.core.entity.Node;
+import com.ecm.core.entity.Permission.PermissionType;
+import com.ecm.core.service.ContentService;
+import com.ecm.core.service.SecurityService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Uncached {@code PreviewService.generateThumbnail} at the default 200x200 size: decode and scale a
+ * PNG (800x600 or 4000x3000), render the first page of a 10-page PDF, or draw the placeholder used
+ * for office files. Content comes from memory and the permission check always passes.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+public class ThumbnailBenchmark {
+
+    @Param({"IMAGE_SMALL", "IMAGE_LARGE", "PDF", "OFFICE"})
+    public String source;
+
+    private PreviewService previewService;
+    private Document document;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        byte[] content;
+        document = new Document();
+        document.setId(UUID.randomUUID());
+        document.setContentId("20240101000000_thumbnail");
+        switch (source) {
+            case "IMAGE_SMALL" -> {
+                content = BenchmarkData.png(800, 600);
+                document.setName("photo.png");
+                document.setMimeType("image/png");
+            }
+            case "IMAGE_LARGE" -> {
+                content = BenchmarkData.png(4000, 3000);
+                document.setName("scan.png");
+                document.setMimeType("image/png");
+            }
+            case "PDF" -> {
+                content = BenchmarkData.pdf(10);
+                document.setName("contract.pdf");
+                document.setMimeType("application/pdf");
+            }
+            case "OFFICE" -> {
+                content = BenchmarkData.content(64 * 1024, BenchmarkData.SEED);
+                document.setName("minutes.docx");
+                document.setMimeType("application/vnd.openxmlformats-officedocument.wordprocessingml.document");
+            }
+            default -> throw new IllegalArgumentException("Unknown source: " + source);
+        }
+
+        ContentService contentService = new ContentService(null, null, null, null, null) {
+            @Override
+            public InputStream getContent(String contentId) {
+                return new ByteArrayInputStream(content);
+            }
+        };
+        SecurityService securityService = new SecurityService(null, null, null, null, null, null, null) {
+            @Override
+            public boolean hasPermission(Node node, PermissionType permissionType) {
+                return true;
+            }
+        };
+        previewService = new PreviewService(contentService, securityService, new SimpleMeterRegistry(),
+            null, null, null, null, null, null);
+        ReflectionTestUtils.setField(previewService, "thumbnailWidth", 200);
+        ReflectionTestUtils.setField(previewService, "thumbnailHeight", 200);
+    }
+
+    @Benchmark
+    public byte[] generateThumbnail() throws IOException {
+        return previewService.generateThumbnail(document);
+    }
+}
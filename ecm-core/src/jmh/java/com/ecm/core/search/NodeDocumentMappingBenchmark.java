@@ -0,0 +1,59 @@
+package com.ecm.core.search;
+
+import com.ecm.core.benchmark.BenchmarkData;
+import com.ecm.core.entity.Document;
+import com.ecm.core.entity.Folder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link NodeDocument#fromNode} for a document with {@code metadataEntries} metadata and property
+ * values and {@code tags} tags, as run for every node in a reindex, and for its parent folder.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class NodeDocumentMappingBenchmark {
+
+    @Param({"5", "100"})
+    public int metadataEntries;
+
+    @Param({"0", "25"})
+    public int tags;
+
+    private Document document;
+    private Folder folder;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        List<Folder> chain = BenchmarkData.folderChain(6);
+        folder = chain.get(chain.size() - 1);
+        document = BenchmarkData.document(folder, metadataEntries, tags, 64 * 1024);
+    }
+
+    @Benchmark
+    public NodeDocument mapDocument() {
+        return NodeDocument.fromNode(document);
+    }
+
+    @Benchmark
+    public NodeDocument mapFolder() {
+        return NodeDocument.fromNode(folder);
+    }
+}
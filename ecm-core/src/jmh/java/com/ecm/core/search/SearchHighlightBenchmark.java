@@ -0,0 +1,81 @@
+package com.ecm.core.search;
+
+import com.ecm.core.benchmark.BenchmarkData;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link SearchHighlightHelper} on the highlight map of one search hit: {@code fields} highlighted
+ * fields, each with three fragments of {@code fragmentChars} characters carrying {@code <em>} marks
+ * and stray markup. Runs once per hit on every results page.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SearchHighlightBenchmark {
+
+    private static final List<String> FIELDS = List.of(
+        "name", "description", "content", "textContent", "extractedText", "title", "tags", "categories",
+        "correspondent", "customerReference"
+    );
+
+    @Param({"2", "10"})
+    public int fields;
+
+    @Param({"150", "1000"})
+    public int fragmentChars;
+
+    private Map<String, List<String>> highlights;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        highlights = new LinkedHashMap<>();
+        for (int f = 0; f < fields; f++) {
+            List<String> fragments = new ArrayList<>(3);
+            for (int i = 0; i < 3; i++) {
+                fragments.add(fragment(BenchmarkData.SEED + f * 3L + i));
+            }
+            highlights.put(FIELDS.get(f), fragments);
+        }
+    }
+
+    @Benchmark
+    public List<String> resolveMatchFields() {
+        return SearchHighlightHelper.resolveMatchFields(highlights);
+    }
+
+    @Benchmark
+    public String resolveHighlightSummary() {
+        return SearchHighlightHelper.resolveHighlightSummary(highlights);
+    }
+
+    private String fragment(long seed) {
+        String text = BenchmarkData.text(fragmentChars, seed).replace('\n', ' ');
+        int mark = text.indexOf(' ', text.length() / 3);
+        int end = mark < 0 ? -1 : text.indexOf(' ', mark + 1);
+        if (end < 0) {
+            return "<p>" + text + "</p>";
+        }
+        return "<p>" + text.substring(0, mark + 1) + "<em>" + text.substring(mark + 1, end) + "</em>"
+            + text.substring(end) + "&nbsp;<span class=\"hl\">...</span></p>";
+    }
+}
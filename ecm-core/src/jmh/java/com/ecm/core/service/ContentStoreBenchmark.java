@@ -0,0 +1,107 @@
+package com.ecm.core.service;
+
+import com.ecm.core.benchmark.BenchmarkData;
+import com.ecm.core.entity.Document;
+import com.ecm.core.repository.DocumentRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Store throughput of {@code ContentService.storeContentWithHash}: SHA-256 while copying to a temp
+ * file, the dedup lookup, and the move into the dated storage tree, for {@code sizeKb} of
+ * incompressible content. {@code storeNew} changes the first bytes every call so the hash never
+ * matches; {@code storeDuplicate} always hits the dedup path. Multiply ops/s by the size for bytes/s.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ContentStoreBenchmark {
+
+    @Param({"4", "256", "4096"})
+    public int sizeKb;
+
+    private Path storageRoot;
+    private ContentService newContent;
+    private ContentService duplicateContent;
+    private byte[] content;
+    private long counter;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        storageRoot = Files.createTempDirectory("ecm-content-bench");
+        content = BenchmarkData.content(sizeKb * 1024, BenchmarkData.SEED);
+
+        Document existing = new Document();
+        existing.setContentId("20240101000000_existing");
+        newContent = contentService(Optional.empty());
+        duplicateContent = contentService(Optional.of(existing));
+    }
+
+    @TearDown(Level.Iteration)
+    public void clearStorage() throws IOException {
+        try (var years = Files.list(storageRoot.resolve("store"))) {
+            for (Path year : years.toList()) {
+                FileSystemUtils.deleteRecursively(year);
+            }
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        FileSystemUtils.deleteRecursively(storageRoot);
+    }
+
+    @Benchmark
+    public ContentService.StoredContent storeNew() throws IOException {
+        long next = ++counter;
+        for (int i = 0; i < Long.BYTES && i < content.length; i++) {
+            content[i] = (byte) (next >>> (i * 8));
+        }
+        return newContent.storeContentWithHash(new ByteArrayInputStream(content), "upload.bin");
+    }
+
+    @Benchmark
+    public ContentService.StoredContent storeDuplicate() throws IOException {
+        return duplicateContent.storeContentWithHash(new ByteArrayInputStream(content), "upload.bin");
+    }
+
+    private ContentService contentService(Optional<Document> byHash) throws IOException {
+        DocumentRepository documents = BenchmarkData.repository(DocumentRepository.class, Map.of(
+            "findByContentHash", args -> byHash));
+        TenantQuotaService noQuota = new TenantQuotaService(null, null, null, null) {
+            @Override
+            public void assertQuotaAvailable(long additionalBytes) {
+            }
+        };
+        ContentService service = new ContentService(documents, null, noQuota, null, null);
+        ReflectionTestUtils.setField(service, "rootPath",
+            Files.createDirectories(storageRoot.resolve("store")).toString());
+        ReflectionTestUtils.setField(service, "tempPath",
+            Files.createDirectories(storageRoot.resolve("tmp")).toString());
+        return service;
+    }
+}
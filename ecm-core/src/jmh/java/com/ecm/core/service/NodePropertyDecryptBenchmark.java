@@ -0,0 +1,109 @@
+package com.ecm.core.service;
+
+import com.ecm.core.entity.ContentModelDefinition;
+import com.ecm.core.entity.Document;
+import com.ecm.core.entity.PropertyDefinition;
+import com.ecm.core.entity.TypeDefinition;
+import com.ecm.core.security.secret.SecretCryptoProperties;
+import com.ecm.core.security.secret.SecretCryptoService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of resolving the readable properties of one node with {@code encryptedProperties} protected
+ * values: decrypting on every read versus answering from the decrypted property cache.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class NodePropertyDecryptBenchmark {
+
+    private static final String KEY_V1 = "MDEyMzQ1Njc4OWFiY2RlZjAxMjM0NTY3ODlhYmNkZWY=";
+    private static final String TYPE = "bench:record";
+
+    @Param({"1", "5", "20"})
+    public int encryptedProperties;
+
+    private NodePropertyEncryptionService uncached;
+    private NodePropertyEncryptionService cached;
+    private Document document;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        SecretCryptoProperties cryptoProperties = new SecretCryptoProperties();
+        cryptoProperties.setEnabled(true);
+        cryptoProperties.setActiveKeyVersion("v1");
+        cryptoProperties.setKeys(Map.of("v1", KEY_V1));
+        SecretCryptoService crypto = new SecretCryptoService(cryptoProperties);
+
+        List<PropertyDefinition> definitions = new ArrayList<>();
+        Map<String, Object> plain = new HashMap<>();
+        for (int i = 0; i < encryptedProperties; i++) {
+            definitions.add(encryptedDefinition("secret" + i));
+            plain.put("bench:secret" + i, "value-" + i + "-" + UUID.randomUUID());
+        }
+        DictionaryService dictionary = new DictionaryService(null, null, null, null) {
+            @Override
+            public List<PropertyDefinition> getPropertiesForType(String qualifiedName) {
+                return definitions;
+            }
+        };
+
+        uncached = new NodePropertyEncryptionService(dictionary, crypto, new ObjectMapper());
+        cached = new NodePropertyEncryptionService(dictionary, crypto, new ObjectMapper());
+        cached.initDecryptedPropertyCache();
+
+        document = new Document();
+        document.setId(UUID.randomUUID());
+        document.setEntityVersion(1L);
+        document.setTypeQName(TYPE);
+        document.setProperties(new LinkedHashMap<>(plain));
+        uncached.prepareForPersistence(document);
+    }
+
+    @Benchmark
+    public Map<String, Object> decryptEveryRead() {
+        return uncached.resolveReadableProperties(document);
+    }
+
+    @Benchmark
+    public Map<String, Object> decryptedPropertyCache() {
+        return cached.resolveReadableProperties(document);
+    }
+
+    private static PropertyDefinition encryptedDefinition(String name) {
+        ContentModelDefinition model = new ContentModelDefinition();
+        model.setPrefix("bench");
+        TypeDefinition type = new TypeDefinition();
+        type.setName("record");
+        type.setModel(model);
+
+        PropertyDefinition definition = new PropertyDefinition();
+        definition.setName(name);
+        definition.setEncrypted(true);
+        definition.setTypeDefinition(type);
+        return definition;
+    }
+}
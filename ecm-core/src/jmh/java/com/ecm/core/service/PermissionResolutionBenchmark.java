@@ -0,0 +1,85 @@
+package com.ecm.core.service;
+
+import com.ecm.core.benchmark.BenchmarkData;
+import com.ecm.core.entity.Folder;
+import com.ecm.core.entity.Permission;
+import com.ecm.core.entity.Permission.PermissionType;
+import com.ecm.core.entity.User;
+import com.ecm.core.repository.PermissionRepository;
+import com.ecm.core.repository.UserRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Uncached ACL resolution in {@code SecurityService.hasPermission}: role lookup, authority set
+ * construction and the inheritance walk from a leaf folder to the root, over synthetic trees of
+ * {@code depth} folders with {@code aclsPerNode} entries each. Repositories answer from memory, so
+ * this is the CPU cost on top of the per-level permission queries, not the queries themselves.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PermissionResolutionBenchmark {
+
+    private static final String USERNAME = "bench-user";
+    private static final String GRANTED_GROUP = "GROUP_finance";
+
+    @Param({"1", "5", "15"})
+    public int depth;
+
+    @Param({"2", "10", "50"})
+    public int aclsPerNode;
+
+    private SecurityService securityService;
+    private Folder leaf;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        List<Folder> chain = BenchmarkData.folderChain(depth);
+        Map<UUID, List<Permission>> acls = BenchmarkData.acls(chain, aclsPerNode, GRANTED_GROUP);
+        User user = BenchmarkData.user(USERNAME, GRANTED_GROUP, 8);
+
+        UserRepository users = BenchmarkData.repository(UserRepository.class, Map.of(
+            "findByUsername", args -> USERNAME.equals(args[0]) ? Optional.of(user) : Optional.empty()));
+        PermissionRepository permissions = BenchmarkData.repository(PermissionRepository.class, Map.of(
+            "findByNodeId", args -> acls.getOrDefault((UUID) args[0], List.of())));
+
+        securityService = new SecurityService(users, null, null, permissions, null, new ArrayList<>(), null);
+        leaf = chain.get(chain.size() - 1);
+    }
+
+    @Benchmark
+    public boolean grantInheritedFromRoot() {
+        return securityService.hasPermission(leaf, PermissionType.READ, USERNAME);
+    }
+
+    @Benchmark
+    public boolean noMatchingEntry() {
+        return securityService.hasPermission(leaf, PermissionType.APPROVE, USERNAME);
+    }
+
+    @Benchmark
+    public Object explainPermission() {
+        return securityService.explainPermission(leaf, PermissionType.READ, USERNAME);
+    }
+}
@@ -0,0 +1,86 @@
+package com.ecm.core.service;
+
+import com.ecm.core.benchmark.BenchmarkData;
+import com.ecm.core.entity.Document;
+import com.ecm.core.entity.RuleCondition;
+import com.ecm.core.entity.RuleCondition.ConditionType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@code RuleEngineService.evaluateCondition} for condition shapes seen in automation rules: a single
+ * field comparison, a nested AND/OR/NOT tree over name, extension, size, tags and metadata, a regex
+ * on the name, and a substring scan of the extracted text ({@code textKb} of it).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RuleConditionBenchmark {
+
+    @Param({"SIMPLE", "NESTED", "REGEX", "CONTENT_SCAN"})
+    public String shape;
+
+    @Param({"4", "256"})
+    public int textKb;
+
+    private RuleEngineService ruleEngine;
+    private RuleCondition condition;
+    private Document document;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        ruleEngine = new RuleEngineService(null, null, null, null, null, null);
+        document = BenchmarkData.document(BenchmarkData.folderChain(3).get(2), 20, 8, textKb * 1024);
+        condition = switch (shape) {
+            case "SIMPLE" -> simple("mimeType", "equals", "application/pdf");
+            case "NESTED" -> composite(ConditionType.AND,
+                composite(ConditionType.OR,
+                    simple("name", "contains", "agreement"),
+                    simple("extension", "in", List.of("docx", "pdf", "xlsx"))),
+                simple("size", "lt", 50_000_000),
+                simple("tags", "contains", "tag-5"),
+                simple("metadata.department", "equals", "Finance"),
+                composite(ConditionType.NOT, simple("createdBy", "equals", "system")));
+            case "REGEX" -> simple("name", "regex", "(?i)^supplier\\s+agreement\\s+\\d{4}-\\d+\\.pdf$");
+            case "CONTENT_SCAN" -> simple("content", "contains", "termination for convenience");
+            default -> throw new IllegalArgumentException("Unknown shape: " + shape);
+        };
+    }
+
+    @Benchmark
+    public boolean evaluateCondition() {
+        return ruleEngine.evaluateCondition(condition, document);
+    }
+
+    private static RuleCondition simple(String field, String operator, Object value) {
+        return RuleCondition.builder()
+            .type(ConditionType.SIMPLE)
+            .field(field)
+            .operator(operator)
+            .value(value)
+            .build();
+    }
+
+    private static RuleCondition composite(ConditionType type, RuleCondition... children) {
+        return RuleCondition.builder()
+            .type(type)
+            .children(List.of(children))
+            .build();
+    }
+}
@@ -0,0 +1,53 @@
+package com.ecm.core.util;
+
+import com.ecm.core.benchmark.BenchmarkData;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link LineDiffUtils#diff} between two versions of a text file of about {@code lines} lines where
+ * {@code changedPercent} of the lines were rewritten, inserted or removed, with the version compare
+ * endpoint's character limit.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LineDiffBenchmark {
+
+    private static final int MAX_CHARS = 400_000;
+
+    @Param({"100", "1000", "5000"})
+    public int lines;
+
+    @Param({"1", "20"})
+    public int changedPercent;
+
+    private String from;
+    private String to;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        from = BenchmarkData.text(lines * 80, BenchmarkData.SEED);
+        to = BenchmarkData.edit(from, changedPercent, BenchmarkData.SEED + changedPercent);
+    }
+
+    @Benchmark
+    public LineDiffUtils.DiffOutput diff() {
+        return LineDiffUtils.diff(from, to, lines * 2, MAX_CHARS);
+    }
+}
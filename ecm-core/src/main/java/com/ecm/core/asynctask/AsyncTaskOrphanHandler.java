@@ -0,0 +1,23 @@
+package com.ecm.core.asynctask;
+
+/**
+ * Takes over tasks of one domain whose owning node stopped renewing its lease. Called by
+ * {@link ClusterAsyncTaskStore} after this node has claimed the task.
+ */
+public interface AsyncTaskOrphanHandler {
+
+    /**
+     * Domain key the handler is responsible for, as passed to {@link ClusterAsyncTaskStore}.
+     */
+    String orphanDomain();
+
+    /**
+     * Restart or otherwise finish the claimed task.
+     */
+    void resumeOrphan(String taskId);
+
+    /**
+     * Give up on a task that has already been recovered too many times.
+     */
+    void abandonOrphan(String taskId, String reason);
+}
@@ -0,0 +1,186 @@
+package com.ecm.core.asynctask;
+
+import java.time.LocalDateTime;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Task-id keyed map over one {@link ClusterAsyncTaskStore} domain, for callers that keep their
+ * async tasks in a plain map. While the store is enabled every operation reads or writes the shared
+ * rows, so a task started on one node can be polled, cancelled, downloaded and trimmed from any
+ * other; otherwise the tasks stay in a local map. {@link #computeIfPresent} goes through
+ * {@link ClusterAsyncTaskStore#update}, so its remapping function may run again when two nodes race
+ * on the same task. Views returned by {@link #entrySet()} are snapshots.
+ *
+ * <p>Register the map with {@link ClusterAsyncTaskStore#registerOrphanHandler} when its tasks can
+ * be leased; orphans are passed through the {@code abandon} function.
+ */
+public class ClusterAsyncTaskMap<V> extends AbstractMap<String, V> implements AsyncTaskOrphanHandler {
+
+    private final Supplier<ClusterAsyncTaskStore> store;
+    private final String domain;
+    private final Class<V> type;
+    private final Function<V, ClusterAsyncTaskStore.TaskState> stateOf;
+    private final BiFunction<V, String, V> abandon;
+    private final Map<String, V> local = new ConcurrentHashMap<>();
+
+    public ClusterAsyncTaskMap(Supplier<ClusterAsyncTaskStore> store,
+                               String domain,
+                               Class<V> type,
+                               Function<V, ClusterAsyncTaskStore.TaskState> stateOf,
+                               BiFunction<V, String, V> abandon) {
+        this.store = store;
+        this.domain = domain;
+        this.type = type;
+        this.stateOf = stateOf;
+        this.abandon = abandon;
+    }
+
+    @Override
+    public V get(Object key) {
+        if (!(key instanceof String taskId)) {
+            return null;
+        }
+        ClusterAsyncTaskStore shared = shared();
+        return shared != null ? shared.find(domain, taskId, type).orElse(null) : local.get(taskId);
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return get(key) != null;
+    }
+
+    /**
+     * Stores a new task. Unlike a plain map, an existing shared task is not replaced; use
+     * {@link #computeIfPresent} to change it.
+     */
+    @Override
+    public V put(String taskId, V task) {
+        ClusterAsyncTaskStore shared = shared();
+        if (shared == null) {
+            return local.put(taskId, task);
+        }
+        shared.create(domain, taskId, stateOf.apply(task), task);
+        return null;
+    }
+
+    @Override
+    public V computeIfPresent(String taskId, BiFunction<? super String, ? super V, ? extends V> remapping) {
+        ClusterAsyncTaskStore shared = shared();
+        if (shared == null) {
+            return local.computeIfPresent(taskId, remapping);
+        }
+        return shared.update(domain, taskId, type, current -> remapping.apply(taskId, current), stateOf);
+    }
+
+    @Override
+    public V remove(Object key) {
+        if (!(key instanceof String taskId)) {
+            return null;
+        }
+        ClusterAsyncTaskStore shared = shared();
+        if (shared == null) {
+            return local.remove(taskId);
+        }
+        V current = shared.find(domain, taskId, type).orElse(null);
+        return current != null && shared.delete(domain, taskId) ? current : null;
+    }
+
+    /**
+     * Removes the task only while it is still stored as {@code expected}, as
+     * {@link java.util.concurrent.ConcurrentMap#remove(Object, Object)} does.
+     */
+    @Override
+    public boolean remove(Object key, Object expected) {
+        if (!(key instanceof String taskId) || expected == null) {
+            return false;
+        }
+        ClusterAsyncTaskStore shared = shared();
+        return shared != null ? shared.delete(domain, taskId, expected) : local.remove(taskId, expected);
+    }
+
+    @Override
+    public int size() {
+        ClusterAsyncTaskStore shared = shared();
+        if (shared == null) {
+            return local.size();
+        }
+        long total = 0L;
+        for (Long count : shared.countByStatus(domain).values()) {
+            total += count;
+        }
+        return (int) total;
+    }
+
+    @Override
+    public Set<Entry<String, V>> entrySet() {
+        ClusterAsyncTaskStore shared = shared();
+        if (shared == null) {
+            return local.entrySet();
+        }
+        Set<Entry<String, V>> entries = new LinkedHashSet<>();
+        for (Map.Entry<String, V> entry : shared.listWithIds(domain, type).entrySet()) {
+            entries.add(new SimpleImmutableEntry<>(entry.getKey(), entry.getValue()));
+        }
+        return entries;
+    }
+
+    /**
+     * Rebuild a creation-ordered id deque from the shared rows, so tasks created on other nodes are
+     * listed and trimmed here too. Leaves the deque alone while the store is disabled.
+     */
+    public void syncOrder(Deque<String> order) {
+        ClusterAsyncTaskStore shared = shared();
+        if (shared == null) {
+            return;
+        }
+        List<Map.Entry<String, V>> entries = new ArrayList<>(shared.listWithIds(domain, type).entrySet());
+        Comparator<Map.Entry<String, V>> byCreation = Comparator.comparing(
+            entry -> stateOf.apply(entry.getValue()).createdAt(),
+            Comparator.nullsFirst(Comparator.<LocalDateTime>naturalOrder())
+        );
+        entries.sort(byCreation);
+        order.clear();
+        entries.forEach(entry -> order.addLast(entry.getKey()));
+    }
+
+    @Override
+    public String orphanDomain() {
+        return domain;
+    }
+
+    @Override
+    public void resumeOrphan(String taskId) {
+        abandonOrphan(taskId, "Task was interrupted by a node failure; start it again");
+    }
+
+    @Override
+    public void abandonOrphan(String taskId, String reason) {
+        computeIfPresent(taskId, (key, current) -> abandon.apply(current, reason));
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        return this == other;
+    }
+
+    @Override
+    public int hashCode() {
+        return System.identityHashCode(this);
+    }
+
+    private ClusterAsyncTaskStore shared() {
+        ClusterAsyncTaskStore shared = store.get();
+        return shared != null && shared.isEnabled() ? shared : null;
+    }
+}
@@ -0,0 +1,573 @@
+package com.ecm.core.asynctask;
+
+import com.ecm.core.entity.AsyncTaskRecord;
+import com.ecm.core.repository.AsyncTaskRecordRepository;
+import com.ecm.core.service.ContentService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetAddress;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.function.UnaryOperator;
+
+/**
+ * PostgreSQL-backed task state shared by all nodes, used by the async task registries when
+ * {@code ecm.async-tasks.cluster.enabled} is set.
+ *
+ * <p>Each task is one {@code async_task_records} row holding the registry's task object as JSON.
+ * Updates are read-modify-write under optimistic locking, so a cancel issued on one node and a
+ * progress update from the node running the task cannot lose each other. Active tasks are leased
+ * to the node that runs them and the lease is renewed by {@link #heartbeat()}; when a node dies,
+ * {@link #recoverOrphans()} on another node claims its tasks and hands them to the domain's
+ * {@link AsyncTaskOrphanHandler}. Every lease grant carries a fresh token; writes from the node
+ * that holds a lease ({@link #update}, {@link #storeArtifact}, {@link #deleteArtifact}) first check
+ * that the row still carries its owner and token, so a node that stalled past its lease cannot
+ * overwrite the task after another node took it over. Writes from nodes that never leased the task,
+ * such as a cancel issued elsewhere, are not fenced. Lease times come from the database clock
+ * ({@code LOCALTIMESTAMP}), so clock skew between nodes cannot expire a live lease early. Result
+ * artifacts go to the content store so every node can serve the download.
+ */
+@Slf4j
+@Service
+public class ClusterAsyncTaskStore {
+
+    private static final int MAX_UPDATE_ATTEMPTS = 5;
+    private static final int MAX_RECENT_READS = 1_000;
+
+    private final AsyncTaskRecordRepository repository;
+    private final ContentService contentService;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectProvider<AsyncTaskOrphanHandler> orphanHandlers;
+    private final Map<String, RecentRead> recentReads = new ConcurrentHashMap<>();
+    private final Map<String, Long> lastProgressWrites = new ConcurrentHashMap<>();
+    /** Lease tokens granted to this node, by task key. Kept after a lost lease so later writes stay fenced. */
+    private final Map<String, String> heldLeases = new ConcurrentHashMap<>();
+    private final Map<String, AsyncTaskOrphanHandler> registeredOrphanHandlers = new ConcurrentHashMap<>();
+
+    @Value("${ecm.async-tasks.cluster.enabled:false}")
+    private boolean enabled = false;
+
+    @Value("${ecm.async-tasks.cluster.node-id:}")
+    private String configuredNodeId = "";
+
+    @Value("${ecm.async-tasks.cluster.lease-ms:60000}")
+    private long leaseMs = 60_000L;
+
+    @Value("${ecm.async-tasks.cluster.max-recovery-attempts:3}")
+    private int maxRecoveryAttempts = 3;
+
+    @Value("${ecm.async-tasks.cluster.orphan-batch-size:20}")
+    private int orphanBatchSize = 20;
+
+    @Value("${ecm.async-tasks.cluster.progress-write-interval-ms:1000}")
+    private long progressWriteIntervalMs = 1_000L;
+
+    private volatile String nodeId;
+
+    public ClusterAsyncTaskStore(AsyncTaskRecordRepository repository,
+                                 ContentService contentService,
+                                 ObjectMapper objectMapper,
+                                 PlatformTransactionManager transactionManager,
+                                 ObjectProvider<AsyncTaskOrphanHandler> orphanHandlers) {
+        this.repository = repository;
+        this.contentService = contentService;
+        this.objectMapper = objectMapper.copy().configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.orphanHandlers = orphanHandlers;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Identity used for leases. The generated default includes a random suffix so a restarted node
+     * never mistakes the leases of its previous incarnation for live work.
+     */
+    public String nodeId() {
+        String current = nodeId;
+        if (current == null) {
+            current = configuredNodeId != null && !configuredNodeId.isBlank()
+                ? configuredNodeId.trim()
+                : defaultNodeId();
+            nodeId = current;
+        }
+        return current;
+    }
+
+    /**
+     * Persist a new task. Active tasks are leased to this node, which is expected to run them.
+     */
+    public <T> void create(String domain, String taskId, TaskState state, T task) {
+        LocalDateTime now = databaseNow();
+        AsyncTaskRecord record = new AsyncTaskRecord();
+        record.setDomain(domain);
+        record.setTaskId(taskId);
+        record.setStatus(state.status());
+        record.setActive(state.active());
+        record.setCreatedBy(state.createdBy());
+        record.setCreatedAt(state.createdAt() != null ? state.createdAt() : now);
+        record.setCompletedAt(state.completedAt());
+        record.setTransitionedAt(now);
+        record.setUpdatedAt(now);
+        record.setPayload(write(task));
+        if (state.active()) {
+            lease(record, now);
+        }
+        repository.save(record);
+    }
+
+    public <T> Optional<T> find(String domain, String taskId, Class<T> type) {
+        Optional<T> task = repository.findByDomainAndTaskId(domain, taskId)
+            .map(record -> read(record.getPayload(), type));
+        remember(domain, taskId, task);
+        return task;
+    }
+
+    /**
+     * Like {@link #find} but may answer from a read made within the progress write interval. Meant
+     * for per-item cancellation checks inside a running task.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> Optional<T> findRecent(String domain, String taskId, Class<T> type) {
+        RecentRead recent = recentReads.get(key(domain, taskId));
+        if (recent != null && System.currentTimeMillis() - recent.readAtMillis() < progressWriteIntervalMs) {
+            return (Optional<T>) recent.task();
+        }
+        return find(domain, taskId, type);
+    }
+
+    /**
+     * Apply {@code updater} to the stored task and write the result back, retrying on concurrent
+     * modification. Returns the stored task unchanged when the updater returns its argument, and
+     * {@code null} when the task does not exist or this node lost its lease on it.
+     */
+    public <T> T update(String domain,
+                        String taskId,
+                        Class<T> type,
+                        UnaryOperator<T> updater,
+                        Function<T, TaskState> stateOf) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                T updated = transactionTemplate.execute(status -> {
+                    AsyncTaskRecord record = repository.findByDomainAndTaskId(domain, taskId).orElse(null);
+                    if (record == null) {
+                        return null;
+                    }
+                    T current = read(record.getPayload(), type);
+                    T next = updater.apply(current);
+                    if (next == null || next == current) {
+                        return current;
+                    }
+                    LocalDateTime now = databaseNow();
+                    if (!fence(record, now)) {
+                        return null;
+                    }
+                    apply(record, stateOf.apply(next), now);
+                    record.setPayload(write(next));
+                    return next;
+                });
+                recentReads.remove(key(domain, taskId));
+                return updated;
+            } catch (OptimisticLockingFailureException e) {
+                if (attempt >= MAX_UPDATE_ATTEMPTS) {
+                    throw e;
+                }
+                log.debug("Concurrent update of async task {}/{}, retrying (attempt {})", domain, taskId, attempt);
+            }
+        }
+    }
+
+    /**
+     * All tasks of the domain, oldest transition first. Rows whose payload cannot be decoded are
+     * skipped.
+     */
+    public <T> List<T> list(String domain, Class<T> type) {
+        return new ArrayList<>(listWithIds(domain, type).values());
+    }
+
+    /**
+     * Like {@link #list} but keyed by task id, for task types that do not carry their own id.
+     */
+    public <T> Map<String, T> listWithIds(String domain, Class<T> type) {
+        Map<String, T> tasks = new LinkedHashMap<>();
+        for (AsyncTaskRecord record : repository.findByDomainOrderByTransitionedAtAscCreatedAtAsc(domain)) {
+            try {
+                tasks.put(record.getTaskId(), read(record.getPayload(), type));
+            } catch (IllegalStateException e) {
+                log.warn("Skipping unreadable async task {}/{}: {}", domain, record.getTaskId(), e.getMessage());
+            }
+        }
+        return tasks;
+    }
+
+    public Map<String, Long> countByStatus(String domain) {
+        Map<String, Long> counts = new LinkedHashMap<>();
+        for (Object[] row : repository.countByDomainGroupByStatus(domain)) {
+            counts.put((String) row[0], ((Number) row[1]).longValue());
+        }
+        return counts;
+    }
+
+    /**
+     * Remove the task and its artifact. Returns {@code false} when it was already gone or changed
+     * concurrently.
+     */
+    public boolean delete(String domain, String taskId) {
+        return deleteRecord(domain, taskId, repository.findByDomainAndTaskId(domain, taskId));
+    }
+
+    /**
+     * Like {@link #delete(String, String)} but only while the stored task still equals
+     * {@code expected}, compared by its JSON form.
+     */
+    public boolean delete(String domain, String taskId, Object expected) {
+        String expectedPayload = write(expected);
+        return deleteRecord(domain, taskId, repository.findByDomainAndTaskId(domain, taskId)
+            .filter(record -> expectedPayload.equals(record.getPayload())));
+    }
+
+    /**
+     * Register an orphan handler that is not a bean, such as a {@link ClusterAsyncTaskMap}. Bean
+     * handlers take precedence for the same domain.
+     */
+    public void registerOrphanHandler(AsyncTaskOrphanHandler handler) {
+        registeredOrphanHandlers.putIfAbsent(handler.orphanDomain(), handler);
+    }
+
+    private boolean deleteRecord(String domain, String taskId, Optional<AsyncTaskRecord> record) {
+        if (record.isEmpty()) {
+            return false;
+        }
+        try {
+            repository.delete(record.get());
+        } catch (OptimisticLockingFailureException e) {
+            log.debug("Async task {}/{} changed while being deleted", domain, taskId);
+            return false;
+        }
+        recentReads.remove(key(domain, taskId));
+        lastProgressWrites.remove(key(domain, taskId));
+        heldLeases.remove(key(domain, taskId));
+        deleteContentQuietly(record.get().getArtifactContentId());
+        return true;
+    }
+
+    /**
+     * Copy a locally produced result into the content store and attach it to the task, deleting the
+     * artifact it replaces. Returns {@code null} (and discards the copy) when the task no longer
+     * exists or this node lost its lease on it.
+     */
+    public StoredArtifact storeArtifact(String domain,
+                                        String taskId,
+                                        Path file,
+                                        String filename,
+                                        String contentType) throws IOException {
+        return storeArtifact(domain, taskId, Files.newInputStream(file), Files.size(file), filename, contentType);
+    }
+
+    public StoredArtifact storeArtifact(String domain,
+                                        String taskId,
+                                        byte[] content,
+                                        String filename,
+                                        String contentType) throws IOException {
+        return storeArtifact(domain, taskId, new ByteArrayInputStream(content), content.length, filename, contentType);
+    }
+
+    public Optional<StoredArtifact> artifact(String domain, String taskId) {
+        return repository.findByDomainAndTaskId(domain, taskId)
+            .filter(record -> record.getArtifactContentId() != null)
+            .map(record -> new StoredArtifact(
+                record.getArtifactContentId(),
+                record.getArtifactContentType(),
+                record.getArtifactSizeBytes() != null ? record.getArtifactSizeBytes() : -1L
+            ));
+    }
+
+    public InputStream openArtifact(StoredArtifact artifact) throws IOException {
+        return contentService.getContent(artifact.contentId());
+    }
+
+    public void deleteArtifact(String domain, String taskId) {
+        if (artifact(domain, taskId).isEmpty()) {
+            return;
+        }
+        String detached = transactionTemplate.execute(status -> repository.findByDomainAndTaskId(domain, taskId)
+            .filter(record -> fence(record, databaseNow()))
+            .map(record -> {
+                String contentId = record.getArtifactContentId();
+                record.setArtifactContentId(null);
+                record.setArtifactContentType(null);
+                record.setArtifactSizeBytes(null);
+                return contentId;
+            })
+            .orElse(null));
+        deleteContentQuietly(detached);
+    }
+
+    /**
+     * Whether a progress write for the task is due; answers {@code true} at most once per
+     * {@code progress-write-interval-ms} so hot loops do not turn every item into a database write.
+     */
+    public boolean progressWriteDue(String domain, String taskId) {
+        long now = System.currentTimeMillis();
+        boolean[] due = new boolean[1];
+        lastProgressWrites.compute(key(domain, taskId), (key, last) -> {
+            if (last == null || now - last >= progressWriteIntervalMs) {
+                due[0] = true;
+                return now;
+            }
+            return last;
+        });
+        return due[0];
+    }
+
+    /**
+     * Publish side-channel progress for the task, throttled like {@link #progressWriteDue}.
+     */
+    public void recordProgress(String domain, String taskId, Object progress) {
+        if (!progressWriteDue(domain, taskId)) {
+            return;
+        }
+        String json = write(progress);
+        transactionTemplate.executeWithoutResult(status -> repository.updateProgress(domain, taskId, json));
+    }
+
+    public <T> Optional<T> findProgress(String domain, String taskId, Class<T> type) {
+        return repository.findByDomainAndTaskId(domain, taskId)
+            .map(AsyncTaskRecord::getProgress)
+            .map(json -> read(json, type));
+    }
+
+    @Scheduled(
+        fixedDelayString = "${ecm.async-tasks.cluster.heartbeat-interval-ms:15000}",
+        initialDelayString = "${ecm.async-tasks.cluster.heartbeat-interval-ms:15000}"
+    )
+    public void heartbeat() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            Integer renewed = transactionTemplate.execute(status -> repository.renewLeases(nodeId(), leaseMs));
+            if (renewed != null && renewed > 0) {
+                log.trace("Renewed {} async task lease(s) for node {}", renewed, nodeId());
+            }
+        } catch (RuntimeException e) {
+            log.warn("Async task lease renewal failed for node {}: {}", nodeId(), e.getMessage());
+        }
+    }
+
+    @Scheduled(
+        fixedDelayString = "${ecm.async-tasks.cluster.orphan-scan-interval-ms:30000}",
+        initialDelayString = "${ecm.async-tasks.cluster.orphan-scan-interval-ms:30000}"
+    )
+    public void recoverOrphans() {
+        if (!enabled) {
+            return;
+        }
+        List<AsyncTaskRecord> expired = repository.findExpiredLeases(Math.max(orphanBatchSize, 1));
+        if (expired.isEmpty()) {
+            return;
+        }
+        Map<String, AsyncTaskOrphanHandler> handlers = new LinkedHashMap<>();
+        orphanHandlers.orderedStream().forEach(handler -> handlers.putIfAbsent(handler.orphanDomain(), handler));
+        registeredOrphanHandlers.forEach(handlers::putIfAbsent);
+
+        for (AsyncTaskRecord record : expired) {
+            AsyncTaskOrphanHandler handler = handlers.get(record.getDomain());
+            if (handler == null) {
+                continue;
+            }
+            String token = UUID.randomUUID().toString();
+            Integer claimed = transactionTemplate.execute(status -> repository.claimExpiredLease(
+                record.getId(), nodeId(), token, leaseMs));
+            if (claimed == null || claimed == 0) {
+                continue;
+            }
+            heldLeases.put(key(record.getDomain(), record.getTaskId()), token);
+            recentReads.remove(key(record.getDomain(), record.getTaskId()));
+            int attempt = record.getRecoveryAttempts() + 1;
+            try {
+                if (attempt > maxRecoveryAttempts) {
+                    log.warn("Abandoning async task {}/{} after {} recovery attempts",
+                        record.getDomain(), record.getTaskId(), attempt - 1);
+                    handler.abandonOrphan(record.getTaskId(),
+                        "Task was interrupted by node failures " + (attempt - 1) + " times");
+                } else {
+                    log.warn("Recovering async task {}/{} left by node {} (attempt {})",
+                        record.getDomain(), record.getTaskId(), record.getOwnerNode(), attempt);
+                    handler.resumeOrphan(record.getTaskId());
+                }
+            } catch (RuntimeException e) {
+                log.warn("Recovery of async task {}/{} failed: {}", record.getDomain(), record.getTaskId(), e.getMessage());
+            }
+        }
+    }
+
+    private StoredArtifact storeArtifact(String domain,
+                                         String taskId,
+                                         InputStream content,
+                                         long sizeBytes,
+                                         String filename,
+                                         String contentType) throws IOException {
+        String contentId;
+        try (InputStream in = content) {
+            contentId = contentService.storeContent(in, filename);
+        }
+        StoredArtifact artifact = new StoredArtifact(contentId, contentType, sizeBytes);
+        Optional<String> replaced;
+        try {
+            replaced = transactionTemplate.execute(status -> repository.findByDomainAndTaskId(domain, taskId)
+                .filter(record -> fence(record, databaseNow()))
+                .map(record -> {
+                    String previous = record.getArtifactContentId();
+                    record.setArtifactContentId(artifact.contentId());
+                    record.setArtifactContentType(artifact.contentType());
+                    record.setArtifactSizeBytes(artifact.sizeBytes());
+                    return Optional.ofNullable(previous);
+                })
+                .orElse(null));
+        } catch (RuntimeException e) {
+            deleteContentQuietly(contentId);
+            throw e;
+        }
+        if (replaced == null) {
+            deleteContentQuietly(contentId);
+            return null;
+        }
+        replaced.filter(previous -> !previous.equals(contentId)).ifPresent(this::deleteContentQuietly);
+        return artifact;
+    }
+
+    /**
+     * For a task this node leased, lock the row and confirm the lease is still ours; tasks this node
+     * never leased pass unchecked. Runs inside the caller's transaction.
+     */
+    private boolean fence(AsyncTaskRecord record, LocalDateTime now) {
+        String token = heldLeases.get(key(record.getDomain(), record.getTaskId()));
+        if (token == null) {
+            return true;
+        }
+        if (repository.touchLease(record.getId(), nodeId(), token, now) == 0) {
+            log.warn("Dropping write to async task {}/{}: node {} no longer holds its lease (owner {})",
+                record.getDomain(), record.getTaskId(), nodeId(), record.getOwnerNode());
+            return false;
+        }
+        record.setHeartbeatAt(now);
+        return true;
+    }
+
+    private void apply(AsyncTaskRecord record, TaskState state, LocalDateTime now) {
+        if (record.isActive() && !state.active()) {
+            record.setTransitionedAt(now);
+            record.setOwnerNode(null);
+            record.setLeaseToken(null);
+            record.setLeaseExpiresAt(null);
+            heldLeases.remove(key(record.getDomain(), record.getTaskId()));
+        } else if (!record.isActive() && state.active()) {
+            lease(record, now);
+        }
+        record.setStatus(state.status());
+        record.setActive(state.active());
+        record.setCompletedAt(state.completedAt());
+        record.setUpdatedAt(now);
+    }
+
+    private void lease(AsyncTaskRecord record, LocalDateTime now) {
+        String token = UUID.randomUUID().toString();
+        heldLeases.put(key(record.getDomain(), record.getTaskId()), token);
+        record.setOwnerNode(nodeId());
+        record.setLeaseToken(token);
+        record.setHeartbeatAt(now);
+        record.setLeaseExpiresAt(now.plusNanos(leaseMs * 1_000_000L));
+    }
+
+    private LocalDateTime databaseNow() {
+        return repository.currentTimestamp().toLocalDateTime();
+    }
+
+    private void remember(String domain, String taskId, Optional<?> task) {
+        if (recentReads.size() >= MAX_RECENT_READS) {
+            recentReads.clear();
+        }
+        recentReads.put(key(domain, taskId), new RecentRead(task, System.currentTimeMillis()));
+    }
+
+    private void deleteContentQuietly(String contentId) {
+        if (contentId == null) {
+            return;
+        }
+        try {
+            contentService.deleteContent(contentId);
+        } catch (Exception e) {
+            log.warn("Failed to delete async task artifact {}: {}", contentId, e.getMessage());
+        }
+    }
+
+    private String write(Object value) {
+        try {
+            return objectMapper.writeValueAsString(value);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize async task state", e);
+        }
+    }
+
+    private <T> T read(String json, Class<T> type) {
+        try {
+            return objectMapper.readValue(json, type);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to read async task state as " + type.getSimpleName(), e);
+        }
+    }
+
+    private static String key(String domain, String taskId) {
+        return domain + '/' + taskId;
+    }
+
+    private static String defaultNodeId() {
+        String host;
+        try {
+            host = InetAddress.getLocalHost().getHostName();
+        } catch (Exception e) {
+            host = "node";
+        }
+        return host + "-" + UUID.randomUUID().toString().substring(0, 8);
+    }
+
+    /**
+     * Columns the store keeps next to the task JSON.
+     */
+    public record TaskState(
+        String status,
+        boolean active,
+        String createdBy,
+        LocalDateTime createdAt,
+        LocalDateTime completedAt
+    ) {}
+
+    public record StoredArtifact(String contentId, String contentType, long sizeBytes) {}
+
+    private record RecentRead(Optional<?> task, long readAtMillis) {}
+}
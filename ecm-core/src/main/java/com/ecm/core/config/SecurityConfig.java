@@ -106,6 +106,7 @@ public class SecurityConfig {
             "Link",
             "X-Total-Count",
             "X-Audit-Export-Count",
+            "X-Next-Cursor",
             "X-Tenant-ID"
         ));
         configuration.setMaxAge(3600L);
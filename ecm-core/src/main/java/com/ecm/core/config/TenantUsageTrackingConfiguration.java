@@ -0,0 +1,35 @@
+package com.ecm.core.config;
+
+import com.ecm.core.service.TenantUsageTracker;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Registers the tenant usage ledger listener with Hibernate so every document and version write
+ * records its storage delta in the same transaction.
+ */
+@Configuration
+@ConditionalOnProperty(name = "ecm.tenant.usage.ledger-enabled", havingValue = "true", matchIfMissing = true)
+public class TenantUsageTrackingConfiguration {
+
+    @Bean
+    public TenantUsageTracker tenantUsageTracker(
+        EntityManagerFactory entityManagerFactory,
+        @Value("${ecm.tenant.usage.root-cache-ttl-ms:60000}") long rootCacheTtlMs
+    ) {
+        TenantUsageTracker tracker = new TenantUsageTracker(rootCacheTtlMs);
+        EventListenerRegistry registry = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+            .getServiceRegistry()
+            .getService(EventListenerRegistry.class);
+        registry.appendListeners(EventType.PRE_INSERT, tracker);
+        registry.appendListeners(EventType.PRE_UPDATE, tracker);
+        registry.appendListeners(EventType.PRE_DELETE, tracker);
+        return tracker;
+    }
+}
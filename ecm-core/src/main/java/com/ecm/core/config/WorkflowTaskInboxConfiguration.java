@@ -0,0 +1,39 @@
+package com.ecm.core.config;
+
+import com.ecm.core.service.WorkflowTaskInboxEventListener;
+import com.ecm.core.service.WorkflowTaskInboxProjector;
+import org.flowable.common.engine.api.delegate.event.FlowableEventListener;
+import org.flowable.spring.SpringProcessEngineConfiguration;
+import org.flowable.spring.boot.EngineConfigurationConfigurer;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Registers the task-inbox projection listener with the Flowable process engine. The projector
+ * is resolved lazily because it depends on engine services that only exist once the engine
+ * configured here has been built.
+ */
+@Configuration
+@ConditionalOnClass(SpringProcessEngineConfiguration.class)
+@ConditionalOnProperty(name = "ecm.workflow.inbox.enabled", havingValue = "true", matchIfMissing = true)
+public class WorkflowTaskInboxConfiguration {
+
+    @Bean
+    public EngineConfigurationConfigurer<SpringProcessEngineConfiguration> workflowTaskInboxEngineConfigurer(
+        ObjectProvider<WorkflowTaskInboxProjector> projectorProvider
+    ) {
+        return engineConfiguration -> {
+            List<FlowableEventListener> listeners = engineConfiguration.getEventListeners() != null
+                ? new ArrayList<>(engineConfiguration.getEventListeners())
+                : new ArrayList<>();
+            listeners.add(new WorkflowTaskInboxEventListener(projectorProvider::getObject));
+            engineConfiguration.setEventListeners(listeners);
+        };
+    }
+}
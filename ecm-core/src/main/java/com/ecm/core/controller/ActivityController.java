@@ -1,6 +1,7 @@
 package com.ecm.core.controller;
 
 import com.ecm.core.entity.Activity;
+import com.ecm.core.service.ActivityFeedService;
 import com.ecm.core.service.ActivityService;
 import com.ecm.core.service.SecurityService;
 import io.swagger.v3.oas.annotations.Operation;
@@ -14,6 +15,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Map;
 import java.util.UUID;
 
@@ -24,6 +26,7 @@ import java.util.UUID;
 public class ActivityController {
 
     private final ActivityService activityService;
+    private final ActivityFeedService activityFeedService;
     private final SecurityService securityService;
 
     @GetMapping
@@ -64,6 +67,33 @@ public class ActivityController {
         return ResponseEntity.ok(activityService.getNodeFeed(nodeId, pageable).map(ActivityDto::from));
     }
 
+    @GetMapping("/feed")
+    @Operation(summary = "Get global activity feed (keyset paginated)")
+    public ResponseEntity<ActivityFeedResponse> getGlobalFeedPage(
+            @Parameter(description = "Opaque cursor from a previous response") @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int limit) {
+        return ResponseEntity.ok(ActivityFeedResponse.from(activityFeedService.getGlobalFeed(cursor, limit)));
+    }
+
+    @GetMapping("/following/feed")
+    @Operation(summary = "Get personalized feed for followed users, sites, and nodes (keyset paginated)")
+    public ResponseEntity<ActivityFeedResponse> getFollowingFeedPage(
+            @Parameter(description = "Opaque cursor from a previous response") @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int limit) {
+        return ResponseEntity.ok(ActivityFeedResponse.from(
+            activityFeedService.getFollowingFeed(securityService.getCurrentUser(), cursor, limit)
+        ));
+    }
+
+    @GetMapping("/nodes/{nodeId}/feed")
+    @Operation(summary = "Get node activity feed (keyset paginated)")
+    public ResponseEntity<ActivityFeedResponse> getNodeFeedPage(
+            @Parameter(description = "Node ID") @PathVariable UUID nodeId,
+            @Parameter(description = "Opaque cursor from a previous response") @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int limit) {
+        return ResponseEntity.ok(ActivityFeedResponse.from(activityFeedService.getNodeFeed(nodeId, cursor, limit)));
+    }
+
     @PostMapping
     @Operation(summary = "Post an activity (internal/admin)")
     public ResponseEntity<ActivityDto> postActivity(@RequestBody PostActivityRequest request) {
@@ -94,6 +124,20 @@ public class ActivityController {
         }
     }
 
+    public record ActivityFeedResponse(
+        List<ActivityDto> items,
+        String nextCursor,
+        boolean hasMore
+    ) {
+        static ActivityFeedResponse from(ActivityFeedService.ActivityFeedSlice slice) {
+            return new ActivityFeedResponse(
+                slice.items().stream().map(ActivityDto::from).toList(),
+                slice.nextCursor(),
+                slice.hasMore()
+            );
+        }
+    }
+
     public record PostActivityRequest(
         String activityType,
         String userId,
@@ -18,14 +18,23 @@ import com.ecm.core.service.AnalyticsService.MimeTypeStats;
 import com.ecm.core.service.AnalyticsService.SystemSummaryStats;
 import com.ecm.core.service.AnalyticsService.UserActivityStats;
 import com.ecm.core.service.AuditExportAsyncTaskRegistry;
+import com.ecm.core.service.AuditExportAsyncTaskRegistry.AuditExportArtifact;
 import com.ecm.core.service.AuditExportAsyncTaskRegistry.AuditExportAsyncStatus;
 import com.ecm.core.service.AuditExportAsyncTaskRegistry.AuditExportAsyncSummary;
 import com.ecm.core.service.AuditExportAsyncTaskRegistry.AuditExportAsyncTask;
+import com.ecm.core.service.AuditExportAsyncTaskRegistry.AuditExportFile;
+import com.ecm.core.service.AuditExportAsyncTaskRegistry.AuditExportProgress;
+import com.ecm.core.service.AuditExportStreamingService;
+import com.ecm.core.service.AuditExportStreamingService.ExportFormat;
 import com.ecm.core.service.AuditService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.InputStreamResource;
+import org.springframework.core.io.Resource;
 import org.springframework.http.ContentDisposition;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
@@ -34,8 +43,13 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.time.Duration;
 import java.time.LocalDateTime;
 import java.time.OffsetDateTime;
@@ -72,6 +86,7 @@ public class AnalyticsController {
     private final AsyncTaskGovernanceService asyncTaskGovernanceService;
     private final AsyncTaskLifecycleService asyncTaskLifecycleService;
     private final AsyncTaskAcknowledgementService asyncTaskAcknowledgementService;
+    private final AuditExportStreamingService auditExportStreamingService;
 
     @Value("${ecm.audit.export.max-range-days:90}")
     private int auditExportMaxRangeDays;
@@ -150,8 +165,44 @@ public class AnalyticsController {
         return buildAuditExportCsvResponse(payload.csvContent(), payload.filename(), payload.rowCount());
     }
 
+    @GetMapping("/audit/export/stream")
+    @Operation(
+        summary = "Stream Audit Logs Export",
+        description = "Stream audit logs as CSV or JSON lines (optionally gzip) from a database cursor without buffering the export"
+    )
+    public ResponseEntity<StreamingResponseBody> streamAuditLogs(
+            @RequestParam(required = false) String from,
+            @RequestParam(required = false) String to,
+            @RequestParam(required = false) String preset,
+            @RequestParam(required = false) String username,
+            @RequestParam(required = false) String eventType,
+            @RequestParam(required = false) String category,
+            @RequestParam(required = false) UUID nodeId,
+            @RequestParam(defaultValue = "30") int days,
+            @RequestParam(defaultValue = "csv") String format,
+            @RequestParam(defaultValue = "false") boolean gzip) {
+        AuditExportRequest request = resolveAuditExportRequest(from, to, preset, username, eventType, category, nodeId, days);
+        ExportFormat exportFormat = parseAuditExportFormat(format);
+
+        StreamingResponseBody body = outputStream ->
+            auditExportStreamingService.write(toExportQuery(request), exportFormat, gzip, outputStream, null);
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentDisposition(ContentDisposition.attachment()
+            .filename(resolveAuditExportFilename(request, exportFormat, gzip), StandardCharsets.UTF_8)
+            .build());
+        headers.setContentType(MediaType.parseMediaType(resolveAuditExportContentType(exportFormat, gzip)));
+
+        return ResponseEntity.ok()
+            .headers(headers)
+            .body(body);
+    }
+
     @PostMapping("/audit/export-async")
-    @Operation(summary = "Start Async Audit Logs Export", description = "Create an asynchronous audit logs CSV export task")
+    @Operation(
+        summary = "Start Async Audit Logs Export",
+        description = "Create an asynchronous audit logs export task streamed to a stored CSV or JSON lines (optionally gzip) file"
+    )
     public ResponseEntity<AuditExportAsyncCreateResponse> startAuditLogsExportAsync(
             @RequestParam(required = false) String from,
             @RequestParam(required = false) String to,
@@ -160,11 +211,14 @@ public class AnalyticsController {
             @RequestParam(required = false) String eventType,
             @RequestParam(required = false) String category,
             @RequestParam(required = false) UUID nodeId,
-            @RequestParam(defaultValue = "30") int days) {
+            @RequestParam(defaultValue = "30") int days,
+            @RequestParam(defaultValue = "csv") String format,
+            @RequestParam(defaultValue = "false") boolean gzip) {
         AuditExportRequest requestSnapshot = resolveAuditExportRequest(from, to, preset, username, eventType, category, nodeId, days);
+        ExportFormat exportFormat = parseAuditExportFormat(format);
         AuditExportAsyncTask task = auditExportAsyncTaskRegistry.createTask();
 
-        CompletableFuture.runAsync(() -> runAuditExportAsyncTask(task.taskId(), requestSnapshot));
+        CompletableFuture.runAsync(() -> runAuditExportAsyncTask(task.taskId(), requestSnapshot, exportFormat, gzip));
 
         return ResponseEntity.ok(new AuditExportAsyncCreateResponse(
             task.taskId(),
@@ -263,22 +317,54 @@ public class AnalyticsController {
         ));
     }
 
-    @GetMapping(value = "/audit/export-async/{taskId}/download", produces = "text/csv")
-    @Operation(summary = "Download Async Audit Export Result", description = "Download CSV attachment for a completed asynchronous export task")
-    public ResponseEntity<byte[]> downloadAuditLogsExportAsyncTaskResult(
+    @GetMapping("/audit/export-async/{taskId}/download")
+    @Operation(summary = "Download Async Audit Export Result", description = "Download the export attachment for a completed asynchronous export task")
+    public ResponseEntity<Resource> downloadAuditLogsExportAsyncTaskResult(
             @PathVariable String taskId) {
         AuditExportAsyncTask task = auditExportAsyncTaskRegistry.get(taskId);
         if (task == null) {
             return ResponseEntity.notFound().build();
         }
         if (task.status() != AuditExportAsyncStatus.COMPLETED
-            || task.csvContent() == null
             || task.filename() == null
             || task.rowCount() == null) {
             return ResponseEntity.status(HttpStatus.CONFLICT).build();
         }
 
-        return buildAuditExportCsvResponse(task.csvContent().clone(), task.filename(), task.rowCount());
+        AuditExportFile exportFile = auditExportAsyncTaskRegistry.exportFile(taskId);
+        if (exportFile != null) {
+            if (!Files.isReadable(exportFile.path())) {
+                return ResponseEntity.status(HttpStatus.GONE).build();
+            }
+            HttpHeaders headers = buildAuditExportHeaders(task.filename(), exportFile.contentType(), task.rowCount());
+            if (exportFile.sizeBytes() >= 0) {
+                headers.setContentLength(exportFile.sizeBytes());
+            }
+            return ResponseEntity.ok()
+                .headers(headers)
+                .body(new FileSystemResource(exportFile.path()));
+        }
+        AuditExportArtifact storedExport;
+        try {
+            storedExport = auditExportAsyncTaskRegistry.openStoredExport(taskId);
+        } catch (IOException e) {
+            return ResponseEntity.status(HttpStatus.GONE).build();
+        }
+        if (storedExport != null) {
+            HttpHeaders headers = buildAuditExportHeaders(task.filename(), storedExport.contentType(), task.rowCount());
+            if (storedExport.sizeBytes() >= 0) {
+                headers.setContentLength(storedExport.sizeBytes());
+            }
+            return ResponseEntity.ok()
+                .headers(headers)
+                .body(new InputStreamResource(storedExport.content()));
+        }
+        if (task.csvContent() == null) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        }
+        return ResponseEntity.ok()
+            .headers(buildAuditExportHeaders(task.filename(), "text/csv; charset=UTF-8", task.rowCount()))
+            .body(new ByteArrayResource(task.csvContent().clone()));
     }
 
     @PostMapping("/audit/export-async/cleanup")
@@ -464,16 +550,50 @@ public class AnalyticsController {
     }
 
     private ResponseEntity<byte[]> buildAuditExportCsvResponse(byte[] csvContent, String filename, long rowCount) {
+        return ResponseEntity.ok()
+            .headers(buildAuditExportHeaders(filename, "text/csv; charset=UTF-8", rowCount))
+            .body(csvContent);
+    }
+
+    private HttpHeaders buildAuditExportHeaders(String filename, String contentType, long rowCount) {
         HttpHeaders headers = new HttpHeaders();
         headers.setContentDisposition(ContentDisposition.attachment()
             .filename(filename, StandardCharsets.UTF_8)
             .build());
-        headers.setContentType(MediaType.parseMediaType("text/csv; charset=UTF-8"));
+        headers.setContentType(MediaType.parseMediaType(contentType));
         headers.add("X-Audit-Export-Count", String.valueOf(rowCount));
+        return headers;
+    }
 
-        return ResponseEntity.ok()
-            .headers(headers)
-            .body(csvContent);
+    private ExportFormat parseAuditExportFormat(String format) {
+        try {
+            return ExportFormat.fromString(format);
+        } catch (IllegalArgumentException ex) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, ex.getMessage());
+        }
+    }
+
+    private static String resolveAuditExportFilename(AuditExportRequest request, ExportFormat format, boolean gzip) {
+        return String.format("audit_logs_%s_to_%s.%s%s",
+            request.from().format(DateTimeFormatter.ofPattern("yyyyMMdd")),
+            request.to().format(DateTimeFormatter.ofPattern("yyyyMMdd")),
+            format.extension(),
+            gzip ? ".gz" : "");
+    }
+
+    private static String resolveAuditExportContentType(ExportFormat format, boolean gzip) {
+        return gzip ? "application/gzip" : format.contentType();
+    }
+
+    private static AuditExportStreamingService.ExportQuery toExportQuery(AuditExportRequest request) {
+        return new AuditExportStreamingService.ExportQuery(
+            request.from(),
+            request.to(),
+            request.username(),
+            request.eventType(),
+            request.nodeId(),
+            request.category()
+        );
     }
 
     private AuditExportRange resolveAuditExportRange(String from, String to, String preset, int days) {
@@ -504,19 +624,56 @@ public class AnalyticsController {
 
     private record AuditExportRange(LocalDateTime from, LocalDateTime to) {}
 
-    private void runAuditExportAsyncTask(String taskId, AuditExportRequest request) {
+    private void runAuditExportAsyncTask(String taskId,
+                                         AuditExportRequest request,
+                                         ExportFormat format,
+                                         boolean gzip) {
         AuditExportAsyncTask current = auditExportAsyncTaskRegistry.markRunning(taskId);
         if (current == null || current.status() == AuditExportAsyncStatus.CANCELLED) {
             return;
         }
+        Path exportFile = null;
         try {
-            AuditExportPayload payload = generateAuditExportPayload(request);
-            auditExportAsyncTaskRegistry.complete(taskId, payload.filename(), payload.csvContent(), payload.rowCount());
+            exportFile = auditExportAsyncTaskRegistry.allocateExportFile(taskId, format.extension() + (gzip ? ".gz" : ""));
+            AuditExportStreamingService.ExportListener listener = new AuditExportStreamingService.ExportListener() {
+                @Override
+                public void onProgress(AuditExportStreamingService.ExportProgress progress) {
+                    auditExportAsyncTaskRegistry.updateProgress(taskId, progress.rowsWritten(), progress.rowsPerSecond());
+                }
+
+                @Override
+                public boolean isCancelled() {
+                    return auditExportAsyncTaskRegistry.isCancelled(taskId);
+                }
+            };
+            long rowCount;
+            try (OutputStream out = Files.newOutputStream(exportFile)) {
+                rowCount = auditExportStreamingService.write(toExportQuery(request), format, gzip, out, listener);
+            }
+            auditExportAsyncTaskRegistry.completeWithFile(
+                taskId,
+                resolveAuditExportFilename(request, format, gzip),
+                exportFile,
+                resolveAuditExportContentType(format, gzip),
+                rowCount
+            );
         } catch (Exception e) {
+            deleteAuditExportFileQuietly(exportFile);
             auditExportAsyncTaskRegistry.fail(taskId, resolveAsyncAuditExportErrorMessage(e));
         }
     }
 
+    private static void deleteAuditExportFileQuietly(Path exportFile) {
+        if (exportFile == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(exportFile);
+        } catch (Exception ignored) {
+            // best effort; the registry also sweeps files of evicted tasks
+        }
+    }
+
     private AuditExportAsyncSummaryResponse toAuditExportAsyncSummaryResponse(AuditExportAsyncSummary summary) {
         return new AuditExportAsyncSummaryResponse(
             summary.totalCount(),
@@ -531,6 +688,7 @@ public class AnalyticsController {
     }
 
     private AuditExportAsyncStatusResponse toAuditExportAsyncStatusResponse(AuditExportAsyncTask task) {
+        AuditExportProgress progress = auditExportAsyncTaskRegistry.progress(task.taskId());
         return new AuditExportAsyncStatusResponse(
             task.taskId(),
             task.status().name(),
@@ -538,7 +696,9 @@ public class AnalyticsController {
             task.createdAt(),
             task.finishedAt(),
             task.status() == AuditExportAsyncStatus.COMPLETED ? task.filename() : null,
-            task.status() == AuditExportAsyncStatus.COMPLETED ? task.rowCount() : null
+            task.status() == AuditExportAsyncStatus.COMPLETED ? task.rowCount() : null,
+            progress != null ? progress.rowsWritten() : null,
+            progress != null ? Math.round(progress.rowsPerSecond()) : null
         );
     }
 
@@ -853,7 +1013,9 @@ public class AnalyticsController {
         LocalDateTime createdAt,
         LocalDateTime finishedAt,
         String filename,
-        Long rowCount
+        Long rowCount,
+        Long rowsWritten,
+        Long rowsPerSecond
     ) {}
 
     private record AuditExportAsyncSummaryResponse(
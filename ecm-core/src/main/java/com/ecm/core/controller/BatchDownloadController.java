@@ -1,6 +1,8 @@
 package com.ecm.core.controller;
 
+import com.ecm.core.asynctask.AsyncTaskOrphanHandler;
 import com.ecm.core.service.BatchDownloadAsyncTaskRegistry;
+import com.ecm.core.service.BatchDownloadAsyncTaskRegistry.BatchDownloadArchive;
 import com.ecm.core.service.BatchDownloadAsyncTaskRegistry.BatchDownloadAsyncStatus;
 import com.ecm.core.service.BatchDownloadAsyncTaskRegistry.BatchDownloadAsyncTask;
 import com.ecm.core.service.BatchDownloadAsyncTaskRegistry.BatchDownloadSnapshot;
@@ -29,23 +31,23 @@ import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
-import java.io.InputStream;
+import java.io.OutputStream;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.List;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
-import java.util.zip.ZipOutputStream;
 
 @Slf4j
 @RestController
 @RequestMapping("/api/v1/nodes/download")
 @RequiredArgsConstructor
 @Tag(name = "Batch Download", description = "Download multiple files as ZIP")
-public class BatchDownloadController {
+public class BatchDownloadController implements AsyncTaskOrphanHandler {
 
     private static final int MAX_ASYNC_LIST_LIMIT = 50;
     private static final DateTimeFormatter FILENAME_TIMESTAMP = DateTimeFormatter.ofPattern("yyyyMMdd_HHmm");
@@ -61,8 +63,8 @@ public class BatchDownloadController {
             @Parameter(description = "Name for the ZIP file") @RequestParam(required = false, defaultValue = "archive") String name) {
 
         StreamingResponseBody stream = outputStream -> {
-            try (ZipOutputStream zipOut = new ZipOutputStream(outputStream)) {
-                batchDownloadService.streamNodesAsZip(ids, zipOut);
+            try {
+                batchDownloadService.streamNodesAsZip(ids, outputStream);
             } catch (Exception e) {
                 log.error("Error streaming zip", e);
             }
@@ -290,23 +292,25 @@ public class BatchDownloadController {
         @PathVariable String taskId
     ) {
         BatchDownloadAsyncTask task = batchDownloadAsyncTaskRegistry.get(taskId);
-        if (task == null || task.status() != BatchDownloadAsyncStatus.COMPLETED || task.archivePath() == null) {
+        if (task == null || task.status() != BatchDownloadAsyncStatus.COMPLETED) {
             return ResponseEntity.notFound().build();
         }
 
         try {
-            if (!Files.exists(task.archivePath())) {
+            BatchDownloadArchive archive = batchDownloadAsyncTaskRegistry.openArchive(task);
+            if (archive == null) {
                 return ResponseEntity.notFound().build();
             }
 
-            InputStream inputStream = Files.newInputStream(task.archivePath());
-            InputStreamResource resource = new InputStreamResource(inputStream);
+            InputStreamResource resource = new InputStreamResource(archive.content());
             HttpHeaders headers = new HttpHeaders();
             headers.setContentDisposition(ContentDisposition.attachment()
                 .filename(task.filename(), StandardCharsets.UTF_8)
                 .build());
             headers.setContentType(MediaType.APPLICATION_OCTET_STREAM);
-            headers.setContentLength(Files.size(task.archivePath()));
+            if (archive.sizeBytes() >= 0) {
+                headers.setContentLength(archive.sizeBytes());
+            }
             return ResponseEntity.ok()
                 .headers(headers)
                 .body(resource);
@@ -329,21 +333,20 @@ public class BatchDownloadController {
         Path archivePath = null;
         try {
             archivePath = Files.createTempFile("athena-batch-download-" + taskId + "-", ".zip");
-            try (ZipOutputStream zipOut = new ZipOutputStream(Files.newOutputStream(archivePath))) {
+            try (OutputStream archiveOut = Files.newOutputStream(archivePath)) {
                 Path finalArchivePath = archivePath;
                 BatchDownloadArchiveSummary summary = batchDownloadService.writeNodesAsZip(
                     nodeIds,
-                    zipOut,
+                    archiveOut,
                     new BatchDownloadService.BatchDownloadProgressListener() {
                         @Override
                         public boolean isCancellationRequested() {
-                            BatchDownloadAsyncTask task = batchDownloadAsyncTaskRegistry.get(taskId);
-                            return task == null || task.status() == BatchDownloadAsyncStatus.CANCEL_REQUESTED || task.status() == BatchDownloadAsyncStatus.CANCELLED;
+                            return batchDownloadAsyncTaskRegistry.isCancellationRequested(taskId);
                         }
 
                         @Override
                         public void onFileAdded(UUID nodeId, String entryPath, long bytesWritten, int filesAdded, long totalBytesAdded) {
-                            batchDownloadAsyncTaskRegistry.update(taskId, task -> task.progress(filesAdded, totalBytesAdded));
+                            batchDownloadAsyncTaskRegistry.updateProgress(taskId, filesAdded, totalBytesAdded);
                         }
                     }
                 );
@@ -355,9 +358,7 @@ public class BatchDownloadController {
                     return;
                 }
 
-                batchDownloadAsyncTaskRegistry.update(taskId, task ->
-                    task.completed(summary.filesAdded(), summary.bytesAdded(), finalArchivePath, LocalDateTime.now())
-                );
+                batchDownloadAsyncTaskRegistry.complete(taskId, summary.filesAdded(), summary.bytesAdded(), finalArchivePath);
             }
         } catch (Exception ex) {
             batchDownloadAsyncTaskRegistry.deleteArchiveIfPresent(archivePath);
@@ -366,6 +367,36 @@ public class BatchDownloadController {
         }
     }
 
+    @Override
+    public String orphanDomain() {
+        return BatchDownloadAsyncTaskRegistry.CLUSTER_DOMAIN;
+    }
+
+    /**
+     * Rebuild the archive of a task whose node went away; a pending cancellation is honoured
+     * instead.
+     */
+    @Override
+    public void resumeOrphan(String taskId) {
+        BatchDownloadAsyncTask task = batchDownloadAsyncTaskRegistry.update(taskId, current -> switch (current.status()) {
+            case CANCEL_REQUESTED -> current.cancelled("Cancelled by user", LocalDateTime.now());
+            case QUEUED, RUNNING -> current.requeued();
+            default -> current;
+        });
+        if (task == null || task.status() != BatchDownloadAsyncStatus.QUEUED) {
+            return;
+        }
+        log.info("Restarting async batch download task {} after node failover", taskId);
+        CompletableFuture.runAsync(() -> runBatchDownloadAsyncTask(taskId, task.nodeIds()));
+    }
+
+    @Override
+    public void abandonOrphan(String taskId, String reason) {
+        batchDownloadAsyncTaskRegistry.update(taskId, task -> task.status().isActive()
+            ? task.failed(reason, LocalDateTime.now())
+            : task);
+    }
+
     private String normalizeName(String rawName) {
         String safe = rawName == null ? "" : rawName.trim();
         if (safe.isEmpty()) {
@@ -415,15 +446,25 @@ public class BatchDownloadController {
             task.errorMessage(),
             task.status() == BatchDownloadAsyncStatus.COMPLETED ? basePath + "/download" : null,
             task.status().isTerminal() ? basePath + "/cleanup" : null,
-            task.archiveSizeBytes(),
+            batchDownloadAsyncTaskRegistry.archiveSizeBytes(task),
             task.retentionExpiresAt(),
             task.cleanupEligible(),
-            task.artifactPresent(),
+            batchDownloadAsyncTaskRegistry.artifactPresent(task),
             task.status().isActive(),
-            task.status() == BatchDownloadAsyncStatus.COMPLETED
+            task.status() == BatchDownloadAsyncStatus.COMPLETED,
+            bytesPerSecond(task)
         );
     }
 
+    private Long bytesPerSecond(BatchDownloadAsyncTask task) {
+        if (task.startedAt() == null) {
+            return null;
+        }
+        LocalDateTime end = task.completedAt() != null ? task.completedAt() : LocalDateTime.now();
+        long elapsedMs = Duration.between(task.startedAt(), end).toMillis();
+        return elapsedMs > 0 ? task.bytesAdded() * 1000L / elapsedMs : null;
+    }
+
     private BatchDownloadPreflightResponse toPreflightResponse(BatchDownloadPreflightSummary preflight) {
         return new BatchDownloadPreflightResponse(
             preflight.requestedCount(),
@@ -514,7 +555,8 @@ public class BatchDownloadController {
         boolean cleanupEligible,
         boolean artifactPresent,
         boolean cancellable,
-        boolean downloadReady
+        boolean downloadReady,
+        Long bytesPerSecond
     ) {}
 
     public record BatchDownloadAsyncListResponse(
@@ -11,6 +11,7 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -224,8 +225,14 @@ public class FolderController {
     public ResponseEntity<NodeResponse> moveToFolder(
             @PathVariable UUID folderId,
             @RequestBody MoveRequest request) {
-        Node moved = nodeService.moveNode(request.nodeId(), folderId);
-        return ResponseEntity.ok(NodeResponse.from(moved));
+        NodeService.SubtreeMoveResult result = nodeService.moveSubtree(request.nodeId(), folderId);
+        if (result.repathTaskId() == null) {
+            return ResponseEntity.ok(NodeResponse.from(result.node()));
+        }
+        return ResponseEntity.accepted()
+            .header(HttpHeaders.LOCATION, "/api/v1/nodes/repath-tasks/" + result.repathTaskId())
+            .header(NodeController.REPATH_TASK_HEADER, result.repathTaskId())
+            .body(NodeResponse.from(result.node()));
     }
 
     /**
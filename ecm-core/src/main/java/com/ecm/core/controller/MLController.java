@@ -17,6 +17,7 @@ import org.springframework.web.bind.annotation.*;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * REST Controller for ML Service integration
@@ -97,32 +98,37 @@ public class MLController {
     public ResponseEntity<List<DocumentClassificationResult>> classifyBatch(
             @RequestBody List<UUID> documentIds) {
 
-        List<DocumentClassificationResult> results = documentIds.stream()
-            .map(id -> {
+        // Queue every document first so the client can send them to the ML service as batches.
+        List<CompletableFuture<DocumentClassificationResult>> pending = documentIds.stream()
+            .<CompletableFuture<DocumentClassificationResult>>map(id -> {
                 try {
                     Document doc = findDocument(id);
                     String text = extractDocumentText(doc);
 
                     if (text == null || text.length() < 50) {
-                        return new DocumentClassificationResult(
-                            id, doc.getName(), false, null, null, "Insufficient text");
+                        return CompletableFuture.completedFuture(new DocumentClassificationResult(
+                            id, doc.getName(), false, null, null, "Insufficient text"));
                     }
 
-                    ClassificationResult cr = mlServiceClient.classify(text);
-                    return new DocumentClassificationResult(
-                        id, doc.getName(),
-                        cr.isSuccess(),
-                        cr.getSuggestedCategory(),
-                        cr.getConfidence(),
-                        cr.getErrorMessage()
-                    );
+                    return mlServiceClient.classifyAsync(text)
+                        .thenApply(cr -> new DocumentClassificationResult(
+                            id, doc.getName(),
+                            cr.isSuccess(),
+                            cr.getSuggestedCategory(),
+                            cr.getConfidence(),
+                            cr.getErrorMessage()
+                        ));
                 } catch (Exception e) {
-                    return new DocumentClassificationResult(
-                        id, null, false, null, null, e.getMessage());
+                    return CompletableFuture.completedFuture(new DocumentClassificationResult(
+                        id, null, false, null, null, e.getMessage()));
                 }
             })
             .toList();
 
+        List<DocumentClassificationResult> results = pending.stream()
+            .map(CompletableFuture::join)
+            .toList();
+
         return ResponseEntity.ok(results);
     }
 
@@ -19,6 +19,8 @@ import com.ecm.core.service.LockService;
 import com.ecm.core.service.NodePropertyEncryptionService;
 import com.ecm.core.service.NodeService;
 import com.ecm.core.service.RenditionResourceService;
+import com.ecm.core.service.SubtreeRepathTaskRegistry;
+import com.ecm.core.service.SubtreeRepathTaskRegistry.SubtreeRepathTask;
 import com.ecm.core.service.VersionService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -28,6 +30,7 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -52,6 +55,7 @@ public class NodeController {
     private static final int DEFAULT_RELATIONS_PAGE_SIZE = 20;
     private static final int MAX_RELATIONS_PAGE_SIZE = 200;
     private static final int MAX_RELATIONS_PARENT_DEPTH = 100;
+    static final String REPATH_TASK_HEADER = "X-Repath-Task-Id";
 
     private final NodeService nodeService;
     private final DocumentRelationService relationService;
@@ -60,6 +64,9 @@ public class NodeController {
     private final LockService lockService;
     private final NodePropertyEncryptionService nodePropertyEncryptionService;
 
+    @Autowired(required = false)
+    private SubtreeRepathTaskRegistry subtreeRepathTaskRegistry;
+
     @Autowired
     public NodeController(
         NodeService nodeService,
@@ -625,8 +632,26 @@ public class NodeController {
     public ResponseEntity<NodeDto> moveNode(
             @Parameter(description = "Node ID") @PathVariable UUID nodeId,
             @Parameter(description = "Target parent ID") @RequestParam UUID targetParentId) {
-        Node moved = nodeService.moveNode(nodeId, targetParentId);
-        return ResponseEntity.ok(toNodeDto(moved));
+        NodeService.SubtreeMoveResult result = nodeService.moveSubtree(nodeId, targetParentId);
+        if (result.repathTaskId() == null) {
+            return ResponseEntity.ok(toNodeDto(result.node()));
+        }
+        // Large subtree: paths are committed, the search index catches up in the tracked re-path task
+        return ResponseEntity.accepted()
+            .header(HttpHeaders.LOCATION, "/api/v1/nodes/repath-tasks/" + result.repathTaskId())
+            .header(REPATH_TASK_HEADER, result.repathTaskId())
+            .body(toNodeDto(result.node()));
+    }
+
+    @GetMapping("/repath-tasks/{taskId}")
+    @Operation(summary = "Get re-path task", description = "Progress of the search index refresh after a large subtree move")
+    public ResponseEntity<SubtreeRepathTask> getRepathTask(
+            @Parameter(description = "Re-path task ID") @PathVariable String taskId) {
+        SubtreeRepathTask task = subtreeRepathTaskRegistry != null ? subtreeRepathTaskRegistry.get(taskId) : null;
+        if (task == null) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(task);
     }
 
     @PostMapping("/{nodeId}/copy")
@@ -6,6 +6,7 @@ import com.ecm.core.entity.Favorite;
 import com.ecm.core.entity.Folder;
 import com.ecm.core.entity.Group;
 import com.ecm.core.entity.User;
+import com.ecm.core.event.UserDepartmentChangedEvent;
 import com.ecm.core.exception.AccessDeniedException;
 import com.ecm.core.exception.ResourceNotFoundException;
 import com.ecm.core.model.Comment;
@@ -21,6 +22,7 @@ import com.ecm.core.service.PreferenceService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
@@ -70,6 +72,7 @@ public class PeopleController {
     private final SecurityService securityService;
     private final PreferenceService preferenceService;
     private final SiteMembershipService siteMembershipService;
+    private final ApplicationEventPublisher eventPublisher;
 
     @GetMapping
     @Operation(summary = "Search people", description = "Search users by username or email for mention and approver pickers")
@@ -177,6 +180,7 @@ public class PeopleController {
         user.setLastName(normalizeOptionalString(request.lastName()));
         user.setDisplayName(normalizeOptionalString(request.displayName()));
         user.setPhone(normalizeOptionalString(request.phone()));
+        String previousDepartment = user.getDepartment();
         user.setDepartment(normalizeOptionalString(request.department()));
         user.setJobTitle(normalizeOptionalString(request.jobTitle()));
         user.setAvatarUrl(normalizeOptionalString(request.avatarUrl()));
@@ -186,7 +190,12 @@ public class PeopleController {
         String timezone = normalizeOptionalString(request.timezone());
         user.setTimezone(timezone != null ? timezone : "UTC");
 
-        return ResponseEntity.ok(PeoplePreferencesDto.from(userRepository.save(user)));
+        User saved = userRepository.save(user);
+        if (!Objects.equals(previousDepartment, saved.getDepartment())) {
+            eventPublisher.publishEvent(new UserDepartmentChangedEvent(
+                saved.getUsername(), previousDepartment, saved.getDepartment()));
+        }
+        return ResponseEntity.ok(PeoplePreferencesDto.from(saved));
     }
 
     @GetMapping("/{username}/preferences/{preferenceName}")
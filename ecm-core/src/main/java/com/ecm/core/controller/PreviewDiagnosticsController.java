@@ -2,6 +2,8 @@ package com.ecm.core.controller;
 
 import com.ecm.core.asynctask.AsyncTaskSummaryAdapters;
 import com.ecm.core.asynctask.AsyncTaskSummarySnapshot;
+import com.ecm.core.asynctask.ClusterAsyncTaskMap;
+import com.ecm.core.asynctask.ClusterAsyncTaskStore;
 import com.ecm.core.entity.Document;
 import com.ecm.core.entity.PreviewStatus;
 import com.ecm.core.preview.CadRenderEndpointRegistry;
@@ -23,7 +25,9 @@ import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
@@ -51,6 +55,7 @@ import org.springframework.web.util.UriComponentsBuilder;
 import java.nio.charset.StandardCharsets;
 import java.time.Instant;
 import java.time.LocalDateTime;
+import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
 import java.util.ArrayDeque;
@@ -67,7 +72,6 @@ import java.util.Objects;
 import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 
 @RestController
@@ -163,18 +167,65 @@ public class PreviewDiagnosticsController {
         "UNSUPPORTED",
         "PROCESSING"
     );
-    private final Map<String, QueueDeclinedExportAsyncTask> queueDeclinedExportAsyncTasks = new ConcurrentHashMap<>();
+    private static final String QUEUE_DECLINED_EXPORT_CLUSTER_DOMAIN = "preview-queue-declined-export";
+    private static final String QUEUE_DECLINED_REQUEUE_DRY_RUN_EXPORT_CLUSTER_DOMAIN = "preview-queue-declined-requeue-dry-run-export";
+    private static final String RENDITION_RESOURCES_EXPORT_CLUSTER_DOMAIN = "preview-rendition-resources-export";
+    private static final String RENDITION_RESOURCES_EXPORT_REQUEST_CLUSTER_DOMAIN = "preview-rendition-resources-export-request";
+
+    @Autowired(required = false)
+    private ClusterAsyncTaskStore clusterTaskStore;
+
+    private final ClusterAsyncTaskMap<QueueDeclinedExportAsyncTask> queueDeclinedExportAsyncTasks = new ClusterAsyncTaskMap<>(
+        () -> clusterTaskStore,
+        QUEUE_DECLINED_EXPORT_CLUSTER_DOMAIN,
+        QueueDeclinedExportAsyncTask.class,
+        task -> asyncTaskState(task.status().name(), !task.isTerminal(), task.createdBy(), task.createdAt(), task.finishedAt()),
+        (task, reason) -> task.isTerminal() ? task : task.fail(reason, null)
+    );
     private final Deque<String> queueDeclinedExportAsyncTaskOrder = new ArrayDeque<>();
     private final Object queueDeclinedExportAsyncTaskLock = new Object();
-    private final Map<String, QueueDeclinedRequeueDryRunExportAsyncTask> queueDeclinedRequeueDryRunExportAsyncTasks = new ConcurrentHashMap<>();
+    private final ClusterAsyncTaskMap<QueueDeclinedRequeueDryRunExportAsyncTask> queueDeclinedRequeueDryRunExportAsyncTasks =
+        new ClusterAsyncTaskMap<>(
+            () -> clusterTaskStore,
+            QUEUE_DECLINED_REQUEUE_DRY_RUN_EXPORT_CLUSTER_DOMAIN,
+            QueueDeclinedRequeueDryRunExportAsyncTask.class,
+            task -> asyncTaskState(task.status().name(), !task.isTerminal(), task.createdBy(), task.createdAt(), task.finishedAt()),
+            (task, reason) -> task.isTerminal() ? task : task.fail(reason, null)
+        );
     private final Deque<String> queueDeclinedRequeueDryRunExportAsyncTaskOrder = new ArrayDeque<>();
     private final Object queueDeclinedRequeueDryRunExportAsyncTaskLock = new Object();
-    private final Map<String, RenditionResourcesExportAsyncTask> renditionResourcesExportAsyncTasks = new ConcurrentHashMap<>();
-    private final Map<String, PreviewRenditionResourcesExportAsyncRequestDto> renditionResourcesExportAsyncTaskRequests =
-        new ConcurrentHashMap<>();
+    private final ClusterAsyncTaskMap<RenditionResourcesExportAsyncTask> renditionResourcesExportAsyncTasks = new ClusterAsyncTaskMap<>(
+        () -> clusterTaskStore,
+        RENDITION_RESOURCES_EXPORT_CLUSTER_DOMAIN,
+        RenditionResourcesExportAsyncTask.class,
+        task -> asyncTaskState(task.status().name(), !task.isTerminal(), task.createdBy(), task.createdAt(), task.finishedAt()),
+        (task, reason) -> task.isTerminal() ? task : task.fail(reason, null)
+    );
+    private final ClusterAsyncTaskMap<PreviewRenditionResourcesExportAsyncRequestDto> renditionResourcesExportAsyncTaskRequests =
+        new ClusterAsyncTaskMap<>(
+            () -> clusterTaskStore,
+            RENDITION_RESOURCES_EXPORT_REQUEST_CLUSTER_DOMAIN,
+            PreviewRenditionResourcesExportAsyncRequestDto.class,
+            request -> asyncTaskState("REQUEST", false, null, null, null),
+            (request, reason) -> request
+        );
     private final Deque<String> renditionResourcesExportAsyncTaskOrder = new ArrayDeque<>();
     private final Object renditionResourcesExportAsyncTaskLock = new Object();
 
+    /**
+     * Export tasks run on the node that accepted them but live in the cluster task store when it is
+     * enabled, so status, cancel and download work from any node and a dead node's tasks are failed.
+     */
+    @PostConstruct
+    void registerExportAsyncTaskOrphanHandlers() {
+        if (clusterTaskStore == null) {
+            return;
+        }
+        clusterTaskStore.registerOrphanHandler(queueDeclinedExportAsyncTasks);
+        clusterTaskStore.registerOrphanHandler(queueDeclinedRequeueDryRunExportAsyncTasks);
+        clusterTaskStore.registerOrphanHandler(renditionResourcesExportAsyncTasks);
+    }
+
     @GetMapping("/failures")
     @Operation(summary = "Recent preview failures", description = "List recent preview failures (FAILED/UNSUPPORTED) with derived categories.")
     public ResponseEntity<List<PreviewFailureSampleDto>> getRecentFailures(
@@ -5793,6 +5844,7 @@ public class PreviewDiagnosticsController {
         if (queueDeclinedExportAsyncTasks.size() <= MAX_QUEUE_DECLINED_EXPORT_ASYNC_TASKS) {
             return;
         }
+        queueDeclinedExportAsyncTasks.syncOrder(queueDeclinedExportAsyncTaskOrder);
         Iterator<String> iterator = queueDeclinedExportAsyncTaskOrder.iterator();
         while (queueDeclinedExportAsyncTasks.size() > MAX_QUEUE_DECLINED_EXPORT_ASYNC_TASKS && iterator.hasNext()) {
             String candidateTaskId = iterator.next();
@@ -5818,6 +5870,7 @@ public class PreviewDiagnosticsController {
     }
 
     private void refreshQueueDeclinedExportAsyncTasksLifecycleLocked() {
+        queueDeclinedExportAsyncTasks.syncOrder(queueDeclinedExportAsyncTaskOrder);
         Instant now = Instant.now();
         List<String> taskIds = new ArrayList<>(queueDeclinedExportAsyncTaskOrder);
         for (String taskId : taskIds) {
@@ -6225,6 +6278,7 @@ public class PreviewDiagnosticsController {
         if (queueDeclinedRequeueDryRunExportAsyncTasks.size() <= MAX_QUEUE_DECLINED_REQUEUE_DRY_RUN_EXPORT_ASYNC_TASKS) {
             return;
         }
+        queueDeclinedRequeueDryRunExportAsyncTasks.syncOrder(queueDeclinedRequeueDryRunExportAsyncTaskOrder);
         Iterator<String> iterator = queueDeclinedRequeueDryRunExportAsyncTaskOrder.iterator();
         while (queueDeclinedRequeueDryRunExportAsyncTasks.size() > MAX_QUEUE_DECLINED_REQUEUE_DRY_RUN_EXPORT_ASYNC_TASKS
             && iterator.hasNext()) {
@@ -6252,6 +6306,7 @@ public class PreviewDiagnosticsController {
     }
 
     private void refreshQueueDeclinedRequeueDryRunExportAsyncTasksLifecycleLocked() {
+        queueDeclinedRequeueDryRunExportAsyncTasks.syncOrder(queueDeclinedRequeueDryRunExportAsyncTaskOrder);
         Instant now = Instant.now();
         List<String> taskIds = new ArrayList<>(queueDeclinedRequeueDryRunExportAsyncTaskOrder);
         for (String taskId : taskIds) {
@@ -7108,6 +7163,7 @@ public class PreviewDiagnosticsController {
         if (renditionResourcesExportAsyncTasks.size() <= MAX_RENDITION_RESOURCE_EXPORT_ASYNC_TASKS) {
             return;
         }
+        renditionResourcesExportAsyncTasks.syncOrder(renditionResourcesExportAsyncTaskOrder);
         Iterator<String> iterator = renditionResourcesExportAsyncTaskOrder.iterator();
         while (renditionResourcesExportAsyncTasks.size() > MAX_RENDITION_RESOURCE_EXPORT_ASYNC_TASKS && iterator.hasNext()) {
             String candidateTaskId = iterator.next();
@@ -7453,6 +7509,7 @@ public class PreviewDiagnosticsController {
     }
 
     private void refreshRenditionResourcesExportAsyncTasksLifecycleLocked() {
+        renditionResourcesExportAsyncTasks.syncOrder(renditionResourcesExportAsyncTaskOrder);
         Instant now = Instant.now();
         List<String> taskIds = new ArrayList<>(renditionResourcesExportAsyncTaskOrder);
         for (String taskId : taskIds) {
@@ -8648,6 +8705,22 @@ public class PreviewDiagnosticsController {
         return authentication.getName();
     }
 
+    private static ClusterAsyncTaskStore.TaskState asyncTaskState(
+        String status,
+        boolean active,
+        String createdBy,
+        Instant createdAt,
+        Instant finishedAt
+    ) {
+        return new ClusterAsyncTaskStore.TaskState(
+            status,
+            active,
+            createdBy,
+            createdAt != null ? LocalDateTime.ofInstant(createdAt, ZoneId.systemDefault()) : null,
+            finishedAt != null ? LocalDateTime.ofInstant(finishedAt, ZoneId.systemDefault()) : null
+        );
+    }
+
     private static String resolveTaskActor(String actor) {
         if (actor == null || actor.isBlank()) {
             return "system";
@@ -1,17 +1,23 @@
 package com.ecm.core.controller;
 
+import com.ecm.core.config.TenantContext;
 import com.ecm.core.entity.Folder;
 import com.ecm.core.entity.SavedSearch;
 import com.ecm.core.search.FacetedSearchService.FacetedSearchResponse;
+import com.ecm.core.search.SearchCursorPage;
+import com.ecm.core.search.SearchResultExportWriter;
 import com.ecm.core.service.SavedSearchService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ContentDisposition;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.nio.charset.StandardCharsets;
 
@@ -82,6 +88,49 @@ public class SavedSearchController {
         return ResponseEntity.ok(savedSearchService.executeSavedSearch(id));
     }
 
+    @GetMapping("/{id}/execute/cursor")
+    @Operation(summary = "Execute saved search with cursor paging",
+        description = "Run a saved search one page at a time; pass nextCursor back to read the next page")
+    public ResponseEntity<SearchCursorPage> executeSavedSearchPage(
+            @PathVariable UUID id,
+            @RequestParam(required = false) String cursor) {
+        return ResponseEntity.ok(savedSearchService.executeSavedSearchPage(id, cursor));
+    }
+
+    @GetMapping("/{id}/export/stream")
+    @Operation(summary = "Stream all saved search results",
+        description = "Stream every hit of a saved search as CSV or JSON lines (uncapped)")
+    public ResponseEntity<StreamingResponseBody> streamSavedSearchExport(
+            @PathVariable UUID id,
+            @RequestParam(defaultValue = "csv") String format) {
+        SearchResultExportWriter.Format exportFormat;
+        try {
+            exportFormat = SearchResultExportWriter.Format.fromString(format);
+        } catch (IllegalArgumentException ex) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, ex.getMessage());
+        }
+        // Owner check before the response is committed; the stream re-checks it.
+        SavedSearch search = savedSearchService.getMySavedSearch(id);
+        TenantContext.Snapshot tenant = TenantContext.capture();
+
+        StreamingResponseBody body = outputStream -> {
+            TenantContext.Snapshot previous = TenantContext.capture();
+            TenantContext.restore(tenant);
+            try (SearchResultExportWriter writer = new SearchResultExportWriter(outputStream, exportFormat)) {
+                savedSearchService.streamSavedSearchExport(id, writer);
+            } finally {
+                TenantContext.restore(previous);
+            }
+        };
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.parseMediaType(exportFormat.contentType()));
+        headers.setContentDisposition(ContentDisposition.attachment()
+            .filename(exportFilename(search, id, exportFormat.extension()), StandardCharsets.UTF_8)
+            .build());
+        return ResponseEntity.ok().headers(headers).body(body);
+    }
+
     @GetMapping("/{id}/export")
     @Operation(summary = "Export saved search results as CSV",
         description = "Run a saved search and export its results as a CSV attachment (one-shot, capped)")
@@ -92,6 +141,15 @@ public class SavedSearchController {
         SavedSearch search = savedSearchService.getMySavedSearch(id);
         String csv = savedSearchService.exportSavedSearchCsv(id, limit);
 
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.valueOf("text/csv"));
+        headers.setContentDisposition(ContentDisposition.attachment()
+            .filename(exportFilename(search, id, "csv"), StandardCharsets.UTF_8)
+            .build());
+        return ResponseEntity.ok().headers(headers).body(csv);
+    }
+
+    private static String exportFilename(SavedSearch search, UUID id, String extension) {
         String base = search != null && search.getName() != null && !search.getName().isBlank()
             ? search.getName()
             : id.toString();
@@ -101,14 +159,7 @@ public class SavedSearchController {
         }
         String timestamp = java.time.LocalDateTime.now()
             .format(java.time.format.DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss"));
-        String filename = safeName + "-search-" + timestamp + ".csv";
-
-        HttpHeaders headers = new HttpHeaders();
-        headers.setContentType(MediaType.valueOf("text/csv"));
-        headers.setContentDisposition(ContentDisposition.attachment()
-            .filename(filename, StandardCharsets.UTF_8)
-            .build());
-        return ResponseEntity.ok().headers(headers).body(csv);
+        return safeName + "-search-" + timestamp + "." + extension;
     }
 
     @PatchMapping("/{id}/pin")
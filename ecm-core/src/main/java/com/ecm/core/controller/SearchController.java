@@ -3,6 +3,7 @@ package com.ecm.core.controller;
 import com.ecm.core.asynctask.AsyncTaskSummaryAdapters;
 import com.ecm.core.asynctask.AsyncTaskSummarySnapshot;
 import com.ecm.core.batch.BatchExecutor;
+import com.ecm.core.config.TenantContext;
 import com.ecm.core.preview.PreviewFailureClassifier;
 import com.ecm.core.preview.PreviewPreflightResolver;
 import com.ecm.core.preview.PreviewQueueService;
@@ -14,6 +15,7 @@ import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
+import org.springframework.http.ContentDisposition;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
@@ -21,10 +23,12 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.nio.charset.StandardCharsets;
 import java.time.Instant;
 import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
 import java.util.ArrayDeque;
 import java.util.Arrays;
@@ -166,6 +170,49 @@ public class SearchController {
         return ResponseEntity.ok(results);
     }
 
+    @PostMapping("/advanced/cursor")
+    @Operation(summary = "Advanced search with cursor paging",
+               description = "Search with filters using an opaque cursor instead of page numbers; "
+                   + "pass nextCursor back to read the next page")
+    public ResponseEntity<SearchCursorPage> advancedSearchCursor(
+            @RequestBody SearchRequest request,
+            @RequestParam(required = false) String cursor) {
+        return ResponseEntity.ok(fullTextSearchService.advancedSearchAfter(request, cursor));
+    }
+
+    @PostMapping("/advanced/export")
+    @Operation(summary = "Export all advanced search hits",
+               description = "Stream every hit of an advanced search as CSV or JSON lines")
+    public ResponseEntity<StreamingResponseBody> exportAdvancedSearch(
+            @RequestBody SearchRequest request,
+            @RequestParam(defaultValue = "csv") String format) {
+        SearchResultExportWriter.Format exportFormat = parseSearchExportFormat(format);
+        request.setHighlightEnabled(false);
+        TenantContext.Snapshot tenant = TenantContext.capture();
+
+        StreamingResponseBody body = outputStream -> {
+            TenantContext.Snapshot previous = TenantContext.capture();
+            TenantContext.restore(tenant);
+            try (SearchResultExportWriter writer = new SearchResultExportWriter(outputStream, exportFormat)) {
+                fullTextSearchService.exportAdvancedSearch(request, writer);
+            } finally {
+                TenantContext.restore(previous);
+            }
+        };
+
+        String filename = "search-export-"
+            + LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss"))
+            + "." + exportFormat.extension();
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentDisposition(ContentDisposition.attachment()
+            .filename(filename, StandardCharsets.UTF_8)
+            .build());
+        headers.setContentType(MediaType.parseMediaType(exportFormat.contentType()));
+        return ResponseEntity.ok()
+            .headers(headers)
+            .body(body);
+    }
+
     @PostMapping("/query")
     @Operation(
         summary = "Unified search query envelope",
@@ -1129,6 +1176,7 @@ public class SearchController {
         target.setHighlightEnabled(request.isHighlightEnabled());
         target.setIncludeSuggestions(include.contains("suggestions"));
         target.setFacetFields(include.contains("facets") ? request.getFacets() : null);
+        target.setResultProperties(request.getResultProperties());
         return target;
     }
 
@@ -1339,26 +1387,49 @@ public class SearchController {
             return List.of();
         }
 
-        List<AdvancedSearchPivotMatrixRow> rows = new ArrayList<>();
-        for (AdvancedSearchFacetStat previewStatus : previewStatusStats) {
-            List<AdvancedSearchPivotMatrixCell> cells = new ArrayList<>();
-            for (AdvancedSearchFacetStat mimeType : mimeTypeStats) {
-                SearchFilters mergedFilters = mergePivotFilters(baseFilters, previewStatus.value(), mimeType.value());
-                FacetedSearchResponse cellResponse = facetedSearchService.search(buildAdvancedStatsRequest(
-                    query,
-                    mergedFilters,
-                    List.of("previewStatus", "mimeType")
-                ));
-                cells.add(new AdvancedSearchPivotMatrixCell(
-                    mimeType.value(),
-                    Math.max(0L, cellResponse != null ? cellResponse.getTotalHits() : 0L)
-                ));
+        List<String> previewStatuses = previewStatusStats.stream().map(AdvancedSearchFacetStat::value).toList();
+        List<String> mimeTypes = mimeTypeStats.stream().map(AdvancedSearchFacetStat::value).toList();
+        PivotRequest pivotRequest = new PivotRequest();
+        pivotRequest.setQuery(query);
+        pivotRequest.setFilters(baseFilters);
+        pivotRequest.setDimensions(List.of(
+            new PivotDimension("previewStatus", null, null, previewStatuses),
+            new PivotDimension("mimeType", mimeTypes.size(), null, mimeTypes)
+        ));
+        PivotResponse pivot = facetedSearchService.pivot(pivotRequest);
+
+        Map<String, Map<String, Long>> counts = new LinkedHashMap<>();
+        if (pivot != null && pivot.getBuckets() != null) {
+            for (PivotBucket row : pivot.getBuckets()) {
+                Map<String, Long> rowCounts = counts.computeIfAbsent(row.getKey(), key -> new LinkedHashMap<>());
+                if (row.getBuckets() != null) {
+                    row.getBuckets().forEach(cell -> rowCounts.put(cell.getKey(), cell.getCount()));
+                }
             }
-            rows.add(new AdvancedSearchPivotMatrixRow(previewStatus.value(), cells));
+        }
+
+        List<AdvancedSearchPivotMatrixRow> rows = new ArrayList<>();
+        for (String previewStatus : previewStatuses) {
+            Map<String, Long> rowCounts = counts.getOrDefault(previewStatus, Map.of());
+            List<AdvancedSearchPivotMatrixCell> cells = mimeTypes.stream()
+                .map(mimeType -> new AdvancedSearchPivotMatrixCell(
+                    mimeType,
+                    Math.max(0L, rowCounts.getOrDefault(mimeType, 0L))
+                ))
+                .toList();
+            rows.add(new AdvancedSearchPivotMatrixRow(previewStatus, cells));
         }
         return rows;
     }
 
+    private static SearchResultExportWriter.Format parseSearchExportFormat(String format) {
+        try {
+            return SearchResultExportWriter.Format.fromString(format);
+        } catch (IllegalArgumentException ex) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, ex.getMessage());
+        }
+    }
+
     private static String normalizeWhitespaceOrNull(String value) {
         if (!hasText(value)) {
             return null;
@@ -1444,13 +1515,6 @@ public class SearchController {
         return target;
     }
 
-    private static SearchFilters mergePivotFilters(SearchFilters source, String previewStatus, String mimeType) {
-        SearchFilters target = copyFilters(source);
-        target.setPreviewStatuses(List.of(previewStatus));
-        target.setMimeTypes(List.of(mimeType));
-        return target;
-    }
-
     private List<PreviewQueueBySearchReasonCountDto> buildReasonBreakdown(List<SearchResult> matches) {
         return matches.stream()
             .collect(Collectors.groupingBy(
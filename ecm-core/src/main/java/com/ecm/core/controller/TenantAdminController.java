@@ -2,10 +2,13 @@ package com.ecm.core.controller;
 
 import com.ecm.core.service.TenantMetricsService;
 import com.ecm.core.service.TenantService;
+import com.ecm.core.service.TenantUsageLedgerService;
+import com.ecm.core.service.TenantUsageReconciliationService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
 @RestController
@@ -15,6 +18,7 @@ public class TenantAdminController {
 
     private final TenantService tenantService;
     private final TenantMetricsService tenantMetricsService;
+    private final TenantUsageLedgerService tenantUsageLedgerService;
 
     @GetMapping({"/api/admin/tenants", "/api/v1/admin/tenants"})
     @Operation(summary = "List tenants")
@@ -61,4 +65,21 @@ public class TenantAdminController {
     public ResponseEntity<TenantMetricsService.TenantMetrics> getTenantMetrics(@PathVariable String tenantDomain) {
         return ResponseEntity.ok(tenantMetricsService.getMetrics(tenantDomain));
     }
+
+    @GetMapping({"/api/admin/tenants/{tenantDomain}/usage", "/api/v1/admin/tenants/{tenantDomain}/usage"})
+    @Operation(summary = "Get tenant storage usage ledger state")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<TenantUsageLedgerService.TenantUsageSnapshot> getTenantUsage(@PathVariable String tenantDomain) {
+        return ResponseEntity.ok(tenantUsageLedgerService.getUsage(tenantDomain));
+    }
+
+    @PostMapping({"/api/admin/tenants/{tenantDomain}/usage/reconcile", "/api/v1/admin/tenants/{tenantDomain}/usage/reconcile"})
+    @Operation(summary = "Recount tenant storage usage and report ledger drift")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<TenantUsageReconciliationService.ReconciliationReport> reconcileTenantUsage(
+        @PathVariable String tenantDomain,
+        @RequestParam(defaultValue = "true") boolean correct
+    ) {
+        return ResponseEntity.ok(tenantUsageLedgerService.reconcile(tenantDomain, correct));
+    }
 }
@@ -1,11 +1,13 @@
 package com.ecm.core.controller;
 
+import com.ecm.core.entity.WebhookDelivery;
 import com.ecm.core.entity.WebhookSubscription;
 import com.ecm.core.integration.webhook.WebhookNotificationService;
 import com.ecm.core.integration.webhook.WebhookSubscriptionService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Page;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
@@ -46,6 +48,8 @@ public class WebhookController {
             .secret(request.secret())
             .enabled(request.enabled())
             .eventTypes(request.eventTypes())
+            .deliveryBatchSize(request.deliveryBatchSize())
+            .deliveryMaxConcurrency(request.deliveryMaxConcurrency())
             .build();
         return ResponseEntity.ok(subscriptionService.create(subscription));
     }
@@ -60,6 +64,8 @@ public class WebhookController {
             .secret(request.secret())
             .enabled(request.enabled())
             .eventTypes(request.eventTypes())
+            .deliveryBatchSize(request.deliveryBatchSize())
+            .deliveryMaxConcurrency(request.deliveryMaxConcurrency())
             .build();
         return ResponseEntity.ok(subscriptionService.update(id, updates));
     }
@@ -80,11 +86,39 @@ public class WebhookController {
         return ResponseEntity.accepted().build();
     }
 
+    @GetMapping("/{id}/deliveries")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "List queued, delivered and dead-lettered webhook deliveries")
+    public ResponseEntity<Page<WebhookDelivery>> deliveries(
+        @PathVariable UUID id,
+        @RequestParam(required = false) WebhookDelivery.Status status,
+        @RequestParam(defaultValue = "0") int page,
+        @RequestParam(defaultValue = "50") int size
+    ) {
+        return ResponseEntity.ok(subscriptionService.listDeliveries(id, status, page, size));
+    }
+
+    @GetMapping("/{id}/delivery-stats")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Get webhook delivery latency, success counts and circuit state")
+    public ResponseEntity<WebhookSubscriptionService.DeliveryStats> deliveryStats(@PathVariable UUID id) {
+        return ResponseEntity.ok(subscriptionService.deliveryStats(id));
+    }
+
+    @PostMapping("/deliveries/{deliveryId}/replay")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Re-queue a dead-lettered webhook delivery")
+    public ResponseEntity<WebhookDelivery> replay(@PathVariable UUID deliveryId) {
+        return ResponseEntity.ok(subscriptionService.replayDelivery(deliveryId));
+    }
+
     public record WebhookSubscriptionRequest(
         String name,
         String url,
         String secret,
         boolean enabled,
-        Set<String> eventTypes
+        Set<String> eventTypes,
+        Integer deliveryBatchSize,
+        Integer deliveryMaxConcurrency
     ) {}
 }
@@ -1,6 +1,7 @@
 package com.ecm.core.controller;
 
 import com.ecm.core.service.WorkflowService;
+import com.ecm.core.service.WorkflowTaskInboxService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -28,8 +29,11 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 @Tag(name = "Workflow Management", description = "APIs for business processes and approvals")
 public class WorkflowController {
+
+    static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
     
     private final WorkflowService workflowService;
+    private final WorkflowTaskInboxService inboxService;
     
     @GetMapping("/definitions")
     @Operation(summary = "List definitions", description = "Get available workflow definitions")
@@ -140,7 +144,8 @@ public class WorkflowController {
     }
 
     @GetMapping({"/tasks", "/tasks/inbox"})
-    @Operation(summary = "Workflow task inbox", description = "List workflow tasks for the current inbox scope with optional search filters")
+    @Operation(summary = "Workflow task inbox", description = "List workflow tasks for the current inbox scope with optional search filters. "
+        + "Returns at most limit tasks; when more remain, pass the X-Next-Cursor response header back as cursor")
     public ResponseEntity<List<TaskInboxItemResponse>> listTasks(
         @RequestParam(required = false) String scope,
         @RequestParam(required = false) String query,
@@ -150,14 +155,30 @@ public class WorkflowController {
         @RequestParam(required = false) String processId,
         @RequestParam(required = false) String owner,
         @RequestParam(required = false) String candidateUser,
-        @RequestParam(required = false) String candidateGroup
+        @RequestParam(required = false) String candidateGroup,
+        @RequestParam(required = false) String cursor,
+        @RequestParam(defaultValue = "200") int limit
     ) {
         String effectiveQuery = query != null ? query : legacyQuery;
-        return ResponseEntity.ok(
-            workflowService.listTasks(scope, effectiveQuery, businessKey, assignee, processId, owner, candidateUser, candidateGroup).stream()
+        if (!inboxService.isEnabled()) {
+            return ResponseEntity.ok(workflowService.listTasks(
+                    scope, effectiveQuery, businessKey, assignee, processId, owner, candidateUser, candidateGroup).stream()
                 .map(TaskInboxItemResponse::from)
-                .collect(Collectors.toList())
+                .collect(Collectors.toList()));
+        }
+        WorkflowTaskInboxService.InboxPage page = inboxService.listTasks(
+            new WorkflowTaskInboxService.InboxFilter(
+                scope, effectiveQuery, businessKey, assignee, processId, owner, candidateUser, candidateGroup),
+            cursor,
+            limit
         );
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.nextCursor() != null) {
+            response.header(NEXT_CURSOR_HEADER, page.nextCursor());
+        }
+        return response.body(page.items().stream()
+            .map(TaskInboxItemResponse::from)
+            .collect(Collectors.toList()));
     }
 
     @GetMapping("/tasks/{taskId}")
@@ -0,0 +1,90 @@
+package com.ecm.core.controller;
+
+import com.ecm.core.service.WorkflowTaskInboxProjector;
+import com.ecm.core.service.WorkflowTaskInboxService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/v1/workflows/task-inbox")
+@RequiredArgsConstructor
+@Tag(name = "Workflow Task Inbox", description = "Paged workflow task inbox backed by the task projection")
+public class WorkflowTaskInboxController {
+
+    private final WorkflowTaskInboxService inboxService;
+    private final WorkflowTaskInboxProjector inboxProjector;
+
+    @GetMapping
+    @Operation(summary = "Workflow task inbox page", description = "Keyset-paged task inbox for a scope with optional search filters")
+    public ResponseEntity<TaskInboxPageResponse> listTasks(
+        @RequestParam(required = false) String scope,
+        @RequestParam(required = false) String query,
+        @RequestParam(required = false) String businessKey,
+        @RequestParam(required = false) String assignee,
+        @RequestParam(required = false) String processId,
+        @RequestParam(required = false) String owner,
+        @RequestParam(required = false) String candidateUser,
+        @RequestParam(required = false) String candidateGroup,
+        @RequestParam(required = false) String cursor,
+        @RequestParam(defaultValue = "50") int limit
+    ) {
+        WorkflowTaskInboxService.InboxPage page = inboxService.listTasks(
+            new WorkflowTaskInboxService.InboxFilter(scope, query, businessKey, assignee, processId, owner, candidateUser, candidateGroup),
+            cursor,
+            limit
+        );
+        return ResponseEntity.ok(new TaskInboxPageResponse(
+            page.items().stream().map(WorkflowController.TaskInboxItemResponse::from).toList(),
+            page.nextCursor(),
+            page.hasMore()
+        ));
+    }
+
+    @GetMapping("/counts")
+    @Operation(summary = "Workflow task inbox counts", description = "Number of tasks per inbox scope for the given filters")
+    public ResponseEntity<Map<String, Long>> countTasks(
+        @RequestParam(required = false) String query,
+        @RequestParam(required = false) String businessKey,
+        @RequestParam(required = false) String assignee,
+        @RequestParam(required = false) String processId,
+        @RequestParam(required = false) String owner,
+        @RequestParam(required = false) String candidateUser,
+        @RequestParam(required = false) String candidateGroup
+    ) {
+        return ResponseEntity.ok(inboxService.countTasks(
+            new WorkflowTaskInboxService.InboxFilter(null, query, businessKey, assignee, processId, owner, candidateUser, candidateGroup)
+        ));
+    }
+
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(summary = "Workflow task inbox updates", description = "Server-sent events announcing changes to tasks in the caller's inbox")
+    public SseEmitter streamUpdates() {
+        return inboxService.subscribe();
+    }
+
+    @PostMapping("/rebuild")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Rebuild task inbox projection", description = "Re-project all active tasks and recently completed tasks from Flowable")
+    public ResponseEntity<Map<String, Integer>> rebuild() {
+        return ResponseEntity.ok(Map.of("projected", inboxProjector.rebuild()));
+    }
+
+    public record TaskInboxPageResponse(
+        List<WorkflowController.TaskInboxItemResponse> items,
+        String nextCursor,
+        boolean hasMore
+    ) {}
+}
@@ -4,6 +4,7 @@ import com.ecm.core.entity.Document;
 import com.ecm.core.entity.Permission.PermissionType;
 import com.ecm.core.service.ContentService;
 import com.ecm.core.service.SecurityService;
+import com.ecm.core.service.TextExtractionService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.pdfbox.pdmodel.PDDocument;
@@ -12,10 +13,7 @@ import org.apache.pdfbox.pdmodel.PDPageContentStream;
 import org.apache.pdfbox.pdmodel.common.PDRectangle;
 import org.apache.pdfbox.pdmodel.font.PDType1Font;
 import org.apache.pdfbox.pdmodel.graphics.image.PDImageXObject;
-import org.apache.pdfbox.text.PDFTextStripper;
-import org.apache.poi.xwpf.usermodel.XWPFDocument;
-import org.apache.poi.xwpf.usermodel.XWPFParagraph;
-import org.apache.poi.xwpf.usermodel.XWPFRun;
+import org.apache.tika.exception.TikaException;
 import org.jodconverter.core.DocumentConverter;
 import org.jodconverter.core.document.DefaultDocumentFormatRegistry;
 import org.jodconverter.core.document.DocumentFormat;
@@ -28,6 +26,7 @@ import org.springframework.util.unit.DataSize;
 import javax.imageio.ImageIO;
 import java.awt.image.BufferedImage;
 import java.io.*;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
@@ -40,6 +39,7 @@ public class ConversionService {
     
     private final ContentService contentService;
     private final SecurityService securityService;
+    private final TextExtractionService textExtractionService;
     
     @Autowired(required = false)
     private DocumentConverter documentConverter;
@@ -118,9 +118,9 @@ public class ConversionService {
         result.setSourceDocumentId(document.getId());
         result.setTargetFormat("txt");
         
-        try (InputStream content = contentService.getContent(document.getContentId())) {
-            String text = extractText(content, document.getMimeType());
-            result.setContent(text.getBytes("UTF-8"));
+        try {
+            String text = extractText(document);
+            result.setContent(text.getBytes(StandardCharsets.UTF_8));
             result.setSuccess(true);
             result.setMimeType("text/plain");
             result.setFileSize(result.getContent().length);
@@ -183,16 +183,7 @@ public class ConversionService {
     }
     
     private byte[] extractTextFromPdf(Document document) throws IOException {
-        try (InputStream content = contentService.getContent(document.getContentId())) {
-            byte[] pdfBytes = content.readAllBytes();
-            try (PDDocument pdf = PDDocument.load(pdfBytes)) {
-            
-            PDFTextStripper stripper = new PDFTextStripper();
-            String text = stripper.getText(pdf);
-            
-            return text.getBytes("UTF-8");
-            }
-        }
+        return extractText(document).getBytes(StandardCharsets.UTF_8);
     }
     
     private byte[] convertPdfToImage(Document document, String format) throws IOException {
@@ -293,25 +284,12 @@ public class ConversionService {
         }
     }
     
-    private String extractText(InputStream content, String mimeType) throws IOException {
-        if (mimeType.equals("application/pdf")) {
-            byte[] pdfBytes = content.readAllBytes();
-            try (PDDocument pdf = PDDocument.load(pdfBytes)) {
-                PDFTextStripper stripper = new PDFTextStripper();
-                return stripper.getText(pdf);
-            }
-        } else if (mimeType.contains("word")) {
-            try (XWPFDocument doc = new XWPFDocument(content)) {
-                StringBuilder text = new StringBuilder();
-                for (XWPFParagraph para : doc.getParagraphs()) {
-                    text.append(para.getText()).append("\n");
-                }
-                return text.toString();
-            }
-        } else if (mimeType.startsWith("text/")) {
-            return new String(content.readAllBytes(), "UTF-8");
-        } else {
-            throw new UnsupportedOperationException("Text extraction not supported for: " + mimeType);
+    private String extractText(Document document) throws IOException {
+        try {
+            return textExtractionService.extract(document.getContentHash(), document.getName(),
+                () -> contentService.getContent(document.getContentId())).text();
+        } catch (TikaException e) {
+            throw new IOException("Text extraction failed: " + e.getMessage(), e);
         }
     }
     
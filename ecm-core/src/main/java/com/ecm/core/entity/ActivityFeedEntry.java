@@ -0,0 +1,54 @@
+package com.ecm.core.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Materialized per-user feed row written at post time for each follower of an
+ * activity's user, site, or node. {@code postedAt} is copied from the activity
+ * so keyset reads never have to join back to {@code activities} for ordering.
+ */
+@Data
+@Entity
+@Table(
+    name = "activity_feed_entries",
+    uniqueConstraints = {
+        @UniqueConstraint(name = "uk_activity_feed_entry_user_activity", columnNames = {"user_id", "activity_id"})
+    },
+    indexes = {
+        @Index(name = "idx_activity_feed_user_posted", columnList = "user_id, posted_at, activity_id"),
+        @Index(name = "idx_activity_feed_user_source", columnList = "user_id, source_type, source_id"),
+        @Index(name = "idx_activity_feed_posted_at", columnList = "posted_at")
+    }
+)
+public class ActivityFeedEntry {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private UUID id;
+
+    @Column(name = "user_id", nullable = false)
+    private String userId;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "activity_id", nullable = false)
+    private Activity activity;
+
+    @Column(name = "posted_at", nullable = false)
+    private LocalDateTime postedAt;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "source_type", nullable = false, length = 20)
+    private FollowTargetType sourceType;
+
+    @Column(name = "source_id", nullable = false, length = 255)
+    private String sourceId;
+
+    @CreationTimestamp
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+}
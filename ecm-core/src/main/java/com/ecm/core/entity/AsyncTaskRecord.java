@@ -0,0 +1,94 @@
+package com.ecm.core.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import org.hibernate.annotations.DynamicUpdate;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Cluster-visible state of one async task. The domain-specific task object is kept as JSON in
+ * {@code payload}; the remaining columns are what the store needs for listing, leasing and
+ * artifact lookup without decoding it.
+ *
+ * <p>Updates only write changed columns so a lease renewal and a payload update of the same row
+ * never overwrite each other's fields; payload updates are guarded by {@code version}.
+ */
+@Data
+@Entity
+@DynamicUpdate
+@Table(name = "async_task_records",
+    uniqueConstraints = @UniqueConstraint(name = "uk_async_task_record_domain_task", columnNames = {"domain", "task_id"}),
+    indexes = {
+        @Index(name = "idx_async_task_record_lease", columnList = "active, lease_expires_at"),
+        @Index(name = "idx_async_task_record_owner", columnList = "owner_node")
+    })
+public class AsyncTaskRecord {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private UUID id;
+
+    @Column(name = "domain", nullable = false, length = 64)
+    private String domain;
+
+    @Column(name = "task_id", nullable = false, length = 128)
+    private String taskId;
+
+    @Column(name = "status", nullable = false, length = 32)
+    private String status;
+
+    @Column(name = "active", nullable = false)
+    private boolean active;
+
+    @Column(name = "created_by")
+    private String createdBy;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    /** Creation or the move to a terminal status; listings are ordered by it. */
+    @Column(name = "transitioned_at", nullable = false)
+    private LocalDateTime transitionedAt;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
+    @Column(name = "completed_at")
+    private LocalDateTime completedAt;
+
+    @Column(name = "owner_node", length = 128)
+    private String ownerNode;
+
+    @Column(name = "lease_expires_at")
+    private LocalDateTime leaseExpiresAt;
+
+    @Column(name = "lease_token", length = 36)
+    private String leaseToken;
+
+    @Column(name = "heartbeat_at")
+    private LocalDateTime heartbeatAt;
+
+    @Column(name = "recovery_attempts", nullable = false)
+    private int recoveryAttempts;
+
+    @Column(name = "payload", nullable = false, columnDefinition = "text")
+    private String payload;
+
+    @Column(name = "progress", columnDefinition = "text")
+    private String progress;
+
+    @Column(name = "artifact_content_id")
+    private String artifactContentId;
+
+    @Column(name = "artifact_content_type")
+    private String artifactContentType;
+
+    @Column(name = "artifact_size_bytes")
+    private Long artifactSizeBytes;
+
+    @Version
+    @Column(name = "version", nullable = false)
+    private long version;
+}
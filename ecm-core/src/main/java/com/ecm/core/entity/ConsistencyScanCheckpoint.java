@@ -0,0 +1,53 @@
+package com.ecm.core.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Resume position of a content consistency scan. Phases run in order; the {@code last*} fields hold
+ * the last fully verified key of each phase so a restarted scan continues after it.
+ */
+@Data
+@Entity
+@Table(name = "consistency_scan_checkpoints")
+public class ConsistencyScanCheckpoint {
+
+    @Id
+    @Column(name = "scan_name", length = 64)
+    private String scanName;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "phase", nullable = false, length = 32)
+    private Phase phase = Phase.DOCUMENTS;
+
+    @Column(name = "last_document_id")
+    private UUID lastDocumentId;
+
+    @Column(name = "last_version_id")
+    private UUID lastVersionId;
+
+    @Column(name = "last_blob_day", length = 16)
+    private String lastBlobDay;
+
+    @Column(name = "items_checked", nullable = false)
+    private long itemsChecked;
+
+    @Column(name = "issues_found", nullable = false)
+    private long issuesFound;
+
+    @Column(name = "started_at")
+    private LocalDateTime startedAt;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    @Column(name = "completed_at")
+    private LocalDateTime completedAt;
+
+    public enum Phase {
+        DOCUMENTS, VERSIONS, BLOBS
+    }
+}
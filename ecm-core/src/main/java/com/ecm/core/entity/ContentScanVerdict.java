@@ -0,0 +1,43 @@
+package com.ecm.core.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * Last antivirus verdict for one stored blob. Identical uploads share a content hash, so a verdict
+ * recorded under the current clamd signature version answers every later scan of the same bytes.
+ */
+@Data
+@Entity
+@Table(name = "content_scan_verdicts",
+    indexes = @Index(name = "idx_content_scan_verdict_signature", columnList = "status, signature_version"))
+public class ContentScanVerdict {
+
+    public static final String STATUS_CLEAN = "CLEAN";
+    public static final String STATUS_INFECTED = "INFECTED";
+
+    @Id
+    @Column(name = "content_hash", length = 64)
+    private String contentHash;
+
+    /** Blob the verdict was produced from; used by the background rescan. */
+    @Column(name = "content_id")
+    private String contentId;
+
+    @Column(name = "signature_version", nullable = false, length = 64)
+    private String signatureVersion;
+
+    @Column(name = "status", nullable = false, length = 16)
+    private String status;
+
+    @Column(name = "threat_name", length = 512)
+    private String threatName;
+
+    @Column(name = "size_bytes")
+    private Long sizeBytes;
+
+    @Column(name = "scanned_at", nullable = false)
+    private LocalDateTime scannedAt;
+}
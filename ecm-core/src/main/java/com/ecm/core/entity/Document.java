@@ -1,8 +1,11 @@
 package com.ecm.core.entity;
 
 import jakarta.persistence.*;
+import lombok.AccessLevel;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.Setter;
 import lombok.ToString;
 
 import java.time.LocalDateTime;
@@ -18,8 +21,12 @@ import java.util.UUID;
     @Index(name = "idx_document_ocr_status", columnList = "ocr_status")
 })
 @DiscriminatorValue("DOCUMENT")
-@EqualsAndHashCode(callSuper = true, exclude = {"versions", "currentVersion"})
-@ToString(callSuper = true, exclude = {"versions", "currentVersion"})
+@EqualsAndHashCode(callSuper = true,
+    exclude = {"versions", "currentVersion", "extractedText", "legacyTextContent", "pendingExtractedText",
+        "textContentChanged"})
+@ToString(callSuper = true,
+    exclude = {"versions", "currentVersion", "extractedText", "legacyTextContent", "pendingExtractedText",
+        "textContentChanged"})
 public class Document extends Node {
     
     @Column(name = "content_id")
@@ -118,8 +125,41 @@ public class Document extends Node {
     @Column(name = "preview_content_hash")
     private String previewContentHash;
     
+    /**
+     * Hash of the extracted text in {@link ExtractedText}. The text itself is only read when
+     * {@link #getTextContent()} is called.
+     */
+    @Column(name = "extracted_text_hash", length = 64)
+    private String extractedTextHash;
+
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "extracted_text_hash", insertable = false, updatable = false)
+    private ExtractedText extractedText;
+
+    /**
+     * Inline text of rows written before the extracted text store existed. Cleared as
+     * {@code ExtractedTextStore} moves it out of the row.
+     */
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
     @Column(name = "text_content", columnDefinition = "TEXT")
-    private String textContent;
+    private String legacyTextContent;
+
+    /**
+     * Text set on this instance that is not yet in the store; the service saving the document writes
+     * it through {@code ExtractedTextStore#storePending} first.
+     */
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    @Transient
+    private ExtractedText pendingExtractedText;
+
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    @Transient
+    private boolean textContentChanged;
     
     @Column(name = "language")
     private String language;
@@ -137,6 +177,39 @@ public class Document extends Node {
         return fileSize;
     }
 
+    /**
+     * Extracted text of the content, loaded from the extracted text store on first access.
+     */
+    public String getTextContent() {
+        if (textContentChanged) {
+            return pendingExtractedText != null ? pendingExtractedText.getText() : null;
+        }
+        if (extractedText != null) {
+            return extractedText.getText();
+        }
+        return legacyTextContent;
+    }
+
+    public void setTextContent(String textContent) {
+        this.textContentChanged = true;
+        this.legacyTextContent = null;
+        this.extractedText = null;
+        if (textContent == null || textContent.isEmpty()) {
+            this.pendingExtractedText = null;
+            this.extractedTextHash = null;
+            return;
+        }
+        this.pendingExtractedText = ExtractedText.of(textContent);
+        this.extractedTextHash = pendingExtractedText.getTextHash();
+    }
+
+    /**
+     * Text set on this instance that has to be in the store before the row is written, or {@code null}.
+     */
+    public ExtractedText pendingExtractedText() {
+        return pendingExtractedText;
+    }
+
     public void addVersion(Version version) {
         versions.add(version);
         version.setDocument(this);
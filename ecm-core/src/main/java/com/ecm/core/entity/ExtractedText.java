@@ -0,0 +1,98 @@
+package com.ecm.core.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Immutable;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Gzip-compressed extracted text of a document, keyed by the SHA-256 of the text. Documents reference
+ * it lazily through {@link Document#getTextContent()}, so listing and permission loads never read it,
+ * and documents whose content extracts to the same text share one row. Rows are written by
+ * {@link com.ecm.core.service.ExtractedTextStore} and never updated through JPA.
+ */
+@Getter
+@Entity
+@Immutable
+@NoArgsConstructor
+@Table(name = "extracted_texts")
+public class ExtractedText {
+
+    @Id
+    @Column(name = "text_hash", length = 64)
+    private String textHash;
+
+    @Column(name = "compressed_text", nullable = false)
+    private byte[] compressedText;
+
+    @Column(name = "text_length", nullable = false)
+    private int textLength;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Transient
+    private String text;
+
+    private ExtractedText(String textHash, byte[] compressedText, String text) {
+        this.textHash = textHash;
+        this.compressedText = compressedText;
+        this.textLength = text.length();
+        this.createdAt = LocalDateTime.now();
+        this.text = text;
+    }
+
+    public static ExtractedText of(String text) {
+        return new ExtractedText(hashOf(text), compress(text), text);
+    }
+
+    /**
+     * The decompressed text, decoded once per loaded instance.
+     */
+    public String getText() {
+        if (text == null && compressedText != null) {
+            text = decompress(compressedText);
+        }
+        return text;
+    }
+
+    public static String hashOf(String text) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(text.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    static byte[] compress(String text) {
+        byte[] raw = text.getBytes(StandardCharsets.UTF_8);
+        ByteArrayOutputStream out = new ByteArrayOutputStream(Math.max(64, raw.length / 3));
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(raw);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to compress extracted text", e);
+        }
+        return out.toByteArray();
+    }
+
+    static String decompress(byte[] compressed) {
+        try (GZIPInputStream gzip = new GZIPInputStream(new ByteArrayInputStream(compressed))) {
+            return new String(gzip.readAllBytes(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to decompress extracted text", e);
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package com.ecm.core.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * Progress of the directory sync for one directory source. Watermarks hold the highest change
+ * attribute value (e.g. {@code modifyTimestamp} or {@code uSNChanged}) seen in the last sync.
+ */
+@Data
+@Entity
+@Table(name = "ldap_sync_state")
+public class LdapSyncState {
+
+    @Id
+    @Column(name = "directory_source", length = 64)
+    private String directorySource;
+
+    @Column(name = "user_watermark", length = 64)
+    private String userWatermark;
+
+    @Column(name = "group_watermark", length = 64)
+    private String groupWatermark;
+
+    @Column(name = "last_full_sync_at")
+    private LocalDateTime lastFullSyncAt;
+
+    @Column(name = "last_sync_at")
+    private LocalDateTime lastSyncAt;
+}
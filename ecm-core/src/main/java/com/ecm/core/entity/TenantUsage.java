@@ -0,0 +1,37 @@
+package com.ecm.core.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Compacted storage usage of one tenant. The live value is {@code usedBytes} plus the sum of the
+ * tenant's not-yet-compacted {@link TenantUsageDelta} rows.
+ */
+@Data
+@Entity
+@Table(name = "tenant_usage")
+public class TenantUsage {
+
+    @Id
+    @Column(name = "tenant_id", nullable = false)
+    private UUID tenantId;
+
+    @Column(name = "used_bytes", nullable = false)
+    private long usedBytes;
+
+    @Column(name = "compacted_at")
+    private LocalDateTime compactedAt;
+
+    @Column(name = "reconciled_at")
+    private LocalDateTime reconciledAt;
+
+    /** Actual minus ledger usage found by the last reconciliation; positive means the ledger under-counted. */
+    @Column(name = "last_drift_bytes")
+    private Long lastDriftBytes;
+}
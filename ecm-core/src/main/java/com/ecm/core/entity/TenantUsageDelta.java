@@ -0,0 +1,39 @@
+package com.ecm.core.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Signed storage change for one tenant, appended in the transaction that changed the content.
+ * Rows are append-only so concurrent uploads never contend on a single counter row; they are
+ * folded into {@link TenantUsage#getUsedBytes()} by periodic compaction.
+ */
+@Data
+@Entity
+@Table(name = "tenant_usage_deltas", indexes = {
+    @Index(name = "idx_tenant_usage_delta_tenant", columnList = "tenant_id")
+})
+public class TenantUsageDelta {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "tenant_id", nullable = false)
+    private UUID tenantId;
+
+    @Column(name = "delta_bytes", nullable = false)
+    private long deltaBytes;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+}
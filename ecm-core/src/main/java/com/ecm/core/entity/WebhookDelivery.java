@@ -0,0 +1,81 @@
+package com.ecm.core.entity;
+
+import com.vladmihalcea.hibernate.type.json.JsonType;
+import jakarta.persistence.*;
+import lombok.Data;
+import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.Type;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * One queued webhook event for one subscription. Rows move PENDING -> IN_FLIGHT -> DELIVERED,
+ * or back to PENDING with a later {@code nextAttemptAt} on failure, and finally to DEAD once
+ * the retry budget is spent.
+ */
+@Data
+@Entity
+@Table(name = "webhook_deliveries", indexes = {
+    @Index(name = "idx_webhook_delivery_due", columnList = "subscription_id, status, next_attempt_at"),
+    @Index(name = "idx_webhook_delivery_status_claimed", columnList = "status, claimed_at"),
+    @Index(name = "idx_webhook_delivery_created_at", columnList = "created_at")
+})
+public class WebhookDelivery {
+
+    public enum Status {
+        PENDING,
+        IN_FLIGHT,
+        DELIVERED,
+        DEAD
+    }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private UUID id;
+
+    @Column(name = "subscription_id", nullable = false)
+    private UUID subscriptionId;
+
+    @Column(name = "event_type", nullable = false, length = 100)
+    private String eventType;
+
+    @Type(JsonType.class)
+    @Column(name = "payload", columnDefinition = "jsonb")
+    private Map<String, Object> payload = new HashMap<>();
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false, length = 20)
+    private Status status = Status.PENDING;
+
+    @Column(name = "attempts", nullable = false)
+    private int attempts;
+
+    @Column(name = "next_attempt_at", nullable = false)
+    private LocalDateTime nextAttemptAt;
+
+    @Column(name = "claimed_at")
+    private LocalDateTime claimedAt;
+
+    /** Shared by the rows of one claim, so in-flight batches can be counted across nodes. */
+    @Column(name = "claim_batch_id")
+    private UUID claimBatchId;
+
+    @Column(name = "last_status_code")
+    private Integer lastStatusCode;
+
+    @Column(name = "last_error", length = 1000)
+    private String lastError;
+
+    @Column(name = "last_latency_ms")
+    private Long lastLatencyMs;
+
+    @CreationTimestamp
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "delivered_at")
+    private LocalDateTime deliveredAt;
+}
@@ -56,4 +56,18 @@ public class WebhookSubscription extends BaseEntity {
 
     @Column(name = "last_error_message", length = 1000)
     private String lastErrorMessage;
+
+    /**
+     * Maximum number of queued events combined into one POST. {@code null} or 1 sends one
+     * event per request.
+     */
+    @Column(name = "delivery_batch_size")
+    private Integer deliveryBatchSize;
+
+    /**
+     * Maximum number of concurrent in-flight requests to this endpoint. {@code null} falls back
+     * to {@code ecm.webhook.delivery.default-max-concurrency}.
+     */
+    @Column(name = "delivery_max_concurrency")
+    private Integer deliveryMaxConcurrency;
 }
@@ -0,0 +1,98 @@
+package com.ecm.core.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * Denormalized task-inbox row, one per Flowable user task. Maintained by
+ * {@code WorkflowTaskInboxProjector} from task lifecycle events so inbox reads never
+ * scan {@code ACT_RU_TASK}/{@code ACT_HI_TASKINST} or merge several Flowable queries.
+ * Candidate/participant identities and business node ids live in
+ * {@link WorkflowTaskInboxLink}.
+ */
+@Data
+@Entity
+@Table(
+    name = "workflow_task_inbox",
+    indexes = {
+        @Index(name = "idx_wf_inbox_assignee_state_sort", columnList = "assignee, state, sort_time, task_id"),
+        @Index(name = "idx_wf_inbox_state_sort", columnList = "state, sort_time, task_id"),
+        @Index(name = "idx_wf_inbox_owner", columnList = "owner"),
+        @Index(name = "idx_wf_inbox_process_instance", columnList = "process_instance_id")
+    }
+)
+public class WorkflowTaskInboxEntry {
+
+    public enum State {
+        ACTIVE,
+        COMPLETED
+    }
+
+    @Id
+    @Column(name = "task_id", length = 64, nullable = false, updatable = false)
+    private String taskId;
+
+    @Column(name = "name", length = 255)
+    private String name;
+
+    @Column(name = "description", length = 4000)
+    private String description;
+
+    @Column(name = "assignee", length = 255)
+    private String assignee;
+
+    @Column(name = "owner", length = 255)
+    private String owner;
+
+    @Column(name = "delegation_state", length = 20)
+    private String delegationState;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "state", nullable = false, length = 20)
+    private State state = State.ACTIVE;
+
+    @Column(name = "task_created_at")
+    private LocalDateTime taskCreatedAt;
+
+    @Column(name = "due_date")
+    private LocalDateTime dueDate;
+
+    @Column(name = "completed_at")
+    private LocalDateTime completedAt;
+
+    /**
+     * Creation time for active tasks, end time for completed ones; the inbox keyset orders by
+     * {@code (sort_time DESC, task_id DESC)}.
+     */
+    @Column(name = "sort_time", nullable = false)
+    private LocalDateTime sortTime;
+
+    @Column(name = "process_instance_id", length = 64)
+    private String processInstanceId;
+
+    @Column(name = "process_definition_id", length = 255)
+    private String processDefinitionId;
+
+    @Column(name = "task_definition_key", length = 255)
+    private String taskDefinitionKey;
+
+    @Column(name = "process_definition_key", length = 255)
+    private String processDefinitionKey;
+
+    @Column(name = "process_definition_name", length = 255)
+    private String processDefinitionName;
+
+    @Column(name = "process_definition_version")
+    private Integer processDefinitionVersion;
+
+    @Column(name = "business_key", length = 255)
+    private String businessKey;
+
+    @Column(name = "started_by", length = 255)
+    private String startedBy;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+}
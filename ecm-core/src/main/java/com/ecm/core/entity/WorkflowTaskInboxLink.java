@@ -0,0 +1,52 @@
+package com.ecm.core.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+import java.util.UUID;
+
+/**
+ * Identity or business-document link of a {@link WorkflowTaskInboxEntry}. Candidate and
+ * participant rows mirror the task's Flowable identity links; BUSINESS_NODE rows hold the
+ * node ids resolved from the process business key and item variables, used for tenant
+ * workspace visibility.
+ */
+@Data
+@Entity
+@Table(
+    name = "workflow_task_inbox_links",
+    indexes = {
+        @Index(name = "idx_wf_inbox_link_task", columnList = "task_id"),
+        @Index(name = "idx_wf_inbox_link_user", columnList = "user_id, link_type"),
+        @Index(name = "idx_wf_inbox_link_group", columnList = "group_id, link_type"),
+        @Index(name = "idx_wf_inbox_link_node", columnList = "node_id")
+    }
+)
+public class WorkflowTaskInboxLink {
+
+    public enum LinkType {
+        CANDIDATE,
+        PARTICIPANT,
+        BUSINESS_NODE
+    }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private UUID id;
+
+    @Column(name = "task_id", length = 64, nullable = false)
+    private String taskId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "link_type", nullable = false, length = 20)
+    private LinkType linkType;
+
+    @Column(name = "user_id", length = 255)
+    private String userId;
+
+    @Column(name = "group_id", length = 255)
+    private String groupId;
+
+    @Column(name = "node_id")
+    private UUID nodeId;
+}
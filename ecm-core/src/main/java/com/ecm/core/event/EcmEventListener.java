@@ -8,8 +8,11 @@ import com.ecm.core.preview.PreviewQueueService;
 import com.ecm.core.search.SearchIndexService;
 import com.ecm.core.service.AuditService;
 import com.ecm.core.service.NotificationService;
+import com.ecm.core.service.SubtreeRepathTaskRegistry;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Lazy;
 import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Component;
 import org.springframework.transaction.event.TransactionPhase;
@@ -25,6 +28,10 @@ public class EcmEventListener {
     private final NotificationService notificationService;
     private final PreviewQueueService previewQueueService;
     private final OcrQueueService ocrQueueService;
+
+    @Autowired
+    @Lazy
+    private SubtreeRepathTaskRegistry subtreeRepathTaskRegistry;
     
     @Async
     @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
@@ -98,7 +105,11 @@ public class EcmEventListener {
         searchIndexService.updateNode(event.getNode());
         
         // Reindex descendants from database so move does not depend on stale index paths
-        searchIndexService.reindexNodeSubtree(event.getNode());
+        if (event.getRepathTaskId() != null && subtreeRepathTaskRegistry != null) {
+            subtreeRepathTaskRegistry.run(event.getRepathTaskId(), event.getNode());
+        } else {
+            searchIndexService.reindexNodeSubtree(event.getNode());
+        }
     }
 
     @Async
@@ -125,6 +136,17 @@ public class EcmEventListener {
         log.info("Node batch reindex requested: {} node(s)", event.getNodeIds().size());
         searchIndexService.reindexNodes(event.getNodeIds());
     }
+
+    @Async
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void handleUserDepartmentChanged(UserDepartmentChangedEvent event) {
+        log.info("Department of {} changed, reindexing owned nodes", event.getUsername());
+        try {
+            searchIndexService.reindexNodesOwnedBy(event.getUsername());
+        } catch (Exception e) {
+            log.error("Failed to reindex nodes owned by {}", event.getUsername(), e);
+        }
+    }
     
     @Async
     @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
@@ -10,12 +10,21 @@ public class NodeMovedEvent extends ApplicationEvent {
     private final Node oldParent;
     private final Node newParent;
     private final String username;
+    /**
+     * Re-path task tracking the subtree reindex of a large move, or {@code null} when untracked.
+     */
+    private final String repathTaskId;
 
     public NodeMovedEvent(Node node, Node oldParent, Node newParent, String username) {
+        this(node, oldParent, newParent, username, null);
+    }
+
+    public NodeMovedEvent(Node node, Node oldParent, Node newParent, String username, String repathTaskId) {
         super(node);
         this.node = node;
         this.oldParent = oldParent;
         this.newParent = newParent;
         this.username = username;
+        this.repathTaskId = repathTaskId;
     }
 }
@@ -53,7 +53,19 @@ public final class RepositoryLifecyclePublisher {
         String username,
         TriggerType ruleTriggerType
     ) {
-        eventPublisher.publishEvent(new NodeMovedEvent(node, oldParent, newParent, username));
+        publishNodeMoved(eventPublisher, node, oldParent, newParent, username, ruleTriggerType, null);
+    }
+
+    public static void publishNodeMoved(
+        ApplicationEventPublisher eventPublisher,
+        Node node,
+        Node oldParent,
+        Node newParent,
+        String username,
+        TriggerType ruleTriggerType,
+        String repathTaskId
+    ) {
+        eventPublisher.publishEvent(new NodeMovedEvent(node, oldParent, newParent, username, repathTaskId));
         eventPublisher.publishEvent(RepositoryLifecycleEvent.builder()
             .action(RepositoryLifecycleAction.NODE_MOVED)
             .node(node)
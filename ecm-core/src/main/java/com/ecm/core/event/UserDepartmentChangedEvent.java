@@ -0,0 +1,21 @@
+package com.ecm.core.event;
+
+import lombok.Getter;
+import org.springframework.context.ApplicationEvent;
+
+/**
+ * A user's department changed, so the {@code ownerDepartment} indexed on the nodes they own is stale.
+ */
+@Getter
+public class UserDepartmentChangedEvent extends ApplicationEvent {
+    private final String username;
+    private final String previousDepartment;
+    private final String department;
+
+    public UserDepartmentChangedEvent(String username, String previousDepartment, String department) {
+        super(username);
+        this.username = username;
+        this.previousDepartment = previousDepartment;
+        this.department = department;
+    }
+}
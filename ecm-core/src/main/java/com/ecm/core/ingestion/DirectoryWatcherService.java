@@ -16,6 +16,10 @@ import org.springframework.web.multipart.MultipartFile;
 import jakarta.annotation.PostConstruct;
 import java.io.IOException;
 import java.nio.file.*;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
 import java.util.UUID;
 import java.util.stream.Stream;
 
@@ -23,12 +27,19 @@ import java.util.stream.Stream;
  * Directory Watcher Service (Hot Folder)
  * 
  * Monitors a local directory for new files and automatically ingests them.
+ *
+ * <p>The poll runs on every node, since the folder may be local to each one. When replicas share it
+ * (a network mount), a node first claims a file by renaming it to {@code <name>.ingesting}; only the
+ * node whose rename succeeds ingests it. A claim older than {@code claim-timeout-minutes}, left by a
+ * node that stopped mid-ingest, is renamed back so the file is picked up again.
  */
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class DirectoryWatcherService {
 
+    private static final String CLAIM_SUFFIX = ".ingesting";
+
     private final DocumentUploadService uploadService;
     private final FolderService folderService;
     private final TenantContextResolverService tenantContextResolverService;
@@ -42,6 +53,9 @@ public class DirectoryWatcherService {
     @Value("${ecm.ingestion.target-folder-id:}")
     private String targetFolderIdStr;
 
+    @Value("${ecm.ingestion.claim-timeout-minutes:30}")
+    private long claimTimeoutMinutes = 30;
+
     private UUID targetFolderId;
 
     @PostConstruct
@@ -76,44 +90,94 @@ public class DirectoryWatcherService {
     public void pollDirectory() {
         if (!enabled) return;
 
+        // Listed up front, so files this pass claims or releases are not seen again until the next one
+        List<Path> files;
         try (Stream<Path> paths = Files.list(Paths.get(watchFolderPath))) {
-            paths.filter(Files::isRegularFile)
-                 .filter(p -> !p.getFileName().toString().endsWith(".error"))
-                 .forEach(this::processFile);
+            files = paths.filter(Files::isRegularFile)
+                .filter(p -> !p.getFileName().toString().endsWith(".error"))
+                .toList();
         } catch (IOException e) {
             log.error("Error polling watch folder", e);
+            return;
+        }
+        for (Path file : files) {
+            if (file.getFileName().toString().endsWith(CLAIM_SUFFIX)) {
+                releaseIfStale(file);
+            } else {
+                processFile(file);
+            }
         }
     }
 
-    private void processFile(Path file) {
-        log.info("Detected new file in watch folder: {}", file.getFileName());
+    private void processFile(Path original) {
+        String name = original.getFileName().toString();
+        Path file = claim(original);
+        if (file == null) {
+            return;
+        }
+        log.info("Detected new file in watch folder: {}", name);
 
         try {
             // Wait briefly to ensure file write is complete (simple debounce)
             Thread.sleep(500); 
             
-            String contentType = Files.probeContentType(file);
+            String contentType = Files.probeContentType(original);
             byte[] content = Files.readAllBytes(file);
             
             MultipartFile multipartFile = new MockMultipartFile(
-                file.getFileName().toString(),
-                file.getFileName().toString(),
+                name,
+                name,
                 contentType,
                 content
             );
 
-            if (!ingestUnderResolvedTenant(multipartFile, file.getFileName().toString())) {
-                moveToError(file);
+            if (!ingestUnderResolvedTenant(multipartFile, name)) {
+                moveToError(file, name);
                 return;
             }
 
             // Delete processed file
             Files.delete(file);
-            log.info("Successfully ingested and deleted: {}", file.getFileName());
+            log.info("Successfully ingested and deleted: {}", name);
 
         } catch (Exception e) {
-            log.error("Failed to ingest file: {}", file.getFileName(), e);
-            moveToError(file);
+            log.error("Failed to ingest file: {}", name, e);
+            moveToError(file, name);
+        }
+    }
+
+    /**
+     * Take the file for this node. Returns the claimed path, or {@code null} when another node renamed
+     * it first. The claim's modification time records when it was taken.
+     */
+    private Path claim(Path file) {
+        Path claimed = file.resolveSibling(file.getFileName() + CLAIM_SUFFIX);
+        try {
+            Files.move(file, claimed, StandardCopyOption.ATOMIC_MOVE);
+            Files.setLastModifiedTime(claimed, FileTime.from(Instant.now()));
+            return claimed;
+        } catch (NoSuchFileException e) {
+            return null;
+        } catch (IOException e) {
+            log.warn("Could not claim {} for ingestion: {}", file.getFileName(), e.getMessage());
+            return null;
+        }
+    }
+
+    private void releaseIfStale(Path claimed) {
+        try {
+            Instant claimedAt = Files.getLastModifiedTime(claimed).toInstant();
+            if (claimedAt.isAfter(Instant.now().minus(Duration.ofMinutes(Math.max(1, claimTimeoutMinutes))))) {
+                return;
+            }
+            String name = claimed.getFileName().toString();
+            Path original = claimed.resolveSibling(name.substring(0, name.length() - CLAIM_SUFFIX.length()));
+            Files.move(claimed, original, StandardCopyOption.ATOMIC_MOVE);
+            log.warn("Released ingestion claim on {} taken at {}", original.getFileName(), claimedAt);
+        } catch (NoSuchFileException e) {
+            // Finished or released by another node meanwhile
+        } catch (IOException e) {
+            log.warn("Could not release stale ingestion claim {}: {}", claimed.getFileName(), e.getMessage());
         }
     }
 
@@ -159,12 +223,12 @@ public class DirectoryWatcherService {
         }
     }
 
-    private void moveToError(Path file) {
+    private void moveToError(Path file, String name) {
         try {
-            Path errorFile = file.resolveSibling(file.getFileName() + ".error");
+            Path errorFile = file.resolveSibling(name + ".error");
             Files.move(file, errorFile, StandardCopyOption.REPLACE_EXISTING);
         } catch (IOException ex) {
-            log.error("Failed to rename error file: {}", file.getFileName(), ex);
+            log.error("Failed to rename error file: {}", name, ex);
         }
     }
 }
@@ -1,25 +1,49 @@
 package com.ecm.core.integration.antivirus;
 
+import com.ecm.core.entity.ContentScanVerdict;
+import com.ecm.core.repository.ContentScanVerdictRepository;
+import com.ecm.core.scheduler.ClusterJob;
 import com.ecm.core.service.AuditService;
+import com.ecm.core.service.ContentService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
 import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import java.io.IOException;
 import java.io.InputStream;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 /**
  * High-level antivirus service for content scanning.
  *
  * Wraps ClamAvClient with Spring configuration and audit logging.
+ *
+ * Scans run on a pool of persistent clamd IDSESSION connections ({@link ClamAvSessionPool}) when
+ * {@code ecm.antivirus.clamd.pool.size} is positive. Verdicts for stored content are remembered per
+ * SHA-256 together with the clamd signature version, so the same blob arriving again (typically one
+ * mail attachment delivered to many recipients) is not streamed to clamd a second time. When the
+ * signature database changes, cached verdicts stop matching and clean ones are re-verified in the
+ * background.
  */
 @Slf4j
 @Service
 public class AntivirusService {
 
     private final AuditService auditService;
+    private final ContentService contentService;
+    private final ContentScanVerdictRepository verdictRepository;
+    private final Counter cacheHits;
+    private final Counter cacheMisses;
+    private final MeterRegistry meterRegistry;
 
     @Value("${ecm.antivirus.enabled:false}")
     private boolean enabled;
@@ -36,21 +60,66 @@ public class AntivirusService {
     @Value("${ecm.antivirus.on-threat.action:reject}")
     private String onThreatAction;
 
+    /** Parallel clamd sessions; 0 opens a new connection per scan. */
+    @Value("${ecm.antivirus.clamd.pool.size:4}")
+    private int poolSize = 4;
+
+    /** Must stay below clamd's IdleTimeout (30s by default). */
+    @Value("${ecm.antivirus.clamd.pool.idle-ms:20000}")
+    private long poolIdleMs = 20_000L;
+
+    @Value("${ecm.antivirus.clamd.pool.max-scans-per-session:1000}")
+    private int poolMaxScansPerSession = 1000;
+
+    @Value("${ecm.antivirus.verdict-cache.enabled:true}")
+    private boolean verdictCacheEnabled = true;
+
+    @Value("${ecm.antivirus.rescan.enabled:true}")
+    private boolean rescanEnabled = true;
+
+    @Value("${ecm.antivirus.rescan.batch-size:50}")
+    private int rescanBatchSize = 50;
+
     private ClamAvClient clamAvClient;
+    private ClamAvSessionPool sessionPool;
+
+    private volatile String signatureVersion;
+    private volatile long signatureCheckedAtMillis;
 
-    public AntivirusService(AuditService auditService) {
+    public AntivirusService(AuditService auditService,
+                            ContentService contentService,
+                            ContentScanVerdictRepository verdictRepository,
+                            MeterRegistry meterRegistry) {
         this.auditService = auditService;
+        this.contentService = contentService;
+        this.verdictRepository = verdictRepository;
+        this.meterRegistry = meterRegistry;
+        this.cacheHits = Counter.builder("antivirus_verdict_cache_requests")
+            .description("Scans of stored content answered from or missing the verdict cache")
+            .tag("result", "hit")
+            .register(meterRegistry);
+        this.cacheMisses = Counter.builder("antivirus_verdict_cache_requests")
+            .description("Scans of stored content answered from or missing the verdict cache")
+            .tag("result", "miss")
+            .register(meterRegistry);
     }
 
     @PostConstruct
     public void init() {
         if (enabled) {
             clamAvClient = new ClamAvClient(clamdHost, clamdPort, clamdTimeout);
-            log.info("Antivirus service initialized - ClamAV at {}:{}", clamdHost, clamdPort);
+            if (poolSize > 0) {
+                sessionPool = new ClamAvSessionPool(clamdHost, clamdPort, clamdTimeout, poolSize, poolIdleMs,
+                    poolMaxScansPerSession);
+            }
+            log.info("Antivirus service initialized - ClamAV at {}:{} ({} pooled sessions)",
+                clamdHost, clamdPort, poolSize);
 
             // Check connectivity on startup
             if (clamAvClient.ping()) {
                 String version = clamAvClient.getVersion();
+                signatureVersion = ClamAvClient.signatureVersion(version);
+                signatureCheckedAtMillis = System.currentTimeMillis();
                 log.info("ClamAV is available - Version: {}", version);
             } else {
                 log.warn("ClamAV is not responding at {}:{}. Uploads will fail if scanning is required.",
@@ -61,6 +130,13 @@ public class AntivirusService {
         }
     }
 
+    @PreDestroy
+    public void shutdown() {
+        if (sessionPool != null) {
+            sessionPool.close();
+        }
+    }
+
     /**
      * Check if antivirus scanning is enabled.
      */
@@ -111,7 +187,7 @@ public class AntivirusService {
         long startTime = System.currentTimeMillis();
 
         try {
-            ClamAvClient.ScanResult result = clamAvClient.scan(inputStream);
+            ClamAvClient.ScanResult result = clamdScan(inputStream);
             long duration = System.currentTimeMillis() - startTime;
 
             if (result.isClean()) {
@@ -120,17 +196,7 @@ public class AntivirusService {
 
             } else if (result.isInfected()) {
                 log.warn("VIRUS DETECTED in '{}': {} (scan took {}ms)", filename, result.threatName(), duration);
-
-                // Audit log the virus detection
-                auditVirusDetection(nodeId, filename, result.threatName());
-
-                // Based on action configuration
-                if ("reject".equalsIgnoreCase(onThreatAction)) {
-                    throw new VirusDetectedException(filename, result.threatName());
-                } else {
-                    // quarantine mode - return result but let caller handle
-                    return VirusScanResult.infected(result.threatName(), duration);
-                }
+                return handleThreat(filename, nodeId, result.threatName(), duration);
 
             } else {
                 // Error during scan
@@ -155,6 +221,210 @@ public class AntivirusService {
         }
     }
 
+    /**
+     * Scan a blob from the content store, reusing the recorded verdict for {@code contentHash} when it
+     * was produced with the signature database clamd is running now.
+     *
+     * @param contentHash SHA-256 of the content; {@code null} disables the verdict cache for this call
+     */
+    public VirusScanResult scanStoredContent(String contentId, String contentHash, String filename, UUID nodeId)
+            throws AntivirusException, IOException {
+        if (!enabled) {
+            log.debug("Antivirus scanning is disabled, skipping scan for: {}", filename);
+            return VirusScanResult.skipped("Antivirus scanning is disabled");
+        }
+
+        if (clamAvClient == null) {
+            throw new AntivirusException("Antivirus service not initialized");
+        }
+
+        String signatures = currentSignatureVersion();
+        boolean cacheable = verdictCacheEnabled && contentHash != null && signatures != null;
+        if (cacheable) {
+            Optional<ContentScanVerdict> cached = verdictRepository.findById(contentHash)
+                .filter(verdict -> signatures.equals(verdict.getSignatureVersion()));
+            if (cached.isPresent()) {
+                cacheHits.increment();
+                ContentScanVerdict verdict = cached.get();
+                if (ContentScanVerdict.STATUS_INFECTED.equals(verdict.getStatus())) {
+                    log.warn("VIRUS DETECTED in '{}': {} (cached verdict for {})",
+                        filename, verdict.getThreatName(), contentHash);
+                    return handleThreat(filename, nodeId, verdict.getThreatName(), 0L);
+                }
+                log.debug("Virus scan CLEAN for '{}' from cached verdict (signatures {})", filename, signatures);
+                return VirusScanResult.clean(0L);
+            }
+            cacheMisses.increment();
+        }
+
+        VirusScanResult result;
+        try (InputStream in = contentService.getContent(contentId)) {
+            result = scan(in, filename, nodeId);
+        } catch (VirusDetectedException e) {
+            if (cacheable) {
+                recordVerdict(contentHash, contentId, signatures, ContentScanVerdict.STATUS_INFECTED, e.getThreatName());
+            }
+            throw e;
+        }
+        if (cacheable && result.isClean()) {
+            recordVerdict(contentHash, contentId, signatures, ContentScanVerdict.STATUS_CLEAN, null);
+        } else if (cacheable && result.isInfected()) {
+            recordVerdict(contentHash, contentId, signatures, ContentScanVerdict.STATUS_INFECTED, result.threatName());
+        }
+        return result;
+    }
+
+    /**
+     * Track the clamd signature database version. A change makes every cached verdict stale.
+     */
+    @Scheduled(
+        fixedDelayString = "${ecm.antivirus.signature-check-interval-ms:300000}",
+        initialDelayString = "${ecm.antivirus.signature-check-interval-ms:300000}")
+    public void refreshSignatureVersion() {
+        if (!enabled || clamAvClient == null) {
+            return;
+        }
+        signatureCheckedAtMillis = System.currentTimeMillis();
+        String version = ClamAvClient.signatureVersion(clamAvClient.getVersion());
+        if (version == null) {
+            return;
+        }
+        String previous = signatureVersion;
+        signatureVersion = version;
+        if (previous != null && !previous.equals(version)) {
+            log.info("ClamAV signatures changed from {} to {}; cached verdicts will be re-verified", previous, version);
+        }
+    }
+
+    /**
+     * Re-verify content whose clean verdict came from an older signature database, a batch per run.
+     * Content found infected is recorded and reported as a security event.
+     */
+    @Scheduled(
+        fixedDelayString = "${ecm.antivirus.rescan.interval-ms:60000}",
+        initialDelayString = "${ecm.antivirus.rescan.interval-ms:60000}")
+    @ClusterJob
+    public void rescanStaleVerdicts() {
+        if (!enabled || !rescanEnabled || !verdictCacheEnabled || clamAvClient == null) {
+            return;
+        }
+        String signatures = signatureVersion;
+        if (signatures == null) {
+            return;
+        }
+        List<ContentScanVerdict> stale = verdictRepository.findStale(ContentScanVerdict.STATUS_CLEAN, signatures,
+            PageRequest.of(0, Math.max(1, rescanBatchSize)));
+        for (ContentScanVerdict verdict : stale) {
+            if (!signatures.equals(signatureVersion)) {
+                // Signatures moved again mid-batch; the next run starts over with the new version.
+                return;
+            }
+            rescan(verdict, signatures);
+        }
+        if (!stale.isEmpty()) {
+            log.info("Re-verified {} stored blobs against ClamAV signatures {}", stale.size(), signatures);
+        }
+    }
+
+    private void rescan(ContentScanVerdict verdict, String signatures) {
+        String contentId = verdict.getContentId();
+        if (!contentService.exists(contentId)) {
+            verdictRepository.delete(verdict);
+            countRescan("missing");
+            return;
+        }
+        try (InputStream in = contentService.getContent(contentId)) {
+            ClamAvClient.ScanResult result = clamdScan(in);
+            if (result.isError()) {
+                log.warn("Rescan of content {} failed: {}", contentId, result.errorMessage());
+                countRescan("error");
+                return;
+            }
+            verdict.setSignatureVersion(signatures);
+            verdict.setScannedAt(LocalDateTime.now());
+            if (result.isInfected()) {
+                verdict.setStatus(ContentScanVerdict.STATUS_INFECTED);
+                verdict.setThreatName(result.threatName());
+                log.warn("VIRUS DETECTED on rescan of stored content {} (hash {}): {}",
+                    contentId, verdict.getContentHash(), result.threatName());
+                auditRescanDetection(verdict);
+                countRescan("infected");
+            } else {
+                countRescan("clean");
+            }
+            verdictRepository.save(verdict);
+        } catch (IOException e) {
+            log.warn("Rescan of content {} failed: {}", contentId, e.getMessage());
+            countRescan("error");
+        }
+    }
+
+    private ClamAvClient.ScanResult clamdScan(InputStream inputStream) throws IOException {
+        return sessionPool != null ? sessionPool.scan(inputStream) : clamAvClient.scan(inputStream);
+    }
+
+    private VirusScanResult handleThreat(String filename, UUID nodeId, String threatName, long duration)
+            throws VirusDetectedException {
+        // Audit log the virus detection
+        auditVirusDetection(nodeId, filename, threatName);
+
+        // Based on action configuration
+        if ("reject".equalsIgnoreCase(onThreatAction)) {
+            throw new VirusDetectedException(filename, threatName);
+        }
+        // quarantine mode - return result but let caller handle
+        return VirusScanResult.infected(threatName, duration);
+    }
+
+    private String currentSignatureVersion() {
+        String version = signatureVersion;
+        if (version == null && System.currentTimeMillis() - signatureCheckedAtMillis > 10_000L) {
+            refreshSignatureVersion();
+            version = signatureVersion;
+        }
+        return version;
+    }
+
+    private void recordVerdict(String contentHash, String contentId, String signatures, String status, String threatName) {
+        try {
+            ContentScanVerdict verdict = new ContentScanVerdict();
+            verdict.setContentHash(contentHash);
+            verdict.setContentId(contentId);
+            verdict.setSignatureVersion(signatures);
+            verdict.setStatus(status);
+            verdict.setThreatName(threatName);
+            verdict.setSizeBytes(contentService.exists(contentId) ? contentService.getContentSize(contentId) : null);
+            verdict.setScannedAt(LocalDateTime.now());
+            verdictRepository.save(verdict);
+        } catch (Exception e) {
+            // The cache is an optimisation; a lost verdict only costs a rescan.
+            log.debug("Failed to record scan verdict for {}: {}", contentHash, e.getMessage());
+        }
+    }
+
+    private void countRescan(String outcome) {
+        Counter.builder("antivirus_rescans")
+            .description("Background re-verifications of stored content after a signature update")
+            .tag("outcome", outcome)
+            .register(meterRegistry)
+            .increment();
+    }
+
+    private void auditRescanDetection(ContentScanVerdict verdict) {
+        try {
+            String details = String.format(
+                    "VIRUS_DETECTED_RESCAN contentId=%s contentHash=%s threatName=%s signatures=%s",
+                    verdict.getContentId(),
+                    verdict.getContentHash(),
+                    verdict.getThreatName(),
+                    verdict.getSignatureVersion()
+            );
+            auditService.logEvent("SECURITY_EVENT", null, verdict.getContentId(), "system", details);
+        } catch (Exception e) {
+            log.error("Failed to audit virus detection: {}", e.getMessage());
+        }
+    }
+
     private void auditVirusDetection(UUID nodeId, String filename, String threatName) {
         try {
             String details = String.format(
@@ -156,7 +156,7 @@ public class ClamAvClient implements AutoCloseable {
         return baos.toString(StandardCharsets.US_ASCII).replace("\0", "");
     }
 
-    private ScanResult parseResponse(String response) {
+    static ScanResult parseResponse(String response) {
         // Expected formats:
         // "stream: OK" - clean
         // "stream: <threat_name> FOUND" - infected
@@ -182,6 +182,18 @@ public class ClamAvClient implements AutoCloseable {
         }
     }
 
+    /**
+     * Signature database version from a VERSION reply such as
+     * {@code ClamAV 1.0.1/26853/Mon Mar 13 08:21:55 2023}; the whole reply if it has no database part.
+     */
+    public static String signatureVersion(String versionReply) {
+        if (versionReply == null || versionReply.isBlank()) {
+            return null;
+        }
+        String[] parts = versionReply.trim().split("/");
+        return parts.length >= 2 && !parts[1].isBlank() ? parts[1].trim() : versionReply.trim();
+    }
+
     @Override
     public void close() {
         // Nothing to close - sockets are created per-operation
@@ -0,0 +1,218 @@
+package com.ecm.core.integration.antivirus;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Pool of persistent clamd connections in IDSESSION mode.
+ *
+ * <p>Each session is one TCP connection on which several INSTREAM commands are sent one after
+ * another; replies are prefixed with the command id. {@code maxSessions} caps how many scans run
+ * in parallel; further callers wait up to the socket timeout for a free session. Sessions idle
+ * longer than {@code idleMs} are dropped before clamd's own {@code IdleTimeout} closes them, and a
+ * session that returned an ERROR or failed on I/O is never reused.
+ */
+@Slf4j
+public class ClamAvSessionPool implements AutoCloseable {
+
+    private static final byte[] IDSESSION_CMD = "zIDSESSION\0".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] INSTREAM_CMD = "zINSTREAM\0".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] END_CMD = "zEND\0".getBytes(StandardCharsets.US_ASCII);
+    private static final int CHUNK_SIZE = 64 * 1024;
+
+    private final String host;
+    private final int port;
+    private final int timeout;
+    private final long idleMs;
+    private final int maxScansPerSession;
+    private final Semaphore permits;
+    private final Deque<Session> idle = new ArrayDeque<>();
+    private volatile boolean closed;
+
+    public ClamAvSessionPool(String host, int port, int timeout, int maxSessions, long idleMs, int maxScansPerSession) {
+        this.host = host;
+        this.port = port;
+        this.timeout = timeout;
+        this.idleMs = Math.max(0L, idleMs);
+        this.maxScansPerSession = Math.max(1, maxScansPerSession);
+        this.permits = new Semaphore(Math.max(1, maxSessions), true);
+    }
+
+    /**
+     * Scan the stream on a pooled session.
+     */
+    public ClamAvClient.ScanResult scan(InputStream content) throws IOException {
+        if (closed) {
+            throw new IOException("ClamAV session pool is closed");
+        }
+        try {
+            if (!permits.tryAcquire(timeout, TimeUnit.MILLISECONDS)) {
+                throw new IOException("Timed out waiting for a free ClamAV session");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for a ClamAV session");
+        }
+
+        Session session = null;
+        try {
+            session = borrow();
+            ClamAvClient.ScanResult result = session.scan(content);
+            if (!result.isError()) {
+                release(session);
+                session = null;
+            }
+            return result;
+        } finally {
+            if (session != null) {
+                session.close();
+            }
+            permits.release();
+        }
+    }
+
+    int idleSessions() {
+        synchronized (idle) {
+            return idle.size();
+        }
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        synchronized (idle) {
+            idle.forEach(Session::close);
+            idle.clear();
+        }
+    }
+
+    private Session borrow() throws IOException {
+        long now = System.currentTimeMillis();
+        synchronized (idle) {
+            Session candidate;
+            while ((candidate = idle.pollFirst()) != null) {
+                if (now - candidate.lastUsedMillis <= idleMs) {
+                    return candidate;
+                }
+                candidate.close();
+            }
+        }
+        return Session.open(host, port, timeout);
+    }
+
+    private void release(Session session) {
+        if (closed || session.scans >= maxScansPerSession) {
+            session.close();
+            return;
+        }
+        synchronized (idle) {
+            // LIFO keeps the most recently used connections warm and lets the rest age out.
+            idle.addFirst(session);
+        }
+    }
+
+    private static final class Session implements Closeable {
+
+        private final Socket socket;
+        private final OutputStream out;
+        private final InputStream in;
+        private int nextId = 1;
+        private int scans;
+        private long lastUsedMillis;
+
+        private Session(Socket socket) throws IOException {
+            this.socket = socket;
+            this.out = new BufferedOutputStream(socket.getOutputStream(), CHUNK_SIZE + 4);
+            this.in = new BufferedInputStream(socket.getInputStream());
+        }
+
+        static Session open(String host, int port, int timeout) throws IOException {
+            Socket socket = new Socket();
+            try {
+                socket.connect(new InetSocketAddress(host, port), timeout);
+                socket.setSoTimeout(timeout);
+                socket.setTcpNoDelay(true);
+                socket.setKeepAlive(true);
+                Session session = new Session(socket);
+                session.out.write(IDSESSION_CMD);
+                session.out.flush();
+                return session;
+            } catch (IOException e) {
+                socket.close();
+                throw e;
+            }
+        }
+
+        ClamAvClient.ScanResult scan(InputStream content) throws IOException {
+            int id = nextId++;
+            out.write(INSTREAM_CMD);
+            byte[] buffer = new byte[CHUNK_SIZE];
+            int read;
+            while ((read = content.read(buffer)) != -1) {
+                if (read == 0) {
+                    continue;
+                }
+                out.write((read >>> 24) & 0xFF);
+                out.write((read >>> 16) & 0xFF);
+                out.write((read >>> 8) & 0xFF);
+                out.write(read & 0xFF);
+                out.write(buffer, 0, read);
+            }
+            out.write(new byte[]{0, 0, 0, 0});
+            out.flush();
+
+            String reply = readReply();
+            String prefix = id + ": ";
+            if (!reply.startsWith(prefix)) {
+                throw new IOException("Unexpected ClamAV session reply for command " + id + ": " + reply);
+            }
+            scans++;
+            lastUsedMillis = System.currentTimeMillis();
+            return ClamAvClient.parseResponse(reply.substring(prefix.length()).trim());
+        }
+
+        private String readReply() throws IOException {
+            ByteArrayOutputStream reply = new ByteArrayOutputStream(64);
+            int b;
+            while ((b = in.read()) != -1) {
+                if (b == 0) {
+                    return reply.toString(StandardCharsets.US_ASCII);
+                }
+                reply.write(b);
+            }
+            throw new EOFException("ClamAV closed the session"
+                + (reply.size() > 0 ? " after: " + reply.toString(StandardCharsets.US_ASCII) : ""));
+        }
+
+        @Override
+        public void close() {
+            try {
+                out.write(END_CMD);
+                out.flush();
+            } catch (IOException ignored) {
+                // Connection is being discarded anyway
+            }
+            try {
+                socket.close();
+            } catch (IOException e) {
+                log.debug("Failed to close ClamAV session: {}", e.getMessage());
+            }
+        }
+    }
+}
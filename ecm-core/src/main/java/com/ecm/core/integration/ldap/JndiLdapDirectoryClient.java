@@ -13,15 +13,22 @@ import javax.naming.NamingException;
 import javax.naming.directory.Attribute;
 import javax.naming.directory.Attributes;
 import javax.naming.directory.DirContext;
-import javax.naming.directory.InitialDirContext;
 import javax.naming.directory.SearchControls;
 import javax.naming.directory.SearchResult;
+import javax.naming.ldap.Control;
+import javax.naming.ldap.InitialLdapContext;
+import javax.naming.ldap.LdapContext;
+import javax.naming.ldap.PagedResultsControl;
+import javax.naming.ldap.PagedResultsResponseControl;
+import java.io.IOException;
+import java.math.BigInteger;
 import java.util.ArrayList;
 import java.util.Hashtable;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Locale;
 import java.util.Set;
+import java.util.function.Consumer;
 
 @Slf4j
 @Component
@@ -46,16 +53,51 @@ public class JndiLdapDirectoryClient implements LdapDirectoryClient {
     }
 
     @Override
-    public LdapDirectorySnapshot fetchSnapshot() {
+    public LdapDirectoryScan readDirectory(LdapDirectoryPageHandler handler) {
         return withContext(context -> {
-            List<LdapDirectoryUser> users = searchUsers(context);
-            List<LdapDirectoryGroup> groups = searchGroups(context);
-            log.info("Fetched LDAP snapshot with {} users and {} groups", users.size(), groups.size());
-            return new LdapDirectorySnapshot(users, groups);
-        }, "Failed to fetch LDAP snapshot");
+            ChangeWatermark userWatermark = new ChangeWatermark();
+            ChangeWatermark groupWatermark = new ChangeWatermark();
+            int users = searchUsers(context, properties.getUserFilter(), userWatermark, handler);
+            int groups = searchGroups(context, properties.getGroupFilter(), groupWatermark, handler);
+            log.info("Read {} users and {} groups from LDAP", users, groups);
+            return new LdapDirectoryScan(true, users, groups, userWatermark.value(), groupWatermark.value());
+        }, "Failed to read LDAP directory");
     }
 
-    private List<LdapDirectoryUser> searchUsers(DirContext context) throws NamingException {
+    @Override
+    public LdapDirectoryScan readChanges(String userWatermark, String groupWatermark, LdapDirectoryPageHandler handler) {
+        if (!StringUtils.hasText(properties.getChangeAttribute())
+            || !StringUtils.hasText(userWatermark)
+            || !StringUtils.hasText(groupWatermark)) {
+            return readDirectory(handler);
+        }
+        return withContext(context -> {
+            // ">=" re-reads entries sharing the boundary value; applying them again is idempotent.
+            ChangeWatermark nextUserWatermark = new ChangeWatermark(userWatermark);
+            ChangeWatermark nextGroupWatermark = new ChangeWatermark(groupWatermark);
+            int users = searchUsers(
+                context,
+                changedSince(properties.getUserFilter(), userWatermark),
+                nextUserWatermark,
+                handler
+            );
+            int groups = searchGroups(
+                context,
+                changedSince(properties.getGroupFilter(), groupWatermark),
+                nextGroupWatermark,
+                handler
+            );
+            log.info("Read {} changed users and {} changed groups from LDAP", users, groups);
+            return new LdapDirectoryScan(false, users, groups, nextUserWatermark.value(), nextGroupWatermark.value());
+        }, "Failed to read LDAP changes");
+    }
+
+    private int searchUsers(
+        LdapContext context,
+        String filter,
+        ChangeWatermark watermark,
+        LdapDirectoryPageHandler handler
+    ) throws NamingException {
         String[] attributes = uniqueAttributes(
             properties.getUserUsernameAttribute(),
             properties.getUserEmailAttribute(),
@@ -65,25 +107,19 @@ public class JndiLdapDirectoryClient implements LdapDirectoryClient {
             properties.getUserDepartmentAttribute(),
             properties.getUserJobTitleAttribute(),
             properties.getUserExternalIdAttribute(),
-            properties.getUserEnabledAttribute()
+            properties.getUserEnabledAttribute(),
+            properties.getChangeAttribute()
         );
 
-        List<SearchResult> results = search(
-            context,
-            properties.getUserBaseDn(),
-            properties.getUserFilter(),
-            attributes
-        );
-
-        List<LdapDirectoryUser> users = new ArrayList<>(results.size());
-        for (SearchResult result : results) {
+        return search(context, properties.getUserBaseDn(), filter, attributes, result -> {
             Attributes attrs = result.getAttributes();
+            watermark.offer(stringAttribute(attrs, properties.getChangeAttribute()));
             String dn = normalizeDn(resolveDn(result, properties.getUserBaseDn()));
             String externalId = defaultIfBlank(stringAttribute(attrs, properties.getUserExternalIdAttribute()), dn);
             String username = defaultIfBlank(stringAttribute(attrs, properties.getUserUsernameAttribute()), extractRdnValue(dn));
             if (!StringUtils.hasText(username)) {
                 log.warn("Skipping LDAP user with missing username attribute at DN {}", dn);
-                continue;
+                return null;
             }
             String firstName = stringAttribute(attrs, properties.getUserFirstNameAttribute());
             String lastName = stringAttribute(attrs, properties.getUserLastNameAttribute());
@@ -92,7 +128,7 @@ public class JndiLdapDirectoryClient implements LdapDirectoryClient {
                 joinName(firstName, lastName),
                 username
             );
-            users.add(new LdapDirectoryUser(
+            return new LdapDirectoryUser(
                 externalId,
                 username,
                 stringAttribute(attrs, properties.getUserEmailAttribute()),
@@ -103,39 +139,37 @@ public class JndiLdapDirectoryClient implements LdapDirectoryClient {
                 stringAttribute(attrs, properties.getUserJobTitleAttribute()),
                 parseEnabled(attrs),
                 dn
-            ));
-        }
-        return users;
+            );
+        }, handler::users);
     }
 
-    private List<LdapDirectoryGroup> searchGroups(DirContext context) throws NamingException {
+    private int searchGroups(
+        LdapContext context,
+        String filter,
+        ChangeWatermark watermark,
+        LdapDirectoryPageHandler handler
+    ) throws NamingException {
         String[] attributes = uniqueAttributes(
             properties.getGroupNameAttribute(),
             properties.getGroupDisplayNameAttribute(),
             properties.getGroupDescriptionAttribute(),
             properties.getGroupEmailAttribute(),
             properties.getGroupExternalIdAttribute(),
-            properties.getGroupMemberAttribute()
-        );
-
-        List<SearchResult> results = search(
-            context,
-            properties.getGroupBaseDn(),
-            properties.getGroupFilter(),
-            attributes
+            properties.getGroupMemberAttribute(),
+            properties.getChangeAttribute()
         );
 
-        List<LdapDirectoryGroup> groups = new ArrayList<>(results.size());
-        for (SearchResult result : results) {
+        return search(context, properties.getGroupBaseDn(), filter, attributes, result -> {
             Attributes attrs = result.getAttributes();
+            watermark.offer(stringAttribute(attrs, properties.getChangeAttribute()));
             String dn = normalizeDn(resolveDn(result, properties.getGroupBaseDn()));
             String externalId = defaultIfBlank(stringAttribute(attrs, properties.getGroupExternalIdAttribute()), dn);
             String groupName = defaultIfBlank(stringAttribute(attrs, properties.getGroupNameAttribute()), extractRdnValue(dn));
             if (!StringUtils.hasText(groupName)) {
                 log.warn("Skipping LDAP group with missing name attribute at DN {}", dn);
-                continue;
+                return null;
             }
-            groups.add(new LdapDirectoryGroup(
+            return new LdapDirectoryGroup(
                 externalId,
                 groupName,
                 firstNonBlank(stringAttribute(attrs, properties.getGroupDisplayNameAttribute()), groupName),
@@ -144,16 +178,25 @@ public class JndiLdapDirectoryClient implements LdapDirectoryClient {
                 true,
                 dn,
                 stringAttributes(attrs, properties.getGroupMemberAttribute())
-            ));
-        }
-        return groups;
+            );
+        }, handler::groups);
     }
 
-    private List<SearchResult> search(
-        DirContext context,
+    /**
+     * Subtree search with RFC 2696 simple paged results, so large directories never exceed the
+     * server's size limit. Each page is mapped and handed to {@code pageHandler} before the next one
+     * is requested; only one page of entries is held at a time. The paging control is non-critical:
+     * servers without paging support answer in one response, which then arrives as a single page.
+     *
+     * @return the number of entries handed on
+     */
+    private <T> int search(
+        LdapContext context,
         String baseDn,
         String filter,
-        String[] attributes
+        String[] attributes,
+        SearchResultMapper<T> mapper,
+        Consumer<List<T>> pageHandler
     ) throws NamingException {
         verifyRequired(baseDn, "LDAP base DN is required");
         verifyRequired(filter, "LDAP search filter is required");
@@ -162,16 +205,86 @@ public class JndiLdapDirectoryClient implements LdapDirectoryClient {
         controls.setSearchScope(SearchControls.SUBTREE_SCOPE);
         controls.setReturningAttributes(attributes);
 
-        List<SearchResult> results = new ArrayList<>();
-        NamingEnumeration<SearchResult> enumeration = context.search(baseDn, filter, controls);
+        int pageSize = properties.getPageSize();
+        byte[] cookie = null;
+        int pages = 0;
+        int entries = 0;
         try {
-            while (enumeration.hasMore()) {
-                results.add(enumeration.next());
-            }
+            do {
+                if (pageSize > 0) {
+                    context.setRequestControls(new Control[] {pagedResultsControl(pageSize, cookie)});
+                }
+                List<T> page = new ArrayList<>(Math.max(pageSize, 0));
+                NamingEnumeration<SearchResult> enumeration = context.search(baseDn, filter, controls);
+                try {
+                    while (enumeration.hasMore()) {
+                        T entry = mapper.map(enumeration.next());
+                        if (entry != null) {
+                            page.add(entry);
+                        }
+                    }
+                } finally {
+                    enumeration.close();
+                }
+                pages++;
+                cookie = pageSize > 0 ? nextPageCookie(context.getResponseControls()) : null;
+                if (!page.isEmpty()) {
+                    pageHandler.accept(page);
+                    entries += page.size();
+                }
+            } while (cookie != null && cookie.length > 0);
         } finally {
-            enumeration.close();
+            if (pageSize > 0) {
+                context.setRequestControls(null);
+            }
+        }
+        log.debug("LDAP search under {} returned {} entries in {} page(s)", baseDn, entries, pages);
+        return entries;
+    }
+
+    private Control pagedResultsControl(int pageSize, byte[] cookie) throws NamingException {
+        try {
+            return new PagedResultsControl(pageSize, cookie, Control.NONCRITICAL);
+        } catch (IOException ex) {
+            NamingException namingException = new NamingException("Failed to encode LDAP paged results control");
+            namingException.setRootCause(ex);
+            throw namingException;
+        }
+    }
+
+    private byte[] nextPageCookie(Control[] responseControls) {
+        if (responseControls == null) {
+            return null;
         }
-        return results;
+        for (Control control : responseControls) {
+            if (control instanceof PagedResultsResponseControl paged) {
+                return paged.getCookie();
+            }
+        }
+        return null;
+    }
+
+    private String changedSince(String filter, String watermark) {
+        String base = filter.trim();
+        if (!base.startsWith("(")) {
+            base = "(" + base + ")";
+        }
+        return "(&" + base + "(" + properties.getChangeAttribute() + ">=" + escapeFilterValue(watermark) + "))";
+    }
+
+    private String escapeFilterValue(String value) {
+        StringBuilder escaped = new StringBuilder(value.length());
+        for (char c : value.toCharArray()) {
+            switch (c) {
+                case '\\' -> escaped.append("\\5c");
+                case '*' -> escaped.append("\\2a");
+                case '(' -> escaped.append("\\28");
+                case ')' -> escaped.append("\\29");
+                case '\0' -> escaped.append("\\00");
+                default -> escaped.append(c);
+            }
+        }
+        return escaped.toString();
     }
 
     private void verifyBase(DirContext context, String baseDn, String label) throws NamingException {
@@ -331,9 +444,9 @@ public class JndiLdapDirectoryClient implements LdapDirectoryClient {
             env.put(Context.SECURITY_CREDENTIALS, defaultIfBlank(properties.getBindPassword(), ""));
         }
 
-        DirContext context = null;
+        LdapContext context = null;
         try {
-            context = new InitialDirContext(env);
+            context = new InitialLdapContext(env, null);
             return callback.run(context);
         } catch (NamingException ex) {
             throw new IllegalOperationException(errorMessage + ": " + ex.getMessage(), ex);
@@ -350,6 +463,53 @@ public class JndiLdapDirectoryClient implements LdapDirectoryClient {
 
     @FunctionalInterface
     private interface LdapCallback<T> {
-        T run(DirContext context) throws NamingException;
+        T run(LdapContext context) throws NamingException;
+    }
+
+    @FunctionalInterface
+    private interface SearchResultMapper<T> {
+        /** Maps one search result, or returns {@code null} to skip it. */
+        T map(SearchResult result) throws NamingException;
+    }
+
+    /**
+     * Highest change attribute value seen. {@code uSNChanged} values are compared numerically,
+     * generalized times such as {@code modifyTimestamp} lexicographically.
+     */
+    static final class ChangeWatermark {
+
+        private String value;
+
+        ChangeWatermark() {
+        }
+
+        ChangeWatermark(String initial) {
+            this.value = StringUtils.hasText(initial) ? initial.trim() : null;
+        }
+
+        void offer(String candidate) {
+            if (!StringUtils.hasText(candidate)) {
+                return;
+            }
+            String trimmed = candidate.trim();
+            if (value == null || compare(trimmed, value) > 0) {
+                value = trimmed;
+            }
+        }
+
+        String value() {
+            return value;
+        }
+
+        private static int compare(String left, String right) {
+            if (isNumeric(left) && isNumeric(right)) {
+                return new BigInteger(left).compareTo(new BigInteger(right));
+            }
+            return left.compareTo(right);
+        }
+
+        private static boolean isNumeric(String value) {
+            return !value.isEmpty() && value.chars().allMatch(Character::isDigit);
+        }
     }
 }
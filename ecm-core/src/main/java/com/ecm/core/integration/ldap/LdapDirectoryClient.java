@@ -4,5 +4,16 @@ public interface LdapDirectoryClient {
 
     LdapConnectionStatus testConnection();
 
-    LdapDirectorySnapshot fetchSnapshot();
+    /**
+     * Reads every directory entry and hands each search page to the handler as it arrives.
+     */
+    LdapDirectoryScan readDirectory(LdapDirectoryPageHandler handler);
+
+    /**
+     * Entries whose change attribute is at or above the given watermarks. Clients that cannot search
+     * by change attribute read the complete directory instead.
+     */
+    default LdapDirectoryScan readChanges(String userWatermark, String groupWatermark, LdapDirectoryPageHandler handler) {
+        return readDirectory(handler);
+    }
 }
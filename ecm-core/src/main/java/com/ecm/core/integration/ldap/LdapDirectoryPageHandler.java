@@ -0,0 +1,14 @@
+package com.ecm.core.integration.ldap;
+
+import java.util.List;
+
+/**
+ * Receives directory entries one search page at a time. Every user page is delivered before the
+ * first group page, so group members can be resolved against the users already applied.
+ */
+public interface LdapDirectoryPageHandler {
+
+    void users(List<LdapDirectoryUser> page);
+
+    void groups(List<LdapDirectoryGroup> page);
+}
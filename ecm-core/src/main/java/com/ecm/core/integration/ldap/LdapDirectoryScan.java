@@ -0,0 +1,16 @@
+package com.ecm.core.integration.ldap;
+
+/**
+ * Outcome of reading the directory through a {@link LdapDirectoryPageHandler}. A {@code complete}
+ * scan delivered every entry, so managed identities missing from it can be disabled; an incremental
+ * one only delivered changed entries. The watermarks are the highest change attribute values seen,
+ * or {@code null} if none was returned.
+ */
+public record LdapDirectoryScan(
+    boolean complete,
+    int users,
+    int groups,
+    String userWatermark,
+    String groupWatermark
+) {
+}
@@ -59,6 +59,18 @@ public class LdapSyncProperties {
 
     private int readTimeoutMs = 10000;
 
+    /**
+     * RFC 2696 page size for user and group searches; keeps each response below the server size limit.
+     * 0 disables paging.
+     */
+    private int pageSize = 500;
+
+    /**
+     * Attribute that grows on every change of an entry, used for incremental syncs:
+     * {@code modifyTimestamp} (OpenLDAP, AD) or {@code uSNChanged} (AD, single domain controller).
+     */
+    private String changeAttribute = "modifyTimestamp";
+
     private Sync sync = new Sync();
 
     @Getter
@@ -66,5 +78,11 @@ public class LdapSyncProperties {
     public static class Sync {
         private boolean enabled = false;
         private String cron = "0 0 */4 * * *";
+        /** Scheduled syncs only fetch entries changed since the last run. */
+        private boolean incrementalEnabled = true;
+        /** Deleted entries are only noticed by a complete sync, which runs at least this often. */
+        private int fullSyncIntervalHours = 24;
+        /** Entities per saveAll/flush while applying a sync. */
+        private int batchSize = 500;
     }
 }
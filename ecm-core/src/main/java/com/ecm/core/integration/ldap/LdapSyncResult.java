@@ -16,6 +16,10 @@ public record LdapSyncResult(
     int groupsSkipped,
     int membershipsChanged,
     int unresolvedMembers,
+    boolean incremental,
+    int directoryEntries,
+    long durationMs,
+    double entriesPerSecond,
     List<String> warnings
 ) {
 }
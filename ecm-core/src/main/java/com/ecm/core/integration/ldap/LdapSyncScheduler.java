@@ -1,5 +1,6 @@
 package com.ecm.core.integration.ldap;
 
+import com.ecm.core.scheduler.ClusterJob;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
@@ -16,6 +17,7 @@ public class LdapSyncScheduler {
     private final LdapSyncProperties properties;
 
     @Scheduled(cron = "${ecm.ldap.sync.cron:0 0 */4 * * *}")
+    @ClusterJob
     public void sync() {
         if (!properties.getSync().isEnabled()) {
             return;
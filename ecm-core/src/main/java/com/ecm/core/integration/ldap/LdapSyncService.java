@@ -1,29 +1,40 @@
 package com.ecm.core.integration.ldap;
 
 import com.ecm.core.entity.Group;
+import com.ecm.core.entity.LdapSyncState;
 import com.ecm.core.entity.User;
+import com.ecm.core.event.UserDepartmentChangedEvent;
 import com.ecm.core.repository.GroupRepository;
+import com.ecm.core.repository.LdapSyncStateRepository;
 import com.ecm.core.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.util.StringUtils;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
 
 @Slf4j
 @Service
@@ -33,60 +44,98 @@ public class LdapSyncService {
 
     static final String DIRECTORY_SOURCE = "ldap";
     private static final String EMAIL_FALLBACK_DOMAIN = "ldap.local";
+    private static final int LOOKUP_CHUNK_SIZE = 1000;
 
     private final LdapDirectoryClient directoryClient;
     private final UserRepository userRepository;
     private final GroupRepository groupRepository;
+    private final LdapSyncStateRepository syncStateRepository;
+    private final LdapSyncProperties properties;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Transactional(readOnly = true)
     public LdapConnectionStatus testConnection() {
         return directoryClient.testConnection();
     }
 
-    @Transactional
+    /**
+     * Complete sync: reads every directory entry and disables managed identities that are gone.
+     */
     @CacheEvict(value = "authorities", allEntries = true)
     public LdapSyncResult syncNow() {
-        return syncInternal("manual");
+        return syncInternal("manual", false);
     }
 
-    @Transactional
+    /**
+     * Only reads entries changed since the stored watermarks, unless incremental sync is disabled,
+     * no watermark is known yet or the last complete sync is older than {@code full-sync-interval-hours}.
+     */
     @CacheEvict(value = "authorities", allEntries = true)
     public LdapSyncResult runScheduledSync() {
-        return syncInternal("scheduled");
+        return syncInternal("scheduled", properties.getSync().isIncrementalEnabled());
     }
 
-    private LdapSyncResult syncInternal(String trigger) {
+    /**
+     * Applies the directory page by page as the client reads it: each page is written in its own
+     * transaction, and across pages only the external IDs and DNs of the synced entries are kept.
+     * Disabling identities missing from a complete read and storing the watermarks run in a final
+     * transaction once the directory has been read.
+     */
+    private LdapSyncResult syncInternal(String trigger, boolean incrementalAllowed) {
+        long startedAt = System.nanoTime();
         LocalDateTime syncedAt = LocalDateTime.now();
-        List<String> warnings = new ArrayList<>();
-        LdapDirectorySnapshot snapshot = directoryClient.fetchSnapshot();
+        LdapSyncState state = syncStateRepository.findById(DIRECTORY_SOURCE).orElse(null);
+        boolean incremental = incrementalAllowed && canSyncIncrementally(state, syncedAt);
+        SyncRun run = new SyncRun(syncedAt, !incremental);
+
+        LdapDirectoryPageHandler handler = new LdapDirectoryPageHandler() {
+            @Override
+            public void users(List<LdapDirectoryUser> page) {
+                transactionTemplate.executeWithoutResult(status -> applyUserPage(page, run));
+            }
 
-        Map<String, User> managedUsers = mapManagedUsers();
-        Map<String, Group> managedGroups = mapManagedGroups();
-        Map<String, User> syncedUsers = new LinkedHashMap<>();
-        Map<String, Group> syncedGroups = new LinkedHashMap<>();
+            @Override
+            public void groups(List<LdapDirectoryGroup> page) {
+                transactionTemplate.executeWithoutResult(status -> applyGroupPage(page, run));
+            }
+        };
+        LdapDirectoryScan scan = incremental
+            ? directoryClient.readChanges(state.getUserWatermark(), state.getGroupWatermark(), handler)
+            : directoryClient.readDirectory(handler);
+
+        transactionTemplate.executeWithoutResult(status -> finishSync(scan, run));
+        return summarize(trigger, scan, run, startedAt);
+    }
 
-        int usersCreated = 0;
-        int usersUpdated = 0;
-        int usersDisabled = 0;
-        int usersSkipped = 0;
-        int groupsCreated = 0;
-        int groupsUpdated = 0;
-        int groupsDisabled = 0;
-        int groupsSkipped = 0;
+    private boolean canSyncIncrementally(LdapSyncState state, LocalDateTime now) {
+        return state != null
+            && StringUtils.hasText(state.getUserWatermark())
+            && StringUtils.hasText(state.getGroupWatermark())
+            && state.getLastFullSyncAt() != null
+            && state.getLastFullSyncAt().isAfter(now.minusHours(properties.getSync().getFullSyncIntervalHours()));
+    }
+
+    private void applyUserPage(List<LdapDirectoryUser> page, SyncRun run) {
+        Map<String, User> managedUsers = findManagedUsers(page);
+        Map<String, User> usersByUsername = preloadUsersByUsername(page, managedUsers);
+        Map<String, User> usersByEmail = preloadUsersByEmail(page, managedUsers);
+        Map<String, User> syncedUsers = new LinkedHashMap<>();
+        run.directoryEntries += page.size();
 
-        for (LdapDirectoryUser entry : snapshot.users()) {
+        for (LdapDirectoryUser entry : page) {
             if (!StringUtils.hasText(entry.externalId()) || !StringUtils.hasText(entry.username())) {
-                usersSkipped++;
-                warnings.add("Skipped LDAP user with missing external ID or username");
+                run.usersSkipped++;
+                run.warnings.add("Skipped LDAP user with missing external ID or username");
                 continue;
             }
 
             User user = managedUsers.get(entry.externalId());
             boolean created = false;
             if (user == null) {
-                if (userRepository.findByUsername(entry.username()).isPresent()) {
-                    usersSkipped++;
-                    warnings.add("Skipped LDAP user " + entry.username() + " because the username already exists locally");
+                if (usersByUsername.containsKey(entry.username())) {
+                    run.usersSkipped++;
+                    run.warnings.add("Skipped LDAP user " + entry.username() + " because the username already exists locally");
                     continue;
                 }
                 user = new User();
@@ -94,20 +143,32 @@ public class LdapSyncService {
                 user.setPassword(directoryPlaceholderPassword(entry.externalId()));
                 created = true;
             } else if (!entry.username().equals(user.getUsername())) {
-                warnings.add("Preserved local username " + user.getUsername() + " for LDAP identity " + entry.externalId());
+                run.warnings.add("Preserved local username " + user.getUsername() + " for LDAP identity " + entry.externalId());
             }
 
-            String email = resolveUserEmail(user, entry, warnings);
+            String email = resolveUserEmail(user, entry, usersByEmail, run.warnings);
             if (email == null) {
-                usersSkipped++;
-                warnings.add("Skipped LDAP user " + entry.username() + " because no unique email could be assigned");
+                run.usersSkipped++;
+                run.warnings.add("Skipped LDAP user " + entry.username() + " because no unique email could be assigned");
                 continue;
             }
 
+            if (created) {
+                usersByUsername.put(user.getUsername(), user);
+            }
+            if (user.getEmail() != null && usersByEmail.get(user.getEmail()) == user) {
+                usersByEmail.remove(user.getEmail());
+            }
+            usersByEmail.put(email, user);
+
             user.setEmail(email);
             user.setFirstName(entry.firstName());
             user.setLastName(entry.lastName());
             user.setDisplayName(entry.displayName());
+            if (!created && !Objects.equals(user.getDepartment(), entry.department())) {
+                eventPublisher.publishEvent(new UserDepartmentChangedEvent(
+                    user.getUsername(), user.getDepartment(), entry.department()));
+            }
             user.setDepartment(entry.department());
             user.setJobTitle(entry.jobTitle());
             user.setEnabled(entry.enabled());
@@ -115,37 +176,52 @@ public class LdapSyncService {
             user.setDirectorySource(DIRECTORY_SOURCE);
             user.setDirectoryExternalId(entry.externalId());
             user.setDirectoryDn(normalizeDn(entry.dn()));
-            user.setDirectoryLastSyncedAt(syncedAt);
-            userRepository.save(user);
+            user.setDirectoryLastSyncedAt(run.syncedAt);
 
             syncedUsers.put(entry.externalId(), user);
             if (created) {
-                usersCreated++;
+                run.usersCreated++;
             } else {
-                usersUpdated++;
+                run.usersUpdated++;
+            }
+        }
+        saveInBatches(syncedUsers.values(), userRepository::saveAll);
+
+        for (User user : syncedUsers.values()) {
+            run.syncedUserIds.add(user.getDirectoryExternalId());
+            if (StringUtils.hasText(user.getDirectoryDn())) {
+                run.syncedUserDns.add(user.getDirectoryDn());
             }
         }
+    }
+
+    private void applyGroupPage(List<LdapDirectoryGroup> page, SyncRun run) {
+        Map<String, Group> managedGroups = findManagedGroups(page);
+        Map<String, Group> groupsByName = preloadGroupsByName(page, managedGroups);
+        Map<String, Group> syncedGroups = new LinkedHashMap<>();
+        run.directoryEntries += page.size();
 
-        for (LdapDirectoryGroup entry : snapshot.groups()) {
+        for (LdapDirectoryGroup entry : page) {
             if (!StringUtils.hasText(entry.externalId()) || !StringUtils.hasText(entry.name())) {
-                groupsSkipped++;
-                warnings.add("Skipped LDAP group with missing external ID or name");
+                run.groupsSkipped++;
+                run.warnings.add("Skipped LDAP group with missing external ID or name");
                 continue;
             }
 
             Group group = managedGroups.get(entry.externalId());
             boolean created = false;
             if (group == null) {
-                if (groupRepository.findByName(entry.name()).isPresent()) {
-                    groupsSkipped++;
-                    warnings.add("Skipped LDAP group " + entry.name() + " because the name already exists locally");
+                if (groupsByName.containsKey(entry.name())) {
+                    run.groupsSkipped++;
+                    run.warnings.add("Skipped LDAP group " + entry.name() + " because the name already exists locally");
                     continue;
                 }
                 group = new Group();
                 group.setName(entry.name());
+                groupsByName.put(group.getName(), group);
                 created = true;
             } else if (!entry.name().equals(group.getName())) {
-                warnings.add("Preserved local group name " + group.getName() + " for LDAP identity " + entry.externalId());
+                run.warnings.add("Preserved local group name " + group.getName() + " for LDAP identity " + entry.externalId());
             }
 
             group.setDisplayName(firstNonBlank(entry.displayName(), group.getName()));
@@ -156,73 +232,240 @@ public class LdapSyncService {
             group.setDirectorySource(DIRECTORY_SOURCE);
             group.setDirectoryExternalId(entry.externalId());
             group.setDirectoryDn(normalizeDn(entry.dn()));
-            group.setDirectoryLastSyncedAt(syncedAt);
-            groupRepository.save(group);
+            group.setDirectoryLastSyncedAt(run.syncedAt);
 
             syncedGroups.put(entry.externalId(), group);
             if (created) {
-                groupsCreated++;
+                run.groupsCreated++;
             } else {
-                groupsUpdated++;
+                run.groupsUpdated++;
             }
         }
+        saveInBatches(syncedGroups.values(), groupRepository::saveAll);
+        run.syncedGroupIds.addAll(syncedGroups.keySet());
+
+        Map<String, User> usersByDn = findMemberUsers(page, run);
+        Set<User> membershipTouchedUsers = Collections.newSetFromMap(new IdentityHashMap<>());
+        run.membershipsChanged += syncMemberships(page, usersByDn, syncedGroups, run.warnings, membershipTouchedUsers);
+        run.unresolvedMembers += countUnresolvedMembers(page, usersByDn);
+        saveInBatches(membershipTouchedUsers, userRepository::saveAll);
+    }
 
-        Set<User> membershipTouchedUsers = new HashSet<>();
-        int membershipsChanged = syncMemberships(snapshot, syncedUsers, syncedGroups, warnings, membershipTouchedUsers);
-        if (!membershipTouchedUsers.isEmpty()) {
-            userRepository.saveAll(membershipTouchedUsers);
-        }
-
-        for (User user : managedUsers.values()) {
-            if (!syncedUsers.containsKey(user.getDirectoryExternalId())) {
-                usersDisabled += disableMissingUser(user, syncedAt);
+    private void finishSync(LdapDirectoryScan scan, SyncRun run) {
+        if (scan.complete()) {
+            Set<User> membershipTouchedUsers = Collections.newSetFromMap(new IdentityHashMap<>());
+            List<User> disabledUsers = new ArrayList<>();
+            for (User user : mapManagedUsers().values()) {
+                if (!run.syncedUserIds.contains(user.getDirectoryExternalId())) {
+                    run.usersDisabled += disableMissingUser(user, run.syncedAt);
+                    disabledUsers.add(user);
+                }
             }
-        }
+            saveInBatches(disabledUsers, userRepository::saveAll);
 
-        for (Group group : managedGroups.values()) {
-            if (!syncedGroups.containsKey(group.getDirectoryExternalId())) {
-                groupsDisabled += disableMissingGroup(group, syncedAt);
+            List<Group> disabledGroups = new ArrayList<>();
+            for (Group group : mapManagedGroups().values()) {
+                if (!run.syncedGroupIds.contains(group.getDirectoryExternalId())) {
+                    run.groupsDisabled += disableMissingGroup(group, run.syncedAt, membershipTouchedUsers);
+                    disabledGroups.add(group);
+                }
             }
+            saveInBatches(membershipTouchedUsers, userRepository::saveAll);
+            saveInBatches(disabledGroups, groupRepository::saveAll);
         }
+        saveSyncState(scan, run.syncedAt);
+    }
 
-        int unresolvedMembers = countUnresolvedMembers(snapshot, syncedUsers);
-
-        List<String> sortedWarnings = warnings.stream()
+    private LdapSyncResult summarize(String trigger, LdapDirectoryScan scan, SyncRun run, long startedAt) {
+        List<String> sortedWarnings = run.warnings.stream()
             .filter(StringUtils::hasText)
             .distinct()
             .sorted(Comparator.naturalOrder())
             .toList();
 
+        long durationMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt);
+        double entriesPerSecond = run.directoryEntries * 1000.0 / Math.max(1L, durationMs);
+
         log.info(
-            "LDAP {} sync completed: users +{}/~{}/-{}, groups +{}/~{}/-{}, memberships {}, warnings {}",
+            "LDAP {} {} sync completed in {} ms ({} entries, {} entries/s): users +{}/~{}/-{}, groups +{}/~{}/-{}, memberships {}, warnings {}",
             trigger,
-            usersCreated,
-            usersUpdated,
-            usersDisabled,
-            groupsCreated,
-            groupsUpdated,
-            groupsDisabled,
-            membershipsChanged,
+            scan.complete() ? "full" : "incremental",
+            durationMs,
+            run.directoryEntries,
+            String.format(Locale.ROOT, "%.1f", entriesPerSecond),
+            run.usersCreated,
+            run.usersUpdated,
+            run.usersDisabled,
+            run.groupsCreated,
+            run.groupsUpdated,
+            run.groupsDisabled,
+            run.membershipsChanged,
             sortedWarnings.size()
         );
 
         return new LdapSyncResult(
             trigger,
-            syncedAt,
-            usersCreated,
-            usersUpdated,
-            usersDisabled,
-            usersSkipped,
-            groupsCreated,
-            groupsUpdated,
-            groupsDisabled,
-            groupsSkipped,
-            membershipsChanged,
-            unresolvedMembers,
+            run.syncedAt,
+            run.usersCreated,
+            run.usersUpdated,
+            run.usersDisabled,
+            run.usersSkipped,
+            run.groupsCreated,
+            run.groupsUpdated,
+            run.groupsDisabled,
+            run.groupsSkipped,
+            run.membershipsChanged,
+            run.unresolvedMembers,
+            !scan.complete(),
+            run.directoryEntries,
+            durationMs,
+            entriesPerSecond,
             sortedWarnings
         );
     }
 
+    private void saveSyncState(LdapDirectoryScan scan, LocalDateTime syncedAt) {
+        LdapSyncState state = syncStateRepository.findById(DIRECTORY_SOURCE).orElseGet(() -> {
+            LdapSyncState created = new LdapSyncState();
+            created.setDirectorySource(DIRECTORY_SOURCE);
+            return created;
+        });
+        if (scan.userWatermark() != null) {
+            state.setUserWatermark(scan.userWatermark());
+        }
+        if (scan.groupWatermark() != null) {
+            state.setGroupWatermark(scan.groupWatermark());
+        }
+        if (scan.complete()) {
+            state.setLastFullSyncAt(syncedAt);
+        }
+        state.setLastSyncAt(syncedAt);
+        syncStateRepository.save(state);
+    }
+
+    private Map<String, User> findManagedUsers(List<LdapDirectoryUser> page) {
+        Set<String> externalIds = new LinkedHashSet<>();
+        page.stream().map(LdapDirectoryUser::externalId).filter(StringUtils::hasText).forEach(externalIds::add);
+        Map<String, User> managed = new HashMap<>();
+        for (List<String> chunk : chunks(externalIds, LOOKUP_CHUNK_SIZE)) {
+            userRepository.findAllByDirectoryManagedTrueAndDirectorySourceAndDirectoryExternalIdIn(DIRECTORY_SOURCE, chunk)
+                .forEach(user -> managed.put(user.getDirectoryExternalId(), user));
+        }
+        return managed;
+    }
+
+    private Map<String, Group> findManagedGroups(List<LdapDirectoryGroup> page) {
+        Set<String> externalIds = new LinkedHashSet<>();
+        page.stream().map(LdapDirectoryGroup::externalId).filter(StringUtils::hasText).forEach(externalIds::add);
+        Map<String, Group> managed = new HashMap<>();
+        for (List<String> chunk : chunks(externalIds, LOOKUP_CHUNK_SIZE)) {
+            groupRepository.findAllByDirectoryManagedTrueAndDirectorySourceAndDirectoryExternalIdIn(DIRECTORY_SOURCE, chunk)
+                .forEach(group -> managed.put(group.getDirectoryExternalId(), group));
+        }
+        return managed;
+    }
+
+    /**
+     * Mirrored users named as members of the page's groups, keyed by DN. An incremental read only
+     * names changed users, so members resolve against every mirrored user; a complete one must only
+     * link users that were read from the directory in this run.
+     */
+    private Map<String, User> findMemberUsers(List<LdapDirectoryGroup> page, SyncRun run) {
+        Set<String> memberDns = new LinkedHashSet<>();
+        for (LdapDirectoryGroup entry : page) {
+            for (String memberDn : entry.memberDns()) {
+                String dn = normalizeDn(memberDn);
+                if (dn != null && (!run.complete || run.syncedUserDns.contains(dn))) {
+                    memberDns.add(dn);
+                }
+            }
+        }
+        Map<String, User> usersByDn = new HashMap<>();
+        for (List<String> chunk : chunks(memberDns, LOOKUP_CHUNK_SIZE)) {
+            userRepository.findAllByDirectoryManagedTrueAndDirectorySourceAndDirectoryDnIn(DIRECTORY_SOURCE, chunk)
+                .forEach(user -> usersByDn.put(normalizeDn(user.getDirectoryDn()), user));
+        }
+        return usersByDn;
+    }
+
+    /**
+     * Usernames of the page's mirrored users plus the local users that collide with new directory
+     * entries, loaded with one IN query per chunk instead of one lookup per entry.
+     */
+    private Map<String, User> preloadUsersByUsername(List<LdapDirectoryUser> page, Map<String, User> managedUsers) {
+        Map<String, User> byUsername = new HashMap<>();
+        managedUsers.values().forEach(user -> byUsername.put(user.getUsername(), user));
+        Set<String> candidates = new LinkedHashSet<>();
+        for (LdapDirectoryUser entry : page) {
+            if (StringUtils.hasText(entry.username()) && !managedUsers.containsKey(entry.externalId())) {
+                candidates.add(entry.username());
+            }
+        }
+        for (List<String> chunk : chunks(candidates, LOOKUP_CHUNK_SIZE)) {
+            userRepository.findAllByUsernameIn(chunk).forEach(user -> byUsername.putIfAbsent(user.getUsername(), user));
+        }
+        return byUsername;
+    }
+
+    private Map<String, User> preloadUsersByEmail(List<LdapDirectoryUser> page, Map<String, User> managedUsers) {
+        Map<String, User> byEmail = new HashMap<>();
+        managedUsers.values().stream()
+            .filter(user -> user.getEmail() != null)
+            .forEach(user -> byEmail.put(user.getEmail(), user));
+        Set<String> candidates = new LinkedHashSet<>();
+        for (LdapDirectoryUser entry : page) {
+            if (!StringUtils.hasText(entry.externalId()) || !StringUtils.hasText(entry.username())) {
+                continue;
+            }
+            String email = normalizeEmail(entry.email());
+            if (email != null) {
+                candidates.add(email);
+            }
+            candidates.add(fallbackEmail(entry.username(), entry.externalId()));
+        }
+        for (List<String> chunk : chunks(candidates, LOOKUP_CHUNK_SIZE)) {
+            userRepository.findAllByEmailIn(chunk).forEach(user -> byEmail.putIfAbsent(user.getEmail(), user));
+        }
+        return byEmail;
+    }
+
+    private Map<String, Group> preloadGroupsByName(List<LdapDirectoryGroup> page, Map<String, Group> managedGroups) {
+        Map<String, Group> byName = new HashMap<>();
+        managedGroups.values().forEach(group -> byName.put(group.getName(), group));
+        Set<String> candidates = new LinkedHashSet<>();
+        for (LdapDirectoryGroup entry : page) {
+            if (StringUtils.hasText(entry.name()) && !managedGroups.containsKey(entry.externalId())) {
+                candidates.add(entry.name());
+            }
+        }
+        for (List<String> chunk : chunks(candidates, LOOKUP_CHUNK_SIZE)) {
+            groupRepository.findAllByNameIn(chunk).forEach(group -> byName.putIfAbsent(group.getName(), group));
+        }
+        return byName;
+    }
+
+    private <T> void saveInBatches(Collection<T> entities, Consumer<List<T>> saveAll) {
+        for (List<T> chunk : chunks(entities, Math.max(1, properties.getSync().getBatchSize()))) {
+            saveAll.accept(chunk);
+        }
+    }
+
+    private static <T> List<List<T>> chunks(Collection<T> values, int size) {
+        List<List<T>> chunks = new ArrayList<>();
+        List<T> current = new ArrayList<>(Math.min(size, values.size()));
+        for (T value : values) {
+            current.add(value);
+            if (current.size() == size) {
+                chunks.add(current);
+                current = new ArrayList<>(size);
+            }
+        }
+        if (!current.isEmpty()) {
+            chunks.add(current);
+        }
+        return chunks;
+    }
+
     private Map<String, User> mapManagedUsers() {
         Map<String, User> managed = new HashMap<>();
         for (User user : userRepository.findAllByDirectoryManagedTrueAndDirectorySource(DIRECTORY_SOURCE)) {
@@ -243,14 +486,14 @@ public class LdapSyncService {
         return managed;
     }
 
-    private String resolveUserEmail(User user, LdapDirectoryUser entry, List<String> warnings) {
+    private String resolveUserEmail(User user, LdapDirectoryUser entry, Map<String, User> usersByEmail, List<String> warnings) {
         String candidate = normalizeEmail(entry.email());
         if (!StringUtils.hasText(candidate)) {
             candidate = fallbackEmail(entry.username(), entry.externalId());
         }
 
-        User existingEmailOwner = userRepository.findByEmail(candidate).orElse(null);
-        if (existingEmailOwner == null || Objects.equals(existingEmailOwner.getId(), user.getId())) {
+        User existingEmailOwner = usersByEmail.get(candidate);
+        if (existingEmailOwner == null || isSameEntity(existingEmailOwner, user)) {
             return candidate;
         }
 
@@ -260,8 +503,8 @@ public class LdapSyncService {
         }
 
         String fallback = fallbackEmail(entry.username(), entry.externalId());
-        User fallbackOwner = userRepository.findByEmail(fallback).orElse(null);
-        if (fallbackOwner == null || Objects.equals(fallbackOwner.getId(), user.getId())) {
+        User fallbackOwner = usersByEmail.get(fallback);
+        if (fallbackOwner == null || isSameEntity(fallbackOwner, user)) {
             warnings.add("Assigned fallback email " + fallback + " to LDAP user " + entry.username() + " due to duplicate directory email");
             return fallback;
         }
@@ -269,29 +512,31 @@ public class LdapSyncService {
         return null;
     }
 
+    private boolean isSameEntity(User left, User right) {
+        return left == right || (left.getId() != null && Objects.equals(left.getId(), right.getId()));
+    }
+
+    /**
+     * Diffs each group's current members against the directory members by entity identity and only
+     * touches the changed links.
+     */
     private int syncMemberships(
-        LdapDirectorySnapshot snapshot,
-        Map<String, User> syncedUsers,
+        List<LdapDirectoryGroup> page,
+        Map<String, User> usersByDn,
         Map<String, Group> syncedGroups,
         List<String> warnings,
         Set<User> membershipTouchedUsers
     ) {
-        Map<String, User> usersByDn = new HashMap<>();
-        for (User user : syncedUsers.values()) {
-            if (StringUtils.hasText(user.getDirectoryDn())) {
-                usersByDn.put(normalizeDn(user.getDirectoryDn()), user);
-            }
-        }
-
         int changes = 0;
-        for (LdapDirectoryGroup entry : snapshot.groups()) {
+        for (LdapDirectoryGroup entry : page) {
             Group group = syncedGroups.get(entry.externalId());
             if (group == null) {
                 continue;
             }
 
-            Set<User> currentMembers = new HashSet<>(group.getUsers());
-            Set<User> targetMembers = new HashSet<>();
+            Set<User> currentMembers = Collections.newSetFromMap(new IdentityHashMap<>());
+            currentMembers.addAll(group.getUsers());
+            Set<User> targetMembers = Collections.newSetFromMap(new IdentityHashMap<>());
             for (String memberDn : entry.memberDns()) {
                 User user = usersByDn.get(normalizeDn(memberDn));
                 if (user == null) {
@@ -310,7 +555,7 @@ public class LdapSyncService {
             }
 
             for (User target : targetMembers) {
-                if (!group.getUsers().contains(target)) {
+                if (!currentMembers.contains(target)) {
                     link(group, target);
                     membershipTouchedUsers.add(target);
                     changes++;
@@ -335,11 +580,10 @@ public class LdapSyncService {
         }
 
         user.setDirectoryLastSyncedAt(syncedAt);
-        userRepository.save(user);
         return changed ? 1 : 0;
     }
 
-    private int disableMissingGroup(Group group, LocalDateTime syncedAt) {
+    private int disableMissingGroup(Group group, LocalDateTime syncedAt, Set<User> membershipTouchedUsers) {
         boolean changed = false;
         if (group.isEnabled()) {
             group.setEnabled(false);
@@ -348,26 +592,19 @@ public class LdapSyncService {
 
         for (User user : new HashSet<>(group.getUsers())) {
             unlink(group, user);
-            userRepository.save(user);
+            membershipTouchedUsers.add(user);
             changed = true;
         }
 
         group.setDirectoryLastSyncedAt(syncedAt);
-        groupRepository.save(group);
         return changed ? 1 : 0;
     }
 
-    private int countUnresolvedMembers(LdapDirectorySnapshot snapshot, Map<String, User> syncedUsers) {
-        Set<String> userDns = syncedUsers.values().stream()
-            .map(User::getDirectoryDn)
-            .filter(StringUtils::hasText)
-            .map(this::normalizeDn)
-            .collect(java.util.stream.Collectors.toSet());
-
+    private int countUnresolvedMembers(List<LdapDirectoryGroup> page, Map<String, User> usersByDn) {
         int unresolved = 0;
-        for (LdapDirectoryGroup group : snapshot.groups()) {
+        for (LdapDirectoryGroup group : page) {
             for (String memberDn : group.memberDns()) {
-                if (!userDns.contains(normalizeDn(memberDn))) {
+                if (!usersByDn.containsKey(normalizeDn(memberDn))) {
                     unresolved++;
                 }
             }
@@ -445,4 +682,33 @@ public class LdapSyncService {
     private String directoryPlaceholderPassword(String externalId) {
         return "{ldap-managed}" + UUID.nameUUIDFromBytes(externalId.getBytes(java.nio.charset.StandardCharsets.UTF_8));
     }
+
+    /**
+     * State carried from page to page: counters, warnings and the identifiers of the synced entries.
+     */
+    private static final class SyncRun {
+
+        private final LocalDateTime syncedAt;
+        private final boolean complete;
+        private final List<String> warnings = new ArrayList<>();
+        private final Set<String> syncedUserIds = new HashSet<>();
+        private final Set<String> syncedUserDns = new HashSet<>();
+        private final Set<String> syncedGroupIds = new HashSet<>();
+        private int directoryEntries;
+        private int usersCreated;
+        private int usersUpdated;
+        private int usersDisabled;
+        private int usersSkipped;
+        private int groupsCreated;
+        private int groupsUpdated;
+        private int groupsDisabled;
+        private int groupsSkipped;
+        private int membershipsChanged;
+        private int unresolvedMembers;
+
+        private SyncRun(LocalDateTime syncedAt, boolean complete) {
+            this.syncedAt = syncedAt;
+            this.complete = complete;
+        }
+    }
 }
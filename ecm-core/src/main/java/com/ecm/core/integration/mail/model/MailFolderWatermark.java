@@ -0,0 +1,55 @@
+package com.ecm.core.integration.mail.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Incremental fetch position of one IMAP folder: every UID up to {@code lastUid} has been seen
+ * while the folder reported {@code uidValidity}, and every such UID that was not handled (already
+ * read, no matching rule, no content, failed) is listed in {@code deferredUids} to be re-checked.
+ */
+@Data
+@Entity
+@Table(
+    name = "mail_folder_watermarks",
+    uniqueConstraints = {
+        @UniqueConstraint(
+            name = "ux_mail_watermark_account_folder",
+            columnNames = {"account_id", "folder"}
+        )
+    }
+)
+public class MailFolderWatermark {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private UUID id;
+
+    @Column(name = "account_id", nullable = false)
+    private UUID accountId;
+
+    @Column(name = "folder", nullable = false)
+    private String folder;
+
+    @Column(name = "uid_validity", nullable = false)
+    private long uidValidity;
+
+    @Column(name = "last_uid", nullable = false)
+    private long lastUid;
+
+    /** Comma-separated UIDs at or below {@code lastUid} that later runs fetch again. */
+    @Column(name = "deferred_uids", columnDefinition = "text")
+    private String deferredUids;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt = LocalDateTime.now();
+}
@@ -0,0 +1,13 @@
+package com.ecm.core.integration.mail.repository;
+
+import com.ecm.core.integration.mail.model.MailFolderWatermark;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+import java.util.UUID;
+
+@Repository
+public interface MailFolderWatermarkRepository extends JpaRepository<MailFolderWatermark, UUID> {
+    Optional<MailFolderWatermark> findByAccountIdAndFolder(UUID accountId, String folder);
+}
@@ -10,6 +10,7 @@ import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -19,6 +20,22 @@ public interface ProcessedMailRepository extends JpaRepository<ProcessedMail, UU
     boolean existsByAccountIdAndFolderAndUid(UUID accountId, String folder, String uid);
     Optional<ProcessedMail> findByAccountIdAndFolderAndUid(UUID accountId, String folder, String uid);
 
+    /**
+     * Batched form of {@link #existsByAccountIdAndFolderAndUid}: which of the given UIDs already have a
+     * processed-mail row. Served by {@code ux_mail_processed_account_folder_uid}.
+     */
+    @Query("""
+        SELECT p.uid FROM ProcessedMail p
+        WHERE p.accountId = :accountId
+          AND p.folder = :folder
+          AND p.uid IN :uids
+        """)
+    List<String> findUidsByAccountIdAndFolderAndUidIn(
+        @Param("accountId") UUID accountId,
+        @Param("folder") String folder,
+        @Param("uids") Collection<String> uids
+    );
+
     long countByProcessedAtBefore(java.time.LocalDateTime threshold);
 
     void deleteByProcessedAtBefore(java.time.LocalDateTime threshold);
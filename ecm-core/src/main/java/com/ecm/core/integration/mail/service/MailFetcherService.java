@@ -5,20 +5,26 @@ import com.ecm.core.entity.Document;
 import com.ecm.core.entity.Node;
 import com.ecm.core.integration.email.EmailIngestionService;
 import com.ecm.core.integration.mail.model.MailAccount;
+import com.ecm.core.integration.mail.model.MailFolderWatermark;
 import com.ecm.core.integration.mail.model.MailRule;
 import com.ecm.core.integration.mail.model.ProcessedMail;
 import com.ecm.core.integration.mail.repository.MailAccountRepository;
+import com.ecm.core.integration.mail.repository.MailFolderWatermarkRepository;
 import com.ecm.core.integration.mail.repository.MailRuleRepository;
 import com.ecm.core.integration.mail.repository.ProcessedMailRepository;
 import com.ecm.core.repository.DocumentRepository;
 import com.ecm.core.repository.NodeRepository;
+import com.ecm.core.scheduler.ClusterJob;
+import com.ecm.core.scheduler.SchedulerPartition;
 import com.ecm.core.service.DocumentUploadService;
 import com.ecm.core.service.NodeService;
 import com.ecm.core.service.TagService;
 import com.ecm.core.service.TenantContextResolverService;
 import io.micrometer.core.instrument.MeterRegistry;
 import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
 import jakarta.mail.BodyPart;
+import jakarta.mail.FetchProfile;
 import jakarta.mail.Flags;
 import jakarta.mail.Folder;
 import jakarta.mail.Message;
@@ -61,6 +67,7 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
@@ -68,8 +75,17 @@ import java.util.Locale;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Properties;
+import java.util.Set;
+import java.util.TreeSet;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
 import java.util.stream.Collectors;
 import java.util.regex.Pattern;
 
@@ -102,6 +118,7 @@ public class MailFetcherService {
     private final MeterRegistry meterRegistry;
     private final MailOAuthService mailOAuthService;
     private final TenantContextResolverService tenantContextResolverService;
+    private final MailFolderWatermarkRepository watermarkRepository;
 
     @Value("${ecm.mail.fetcher.run-as-user:admin}")
     private String runAsUser;
@@ -115,7 +132,25 @@ public class MailFetcherService {
     @Value("${ecm.mail.routing.allowed-domain:}")
     private String routingAllowedDomain;
 
+    @Value("${ecm.mail.fetcher.account-parallelism:4}")
+    private int accountParallelism = 4;
+
+    @Value("${ecm.mail.fetcher.account-lock-wait-ms:30000}")
+    private long accountLockWaitMs = 30000L;
+
+    @Value("${ecm.mail.fetcher.incremental.enabled:true}")
+    private boolean incrementalFetchEnabled = true;
+
+    @Value("${ecm.mail.fetcher.fetch-batch-size:100}")
+    private int fetchBatchSize = 100;
+
+    @Value("${ecm.mail.fetcher.incremental.max-deferred-uids:500}")
+    private int maxDeferredUids = 500;
+
     private final Map<UUID, Instant> lastPollByAccount = new ConcurrentHashMap<>();
+    private final Map<UUID, ReentrantLock> accountLocks = new ConcurrentHashMap<>();
+    private final Set<UUID> pendingAccountTriggers = ConcurrentHashMap.newKeySet();
+    private volatile ExecutorService accountExecutor;
     private volatile MailFetchSummary lastFetchSummary;
     private volatile Instant lastFetchAt;
 
@@ -123,12 +158,16 @@ public class MailFetcherService {
     }
 
     @Scheduled(fixedDelayString = "${ecm.mail.fetcher.poll-interval-ms:60000}")
+    @ClusterJob(mode = ClusterJob.Mode.PARTITIONED)
     public void fetchAllAccounts() {
         fetchAllAccounts(false);
     }
 
     public MailFetchSummary fetchAllAccounts(boolean force) {
-        List<MailAccount> accounts = accountRepository.findByEnabledTrue();
+        // On a cluster each node fetches its share of the accounts; manual runs fetch all of them
+        List<MailAccount> accounts = accountRepository.findByEnabledTrue().stream()
+            .filter(account -> SchedulerPartition.current().owns(account.getId()))
+            .toList();
         String runId = UUID.randomUUID().toString();
         log.info("Starting mail fetch (runId={}) for {} accounts (force={})", runId, accounts.size(), force);
 
@@ -137,6 +176,9 @@ public class MailFetcherService {
         long startNs = System.nanoTime();
 
         Timer.Sample runSample = Timer.start(meterRegistry);
+        SecurityContext callerContext = SecurityContextHolder.getContext();
+        TenantContext.Snapshot callerTenant = TenantContext.capture();
+        Map<MailFetchRunStats, Future<?>> accountRuns = new LinkedHashMap<>();
         for (MailAccount account : accounts) {
             Instant now = Instant.now();
             if (!force && !shouldProcessAccount(account, now)) {
@@ -155,44 +197,32 @@ public class MailFetcherService {
                 continue;
             }
 
-            stats.attemptedAccounts++;
-            String status = "ok";
-            String reason = "none";
-            Timer.Sample accountSample = Timer.start(meterRegistry);
+            // Accounts are independent IMAP servers/mailboxes, so one slow server must not hold up the rest.
+            MailFetchRunStats accountStats = new MailFetchRunStats();
+            accountRuns.put(accountStats, accountExecutor().submit(() -> {
+                SecurityContextHolder.setContext(callerContext);
+                TenantContext.restore(callerTenant);
+                try {
+                    fetchAccount(account, now, accountStats);
+                } finally {
+                    SecurityContextHolder.clearContext();
+                    TenantContext.clear();
+                }
+            }));
+        }
+
+        for (Map.Entry<MailFetchRunStats, Future<?>> accountRun : accountRuns.entrySet()) {
             try {
-                runWithSystemAuthenticationIfMissing(() -> processAccount(account, stats));
-                updateAccountFetchStatus(account, "SUCCESS", null);
-            } catch (MailOAuthReauthRequiredException e) {
-                status = "error";
-                reason = "oauth_reauth_required";
-                stats.accountErrors++;
-                // Phase 2 logging audit: do NOT emit e.getMessage() which embeds the
-                // provider-controlled oauthErrorDescription. Log only the OAuth standard
-                // error code + accountName/accountId; the original exception remains
-                // accessible to upstream callers via the catch site.
-                log.warn(
-                    "OAuth reauth required for mail account {} ({}): code={}",
-                    account.getName(),
-                    account.getId(),
-                    e.getOauthError()
-                );
-                // Sink (Phase 2 mail slice): store the OAuth error CODE only, NOT e.getMessage()
-                // — its message embeds the provider oauthErrorDescription (PII, e.g. user@example.com
-                // / tenant per MailOAuthReauthRequiredExceptionTest). lastFetchError is admin-UI visible.
-                updateAccountFetchStatus(account, "ERROR", "OAuth reauth required (code=" + e.getOauthError() + ")");
-            } catch (Exception e) {
-                status = "error";
-                reason = "exception";
-                stats.accountErrors++;
-                // Phase 2 mail slice: log + persist the exception TYPE only, not the Throwable /
-                // e.getMessage() (a mail connect/fetch exception can embed connection/PII detail).
-                log.error("Failed to process mail account {}: type={}", account.getName(), e.getClass().getSimpleName());
-                updateAccountFetchStatus(account, "ERROR", e.getClass().getSimpleName());
-            } finally {
-                lastPollByAccount.put(account.getId(), now);
-                accountSample.stop(meterRegistry.timer("mail_fetch_account_duration", "status", status));
-                incrementAccountMetric(status, reason);
+                accountRun.getValue().get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                log.warn("Interrupted while waiting for mail fetch (runId={})", runId);
+                break;
+            } catch (ExecutionException e) {
+                log.error("Mail account fetch task failed (runId={}): type={}", runId,
+                    e.getCause() != null ? e.getCause().getClass().getSimpleName() : e.getClass().getSimpleName());
             }
+            stats.merge(accountRun.getKey());
         }
 
         runSample.stop(meterRegistry.timer("mail_fetch_run_duration"));
@@ -206,6 +236,112 @@ public class MailFetcherService {
         return summary;
     }
 
+    /**
+     * Queue an immediate fetch of one account, e.g. because an IDLE connection reported new mail.
+     * Triggers arriving while a fetch for the account is still queued are coalesced into that fetch.
+     */
+    public void triggerAccountFetch(UUID accountId) {
+        if (accountId == null || !pendingAccountTriggers.add(accountId)) {
+            return;
+        }
+        accountExecutor().execute(() -> {
+            pendingAccountTriggers.remove(accountId);
+            MailAccount account = accountRepository.findById(accountId).orElse(null);
+            if (account == null || !account.isEnabled() || resolveAccountSkipDecision(account) != null) {
+                return;
+            }
+            MailFetchRunStats stats = new MailFetchRunStats();
+            fetchAccount(account, Instant.now(), stats);
+            log.debug("Triggered mail fetch for account {}: found={}, processed={}",
+                account.getName(), stats.foundMessages, stats.processedMessages);
+        });
+    }
+
+    private void fetchAccount(MailAccount account, Instant now, MailFetchRunStats stats) {
+        // Scheduled runs, manual runs and IDLE triggers may overlap; one fetch per account at a time
+        // keeps watermarks and processed-mail rows consistent.
+        ReentrantLock accountLock = accountLocks.computeIfAbsent(account.getId(), id -> new ReentrantLock());
+        boolean locked;
+        try {
+            locked = accountLock.tryLock(accountLockWaitMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            locked = false;
+        }
+        if (!locked) {
+            stats.skippedAccounts++;
+            incrementAccountMetric("skipped", "in_progress");
+            return;
+        }
+
+        stats.attemptedAccounts++;
+        String status = "ok";
+        String reason = "none";
+        Timer.Sample accountSample = Timer.start(meterRegistry);
+        try {
+            runWithSystemAuthenticationIfMissing(() -> processAccount(account, stats));
+            updateAccountFetchStatus(account, "SUCCESS", null);
+        } catch (MailOAuthReauthRequiredException e) {
+            status = "error";
+            reason = "oauth_reauth_required";
+            stats.accountErrors++;
+            // Phase 2 logging audit: do NOT emit e.getMessage() which embeds the
+            // provider-controlled oauthErrorDescription. Log only the OAuth standard
+            // error code + accountName/accountId; the original exception remains
+            // accessible to upstream callers via the catch site.
+            log.warn(
+                "OAuth reauth required for mail account {} ({}): code={}",
+                account.getName(),
+                account.getId(),
+                e.getOauthError()
+            );
+            // Sink (Phase 2 mail slice): store the OAuth error CODE only, NOT e.getMessage()
+            // — its message embeds the provider oauthErrorDescription (PII, e.g. user@example.com
+            // / tenant per MailOAuthReauthRequiredExceptionTest). lastFetchError is admin-UI visible.
+            updateAccountFetchStatus(account, "ERROR", "OAuth reauth required (code=" + e.getOauthError() + ")");
+        } catch (Exception e) {
+            status = "error";
+            reason = "exception";
+            stats.accountErrors++;
+            // Phase 2 mail slice: log + persist the exception TYPE only, not the Throwable /
+            // e.getMessage() (a mail connect/fetch exception can embed connection/PII detail).
+            log.error("Failed to process mail account {}: type={}", account.getName(), e.getClass().getSimpleName());
+            updateAccountFetchStatus(account, "ERROR", e.getClass().getSimpleName());
+        } finally {
+            lastPollByAccount.put(account.getId(), now);
+            accountSample.stop(meterRegistry.timer("mail_fetch_account_duration", "status", status));
+            incrementAccountMetric(status, reason);
+            accountLock.unlock();
+        }
+    }
+
+    private ExecutorService accountExecutor() {
+        ExecutorService executor = accountExecutor;
+        if (executor == null) {
+            synchronized (this) {
+                executor = accountExecutor;
+                if (executor == null) {
+                    AtomicInteger threadCounter = new AtomicInteger();
+                    executor = Executors.newFixedThreadPool(Math.max(1, accountParallelism), runnable -> {
+                        Thread thread = new Thread(runnable, "mail-fetch-" + threadCounter.incrementAndGet());
+                        thread.setDaemon(true);
+                        return thread;
+                    });
+                    accountExecutor = executor;
+                }
+            }
+        }
+        return executor;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        ExecutorService executor = accountExecutor;
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+
     private AccountSkipDecision resolveAccountSkipDecision(MailAccount account) {
         if (account.getSecurity() != MailAccount.SecurityType.OAUTH2) {
             return null;
@@ -916,31 +1052,51 @@ public class MailFetcherService {
 
     private void processAccount(MailAccount account, MailFetchRunStats stats) throws Exception {
         Store store = connect(account);
+        try {
+            Map<String, List<MailRule>> rulesByFolder = resolveRulesByFolder(account);
+            if (rulesByFolder.isEmpty()) {
+                log.debug("No mail rules configured for account {}", account.getName());
+                return;
+            }
 
+            for (Map.Entry<String, List<MailRule>> entry : rulesByFolder.entrySet()) {
+                processFolder(store, account, entry.getKey(), entry.getValue(), stats);
+            }
+        } finally {
+            store.close();
+        }
+    }
+
+    private Map<String, List<MailRule>> resolveRulesByFolder(MailAccount account) {
         List<MailRule> rules = ruleRepository.findAllByEnabledTrueOrderByPriorityAsc().stream()
             .filter(rule -> rule.getAccountId() == null || Objects.equals(rule.getAccountId(), account.getId()))
             .collect(Collectors.toList());
 
-        if (rules.isEmpty()) {
-            log.debug("No mail rules configured for account {}", account.getName());
-            store.close();
-            return;
-        }
-
-        Map<String, List<MailRule>> rulesByFolder = rules.stream()
+        return rules.stream()
             .flatMap(rule -> normalizeFolders(rule.getFolder()).stream().map(folder -> Map.entry(folder, rule)))
             .collect(
                 Collectors.groupingBy(
                     Map.Entry::getKey,
+                    LinkedHashMap::new,
                     Collectors.mapping(Map.Entry::getValue, Collectors.toList())
                 )
             );
+    }
 
-        for (Map.Entry<String, List<MailRule>> entry : rulesByFolder.entrySet()) {
-            processFolder(store, account, entry.getKey(), entry.getValue(), stats);
-        }
+    /**
+     * Folders of the account that at least one enabled rule reads from; these are the folders worth
+     * holding an IDLE connection on.
+     */
+    Set<String> resolveWatchedFolders(MailAccount account) {
+        return resolveRulesByFolder(account).keySet();
+    }
 
-        store.close();
+    /**
+     * Whether the scheduled fetch would currently process this account (OAuth accounts need a working
+     * credential setup first).
+     */
+    boolean isFetchable(MailAccount account) {
+        return account.isEnabled() && resolveAccountSkipDecision(account) == null;
     }
 
     private void processFolder(Store store, MailAccount account, String folderName, List<MailRule> rules,
@@ -954,23 +1110,61 @@ public class MailFetcherService {
 
         folder.open(Folder.READ_WRITE);
 
-        Message[] messages = folder.search(new FlagTerm(new Flags(Flags.Flag.SEEN), false));
-        log.info("Found {} unread messages in {} ({})", messages.length, account.getName(), folderName);
-        stats.foundMessages += messages.length;
+        FolderSelection selection = selectMessages(folder, account, folderName);
+        Message[] messages = selection.messages();
+        log.info("Found {} {} messages in {} ({})", messages.length, selection.incremental() ? "new" : "unread",
+            account.getName(), folderName);
 
         boolean expungeNeeded = false;
-        for (Message message : messages) {
-            try {
-                expungeNeeded |= processMessage(message, rules, account, folderName, folder, stats);
-            } catch (Exception e) {
-                // Phase 2 logging audit: redact subject from log output.
-                // subjectOrEmpty(message) returns raw subject (PII); redactSubjectForLog
-                // returns "<redacted-subject>". Other call sites at :495, :520, :832,
-                // :2038, :2325, :2379, :2727 keep subjectOrEmpty because they feed
-                // persistence / DTO / filename paths, not loggers.
-                // Phase 2 mail slice: subject already redacted in the arg; also drop the Throwable
-                // (a MIME/parse error could embed a body/content fragment) — log the type only.
-                log.error("Error processing message {}: type={}", redactSubjectForLog(message), e.getClass().getSimpleName());
+        long firstFailedUid = -1L;
+        // Messages below the new watermark that were looked at but not handled (read elsewhere, no
+        // rule, no content, failed): re-checked on later runs instead of being passed over for good.
+        Set<Long> deferredUids = new TreeSet<>();
+        FetchProfile profile = prefetchProfile();
+        int batchSize = Math.max(1, fetchBatchSize);
+        for (int from = 0; from < messages.length; from += batchSize) {
+            Message[] batch = Arrays.copyOfRange(messages, from, Math.min(messages.length, from + batchSize));
+            // One FETCH for envelope, structure, size, flags and UID of the whole batch instead of
+            // several round trips per message.
+            folder.fetch(batch, profile);
+            List<Message> unread = new ArrayList<>(batch.length);
+            for (Message message : batch) {
+                if (!message.isSet(Flags.Flag.SEEN)) {
+                    unread.add(message);
+                } else {
+                    deferredUids.add(messageUid(folder, message));
+                }
+            }
+            stats.foundMessages += unread.size();
+            Set<String> processedUids = findProcessedUids(account, folderName, folder, unread);
+
+            for (Message message : unread) {
+                int skippedBefore = stats.skippedMessages;
+                try {
+                    expungeNeeded |= processMessage(message, rules, account, folderName, folder, stats, false,
+                        processedUids);
+                    if (stats.skippedMessages > skippedBefore
+                            && !processedUids.contains(resolveMessageUid(folder, message))) {
+                        deferredUids.add(messageUid(folder, message));
+                    }
+                } catch (Exception e) {
+                    // Phase 2 logging audit: redact subject from log output.
+                    // subjectOrEmpty(message) returns raw subject (PII); redactSubjectForLog
+                    // returns "<redacted-subject>". Other call sites at :495, :520, :832,
+                    // :2038, :2325, :2379, :2727 keep subjectOrEmpty because they feed
+                    // persistence / DTO / filename paths, not loggers.
+                    // Phase 2 mail slice: subject already redacted in the arg; also drop the Throwable
+                    // (a MIME/parse error could embed a body/content fragment) — log the type only.
+                    log.error("Error processing message {}: type={}", redactSubjectForLog(message), e.getClass().getSimpleName());
+                    long failedUid = messageUid(folder, message);
+                    if (failedUid > 0 && !processedMailRepository.existsByAccountIdAndFolderAndUid(account.getId(),
+                            folderName, Long.toString(failedUid))) {
+                        deferredUids.add(failedUid);
+                        if (firstFailedUid < 0 || failedUid < firstFailedUid) {
+                            firstFailedUid = failedUid;
+                        }
+                    }
+                }
             }
         }
 
@@ -978,17 +1172,192 @@ public class MailFetcherService {
             folder.expunge();
         }
         folder.close(false);
+
+        if (selection.uidValidity() > 0) {
+            // Messages that failed before an ERROR row was written are retried on the next run.
+            long lastUid = firstFailedUid > 0
+                ? Math.min(selection.highestUid(), firstFailedUid - 1)
+                : selection.highestUid();
+            long watermarkUid = Math.max(lastUid, selection.previousLastUid());
+            deferredUids.removeIf(uid -> uid <= 0 || uid > watermarkUid);
+            saveWatermark(account, folderName, selection, watermarkUid, deferredUids);
+        }
     }
 
-    private boolean processMessage(Message message, List<MailRule> rules, MailAccount account, String folderName,
-            Folder folder, MailFetchRunStats stats) throws Exception {
-        return processMessage(message, rules, account, folderName, folder, stats, false);
+    /**
+     * Messages to consider in this run. With a valid UID watermark only the deferred UIDs and UIDs
+     * above the watermark are requested; otherwise (first run, UIDVALIDITY changed, server without
+     * UIDs) the folder is searched for unread messages as before.
+     */
+    private FolderSelection selectMessages(Folder folder, MailAccount account, String folderName)
+            throws MessagingException {
+        if (!incrementalFetchEnabled || !(folder instanceof UIDFolder uidFolder)) {
+            return new FolderSelection(folder.search(new FlagTerm(new Flags(Flags.Flag.SEEN), false)), false,
+                null, 0L, 0L, 0L);
+        }
+
+        long uidValidity = uidFolder.getUIDValidity();
+        long uidNext = uidFolder.getUIDNext();
+        MailFolderWatermark watermark = watermarkRepository.findByAccountIdAndFolder(account.getId(), folderName)
+            .orElse(null);
+
+        if (watermark != null && watermark.getUidValidity() == uidValidity) {
+            long lastUid = watermark.getLastUid();
+            long[] deferredUids = parseDeferredUids(watermark.getDeferredUids());
+            boolean nothingNew = uidNext > 0 && uidNext <= lastUid + 1;
+            if (nothingNew && deferredUids.length == 0) {
+                return new FolderSelection(new Message[0], true, watermark, uidValidity, lastUid, lastUid);
+            }
+            List<Message> fresh = new ArrayList<>();
+            if (deferredUids.length > 0) {
+                for (Message message : uidFolder.getMessagesByUID(deferredUids)) {
+                    // Expunged since the last run.
+                    if (message != null) {
+                        fresh.add(message);
+                    }
+                }
+            }
+            long highestUid = lastUid;
+            Message[] above = nothingNew ? new Message[0] : uidFolder.getMessagesByUID(lastUid + 1, UIDFolder.LASTUID);
+            for (Message message : above) {
+                if (message == null) {
+                    continue;
+                }
+                // "n:*" always matches the newest message, even when its UID is below n.
+                long uid = uidFolder.getUID(message);
+                if (uid > lastUid) {
+                    fresh.add(message);
+                    highestUid = Math.max(highestUid, uid);
+                }
+            }
+            return new FolderSelection(fresh.toArray(new Message[0]), true, watermark, uidValidity, lastUid,
+                highestUid);
+        }
+
+        if (watermark != null) {
+            log.info("UIDVALIDITY of {} ({}) changed; rescanning unread messages", folderName, account.getName());
+        }
+        long highestUid = uidNext > 0 ? uidNext - 1 : highestUid(folder, uidFolder);
+        return new FolderSelection(folder.search(new FlagTerm(new Flags(Flags.Flag.SEEN), false)), false,
+            watermark, uidValidity, 0L, highestUid);
+    }
+
+    private long highestUid(Folder folder, UIDFolder uidFolder) throws MessagingException {
+        int count = folder.getMessageCount();
+        if (count <= 0) {
+            return 0L;
+        }
+        return Math.max(0L, uidFolder.getUID(folder.getMessage(count)));
+    }
+
+    private Set<String> findProcessedUids(MailAccount account, String folderName, Folder folder,
+            List<Message> messages) {
+        if (messages.isEmpty()) {
+            return Set.of();
+        }
+        List<String> uids = messages.stream()
+            .map(message -> resolveMessageUid(folder, message))
+            .collect(Collectors.toList());
+        return new HashSet<>(processedMailRepository.findUidsByAccountIdAndFolderAndUidIn(account.getId(), folderName,
+            uids));
+    }
+
+    private void saveWatermark(MailAccount account, String folderName, FolderSelection selection, long lastUid,
+            Set<Long> deferredUids) {
+        String deferred = formatDeferredUids(deferredUids, account, folderName);
+        MailFolderWatermark watermark = selection.watermark();
+        if (watermark != null && watermark.getUidValidity() == selection.uidValidity()
+                && watermark.getLastUid() == lastUid && Objects.equals(watermark.getDeferredUids(), deferred)) {
+            return;
+        }
+        if (watermark == null) {
+            watermark = new MailFolderWatermark();
+            watermark.setAccountId(account.getId());
+            watermark.setFolder(folderName);
+        }
+        watermark.setUidValidity(selection.uidValidity());
+        watermark.setLastUid(lastUid);
+        watermark.setDeferredUids(deferred);
+        watermark.setUpdatedAt(LocalDateTime.now());
+        try {
+            watermarkRepository.save(watermark);
+        } catch (Exception e) {
+            // Not fatal: the next run falls back to the previous watermark and dedups via processed rows.
+            log.warn("Failed to save mail watermark for {} ({}): type={}", folderName, account.getName(),
+                e.getClass().getSimpleName());
+        }
+    }
+
+    /**
+     * Keeps the newest {@code max-deferred-uids}; older ones are dropped with a log line, which for
+     * them restores the old behaviour of being passed over once the watermark moved on.
+     */
+    private String formatDeferredUids(Set<Long> deferredUids, MailAccount account, String folderName) {
+        if (deferredUids.isEmpty()) {
+            return null;
+        }
+        List<Long> uids = new ArrayList<>(deferredUids);
+        int limit = Math.max(0, maxDeferredUids);
+        if (uids.size() > limit) {
+            log.info("Dropping {} oldest deferred mail UIDs for {} ({})", uids.size() - limit, folderName,
+                account.getName());
+            uids = uids.subList(uids.size() - limit, uids.size());
+        }
+        return uids.isEmpty() ? null : uids.stream().map(String::valueOf).collect(Collectors.joining(","));
+    }
+
+    private static long[] parseDeferredUids(String deferredUids) {
+        if (deferredUids == null || deferredUids.isBlank()) {
+            return new long[0];
+        }
+        return Arrays.stream(deferredUids.split(","))
+            .map(String::trim)
+            .filter(uid -> !uid.isEmpty() && uid.chars().allMatch(Character::isDigit))
+            .mapToLong(Long::parseLong)
+            .filter(uid -> uid > 0)
+            .toArray();
+    }
+
+    private static FetchProfile prefetchProfile() {
+        FetchProfile profile = new FetchProfile();
+        profile.add(FetchProfile.Item.ENVELOPE);
+        profile.add(FetchProfile.Item.CONTENT_INFO);
+        profile.add(FetchProfile.Item.SIZE);
+        profile.add(FetchProfile.Item.FLAGS);
+        profile.add(UIDFolder.FetchProfileItem.UID);
+        return profile;
+    }
+
+    private long messageUid(Folder folder, Message message) {
+        if (!(folder instanceof UIDFolder uidFolder)) {
+            return -1L;
+        }
+        try {
+            return uidFolder.getUID(message);
+        } catch (MessagingException e) {
+            return -1L;
+        }
+    }
+
+    private record FolderSelection(
+        Message[] messages,
+        boolean incremental,
+        MailFolderWatermark watermark,
+        long uidValidity,
+        long previousLastUid,
+        long highestUid
+    ) {
     }
 
     private boolean processMessage(Message message, List<MailRule> rules, MailAccount account, String folderName,
             Folder folder, MailFetchRunStats stats, boolean replay) throws Exception {
+        return processMessage(message, rules, account, folderName, folder, stats, replay, null);
+    }
+
+    private boolean processMessage(Message message, List<MailRule> rules, MailAccount account, String folderName,
+            Folder folder, MailFetchRunStats stats, boolean replay, Set<String> processedUids) throws Exception {
         String uid = resolveMessageUid(folder, message);
-        if (!replay && processedMailRepository.existsByAccountIdAndFolderAndUid(account.getId(), folderName, uid)) {
+        if (!replay && isAlreadyProcessed(account, folderName, uid, processedUids)) {
             log.debug("Skipping already processed mail UID {} in {}", uid, folderName);
             incrementMessageMetric("skipped", "already_processed");
             stats.skippedMessages++;
@@ -1067,6 +1436,13 @@ public class MailFetcherService {
         }
     }
 
+    private boolean isAlreadyProcessed(MailAccount account, String folderName, String uid, Set<String> processedUids) {
+        if (processedUids != null) {
+            return processedUids.contains(uid);
+        }
+        return processedMailRepository.existsByAccountIdAndFolderAndUid(account.getId(), folderName, uid);
+    }
+
     public MailConnectionTestResult testConnection(UUID accountId) {
         MailAccount account = accountRepository.findById(accountId)
             .orElseThrow(() -> new IllegalArgumentException("Mail account not found: " + accountId));
@@ -1479,6 +1855,17 @@ public class MailFetcherService {
         private int skippedMessages;
         private int errorMessages;
 
+        private void merge(MailFetchRunStats other) {
+            attemptedAccounts += other.attemptedAccounts;
+            skippedAccounts += other.skippedAccounts;
+            accountErrors += other.accountErrors;
+            foundMessages += other.foundMessages;
+            matchedMessages += other.matchedMessages;
+            processedMessages += other.processedMessages;
+            skippedMessages += other.skippedMessages;
+            errorMessages += other.errorMessages;
+        }
+
         private MailFetchSummary toSummary(long durationMs, String runId) {
             return new MailFetchSummary(
                 accounts,
@@ -3264,7 +3651,7 @@ public class MailFetcherService {
         return mailOAuthService.checkOAuthEnv(account);
     }
 
-    private Store connect(MailAccount account) throws Exception {
+    Store connect(MailAccount account) throws Exception {
         Properties props = new Properties();
         props.put("mail.store.protocol", "imap");
 
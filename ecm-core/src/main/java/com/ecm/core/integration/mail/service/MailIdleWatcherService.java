@@ -0,0 +1,291 @@
+package com.ecm.core.integration.mail.service;
+
+import com.ecm.core.integration.mail.model.MailAccount;
+import com.ecm.core.integration.mail.repository.MailAccountRepository;
+import com.ecm.core.scheduler.ClusterJob;
+import com.ecm.core.scheduler.SchedulerPartition;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.mail.Folder;
+import jakarta.mail.Store;
+import jakarta.mail.event.MessageCountAdapter;
+import jakarta.mail.event.MessageCountEvent;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.eclipse.angus.mail.imap.IMAPFolder;
+import org.eclipse.angus.mail.imap.IMAPStore;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Push-style mail ingestion: keeps one IMAP connection per watched account folder and triggers
+ * {@link MailFetcherService#triggerAccountFetch(UUID)} as soon as the server reports new messages.
+ *
+ * <p>Folders are watched with IMAP IDLE (RFC 2177) where the server advertises it, re-issued every
+ * {@code keepalive-ms} so that neither the server nor a NAT drops the connection; servers without
+ * IDLE are polled with NOOP every {@code noop-interval-ms}. The scheduled poll in
+ * {@link MailFetcherService} keeps running as a safety net for missed notifications.
+ *
+ * <p>On a cluster each node only watches the accounts it owns in the partitioned mail fetch, so every
+ * account has one IDLE connection instead of one per node. Ownership is re-read on every reconcile:
+ * a node drops the watchers of accounts that moved to another node and picks up the ones it gained.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class MailIdleWatcherService {
+
+    private final MailAccountRepository accountRepository;
+    private final MailFetcherService mailFetcherService;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${ecm.mail.fetcher.idle.enabled:false}")
+    private boolean enabled;
+
+    @Value("${ecm.mail.fetcher.idle.max-connections:20}")
+    private int maxConnections = 20;
+
+    @Value("${ecm.mail.fetcher.idle.noop-interval-ms:30000}")
+    private long noopIntervalMs = 30000L;
+
+    @Value("${ecm.mail.fetcher.idle.reconnect-delay-ms:30000}")
+    private long reconnectDelayMs = 30000L;
+
+    private final Map<WatchKey, FolderWatcher> watchers = new ConcurrentHashMap<>();
+    private final AtomicInteger connectedWatchers = new AtomicInteger();
+    private final AtomicInteger threadCounter = new AtomicInteger();
+
+    private record WatchKey(UUID accountId, String folder) {
+    }
+
+    @PostConstruct
+    public void init() {
+        meterRegistry.gauge("mail_idle_connections", connectedWatchers);
+    }
+
+    /**
+     * Start watchers for newly enabled or newly owned accounts/folders and stop the ones whose account
+     * was disabled, reconfigured, lost its rules or is now owned by another node.
+     */
+    @Scheduled(
+        fixedDelayString = "${ecm.mail.fetcher.idle.refresh-interval-ms:60000}",
+        initialDelayString = "${ecm.mail.fetcher.idle.initial-delay-ms:15000}"
+    )
+    @ClusterJob(mode = ClusterJob.Mode.PARTITIONED)
+    public void reconcileWatchers() {
+        if (!enabled) {
+            return;
+        }
+
+        SchedulerPartition partition = SchedulerPartition.current();
+        Map<WatchKey, MailAccount> desired = new HashMap<>();
+        for (MailAccount account : accountRepository.findByEnabledTrue()) {
+            if (!partition.owns(account.getId()) || !mailFetcherService.isFetchable(account)) {
+                continue;
+            }
+            for (String folder : mailFetcherService.resolveWatchedFolders(account)) {
+                desired.put(new WatchKey(account.getId(), folder), account);
+            }
+        }
+
+        watchers.entrySet().removeIf(entry -> {
+            MailAccount account = desired.get(entry.getKey());
+            if (account != null && entry.getValue().fingerprint.equals(fingerprint(account))) {
+                return false;
+            }
+            entry.getValue().stop();
+            return true;
+        });
+
+        for (Map.Entry<WatchKey, MailAccount> entry : desired.entrySet()) {
+            if (watchers.containsKey(entry.getKey())) {
+                continue;
+            }
+            if (watchers.size() >= maxConnections) {
+                log.warn("Mail IDLE connection limit ({}) reached; remaining folders rely on polling", maxConnections);
+                break;
+            }
+            FolderWatcher watcher = new FolderWatcher(entry.getValue(), entry.getKey().folder());
+            watchers.put(entry.getKey(), watcher);
+            watcher.start();
+        }
+    }
+
+    /**
+     * Re-issue IDLE on every watched folder. RFC 2177 asks clients to do so at least every 29 minutes;
+     * the default of nine minutes also stays below common NAT and proxy idle timeouts.
+     */
+    @Scheduled(fixedDelayString = "${ecm.mail.fetcher.idle.keepalive-ms:540000}")
+    public void keepAlive() {
+        watchers.values().forEach(FolderWatcher::keepAlive);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        watchers.values().forEach(FolderWatcher::stop);
+        watchers.clear();
+    }
+
+    private static String fingerprint(MailAccount account) {
+        return account.getHost() + "|" + account.getPort() + "|" + account.getUsername() + "|" + account.getSecurity();
+    }
+
+    private final class FolderWatcher implements Runnable {
+
+        private final UUID accountId;
+        private final String accountName;
+        private final String folderName;
+        private final String fingerprint;
+        private final Thread thread;
+        private volatile boolean active = true;
+        private volatile Folder folder;
+
+        private FolderWatcher(MailAccount account, String folderName) {
+            this.accountId = account.getId();
+            this.accountName = account.getName();
+            this.folderName = folderName;
+            this.fingerprint = fingerprint(account);
+            this.thread = new Thread(this, "mail-idle-" + threadCounter.incrementAndGet());
+            this.thread.setDaemon(true);
+        }
+
+        void start() {
+            thread.start();
+        }
+
+        void stop() {
+            active = false;
+            thread.interrupt();
+            closeQuietly(folder, null);
+        }
+
+        void keepAlive() {
+            Folder current = folder;
+            if (current == null || !current.isOpen()) {
+                return;
+            }
+            try {
+                // Any command on the folder ends the running IDLE; the watcher loop then re-enters it.
+                current.getMessageCount();
+            } catch (Exception e) {
+                log.debug("Mail IDLE keepalive failed for {} ({}): type={}", folderName, accountName,
+                    e.getClass().getSimpleName());
+            }
+        }
+
+        @Override
+        public void run() {
+            while (active) {
+                Store store = null;
+                Folder current = null;
+                boolean connected = false;
+                try {
+                    MailAccount account = accountRepository.findById(accountId).orElse(null);
+                    if (account == null || !account.isEnabled()) {
+                        return;
+                    }
+                    store = mailFetcherService.connect(account);
+                    current = store.getFolder(folderName);
+                    if (!current.exists()) {
+                        log.warn("Mail folder '{}' does not exist for account {}; not watching it", folderName,
+                            accountName);
+                    } else {
+                        current.open(Folder.READ_ONLY);
+                        current.addMessageCountListener(new MessageCountAdapter() {
+                            @Override
+                            public void messagesAdded(MessageCountEvent event) {
+                                meterRegistry.counter("mail_idle_notifications_total").increment();
+                                mailFetcherService.triggerAccountFetch(accountId);
+                            }
+                        });
+                        folder = current;
+                        connected = true;
+                        connectedWatchers.incrementAndGet();
+
+                        // Pick up anything that arrived while this folder was not being watched.
+                        mailFetcherService.triggerAccountFetch(accountId);
+                        watch(store, current);
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                } catch (Exception e) {
+                    if (active) {
+                        log.warn("Mail IDLE connection for {} ({}) failed: type={}", folderName, accountName,
+                            e.getClass().getSimpleName());
+                    }
+                } finally {
+                    if (connected) {
+                        connectedWatchers.decrementAndGet();
+                    }
+                    folder = null;
+                    closeQuietly(current, store);
+                }
+
+                if (!sleep(reconnectDelayMs)) {
+                    return;
+                }
+            }
+        }
+
+        private void watch(Store store, Folder current) throws Exception {
+            boolean idleSupported = current instanceof IMAPFolder
+                && store instanceof IMAPStore imapStore
+                && imapStore.hasCapability("IDLE");
+            if (!idleSupported) {
+                log.info("IMAP server of {} does not support IDLE; polling {} every {} ms", accountName, folderName,
+                    noopIntervalMs);
+            }
+            while (active && current.isOpen()) {
+                if (idleSupported) {
+                    // Returns after the server reported a change or keepAlive() interrupted the IDLE.
+                    ((IMAPFolder) current).idle(true);
+                } else {
+                    if (!sleep(noopIntervalMs)) {
+                        throw new InterruptedException();
+                    }
+                    // Issues a NOOP; new EXISTS responses are delivered to the MessageCountListener.
+                    current.getMessageCount();
+                }
+            }
+        }
+
+        private boolean sleep(long millis) {
+            if (!active) {
+                return false;
+            }
+            try {
+                Thread.sleep(Math.max(1L, millis));
+                return active;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+        }
+
+        private void closeQuietly(Folder current, Store store) {
+            try {
+                if (current != null && current.isOpen()) {
+                    current.close(false);
+                }
+            } catch (Exception ignored) {
+                // Connection is being discarded anyway
+            }
+            try {
+                if (store != null) {
+                    store.close();
+                }
+            } catch (Exception ignored) {
+                // Connection is being discarded anyway
+            }
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package com.ecm.core.integration.mail.service;
 
 import com.ecm.core.integration.mail.repository.ProcessedMailRepository;
+import com.ecm.core.scheduler.ClusterJob;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
@@ -39,6 +40,7 @@ public class MailProcessedRetentionService {
 
     @Scheduled(cron = "0 0 2 * * *")
     @Transactional
+    @ClusterJob
     public void cleanupExpiredProcessedMail() {
         cleanupExpired("Scheduled cleanup");
     }
@@ -2,6 +2,7 @@ package com.ecm.core.integration.mail.service;
 
 import com.ecm.core.config.TenantContext;
 import com.ecm.core.pipeline.PipelineResult;
+import com.ecm.core.scheduler.ClusterJob;
 import com.ecm.core.service.AuditService;
 import com.ecm.core.service.DocumentUploadService;
 import com.ecm.core.service.TenantContextResolverService;
@@ -65,6 +66,7 @@ public class MailReportScheduledExportService {
 
     @Scheduled(cron = "${ecm.mail.reporting.export.cron:0 5 2 * * *}")
     @Transactional
+    @ClusterJob
     public void scheduledExport() {
         exportNow(false);
     }
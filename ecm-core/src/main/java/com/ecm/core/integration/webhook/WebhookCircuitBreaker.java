@@ -0,0 +1,122 @@
+package com.ecm.core.integration.webhook;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Per-subscription circuit breaker for webhook endpoints. After
+ * {@code failure-threshold} consecutive failed requests the circuit opens for {@code open-ms};
+ * afterwards a single half-open trial decides whether it closes again.
+ */
+@Component
+public class WebhookCircuitBreaker {
+
+    public enum State {
+        CLOSED,
+        OPEN,
+        HALF_OPEN
+    }
+
+    private final Map<UUID, EndpointState> states = new ConcurrentHashMap<>();
+
+    private volatile int failureThreshold = 5;
+    private volatile long openMs = 60000L;
+
+    @Value("${ecm.webhook.delivery.circuit-breaker.failure-threshold:5}")
+    public void setFailureThreshold(int failureThreshold) {
+        this.failureThreshold = Math.max(1, failureThreshold);
+    }
+
+    @Value("${ecm.webhook.delivery.circuit-breaker.open-ms:60000}")
+    public void setOpenMs(long openMs) {
+        this.openMs = Math.max(1000L, openMs);
+    }
+
+    /**
+     * Decide whether requests may be sent to the endpoint now. A HALF_OPEN result grants exactly
+     * one trial request; callers must report its outcome.
+     */
+    public State tryAcquire(UUID subscriptionId) {
+        EndpointState state = states.computeIfAbsent(subscriptionId, ignored -> new EndpointState());
+        synchronized (state) {
+            if (state.openUntil == null) {
+                return State.CLOSED;
+            }
+            Instant now = Instant.now();
+            if (state.openUntil.isAfter(now) || state.halfOpenInFlight) {
+                return State.OPEN;
+            }
+            state.halfOpenInFlight = true;
+            return State.HALF_OPEN;
+        }
+    }
+
+    public void recordSuccess(UUID subscriptionId) {
+        EndpointState state = states.computeIfAbsent(subscriptionId, ignored -> new EndpointState());
+        synchronized (state) {
+            state.consecutiveFailures = 0;
+            state.openUntil = null;
+            state.halfOpenInFlight = false;
+        }
+    }
+
+    public void recordFailure(UUID subscriptionId) {
+        EndpointState state = states.computeIfAbsent(subscriptionId, ignored -> new EndpointState());
+        synchronized (state) {
+            state.consecutiveFailures++;
+            boolean trialFailed = state.halfOpenInFlight;
+            state.halfOpenInFlight = false;
+            if (trialFailed || state.consecutiveFailures >= failureThreshold) {
+                state.openUntil = Instant.now().plusMillis(openMs);
+            }
+        }
+    }
+
+    /**
+     * Give back an unused half-open trial slot without deciding the circuit's state.
+     */
+    public void releaseTrial(UUID subscriptionId) {
+        EndpointState state = states.get(subscriptionId);
+        if (state == null) {
+            return;
+        }
+        synchronized (state) {
+            state.halfOpenInFlight = false;
+        }
+    }
+
+    public Snapshot snapshot(UUID subscriptionId) {
+        EndpointState state = states.get(subscriptionId);
+        if (state == null) {
+            return new Snapshot(State.CLOSED, 0, null);
+        }
+        synchronized (state) {
+            State current;
+            if (state.openUntil == null) {
+                current = State.CLOSED;
+            } else if (state.halfOpenInFlight || !state.openUntil.isAfter(Instant.now())) {
+                current = State.HALF_OPEN;
+            } else {
+                current = State.OPEN;
+            }
+            return new Snapshot(current, state.consecutiveFailures, state.openUntil);
+        }
+    }
+
+    public void reset(UUID subscriptionId) {
+        states.remove(subscriptionId);
+    }
+
+    public record Snapshot(State state, int consecutiveFailures, Instant openUntil) {}
+
+    private static final class EndpointState {
+        private int consecutiveFailures;
+        private Instant openUntil;
+        private boolean halfOpenInFlight;
+    }
+}
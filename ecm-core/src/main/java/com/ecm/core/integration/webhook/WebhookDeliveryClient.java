@@ -0,0 +1,154 @@
+package com.ecm.core.integration.webhook;
+
+import com.ecm.core.entity.WebhookDelivery;
+import com.ecm.core.entity.WebhookSubscription;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpStatusCodeException;
+import org.springframework.web.client.RestTemplate;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Serializes, signs and POSTs one webhook request. A single delivery keeps the original
+ * envelope ({@code eventType}, {@code deliveryId}, {@code timestamp}, {@code payload}); a batch
+ * is sent as {@code eventType=BATCH} with an {@code events} array of the same envelopes.
+ */
+@Component
+public class WebhookDeliveryClient {
+
+    static final String SIGNATURE_HEADER = "X-ECM-Signature";
+    static final String EVENT_HEADER = "X-ECM-Event";
+    static final String DELIVERY_HEADER = "X-ECM-Delivery";
+    static final String TIMESTAMP_HEADER = "X-ECM-Timestamp";
+    static final String BATCH_SIZE_HEADER = "X-ECM-Batch-Size";
+    static final String BATCH_EVENT_TYPE = "BATCH";
+
+    private final RestTemplate restTemplate;
+    private final ObjectMapper objectMapper;
+
+    @Autowired
+    public WebhookDeliveryClient(RestTemplateBuilder restTemplateBuilder,
+                                 ObjectMapper objectMapper,
+                                 @Value("${ecm.webhook.delivery.connect-timeout-ms:5000}") long connectTimeoutMs,
+                                 @Value("${ecm.webhook.delivery.read-timeout-ms:10000}") long readTimeoutMs) {
+        this(
+            restTemplateBuilder
+                .setConnectTimeout(Duration.ofMillis(connectTimeoutMs))
+                .setReadTimeout(Duration.ofMillis(readTimeoutMs))
+                .build(),
+            objectMapper
+        );
+    }
+
+    WebhookDeliveryClient(RestTemplate restTemplate, ObjectMapper objectMapper) {
+        this.restTemplate = restTemplate;
+        this.objectMapper = objectMapper;
+    }
+
+    public Result send(WebhookSubscription subscription, List<WebhookDelivery> deliveries) {
+        try {
+            long timestamp = Instant.now().getEpochSecond();
+            String eventType;
+            String deliveryId;
+            Map<String, Object> envelope;
+            if (deliveries.size() == 1) {
+                WebhookDelivery delivery = deliveries.get(0);
+                eventType = delivery.getEventType();
+                deliveryId = delivery.getId().toString();
+                envelope = envelope(delivery, timestamp);
+            } else {
+                eventType = BATCH_EVENT_TYPE;
+                deliveryId = UUID.randomUUID().toString();
+                List<Map<String, Object>> events = new ArrayList<>(deliveries.size());
+                for (WebhookDelivery delivery : deliveries) {
+                    events.add(envelope(delivery, timestamp));
+                }
+                envelope = new LinkedHashMap<>();
+                envelope.put("eventType", BATCH_EVENT_TYPE);
+                envelope.put("deliveryId", deliveryId);
+                envelope.put("timestamp", timestamp);
+                envelope.put("events", events);
+            }
+            String body = objectMapper.writeValueAsString(envelope);
+
+            HttpHeaders headers = new HttpHeaders();
+            headers.setContentType(MediaType.APPLICATION_JSON);
+            headers.add(EVENT_HEADER, eventType);
+            headers.add(DELIVERY_HEADER, deliveryId);
+            headers.add(TIMESTAMP_HEADER, String.valueOf(timestamp));
+            headers.add(BATCH_SIZE_HEADER, String.valueOf(deliveries.size()));
+            if (subscription.getSecret() != null && !subscription.getSecret().isBlank()) {
+                headers.add(SIGNATURE_HEADER, signPayload(subscription.getSecret(), body));
+            }
+
+            var response = restTemplate.postForEntity(subscription.getUrl(), new HttpEntity<>(body, headers), String.class);
+            int statusCode = response.getStatusCode().value();
+            return response.getStatusCode().is2xxSuccessful()
+                ? Result.success(statusCode)
+                : Result.failure(statusCode, "HTTP " + statusCode);
+        } catch (HttpStatusCodeException ex) {
+            return Result.failure(ex.getStatusCode().value(), "HTTP " + ex.getStatusCode().value());
+        } catch (Exception ex) {
+            return Result.failure(null, ex.getMessage() != null ? ex.getMessage() : ex.getClass().getSimpleName());
+        }
+    }
+
+    private static Map<String, Object> envelope(WebhookDelivery delivery, long timestamp) {
+        Map<String, Object> envelope = new LinkedHashMap<>();
+        envelope.put("eventType", delivery.getEventType());
+        envelope.put("deliveryId", delivery.getId().toString());
+        envelope.put("timestamp", timestamp);
+        envelope.put("payload", delivery.getPayload());
+        return envelope;
+    }
+
+    static String signPayload(String secret, String body) {
+        try {
+            Mac mac = Mac.getInstance("HmacSHA256");
+            mac.init(new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), "HmacSHA256"));
+            byte[] hash = mac.doFinal(body.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(hash);
+        } catch (Exception ex) {
+            throw new IllegalStateException("Unable to sign webhook payload", ex);
+        }
+    }
+
+    public record Result(boolean success, Integer statusCode, String error) {
+
+        static Result success(int statusCode) {
+            return new Result(true, statusCode, null);
+        }
+
+        static Result failure(Integer statusCode, String error) {
+            return new Result(false, statusCode, error);
+        }
+
+        /**
+         * Whether a later attempt can succeed: transport errors, 5xx, 408 and 429. Any other 4xx
+         * means the endpoint rejected the request itself and resending it will not help.
+         */
+        public boolean retryable() {
+            if (success) {
+                return false;
+            }
+            return statusCode == null || statusCode >= 500 || statusCode == 408 || statusCode == 429;
+        }
+    }
+}
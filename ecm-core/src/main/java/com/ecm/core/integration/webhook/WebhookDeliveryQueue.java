@@ -0,0 +1,268 @@
+package com.ecm.core.integration.webhook;
+
+import com.ecm.core.entity.WebhookDelivery;
+import com.ecm.core.entity.WebhookSubscription;
+import com.ecm.core.exception.IllegalOperationException;
+import com.ecm.core.repository.WebhookDeliveryRepository;
+import com.ecm.core.scheduler.ClusterJob;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Persistent webhook delivery queue backed by {@code webhook_deliveries}.
+ *
+ * <p>Producers only insert rows; {@link WebhookDeliveryWorker} claims due rows per subscription
+ * and reports outcomes back here. Failed rows are rescheduled with exponential backoff and moved
+ * to DEAD once {@code ecm.webhook.delivery.max-attempts} is reached, or straight away when the
+ * endpoint rejected them permanently.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class WebhookDeliveryQueue {
+
+    private static final int MAX_ERROR_LENGTH = 1000;
+    private static final String LEASE_EXPIRED_ERROR = "Worker lease expired before an outcome was recorded";
+
+    private final WebhookDeliveryRepository deliveryRepository;
+
+    @Value("${ecm.webhook.delivery.max-attempts:8}")
+    private int maxAttempts = 8;
+
+    @Value("${ecm.webhook.delivery.backoff-base-ms:5000}")
+    private long backoffBaseMs = 5000L;
+
+    @Value("${ecm.webhook.delivery.backoff-max-ms:3600000}")
+    private long backoffMaxMs = 3_600_000L;
+
+    @Value("${ecm.webhook.delivery.claim-lease-ms:300000}")
+    private long claimLeaseMs = 300_000L;
+
+    @Value("${ecm.webhook.delivery.retention-days:7}")
+    private int retentionDays = 7;
+
+    @Transactional
+    public WebhookDelivery enqueue(WebhookSubscription subscription, String eventType, Map<String, Object> payload) {
+        WebhookDelivery delivery = new WebhookDelivery();
+        delivery.setSubscriptionId(subscription.getId());
+        delivery.setEventType(eventType);
+        delivery.setPayload(payload != null ? new HashMap<>(payload) : new HashMap<>());
+        delivery.setStatus(WebhookDelivery.Status.PENDING);
+        delivery.setNextAttemptAt(LocalDateTime.now());
+        return deliveryRepository.save(delivery);
+    }
+
+    /**
+     * Claim up to {@code limit} due deliveries for one subscription as one IN_FLIGHT batch, unless
+     * {@code maxConcurrency} batches of that subscription are already in flight anywhere in the
+     * cluster. The subscription row lock makes the count and the claim atomic across nodes.
+     */
+    @Transactional
+    public List<WebhookDelivery> claim(UUID subscriptionId, int limit, int maxConcurrency) {
+        if (limit <= 0 || maxConcurrency <= 0) {
+            return List.of();
+        }
+        deliveryRepository.lockSubscriptionForClaim(subscriptionId);
+        if (deliveryRepository.countInFlightBatches(subscriptionId) >= maxConcurrency) {
+            return List.of();
+        }
+        LocalDateTime now = LocalDateTime.now();
+        List<WebhookDelivery> due = deliveryRepository.lockDueDeliveries(subscriptionId, now, limit);
+        if (due.isEmpty()) {
+            return List.of();
+        }
+        UUID batchId = UUID.randomUUID();
+        for (WebhookDelivery delivery : due) {
+            delivery.setStatus(WebhookDelivery.Status.IN_FLIGHT);
+            delivery.setClaimedAt(now);
+            delivery.setClaimBatchId(batchId);
+        }
+        return deliveryRepository.saveAll(due);
+    }
+
+    @Transactional
+    public void markDelivered(Collection<UUID> deliveryIds, Integer statusCode, long latencyMs) {
+        LocalDateTime now = LocalDateTime.now();
+        for (WebhookDelivery delivery : deliveryRepository.findAllById(deliveryIds)) {
+            delivery.setAttempts(delivery.getAttempts() + 1);
+            delivery.setStatus(WebhookDelivery.Status.DELIVERED);
+            delivery.setDeliveredAt(now);
+            delivery.setClaimedAt(null);
+            delivery.setClaimBatchId(null);
+            delivery.setLastStatusCode(statusCode);
+            delivery.setLastError(null);
+            delivery.setLastLatencyMs(latencyMs);
+        }
+    }
+
+    @Transactional
+    public void markFailed(Collection<UUID> deliveryIds, Integer statusCode, String error, long latencyMs) {
+        markFailed(deliveryIds, statusCode, error, latencyMs, true);
+    }
+
+    /**
+     * Record a failed attempt. Non-retryable failures are dead-lettered immediately instead of
+     * spending the remaining attempts on a request the endpoint will keep rejecting.
+     */
+    @Transactional
+    public void markFailed(Collection<UUID> deliveryIds, Integer statusCode, String error, long latencyMs,
+                           boolean retryable) {
+        LocalDateTime now = LocalDateTime.now();
+        for (WebhookDelivery delivery : deliveryRepository.findAllById(deliveryIds)) {
+            int attempts = delivery.getAttempts() + 1;
+            delivery.setAttempts(attempts);
+            delivery.setClaimedAt(null);
+            delivery.setClaimBatchId(null);
+            delivery.setLastStatusCode(statusCode);
+            delivery.setLastError(truncate(error));
+            delivery.setLastLatencyMs(latencyMs);
+            if (!retryable) {
+                delivery.setStatus(WebhookDelivery.Status.DEAD);
+                log.warn("Webhook delivery {} for subscription {} dead-lettered: endpoint rejected it with {}",
+                    delivery.getId(), delivery.getSubscriptionId(), statusCode);
+            } else if (attempts >= maxAttempts) {
+                delivery.setStatus(WebhookDelivery.Status.DEAD);
+                log.warn("Webhook delivery {} for subscription {} dead-lettered after {} attempts",
+                    delivery.getId(), delivery.getSubscriptionId(), attempts);
+            } else {
+                delivery.setStatus(WebhookDelivery.Status.PENDING);
+                delivery.setNextAttemptAt(now.plusNanos(backoffDelayMs(attempts, backoffBaseMs, backoffMaxMs) * 1_000_000L));
+            }
+        }
+    }
+
+    /**
+     * Hand claimed deliveries back without spending an attempt, e.g. when the worker pool
+     * rejected the batch.
+     */
+    @Transactional
+    public void release(Collection<UUID> deliveryIds) {
+        for (WebhookDelivery delivery : deliveryRepository.findAllById(deliveryIds)) {
+            if (delivery.getStatus() == WebhookDelivery.Status.IN_FLIGHT) {
+                delivery.setStatus(WebhookDelivery.Status.PENDING);
+                delivery.setClaimedAt(null);
+                delivery.setClaimBatchId(null);
+            }
+        }
+    }
+
+    /**
+     * Re-queue deliveries whose worker lease expired. The lost attempt counts against
+     * {@code max-attempts}, so a payload that keeps killing its worker ends up DEAD.
+     */
+    @Transactional
+    public int releaseStaleClaims() {
+        LocalDateTime now = LocalDateTime.now();
+        int released = deliveryRepository.releaseStaleClaims(
+            now.minusNanos(claimLeaseMs * 1_000_000L),
+            now,
+            Math.max(maxAttempts, 1),
+            LEASE_EXPIRED_ERROR
+        );
+        if (released > 0) {
+            log.info("Released {} webhook deliveries whose worker lease expired", released);
+        }
+        return released;
+    }
+
+    /**
+     * Move a dead-lettered delivery back to the queue with a fresh retry budget.
+     */
+    @Transactional
+    public WebhookDelivery replay(UUID deliveryId) {
+        WebhookDelivery delivery = deliveryRepository.findById(deliveryId)
+            .orElseThrow(() -> new NoSuchElementException("Webhook delivery not found: " + deliveryId));
+        if (delivery.getStatus() != WebhookDelivery.Status.DEAD) {
+            throw new IllegalOperationException("Only dead-lettered deliveries can be replayed");
+        }
+        delivery.setStatus(WebhookDelivery.Status.PENDING);
+        delivery.setAttempts(0);
+        delivery.setNextAttemptAt(LocalDateTime.now());
+        delivery.setLastError(null);
+        return deliveryRepository.save(delivery);
+    }
+
+    @Transactional(readOnly = true)
+    public Page<WebhookDelivery> list(UUID subscriptionId, WebhookDelivery.Status status, int page, int size) {
+        PageRequest pageRequest = PageRequest.of(Math.max(page, 0), Math.min(Math.max(size, 1), 200));
+        if (status == null) {
+            return deliveryRepository.findBySubscriptionIdOrderByCreatedAtDesc(subscriptionId, pageRequest);
+        }
+        return deliveryRepository.findBySubscriptionIdAndStatusOrderByCreatedAtDesc(subscriptionId, status, pageRequest);
+    }
+
+    @Transactional(readOnly = true)
+    public Map<WebhookDelivery.Status, Long> countByStatus(UUID subscriptionId) {
+        Map<WebhookDelivery.Status, Long> counts = new HashMap<>();
+        for (WebhookDelivery.Status status : WebhookDelivery.Status.values()) {
+            counts.put(status, 0L);
+        }
+        for (Object[] row : deliveryRepository.countBySubscriptionIdGroupByStatus(subscriptionId)) {
+            counts.put((WebhookDelivery.Status) row[0], ((Number) row[1]).longValue());
+        }
+        return counts;
+    }
+
+    @Transactional(readOnly = true)
+    public LatencyStats latencySince(UUID subscriptionId, LocalDateTime since) {
+        List<Object[]> rows = deliveryRepository.latencyStatsSince(subscriptionId, WebhookDelivery.Status.DELIVERED, since);
+        if (rows.isEmpty() || rows.get(0) == null) {
+            return new LatencyStats(null, null, null);
+        }
+        Object[] row = rows.get(0);
+        return new LatencyStats(
+            row[0] != null ? ((Number) row[0]).doubleValue() : null,
+            row[1] != null ? ((Number) row[1]).longValue() : null,
+            (LocalDateTime) row[2]
+        );
+    }
+
+    /**
+     * Delete delivered rows past retention. Dead letters are kept until replayed or purged by an
+     * operator so they stay visible in the dead-letter view.
+     */
+    @Scheduled(cron = "${ecm.webhook.delivery.cleanup-cron:0 30 3 * * *}")
+    @Transactional
+    @ClusterJob
+    public void purgeDelivered() {
+        LocalDateTime cutoff = LocalDateTime.now().minusDays(Math.max(retentionDays, 1));
+        int deleted = deliveryRepository.deleteByStatusAndCreatedAtBefore(WebhookDelivery.Status.DELIVERED, cutoff);
+        if (deleted > 0) {
+            log.info("Purged {} delivered webhook deliveries older than {}", deleted, cutoff);
+        }
+    }
+
+    /**
+     * Exponential backoff with up to 20% jitter: base, 2x base, 4x base ... capped at max.
+     */
+    static long backoffDelayMs(int attempts, long baseMs, long maxMs) {
+        int exponent = Math.min(Math.max(attempts - 1, 0), 30);
+        long delay = Math.min(baseMs * (1L << exponent), maxMs);
+        long jitter = delay / 5 > 0 ? ThreadLocalRandom.current().nextLong(delay / 5 + 1) : 0L;
+        return Math.min(delay + jitter, maxMs);
+    }
+
+    private static String truncate(String value) {
+        if (value == null || value.length() <= MAX_ERROR_LENGTH) {
+            return value;
+        }
+        return value.substring(0, MAX_ERROR_LENGTH);
+    }
+
+    public record LatencyStats(Double averageMs, Long maxMs, LocalDateTime lastDeliveredAt) {}
+}
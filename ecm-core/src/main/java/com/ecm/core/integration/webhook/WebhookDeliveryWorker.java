@@ -0,0 +1,200 @@
+package com.ecm.core.integration.webhook;
+
+import com.ecm.core.entity.WebhookDelivery;
+import com.ecm.core.entity.WebhookSubscription;
+import com.ecm.core.repository.WebhookSubscriptionRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Drains {@link WebhookDeliveryQueue} on a bounded worker pool.
+ *
+ * <p>Each subscription may have at most {@code deliveryMaxConcurrency} batches in flight across
+ * the whole cluster. {@link WebhookDeliveryQueue#claim} checks this against the IN_FLIGHT rows,
+ * so one slow endpoint holds at most that many workers in total while others keep flowing. Open
+ * circuits are skipped without claiming rows, so their backlog simply waits in PENDING.
+ *
+ * <p>Metrics (tagged by subscription id, which is low-cardinality admin configuration):
+ * {@code webhook_delivery_duration}, {@code webhook_deliveries_total},
+ * {@code webhook_delivery_batch_size}.
+ */
+@Slf4j
+@Component
+public class WebhookDeliveryWorker {
+
+    private final WebhookSubscriptionRepository subscriptionRepository;
+    private final WebhookDeliveryQueue deliveryQueue;
+    private final WebhookDeliveryClient deliveryClient;
+    private final WebhookCircuitBreaker circuitBreaker;
+    private final MeterRegistry meterRegistry;
+    private final ExecutorService executor;
+
+    @Value("${ecm.webhook.delivery.enabled:true}")
+    private boolean enabled = true;
+
+    @Value("${ecm.webhook.delivery.default-max-concurrency:2}")
+    private int defaultMaxConcurrency = 2;
+
+    @Value("${ecm.webhook.delivery.max-batch-size:100}")
+    private int maxBatchSize = 100;
+
+    public WebhookDeliveryWorker(WebhookSubscriptionRepository subscriptionRepository,
+                                 WebhookDeliveryQueue deliveryQueue,
+                                 WebhookDeliveryClient deliveryClient,
+                                 WebhookCircuitBreaker circuitBreaker,
+                                 MeterRegistry meterRegistry,
+                                 @Value("${ecm.webhook.delivery.worker-threads:8}") int workerThreads) {
+        this.subscriptionRepository = subscriptionRepository;
+        this.deliveryQueue = deliveryQueue;
+        this.deliveryClient = deliveryClient;
+        this.circuitBreaker = circuitBreaker;
+        this.meterRegistry = meterRegistry;
+        AtomicInteger threadIndex = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(Math.max(1, workerThreads), runnable -> {
+            Thread thread = new Thread(runnable, "webhook-delivery-" + threadIndex.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @Scheduled(fixedDelayString = "${ecm.webhook.delivery.poll-interval-ms:1000}")
+    public void pollDeliveries() {
+        if (!enabled) {
+            return;
+        }
+        deliveryQueue.releaseStaleClaims();
+        for (WebhookSubscription subscription : subscriptionRepository.findByEnabledTrue()) {
+            try {
+                dispatch(subscription);
+            } catch (Exception e) {
+                log.warn("Webhook dispatch failed for subscription {}: {}", subscription.getId(), e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Claim and hand off batches for one subscription until its cluster-wide concurrency limit is
+     * reached or nothing is due.
+     *
+     * @return number of deliveries handed to workers
+     */
+    int dispatch(WebhookSubscription subscription) {
+        UUID subscriptionId = subscription.getId();
+        WebhookCircuitBreaker.State circuit = circuitBreaker.tryAcquire(subscriptionId);
+        if (circuit == WebhookCircuitBreaker.State.OPEN) {
+            return 0;
+        }
+        int maxConcurrency = resolveMaxConcurrency(subscription);
+        int batchSize = resolveBatchSize(subscription);
+        int dispatched = 0;
+        for (int batch = 0; batch < maxConcurrency; batch++) {
+            List<WebhookDelivery> claimed = deliveryQueue.claim(subscriptionId, batchSize, maxConcurrency);
+            if (claimed.isEmpty()) {
+                break;
+            }
+            try {
+                executor.execute(() -> deliver(subscription, claimed));
+            } catch (RejectedExecutionException e) {
+                deliveryQueue.release(claimed.stream().map(WebhookDelivery::getId).toList());
+                break;
+            }
+            dispatched += claimed.size();
+            if (circuit == WebhookCircuitBreaker.State.HALF_OPEN) {
+                // exactly one trial request until its outcome closes or re-opens the circuit
+                return dispatched;
+            }
+        }
+        if (dispatched == 0 && circuit == WebhookCircuitBreaker.State.HALF_OPEN) {
+            // nothing to probe with; give the trial slot back
+            circuitBreaker.releaseTrial(subscriptionId);
+        }
+        return dispatched;
+    }
+
+    void deliver(WebhookSubscription subscription, List<WebhookDelivery> deliveries) {
+        UUID subscriptionId = subscription.getId();
+        List<UUID> ids = deliveries.stream().map(WebhookDelivery::getId).toList();
+        String subscriptionTag = subscriptionId.toString();
+        long startNanos = System.nanoTime();
+        WebhookDeliveryClient.Result result = deliveryClient.send(subscription, deliveries);
+        long latencyNanos = System.nanoTime() - startNanos;
+        long latencyMs = TimeUnit.NANOSECONDS.toMillis(latencyNanos);
+        String outcome = result.success() ? "success" : "failure";
+
+        try {
+            if (result.success()) {
+                deliveryQueue.markDelivered(ids, result.statusCode(), latencyMs);
+                circuitBreaker.recordSuccess(subscriptionId);
+                subscriptionRepository.recordDeliverySuccess(subscriptionId, LocalDateTime.now(), result.statusCode());
+            } else {
+                deliveryQueue.markFailed(ids, result.statusCode(), result.error(), latencyMs, result.retryable());
+                if (result.retryable()) {
+                    circuitBreaker.recordFailure(subscriptionId);
+                } else {
+                    // the endpoint is up and answering; it just refused this payload
+                    circuitBreaker.recordSuccess(subscriptionId);
+                }
+                subscriptionRepository.recordDeliveryFailure(
+                    subscriptionId, LocalDateTime.now(), result.statusCode(), truncate(result.error()));
+                log.warn("Webhook delivery to {} failed ({} events): {}",
+                    subscription.getUrl(), deliveries.size(), result.error());
+            }
+        } catch (Exception e) {
+            // The lease on the claimed rows expires and they are re-queued by releaseStaleClaims.
+            log.error("Failed to record webhook delivery outcome for subscription {}: {}", subscriptionId, e.getMessage());
+        }
+
+        meterRegistry.timer("webhook_delivery_duration", "subscription", subscriptionTag, "outcome", outcome)
+            .record(latencyNanos, TimeUnit.NANOSECONDS);
+        meterRegistry.counter("webhook_deliveries_total", "subscription", subscriptionTag, "outcome", outcome)
+            .increment(deliveries.size());
+        meterRegistry.summary("webhook_delivery_batch_size", "subscription", subscriptionTag)
+            .record(deliveries.size());
+    }
+
+    int resolveBatchSize(WebhookSubscription subscription) {
+        Integer configured = subscription.getDeliveryBatchSize();
+        if (configured == null || configured < 1) {
+            return 1;
+        }
+        return Math.min(configured, Math.max(maxBatchSize, 1));
+    }
+
+    int resolveMaxConcurrency(WebhookSubscription subscription) {
+        Integer configured = subscription.getDeliveryMaxConcurrency();
+        return configured != null && configured > 0 ? configured : Math.max(defaultMaxConcurrency, 1);
+    }
+
+    private static String truncate(String value) {
+        if (value == null || value.length() <= 1000) {
+            return value;
+        }
+        return value.substring(0, 1000);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(10, TimeUnit.SECONDS)) {
+                executor.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            executor.shutdownNow();
+        }
+    }
+}
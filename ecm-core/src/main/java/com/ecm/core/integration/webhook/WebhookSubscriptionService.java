@@ -1,13 +1,18 @@
 package com.ecm.core.integration.webhook;
 
+import com.ecm.core.entity.WebhookDelivery;
 import com.ecm.core.entity.WebhookSubscription;
 import com.ecm.core.repository.WebhookSubscriptionRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Page;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Instant;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.UUID;
@@ -19,6 +24,8 @@ public class WebhookSubscriptionService {
 
     private final WebhookSubscriptionRepository repository;
     private final WebhookNotificationService notificationService;
+    private final WebhookDeliveryQueue deliveryQueue;
+    private final WebhookCircuitBreaker circuitBreaker;
 
     @Transactional(readOnly = true)
     public List<WebhookSubscription> list() {
@@ -48,6 +55,15 @@ public class WebhookSubscriptionService {
         if (updates.getEventTypes() != null) {
             existing.setEventTypes(updates.getEventTypes());
         }
+        if (updates.getDeliveryBatchSize() != null) {
+            existing.setDeliveryBatchSize(updates.getDeliveryBatchSize());
+        }
+        if (updates.getDeliveryMaxConcurrency() != null) {
+            existing.setDeliveryMaxConcurrency(updates.getDeliveryMaxConcurrency());
+        }
+        if (updates.getUrl() != null) {
+            circuitBreaker.reset(id);
+        }
         return repository.save(existing);
     }
 
@@ -67,4 +83,52 @@ public class WebhookSubscriptionService {
             .orElseThrow(() -> new IllegalArgumentException("Subscription not found"));
         notificationService.sendTestEvent(subscription);
     }
+
+    @Transactional(readOnly = true)
+    public Page<WebhookDelivery> listDeliveries(UUID id, WebhookDelivery.Status status, int page, int size) {
+        ensureExists(id);
+        return deliveryQueue.list(id, status, page, size);
+    }
+
+    public WebhookDelivery replayDelivery(UUID deliveryId) {
+        return deliveryQueue.replay(deliveryId);
+    }
+
+    @Transactional(readOnly = true)
+    public DeliveryStats deliveryStats(UUID id) {
+        ensureExists(id);
+        WebhookDeliveryQueue.LatencyStats latency = deliveryQueue.latencySince(id, LocalDateTime.now().minusHours(24));
+        WebhookCircuitBreaker.Snapshot circuit = circuitBreaker.snapshot(id);
+        return new DeliveryStats(
+            id,
+            deliveryQueue.countByStatus(id),
+            latency.averageMs(),
+            latency.maxMs(),
+            latency.lastDeliveredAt(),
+            circuit.state(),
+            circuit.consecutiveFailures(),
+            circuit.openUntil()
+        );
+    }
+
+    private void ensureExists(UUID id) {
+        if (!repository.existsById(id)) {
+            throw new IllegalArgumentException("Subscription not found");
+        }
+    }
+
+    /**
+     * Per-subscription delivery health. Latency figures cover deliveries completed in the last
+     * 24 hours.
+     */
+    public record DeliveryStats(
+        UUID subscriptionId,
+        Map<WebhookDelivery.Status, Long> countsByStatus,
+        Double averageLatencyMs24h,
+        Long maxLatencyMs24h,
+        LocalDateTime lastDeliveredAt,
+        WebhookCircuitBreaker.State circuitState,
+        int consecutiveFailures,
+        Instant circuitOpenUntil
+    ) {}
 }
@@ -0,0 +1,277 @@
+package com.ecm.core.metrics;
+
+import com.ecm.core.config.TenantContext;
+import com.ecm.core.service.TenantService;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Duration;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Shared recording layer for hot-path meters (content I/O, permission checks, indexing, pipeline
+ * processors, rules, audit writes).
+ *
+ * <p>Every meter carries a {@code tenant} tag. Only the first {@code ecm.metrics.tenant-tag.max-tenants}
+ * tenant domains seen get their own value and later ones share {@code other}, so a large multi-tenant
+ * install cannot explode series counts. Callers add only bounded tags: enums, processor names and
+ * {@link #mimeFamily MIME families}, never node ids, user names or raw MIME types. Histograms use a
+ * fixed bucket set rather than Micrometer's percentile histogram to keep the series per timer small;
+ * {@code ecm.metrics.histograms.enabled=false} drops them to count, sum and max.
+ *
+ * <p>Without a {@link MeterRegistry} (or through {@link #noop()}) every method does nothing.
+ */
+@Component
+public class EcmMetrics {
+
+    public static final String OTHER_TENANT = "other";
+
+    private static final Duration[] TIME_BUCKETS = {
+        Duration.ofMillis(1), Duration.ofMillis(5), Duration.ofMillis(10), Duration.ofMillis(25),
+        Duration.ofMillis(50), Duration.ofMillis(100), Duration.ofMillis(250), Duration.ofMillis(500),
+        Duration.ofSeconds(1), Duration.ofMillis(2500), Duration.ofSeconds(5), Duration.ofSeconds(10),
+        Duration.ofSeconds(30)
+    };
+    private static final double[] BYTE_BUCKETS = {
+        1024, 16 * 1024, 256 * 1024, 1024 * 1024, 8 * 1024 * 1024, 64 * 1024 * 1024, 512 * 1024 * 1024
+    };
+    private static final double[] VALUE_BUCKETS = {1, 2, 3, 5, 8, 13, 21, 34};
+
+    private static final EcmMetrics NOOP = new EcmMetrics((MeterRegistry) null);
+
+    private final MeterRegistry registry;
+    private final Set<String> taggedTenants = ConcurrentHashMap.newKeySet();
+
+    @Value("${ecm.metrics.tenant-tag.max-tenants:50}")
+    private int maxTenantTags = 50;
+
+    @Value("${ecm.metrics.histograms.enabled:true}")
+    private boolean histograms = true;
+
+    @Autowired
+    public EcmMetrics(ObjectProvider<MeterRegistry> registry) {
+        this(registry.getIfAvailable());
+    }
+
+    public EcmMetrics(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    public static EcmMetrics noop() {
+        return NOOP;
+    }
+
+    public boolean isEnabled() {
+        return registry != null;
+    }
+
+    /**
+     * Record the time since {@code startNanos} (a {@link System#nanoTime()} reading).
+     */
+    public void recordTime(String name, long startNanos, String... tags) {
+        if (registry == null) {
+            return;
+        }
+        Timer.Builder builder = Timer.builder(name)
+            .tags(tags)
+            .tag("tenant", tenantTag());
+        if (histograms) {
+            builder.serviceLevelObjectives(TIME_BUCKETS);
+        }
+        builder.register(registry).record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordBytes(String name, long bytes, String... tags) {
+        recordDistribution(name, "bytes", bytes, BYTE_BUCKETS, tags);
+    }
+
+    /**
+     * Record a small count-like value such as a depth or batch size.
+     */
+    public void recordValue(String name, double value, String... tags) {
+        recordDistribution(name, null, value, VALUE_BUCKETS, tags);
+    }
+
+    public void increment(String name, String... tags) {
+        count(name, 1, tags);
+    }
+
+    public void count(String name, double amount, String... tags) {
+        if (registry == null) {
+            return;
+        }
+        registry.counter(name, withTenant(tags)).increment(amount);
+    }
+
+    /**
+     * Wrap a content stream so the bytes actually read are recorded with {@link #recordBytes} when it
+     * is closed. Returns the stream unchanged when metrics are off.
+     */
+    public InputStream countBytesRead(InputStream in, String name, String... tags) {
+        if (registry == null || in == null) {
+            return in;
+        }
+        String tenant = tenantTag();
+        return new FilterInputStream(in) {
+            private long bytes;
+            private boolean recorded;
+
+            @Override
+            public int read() throws IOException {
+                int b = super.read();
+                if (b >= 0) {
+                    bytes++;
+                }
+                return b;
+            }
+
+            @Override
+            public int read(byte[] buffer, int off, int len) throws IOException {
+                int n = in.read(buffer, off, len);
+                if (n > 0) {
+                    bytes += n;
+                }
+                return n;
+            }
+
+            @Override
+            public void close() throws IOException {
+                try {
+                    super.close();
+                } finally {
+                    if (!recorded) {
+                        recorded = true;
+                        registerDistribution(name, "bytes", bytes, BYTE_BUCKETS, tenant, tags);
+                    }
+                }
+            }
+        };
+    }
+
+    /**
+     * Tag value for the current tenant, bounded by {@code ecm.metrics.tenant-tag.max-tenants}.
+     */
+    public String tenantTag() {
+        String tenant = TenantContext.getCurrentTenantDomain();
+        tenant = tenant == null || tenant.isBlank()
+            ? TenantService.DEFAULT_TENANT_DOMAIN
+            : tenant.trim().toLowerCase(Locale.ROOT);
+        if (taggedTenants.contains(tenant)) {
+            return tenant;
+        }
+        if (taggedTenants.size() < maxTenantTags) {
+            taggedTenants.add(tenant);
+            return tenant;
+        }
+        return OTHER_TENANT;
+    }
+
+    /**
+     * Coarse, fixed set of MIME families for tagging ({@code pdf}, {@code image}, {@code office}, ...).
+     */
+    public static String mimeFamily(String mimeType) {
+        if (mimeType == null || mimeType.isBlank()) {
+            return "unknown";
+        }
+        String type = mimeType.toLowerCase(Locale.ROOT);
+        int separator = type.indexOf(';');
+        if (separator >= 0) {
+            type = type.substring(0, separator);
+        }
+        type = type.trim();
+        if (type.equals("application/pdf")) {
+            return "pdf";
+        }
+        if (type.startsWith("image/")) {
+            return "image";
+        }
+        if (type.startsWith("video/")) {
+            return "video";
+        }
+        if (type.startsWith("audio/")) {
+            return "audio";
+        }
+        if (type.startsWith("message/") || type.equals("application/vnd.ms-outlook")) {
+            return "email";
+        }
+        if (type.startsWith("text/") || type.equals("application/json") || type.equals("application/xml")) {
+            return "text";
+        }
+        if (type.equals("application/msword") || type.startsWith("application/vnd.ms-")
+            || type.startsWith("application/vnd.openxmlformats-officedocument")
+            || type.startsWith("application/vnd.oasis.opendocument") || type.equals("application/rtf")) {
+            return "office";
+        }
+        if (type.equals("application/zip") || type.equals("application/gzip") || type.equals("application/x-tar")
+            || type.equals("application/x-7z-compressed") || type.equals("application/x-rar-compressed")
+            || type.equals("application/vnd.rar")) {
+            return "archive";
+        }
+        if (type.equals("application/octet-stream") || type.equals("binary/octet-stream")) {
+            return "unknown";
+        }
+        return "other";
+    }
+
+    /**
+     * {@link #mimeFamily(String)} from a file name extension, for writes whose type is not detected yet.
+     */
+    public static String mimeFamilyForFilename(String filename) {
+        if (filename == null) {
+            return "unknown";
+        }
+        int dot = filename.lastIndexOf('.');
+        if (dot < 0 || dot == filename.length() - 1) {
+            return "unknown";
+        }
+        return switch (filename.substring(dot + 1).toLowerCase(Locale.ROOT)) {
+            case "pdf" -> "pdf";
+            case "png", "jpg", "jpeg", "gif", "tif", "tiff", "bmp", "webp", "heic", "svg" -> "image";
+            case "mp4", "mov", "avi", "mkv", "webm" -> "video";
+            case "mp3", "wav", "ogg", "m4a", "flac" -> "audio";
+            case "eml", "msg" -> "email";
+            case "txt", "csv", "md", "html", "htm", "xml", "json" -> "text";
+            case "doc", "docx", "xls", "xlsx", "ppt", "pptx", "odt", "ods", "odp", "rtf" -> "office";
+            case "zip", "gz", "tar", "7z", "rar" -> "archive";
+            default -> "other";
+        };
+    }
+
+    private void recordDistribution(String name, String baseUnit, double amount, double[] buckets, String... tags) {
+        if (registry == null) {
+            return;
+        }
+        registerDistribution(name, baseUnit, amount, buckets, tenantTag(), tags);
+    }
+
+    private void registerDistribution(String name, String baseUnit, double amount, double[] buckets, String tenant,
+                                      String... tags) {
+        DistributionSummary.Builder builder = DistributionSummary.builder(name)
+            .baseUnit(baseUnit)
+            .tags(tags)
+            .tag("tenant", tenant);
+        if (histograms) {
+            builder.serviceLevelObjectives(buckets);
+        }
+        builder.register(registry).record(amount);
+    }
+
+    private String[] withTenant(String[] tags) {
+        String[] tagged = new String[tags.length + 2];
+        System.arraycopy(tags, 0, tagged, 0, tags.length);
+        tagged[tags.length] = "tenant";
+        tagged[tags.length + 1] = tenantTag();
+        return tagged;
+    }
+}
@@ -0,0 +1,77 @@
+package com.ecm.core.metrics;
+
+import com.ecm.core.entity.Permission.PermissionType;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+/**
+ * Meters for {@code SecurityService.hasPermission}: {@code ecm_permission_checks_total} by permission,
+ * result and {@code cache} (hit/miss), the evaluation latency of misses, and the number of ancestors
+ * walked for ACL inheritance.
+ *
+ * <p>The permission cache answers hits without entering the method, so this aspect sits outside the
+ * cache advice and counts a hit when the call returned without {@link #evaluated} running on its
+ * thread. Evaluations reached without the cache proxy (internal calls) count as misses, which is what
+ * they are.
+ */
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class PermissionCheckMetrics {
+
+    private static final PermissionCheckMetrics NOOP = new PermissionCheckMetrics(EcmMetrics.noop());
+    private static final ThreadLocal<int[]> EVALUATIONS = ThreadLocal.withInitial(() -> new int[1]);
+
+    private final EcmMetrics metrics;
+
+    public PermissionCheckMetrics(EcmMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    public static PermissionCheckMetrics noop() {
+        return NOOP;
+    }
+
+    @Around("execution(boolean com.ecm.core.service.SecurityService.hasPermission(*, *, String))")
+    public Object countCacheHits(ProceedingJoinPoint joinPoint) throws Throwable {
+        if (!metrics.isEnabled()) {
+            return joinPoint.proceed();
+        }
+        int[] evaluations = EVALUATIONS.get();
+        int before = evaluations[0];
+        Object result = joinPoint.proceed();
+        if (evaluations[0] == before) {
+            metrics.increment("ecm_permission_checks_total",
+                "permission", String.valueOf(joinPoint.getArgs()[1]),
+                "result", resultTag(Boolean.TRUE.equals(result)),
+                "cache", "hit");
+        }
+        return result;
+    }
+
+    /**
+     * A permission was evaluated rather than served from the cache.
+     */
+    public void evaluated(PermissionType permissionType, boolean granted, long startNanos) {
+        if (!metrics.isEnabled()) {
+            return;
+        }
+        EVALUATIONS.get()[0]++;
+        String permission = String.valueOf(permissionType);
+        metrics.increment("ecm_permission_checks_total",
+            "permission", permission, "result", resultTag(granted), "cache", "miss");
+        metrics.recordTime("ecm_permission_evaluation_duration", startNanos, "permission", permission);
+    }
+
+    public void ancestorsWalked(int depth) {
+        metrics.recordValue("ecm_permission_ancestor_depth", depth);
+    }
+
+    private static String resultTag(boolean granted) {
+        return granted ? "granted" : "denied";
+    }
+}
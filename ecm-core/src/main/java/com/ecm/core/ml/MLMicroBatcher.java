@@ -0,0 +1,200 @@
+package com.ecm.core.ml;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Collects single inference requests and sends them to the ML service as one batch.
+ *
+ * <p>A batch is dispatched as soon as {@code maxBatchSize} items are waiting, or {@code maxDelayMs}
+ * after the first item of a batch arrived. At most {@code maxInFlight} batches are outstanding;
+ * while that limit is reached, new items keep accumulating and go out with the next completion, so
+ * batches grow under load instead of the request rate.
+ *
+ * <p>The dispatcher must return one output per input, in input order.
+ */
+final class MLMicroBatcher<I, O> {
+
+    private record Pending<I, O>(I item, CompletableFuture<O> future, long enqueuedNanos) {
+    }
+
+    private final String operation;
+    private final int maxBatchSize;
+    private final long maxDelayMs;
+    private final int maxInFlight;
+    private final ScheduledExecutorService scheduler;
+    private final Function<List<I>, CompletableFuture<List<O>>> dispatcher;
+    private final DistributionSummary batchSizes;
+    private final Timer queueWait;
+
+    private final Object lock = new Object();
+    private List<Pending<I, O>> pending = new ArrayList<>();
+    private ScheduledFuture<?> scheduledFlush;
+    private int inFlight;
+    private boolean closed;
+
+    MLMicroBatcher(String operation,
+                   int maxBatchSize,
+                   long maxDelayMs,
+                   int maxInFlight,
+                   ScheduledExecutorService scheduler,
+                   Function<List<I>, CompletableFuture<List<O>>> dispatcher,
+                   MeterRegistry meterRegistry) {
+        this.operation = operation;
+        this.maxBatchSize = Math.max(1, maxBatchSize);
+        this.maxDelayMs = Math.max(0L, maxDelayMs);
+        this.maxInFlight = Math.max(1, maxInFlight);
+        this.scheduler = scheduler;
+        this.dispatcher = dispatcher;
+        this.batchSizes = DistributionSummary.builder("ml_batch_size")
+            .description("Number of items sent to the ML service in one request")
+            .tag("operation", operation)
+            .register(meterRegistry);
+        this.queueWait = Timer.builder("ml_batch_queue_wait")
+            .description("Time an item waited for its ML batch to be sent")
+            .tag("operation", operation)
+            .register(meterRegistry);
+    }
+
+    CompletableFuture<O> submit(I item) {
+        CompletableFuture<O> future = new CompletableFuture<>();
+        List<Pending<I, O>> ready = null;
+        synchronized (lock) {
+            if (closed) {
+                future.completeExceptionally(new IllegalStateException("ML " + operation + " batcher is closed"));
+                return future;
+            }
+            pending.add(new Pending<>(item, future, System.nanoTime()));
+            if (pending.size() >= maxBatchSize) {
+                ready = takeBatch();
+            } else if (pending.size() == 1 && scheduledFlush == null) {
+                scheduledFlush = scheduler.schedule(this::flushDue, maxDelayMs, TimeUnit.MILLISECONDS);
+            }
+        }
+        if (ready != null) {
+            dispatch(ready);
+        }
+        return future;
+    }
+
+    int pendingCount() {
+        synchronized (lock) {
+            return pending.size();
+        }
+    }
+
+    /**
+     * Fail everything still waiting; batches already sent complete normally.
+     */
+    void close() {
+        List<Pending<I, O>> abandoned;
+        synchronized (lock) {
+            closed = true;
+            abandoned = pending;
+            pending = new ArrayList<>();
+            if (scheduledFlush != null) {
+                scheduledFlush.cancel(false);
+                scheduledFlush = null;
+            }
+        }
+        IllegalStateException error = new IllegalStateException("ML " + operation + " batcher is closed");
+        abandoned.forEach(entry -> entry.future().completeExceptionally(error));
+    }
+
+    private void flushDue() {
+        List<Pending<I, O>> ready;
+        synchronized (lock) {
+            scheduledFlush = null;
+            ready = takeBatch();
+        }
+        if (ready != null) {
+            dispatch(ready);
+        }
+    }
+
+    /**
+     * Remove the next batch from {@code pending}, or return {@code null} when nothing is waiting or
+     * the in-flight limit is reached. Caller holds {@code lock}.
+     */
+    private List<Pending<I, O>> takeBatch() {
+        if (pending.isEmpty() || inFlight >= maxInFlight) {
+            return null;
+        }
+        List<Pending<I, O>> batch;
+        if (pending.size() <= maxBatchSize) {
+            batch = pending;
+            pending = new ArrayList<>();
+        } else {
+            List<Pending<I, O>> head = pending.subList(0, maxBatchSize);
+            batch = new ArrayList<>(head);
+            head.clear();
+        }
+        inFlight++;
+        if (pending.isEmpty() && scheduledFlush != null) {
+            scheduledFlush.cancel(false);
+            scheduledFlush = null;
+        }
+        return batch;
+    }
+
+    private void dispatch(List<Pending<I, O>> batch) {
+        batchSizes.record(batch.size());
+        long now = System.nanoTime();
+        List<I> items = new ArrayList<>(batch.size());
+        for (Pending<I, O> entry : batch) {
+            queueWait.record(now - entry.enqueuedNanos(), TimeUnit.NANOSECONDS);
+            items.add(entry.item());
+        }
+
+        CompletableFuture<List<O>> result;
+        try {
+            result = dispatcher.apply(items);
+        } catch (RuntimeException e) {
+            result = CompletableFuture.failedFuture(e);
+        }
+        result.whenComplete((outputs, error) -> {
+            try {
+                complete(batch, outputs, error);
+            } finally {
+                onBatchFinished();
+            }
+        });
+    }
+
+    private void complete(List<Pending<I, O>> batch, List<O> outputs, Throwable error) {
+        if (error == null && (outputs == null || outputs.size() != batch.size())) {
+            error = new IllegalStateException("ML service returned " + (outputs == null ? 0 : outputs.size())
+                + " " + operation + " results for " + batch.size() + " inputs");
+        }
+        for (int i = 0; i < batch.size(); i++) {
+            CompletableFuture<O> future = batch.get(i).future();
+            if (error != null) {
+                future.completeExceptionally(error);
+            } else {
+                future.complete(outputs.get(i));
+            }
+        }
+    }
+
+    private void onBatchFinished() {
+        List<Pending<I, O>> ready;
+        synchronized (lock) {
+            inFlight--;
+            // Items whose delay already expired while every slot was busy have no timer left.
+            boolean due = pending.size() >= maxBatchSize || scheduledFlush == null;
+            ready = due ? takeBatch() : null;
+        }
+        if (ready != null) {
+            dispatch(ready);
+        }
+    }
+}
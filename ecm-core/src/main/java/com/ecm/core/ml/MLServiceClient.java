@@ -1,23 +1,46 @@
 package com.ecm.core.ml;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.core.io.ByteArrayResource;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.http.*;
 import org.springframework.stereotype.Service;
-import org.springframework.util.LinkedMultiValueMap;
-import org.springframework.util.MultiValueMap;
-import org.springframework.web.client.RestClientException;
-import org.springframework.web.client.RestTemplate;
 import org.springframework.web.util.UriComponentsBuilder;
 
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
 
 /**
  * ML Service Client
@@ -30,24 +53,121 @@ import java.util.Map;
  *
  * This approach avoids ProcessBuilder issues with Python environments
  * and provides better scalability and maintainability.
+ *
+ * Transport: one shared {@link HttpClient} (HTTP/1.1, persistent connections kept alive and reused
+ * across calls). Classification and tag suggestions go through an {@link MLMicroBatcher} that
+ * coalesces concurrent callers into {@code /batch} requests; the {@code *Async} methods return as
+ * soon as the item is queued. Services without the batch endpoints are detected on the first 404 and
+ * served one request per item from then on. OCR uploads are streamed from the caller's
+ * {@link InputStream} instead of being buffered as one multipart body.
  */
 @Slf4j
 @Service
 public class MLServiceClient {
 
+    static final String HEALTH_PATH = "/health";
+    static final String CLASSIFY_PATH = "/api/ml/classify";
+    static final String CLASSIFY_BATCH_PATH = "/api/ml/classify/batch";
+    static final String SUGGEST_TAGS_PATH = "/api/ml/suggest-tags";
+    static final String SUGGEST_TAGS_BATCH_PATH = "/api/ml/suggest-tags/batch";
+    static final String OCR_PATH = "/api/ml/ocr";
+    static final String TRAIN_PATH = "/api/ml/train";
+
     @Value("${ecm.ml.service.url:http://ml-service:8080}")
-    private String mlServiceUrl;
+    private String mlServiceUrl = "http://ml-service:8080";
 
     @Value("${ecm.ml.enabled:true}")
-    private boolean mlEnabled;
+    private boolean mlEnabled = true;
 
+    /** Per-request response timeout for inference and OCR calls. */
     @Value("${ecm.ml.timeout:30000}")
-    private int timeout;
+    private int timeout = 30000;
+
+    @Value("${ecm.ml.connect-timeout-ms:2000}")
+    private long connectTimeoutMs = 2000L;
+
+    @Value("${ecm.ml.train-timeout-ms:600000}")
+    private long trainTimeoutMs = 600_000L;
+
+    @Value("${ecm.ml.client-threads:4}")
+    private int clientThreads = 4;
+
+    /** How long a health probe result is reused; pipeline checks availability once per document. */
+    @Value("${ecm.ml.health-cache-ms:5000}")
+    private long healthCacheMs = 5000L;
+
+    @Value("${ecm.ml.batch.enabled:true}")
+    private boolean batchEnabled = true;
 
-    private final RestTemplate restTemplate;
+    @Value("${ecm.ml.batch.max-size:32}")
+    private int batchMaxSize = 32;
+
+    @Value("${ecm.ml.batch.max-delay-ms:10}")
+    private long batchMaxDelayMs = 10L;
+
+    @Value("${ecm.ml.batch.max-in-flight:4}")
+    private int batchMaxInFlight = 4;
+
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+
+    private HttpClient httpClient;
+    private ExecutorService httpExecutor;
+    private ScheduledExecutorService batchScheduler;
+    private MLMicroBatcher<ClassifyRequest, ClassificationResult> classifyBatcher;
+    private MLMicroBatcher<TagSuggestRequest, List<String>> tagBatcher;
+
+    private volatile boolean batchEndpointsMissing;
+    private volatile HealthSnapshot health;
+
+    private record HealthSnapshot(HealthResponse body, long checkedAtMillis) {
+    }
 
-    public MLServiceClient() {
-        this.restTemplate = new RestTemplate();
+    public MLServiceClient(ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        this.objectMapper = objectMapper.copy()
+            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+        this.meterRegistry = meterRegistry;
+    }
+
+    @PostConstruct
+    public void start() {
+        AtomicInteger threadIndex = new AtomicInteger();
+        httpExecutor = Executors.newFixedThreadPool(Math.max(1, clientThreads), runnable -> {
+            Thread thread = new Thread(runnable, "ml-client-" + threadIndex.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        batchScheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "ml-batch-flush");
+            thread.setDaemon(true);
+            return thread;
+        });
+        // uvicorn speaks plain HTTP/1.1; pinning the version avoids an h2c upgrade attempt per connection.
+        httpClient = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofMillis(Math.max(1L, connectTimeoutMs)))
+            .executor(httpExecutor)
+            .build();
+        classifyBatcher = new MLMicroBatcher<>("classify", batchMaxSize, batchMaxDelayMs, batchMaxInFlight,
+            batchScheduler, this::dispatchClassifyBatch, meterRegistry);
+        tagBatcher = new MLMicroBatcher<>("suggest_tags", batchMaxSize, batchMaxDelayMs, batchMaxInFlight,
+            batchScheduler, this::dispatchTagBatch, meterRegistry);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (classifyBatcher != null) {
+            classifyBatcher.close();
+        }
+        if (tagBatcher != null) {
+            tagBatcher.close();
+        }
+        if (batchScheduler != null) {
+            batchScheduler.shutdownNow();
+        }
+        if (httpExecutor != null) {
+            httpExecutor.shutdown();
+        }
     }
 
     /**
@@ -57,21 +177,8 @@ public class MLServiceClient {
         if (!mlEnabled) {
             return false;
         }
-
-        try {
-            ResponseEntity<HealthResponse> response = restTemplate.getForEntity(
-                mlServiceUrl + "/health",
-                HealthResponse.class
-            );
-
-            return response.getStatusCode() == HttpStatus.OK &&
-                   response.getBody() != null &&
-                   "healthy".equals(response.getBody().getStatus());
-
-        } catch (Exception e) {
-            log.debug("ML service health check failed: {}", e.getMessage());
-            return false;
-        }
+        HealthResponse body = health();
+        return body != null && "healthy".equals(body.getStatus());
     }
 
     /**
@@ -81,20 +188,8 @@ public class MLServiceClient {
         if (!isAvailable()) {
             return false;
         }
-
-        try {
-            ResponseEntity<HealthResponse> response = restTemplate.getForEntity(
-                mlServiceUrl + "/health",
-                HealthResponse.class
-            );
-
-            return response.getBody() != null &&
-                   Boolean.TRUE.equals(response.getBody().getModelLoaded());
-
-        } catch (Exception e) {
-            log.debug("ML model check failed: {}", e.getMessage());
-            return false;
-        }
+        HealthResponse body = health();
+        return body != null && Boolean.TRUE.equals(body.getModelLoaded());
     }
 
     /**
@@ -104,45 +199,25 @@ public class MLServiceClient {
      * @return Classification result with category suggestion and confidence
      */
     public ClassificationResult classify(String text) {
+        return classifyAsync(text).join();
+    }
+
+    /**
+     * Non-blocking variant of {@link #classify(String)}. The future never completes exceptionally;
+     * transport errors are reported as a failed {@link ClassificationResult}.
+     */
+    public CompletableFuture<ClassificationResult> classifyAsync(String text) {
         if (!mlEnabled) {
             log.debug("ML service is disabled");
-            return ClassificationResult.empty();
+            return CompletableFuture.completedFuture(ClassificationResult.empty());
         }
 
         if (text == null || text.length() < 50) {
             log.debug("Text too short for classification: {} chars", text != null ? text.length() : 0);
-            return ClassificationResult.empty();
+            return CompletableFuture.completedFuture(ClassificationResult.empty());
         }
 
-        try {
-            ClassifyRequest request = new ClassifyRequest(text, null);
-
-            HttpHeaders headers = new HttpHeaders();
-            headers.setContentType(MediaType.APPLICATION_JSON);
-            HttpEntity<ClassifyRequest> entity = new HttpEntity<>(request, headers);
-
-            ResponseEntity<ClassifyResponse> response = restTemplate.postForEntity(
-                mlServiceUrl + "/api/ml/classify",
-                entity,
-                ClassifyResponse.class
-            );
-
-            if (response.getStatusCode() == HttpStatus.OK && response.getBody() != null) {
-                ClassifyResponse body = response.getBody();
-                return ClassificationResult.builder()
-                    .suggestedCategory(body.getPrediction())
-                    .confidence(body.getConfidence())
-                    .alternatives(body.getAlternatives())
-                    .success(true)
-                    .build();
-            }
-
-            return ClassificationResult.empty();
-
-        } catch (RestClientException e) {
-            log.warn("ML classification request failed: {}", e.getMessage());
-            return ClassificationResult.failed(e.getMessage());
-        }
+        return submitClassify(new ClassifyRequest(text, null));
     }
 
     /**
@@ -156,36 +231,7 @@ public class MLServiceClient {
         if (!mlEnabled) {
             return ClassificationResult.empty();
         }
-
-        try {
-            ClassifyRequest request = new ClassifyRequest(text, candidates);
-
-            HttpHeaders headers = new HttpHeaders();
-            headers.setContentType(MediaType.APPLICATION_JSON);
-            HttpEntity<ClassifyRequest> entity = new HttpEntity<>(request, headers);
-
-            ResponseEntity<ClassifyResponse> response = restTemplate.postForEntity(
-                mlServiceUrl + "/api/ml/classify",
-                entity,
-                ClassifyResponse.class
-            );
-
-            if (response.getStatusCode() == HttpStatus.OK && response.getBody() != null) {
-                ClassifyResponse body = response.getBody();
-                return ClassificationResult.builder()
-                    .suggestedCategory(body.getPrediction())
-                    .confidence(body.getConfidence())
-                    .alternatives(body.getAlternatives())
-                    .success(true)
-                    .build();
-            }
-
-            return ClassificationResult.empty();
-
-        } catch (RestClientException e) {
-            log.warn("ML classification request failed: {}", e.getMessage());
-            return ClassificationResult.failed(e.getMessage());
-        }
+        return submitClassify(new ClassifyRequest(text, candidates)).join();
     }
 
     /**
@@ -196,33 +242,25 @@ public class MLServiceClient {
      * @return List of suggested tag names
      */
     public List<String> suggestTags(String text, int maxTags) {
+        return suggestTagsAsync(text, maxTags).join();
+    }
+
+    /**
+     * Non-blocking variant of {@link #suggestTags(String, int)}; failures yield an empty list.
+     */
+    public CompletableFuture<List<String>> suggestTagsAsync(String text, int maxTags) {
         if (!mlEnabled || text == null || text.length() < 50) {
-            return Collections.emptyList();
+            return CompletableFuture.completedFuture(Collections.emptyList());
         }
 
-        try {
-            TagSuggestRequest request = new TagSuggestRequest(text, maxTags);
-
-            HttpHeaders headers = new HttpHeaders();
-            headers.setContentType(MediaType.APPLICATION_JSON);
-            HttpEntity<TagSuggestRequest> entity = new HttpEntity<>(request, headers);
-
-            ResponseEntity<TagSuggestResponse> response = restTemplate.postForEntity(
-                mlServiceUrl + "/api/ml/suggest-tags",
-                entity,
-                TagSuggestResponse.class
-            );
-
-            if (response.getStatusCode() == HttpStatus.OK && response.getBody() != null) {
-                return response.getBody().getTags();
-            }
-
-            return Collections.emptyList();
-
-        } catch (RestClientException e) {
-            log.warn("ML tag suggestion request failed: {}", e.getMessage());
+        TagSuggestRequest request = new TagSuggestRequest(text, maxTags);
+        CompletableFuture<List<String>> future = batchEnabled
+            ? tagBatcher.submit(request)
+            : suggestTagsSingle(request);
+        return future.exceptionally(e -> {
+            log.warn("ML tag suggestion request failed: {}", failureMessage(e));
             return Collections.emptyList();
-        }
+        });
     }
 
     /**
@@ -232,11 +270,27 @@ public class MLServiceClient {
      * since OCR can be slow for multi-page PDFs.
      */
     public OcrResult ocr(byte[] fileBytes, String filename, String contentType, String language, int maxPages, int maxChars) {
+        if (fileBytes == null || fileBytes.length == 0) {
+            return mlEnabled ? OcrResult.failed("Empty file content") : OcrResult.empty();
+        }
+        return ocr(new ByteArrayInputStream(fileBytes), fileBytes.length, filename, contentType, language, maxPages, maxChars);
+    }
+
+    /**
+     * Streaming variant of {@link #ocr(byte[], String, String, String, int, int)}. The content is
+     * copied straight from {@code content} into the multipart request; the caller keeps ownership
+     * of the stream and closes it after this method returns.
+     *
+     * @param contentLength exact number of bytes in {@code content}, or a negative value to send
+     *                      the upload chunked
+     */
+    public OcrResult ocr(InputStream content, long contentLength, String filename, String contentType,
+                         String language, int maxPages, int maxChars) {
         if (!mlEnabled) {
             return OcrResult.empty();
         }
 
-        if (fileBytes == null || fileBytes.length == 0) {
+        if (content == null || contentLength == 0) {
             return OcrResult.failed("Empty file content");
         }
 
@@ -248,51 +302,48 @@ public class MLServiceClient {
         int safeMaxPages = Math.max(1, Math.min(maxPages > 0 ? maxPages : 3, 20));
         int safeMaxChars = Math.max(1000, Math.min(maxChars > 0 ? maxChars : 200000, 2000000));
 
-        try {
-            String url = UriComponentsBuilder
-                .fromHttpUrl(mlServiceUrl + "/api/ml/ocr")
-                .queryParam("language", safeLanguage)
-                .queryParam("maxPages", safeMaxPages)
-                .queryParam("maxChars", safeMaxChars)
-                .toUriString();
-
-            HttpHeaders headers = new HttpHeaders();
-            headers.setContentType(MediaType.MULTIPART_FORM_DATA);
-
-            ByteArrayResource resource = new ByteArrayResource(fileBytes) {
-                @Override
-                public String getFilename() {
-                    return (filename == null || filename.isBlank()) ? "document" : filename;
-                }
-            };
-
-            MultiValueMap<String, Object> body = new LinkedMultiValueMap<>();
-            body.add("file", resource);
-
-            HttpEntity<MultiValueMap<String, Object>> entity = new HttpEntity<>(body, headers);
+        String url = UriComponentsBuilder
+            .fromHttpUrl(mlServiceUrl + OCR_PATH)
+            .queryParam("language", safeLanguage)
+            .queryParam("maxPages", safeMaxPages)
+            .queryParam("maxChars", safeMaxChars)
+            .toUriString();
+
+        String boundary = "ecm-" + UUID.randomUUID();
+        String safeFilename = (filename == null || filename.isBlank()) ? "document" : filename;
+        String partType = (contentType == null || contentType.isBlank()) ? "application/octet-stream" : contentType;
+        byte[] head = ("--" + boundary + "\r\n"
+            + "Content-Disposition: form-data; name=\"file\"; filename=\"" + quoteFilename(safeFilename) + "\"\r\n"
+            + "Content-Type: " + partType + "\r\n\r\n").getBytes(StandardCharsets.UTF_8);
+        byte[] tail = ("\r\n--" + boundary + "--\r\n").getBytes(StandardCharsets.US_ASCII);
+
+        HttpRequest.BodyPublisher stream = HttpRequest.BodyPublishers.ofInputStream(() -> new SequenceInputStream(
+            Collections.enumeration(List.of(new ByteArrayInputStream(head), content, new ByteArrayInputStream(tail)))));
+        HttpRequest.BodyPublisher body = contentLength > 0
+            ? HttpRequest.BodyPublishers.fromPublisher(stream, head.length + contentLength + tail.length)
+            : stream;
+
+        HttpRequest request = HttpRequest.newBuilder(URI.create(url))
+            .timeout(Duration.ofMillis(Math.max(1, timeout)))
+            .header("Content-Type", "multipart/form-data; boundary=" + boundary)
+            .POST(body)
+            .build();
 
-            ResponseEntity<OcrResponse> response = restTemplate.postForEntity(
-                url,
-                entity,
-                OcrResponse.class
-            );
-
-            if (response.getStatusCode() == HttpStatus.OK && response.getBody() != null) {
-                OcrResponse ocr = response.getBody();
-                return OcrResult.builder()
-                    .success(true)
-                    .text(ocr.getText() != null ? ocr.getText() : "")
-                    .pages(ocr.getPages())
-                    .language(ocr.getLanguage())
-                    .truncated(Boolean.TRUE.equals(ocr.getTruncated()))
-                    .build();
+        try {
+            OcrResponse ocr = send("ocr", request, OcrResponse.class).join();
+            if (ocr == null) {
+                return OcrResult.failed("Unexpected OCR response: empty body");
             }
-
-            return OcrResult.failed("Unexpected OCR response: " + response.getStatusCode());
-
-        } catch (RestClientException e) {
-            log.warn("ML OCR request failed: {}", e.getMessage());
-            return OcrResult.failed(e.getMessage());
+            return OcrResult.builder()
+                .success(true)
+                .text(ocr.getText() != null ? ocr.getText() : "")
+                .pages(ocr.getPages())
+                .language(ocr.getLanguage())
+                .truncated(Boolean.TRUE.equals(ocr.getTruncated()))
+                .build();
+        } catch (CompletionException | CancellationException e) {
+            log.warn("ML OCR request failed: {}", failureMessage(e));
+            return OcrResult.failed(failureMessage(e));
         }
     }
 
@@ -312,20 +363,8 @@ public class MLServiceClient {
         }
 
         try {
-            TrainRequest request = new TrainRequest(documents);
-
-            HttpHeaders headers = new HttpHeaders();
-            headers.setContentType(MediaType.APPLICATION_JSON);
-            HttpEntity<TrainRequest> entity = new HttpEntity<>(request, headers);
-
-            ResponseEntity<Map> response = restTemplate.postForEntity(
-                mlServiceUrl + "/api/ml/train",
-                entity,
-                Map.class
-            );
-
-            if (response.getStatusCode() == HttpStatus.OK && response.getBody() != null) {
-                Map body = response.getBody();
+            Map<?, ?> body = postJson("train", TRAIN_PATH, new TrainRequest(documents), Map.class, trainTimeoutMs).join();
+            if (body != null) {
                 return TrainingResult.builder()
                     .success(true)
                     .status((String) body.get("status"))
@@ -335,9 +374,237 @@ public class MLServiceClient {
 
             return TrainingResult.failed("Training failed");
 
-        } catch (RestClientException e) {
-            log.error("ML training request failed", e);
-            return TrainingResult.failed(e.getMessage());
+        } catch (CompletionException | CancellationException e) {
+            log.error("ML training request failed", e.getCause() != null ? e.getCause() : e);
+            return TrainingResult.failed(failureMessage(e));
+        }
+    }
+
+    /**
+     * Get model information
+     */
+    public ModelInfo getModelInfo() {
+        if (!mlEnabled) {
+            return ModelInfo.empty();
+        }
+
+        HealthResponse body = health();
+        if (body == null) {
+            return ModelInfo.empty();
+        }
+        return ModelInfo.builder()
+            .available(true)
+            .modelLoaded(Boolean.TRUE.equals(body.getModelLoaded()))
+            .modelVersion(body.getModelVersion())
+            .build();
+    }
+
+    // ==================== Batching ====================
+
+    private CompletableFuture<ClassificationResult> submitClassify(ClassifyRequest request) {
+        CompletableFuture<ClassificationResult> future = batchEnabled
+            ? classifyBatcher.submit(request)
+            : classifySingle(request);
+        return future.exceptionally(e -> {
+            log.warn("ML classification request failed: {}", failureMessage(e));
+            return ClassificationResult.failed(failureMessage(e));
+        });
+    }
+
+    private CompletableFuture<List<ClassificationResult>> dispatchClassifyBatch(List<ClassifyRequest> items) {
+        if (items.size() == 1 || batchEndpointsMissing) {
+            return eachSingle(items, this::classifySingle, e -> ClassificationResult.failed(failureMessage(e)));
+        }
+        return postJson("classify_batch", CLASSIFY_BATCH_PATH, new ClassifyBatchRequest(items),
+                ClassifyBatchResponse.class, timeout)
+            .thenApply(response -> {
+                List<ClassificationResult> results = new ArrayList<>(items.size());
+                if (response != null && response.getResults() != null) {
+                    response.getResults().forEach(result -> results.add(toClassificationResult(result)));
+                }
+                return results;
+            })
+            .exceptionallyCompose(e -> {
+                if (!isNotFound(e)) {
+                    return CompletableFuture.failedFuture(e);
+                }
+                markBatchEndpointsMissing();
+                return eachSingle(items, this::classifySingle, error -> ClassificationResult.failed(failureMessage(error)));
+            });
+    }
+
+    private CompletableFuture<List<List<String>>> dispatchTagBatch(List<TagSuggestRequest> items) {
+        if (items.size() == 1 || batchEndpointsMissing) {
+            return eachSingle(items, this::suggestTagsSingle, e -> Collections.emptyList());
+        }
+        return postJson("suggest_tags_batch", SUGGEST_TAGS_BATCH_PATH, new TagSuggestBatchRequest(items),
+                TagSuggestBatchResponse.class, timeout)
+            .thenApply(response -> {
+                List<List<String>> results = new ArrayList<>(items.size());
+                if (response != null && response.getResults() != null) {
+                    response.getResults().forEach(result -> results.add(
+                        result != null && result.getTags() != null ? result.getTags() : Collections.emptyList()));
+                }
+                return results;
+            })
+            .exceptionallyCompose(e -> {
+                if (!isNotFound(e)) {
+                    return CompletableFuture.failedFuture(e);
+                }
+                markBatchEndpointsMissing();
+                return eachSingle(items, this::suggestTagsSingle, error -> Collections.emptyList());
+            });
+    }
+
+    private CompletableFuture<ClassificationResult> classifySingle(ClassifyRequest request) {
+        return postJson("classify", CLASSIFY_PATH, request, ClassifyResponse.class, timeout)
+            .thenApply(this::toClassificationResult);
+    }
+
+    private CompletableFuture<List<String>> suggestTagsSingle(TagSuggestRequest request) {
+        return postJson("suggest_tags", SUGGEST_TAGS_PATH, request, TagSuggestResponse.class, timeout)
+            .thenApply(response -> response != null && response.getTags() != null
+                ? response.getTags()
+                : Collections.<String>emptyList());
+    }
+
+    /**
+     * Fallback for services without batch endpoints: one request per item, where a failed item only
+     * fails itself.
+     */
+    private static <I, O> CompletableFuture<List<O>> eachSingle(List<I> items,
+                                                                Function<I, CompletableFuture<O>> call,
+                                                                Function<Throwable, O> onError) {
+        List<CompletableFuture<O>> futures = new ArrayList<>(items.size());
+        for (I item : items) {
+            futures.add(call.apply(item).exceptionally(onError));
+        }
+        return CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new))
+            .thenApply(ignored -> futures.stream().map(CompletableFuture::join).toList());
+    }
+
+    private void markBatchEndpointsMissing() {
+        if (!batchEndpointsMissing) {
+            batchEndpointsMissing = true;
+            log.info("ML service at {} has no batch endpoints, falling back to one request per item", mlServiceUrl);
+        }
+    }
+
+    private ClassificationResult toClassificationResult(ClassifyResponse body) {
+        if (body == null) {
+            return ClassificationResult.empty();
+        }
+        return ClassificationResult.builder()
+            .suggestedCategory(body.getPrediction())
+            .confidence(body.getConfidence())
+            .alternatives(body.getAlternatives())
+            .success(true)
+            .build();
+    }
+
+    // ==================== Transport ====================
+
+    private HealthResponse health() {
+        HealthSnapshot snapshot = health;
+        long now = System.currentTimeMillis();
+        if (snapshot != null && now - snapshot.checkedAtMillis() < healthCacheMs) {
+            return snapshot.body();
+        }
+
+        HealthResponse body;
+        try {
+            HttpRequest request = HttpRequest.newBuilder(URI.create(mlServiceUrl + HEALTH_PATH))
+                .timeout(Duration.ofMillis(Math.max(1L, connectTimeoutMs)))
+                .GET()
+                .build();
+            body = send("health", request, HealthResponse.class).join();
+        } catch (CompletionException | CancellationException | IllegalArgumentException e) {
+            log.debug("ML service health check failed: {}", failureMessage(e));
+            body = null;
+        }
+        health = new HealthSnapshot(body, now);
+        return body;
+    }
+
+    private <T> CompletableFuture<T> postJson(String operation, String path, Object payload, Class<T> type, long timeoutMs) {
+        byte[] json;
+        try {
+            json = objectMapper.writeValueAsBytes(payload);
+        } catch (JsonProcessingException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+        HttpRequest request = HttpRequest.newBuilder(URI.create(mlServiceUrl + path))
+            .timeout(Duration.ofMillis(Math.max(1L, timeoutMs)))
+            .header("Content-Type", "application/json")
+            .POST(HttpRequest.BodyPublishers.ofByteArray(json))
+            .build();
+        return send(operation, request, type);
+    }
+
+    private <T> CompletableFuture<T> send(String operation, HttpRequest request, Class<T> type) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        return httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofByteArray())
+            .thenApply(response -> decode(response, type))
+            .whenComplete((result, error) -> sample.stop(Timer.builder("ml_request_duration")
+                .description("Latency of ML service requests")
+                .tag("operation", operation)
+                .tag("outcome", error == null ? "success" : "error")
+                .register(meterRegistry)));
+    }
+
+    private <T> T decode(HttpResponse<byte[]> response, Class<T> type) {
+        int status = response.statusCode();
+        if (status < 200 || status >= 300) {
+            throw new MLServiceException(status, "ML service returned HTTP " + status + " for "
+                + response.request().uri().getPath());
+        }
+        byte[] body = response.body();
+        if (body == null || body.length == 0) {
+            return null;
+        }
+        try {
+            return objectMapper.readValue(body, type);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unreadable ML service response", e);
+        }
+    }
+
+    private static boolean isNotFound(Throwable error) {
+        Throwable cause = unwrap(error);
+        return cause instanceof MLServiceException serviceError && serviceError.getStatusCode() == 404;
+    }
+
+    private static Throwable unwrap(Throwable error) {
+        Throwable current = error;
+        while ((current instanceof CompletionException || current instanceof ExecutionException)
+            && current.getCause() != null) {
+            current = current.getCause();
+        }
+        return current;
+    }
+
+    private static String failureMessage(Throwable error) {
+        Throwable cause = unwrap(error);
+        return cause.getMessage() != null ? cause.getMessage() : cause.getClass().getSimpleName();
+    }
+
+    private static String quoteFilename(String filename) {
+        return filename.replace("\\", "\\\\").replace("\"", "\\\"").replace("\r", " ").replace("\n", " ");
+    }
+
+    /**
+     * Non-2xx answer from the ML service.
+     */
+    public static class MLServiceException extends RuntimeException {
+        private final int statusCode;
+
+        public MLServiceException(int statusCode, String message) {
+            super(message);
+            this.statusCode = statusCode;
+        }
+
+        public int getStatusCode() {
+            return statusCode;
         }
     }
 
@@ -380,37 +647,6 @@ public class MLServiceClient {
         }
     }
 
-    /**
-     * Get model information
-     */
-    public ModelInfo getModelInfo() {
-        if (!mlEnabled) {
-            return ModelInfo.empty();
-        }
-
-        try {
-            ResponseEntity<HealthResponse> response = restTemplate.getForEntity(
-                mlServiceUrl + "/health",
-                HealthResponse.class
-            );
-
-            if (response.getStatusCode() == HttpStatus.OK && response.getBody() != null) {
-                HealthResponse body = response.getBody();
-                return ModelInfo.builder()
-                    .available(true)
-                    .modelLoaded(Boolean.TRUE.equals(body.getModelLoaded()))
-                    .modelVersion(body.getModelVersion())
-                    .build();
-            }
-
-            return ModelInfo.empty();
-
-        } catch (RestClientException e) {
-            log.debug("Failed to get ML model info: {}", e.getMessage());
-            return ModelInfo.empty();
-        }
-    }
-
     // ==================== Request/Response DTOs ====================
 
     @Data
@@ -479,6 +715,34 @@ public class MLServiceClient {
         private String modelVersion;
     }
 
+    @Data
+    @AllArgsConstructor
+    @NoArgsConstructor
+    public static class ClassifyBatchRequest {
+        private List<ClassifyRequest> items;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class ClassifyBatchResponse {
+        private List<ClassifyResponse> results;
+    }
+
+    @Data
+    @AllArgsConstructor
+    @NoArgsConstructor
+    public static class TagSuggestBatchRequest {
+        private List<TagSuggestRequest> items;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class TagSuggestBatchResponse {
+        private List<TagSuggestResponse> results;
+    }
+
     // ==================== Result Classes ====================
 
     @Data
@@ -8,6 +8,7 @@ import com.ecm.core.repository.DocumentRepository;
 import com.ecm.core.search.SearchIndexService;
 import com.ecm.core.service.ContentService;
 import com.ecm.core.service.CorrespondentService;
+import com.ecm.core.service.ExtractedTextStore;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
@@ -57,6 +58,7 @@ public class OcrQueueService {
     private final SearchIndexService searchIndexService;
     private final MLServiceClient mlServiceClient;
     private final StringRedisTemplate redisTemplate;
+    private final ExtractedTextStore extractedTextStore;
 
     @Value("${ecm.ocr.enabled:false}")
     private boolean ocrEnabled;
@@ -101,7 +103,7 @@ public class OcrQueueService {
         if (documentId == null) {
             throw new IllegalArgumentException("documentId is required");
         }
-        Document document = documentRepository.findById(documentId)
+        Document document = documentRepository.findWithTextById(documentId)
             .orElseThrow(() -> new IllegalArgumentException("Document not found: " + documentId));
 
         if (!ocrEnabled) {
@@ -163,7 +165,7 @@ public class OcrQueueService {
 
     private void handleJob(OcrJob job) {
         UUID documentId = job.documentId();
-        Document document = documentRepository.findById(documentId).orElse(null);
+        Document document = documentRepository.findWithTextById(documentId).orElse(null);
         if (document == null) {
             queuedJobs.remove(documentId);
             return;
@@ -236,7 +238,7 @@ public class OcrQueueService {
 
     private void handleRedisJob(RedisScheduledQueueStore store, RedisScheduledQueueStore.Entry entry, boolean force) {
         UUID documentId = entry.documentId();
-        Document document = documentRepository.findById(documentId).orElse(null);
+        Document document = documentRepository.findWithTextById(documentId).orElse(null);
         if (document == null) {
             clearRedisJob(store, documentId);
             return;
@@ -283,12 +285,21 @@ public class OcrQueueService {
     }
 
     private void extractAndPersist(Document document, boolean force) throws Exception {
-        byte[] bytes = readContentBytes(document);
         String language = (ocrLanguage == null || ocrLanguage.isBlank()) ? "eng" : ocrLanguage.trim();
         int pages = Math.max(1, Math.min(maxPages, 20));
         int chars = Math.max(1000, Math.min(maxChars, 2_000_000));
 
-        MLServiceClient.OcrResult result = mlServiceClient.ocr(bytes, document.getName(), document.getMimeType(), language, pages, chars);
+        MLServiceClient.OcrResult result;
+        Long fileSize = document.getFileSize();
+        if (fileSize != null && fileSize > 0 && document.getContentId() != null) {
+            // Size is known and already checked by isEligible: stream the content instead of buffering it.
+            try (InputStream in = contentService.getContent(document.getContentId())) {
+                result = mlServiceClient.ocr(in, fileSize, document.getName(), document.getMimeType(), language, pages, chars);
+            }
+        } else {
+            byte[] bytes = readContentBytes(document);
+            result = mlServiceClient.ocr(bytes, document.getName(), document.getMimeType(), language, pages, chars);
+        }
         if (!result.isSuccess()) {
             String reason = result.getErrorMessage() != null ? result.getErrorMessage() : "OCR failed";
             throw new IllegalStateException(reason);
@@ -306,6 +317,7 @@ public class OcrQueueService {
             // Force runs may append; normal runs avoid duplicating existing text.
             document.setTextContent((document.getTextContent() + "\n\n[OCR]\n" + text).trim());
         }
+        extractedTextStore.storePending(document);
 
         if (enrichCorrespondentEnabled && document.getCorrespondent() == null) {
             try {
@@ -48,6 +48,9 @@ public class DocumentContext {
     /** Content hash (SHA-256) for deduplication */
     private String contentHash;
 
+    /** Content ID was reused from an identical existing blob (shared with other documents) */
+    private boolean contentDeduplicated;
+
     /** Extracted text content from Tika */
     private String extractedText;
 
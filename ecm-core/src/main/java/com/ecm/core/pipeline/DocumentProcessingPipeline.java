@@ -1,6 +1,8 @@
 package com.ecm.core.pipeline;
 
+import com.ecm.core.metrics.EcmMetrics;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
 import java.util.ArrayList;
@@ -20,6 +22,9 @@ import java.util.List;
  *    b. Execute processor
  *    c. Handle result (continue, skip, or stop)
  * 3. Return final result with all processor results
+ *
+ * Each processor run is also exported as ecm_pipeline_processor_duration (by processor, status
+ * and MIME family) and the whole run as ecm_pipeline_duration.
  */
 @Slf4j
 @Component
@@ -27,6 +32,9 @@ public class DocumentProcessingPipeline {
 
     private final List<DocumentProcessor> processors;
 
+    @Autowired(required = false)
+    private EcmMetrics metrics = EcmMetrics.noop();
+
     public DocumentProcessingPipeline(List<DocumentProcessor> processors) {
         // Sort processors by order
         this.processors = new ArrayList<>(processors);
@@ -46,7 +54,7 @@ public class DocumentProcessingPipeline {
      * @return PipelineResult containing all processor results
      */
     public PipelineResult execute(DocumentContext context) {
-        long startTime = System.currentTimeMillis();
+        long startNanos = System.nanoTime();
         List<ProcessorExecution> executions = new ArrayList<>();
 
         log.info("Starting pipeline execution for: {}", context.getOriginalFilename());
@@ -59,7 +67,7 @@ public class DocumentProcessingPipeline {
             }
 
             String processorName = processor.getName();
-            long processorStartTime = System.currentTimeMillis();
+            long processorStartNanos = System.nanoTime();
 
             try {
                 // Check if processor supports this context
@@ -77,7 +85,8 @@ public class DocumentProcessingPipeline {
                 // Execute processor
                 log.debug("Executing processor: {} (order: {})", processorName, processor.getOrder());
                 ProcessingResult result = processor.process(context);
-                long duration = System.currentTimeMillis() - processorStartTime;
+                long duration = elapsedMs(processorStartNanos);
+                recordProcessor(processorName, result, context, processorStartNanos);
 
                 executions.add(ProcessorExecution.builder()
                     .processorName(processorName)
@@ -103,12 +112,14 @@ public class DocumentProcessingPipeline {
 
             } catch (Exception e) {
                 log.error("Unexpected error in processor {}: {}", processorName, e.getMessage(), e);
-                long duration = System.currentTimeMillis() - processorStartTime;
+                long duration = elapsedMs(processorStartNanos);
+                ProcessingResult result = ProcessingResult.fatal("Unexpected error: " + e.getMessage());
+                recordProcessor(processorName, result, context, processorStartNanos);
 
                 executions.add(ProcessorExecution.builder()
                     .processorName(processorName)
                     .order(processor.getOrder())
-                    .result(ProcessingResult.fatal("Unexpected error: " + e.getMessage()))
+                    .result(result)
                     .durationMs(duration)
                     .build());
 
@@ -117,7 +128,7 @@ public class DocumentProcessingPipeline {
             }
         }
 
-        long totalDuration = System.currentTimeMillis() - startTime;
+        long totalDuration = elapsedMs(startNanos);
 
         PipelineResult pipelineResult = PipelineResult.builder()
             .success(!context.hasErrors() && context.getDocumentId() != null)
@@ -130,10 +141,26 @@ public class DocumentProcessingPipeline {
 
         log.info("Pipeline execution completed in {}ms - success: {}, document: {}",
             totalDuration, pipelineResult.isSuccess(), context.getDocumentId());
+        metrics.recordTime("ecm_pipeline_duration", startNanos,
+            "mime_family", EcmMetrics.mimeFamily(context.getMimeType()),
+            "outcome", pipelineResult.isSuccess() ? "success" : "failure");
 
         return pipelineResult;
     }
 
+    // MIME type is read per run since a detection processor usually fills it in
+    private void recordProcessor(String processorName, ProcessingResult result, DocumentContext context,
+                                 long startNanos) {
+        metrics.recordTime("ecm_pipeline_processor_duration", startNanos,
+            "processor", processorName,
+            "status", result != null && result.getStatus() != null ? result.getStatus().name() : "UNKNOWN",
+            "mime_family", EcmMetrics.mimeFamily(context.getMimeType()));
+    }
+
+    private static long elapsedMs(long startNanos) {
+        return (System.nanoTime() - startNanos) / 1_000_000L;
+    }
+
     /**
      * Get the list of registered processors.
      */
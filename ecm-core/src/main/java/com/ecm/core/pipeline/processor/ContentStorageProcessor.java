@@ -38,12 +38,15 @@ public class ContentStorageProcessor implements DocumentProcessor {
             }
 
             // Store content and get content ID
-            String contentId = contentService.storeContent(
+            ContentService.StoredContent stored = contentService.storeContentWithHash(
                 context.getInputStream(),
                 context.getOriginalFilename()
             );
+            String contentId = stored.contentId();
 
             context.setContentId(contentId);
+            context.setContentHash(stored.contentHash());
+            context.setContentDeduplicated(stored.deduplicated());
 
             // Get file size
             long fileSize = contentService.getContentSize(contentId);
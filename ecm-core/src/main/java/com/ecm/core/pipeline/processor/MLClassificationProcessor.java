@@ -1,5 +1,6 @@
 package com.ecm.core.pipeline.processor;
 
+import com.ecm.core.entity.AutomationRule.TriggerType;
 import com.ecm.core.entity.Document;
 import com.ecm.core.ml.MLServiceClient;
 import com.ecm.core.ml.MLServiceClient.ClassificationResult;
@@ -8,14 +9,29 @@ import com.ecm.core.pipeline.DocumentContext;
 import com.ecm.core.pipeline.DocumentProcessor;
 import com.ecm.core.pipeline.ProcessingResult;
 import com.ecm.core.repository.CategoryRepository;
+import com.ecm.core.repository.DocumentRepository;
+import com.ecm.core.search.SearchIndexService;
 import com.ecm.core.service.CategoryService;
+import com.ecm.core.service.RuleEngineService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.Executor;
 
 /**
  * ML Classification Processor
@@ -24,6 +40,13 @@ import java.util.Optional;
  * If confidence is high enough, it can automatically apply the category.
  *
  * Execution Order: 460 (After persistence, before indexing/events)
+ *
+ * In async mode ({@code ecm.ml.auto-classify.async}, off by default) the request is queued on the
+ * batching ML client once the upload transaction commits and the category is applied later in its
+ * own transaction, so the pipeline thread does not wait for inference. By then RuleTriggerProcessor
+ * (470) and SearchIndexProcessor (500) have already run without the category, so a deferred apply
+ * reindexes the document and fires DOCUMENT_CATEGORIZED rules as the uploader. DOCUMENT_CREATED
+ * rules that test the category only see it in synchronous mode.
  */
 @Slf4j
 @Component
@@ -33,6 +56,26 @@ public class MLClassificationProcessor implements DocumentProcessor {
     private final MLServiceClient mlServiceClient;
     private final CategoryRepository categoryRepository;
     private final CategoryService categoryService;
+    private final DocumentRepository documentRepository;
+    private final PlatformTransactionManager transactionManager;
+
+    @Autowired
+    @Qualifier("applicationTaskExecutor")
+    private Executor callbackExecutor;
+
+    @Lazy
+    @Autowired(required = false)
+    private RuleEngineService ruleEngineService;
+
+    @Lazy
+    @Autowired(required = false)
+    private SearchIndexService searchIndexService;
+
+    @Value("${ecm.ml.auto-classify.async:false}")
+    private boolean asyncClassify = false;
+
+    @Value("${ecm.rules.enabled:true}")
+    private boolean rulesEnabled = true;
 
     @Value("${ecm.ml.auto-classify.enabled:true}")
     private boolean autoClassifyEnabled;
@@ -65,6 +108,12 @@ public class MLClassificationProcessor implements DocumentProcessor {
             return ProcessingResult.skipped("ML service unavailable");
         }
 
+        if (asyncClassify) {
+            submitAfterCommit(document.getId(), text, SecurityContextHolder.getContext().getAuthentication());
+            return ProcessingResult.success()
+                .withData("classificationPending", true);
+        }
+
         try {
             log.debug("Requesting classification for document {}", document.getId());
             ClassificationResult result = mlServiceClient.classify(text);
@@ -106,14 +155,107 @@ public class MLClassificationProcessor implements DocumentProcessor {
         }
     }
 
-    private void applyCategory(Document document, String categoryName) {
-        if (categoryName == null || categoryName.isBlank()) return;
+    private void submitAfterCommit(UUID documentId, String text, Authentication uploader) {
+        Runnable submit = () -> {
+            log.debug("Queueing classification for document {}", documentId);
+            mlServiceClient.classifyAsync(text)
+                .thenAcceptAsync(result -> runAs(uploader, () -> applyDeferred(documentId, result)),
+                    callbackExecutor != null ? callbackExecutor : Runnable::run)
+                .exceptionally(e -> {
+                    log.warn("Deferred ML classification failed for document {}: {}", documentId, e.getMessage());
+                    return null;
+                });
+        };
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            submit.run();
+            return;
+        }
+        // The callback reloads the document, so it must not run before the upload is visible.
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                submit.run();
+            }
+        });
+    }
+
+    private void applyDeferred(UUID documentId, ClassificationResult result) {
+        if (!result.isSuccess()) {
+            log.debug("Classification for document {} unsuccessful: {}", documentId, result.getErrorMessage());
+            return;
+        }
+        if (result.getConfidence() == null || result.getConfidence() < autoApplyThreshold) {
+            log.debug("Suggested category '{}' for document {} (confidence: {})",
+                result.getSuggestedCategory(), documentId, result.getConfidence());
+            return;
+        }
+        Boolean applied = new TransactionTemplate(transactionManager).execute(status ->
+            documentRepository.findById(documentId)
+                .filter(document -> applyCategory(document, result.getSuggestedCategory()))
+                .map(document -> {
+                    documentRepository.save(document);
+                    triggerCategorizedRules(document);
+                    return true;
+                })
+                .orElse(false));
+        if (!Boolean.TRUE.equals(applied)) {
+            return;
+        }
+        log.info("Auto-applied category '{}' to document {} (confidence: {})",
+            result.getSuggestedCategory(), documentId, result.getConfidence());
+        reindex(documentId);
+    }
+
+    private void triggerCategorizedRules(Document document) {
+        if (!rulesEnabled || ruleEngineService == null) {
+            return;
+        }
+        try {
+            ruleEngineService.evaluateAndExecute(document, TriggerType.DOCUMENT_CATEGORIZED);
+        } catch (Exception e) {
+            // Log but keep the category
+            log.error("Failed to trigger {} rules for document {}: {}",
+                TriggerType.DOCUMENT_CATEGORIZED, document.getId(), e.getMessage(), e);
+        }
+    }
+
+    private void reindex(UUID documentId) {
+        if (searchIndexService == null) {
+            return;
+        }
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        readOnly.executeWithoutResult(status ->
+            documentRepository.findById(documentId).ifPresent(searchIndexService::updateDocument));
+    }
+
+    private static void runAs(Authentication authentication, Runnable action) {
+        if (authentication == null) {
+            action.run();
+            return;
+        }
+        SecurityContext previous = SecurityContextHolder.getContext();
+        SecurityContext context = SecurityContextHolder.createEmptyContext();
+        context.setAuthentication(authentication);
+        SecurityContextHolder.setContext(context);
+        try {
+            action.run();
+        } finally {
+            SecurityContextHolder.setContext(previous);
+        }
+    }
+
+    /**
+     * Adds the category unless the document already has it; returns whether it was added.
+     */
+    private boolean applyCategory(Document document, String categoryName) {
+        if (categoryName == null || categoryName.isBlank()) return false;
 
         // Check if document already has this category
         boolean alreadyHas = document.getCategories().stream()
             .anyMatch(c -> c.getName().equalsIgnoreCase(categoryName));
         
-        if (alreadyHas) return;
+        if (alreadyHas) return false;
 
         // Find or create category
         Optional<Category> existing = categoryRepository.findByName(categoryName);
@@ -128,6 +270,7 @@ public class MLClassificationProcessor implements DocumentProcessor {
         document.getCategories().add(category);
         // Note: Repository save happens implicitly if managed, or explicitly in service
         // Since we are in a Transactional method, changes to managed entity 'document' should be flushed
+        return true;
     }
 
     @Override
@@ -11,6 +11,7 @@ import com.ecm.core.pipeline.ProcessingResult;
 import com.ecm.core.repository.DocumentRepository;
 import com.ecm.core.repository.FolderRepository;
 import com.ecm.core.service.ContentReferenceService;
+import com.ecm.core.service.ExtractedTextStore;
 import com.ecm.core.service.NodePropertyEncryptionService;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -32,6 +33,7 @@ public class MetadataPersistenceProcessor implements DocumentProcessor {
     private final ApplicationEventPublisher eventPublisher;
     private final ContentReferenceService contentReferenceService;
     private final NodePropertyEncryptionService nodePropertyEncryptionService;
+    private final ExtractedTextStore extractedTextStore;
 
     @Autowired
     public MetadataPersistenceProcessor(
@@ -39,13 +41,15 @@ public class MetadataPersistenceProcessor implements DocumentProcessor {
         FolderRepository folderRepository,
         ApplicationEventPublisher eventPublisher,
         ContentReferenceService contentReferenceService,
-        NodePropertyEncryptionService nodePropertyEncryptionService
+        NodePropertyEncryptionService nodePropertyEncryptionService,
+        ExtractedTextStore extractedTextStore
     ) {
         this.documentRepository = documentRepository;
         this.folderRepository = folderRepository;
         this.eventPublisher = eventPublisher;
         this.contentReferenceService = contentReferenceService;
         this.nodePropertyEncryptionService = nodePropertyEncryptionService;
+        this.extractedTextStore = extractedTextStore;
     }
 
     // Test-only delegate
@@ -55,7 +59,7 @@ public class MetadataPersistenceProcessor implements DocumentProcessor {
         ApplicationEventPublisher eventPublisher,
         ContentReferenceService contentReferenceService
     ) {
-        this(documentRepository, folderRepository, eventPublisher, contentReferenceService, null);
+        this(documentRepository, folderRepository, eventPublisher, contentReferenceService, null, null);
     }
 
     @Override
@@ -98,7 +102,6 @@ public class MetadataPersistenceProcessor implements DocumentProcessor {
             // Set extracted text for full-text search
             if (context.getExtractedText() != null) {
                 document.setTextContent(context.getExtractedText());
-                document.getMetadata().put("extractedText", context.getExtractedText());
             }
 
             // Set custom properties
@@ -112,6 +115,9 @@ public class MetadataPersistenceProcessor implements DocumentProcessor {
             if (nodePropertyEncryptionService != null) {
                 nodePropertyEncryptionService.prepareForPersistence(document);
             }
+            if (extractedTextStore != null) {
+                extractedTextStore.storePending(document);
+            }
 
             // Save to database (Source of Truth)
             Document savedDocument = documentRepository.save(document);
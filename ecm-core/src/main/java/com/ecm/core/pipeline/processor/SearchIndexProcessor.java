@@ -115,13 +115,8 @@ public class SearchIndexProcessor implements DocumentProcessor {
 
         if (context.getDocumentId() != null) {
             doc.setPermissions(securityService.resolveReadAuthorities(context.getDocumentId()));
-        }
-
-        // Keep extracted text in the standard fields used by search.
-        if (context.getExtractedText() != null) {
-            doc.setTextContent(context.getExtractedText());
-            doc.setContent(context.getExtractedText());
-            doc.setExtractedText(context.getExtractedText());
+            doc.setDeniedPermissions(securityService.resolveDeniedReadAuthorities(context.getDocumentId()));
+            doc.setOwnerDepartment(securityService.resolveOwnerDepartment(doc.getCreatedBy()));
         }
 
         return doc;
@@ -4,21 +4,16 @@ import com.ecm.core.pipeline.DocumentContext;
 import com.ecm.core.pipeline.DocumentProcessor;
 import com.ecm.core.pipeline.ProcessingResult;
 import com.ecm.core.service.ContentService;
+import com.ecm.core.service.TextExtractionService;
+import com.ecm.core.service.TextExtractionService.ExtractionResult;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.tika.exception.TikaException;
 import org.apache.tika.metadata.Metadata;
 import org.apache.tika.metadata.TikaCoreProperties;
-import org.apache.tika.parser.AutoDetectParser;
-import org.apache.tika.parser.ParseContext;
-import org.apache.tika.parser.Parser;
-import org.apache.tika.sax.BodyContentHandler;
-import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
-import org.xml.sax.SAXException;
 
 import java.io.IOException;
-import java.io.InputStream;
 import java.util.Set;
 
 /**
@@ -26,6 +21,7 @@ import java.util.Set;
  *
  * Extracts text content and metadata from documents using Apache Tika.
  * Supports PDF, Office documents, text files, and many other formats.
+ * Parsing runs on the shared {@link TextExtractionService} worker pool.
  */
 @Slf4j
 @Component
@@ -33,10 +29,7 @@ import java.util.Set;
 public class TikaTextExtractor implements DocumentProcessor {
 
     private final ContentService contentService;
-
-    /** Maximum characters to extract (default: 10MB of text) */
-    @Value("${ecm.tika.max-text-length:10485760}")
-    private int maxTextLength;
+    private final TextExtractionService textExtractionService;
 
     /** MIME types to skip text extraction */
     private static final Set<String> SKIP_MIME_TYPES = Set.of(
@@ -83,30 +76,23 @@ public class TikaTextExtractor implements DocumentProcessor {
             return ProcessingResult.skipped("MIME type not supported for text extraction");
         }
 
-        try (InputStream inputStream = contentService.getContent(context.getContentId())) {
-            // Configure Tika parser
-            Parser parser = new AutoDetectParser();
-            BodyContentHandler handler = new BodyContentHandler(maxTextLength);
-            Metadata metadata = new Metadata();
-            metadata.set(TikaCoreProperties.RESOURCE_NAME_KEY, context.getOriginalFilename());
-
-            ParseContext parseContext = new ParseContext();
-            parseContext.set(Parser.class, parser);
-
-            // Parse content
-            parser.parse(inputStream, handler, metadata, parseContext);
+        try {
+            ExtractionResult extraction = textExtractionService.extract(
+                context.getContentHash(),
+                context.getOriginalFilename(),
+                () -> contentService.getContent(context.getContentId()));
 
             // Extract text
-            String extractedText = handler.toString();
-            if (extractedText != null && !extractedText.trim().isEmpty()) {
+            String extractedText = extraction.text();
+            if (!extractedText.trim().isEmpty()) {
                 context.setExtractedText(extractedText.trim());
             }
 
             // Extract metadata
-            extractMetadata(metadata, context);
+            extractMetadata(extraction, context);
 
             long processingTime = System.currentTimeMillis() - startTime;
-            int textLength = extractedText != null ? extractedText.length() : 0;
+            int textLength = extractedText.length();
 
             log.info("Extracted {} chars from {} in {}ms",
                 textLength, context.getOriginalFilename(), processingTime);
@@ -123,7 +109,7 @@ public class TikaTextExtractor implements DocumentProcessor {
             context.addError(getName(), "IO error: " + e.getMessage());
             return ProcessingResult.failed("IO error: " + e.getMessage());
 
-        } catch (SAXException | TikaException e) {
+        } catch (TikaException e) {
             log.warn("Tika parsing error for {}: {}", context.getOriginalFilename(), e.getMessage());
             context.addError(getName(), "Parse error: " + e.getMessage());
             // Non-fatal - continue pipeline even if text extraction fails
@@ -131,7 +117,7 @@ public class TikaTextExtractor implements DocumentProcessor {
         }
     }
 
-    private void extractMetadata(Metadata metadata, DocumentContext context) {
+    private void extractMetadata(ExtractionResult metadata, DocumentContext context) {
         // Standard metadata fields
         extractIfPresent(metadata, TikaCoreProperties.TITLE, "title", context);
         extractIfPresent(metadata, TikaCoreProperties.CREATOR, "author", context);
@@ -160,9 +146,9 @@ public class TikaTextExtractor implements DocumentProcessor {
         }
     }
 
-    private void extractIfPresent(Metadata metadata, org.apache.tika.metadata.Property property,
+    private void extractIfPresent(ExtractionResult metadata, org.apache.tika.metadata.Property property,
                                    String contextKey, DocumentContext context) {
-        String value = metadata.get(property);
+        String value = metadata.get(property.getName());
         if (value != null && !value.trim().isEmpty()) {
             context.addMetadata(contextKey, value.trim());
         }
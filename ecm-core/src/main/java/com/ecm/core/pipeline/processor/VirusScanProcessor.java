@@ -13,7 +13,6 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
 
 import java.io.IOException;
-import java.io.InputStream;
 
 /**
  * Virus Scan Processor (Order: 150)
@@ -60,56 +59,55 @@ public class VirusScanProcessor implements DocumentProcessor {
         String filename = context.getOriginalFilename();
 
         try {
-            // Get content stream for scanning
-            try (InputStream contentStream = contentService.getContent(contentId)) {
-                VirusScanResult result = antivirusService.scan(contentStream, filename, null);
+            // Identical content already scanned with the current signatures is answered from the verdict cache
+            VirusScanResult result = antivirusService.scanStoredContent(
+                    contentId, context.getContentHash(), filename, null);
 
-                long processingTime = System.currentTimeMillis() - startTime;
+            long processingTime = System.currentTimeMillis() - startTime;
 
-                if (result.isClean()) {
-                    log.info("Virus scan CLEAN for '{}' (contentId: {}) in {}ms",
-                            filename, contentId, processingTime);
+            if (result.isClean()) {
+                log.info("Virus scan CLEAN for '{}' (contentId: {}) in {}ms",
+                        filename, contentId, processingTime);
 
-                    return ProcessingResult.builder()
-                            .status(ProcessingResult.Status.SUCCESS)
-                            .processingTimeMs(processingTime)
-                            .message("Virus scan passed - no threats detected")
-                            .build();
-
-                } else if (result.wasSkipped()) {
-                    return ProcessingResult.builder()
-                            .status(ProcessingResult.Status.SKIPPED)
-                            .message(result.message())
-                            .build();
+                return ProcessingResult.builder()
+                        .status(ProcessingResult.Status.SUCCESS)
+                        .processingTimeMs(processingTime)
+                        .message("Virus scan passed - no threats detected")
+                        .build();
 
-                } else if (result.isInfected()) {
-                    // This shouldn't happen in reject mode (exception thrown), but handle quarantine mode
-                    log.warn("Virus detected in '{}' (contentId: {}): {}",
-                            filename, contentId, result.threatName());
+            } else if (result.wasSkipped()) {
+                return ProcessingResult.builder()
+                        .status(ProcessingResult.Status.SKIPPED)
+                        .message(result.message())
+                        .build();
 
-                    // Delete the infected content
-                    deleteInfectedContent(contentId, filename);
+            } else if (result.isInfected()) {
+                // This shouldn't happen in reject mode (exception thrown), but handle quarantine mode
+                log.warn("Virus detected in '{}' (contentId: {}): {}",
+                        filename, contentId, result.threatName());
 
-                    context.addError(getName(), "Virus detected: " + result.threatName());
-                    context.stopProcessing();
+                // Delete the infected content
+                deleteInfectedContent(context, filename);
 
-                    return ProcessingResult.fatal(
-                            String.format("Virus detected: %s. File rejected.", result.threatName()));
-                }
+                context.addError(getName(), "Virus detected: " + result.threatName());
+                context.stopProcessing();
 
-                // Shouldn't reach here
-                return ProcessingResult.builder()
-                        .status(ProcessingResult.Status.SUCCESS)
-                        .processingTimeMs(processingTime)
-                        .build();
+                return ProcessingResult.fatal(
+                        String.format("Virus detected: %s. File rejected.", result.threatName()));
             }
 
+            // Shouldn't reach here
+            return ProcessingResult.builder()
+                    .status(ProcessingResult.Status.SUCCESS)
+                    .processingTimeMs(processingTime)
+                    .build();
+
         } catch (VirusDetectedException e) {
             // Virus detected in reject mode - delete content and terminate
             log.error("VIRUS REJECTED: '{}' contains {} - deleting content",
                     e.getFilename(), e.getThreatName());
 
-            deleteInfectedContent(contentId, filename);
+            deleteInfectedContent(context, filename);
 
             context.addError(getName(), e.getMessage());
             context.stopProcessing();
@@ -140,9 +138,15 @@ public class VirusScanProcessor implements DocumentProcessor {
     }
 
     /**
-     * Delete infected content from storage.
+     * Delete infected content from storage. A deduplicated blob is shared with existing documents,
+     * so it is left in place for the background rescan to report.
      */
-    private void deleteInfectedContent(String contentId, String filename) {
+    private void deleteInfectedContent(DocumentContext context, String filename) {
+        String contentId = context.getContentId();
+        if (context.isContentDeduplicated()) {
+            log.warn("Not deleting shared infected content: {} (filename: {})", contentId, filename);
+            return;
+        }
         try {
             contentService.deleteContent(contentId);
             log.info("Deleted infected content: {} (filename: {})", contentId, filename);
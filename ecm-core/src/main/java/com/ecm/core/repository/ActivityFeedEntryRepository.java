@@ -0,0 +1,116 @@
+package com.ecm.core.repository;
+
+import com.ecm.core.entity.ActivityFeedEntry;
+import com.ecm.core.entity.FollowTargetType;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface ActivityFeedEntryRepository extends JpaRepository<ActivityFeedEntry, UUID> {
+
+    @Query("""
+        SELECT e FROM ActivityFeedEntry e
+        JOIN FETCH e.activity a
+        WHERE e.userId = :userId
+          AND (e.postedAt < :beforeTime OR (e.postedAt = :beforeTime AND a.id < :beforeId))
+        ORDER BY e.postedAt DESC, a.id DESC
+        """)
+    List<ActivityFeedEntry> findFeedBeforeCursor(@Param("userId") String userId,
+                                                 @Param("beforeTime") LocalDateTime beforeTime,
+                                                 @Param("beforeId") UUID beforeId,
+                                                 Pageable pageable);
+
+    @Query("""
+        SELECT e.userId FROM ActivityFeedEntry e
+        WHERE e.activity.id = :activityId
+          AND e.userId IN :userIds
+        """)
+    List<String> findUserIdsWithActivity(@Param("activityId") UUID activityId,
+                                         @Param("userIds") Collection<String> userIds);
+
+    @Query("""
+        SELECT e.activity.id FROM ActivityFeedEntry e
+        WHERE e.userId = :userId
+          AND e.activity.id IN :activityIds
+        """)
+    List<UUID> findActivityIdsForUser(@Param("userId") String userId,
+                                      @Param("activityIds") Collection<UUID> activityIds);
+
+    /**
+     * Attribute {@code userId}'s entries from one source to the followed user who posted the activity,
+     * for the posters in {@code userIds}. Run before deleting a removed source so entries another
+     * subscription still covers are kept.
+     */
+    @Modifying
+    @Query(value = """
+        UPDATE activity_feed_entries e
+        SET source_type = 'USER', source_id = a.user_id
+        FROM activities a
+        WHERE a.id = e.activity_id
+          AND e.user_id = :userId
+          AND e.source_type = :sourceType
+          AND e.source_id = :sourceId
+          AND a.user_id IN (:userIds)
+        """, nativeQuery = true)
+    int reassignSourceToFollowedUsers(@Param("userId") String userId,
+                                      @Param("sourceType") String sourceType,
+                                      @Param("sourceId") String sourceId,
+                                      @Param("userIds") Collection<String> userIds);
+
+    /**
+     * Like {@link #reassignSourceToFollowedUsers} for the activity's site.
+     */
+    @Modifying
+    @Query(value = """
+        UPDATE activity_feed_entries e
+        SET source_type = 'SITE', source_id = a.site_id
+        FROM activities a
+        WHERE a.id = e.activity_id
+          AND e.user_id = :userId
+          AND e.source_type = :sourceType
+          AND e.source_id = :sourceId
+          AND a.site_id IN (:siteIds)
+        """, nativeQuery = true)
+    int reassignSourceToFollowedSites(@Param("userId") String userId,
+                                      @Param("sourceType") String sourceType,
+                                      @Param("sourceId") String sourceId,
+                                      @Param("siteIds") Collection<String> siteIds);
+
+    /**
+     * Like {@link #reassignSourceToFollowedUsers} for the activity's node.
+     */
+    @Modifying
+    @Query(value = """
+        UPDATE activity_feed_entries e
+        SET source_type = 'NODE', source_id = CAST(a.node_id AS varchar)
+        FROM activities a
+        WHERE a.id = e.activity_id
+          AND e.user_id = :userId
+          AND e.source_type = :sourceType
+          AND e.source_id = :sourceId
+          AND a.node_id IN (:nodeIds)
+        """, nativeQuery = true)
+    int reassignSourceToFollowedNodes(@Param("userId") String userId,
+                                      @Param("sourceType") String sourceType,
+                                      @Param("sourceId") String sourceId,
+                                      @Param("nodeIds") Collection<UUID> nodeIds);
+
+    @Modifying
+    @Query("DELETE FROM ActivityFeedEntry e WHERE e.userId = :userId AND e.sourceType = :sourceType AND e.sourceId = :sourceId")
+    int deleteByUserIdAndSource(@Param("userId") String userId,
+                                @Param("sourceType") FollowTargetType sourceType,
+                                @Param("sourceId") String sourceId);
+
+    @Modifying
+    @Query("DELETE FROM ActivityFeedEntry e WHERE e.postedAt < :before")
+    int deleteOlderThan(@Param("before") LocalDateTime before);
+}
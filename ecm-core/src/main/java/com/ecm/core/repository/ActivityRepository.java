@@ -1,6 +1,7 @@
 package com.ecm.core.repository;
 
 import com.ecm.core.entity.Activity;
+import com.ecm.core.entity.Node;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
@@ -20,31 +21,132 @@ public interface ActivityRepository extends JpaRepository<Activity, UUID> {
 
     Page<Activity> findBySiteIdOrderByPostedAtDesc(String siteId, Pageable pageable);
 
-    Page<Activity> findByNodeIdOrderByPostedAtDesc(UUID nodeId, Pageable pageable);
-
-    Page<Activity> findAllByOrderByPostedAtDesc(Pageable pageable);
-
     @Query("SELECT a FROM Activity a WHERE a.userId IN :userIds ORDER BY a.postedAt DESC")
     Page<Activity> findByUserIdInOrderByPostedAtDesc(@Param("userIds") List<String> userIds, Pageable pageable);
 
+    @Query("""
+        SELECT a FROM Activity a
+        WHERE a.postedAt < :beforeTime OR (a.postedAt = :beforeTime AND a.id < :beforeId)
+        ORDER BY a.postedAt DESC, a.id DESC
+        """)
+    List<Activity> findGlobalFeedBeforeCursor(@Param("beforeTime") LocalDateTime beforeTime,
+                                              @Param("beforeId") UUID beforeId,
+                                              Pageable pageable);
+
+    @Query("""
+        SELECT a FROM Activity a
+        WHERE a.nodeId = :nodeId
+          AND (a.postedAt < :beforeTime OR (a.postedAt = :beforeTime AND a.id < :beforeId))
+        ORDER BY a.postedAt DESC, a.id DESC
+        """)
+    List<Activity> findNodeFeedBeforeCursor(@Param("nodeId") UUID nodeId,
+                                            @Param("beforeTime") LocalDateTime beforeTime,
+                                            @Param("beforeId") UUID beforeId,
+                                            Pageable pageable);
+
     @Query("""
         SELECT a
         FROM Activity a
-        WHERE (:includeUsers = true AND a.userId IN :userIds)
-           OR (:includeSites = true AND a.siteId IN :siteIds)
-           OR (:includeNodes = true AND a.nodeId IN :nodeIds)
-        ORDER BY a.postedAt DESC
+        WHERE ((:includeUsers = true AND a.userId IN :userIds)
+            OR (:includeSites = true AND a.siteId IN :siteIds)
+            OR (:includeNodes = true AND a.nodeId IN :nodeIds))
+          AND (a.postedAt < :beforeTime OR (a.postedAt = :beforeTime AND a.id < :beforeId))
+        ORDER BY a.postedAt DESC, a.id DESC
         """)
-    Page<Activity> findFollowingFeed(
+    List<Activity> findTargetFeedBeforeCursor(
         @Param("includeUsers") boolean includeUsers,
         @Param("userIds") List<String> userIds,
         @Param("includeSites") boolean includeSites,
         @Param("siteIds") List<String> siteIds,
         @Param("includeNodes") boolean includeNodes,
         @Param("nodeIds") List<UUID> nodeIds,
+        @Param("beforeTime") LocalDateTime beforeTime,
+        @Param("beforeId") UUID beforeId,
         Pageable pageable
     );
 
+    /**
+     * Counts below size the offset-paged feeds. With {@code scoped} they apply the same tenant
+     * visibility as {@code TenantWorkspaceScopeService.isActivityVisible}: a live node or a live site
+     * root folder under the tenant root, matched exactly or by {@code tenantPathPattern}.
+     */
+    @Query("""
+        SELECT COUNT(a) FROM Activity a
+        WHERE 1 = 1
+          AND (:scoped = false
+            OR EXISTS (
+                SELECT n.id FROM Node n
+                WHERE n.id = a.nodeId AND n.deleted = false AND n.archiveStatus = :live
+                  AND (n.path = :tenantRoot OR n.path LIKE :tenantPathPattern ESCAPE '!'))
+            OR EXISTS (
+                SELECT s.id FROM Site s JOIN s.rootFolder r
+                WHERE LOWER(s.siteId) = LOWER(TRIM(a.siteId)) AND s.deleted = false
+                  AND r.deleted = false AND r.archiveStatus = :live
+                  AND (r.path = :tenantRoot OR r.path LIKE :tenantPathPattern ESCAPE '!')))
+        """)
+    long countVisibleGlobalFeed(
+        @Param("scoped") boolean scoped,
+        @Param("tenantRoot") String tenantRoot,
+        @Param("tenantPathPattern") String tenantPathPattern,
+        @Param("live") Node.ArchiveStatus live
+    );
+
+    @Query("""
+        SELECT COUNT(a) FROM Activity a
+        WHERE a.nodeId = :nodeId
+          AND (:scoped = false
+            OR EXISTS (
+                SELECT n.id FROM Node n
+                WHERE n.id = a.nodeId AND n.deleted = false AND n.archiveStatus = :live
+                  AND (n.path = :tenantRoot OR n.path LIKE :tenantPathPattern ESCAPE '!'))
+            OR EXISTS (
+                SELECT s.id FROM Site s JOIN s.rootFolder r
+                WHERE LOWER(s.siteId) = LOWER(TRIM(a.siteId)) AND s.deleted = false
+                  AND r.deleted = false AND r.archiveStatus = :live
+                  AND (r.path = :tenantRoot OR r.path LIKE :tenantPathPattern ESCAPE '!')))
+        """)
+    long countVisibleNodeFeed(
+        @Param("nodeId") UUID nodeId,
+        @Param("scoped") boolean scoped,
+        @Param("tenantRoot") String tenantRoot,
+        @Param("tenantPathPattern") String tenantPathPattern,
+        @Param("live") Node.ArchiveStatus live
+    );
+
+    /**
+     * Size of a user's following feed: materialized entries plus activities of fan-in targets.
+     */
+    @Query("""
+        SELECT COUNT(a) FROM Activity a
+        WHERE (EXISTS (SELECT e.id FROM ActivityFeedEntry e WHERE e.userId = :userId AND e.activity = a)
+            OR (:includeUsers = true AND a.userId IN :userIds)
+            OR (:includeSites = true AND a.siteId IN :siteIds)
+            OR (:includeNodes = true AND a.nodeId IN :nodeIds))
+          AND (:scoped = false
+            OR EXISTS (
+                SELECT n.id FROM Node n
+                WHERE n.id = a.nodeId AND n.deleted = false AND n.archiveStatus = :live
+                  AND (n.path = :tenantRoot OR n.path LIKE :tenantPathPattern ESCAPE '!'))
+            OR EXISTS (
+                SELECT s.id FROM Site s JOIN s.rootFolder r
+                WHERE LOWER(s.siteId) = LOWER(TRIM(a.siteId)) AND s.deleted = false
+                  AND r.deleted = false AND r.archiveStatus = :live
+                  AND (r.path = :tenantRoot OR r.path LIKE :tenantPathPattern ESCAPE '!')))
+        """)
+    long countVisibleFollowingFeed(
+        @Param("userId") String userId,
+        @Param("includeUsers") boolean includeUsers,
+        @Param("userIds") List<String> userIds,
+        @Param("includeSites") boolean includeSites,
+        @Param("siteIds") List<String> siteIds,
+        @Param("includeNodes") boolean includeNodes,
+        @Param("nodeIds") List<UUID> nodeIds,
+        @Param("scoped") boolean scoped,
+        @Param("tenantRoot") String tenantRoot,
+        @Param("tenantPathPattern") String tenantPathPattern,
+        @Param("live") Node.ArchiveStatus live
+    );
+
     @Modifying
     @Query("DELETE FROM Activity a WHERE a.postedAt < :before")
     int deleteOlderThan(@Param("before") LocalDateTime before);
@@ -0,0 +1,101 @@
+package com.ecm.core.repository;
+
+import com.ecm.core.entity.AsyncTaskRecord;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+@Repository
+public interface AsyncTaskRecordRepository extends JpaRepository<AsyncTaskRecord, UUID> {
+
+    Optional<AsyncTaskRecord> findByDomainAndTaskId(String domain, String taskId);
+
+    List<AsyncTaskRecord> findByDomainOrderByTransitionedAtAscCreatedAtAsc(String domain);
+
+    @Query("SELECT r.status, COUNT(r) FROM AsyncTaskRecord r WHERE r.domain = :domain GROUP BY r.status")
+    List<Object[]> countByDomainGroupByStatus(@Param("domain") String domain);
+
+    /**
+     * Current time on the database clock. Lease expiry is always computed from it, so skew between
+     * nodes cannot make one node see another's live lease as expired.
+     */
+    @Query(value = "SELECT LOCALTIMESTAMP", nativeQuery = true)
+    Timestamp currentTimestamp();
+
+    /**
+     * Active tasks whose lease ran out on the database clock, oldest expiry first.
+     */
+    @Query(value = """
+        SELECT * FROM async_task_records
+        WHERE active = true AND lease_expires_at < LOCALTIMESTAMP
+        ORDER BY lease_expires_at ASC
+        LIMIT :limit
+        """, nativeQuery = true)
+    List<AsyncTaskRecord> findExpiredLeases(@Param("limit") int limit);
+
+    /**
+     * Extend the lease of every active task owned by {@code node} to {@code leaseMs} past the
+     * database clock. Leaves {@code version} alone so heartbeats never fail a concurrent payload update.
+     */
+    @Modifying
+    @Query(value = """
+        UPDATE async_task_records
+        SET lease_expires_at = LOCALTIMESTAMP + :leaseMs * INTERVAL '1 millisecond',
+            heartbeat_at = LOCALTIMESTAMP
+        WHERE owner_node = :node AND active = true
+        """, nativeQuery = true)
+    int renewLeases(@Param("node") String node, @Param("leaseMs") long leaseMs);
+
+    /**
+     * Take over an active task whose lease has run out on the database clock. Only one node can win
+     * because the lease check is part of the update; bumping {@code version} makes any late write
+     * from the previous owner fail its optimistic check, and the new {@code token} fences its later
+     * writes.
+     */
+    @Modifying
+    @Query(value = """
+        UPDATE async_task_records
+        SET owner_node = :node,
+            lease_token = :token,
+            lease_expires_at = LOCALTIMESTAMP + :leaseMs * INTERVAL '1 millisecond',
+            heartbeat_at = LOCALTIMESTAMP,
+            recovery_attempts = recovery_attempts + 1,
+            version = version + 1
+        WHERE id = :id AND active = true AND lease_expires_at < LOCALTIMESTAMP
+        """, nativeQuery = true)
+    int claimExpiredLease(@Param("id") UUID id,
+                          @Param("node") String node,
+                          @Param("token") String token,
+                          @Param("leaseMs") long leaseMs);
+
+    /**
+     * Fencing check for a write by the lease holder: touches the row only while {@code node} still
+     * owns the active task under {@code token}. Returns 0 once another node claimed the task or the
+     * lease ended, and otherwise holds the row lock until the caller's transaction ends, so no claim
+     * can slip in between the check and the write.
+     */
+    @Modifying
+    @Query("""
+        UPDATE AsyncTaskRecord r
+        SET r.heartbeatAt = :now
+        WHERE r.id = :id AND r.ownerNode = :node AND r.leaseToken = :token AND r.active = true
+        """)
+    int touchLease(@Param("id") UUID id,
+                   @Param("node") String node,
+                   @Param("token") String token,
+                   @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("UPDATE AsyncTaskRecord r SET r.progress = :progress WHERE r.domain = :domain AND r.taskId = :taskId")
+    int updateProgress(@Param("domain") String domain,
+                       @Param("taskId") String taskId,
+                       @Param("progress") String progress);
+}
@@ -1,16 +1,19 @@
 package com.ecm.core.repository;
 
 import com.ecm.core.entity.AuditLog;
+import jakarta.persistence.QueryHint;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 @Repository
 public interface AuditLogRepository extends JpaRepository<AuditLog, UUID> {
@@ -525,6 +528,96 @@ public interface AuditLogRepository extends JpaRepository<AuditLog, UUID> {
                                                              @Param("from") LocalDateTime from,
                                                              @Param("to") LocalDateTime to);
 
+    /**
+     * Cursor-backed export stream. Rows are fetched from the server in chunks of the JDBC fetch size
+     * instead of being materialized, so callers must consume the stream inside a transaction, close it,
+     * and detach each row once written.
+     */
+    @QueryHints({
+        @QueryHint(name = "org.hibernate.fetchSize", value = "1000"),
+        @QueryHint(name = "org.hibernate.readOnly", value = "true"),
+        @QueryHint(name = "org.hibernate.cacheable", value = "false")
+    })
+    @Query("""
+        SELECT a FROM AuditLog a
+        WHERE (:username IS NULL OR :username = '' OR a.username = :username)
+          AND (:eventType IS NULL OR :eventType = '' OR a.eventType = :eventType)
+          AND (:nodeId IS NULL OR a.nodeId = :nodeId)
+          AND a.eventTime >= COALESCE(:from, a.eventTime)
+          AND a.eventTime <= COALESCE(:to, a.eventTime)
+          AND (
+            :category IS NULL OR :category = ''
+            OR (:category = 'NODE' AND UPPER(a.eventType) LIKE 'NODE_%')
+            OR (:category = 'VERSION' AND UPPER(a.eventType) LIKE 'VERSION_%')
+            OR (:category = 'RULE' AND (UPPER(a.eventType) LIKE 'RULE_%' OR UPPER(a.eventType) LIKE 'SCHEDULED_RULE%'))
+            OR (:category = 'WORKFLOW' AND (UPPER(a.eventType) LIKE 'WORKFLOW_%' OR UPPER(a.eventType) LIKE 'STATUS_%'))
+            OR (:category = 'MAIL' AND UPPER(a.eventType) LIKE 'MAIL_%')
+            OR (:category = 'INTEGRATION' AND UPPER(a.eventType) LIKE 'WOPI_%')
+            OR (:category = 'SECURITY' AND UPPER(a.eventType) LIKE 'SECURITY_%')
+            OR (:category = 'PDF' AND UPPER(a.eventType) LIKE 'PDF_%')
+            OR (:category = 'OTHER' AND UPPER(a.eventType) NOT LIKE 'NODE_%'
+                AND UPPER(a.eventType) NOT LIKE 'VERSION_%'
+                AND UPPER(a.eventType) NOT LIKE 'RULE_%'
+                AND UPPER(a.eventType) NOT LIKE 'SCHEDULED_RULE%'
+                AND UPPER(a.eventType) NOT LIKE 'WORKFLOW_%'
+                AND UPPER(a.eventType) NOT LIKE 'STATUS_%'
+                AND UPPER(a.eventType) NOT LIKE 'MAIL_%'
+                AND UPPER(a.eventType) NOT LIKE 'WOPI_%'
+                AND UPPER(a.eventType) NOT LIKE 'SECURITY_%'
+                AND UPPER(a.eventType) NOT LIKE 'PDF_%')
+          )
+        ORDER BY a.eventTime DESC
+        """)
+    Stream<AuditLog> streamByFiltersForExport(@Param("username") String username,
+                                              @Param("eventType") String eventType,
+                                              @Param("category") String category,
+                                              @Param("nodeId") UUID nodeId,
+                                              @Param("from") LocalDateTime from,
+                                              @Param("to") LocalDateTime to);
+
+    /**
+     * Export stream variant that omits nodeId filtering entirely. See note on {@link #findByFiltersAndCategoryNoNodeId}.
+     */
+    @QueryHints({
+        @QueryHint(name = "org.hibernate.fetchSize", value = "1000"),
+        @QueryHint(name = "org.hibernate.readOnly", value = "true"),
+        @QueryHint(name = "org.hibernate.cacheable", value = "false")
+    })
+    @Query("""
+        SELECT a FROM AuditLog a
+        WHERE (:username IS NULL OR :username = '' OR a.username = :username)
+          AND (:eventType IS NULL OR :eventType = '' OR a.eventType = :eventType)
+          AND a.eventTime >= COALESCE(:from, a.eventTime)
+          AND a.eventTime <= COALESCE(:to, a.eventTime)
+          AND (
+            :category IS NULL OR :category = ''
+            OR (:category = 'NODE' AND UPPER(a.eventType) LIKE 'NODE_%')
+            OR (:category = 'VERSION' AND UPPER(a.eventType) LIKE 'VERSION_%')
+            OR (:category = 'RULE' AND (UPPER(a.eventType) LIKE 'RULE_%' OR UPPER(a.eventType) LIKE 'SCHEDULED_RULE%'))
+            OR (:category = 'WORKFLOW' AND (UPPER(a.eventType) LIKE 'WORKFLOW_%' OR UPPER(a.eventType) LIKE 'STATUS_%'))
+            OR (:category = 'MAIL' AND UPPER(a.eventType) LIKE 'MAIL_%')
+            OR (:category = 'INTEGRATION' AND UPPER(a.eventType) LIKE 'WOPI_%')
+            OR (:category = 'SECURITY' AND UPPER(a.eventType) LIKE 'SECURITY_%')
+            OR (:category = 'PDF' AND UPPER(a.eventType) LIKE 'PDF_%')
+            OR (:category = 'OTHER' AND UPPER(a.eventType) NOT LIKE 'NODE_%'
+                AND UPPER(a.eventType) NOT LIKE 'VERSION_%'
+                AND UPPER(a.eventType) NOT LIKE 'RULE_%'
+                AND UPPER(a.eventType) NOT LIKE 'SCHEDULED_RULE%'
+                AND UPPER(a.eventType) NOT LIKE 'WORKFLOW_%'
+                AND UPPER(a.eventType) NOT LIKE 'STATUS_%'
+                AND UPPER(a.eventType) NOT LIKE 'MAIL_%'
+                AND UPPER(a.eventType) NOT LIKE 'WOPI_%'
+                AND UPPER(a.eventType) NOT LIKE 'SECURITY_%'
+                AND UPPER(a.eventType) NOT LIKE 'PDF_%')
+          )
+        ORDER BY a.eventTime DESC
+        """)
+    Stream<AuditLog> streamByFiltersForExportNoNodeId(@Param("username") String username,
+                                                      @Param("eventType") String eventType,
+                                                      @Param("category") String category,
+                                                      @Param("from") LocalDateTime from,
+                                                      @Param("to") LocalDateTime to);
+
     Page<AuditLog> findByEventTypeInOrderByEventTimeAsc(List<String> eventTypes, Pageable pageable);
 
     Page<AuditLog> findByEventTypeInAndEventTimeAfterOrderByEventTimeAsc(List<String> eventTypes, LocalDateTime after, Pageable pageable);
@@ -0,0 +1,9 @@
+package com.ecm.core.repository;
+
+import com.ecm.core.entity.ConsistencyScanCheckpoint;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface ConsistencyScanCheckpointRepository extends JpaRepository<ConsistencyScanCheckpoint, String> {
+}
@@ -0,0 +1,27 @@
+package com.ecm.core.repository;
+
+import com.ecm.core.entity.ContentScanVerdict;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface ContentScanVerdictRepository extends JpaRepository<ContentScanVerdict, String> {
+
+    /**
+     * Verdicts of a given status recorded under any other signature version, oldest first, that can
+     * still be re-read from the content store.
+     */
+    @Query("""
+        SELECT v FROM ContentScanVerdict v
+        WHERE v.status = :status AND v.signatureVersion <> :signatureVersion AND v.contentId IS NOT NULL
+        ORDER BY v.scannedAt ASC
+        """)
+    List<ContentScanVerdict> findStale(@Param("status") String status,
+                                       @Param("signatureVersion") String signatureVersion,
+                                       Pageable pageable);
+}
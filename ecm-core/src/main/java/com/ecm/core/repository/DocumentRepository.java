@@ -4,6 +4,7 @@ import com.ecm.core.entity.Document;
 import com.ecm.core.entity.PreviewStatus;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
@@ -11,6 +12,7 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -31,6 +33,16 @@ public interface DocumentRepository extends JpaRepository<Document, UUID>, JpaSp
     long countByOcrStatus(@Param("status") String status);
 
     Page<Document> findByDeletedFalse(Pageable pageable);
+
+    /**
+     * {@link #findById} that also loads the extracted text, for callers that read
+     * {@link Document#getTextContent()} after the loading transaction has ended.
+     */
+    @EntityGraph(attributePaths = "extractedText")
+    Optional<Document> findWithTextById(UUID id);
+
+    @EntityGraph(attributePaths = "extractedText")
+    Page<Document> findWithTextByDeletedFalse(Pageable pageable);
     
     Page<Document> findByMimeTypeIn(List<String> mimeTypes, Pageable pageable);
     
@@ -46,9 +58,6 @@ public interface DocumentRepository extends JpaRepository<Document, UUID>, JpaSp
     @Query("SELECT d FROM Document d WHERE d.fileSize > :minSize AND d.deleted = false ORDER BY d.fileSize DESC")
     List<Document> findLargeDocuments(@Param("minSize") Long minSize);
     
-    @Query("SELECT d FROM Document d WHERE d.textContent LIKE %:searchTerm% AND d.deleted = false")
-    Page<Document> searchByContent(@Param("searchTerm") String searchTerm, Pageable pageable);
-    
     @Query("SELECT d FROM Document d WHERE d.versionLabel = :versionLabel AND d.deleted = false")
     List<Document> findByVersionLabel(@Param("versionLabel") String versionLabel);
     
@@ -83,6 +92,39 @@ public interface DocumentRepository extends JpaRepository<Document, UUID>, JpaSp
            nativeQuery = true)
     Page<Document> fullTextSearch(@Param("query") String query, Pageable pageable);
 
+    /**
+     * Keyset page of live documents with their stored content, as {@code [id, content_id, file_size,
+     * content_hash, content_hash_legacy]} rows ordered by id. Only the columns the consistency scan
+     * verifies are read.
+     */
+    @Query(value = """
+        SELECT d.id, d.content_id, d.file_size, d.content_hash, d.content_hash_legacy
+        FROM documents d
+        JOIN nodes n ON n.id = d.id
+        WHERE n.is_deleted = false
+          AND d.content_id IS NOT NULL
+          AND d.id > :afterId
+        ORDER BY d.id
+        LIMIT :limit
+        """, nativeQuery = true)
+    List<Object[]> findContentRowsAfter(@Param("afterId") UUID afterId, @Param("limit") int limit);
+
+    /**
+     * The subset of {@code contentIds} that anything still points to: a document or version (trashed
+     * ones included, since they can be restored), the content reference ledger or an async task
+     * artifact. Blobs outside this set are orphans.
+     */
+    @Query(value = """
+        SELECT d.content_id FROM documents d WHERE d.content_id IN (:contentIds)
+        UNION
+        SELECT v.content_id FROM versions v WHERE v.content_id IN (:contentIds)
+        UNION
+        SELECT cr.content_id FROM content_references cr WHERE cr.content_id IN (:contentIds)
+        UNION
+        SELECT a.artifact_content_id FROM async_task_records a WHERE a.artifact_content_id IN (:contentIds)
+        """, nativeQuery = true)
+    List<String> findReferencedContentIds(@Param("contentIds") Collection<String> contentIds);
+
     @Query(
         value = "SELECT n.*, d.* FROM documents d " +
             "JOIN nodes n ON d.id = n.id " +
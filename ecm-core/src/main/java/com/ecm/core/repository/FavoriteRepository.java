@@ -4,6 +4,8 @@ import com.ecm.core.entity.Favorite;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.Collection;
@@ -24,6 +26,14 @@ public interface FavoriteRepository extends JpaRepository<Favorite, UUID> {
 
     boolean existsByUserIdAndNodeId(String userId, UUID nodeId);
 
+    // Most recent favorites first; used to boost a user's own favorites in search suggestions.
+    @Query("SELECT f.node.id FROM Favorite f WHERE f.userId = :userId ORDER BY f.createdAt DESC")
+    List<UUID> findNodeIdsByUserId(@Param("userId") String userId, Pageable pageable);
+
+    // [nodeId, count] per node that has at least one favorite.
+    @Query("SELECT f.node.id, COUNT(f) FROM Favorite f WHERE f.node.id IN :nodeIds GROUP BY f.node.id")
+    List<Object[]> countByNodeIds(@Param("nodeIds") Collection<UUID> nodeIds);
+
     void deleteByUserIdAndNodeId(String userId, UUID nodeId);
 
     // Clear all favorites pointing at a node before it is permanently deleted (bare node_id column).
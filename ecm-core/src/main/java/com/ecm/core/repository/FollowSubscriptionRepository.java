@@ -3,6 +3,8 @@ package com.ecm.core.repository;
 import com.ecm.core.entity.FollowSubscription;
 import com.ecm.core.entity.FollowTargetType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -23,4 +25,23 @@ public interface FollowSubscriptionRepository extends JpaRepository<FollowSubscr
     void deleteByUserIdAndTargetTypeAndTargetId(String userId, FollowTargetType targetType, String targetId);
 
     List<FollowSubscription> findByTargetTypeAndTargetId(FollowTargetType targetType, String targetId);
+
+    long countByTargetTypeAndTargetId(FollowTargetType targetType, String targetId);
+
+    @Query("SELECT f.userId FROM FollowSubscription f WHERE f.targetType = :targetType AND f.targetId = :targetId")
+    List<String> findUserIdsByTarget(@Param("targetType") FollowTargetType targetType,
+                                     @Param("targetId") String targetId);
+
+    /**
+     * Subscriptions of {@code userId} whose target has more followers than
+     * {@code fanOutCap}; those targets are read with fan-in instead of fan-out.
+     */
+    @Query("""
+        SELECT f FROM FollowSubscription f
+        WHERE f.userId = :userId
+          AND (SELECT COUNT(g) FROM FollowSubscription g
+               WHERE g.targetType = f.targetType AND g.targetId = f.targetId) > :fanOutCap
+        """)
+    List<FollowSubscription> findFanInSubscriptions(@Param("userId") String userId,
+                                                    @Param("fanOutCap") long fanOutCap);
 }
@@ -4,6 +4,7 @@ import com.ecm.core.entity.Group;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.Optional;
 import java.util.UUID;
 import java.util.List;
@@ -15,4 +16,9 @@ public interface GroupRepository extends JpaRepository<Group, UUID> {
     Optional<Group> findByDirectorySourceAndDirectoryExternalId(String directorySource, String directoryExternalId);
 
     List<Group> findAllByDirectoryManagedTrueAndDirectorySource(String directorySource);
+
+    List<Group> findAllByDirectoryManagedTrueAndDirectorySourceAndDirectoryExternalIdIn(
+        String directorySource, Collection<String> directoryExternalIds);
+
+    List<Group> findAllByNameIn(Collection<String> names);
 }
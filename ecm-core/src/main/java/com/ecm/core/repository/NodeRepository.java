@@ -1,6 +1,5 @@
 package com.ecm.core.repository;
 
-import com.ecm.core.entity.Document;
 import com.ecm.core.entity.Folder;
 import com.ecm.core.entity.Node;
 import com.ecm.core.entity.Node.ArchiveStatus;
@@ -53,7 +52,72 @@ public interface NodeRepository extends JpaRepository<Node, UUID>, JpaSpecificat
     
     @Query("SELECT n FROM Node n WHERE n.path LIKE CONCAT(:pathPrefix, '%') AND n.deleted = false")
     List<Node> findByPathPrefix(@Param("pathPrefix") String pathPrefix);
-    
+
+    @Query("SELECT n.path FROM Node n WHERE n.id = :id")
+    Optional<String> findPathById(@Param("id") UUID id);
+
+    /**
+     * Keyset page of live node ids below {@code pathPrefix} (which must end with {@code /}), ordered by id.
+     * The LIKE lets PostgreSQL use {@code idx_node_path_pattern}; the {@code left()} check keeps
+     * {@code _} and {@code %} in node names from matching other subtrees.
+     */
+    @Query(value = """
+        SELECT n.id
+        FROM nodes n
+        WHERE n.path LIKE CONCAT(:pathPrefix, '%') ESCAPE ''
+          AND left(n.path, length(:pathPrefix)) = :pathPrefix
+          AND n.is_deleted = false
+          AND n.id > :afterId
+        ORDER BY n.id
+        LIMIT :limit
+        """, nativeQuery = true)
+    List<UUID> findDescendantIdsByPathPrefixAfter(@Param("pathPrefix") String pathPrefix,
+                                                  @Param("afterId") UUID afterId,
+                                                  @Param("limit") int limit);
+
+    /**
+     * Keyset page of live node ids created by {@code createdBy}, ordered by id.
+     */
+    @Query(value = """
+        SELECT n.id
+        FROM nodes n
+        WHERE n.created_by = :createdBy
+          AND n.is_deleted = false
+          AND n.id > :afterId
+        ORDER BY n.id
+        LIMIT :limit
+        """, nativeQuery = true)
+    List<UUID> findIdsByCreatedByAfter(@Param("createdBy") String createdBy,
+                                       @Param("afterId") UUID afterId,
+                                       @Param("limit") int limit);
+
+    /**
+     * Rewrite the path of up to {@code limit} live nodes below {@code oldPrefix} in one statement,
+     * replacing the prefix with {@code newPrefix}. Rewritten rows no longer match {@code oldPrefix},
+     * so callers repeat until fewer than {@code limit} rows were updated. Clears the persistence
+     * context afterwards, so descendants loaded earlier in the transaction are re-read with their new
+     * path instead of flushing the old one back; callers must re-fetch the entities they keep using.
+     * Bumps the {@code @Version} column of every rewritten row, so a copy loaded by another transaction
+     * before the move fails its optimistic lock instead of saving the old path back.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = """
+        UPDATE nodes
+        SET path = CONCAT(:newPrefix, substr(path, length(:oldPrefix) + 1)),
+            version = COALESCE(version, 0) + 1
+        WHERE id IN (
+            SELECT n.id
+            FROM nodes n
+            WHERE n.path LIKE CONCAT(:oldPrefix, '%') ESCAPE ''
+              AND left(n.path, length(:oldPrefix)) = :oldPrefix
+              AND n.is_deleted = false
+            LIMIT :limit
+        )
+        """, nativeQuery = true)
+    int rewriteDescendantPaths(@Param("oldPrefix") String oldPrefix,
+                               @Param("newPrefix") String newPrefix,
+                               @Param("limit") int limit);
+
     @Query("SELECT COUNT(n) FROM Node n WHERE n.parent.id = :parentId AND n.deleted = false")
     long countByParentId(@Param("parentId") UUID parentId);
     
@@ -151,9 +215,6 @@ public interface NodeRepository extends JpaRepository<Node, UUID>, JpaSpecificat
     @Query("SELECT d.mimeType, COUNT(d), SUM(d.fileSize) FROM Document d WHERE d.deleted = false GROUP BY d.mimeType")
     List<Object[]> countByMimeType();
 
-    @Query("SELECT d FROM Document d WHERE d.deleted = false")
-    List<Document> findAllDocuments();
-
     // Index Rebuild
     @Query("SELECT d FROM Document d WHERE d.deleted = false")
     Stream<Node> streamAllDocuments();
@@ -0,0 +1,30 @@
+package com.ecm.core.repository;
+
+import com.ecm.core.entity.TenantUsageDelta;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+import java.util.UUID;
+
+public interface TenantUsageDeltaRepository extends JpaRepository<TenantUsageDelta, Long> {
+
+    @Query("SELECT COALESCE(SUM(d.deltaBytes), 0) FROM TenantUsageDelta d WHERE d.tenantId = :tenantId")
+    long sumDeltaBytesByTenantId(@Param("tenantId") UUID tenantId);
+
+    @Query("SELECT DISTINCT d.tenantId FROM TenantUsageDelta d")
+    List<UUID> findTenantIdsWithDeltas();
+
+    /**
+     * Delete the deltas visible to the current snapshot and return their sum. Used by
+     * reconciliation, which replaces them with a from-scratch recount taken in the same snapshot.
+     */
+    @Query(value = """
+        WITH moved AS (
+            DELETE FROM tenant_usage_deltas WHERE tenant_id = :tenantId RETURNING delta_bytes
+        )
+        SELECT CAST(COALESCE(SUM(delta_bytes), 0) AS BIGINT) FROM moved
+        """, nativeQuery = true)
+    long drainDeltaBytes(@Param("tenantId") UUID tenantId);
+}
@@ -0,0 +1,62 @@
+package com.ecm.core.repository;
+
+import com.ecm.core.entity.TenantUsage;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.UUID;
+
+public interface TenantUsageRepository extends JpaRepository<TenantUsage, UUID> {
+
+    /**
+     * Current usage: compacted bytes plus the pending delta tail, read in one statement so a
+     * concurrent compaction can never be observed half-applied. Empty when the tenant has no
+     * usage row yet.
+     */
+    @Query(value = """
+        SELECT CAST(u.used_bytes + COALESCE(
+                   (SELECT SUM(d.delta_bytes) FROM tenant_usage_deltas d WHERE d.tenant_id = u.tenant_id), 0)
+               AS BIGINT)
+        FROM tenant_usage u
+        WHERE u.tenant_id = :tenantId
+        """, nativeQuery = true)
+    Optional<Long> findCurrentUsedBytes(@Param("tenantId") UUID tenantId);
+
+    /**
+     * Create the tenant's usage row unless one already exists. Returns 0 instead of failing on the
+     * primary key when a concurrent reconciliation or quota check initialized it first.
+     */
+    @Modifying
+    @Query(value = """
+        INSERT INTO tenant_usage (tenant_id, used_bytes, reconciled_at, last_drift_bytes)
+        VALUES (:tenantId, :usedBytes, :reconciledAt, 0)
+        ON CONFLICT (tenant_id) DO NOTHING
+        """, nativeQuery = true)
+    int insertIfAbsent(@Param("tenantId") UUID tenantId,
+                       @Param("usedBytes") long usedBytes,
+                       @Param("reconciledAt") LocalDateTime reconciledAt);
+
+    /**
+     * Fold every visible delta of the tenant into {@code used_bytes} in one statement. Deltas are
+     * only consumed when the tenant already has a usage row, otherwise they would be deleted
+     * without being counted; uninitialized tenants are handled by reconciliation instead.
+     */
+    @Modifying
+    @Query(value = """
+        WITH moved AS (
+            DELETE FROM tenant_usage_deltas
+            WHERE tenant_id = :tenantId
+              AND EXISTS (SELECT 1 FROM tenant_usage u WHERE u.tenant_id = :tenantId)
+            RETURNING delta_bytes
+        )
+        UPDATE tenant_usage
+        SET used_bytes = used_bytes + (SELECT COALESCE(SUM(delta_bytes), 0) FROM moved),
+            compacted_at = now()
+        WHERE tenant_id = :tenantId
+        """, nativeQuery = true)
+    int compactDeltas(@Param("tenantId") UUID tenantId);
+}
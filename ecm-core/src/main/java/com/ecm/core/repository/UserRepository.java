@@ -6,6 +6,7 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.Optional;
 import java.util.UUID;
 import java.util.List;
@@ -21,6 +22,16 @@ public interface UserRepository extends JpaRepository<User, UUID> {
     Optional<User> findByDirectorySourceAndDirectoryExternalId(String directorySource, String directoryExternalId);
 
     List<User> findAllByDirectoryManagedTrueAndDirectorySource(String directorySource);
+
+    List<User> findAllByDirectoryManagedTrueAndDirectorySourceAndDirectoryExternalIdIn(
+        String directorySource, Collection<String> directoryExternalIds);
+
+    List<User> findAllByDirectoryManagedTrueAndDirectorySourceAndDirectoryDnIn(
+        String directorySource, Collection<String> directoryDns);
+
+    List<User> findAllByUsernameIn(Collection<String> usernames);
+
+    List<User> findAllByEmailIn(Collection<String> emails);
     
     Page<User> findByUsernameContainingIgnoreCaseOrEmailContainingIgnoreCase(String username, String email, Pageable pageable);
 }
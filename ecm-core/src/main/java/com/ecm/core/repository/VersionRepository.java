@@ -40,6 +40,22 @@ public interface VersionRepository extends JpaRepository<Version, UUID> {
     List<Version> findByContentHash(@Param("contentHash") String contentHash);
 
     long countByContentIdAndDeletedFalse(String contentId);
+
+    /**
+     * Keyset page of live versions with their stored content, as {@code [id, content_id, file_size,
+     * content_hash, content_hash_legacy]} rows ordered by id. Only the columns the consistency scan
+     * verifies are read.
+     */
+    @Query(value = """
+        SELECT v.id, v.content_id, v.file_size, v.content_hash, v.content_hash_legacy
+        FROM versions v
+        WHERE v.is_deleted = false
+          AND v.content_id IS NOT NULL
+          AND v.id > :afterId
+        ORDER BY v.id
+        LIMIT :limit
+        """, nativeQuery = true)
+    List<Object[]> findContentRowsAfter(@Param("afterId") UUID afterId, @Param("limit") int limit);
     
     @Query("SELECT SUM(v.fileSize) FROM Version v")
     Long calculateTotalVersionStorage();
@@ -0,0 +1,98 @@
+package com.ecm.core.repository;
+
+import com.ecm.core.entity.WebhookDelivery;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface WebhookDeliveryRepository extends JpaRepository<WebhookDelivery, UUID> {
+
+    /**
+     * Row-locks due deliveries for one subscription. {@code SKIP LOCKED} lets several nodes
+     * poll the same queue without handing the same row to two workers.
+     */
+    @Query(value = """
+        SELECT * FROM webhook_deliveries
+        WHERE subscription_id = :subscriptionId
+          AND status = 'PENDING'
+          AND next_attempt_at <= :now
+        ORDER BY next_attempt_at ASC, created_at ASC
+        LIMIT :limit
+        FOR UPDATE SKIP LOCKED
+        """, nativeQuery = true)
+    List<WebhookDelivery> lockDueDeliveries(@Param("subscriptionId") UUID subscriptionId,
+                                            @Param("now") LocalDateTime now,
+                                            @Param("limit") int limit);
+
+    /**
+     * Row-locks the subscription for the rest of the transaction, so claims for one subscription
+     * are serialized across nodes and {@link #countInFlightBatches} cannot be raced.
+     */
+    @Query(value = "SELECT id FROM webhook_subscriptions WHERE id = :subscriptionId FOR UPDATE", nativeQuery = true)
+    List<UUID> lockSubscriptionForClaim(@Param("subscriptionId") UUID subscriptionId);
+
+    /**
+     * Claimed batches of one subscription still awaiting an outcome, on any node.
+     */
+    @Query(value = """
+        SELECT COUNT(DISTINCT claim_batch_id) FROM webhook_deliveries
+        WHERE subscription_id = :subscriptionId
+          AND status = 'IN_FLIGHT'
+        """, nativeQuery = true)
+    long countInFlightBatches(@Param("subscriptionId") UUID subscriptionId);
+
+    /**
+     * Expire claims whose worker never reported an outcome. The lost attempt is counted, and rows
+     * that have used up {@code maxAttempts} are dead-lettered instead of being retried forever.
+     */
+    @Modifying
+    @Query(value = """
+        UPDATE webhook_deliveries
+        SET attempts = attempts + 1,
+            status = CASE WHEN attempts + 1 >= :maxAttempts THEN 'DEAD' ELSE 'PENDING' END,
+            claimed_at = NULL,
+            claim_batch_id = NULL,
+            next_attempt_at = :now,
+            last_error = :error
+        WHERE status = 'IN_FLIGHT'
+          AND claimed_at < :staleBefore
+        """, nativeQuery = true)
+    int releaseStaleClaims(@Param("staleBefore") LocalDateTime staleBefore,
+                           @Param("now") LocalDateTime now,
+                           @Param("maxAttempts") int maxAttempts,
+                           @Param("error") String error);
+
+    Page<WebhookDelivery> findBySubscriptionIdOrderByCreatedAtDesc(UUID subscriptionId, Pageable pageable);
+
+    Page<WebhookDelivery> findBySubscriptionIdAndStatusOrderByCreatedAtDesc(UUID subscriptionId,
+                                                                            WebhookDelivery.Status status,
+                                                                            Pageable pageable);
+
+    @Query("SELECT d.status, COUNT(d) FROM WebhookDelivery d WHERE d.subscriptionId = :subscriptionId GROUP BY d.status")
+    List<Object[]> countBySubscriptionIdGroupByStatus(@Param("subscriptionId") UUID subscriptionId);
+
+    @Query("""
+        SELECT AVG(d.lastLatencyMs), MAX(d.lastLatencyMs), MAX(d.deliveredAt)
+        FROM WebhookDelivery d
+        WHERE d.subscriptionId = :subscriptionId
+          AND d.status = :status
+          AND d.deliveredAt >= :since
+        """)
+    List<Object[]> latencyStatsSince(@Param("subscriptionId") UUID subscriptionId,
+                                     @Param("status") WebhookDelivery.Status status,
+                                     @Param("since") LocalDateTime since);
+
+    @Modifying
+    @Query("DELETE FROM WebhookDelivery d WHERE d.status = :status AND d.createdAt < :before")
+    int deleteByStatusAndCreatedAtBefore(@Param("status") WebhookDelivery.Status status,
+                                         @Param("before") LocalDateTime before);
+}
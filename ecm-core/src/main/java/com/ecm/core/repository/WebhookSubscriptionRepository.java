@@ -2,12 +2,44 @@ package com.ecm.core.repository;
 
 import com.ecm.core.entity.WebhookSubscription;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.UUID;
 
 @Repository
 public interface WebhookSubscriptionRepository extends JpaRepository<WebhookSubscription, UUID> {
     List<WebhookSubscription> findByEnabledTrue();
+
+    /**
+     * Outcome bookkeeping from delivery workers. Bulk updates skip the optimistic version check
+     * so a concurrent admin edit of the subscription is never clobbered or rejected.
+     */
+    @Modifying
+    @Transactional
+    @Query("""
+        UPDATE WebhookSubscription s
+        SET s.lastSuccessAt = :at, s.lastStatusCode = :statusCode, s.lastErrorMessage = null
+        WHERE s.id = :id
+        """)
+    int recordDeliverySuccess(@Param("id") UUID id,
+                              @Param("at") LocalDateTime at,
+                              @Param("statusCode") Integer statusCode);
+
+    @Modifying
+    @Transactional
+    @Query("""
+        UPDATE WebhookSubscription s
+        SET s.lastFailureAt = :at, s.lastStatusCode = :statusCode, s.lastErrorMessage = :errorMessage
+        WHERE s.id = :id
+        """)
+    int recordDeliveryFailure(@Param("id") UUID id,
+                              @Param("at") LocalDateTime at,
+                              @Param("statusCode") Integer statusCode,
+                              @Param("errorMessage") String errorMessage);
 }
@@ -0,0 +1,18 @@
+package com.ecm.core.repository;
+
+import com.ecm.core.entity.WorkflowTaskInboxEntry;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface WorkflowTaskInboxEntryRepository extends JpaRepository<WorkflowTaskInboxEntry, String>,
+    JpaSpecificationExecutor<WorkflowTaskInboxEntry> {
+
+    @Query("SELECT e.taskId FROM WorkflowTaskInboxEntry e WHERE e.state = :state")
+    List<String> findTaskIdsByState(@Param("state") WorkflowTaskInboxEntry.State state);
+}
@@ -0,0 +1,24 @@
+package com.ecm.core.repository;
+
+import com.ecm.core.entity.WorkflowTaskInboxLink;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface WorkflowTaskInboxLinkRepository extends JpaRepository<WorkflowTaskInboxLink, UUID> {
+
+    List<WorkflowTaskInboxLink> findByTaskId(String taskId);
+
+    List<WorkflowTaskInboxLink> findByTaskIdIn(Collection<String> taskIds);
+
+    @Modifying
+    @Query("DELETE FROM WorkflowTaskInboxLink l WHERE l.taskId = :taskId")
+    int deleteByTaskId(@Param("taskId") String taskId);
+}
@@ -33,7 +33,21 @@ public class SanityCheckReport {
             this.status = Status.WARNING;
         }
     }
-    
+
+    /**
+     * Count an issue but list only the first {@code maxListed}, for checks that can find millions.
+     */
+    public void addIssue(String issue, int maxListed) {
+        if (this.issues.size() < maxListed) {
+            addIssue(issue);
+            return;
+        }
+        this.issuesFound++;
+        if (this.status == Status.SUCCESS) {
+            this.status = Status.WARNING;
+        }
+    }
+
     public void addFix(String fix) {
         this.fixes.add(fix);
         this.itemsFixed++;
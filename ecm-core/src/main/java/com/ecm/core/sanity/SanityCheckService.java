@@ -1,5 +1,6 @@
 package com.ecm.core.sanity;
 
+import com.ecm.core.scheduler.ClusterJob;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.scheduling.annotation.Scheduled;
@@ -48,6 +49,7 @@ public class SanityCheckService {
      * Scheduled weekly sanity check (report only).
      */
     @Scheduled(cron = "0 0 3 * * SUN") // Every Sunday at 3 AM
+    @ClusterJob
     public void scheduledSanityCheck() {
         runAllChecks(false);
     }
@@ -0,0 +1,403 @@
+package com.ecm.core.sanity.check;
+
+import com.ecm.core.entity.ConsistencyScanCheckpoint;
+import com.ecm.core.entity.ConsistencyScanCheckpoint.Phase;
+import com.ecm.core.repository.ConsistencyScanCheckpointRepository;
+import com.ecm.core.repository.DocumentRepository;
+import com.ecm.core.repository.VersionRepository;
+import com.ecm.core.sanity.SanityCheckReport;
+import com.ecm.core.sanity.SanityChecker;
+import com.ecm.core.service.ContentService;
+import com.google.common.util.concurrent.RateLimiter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.codec.binary.Hex;
+import org.apache.commons.codec.digest.DigestUtils;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Checks the content store against the database in both directions without loading either into memory.
+ * Live documents and then versions are read in keyset pages and each referenced blob is verified for
+ * existence, size and, for a sample of rows, SHA-256 on a small worker pool; then the store's day
+ * directories are walked for blobs nothing references. The position is checkpointed after every page,
+ * so a scan that needs days resumes where the last run stopped. Report only: nothing is repaired or
+ * deleted.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ContentConsistencyChecker implements SanityChecker {
+
+    static final String SCAN_NAME = "content-consistency";
+
+    private static final UUID FIRST_ID = new UUID(0L, 0L);
+    private static final int HASH_BUFFER_BYTES = 8192;
+
+    private final DocumentRepository documentRepository;
+    private final VersionRepository versionRepository;
+    private final ConsistencyScanCheckpointRepository checkpointRepository;
+    private final ContentService contentService;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    @Value("${ecm.sanity.consistency.batch-size:500}")
+    private int batchSize = 500;
+
+    @Value("${ecm.sanity.consistency.threads:4}")
+    private int threads = 4;
+
+    @Value("${ecm.sanity.consistency.max-files-per-second:0}")
+    private double maxFilesPerSecond = 0;
+
+    @Value("${ecm.sanity.consistency.hash-sample-rate:0}")
+    private double hashSampleRate = 0;
+
+    @Value("${ecm.sanity.consistency.max-hash-bytes-per-second:0}")
+    private long maxHashBytesPerSecond = 0;
+
+    @Value("${ecm.sanity.consistency.orphan-grace-hours:24}")
+    private long orphanGraceHours = 24;
+
+    @Value("${ecm.sanity.consistency.max-run-minutes:0}")
+    private long maxRunMinutes = 0;
+
+    @Value("${ecm.sanity.consistency.max-listed-issues:1000}")
+    private int maxListedIssues = 1000;
+
+    @Override
+    public SanityCheckReport check(boolean fix) {
+        SanityCheckReport report = SanityCheckReport.builder()
+            .checkName(getName())
+            .startTime(LocalDateTime.now())
+            .status(SanityCheckReport.Status.SUCCESS)
+            .build();
+
+        if (!running.compareAndSet(false, true)) {
+            log.info("Content consistency scan is already running, skipping this run");
+            report.setStatus(SanityCheckReport.Status.IN_PROGRESS);
+            report.setEndTime(LocalDateTime.now());
+            return report;
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, threads), daemonThreads());
+        try {
+            ConsistencyScanCheckpoint checkpoint = loadCheckpoint();
+            Scan scan = new Scan(report, checkpoint, executor);
+            Instant deadline = maxRunMinutes > 0 ? Instant.now().plus(Duration.ofMinutes(maxRunMinutes)) : null;
+            try {
+                while (checkpoint.getCompletedAt() == null) {
+                    if (deadline != null && Instant.now().isAfter(deadline)) {
+                        report.setStatus(SanityCheckReport.Status.IN_PROGRESS);
+                        break;
+                    }
+                    step(scan);
+                    checkpoint.setUpdatedAt(LocalDateTime.now());
+                    checkpointRepository.save(checkpoint);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                report.setStatus(SanityCheckReport.Status.IN_PROGRESS);
+            } catch (IOException e) {
+                report.addIssue("Scan stopped reading the content store: " + e.getMessage());
+                report.setStatus(SanityCheckReport.Status.ERROR);
+            }
+
+            if (fix && report.getIssuesFound() > 0) {
+                report.addFix("Manual intervention required: restore missing or damaged content from backup; "
+                    + "orphaned blobs are left in place");
+            }
+            log.info("Content consistency scan {} in phase {}: {} item(s) checked and {} issue(s) found since {}",
+                checkpoint.getCompletedAt() != null ? "completed" : "paused", checkpoint.getPhase(),
+                checkpoint.getItemsChecked(), checkpoint.getIssuesFound(), checkpoint.getStartedAt());
+        } finally {
+            executor.shutdownNow();
+            running.set(false);
+            report.setEndTime(LocalDateTime.now());
+        }
+        return report;
+    }
+
+    @Override
+    public String getName() {
+        return "Content Consistency Checker";
+    }
+
+    private ConsistencyScanCheckpoint loadCheckpoint() {
+        ConsistencyScanCheckpoint resumed = checkpointRepository.findById(SCAN_NAME)
+            .filter(existing -> existing.getCompletedAt() == null)
+            .orElse(null);
+        if (resumed != null) {
+            log.info("Resuming content consistency scan started {} in phase {}",
+                resumed.getStartedAt(), resumed.getPhase());
+            return resumed;
+        }
+        ConsistencyScanCheckpoint checkpoint = new ConsistencyScanCheckpoint();
+        checkpoint.setScanName(SCAN_NAME);
+        checkpoint.setStartedAt(LocalDateTime.now());
+        return checkpoint;
+    }
+
+    /**
+     * Verify one page of the current phase and move the checkpoint past it.
+     */
+    private void step(Scan scan) throws IOException, InterruptedException {
+        ConsistencyScanCheckpoint checkpoint = scan.checkpoint;
+        int size = Math.max(1, batchSize);
+        switch (checkpoint.getPhase()) {
+            case DOCUMENTS -> {
+                List<ContentRow> rows = ContentRow.of(
+                    documentRepository.findContentRowsAfter(afterId(checkpoint.getLastDocumentId()), size));
+                verifyRows(scan, "document", rows);
+                if (!rows.isEmpty()) {
+                    checkpoint.setLastDocumentId(rows.get(rows.size() - 1).id());
+                }
+                if (rows.size() < size) {
+                    checkpoint.setPhase(Phase.VERSIONS);
+                }
+            }
+            case VERSIONS -> {
+                List<ContentRow> rows = ContentRow.of(
+                    versionRepository.findContentRowsAfter(afterId(checkpoint.getLastVersionId()), size));
+                verifyRows(scan, "version", rows);
+                if (!rows.isEmpty()) {
+                    checkpoint.setLastVersionId(rows.get(rows.size() - 1).id());
+                }
+                if (rows.size() < size) {
+                    checkpoint.setPhase(Phase.BLOBS);
+                }
+            }
+            case BLOBS -> {
+                String day = scan.nextDay(checkpoint.getLastBlobDay());
+                if (day == null) {
+                    checkpoint.setCompletedAt(LocalDateTime.now());
+                } else {
+                    scanStorageDay(scan, day, size);
+                    checkpoint.setLastBlobDay(day);
+                }
+            }
+        }
+    }
+
+    private void verifyRows(Scan scan, String kind, List<ContentRow> rows) throws InterruptedException {
+        if (rows.isEmpty()) {
+            return;
+        }
+        List<Callable<String>> tasks = new ArrayList<>(rows.size());
+        for (ContentRow row : rows) {
+            tasks.add(() -> verify(scan, kind, row));
+        }
+        List<Future<String>> results = scan.executor.invokeAll(tasks);
+        for (int i = 0; i < results.size(); i++) {
+            String issue;
+            try {
+                issue = results.get(i).get();
+            } catch (ExecutionException e) {
+                issue = String.format("Error checking %s %s: %s", kind, rows.get(i).id(), e.getCause());
+            }
+            if (issue != null) {
+                scan.issue(issue);
+            }
+        }
+        scan.checked(rows.size());
+    }
+
+    private String verify(Scan scan, String kind, ContentRow row) {
+        try {
+            scan.throttleFile();
+            long storedSize;
+            try {
+                storedSize = contentService.getContentSize(row.contentId());
+            } catch (NoSuchFileException e) {
+                return String.format("Missing content for %s %s. Content ID: %s", kind, row.id(), row.contentId());
+            }
+            if (row.fileSize() != null && row.fileSize() != storedSize) {
+                return String.format("Size mismatch for %s %s: recorded %d bytes, stored %d bytes. Content ID: %s",
+                    kind, row.id(), row.fileSize(), storedSize, row.contentId());
+            }
+            // Old-format hashes depend on how the upload was chunked; they are compared once
+            // ContentHashBackfill has replaced them with the blob's SHA-256
+            if (row.contentHash() != null && !row.legacyHash() && isHashSampled(row.id())
+                && !hashMatches(scan, row)) {
+                return String.format("Checksum mismatch for %s %s. Content ID: %s", kind, row.id(), row.contentId());
+            }
+            return null;
+        } catch (Exception e) {
+            return String.format("Error checking %s %s: %s", kind, row.id(), e.getMessage());
+        }
+    }
+
+    private boolean isHashSampled(UUID id) {
+        if (hashSampleRate >= 1.0) {
+            return true;
+        }
+        // Deterministic per row, so a resumed scan samples the same rows
+        return hashSampleRate > 0 && Math.floorMod(id.hashCode(), 10_000) < hashSampleRate * 10_000;
+    }
+
+    private boolean hashMatches(Scan scan, ContentRow row) throws IOException {
+        MessageDigest digest = DigestUtils.getSha256Digest();
+        byte[] buffer = new byte[HASH_BUFFER_BYTES];
+        try (InputStream in = contentService.getContent(row.contentId())) {
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                scan.throttleBytes(read);
+                digest.update(buffer, 0, read);
+            }
+        }
+        return row.contentHash().toLowerCase(Locale.ROOT).equals(Hex.encodeHexString(digest.digest()));
+    }
+
+    private void scanStorageDay(Scan scan, String day, int size) throws IOException {
+        Instant graceCutoff = Instant.now().minus(Duration.ofHours(Math.max(0, orphanGraceHours)));
+        List<Path> batch = new ArrayList<>(size);
+        try (DirectoryStream<Path> blobs = contentService.openStorageDay(day)) {
+            for (Path blob : blobs) {
+                batch.add(blob);
+                if (batch.size() >= size) {
+                    checkOrphans(scan, batch, graceCutoff);
+                    batch.clear();
+                }
+            }
+        }
+        if (!batch.isEmpty()) {
+            checkOrphans(scan, batch, graceCutoff);
+        }
+    }
+
+    private void checkOrphans(Scan scan, List<Path> blobs, Instant graceCutoff) throws IOException {
+        List<String> contentIds = blobs.stream().map(blob -> blob.getFileName().toString()).toList();
+        Set<String> referenced = new HashSet<>(documentRepository.findReferencedContentIds(contentIds));
+        for (Path blob : blobs) {
+            String contentId = blob.getFileName().toString();
+            if (referenced.contains(contentId)) {
+                continue;
+            }
+            BasicFileAttributes attributes;
+            try {
+                attributes = Files.readAttributes(blob, BasicFileAttributes.class);
+            } catch (NoSuchFileException e) {
+                continue;
+            }
+            // Uploads land in the store before their document is committed
+            if (attributes.lastModifiedTime().toInstant().isAfter(graceCutoff)) {
+                continue;
+            }
+            scan.issue(String.format("Orphaned blob %s (%d bytes) is not referenced by any document, version or task",
+                contentId, attributes.size()));
+        }
+        scan.checked(blobs.size());
+    }
+
+    private static UUID afterId(UUID lastId) {
+        return lastId != null ? lastId : FIRST_ID;
+    }
+
+    private static ThreadFactory daemonThreads() {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, "consistency-scan-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    /**
+     * State of one run: the report, the checkpoint it advances and the throttles shared by its workers.
+     */
+    private final class Scan {
+        private final SanityCheckReport report;
+        private final ConsistencyScanCheckpoint checkpoint;
+        private final ExecutorService executor;
+        private final RateLimiter fileLimiter;
+        private final RateLimiter byteLimiter;
+        private List<String> days;
+
+        private Scan(SanityCheckReport report, ConsistencyScanCheckpoint checkpoint, ExecutorService executor) {
+            this.report = report;
+            this.checkpoint = checkpoint;
+            this.executor = executor;
+            this.fileLimiter = maxFilesPerSecond > 0 ? RateLimiter.create(maxFilesPerSecond) : null;
+            this.byteLimiter = maxHashBytesPerSecond > 0 ? RateLimiter.create(maxHashBytesPerSecond) : null;
+        }
+
+        private void issue(String issue) {
+            if (report.getIssues().size() < maxListedIssues) {
+                log.warn(issue);
+            }
+            report.addIssue(issue, maxListedIssues);
+            checkpoint.setIssuesFound(checkpoint.getIssuesFound() + 1);
+        }
+
+        private void checked(int items) {
+            report.setItemsChecked(report.getItemsChecked() + items);
+            checkpoint.setItemsChecked(checkpoint.getItemsChecked() + items);
+        }
+
+        private void throttleFile() {
+            if (fileLimiter != null) {
+                fileLimiter.acquire();
+            }
+        }
+
+        private void throttleBytes(int bytes) {
+            if (byteLimiter != null) {
+                byteLimiter.acquire(bytes);
+            }
+        }
+
+        private String nextDay(String lastDay) throws IOException {
+            if (days == null) {
+                days = contentService.listStorageDays();
+            }
+            for (String day : days) {
+                if (lastDay == null || day.compareTo(lastDay) > 0) {
+                    return day;
+                }
+            }
+            return null;
+        }
+    }
+
+    /**
+     * A {@code [id, content_id, file_size, content_hash, content_hash_legacy]} row of the keyset queries.
+     */
+    record ContentRow(UUID id, String contentId, Long fileSize, String contentHash, boolean legacyHash) {
+
+        static List<ContentRow> of(List<Object[]> rows) {
+            List<ContentRow> result = new ArrayList<>(rows.size());
+            for (Object[] row : rows) {
+                UUID id = row[0] instanceof UUID uuid ? uuid : UUID.fromString(String.valueOf(row[0]));
+                Long fileSize = row[2] instanceof Number number ? number.longValue() : null;
+                result.add(new ContentRow(id, (String) row[1], fileSize, (String) row[3], Boolean.TRUE.equals(row[4])));
+            }
+            return result;
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package com.ecm.core.scheduler;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Coordinates a {@code @Scheduled} method across replicas when {@code ecm.scheduler.cluster.enabled}
+ * is set (see {@link SchedulerClusterCoordinator}).
+ *
+ * <p>{@link Mode#SINGLE_RUNNER} jobs run only on the node holding the job's lease; the other nodes
+ * skip the tick. {@link Mode#PARTITIONED} jobs run on every node and split their work with
+ * {@link SchedulerPartition#current()}. Methods without this annotation keep running on every node,
+ * which is right for node-local work such as in-memory queue pollers, connection keep-alives and
+ * lease heartbeats.
+ */
+@Documented
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface ClusterJob {
+
+    Mode mode() default Mode.SINGLE_RUNNER;
+
+    enum Mode {
+        SINGLE_RUNNER,
+        PARTITIONED
+    }
+}
@@ -3,28 +3,93 @@ package com.ecm.core.scheduler;
 import org.aspectj.lang.ProceedingJoinPoint;
 import org.aspectj.lang.annotation.Around;
 import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.annotation.AnnotationUtils;
 import org.springframework.stereotype.Component;
 
+import java.lang.reflect.Array;
+import java.lang.reflect.Method;
+
 /**
  * Captures every recurring {@code @Scheduled} invocation into the {@link SchedulerRunRegistry}
- * (Day-2 scheduler-run observability). Observability-only — it does not change scheduler behaviour.
+ * (Day-2 scheduler-run observability).
  *
  * <p>§3A.1: on failure it records the exception TYPE then <b>rethrows the original Throwable
  * unchanged</b>, so Spring's scheduled-task error handling (and any retry cadence) is unaffected.
+ *
+ * <p>It is also where {@link ClusterJob} coordination happens: a single-runner tick whose lease is held
+ * by another node is recorded as skipped and not invoked, and a partitioned run sees this node's
+ * {@link SchedulerPartition}. Only ticks the scheduler itself starts are coordinated. A controller, a
+ * service or a job already running on the thread that calls the method directly always runs it, over
+ * every key, and gets its real result. Without a {@link SchedulerClusterCoordinator}, or with it
+ * disabled, every tick runs as before.
  */
 @Aspect
 @Component
 public class ScheduledRunAspect {
 
+    private static final String SCHEDULED_METHOD_RUNNABLE =
+        "org.springframework.scheduling.support.ScheduledMethodRunnable";
+    private static final ThreadLocal<Boolean> IN_SCHEDULER_TICK = new ThreadLocal<>();
+
     private final SchedulerRunRegistry registry;
+    private final ObjectProvider<SchedulerClusterCoordinator> coordinatorProvider;
 
     public ScheduledRunAspect(SchedulerRunRegistry registry) {
+        this(registry, null);
+    }
+
+    @Autowired
+    public ScheduledRunAspect(SchedulerRunRegistry registry,
+                              ObjectProvider<SchedulerClusterCoordinator> coordinatorProvider) {
         this.registry = registry;
+        this.coordinatorProvider = coordinatorProvider;
     }
 
     @Around("@annotation(org.springframework.scheduling.annotation.Scheduled)")
     public Object recordScheduledRun(ProceedingJoinPoint joinPoint) throws Throwable {
         String jobId = SchedulerJobIds.forJoinPoint(joinPoint);
+        ClusterJob clusterJob = clusterJob(joinPoint);
+        if (IN_SCHEDULER_TICK.get() != null || !calledByScheduler()) {
+            return recordRun(joinPoint, jobId);
+        }
+        IN_SCHEDULER_TICK.set(Boolean.TRUE);
+        try {
+            return recordTick(joinPoint, jobId, clusterJob);
+        } finally {
+            IN_SCHEDULER_TICK.remove();
+        }
+    }
+
+    private Object recordTick(ProceedingJoinPoint joinPoint, String jobId, ClusterJob clusterJob) throws Throwable {
+        SchedulerClusterCoordinator coordinator = clusterJob != null ? coordinator() : null;
+        if (coordinator == null || !coordinator.isEnabled()) {
+            return recordRun(joinPoint, jobId);
+        }
+
+        if (clusterJob.mode() == ClusterJob.Mode.PARTITIONED) {
+            SchedulerPartition.set(coordinator.partition());
+            try {
+                return recordRun(joinPoint, jobId);
+            } finally {
+                SchedulerPartition.clear();
+            }
+        }
+
+        if (!coordinator.tryAcquire(jobId)) {
+            registry.recordSkipped(jobId);
+            return skippedResult(joinPoint);
+        }
+        try {
+            return recordRun(joinPoint, jobId);
+        } finally {
+            coordinator.finished(jobId);
+        }
+    }
+
+    private Object recordRun(ProceedingJoinPoint joinPoint, String jobId) throws Throwable {
         long startNanos = System.nanoTime();
         registry.recordStart(jobId);
         try {
@@ -38,6 +103,38 @@ public class ScheduledRunAspect {
         }
     }
 
+    private SchedulerClusterCoordinator coordinator() {
+        return coordinatorProvider != null ? coordinatorProvider.getIfAvailable() : null;
+    }
+
+    private static ClusterJob clusterJob(ProceedingJoinPoint joinPoint) {
+        if (joinPoint.getSignature() instanceof MethodSignature signature) {
+            return AnnotationUtils.findAnnotation(signature.getMethod(), ClusterJob.class);
+        }
+        return null;
+    }
+
+    /**
+     * Whether the scheduler started this invocation: its task runnable is on the stack. Nested calls
+     * from a job already running are caught earlier by {@link #IN_SCHEDULER_TICK}.
+     */
+    private static boolean calledByScheduler() {
+        return StackWalker.getInstance().walk(frames -> frames
+            .anyMatch(frame -> SCHEDULED_METHOD_RUNNABLE.equals(frame.getClassName())));
+    }
+
+    // Scheduled ticks of methods that return a count still need a value when skipped
+    private static Object skippedResult(ProceedingJoinPoint joinPoint) {
+        if (joinPoint.getSignature() instanceof MethodSignature signature) {
+            Method method = signature.getMethod();
+            Class<?> returnType = method.getReturnType();
+            if (returnType.isPrimitive() && returnType != void.class) {
+                return Array.get(Array.newInstance(returnType, 1), 0);
+            }
+        }
+        return null;
+    }
+
     private static long elapsedMs(long startNanos) {
         return (System.nanoTime() - startNanos) / 1_000_000L;
     }
@@ -0,0 +1,263 @@
+package com.ecm.core.scheduler;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.net.InetAddress;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * PostgreSQL-backed coordination of {@link ClusterJob} scheduled jobs, enabled with
+ * {@code ecm.scheduler.cluster.enabled}.
+ *
+ * <p>A single-runner job runs only on the node that holds its {@code scheduler_leases} row. Taking the
+ * lease is one upsert that succeeds when the row is free, expired or already ours, so the holder
+ * keeps it by running on schedule and other nodes skip until it lapses for {@code lease-ms}. Leases
+ * of jobs still running are extended by {@link #heartbeat()}, which also records this node in
+ * {@code scheduler_nodes}; partitioned jobs split their keys over the nodes seen there within
+ * {@code node-timeout-ms}. Leases are released on shutdown so another node takes over at its next
+ * tick. When disabled every node runs every job, as before.
+ *
+ * <p>Lease expiry and node liveness are computed from the database clock ({@code LOCALTIMESTAMP}), so
+ * clock skew between application nodes cannot hand a live lease to a second node or drop a live node
+ * from the partition.
+ */
+@Slf4j
+@Service
+public class SchedulerClusterCoordinator {
+
+    private static final String ACQUIRE_SQL = """
+        INSERT INTO scheduler_leases (job_id, owner_node, acquired_at, lease_expires_at)
+        VALUES (?, ?, LOCALTIMESTAMP, LOCALTIMESTAMP + ? * INTERVAL '1 millisecond')
+        ON CONFLICT (job_id) DO UPDATE SET
+            owner_node = EXCLUDED.owner_node,
+            acquired_at = CASE WHEN scheduler_leases.owner_node = EXCLUDED.owner_node
+                THEN scheduler_leases.acquired_at ELSE EXCLUDED.acquired_at END,
+            lease_expires_at = EXCLUDED.lease_expires_at
+        WHERE scheduler_leases.owner_node = EXCLUDED.owner_node
+           OR scheduler_leases.lease_expires_at < EXCLUDED.acquired_at
+        """;
+
+    private static final String RENEW_SQL =
+        "UPDATE scheduler_leases SET lease_expires_at = LOCALTIMESTAMP + ? * INTERVAL '1 millisecond' "
+            + "WHERE job_id = ? AND owner_node = ?";
+
+    private static final String RELEASE_SQL =
+        "UPDATE scheduler_leases SET lease_expires_at = LOCALTIMESTAMP "
+            + "WHERE owner_node = ? AND lease_expires_at > LOCALTIMESTAMP";
+
+    private static final String LEASES_SQL =
+        "SELECT job_id, owner_node, acquired_at, lease_expires_at FROM scheduler_leases";
+
+    private static final String NODE_HEARTBEAT_SQL = """
+        INSERT INTO scheduler_nodes (node_id, started_at, heartbeat_at)
+        VALUES (?, ?, LOCALTIMESTAMP)
+        ON CONFLICT (node_id) DO UPDATE SET heartbeat_at = EXCLUDED.heartbeat_at
+        """;
+
+    private static final String LIVE_NODES_SQL =
+        "SELECT node_id FROM scheduler_nodes "
+            + "WHERE heartbeat_at >= LOCALTIMESTAMP - ? * INTERVAL '1 millisecond' ORDER BY node_id";
+
+    private static final String PRUNE_NODES_SQL =
+        "DELETE FROM scheduler_nodes WHERE heartbeat_at < LOCALTIMESTAMP - ? * INTERVAL '1 millisecond'";
+
+    private static final String REMOVE_NODE_SQL = "DELETE FROM scheduler_nodes WHERE node_id = ?";
+
+    // Nodes silent this many timeouts are deleted rather than just ignored
+    private static final int NODE_PRUNE_TIMEOUTS = 10;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Set<String> runningLeases = ConcurrentHashMap.newKeySet();
+    private final LocalDateTime startedAt = LocalDateTime.now();
+
+    @Value("${ecm.scheduler.cluster.enabled:false}")
+    private boolean enabled = false;
+
+    @Value("${ecm.scheduler.cluster.node-id:}")
+    private String configuredNodeId = "";
+
+    @Value("${ecm.scheduler.cluster.lease-ms:300000}")
+    private long leaseMs = 300_000L;
+
+    @Value("${ecm.scheduler.cluster.node-timeout-ms:90000}")
+    private long nodeTimeoutMs = 90_000L;
+
+    private volatile String nodeId;
+    private volatile List<String> liveNodes;
+
+    public SchedulerClusterCoordinator(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Identity used for leases and partitions. The generated default includes a random suffix so a
+     * restarted node never mistakes the leases of its previous incarnation for its own.
+     */
+    public String nodeId() {
+        String current = nodeId;
+        if (current == null) {
+            current = configuredNodeId != null && !configuredNodeId.isBlank()
+                ? configuredNodeId.trim()
+                : defaultNodeId();
+            nodeId = current;
+        }
+        return current;
+    }
+
+    /**
+     * Take or extend the lease of a single-runner job. {@code false} means another node holds it and
+     * this tick must be skipped; a database failure also skips, since running twice is what the lease
+     * prevents. Always {@code true} when coordination is disabled.
+     */
+    public boolean tryAcquire(String jobId) {
+        if (!enabled) {
+            return true;
+        }
+        try {
+            int updated = jdbcTemplate.update(ACQUIRE_SQL, jobId, nodeId(), leaseMillis());
+            if (updated == 0) {
+                return false;
+            }
+            runningLeases.add(jobId);
+            return true;
+        } catch (RuntimeException e) {
+            log.warn("Could not take scheduler lease for {}, skipping this run: {}", jobId, e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * The job run that took the lease has ended. The lease is kept until it expires so other nodes
+     * keep skipping; the next run on this node extends it again.
+     */
+    public void finished(String jobId) {
+        runningLeases.remove(jobId);
+    }
+
+    /**
+     * This node's share of partitioned work, over the live nodes from the last heartbeat.
+     */
+    public SchedulerPartition partition() {
+        if (!enabled) {
+            return SchedulerPartition.all();
+        }
+        List<String> nodes = liveNodes;
+        if (nodes == null) {
+            heartbeat();
+            nodes = liveNodes;
+        }
+        String self = nodeId();
+        if (nodes == null || nodes.isEmpty()) {
+            return new SchedulerPartition(self, List.of(self));
+        }
+        if (!nodes.contains(self)) {
+            List<String> withSelf = new ArrayList<>(nodes);
+            withSelf.add(self);
+            withSelf.sort(null);
+            nodes = withSelf;
+        }
+        return new SchedulerPartition(self, nodes);
+    }
+
+    @Scheduled(fixedDelayString = "${ecm.scheduler.cluster.heartbeat-interval-ms:30000}")
+    public void heartbeat() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            jdbcTemplate.update(NODE_HEARTBEAT_SQL, nodeId(), Timestamp.valueOf(startedAt));
+            for (String jobId : runningLeases) {
+                int renewed = jdbcTemplate.update(RENEW_SQL, leaseMillis(), jobId, nodeId());
+                if (renewed == 0) {
+                    log.warn("Scheduler lease for {} was taken over while the job was still running on {}",
+                        jobId, nodeId());
+                }
+            }
+            liveNodes = List.copyOf(jdbcTemplate.queryForList(LIVE_NODES_SQL, String.class, nodeTimeoutMs));
+            jdbcTemplate.update(PRUNE_NODES_SQL, nodeTimeoutMs * NODE_PRUNE_TIMEOUTS);
+        } catch (RuntimeException e) {
+            log.warn("Scheduler heartbeat failed for node {}: {}", nodeId(), e.getMessage());
+        }
+    }
+
+    /**
+     * Current lease rows by job id; empty when disabled or unreadable.
+     */
+    public Map<String, Lease> leases() {
+        if (!enabled) {
+            return Map.of();
+        }
+        try {
+            Map<String, Lease> leases = new LinkedHashMap<>();
+            jdbcTemplate.query(LEASES_SQL, rs -> {
+                Timestamp acquiredAt = rs.getTimestamp("acquired_at");
+                Timestamp expiresAt = rs.getTimestamp("lease_expires_at");
+                Lease lease = new Lease(
+                    rs.getString("job_id"),
+                    rs.getString("owner_node"),
+                    acquiredAt != null ? acquiredAt.toLocalDateTime() : null,
+                    expiresAt != null ? expiresAt.toLocalDateTime() : null);
+                leases.put(lease.jobId(), lease);
+            });
+            return leases;
+        } catch (RuntimeException e) {
+            log.debug("Failed to read scheduler leases: {}", e.getMessage());
+            return Map.of();
+        }
+    }
+
+    /**
+     * Nodes seen by the last heartbeat; empty when disabled.
+     */
+    public List<String> liveNodes() {
+        List<String> nodes = liveNodes;
+        return enabled && nodes != null ? nodes : List.of();
+    }
+
+    @PreDestroy
+    public void release() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            jdbcTemplate.update(RELEASE_SQL, nodeId());
+            jdbcTemplate.update(REMOVE_NODE_SQL, nodeId());
+        } catch (RuntimeException e) {
+            log.debug("Failed to release scheduler leases of node {}: {}", nodeId(), e.getMessage());
+        }
+    }
+
+    private long leaseMillis() {
+        return Math.max(1L, leaseMs);
+    }
+
+    private static String defaultNodeId() {
+        String host;
+        try {
+            host = InetAddress.getLocalHost().getHostName();
+        } catch (Exception e) {
+            host = "node";
+        }
+        return host + "-" + UUID.randomUUID().toString().substring(0, 8);
+    }
+
+    public record Lease(String jobId, String ownerNode, LocalDateTime acquiredAt, LocalDateTime leaseExpiresAt) {
+    }
+}
@@ -9,6 +9,10 @@ import java.time.LocalDateTime;
  * cleanly computable (cron, or fixedRate after a run); otherwise it is {@code null} and
  * {@code scheduleDescription} (always non-null) carries the cron string / {@code fixedDelay=Nms} etc.
  * The endpoint never fabricates a time.
+ *
+ * <p>{@code coordination} is {@code LOCAL} for jobs that run on every node, otherwise the
+ * {@link ClusterJob.Mode}. Single-runner jobs carry the current lease holder and expiry (both
+ * {@code null} before the first run); partitioned jobs carry the number of live nodes sharing the work.
  */
 public record SchedulerJobSnapshotDto(
     String jobId,
@@ -18,7 +22,22 @@ public record SchedulerJobSnapshotDto(
     String lastErrorType,
     long runCount,
     long failCount,
+    long skipCount,
     LocalDateTime nextRunAt,
-    String scheduleDescription
+    String scheduleDescription,
+    String coordination,
+    String leaseOwner,
+    LocalDateTime leaseExpiresAt,
+    Boolean leaseHeldLocally,
+    Integer liveNodes
 ) {
+
+    public static final String LOCAL = "LOCAL";
+
+    public SchedulerJobSnapshotDto(String jobId, LocalDateTime lastRunAt, String lastStatus, Long lastDurationMs,
+                                   String lastErrorType, long runCount, long failCount, LocalDateTime nextRunAt,
+                                   String scheduleDescription) {
+        this(jobId, lastRunAt, lastStatus, lastDurationMs, lastErrorType, runCount, failCount, 0L, nextRunAt,
+            scheduleDescription, LOCAL, null, null, null, null);
+    }
 }
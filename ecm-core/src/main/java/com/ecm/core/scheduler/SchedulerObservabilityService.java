@@ -1,6 +1,8 @@
 package com.ecm.core.scheduler;
 
 import org.springframework.aop.support.AopUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.annotation.AnnotationUtils;
 import org.springframework.scheduling.config.CronTask;
 import org.springframework.scheduling.config.FixedDelayTask;
 import org.springframework.scheduling.config.FixedRateTask;
@@ -26,33 +28,46 @@ import java.util.Map;
  * <p>§3A.2: {@code nextRunAt} is computed only where well-defined (cron; fixedRate from the last
  * run); fixedDelay → {@code null} (depends on completion). Any failure → {@code null} + a
  * {@code scheduleDescription}; the method never throws.
+ *
+ * <p>When {@link SchedulerClusterCoordinator} coordination is enabled, each {@link ClusterJob} row also
+ * carries its lease holder or the live node count, read once per snapshot.
  */
 @Service
 public class SchedulerObservabilityService {
 
     private final SchedulerRunRegistry registry;
     private final ScheduledTaskHolder scheduledTaskHolder;
+    private final SchedulerClusterCoordinator clusterCoordinator;
 
     public SchedulerObservabilityService(SchedulerRunRegistry registry, ScheduledTaskHolder scheduledTaskHolder) {
+        this(registry, scheduledTaskHolder, null);
+    }
+
+    @Autowired
+    public SchedulerObservabilityService(SchedulerRunRegistry registry, ScheduledTaskHolder scheduledTaskHolder,
+                                         SchedulerClusterCoordinator clusterCoordinator) {
         this.registry = registry;
         this.scheduledTaskHolder = scheduledTaskHolder;
+        this.clusterCoordinator = clusterCoordinator;
     }
 
     public List<SchedulerJobSnapshotDto> getSnapshot() {
         LocalDateTime now = LocalDateTime.now();
         Map<String, SchedulerJobSnapshotDto> byId = new LinkedHashMap<>();
+        ClusterView cluster = clusterView();
 
         for (ScheduledTask scheduledTask : scheduledTaskHolder.getScheduledTasks()) {
             ScheduleInfo info = describe(scheduledTask, now);
             if (info == null) {
                 continue;
             }
-            byId.put(info.jobId(), toDto(info.jobId(), registry.get(info.jobId()), info.nextRunAt(), info.description()));
+            byId.put(info.jobId(), toDto(info.jobId(), registry.get(info.jobId()), info.nextRunAt(), info.description(),
+                info.mode(), cluster));
         }
 
         // Defensive: surface any job that recorded a run but is not (or no longer) in the holder.
         for (Map.Entry<String, SchedulerRunRegistry.RunRecord> e : registry.snapshot().entrySet()) {
-            byId.computeIfAbsent(e.getKey(), k -> toDto(k, e.getValue(), null, "unknown"));
+            byId.computeIfAbsent(e.getKey(), k -> toDto(k, e.getValue(), null, "unknown", null, cluster));
         }
 
         List<SchedulerJobSnapshotDto> out = new ArrayList<>(byId.values());
@@ -60,7 +75,22 @@ public class SchedulerObservabilityService {
         return out;
     }
 
-    private record ScheduleInfo(String jobId, LocalDateTime nextRunAt, String description) {
+    private record ScheduleInfo(String jobId, LocalDateTime nextRunAt, String description, ClusterJob.Mode mode) {
+    }
+
+    private record ClusterView(String nodeId, Map<String, SchedulerClusterCoordinator.Lease> leases, int liveNodes) {
+    }
+
+    private ClusterView clusterView() {
+        try {
+            if (clusterCoordinator == null || !clusterCoordinator.isEnabled()) {
+                return null;
+            }
+            return new ClusterView(clusterCoordinator.nodeId(), clusterCoordinator.leases(),
+                Math.max(1, clusterCoordinator.liveNodes().size()));
+        } catch (RuntimeException ex) {
+            return null;
+        }
     }
 
     private ScheduleInfo describe(ScheduledTask scheduledTask, LocalDateTime now) {
@@ -70,8 +100,10 @@ public class SchedulerObservabilityService {
             if (jobId == null) {
                 return null;
             }
+            ClusterJob.Mode mode = clusterModeFor(task.getRunnable());
             if (task instanceof CronTask cronTask) {
-                return new ScheduleInfo(jobId, nextCron(cronTask.getExpression(), now), "cron: " + cronTask.getExpression());
+                return new ScheduleInfo(jobId, nextCron(cronTask.getExpression(), now), "cron: " + cronTask.getExpression(),
+                    mode);
             }
             if (task instanceof FixedRateTask fixedRateTask) {
                 long ms = fixedRateTask.getInterval();
@@ -79,13 +111,13 @@ public class SchedulerObservabilityService {
                 LocalDateTime next = (rec != null && rec.lastRunAt() != null)
                     ? rec.lastRunAt().plus(Duration.ofMillis(ms))
                     : null;
-                return new ScheduleInfo(jobId, next, "fixedRate=" + ms + "ms");
+                return new ScheduleInfo(jobId, next, "fixedRate=" + ms + "ms", mode);
             }
             if (task instanceof FixedDelayTask fixedDelayTask) {
                 // §3A.2: next depends on the previous completion → not cleanly computable → null.
-                return new ScheduleInfo(jobId, null, "fixedDelay=" + fixedDelayTask.getInterval() + "ms");
+                return new ScheduleInfo(jobId, null, "fixedDelay=" + fixedDelayTask.getInterval() + "ms", mode);
             }
-            return new ScheduleInfo(jobId, null, task.getClass().getSimpleName());
+            return new ScheduleInfo(jobId, null, task.getClass().getSimpleName(), mode);
         } catch (RuntimeException ex) {
             return null;
         }
@@ -109,21 +141,51 @@ public class SchedulerObservabilityService {
         return null;
     }
 
+    private static ClusterJob.Mode clusterModeFor(Runnable runnable) {
+        if (runnable instanceof ScheduledMethodRunnable smr) {
+            ClusterJob clusterJob = AnnotationUtils.findAnnotation(smr.getMethod(), ClusterJob.class);
+            return clusterJob != null ? clusterJob.mode() : null;
+        }
+        return null;
+    }
+
     private static SchedulerJobSnapshotDto toDto(String jobId, SchedulerRunRegistry.RunRecord rec,
-                                                 LocalDateTime nextRunAt, String description) {
-        if (rec == null) {
-            return new SchedulerJobSnapshotDto(jobId, null, null, null, null, 0L, 0L, nextRunAt, description);
+                                                 LocalDateTime nextRunAt, String description,
+                                                 ClusterJob.Mode mode, ClusterView cluster) {
+        String coordination = SchedulerJobSnapshotDto.LOCAL;
+        String leaseOwner = null;
+        LocalDateTime leaseExpiresAt = null;
+        Boolean leaseHeldLocally = null;
+        Integer liveNodes = null;
+        if (cluster != null && mode != null) {
+            coordination = mode.name();
+            if (mode == ClusterJob.Mode.PARTITIONED) {
+                liveNodes = cluster.liveNodes();
+            } else {
+                SchedulerClusterCoordinator.Lease lease = cluster.leases().get(jobId);
+                if (lease != null) {
+                    leaseOwner = lease.ownerNode();
+                    leaseExpiresAt = lease.leaseExpiresAt();
+                    leaseHeldLocally = cluster.nodeId().equals(lease.ownerNode());
+                }
+            }
         }
         return new SchedulerJobSnapshotDto(
             jobId,
-            rec.lastRunAt(),
-            rec.lastStatus() == null ? null : rec.lastStatus().name(),
-            rec.lastDurationMs(),
-            rec.lastErrorType(),
-            rec.runCount(),
-            rec.failCount(),
+            rec == null ? null : rec.lastRunAt(),
+            rec == null || rec.lastStatus() == null ? null : rec.lastStatus().name(),
+            rec == null ? null : rec.lastDurationMs(),
+            rec == null ? null : rec.lastErrorType(),
+            rec == null ? 0L : rec.runCount(),
+            rec == null ? 0L : rec.failCount(),
+            rec == null ? 0L : rec.skipCount(),
             nextRunAt,
-            description
+            description,
+            coordination,
+            leaseOwner,
+            leaseExpiresAt,
+            leaseHeldLocally,
+            liveNodes
         );
     }
 }
@@ -0,0 +1,75 @@
+package com.ecm.core.scheduler;
+
+import com.google.common.hash.Hashing;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * This node's share of a {@link ClusterJob.Mode#PARTITIONED} job. Keys are assigned by rendezvous
+ * hashing over the live nodes, so a node joining or leaving only moves the keys it gains or loses.
+ *
+ * <p>{@link #current()} is set by {@link ScheduledRunAspect} for the duration of a partitioned run.
+ * Outside one (manual triggers, tests, cluster coordination disabled) it owns every key.
+ */
+public final class SchedulerPartition {
+
+    private static final SchedulerPartition ALL = new SchedulerPartition(null, List.of());
+    private static final ThreadLocal<SchedulerPartition> CURRENT = new ThreadLocal<>();
+
+    private final String nodeId;
+    private final List<String> liveNodes;
+
+    SchedulerPartition(String nodeId, List<String> liveNodes) {
+        this.nodeId = nodeId;
+        this.liveNodes = List.copyOf(liveNodes);
+    }
+
+    public static SchedulerPartition current() {
+        SchedulerPartition partition = CURRENT.get();
+        return partition != null ? partition : ALL;
+    }
+
+    static SchedulerPartition all() {
+        return ALL;
+    }
+
+    static void set(SchedulerPartition partition) {
+        CURRENT.set(partition);
+    }
+
+    static void clear() {
+        CURRENT.remove();
+    }
+
+    /**
+     * Whether this node processes {@code key}. Exactly one live node owns each key, as long as the
+     * nodes agree on the live set.
+     */
+    public boolean owns(Object key) {
+        if (nodeId == null || key == null || liveNodes.size() <= 1) {
+            return true;
+        }
+        String keyText = key.toString();
+        String owner = null;
+        long best = Long.MIN_VALUE;
+        for (String node : liveNodes) {
+            long score = Hashing.murmur3_128()
+                .hashString(node + '\n' + keyText, StandardCharsets.UTF_8)
+                .asLong();
+            if (owner == null || score > best) {
+                owner = node;
+                best = score;
+            }
+        }
+        return nodeId.equals(owner);
+    }
+
+    public String nodeId() {
+        return nodeId;
+    }
+
+    public List<String> liveNodes() {
+        return liveNodes;
+    }
+}
@@ -18,7 +18,7 @@ import java.util.concurrent.ConcurrentHashMap;
 @Component
 public class SchedulerRunRegistry {
 
-    public enum Status { RUNNING, SUCCESS, FAILED }
+    public enum Status { RUNNING, SUCCESS, FAILED, SKIPPED }
 
     public record RunRecord(
         LocalDateTime lastRunAt,
@@ -26,7 +26,8 @@ public class SchedulerRunRegistry {
         Long lastDurationMs,
         String lastErrorType,
         long runCount,
-        long failCount
+        long failCount,
+        long skipCount
     ) {}
 
     private final Map<String, RunRecord> records = new ConcurrentHashMap<>();
@@ -38,7 +39,8 @@ public class SchedulerRunRegistry {
             old == null ? null : old.lastDurationMs(),
             old == null ? null : old.lastErrorType(),
             old == null ? 0L : old.runCount(),
-            old == null ? 0L : old.failCount()
+            old == null ? 0L : old.failCount(),
+            old == null ? 0L : old.skipCount()
         ));
     }
 
@@ -49,7 +51,8 @@ public class SchedulerRunRegistry {
             durationMs,
             null,
             (old == null ? 0L : old.runCount()) + 1,
-            old == null ? 0L : old.failCount()
+            old == null ? 0L : old.failCount(),
+            old == null ? 0L : old.skipCount()
         ));
     }
 
@@ -60,7 +63,23 @@ public class SchedulerRunRegistry {
             durationMs,
             errorType,
             (old == null ? 0L : old.runCount()) + 1,
-            (old == null ? 0L : old.failCount()) + 1
+            (old == null ? 0L : old.failCount()) + 1,
+            old == null ? 0L : old.skipCount()
+        ));
+    }
+
+    /**
+     * A tick skipped because another node holds the job's cluster lease. The last real run is kept.
+     */
+    public void recordSkipped(String jobId) {
+        records.compute(jobId, (k, old) -> new RunRecord(
+            old == null ? null : old.lastRunAt(),
+            Status.SKIPPED,
+            old == null ? null : old.lastDurationMs(),
+            old == null ? null : old.lastErrorType(),
+            old == null ? 0L : old.runCount(),
+            old == null ? 0L : old.failCount(),
+            (old == null ? 0L : old.skipCount()) + 1
         ));
     }
 
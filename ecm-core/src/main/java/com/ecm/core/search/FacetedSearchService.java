@@ -2,9 +2,10 @@ package com.ecm.core.search;
 
 import com.ecm.core.config.TenantContext;
 import com.ecm.core.entity.Node;
-import com.ecm.core.entity.Permission.PermissionType;
+import com.ecm.core.repository.FavoriteRepository;
 import com.ecm.core.repository.NodeRepository;
 import com.ecm.core.service.SecurityService;
+import co.elastic.clients.elasticsearch._types.SortOrder;
 import co.elastic.clients.elasticsearch._types.SuggestMode;
 import co.elastic.clients.elasticsearch._types.aggregations.Aggregate;
 import co.elastic.clients.elasticsearch._types.aggregations.Aggregation;
@@ -12,13 +13,22 @@ import co.elastic.clients.elasticsearch._types.aggregations.AggregationRange;
 import co.elastic.clients.elasticsearch._types.aggregations.DateRangeExpression;
 import co.elastic.clients.elasticsearch._types.aggregations.FiltersBucket;
 import co.elastic.clients.elasticsearch._types.query_dsl.BoolQuery;
+import co.elastic.clients.elasticsearch._types.query_dsl.FieldValueFactorModifier;
+import co.elastic.clients.elasticsearch._types.query_dsl.FunctionBoostMode;
+import co.elastic.clients.elasticsearch._types.query_dsl.FunctionScoreMode;
 import co.elastic.clients.elasticsearch._types.query_dsl.Operator;
 import co.elastic.clients.elasticsearch._types.query_dsl.Query;
 import co.elastic.clients.elasticsearch._types.query_dsl.TextQueryType;
 import co.elastic.clients.json.JsonData;
 import co.elastic.clients.elasticsearch.core.search.Suggester;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
@@ -37,9 +47,12 @@ import org.springframework.data.elasticsearch.core.query.highlight.HighlightFiel
 import org.springframework.data.elasticsearch.core.query.highlight.HighlightParameters;
 import org.springframework.data.elasticsearch.core.query.Criteria;
 import org.springframework.data.elasticsearch.core.query.CriteriaQuery;
+import org.springframework.data.elasticsearch.core.query.FetchSourceFilter;
 import org.springframework.data.elasticsearch.core.suggest.response.Suggest;
 import org.springframework.stereotype.Service;
 
+import java.io.IOException;
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
@@ -50,6 +63,7 @@ import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
 /**
@@ -65,22 +79,63 @@ import java.util.stream.Collectors;
  */
 @Slf4j
 @Service
-@RequiredArgsConstructor
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
 public class FacetedSearchService {
 
     private final ElasticsearchOperations elasticsearchOperations;
     private final NodeRepository nodeRepository;
     private final SecurityService securityService;
+    private final SearchAclFilter searchAclFilter;
+    private final FavoriteRepository favoriteRepository;
+
+    @Autowired(required = false)
+    private MeterRegistry meterRegistry;
+
+    @Autowired(required = false)
+    private SearchIndexSchemaBackfill schemaBackfill;
 
     @Value("${ecm.search.enabled:true}")
     private boolean searchEnabled;
 
+    @Value("${ecm.search.suggest.recency-scale:30d}")
+    private String suggestRecencyScale = "30d";
+
+    @Value("${ecm.search.suggest.favorite-boost:2.0}")
+    private double suggestFavoriteBoost = 2.0;
+
+    @Value("${ecm.search.suggest.timeout-ms:500}")
+    private long suggestTimeoutMs = 500L;
+
+    @Value("${ecm.search.cursor.keep-alive-seconds:120}")
+    private long cursorKeepAliveSeconds = 120L;
+
+    @Value("${ecm.search.export.page-size:500}")
+    private int exportPageSize = 500;
+
+    @Value("${ecm.search.pivot.cache-ttl-seconds:30}")
+    private long pivotCacheTtlSeconds = 30L;
+
+    @Value("${ecm.search.pivot.cache-max-entries:500}")
+    private long pivotCacheMaxEntries = 500L;
+
+    /**
+     * Pivot responses per request, tenant scope and read-authority set, so dashboards refreshing the same
+     * matrix share one aggregation for the TTL.
+     */
+    private Cache<PivotCacheKey, PivotResponse> pivotCache;
+
     private static final String INDEX_NAME = "ecm_documents";
     private static final int DEFAULT_FACET_SIZE = 20;
     private static final int DEFAULT_SUGGESTION_LIMIT = 6;
+    private static final int MAX_SUGGESTION_LIMIT = 25;
+    private static final int MAX_BOOSTED_FAVORITES = 200;
+    private static final String SUGGEST_FIELD = "nameSuggest";
     private static final int DEFAULT_SPELLCHECK_LIMIT = 5;
+    private static final int MAX_CURSOR_PAGE_SIZE = 1000;
     private static final long ONE_MB = 1_048_576L;
     private static final DateTimeFormatter ES_DATE_TIME_FORMAT = DateTimeFormatter.ISO_DATE_TIME;
+    private static final List<String> DEFAULT_SEARCH_FIELDS =
+        List.of("name^2", "title^2", "content", "description");
     private static final List<String> DEFAULT_FACET_FIELDS = List.of(
         "mimeType",
         "createdBy",
@@ -92,6 +147,27 @@ public class FacetedSearchService {
         "nodeType"
     );
 
+    FacetedSearchService(
+        ElasticsearchOperations elasticsearchOperations,
+        NodeRepository nodeRepository,
+        SecurityService securityService
+    ) {
+        this(elasticsearchOperations, nodeRepository, securityService,
+            new SearchAclFilter(securityService, nodeRepository), null);
+    }
+
+    @PostConstruct
+    void initPivotCache() {
+        if (pivotCacheTtlSeconds <= 0 || pivotCacheMaxEntries <= 0) {
+            pivotCache = null;
+            return;
+        }
+        pivotCache = CacheBuilder.newBuilder()
+            .maximumSize(pivotCacheMaxEntries)
+            .expireAfterWrite(Duration.ofSeconds(pivotCacheTtlSeconds))
+            .build();
+    }
+
     /**
      * Perform faceted search with aggregations
      */
@@ -113,7 +189,7 @@ public class FacetedSearchService {
 
             // Convert to results
             List<SearchResult> results = authorizedHits.stream()
-                .map(this::toSearchResult)
+                .map(hit -> SearchHitProjection.toSearchResult(hit, request.getResultProperties()))
                 .collect(Collectors.toList());
 
             // Build facets from aggregations when available (query already includes ACL filter),
@@ -187,6 +263,111 @@ public class FacetedSearchService {
         }
     }
 
+    /**
+     * Faceted-search results paged with an opaque cursor ({@code search_after} over a point in time),
+     * ordered by relevance. Cursor pages carry no facets; use {@link #search} for those.
+     *
+     * @throws IllegalArgumentException when the cursor is malformed or its point in time has expired
+     */
+    public SearchCursorPage searchAfter(FacetedSearchRequest request, String cursor) {
+        SearchCursor position = SearchCursor.decode(cursor);
+        if (!searchEnabled) {
+            return SearchCursorPage.empty();
+        }
+
+        int size = resolveCursorPageSize(request.getPageable());
+        try {
+            SearchPointInTimePager.PagedHits page = cursorPager().page(
+                () -> buildCursorQuery(request, request.isHighlightEnabled()), size, position);
+            List<SearchResult> results = filterAuthorizedHits(page.hits()).stream()
+                .map(hit -> SearchHitProjection.toSearchResult(hit, request.getResultProperties()))
+                .collect(Collectors.toList());
+            return new SearchCursorPage(results, page.totalHits(), page.next() != null ? page.next().encode() : null);
+        } catch (LinkageError e) {
+            log.error("Cursor search failed due to missing/invalid Elasticsearch client dependency", e);
+            return SearchCursorPage.empty();
+        } catch (RuntimeException e) {
+            if (position == null) {
+                log.error("Cursor search failed", e);
+                return SearchCursorPage.empty();
+            }
+            if (SearchPointInTimePager.isPointInTimeGone(e)) {
+                throw new IllegalArgumentException("Search cursor is no longer valid, restart from the first page", e);
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Write every hit of a faceted search to {@code writer}, reading {@code ecm.search.export.page-size}
+     * hits at a time from a point in time.
+     *
+     * @return number of rows written
+     */
+    public long exportSearch(FacetedSearchRequest request, SearchResultExportWriter writer) throws IOException {
+        if (!searchEnabled) {
+            return 0L;
+        }
+        cursorPager().forEachPage(() -> buildCursorQuery(request, false), Math.max(1, exportPageSize), hits -> {
+            for (SearchHit<NodeDocument> hit : filterAuthorizedHits(hits)) {
+                writer.write(SearchHitProjection.toSearchResult(hit, request.getResultProperties()));
+            }
+            writer.flush();
+        });
+        return writer.rows();
+    }
+
+    /**
+     * Bucket counts of one or two dimensions (nested) plus optional {@code fileSize} metrics, computed by
+     * a single aggregation-only search under the same query, filters, tenant scope and ACL as
+     * {@link #search}. Responses are cached for {@code ecm.search.pivot.cache-ttl-seconds} per request and
+     * caller authority set.
+     */
+    public PivotResponse pivot(PivotRequest request) {
+        SearchPivotAggregations.validate(request);
+        if (!searchEnabled) {
+            return PivotResponse.empty();
+        }
+
+        PivotCacheKey cacheKey = new PivotCacheKey(
+            request.toString(),
+            TenantContext.getCurrentTenantRootNodeId(),
+            searchAclFilter.authorityKey()
+        );
+        Cache<PivotCacheKey, PivotResponse> cache = pivotCache;
+        if (cache != null) {
+            PivotResponse cached = cache.getIfPresent(cacheKey);
+            if (cached != null) {
+                return cached;
+            }
+        }
+
+        try {
+            String searchTerm = request.getQuery() != null ? request.getQuery().trim() : "";
+            NativeQueryBuilder builder = NativeQuery.builder()
+                .withQuery(q -> q.bool(b -> applySearchCriteria(
+                    b, searchTerm, DEFAULT_SEARCH_FIELDS, request.getFilters(), request.getPathPrefix())))
+                .withMaxResults(0)
+                .withTrackTotalHits(true);
+            SearchPivotAggregations.build(request).forEach(builder::withAggregation);
+
+            SearchHits<NodeDocument> searchHits = elasticsearchOperations.search(
+                builder.build(), NodeDocument.class, IndexCoordinates.of(INDEX_NAME));
+            PivotResponse response = SearchPivotAggregations.parse(
+                request, searchHits.getTotalHits(), aggregatesOf(searchHits));
+            if (cache != null) {
+                cache.put(cacheKey, response);
+            }
+            return response;
+        } catch (LinkageError e) {
+            log.error("Pivot aggregation failed due to missing/invalid Elasticsearch client dependency", e);
+            return PivotResponse.empty();
+        } catch (Exception e) {
+            log.error("Pivot aggregation failed", e);
+            return PivotResponse.empty();
+        }
+    }
+
     /**
      * Get suggested filters based on current results
      */
@@ -261,6 +442,7 @@ public class FacetedSearchService {
         try {
             // First, get the source document
             CriteriaQuery query = new CriteriaQuery(new Criteria("id").is(documentId));
+            query.addSourceFilter(new FetchSourceFilter(new String[] {"name", "tags"}, null));
             SearchHits<NodeDocument> hits = elasticsearchOperations.search(
                 query, NodeDocument.class, IndexCoordinates.of(INDEX_NAME));
 
@@ -297,12 +479,13 @@ public class FacetedSearchService {
 
             CriteriaQuery similarQuery = new CriteriaQuery(criteria);
             similarQuery.setPageable(PageRequest.of(0, maxResults));
+            similarQuery.addSourceFilter(SearchHitProjection.sourceFilter(List.of()));
 
             SearchHits<NodeDocument> similarHits = elasticsearchOperations.search(
                 similarQuery, NodeDocument.class, IndexCoordinates.of(INDEX_NAME));
 
             return similarHits.stream()
-                .map(this::toSearchResult)
+                .map(SearchHitProjection::toSearchResult)
                 .collect(Collectors.toList());
 
         } catch (Exception e) {
@@ -312,33 +495,113 @@ public class FacetedSearchService {
     }
 
     /**
-     * Get search suggestions (autocomplete)
+     * Get search suggestions (autocomplete).
+     *
+     * <p>Matches the prefix against the {@code nameSuggest} type-ahead field under the same tenant and
+     * read-permission filters as search (including the sampled database re-check), and ranks names by
+     * relevance weighted with recency, how many users favorited the node and whether the current user
+     * did. Only {@code name} is fetched. Until {@link SearchIndexSchemaBackfill} has given every entry a
+     * {@code nameSuggest}, a phrase prefix on {@code name} matches the entries written before it existed.
      */
     public List<String> getSuggestions(String prefix, int maxSuggestions) {
-        if (!searchEnabled || prefix == null || prefix.length() < 2) {
+        if (!searchEnabled || prefix == null || prefix.trim().length() < 2) {
             return Collections.emptyList();
         }
 
+        String trimmed = prefix.trim();
+        int limit = Math.min(Math.max(maxSuggestions, 1), MAX_SUGGESTION_LIMIT);
+        long start = System.nanoTime();
         try {
-            Criteria criteria = new Criteria("name").startsWith(prefix.toLowerCase())
-                .and("deleted").is(false)
-                .and("archiveStatus").is("LIVE");
-            applyTenantWorkspaceScope(criteria);
-
-            CriteriaQuery query = new CriteriaQuery(criteria);
-            query.setPageable(PageRequest.of(0, maxSuggestions));
+            List<UUID> favoriteIds = resolveCurrentUserFavoriteIds();
+            boolean nameFallback = schemaBackfill != null && !schemaBackfill.isIndexCurrent();
+
+            NativeQuery query = NativeQuery.builder()
+                .withQuery(q -> q.functionScore(fs -> {
+                    fs.query(inner -> inner.bool(b -> {
+                        Query prefixQuery = suggestPrefixQuery(trimmed);
+                        if (nameFallback) {
+                            b.must(m -> m.bool(either -> either
+                                .should(prefixQuery)
+                                .should(s -> s.matchPhrasePrefix(mp -> mp.field("name").query(trimmed)))
+                                .minimumShouldMatch("1")));
+                        } else {
+                            b.must(prefixQuery);
+                        }
+                        b.filter(f -> f.term(t -> t.field("deleted").value(false)));
+                        b.filter(f -> f.term(t -> t.field("archiveStatus").value("LIVE")));
+                        applyTenantWorkspaceScopeFilter(b);
+                        applyReadPermissionFilter(b);
+                        return b;
+                    }));
+                    fs.functions(fn -> fn.gauss(g -> g
+                        .field("lastModifiedDate")
+                        .placement(p -> p
+                            .origin(JsonData.of("now"))
+                            .scale(JsonData.of(suggestRecencyScale))
+                            .decay(0.5))));
+                    fs.functions(fn -> fn.fieldValueFactor(fv -> fv
+                        .field("favoriteCount")
+                        .modifier(FieldValueFactorModifier.Log1p)
+                        .missing(0.0)));
+                    if (!favoriteIds.isEmpty()) {
+                        List<String> ids = favoriteIds.stream().map(UUID::toString).toList();
+                        fs.functions(fn -> fn
+                            .filter(f -> f.ids(i -> i.values(ids)))
+                            .weight(suggestFavoriteBoost));
+                    }
+                    return fs.scoreMode(FunctionScoreMode.Sum).boostMode(FunctionBoostMode.Multiply);
+                }))
+                .withSourceFilter(new FetchSourceFilter(new String[] {"name"}, null))
+                .withPageable(PageRequest.of(0, limit * 2))
+                .withTrackTotalHits(false)
+                .withTimeout(Duration.ofMillis(suggestTimeoutMs))
+                .build();
 
             SearchHits<NodeDocument> hits = elasticsearchOperations.search(
                 query, NodeDocument.class, IndexCoordinates.of(INDEX_NAME));
 
-            return hits.stream()
+            return filterAuthorizedHits(hits).stream()
                 .map(hit -> hit.getContent().getName())
+                .filter(name -> name != null && !name.isBlank())
                 .distinct()
+                .limit(limit)
                 .collect(Collectors.toList());
 
         } catch (Exception e) {
             log.error("Get suggestions failed for prefix: {}", prefix, e);
             return Collections.emptyList();
+        } finally {
+            if (meterRegistry != null) {
+                Timer.builder("search_suggest_duration")
+                    .publishPercentileHistogram()
+                    .register(meterRegistry)
+                    .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            }
+        }
+    }
+
+    private static Query suggestPrefixQuery(String prefix) {
+        return Query.of(q -> q.multiMatch(mm -> mm
+            .query(prefix)
+            .type(TextQueryType.BoolPrefix)
+            .operator(Operator.And)
+            .fields(SUGGEST_FIELD, SUGGEST_FIELD + "._2gram", SUGGEST_FIELD + "._3gram")
+        ));
+    }
+
+    private List<UUID> resolveCurrentUserFavoriteIds() {
+        if (favoriteRepository == null || suggestFavoriteBoost <= 0) {
+            return List.of();
+        }
+        try {
+            String username = securityService.getCurrentUser();
+            if (username == null || username.isBlank()) {
+                return List.of();
+            }
+            return favoriteRepository.findNodeIdsByUserId(username, PageRequest.of(0, MAX_BOOSTED_FAVORITES));
+        } catch (Exception e) {
+            log.debug("Favorite lookup for suggestions failed: {}", e.getMessage());
+            return List.of();
         }
     }
 
@@ -375,6 +638,7 @@ public class FacetedSearchService {
                     return b;
                 }))
                 .withSuggester(suggester)
+                .withMaxResults(0)
                 .build();
 
             SearchHits<NodeDocument> hits = elasticsearchOperations.search(
@@ -429,40 +693,11 @@ public class FacetedSearchService {
 
         NativeQueryBuilder builder = NativeQuery.builder()
             .withPageable(pageable)
-            .withTrackTotalHits(true);
-
-        builder.withQuery(q -> q.bool(b -> {
-            if (searchTerm.isBlank()) {
-                b.must(m -> m.matchAll(ma -> ma));
-            } else {
-                b.must(m -> m.multiMatch(mq -> mq
-                    .query(searchTerm)
-                    .fields(searchFields)
-                    .type(TextQueryType.BestFields)
-                    .operator(Operator.Or)
-                ));
-            }
-
-            if ((filters == null || filters.getFolderId() == null || filters.getFolderId().isBlank())
-                && request.getPathPrefix() != null
-                && !request.getPathPrefix().isBlank()) {
-                b.filter(f -> f.prefix(p -> p.field("path").value(request.getPathPrefix())));
-            }
-
-            if (filters == null || !filters.isIncludeDeleted()) {
-                b.filter(f -> f.term(t -> t.field("deleted").value(false)));
-            }
-            b.filter(f -> f.term(t -> t.field("archiveStatus").value("LIVE")));
-            applyTenantWorkspaceScopeFilter(b);
-
-            if (filters != null) {
-                applyFilters(b, filters);
-            }
+            .withTrackTotalHits(true)
+            .withSourceFilter(SearchHitProjection.sourceFilter(request.getResultProperties()));
 
-            applyReadPermissionFilter(b);
-
-            return b;
-        }));
+        builder.withQuery(q -> q.bool(b ->
+            applySearchCriteria(b, searchTerm, searchFields, filters, request.getPathPrefix())));
 
         applyAggregations(builder, resolveFacetFields(request));
 
@@ -473,25 +708,71 @@ public class FacetedSearchService {
         return builder.build();
     }
 
-    private void applyReadPermissionFilter(BoolQuery.Builder bool) {
-        if (securityService.hasRole("ROLE_ADMIN")) {
-            return;
+    private NativeQueryBuilder buildCursorQuery(FacetedSearchRequest request, boolean highlight) {
+        String searchTerm = request.getQuery() != null ? request.getQuery().trim() : "";
+        List<String> searchFields = resolveSearchFields(request);
+
+        NativeQueryBuilder builder = NativeQuery.builder()
+            .withSourceFilter(SearchHitProjection.sourceFilter(request.getResultProperties()))
+            .withQuery(q -> q.bool(b ->
+                applySearchCriteria(b, searchTerm, searchFields, request.getFilters(), request.getPathPrefix())))
+            .withSort(s -> s.score(sc -> sc.order(SortOrder.Desc)));
+        if (highlight && !searchTerm.isBlank()) {
+            applyHighlight(builder, searchFields);
+        }
+        return builder;
+    }
+
+    private SearchPointInTimePager cursorPager() {
+        return new SearchPointInTimePager(elasticsearchOperations, Duration.ofSeconds(Math.max(1L, cursorKeepAliveSeconds)));
+    }
+
+    private static int resolveCursorPageSize(SimplePageRequest pageable) {
+        int size = pageable != null && pageable.getSize() > 0 ? pageable.getSize() : 20;
+        return Math.min(size, MAX_CURSOR_PAGE_SIZE);
+    }
+
+    private BoolQuery.Builder applySearchCriteria(
+        BoolQuery.Builder b,
+        String searchTerm,
+        List<String> searchFields,
+        SearchFilters filters,
+        String pathPrefix
+    ) {
+        if (searchTerm.isBlank()) {
+            b.must(m -> m.matchAll(ma -> ma));
+        } else {
+            b.must(m -> m.multiMatch(mq -> mq
+                .query(searchTerm)
+                .fields(searchFields)
+                .type(TextQueryType.BestFields)
+                .operator(Operator.Or)
+            ));
         }
 
-        String username = securityService.getCurrentUser();
-        var authorities = securityService.getUserAuthorities(username);
-        if (authorities == null || authorities.isEmpty()) {
-            bool.filter(f -> f.term(t -> t.field("permissions").value("__none__")));
-            return;
+        if ((filters == null || filters.getFolderId() == null || filters.getFolderId().isBlank())
+            && pathPrefix != null
+            && !pathPrefix.isBlank()) {
+            b.filter(f -> f.prefix(p -> p.field("path").value(pathPrefix)));
         }
 
-        bool.filter(f -> f.bool(b -> {
-            for (String authority : authorities) {
-                b.should(s -> s.term(t -> t.field("permissions").value(authority)));
-            }
-            b.minimumShouldMatch("1");
-            return b;
-        }));
+        if (filters == null || !filters.isIncludeDeleted()) {
+            b.filter(f -> f.term(t -> t.field("deleted").value(false)));
+        }
+        b.filter(f -> f.term(t -> t.field("archiveStatus").value("LIVE")));
+        applyTenantWorkspaceScopeFilter(b);
+
+        if (filters != null) {
+            applyFilters(b, filters);
+        }
+
+        applyReadPermissionFilter(b);
+
+        return b;
+    }
+
+    private void applyReadPermissionFilter(BoolQuery.Builder bool) {
+        searchAclFilter.apply(bool);
     }
 
     private void applyHighlight(NativeQueryBuilder builder, List<String> fields) {
@@ -721,7 +1002,7 @@ public class FacetedSearchService {
         if (request.getBoostFields() != null && !request.getBoostFields().isEmpty()) {
             return request.getBoostFields();
         }
-        return List.of("name^2", "title^2", "content", "textContent", "description", "extractedText");
+        return DEFAULT_SEARCH_FIELDS;
     }
 
     private void applyAggregations(NativeQueryBuilder builder, List<String> facetFields) {
@@ -842,6 +1123,19 @@ public class FacetedSearchService {
         return facets;
     }
 
+    private Map<String, Aggregate> aggregatesOf(SearchHits<NodeDocument> searchHits) {
+        if (searchHits == null || !(searchHits.getAggregations() instanceof ElasticsearchAggregations aggregations)) {
+            return Map.of();
+        }
+        Map<String, Aggregate> aggregates = new HashMap<>();
+        aggregations.aggregationsAsMap().forEach((name, aggregation) -> {
+            if (aggregation != null && aggregation.aggregation() != null) {
+                aggregates.put(name, aggregation.aggregation().getAggregate());
+            }
+        });
+        return aggregates;
+    }
+
     private Aggregate extractAggregate(
         Map<String, org.springframework.data.elasticsearch.client.elc.ElasticsearchAggregation> aggregationsMap,
         String name
@@ -967,49 +1261,8 @@ public class FacetedSearchService {
         return facets;
     }
 
-    private List<SearchHit<NodeDocument>> filterAuthorizedHits(SearchHits<NodeDocument> searchHits) {
-        if (securityService.hasRole("ROLE_ADMIN")) {
-            return searchHits.stream().collect(Collectors.toList());
-        }
-
-        Map<UUID, Node> nodesById = loadNodes(searchHits);
-        List<SearchHit<NodeDocument>> authorized = new ArrayList<>();
-        for (SearchHit<NodeDocument> hit : searchHits) {
-            UUID nodeId = toUuid(hit.getContent().getId());
-            Node node = nodeId != null ? nodesById.get(nodeId) : null;
-            if (node != null && securityService.hasPermission(node, PermissionType.READ)) {
-                authorized.add(hit);
-            }
-        }
-        return authorized;
-    }
-
-    private Map<UUID, Node> loadNodes(SearchHits<NodeDocument> searchHits) {
-        Map<UUID, Node> nodesById = new LinkedHashMap<>();
-        List<UUID> ids = searchHits.stream()
-            .map(hit -> toUuid(hit.getContent().getId()))
-            .filter(id -> id != null)
-            .distinct()
-            .collect(Collectors.toList());
-
-        if (ids.isEmpty()) {
-            return nodesById;
-        }
-
-        nodeRepository.findAllById(ids).forEach(node -> nodesById.put(node.getId(), node));
-        return nodesById;
-    }
-
-    private UUID toUuid(String value) {
-        if (value == null || value.isBlank()) {
-            return null;
-        }
-        try {
-            return UUID.fromString(value);
-        } catch (IllegalArgumentException ex) {
-            log.warn("Invalid node id in search index: {}", value);
-            return null;
-        }
+    private List<SearchHit<NodeDocument>> filterAuthorizedHits(Iterable<SearchHit<NodeDocument>> searchHits) {
+        return searchAclFilter.verify(searchHits);
     }
 
     private List<FacetValue> toFacetValues(Map<String, Integer> counts) {
@@ -1019,65 +1272,6 @@ public class FacetedSearchService {
             .collect(Collectors.toList());
     }
 
-    private SearchResult toSearchResult(SearchHit<NodeDocument> hit) {
-        NodeDocument doc = hit.getContent();
-        Map<String, Object> properties = doc.getProperties() != null ? doc.getProperties() : Map.of();
-        Map<String, List<String>> highlights = hit.getHighlightFields();
-        String effectivePreviewStatus = PreviewStatusFilterHelper.resolveEffectiveStatus(
-            doc.getPreviewStatus(),
-            doc.getMimeType(),
-            doc.getPreviewFailureReason()
-        );
-        String effectivePreviewFailureReason = PreviewStatusFilterHelper.resolveEffectiveFailureReason(
-            doc.getPreviewStatus(),
-            doc.getMimeType(),
-            doc.getPreviewFailureReason()
-        );
-        String effectivePreviewFailureCategory = PreviewStatusFilterHelper.resolveEffectiveFailureCategory(
-            doc.getPreviewStatus(),
-            doc.getMimeType(),
-            doc.getPreviewFailureReason(),
-            doc.getPreviewFailureCategory()
-        );
-        return SearchResult.builder()
-            .id(doc.getId())
-            .name(doc.getName())
-            .description(doc.getDescription())
-            .path(doc.getPath())
-            .nodeType(doc.getNodeType() != null ? doc.getNodeType().name() : null)
-            .parentId(doc.getParentId())
-            .mimeType(doc.getMimeType())
-            .fileSize(doc.getFileSize())
-            .currentVersionLabel(doc.getVersionLabel())
-            .createdBy(doc.getCreatedBy())
-            .createdDate(doc.getCreatedDate())
-            .lastModifiedBy(doc.getLastModifiedBy())
-            .lastModifiedDate(doc.getLastModifiedDate())
-            .score(hit.getScore())
-            .highlights(highlights)
-            .matchFields(SearchHighlightHelper.resolveMatchFields(highlights))
-            .highlightSummary(SearchHighlightHelper.resolveHighlightSummary(highlights))
-            .tags(doc.getTags() != null ? List.copyOf(doc.getTags()) : List.of())
-            .categories(doc.getCategories() != null ? List.copyOf(doc.getCategories()) : List.of())
-            .correspondent(doc.getCorrespondent())
-            .record(SearchRecordProjectionHelper.isRecordProjection(properties))
-            .declaredBy(readString(properties.get("rm:declaredBy")))
-            .declaredAt(readString(properties.get("rm:declaredAt")))
-            .declaredVersionLabel(readString(properties.get("rm:declaredVersionLabel")))
-            .declarationComment(readString(properties.get("rm:declarationComment")))
-            .recordCategoryId(readString(properties.get("rm:recordCategoryId")))
-            .recordCategoryName(readString(properties.get("rm:recordCategoryName")))
-            .recordCategoryPath(readString(properties.get("rm:recordCategoryPath")))
-            .previewStatus(effectivePreviewStatus)
-            .previewFailureReason(effectivePreviewFailureReason)
-            .previewFailureCategory(effectivePreviewFailureCategory)
-            .build();
-    }
-
-    private String readString(Object value) {
-        return value != null ? value.toString() : null;
-    }
-
     private String getMimeTypeLabel(String mimeType) {
         if (mimeType == null) return "Unknown";
 
@@ -1107,6 +1301,8 @@ public class FacetedSearchService {
         private List<String> facetFields;
         private List<String> boostFields;
         private String pathPrefix;
+        /** Node properties to return with each result; only these are fetched from the index. */
+        private List<String> resultProperties;
     }
 
     @lombok.Data
@@ -1146,4 +1342,77 @@ public class FacetedSearchService {
         private String value;
         private Integer count;
     }
+
+    /**
+     * Aggregation-only request for {@link #pivot}. The first dimension forms the top-level buckets, the
+     * optional second is nested inside each of them.
+     */
+    @lombok.Data
+    public static class PivotRequest {
+        private String query;
+        private SearchFilters filters;
+        private String pathPrefix;
+        private List<PivotDimension> dimensions;
+        private List<PivotMetric> metrics;
+    }
+
+    @lombok.Data
+    @lombok.NoArgsConstructor
+    @lombok.AllArgsConstructor
+    public static class PivotDimension {
+        private String field;
+        /** Buckets to return for terms fields (default 10, at most 100). */
+        private Integer size;
+        /** Calendar interval for date fields: day, week, month (default), quarter or year. */
+        private String interval;
+        /** Only return buckets with these keys. */
+        private List<String> values;
+
+        public static PivotDimension of(String field) {
+            return new PivotDimension(field, null, null, null);
+        }
+    }
+
+    @lombok.Data
+    @lombok.NoArgsConstructor
+    @lombok.AllArgsConstructor
+    public static class PivotMetric {
+        private String field;
+        /** sum, avg, min or max. */
+        private String type;
+    }
+
+    @lombok.Data
+    @lombok.Builder
+    @lombok.NoArgsConstructor
+    @lombok.AllArgsConstructor
+    public static class PivotResponse {
+        private long totalHits;
+        private Map<String, Double> metrics;
+        private List<PivotBucket> buckets;
+        /** Un-nested bucket counts of every dimension, keyed by field. */
+        private Map<String, List<PivotBucket>> totals;
+
+        public static PivotResponse empty() {
+            return PivotResponse.builder()
+                .totalHits(0)
+                .metrics(Map.of())
+                .buckets(List.of())
+                .totals(Map.of())
+                .build();
+        }
+    }
+
+    @lombok.Data
+    @lombok.NoArgsConstructor
+    @lombok.AllArgsConstructor
+    public static class PivotBucket {
+        private String key;
+        private long count;
+        private Map<String, Double> metrics;
+        private List<PivotBucket> buckets;
+    }
+
+    private record PivotCacheKey(String request, UUID tenantRootNodeId, String authorityKey) {
+    }
 }
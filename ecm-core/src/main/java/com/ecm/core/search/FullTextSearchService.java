@@ -3,7 +3,6 @@ package com.ecm.core.search;
 import com.ecm.core.config.TenantContext;
 import com.ecm.core.entity.Document;
 import com.ecm.core.entity.Node;
-import com.ecm.core.entity.Permission.PermissionType;
 import com.ecm.core.repository.DocumentRepository;
 import com.ecm.core.repository.NodeRepository;
 import com.ecm.core.service.SecurityService;
@@ -36,9 +35,10 @@ import org.springframework.data.elasticsearch.core.query.highlight.HighlightPara
 import org.springframework.data.elasticsearch.core.query.Query;
 import org.springframework.stereotype.Service;
 
+import java.io.IOException;
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
-import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
@@ -65,14 +65,12 @@ public class FullTextSearchService {
     private final NodeRepository nodeRepository;
     private final SecurityService securityService;
     private final com.ecm.core.service.NodePropertyEncryptionService nodePropertyEncryptionService;
+    private final SearchAclFilter searchAclFilter;
 
     private static final List<String> SEARCH_FIELDS = List.of(
         "name^2",
         "description",
         "content",
-        "textContent",
-        "extractedText",
-        "metadata.extractedText",
         "title"
     );
 
@@ -80,14 +78,19 @@ public class FullTextSearchService {
         "name",
         "description",
         "content",
-        "textContent",
-        "extractedText",
-        "metadata.extractedText",
         "title"
     );
     @Value("${ecm.search.enabled:true}")
     private boolean searchEnabled;
 
+    @Value("${ecm.search.cursor.keep-alive-seconds:120}")
+    private long cursorKeepAliveSeconds = 120L;
+
+    @Value("${ecm.search.export.page-size:500}")
+    private int exportPageSize = 500;
+
+    private static final int MAX_CURSOR_PAGE_SIZE = 1000;
+
     private static final String INDEX_NAME = "ecm_documents";
     private static final DateTimeFormatter ES_DATE_TIME_FORMAT =
         DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss.SSS");
@@ -101,7 +104,8 @@ public class FullTextSearchService {
         NodeRepository nodeRepository,
         SecurityService securityService
     ) {
-        this(elasticsearchOperations, documentRepository, nodeRepository, securityService, null);
+        this(elasticsearchOperations, documentRepository, nodeRepository, securityService, null,
+            new SearchAclFilter(securityService, nodeRepository));
     }
 
     /**
@@ -154,7 +158,7 @@ public class FullTextSearchService {
             SearchHits<NodeDocument> searchHits = elasticsearchOperations.search(
                 query, NodeDocument.class, IndexCoordinates.of(INDEX_NAME));
 
-            List<SearchResult> results = filterAuthorizedResults(searchHits);
+            List<SearchResult> results = filterAuthorizedResults(searchHits, List.of());
 
             long totalHits = searchHits.getTotalHits();
             return new PageImpl<>(results, pageable, totalHits);
@@ -185,7 +189,7 @@ public class FullTextSearchService {
             SearchHits<NodeDocument> searchHits = elasticsearchOperations.search(
                 query, NodeDocument.class, IndexCoordinates.of(INDEX_NAME));
 
-            List<SearchResult> results = filterAuthorizedResults(searchHits);
+            List<SearchResult> results = filterAuthorizedResults(searchHits, request.getResultProperties());
 
             long totalHits = searchHits.getTotalHits();
             return new PageImpl<>(results, pageable, totalHits);
@@ -205,6 +209,60 @@ public class FullTextSearchService {
         }
     }
 
+    /**
+     * Advanced search paged with an opaque cursor ({@code search_after} over a point in time) instead of
+     * page numbers. Pass {@code null} for the first page and the returned {@code nextCursor} for the next;
+     * the page number of {@code request.pageable} is ignored.
+     *
+     * @throws IllegalArgumentException when the cursor is malformed or its point in time has expired
+     */
+    public SearchCursorPage advancedSearchAfter(SearchRequest request, String cursor) {
+        SearchCursor position = SearchCursor.decode(cursor);
+        if (!searchEnabled) {
+            return SearchCursorPage.empty();
+        }
+
+        int size = resolveCursorPageSize(request.getPageable());
+        try {
+            SearchPointInTimePager.PagedHits page = cursorPager().page(
+                () -> buildAdvancedQueryBuilder(request, PageRequest.of(0, size)), size, position);
+            List<SearchResult> results = filterAuthorizedResults(page.hits(), request.getResultProperties());
+            return new SearchCursorPage(results, page.totalHits(), page.next() != null ? page.next().encode() : null);
+        } catch (LinkageError e) {
+            log.error("Cursor search failed due to missing/invalid Elasticsearch client dependency", e);
+            return SearchCursorPage.empty();
+        } catch (RuntimeException e) {
+            if (position == null) {
+                log.error("Cursor search failed", e);
+                return SearchCursorPage.empty();
+            }
+            if (SearchPointInTimePager.isPointInTimeGone(e)) {
+                throw new IllegalArgumentException("Search cursor is no longer valid, restart from the first page", e);
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Write every hit of an advanced search to {@code writer}, reading {@code ecm.search.export.page-size}
+     * hits at a time from a point in time.
+     *
+     * @return number of rows written
+     */
+    public long exportAdvancedSearch(SearchRequest request, SearchResultExportWriter writer) throws IOException {
+        if (!searchEnabled) {
+            return 0L;
+        }
+        int size = Math.max(1, exportPageSize);
+        cursorPager().forEachPage(() -> buildAdvancedQueryBuilder(request, PageRequest.of(0, size)), size, hits -> {
+            for (SearchResult result : filterAuthorizedResults(hits, request.getResultProperties())) {
+                writer.write(result);
+            }
+            writer.flush();
+        });
+        return writer.rows();
+    }
+
     /**
      * Rebuild the entire search index from PostgreSQL.
      * This is the recovery mechanism when ES data is lost.
@@ -241,7 +299,7 @@ public class FullTextSearchService {
             Page<Document> documentPage;
 
             do {
-                documentPage = documentRepository.findByDeletedFalse(PageRequest.of(pageNum, batchSize));
+                documentPage = documentRepository.findWithTextByDeletedFalse(PageRequest.of(pageNum, batchSize));
                 List<Document> documents = documentPage.getContent();
 
                 for (Document doc : documents) {
@@ -251,6 +309,8 @@ public class FullTextSearchService {
                             ? nodePropertyEncryptionService.resolveIndexableProperties(doc)
                             : doc.getProperties());
                         nodeDoc.setPermissions(securityService.resolveReadAuthorities(doc));
+                        nodeDoc.setDeniedPermissions(securityService.resolveDeniedReadAuthorities(doc));
+                        nodeDoc.setOwnerDepartment(securityService.resolveOwnerDepartment(doc.getCreatedBy()));
                         elasticsearchOperations.save(nodeDoc, IndexCoordinates.of(INDEX_NAME));
                         totalIndexed++;
                         rebuildProgress.incrementAndGet();
@@ -279,50 +339,22 @@ public class FullTextSearchService {
         }
     }
 
-    private List<SearchResult> filterAuthorizedResults(SearchHits<NodeDocument> searchHits) {
-        if (securityService.hasRole("ROLE_ADMIN")) {
-            return searchHits.stream()
-                .map(this::toSearchResult)
-                .collect(Collectors.toList());
-        }
-
-        Map<UUID, Node> nodesById = loadNodes(searchHits);
-        return searchHits.stream()
-            .filter(hit -> {
-                UUID nodeId = toUuid(hit.getContent().getId());
-                Node node = nodeId != null ? nodesById.get(nodeId) : null;
-                return node != null && securityService.hasPermission(node, PermissionType.READ);
-            })
-            .map(this::toSearchResult)
-            .collect(Collectors.toList());
+    private SearchPointInTimePager cursorPager() {
+        return new SearchPointInTimePager(elasticsearchOperations, Duration.ofSeconds(Math.max(1L, cursorKeepAliveSeconds)));
     }
 
-    private Map<UUID, Node> loadNodes(SearchHits<NodeDocument> searchHits) {
-        Map<UUID, Node> nodesById = new LinkedHashMap<>();
-        List<UUID> ids = searchHits.stream()
-            .map(hit -> toUuid(hit.getContent().getId()))
-            .filter(id -> id != null)
-            .distinct()
-            .collect(Collectors.toList());
-
-        if (ids.isEmpty()) {
-            return nodesById;
-        }
-
-        nodeRepository.findAllById(ids).forEach(node -> nodesById.put(node.getId(), node));
-        return nodesById;
+    private static int resolveCursorPageSize(SimplePageRequest pageable) {
+        int size = pageable != null && pageable.getSize() > 0 ? pageable.getSize() : 20;
+        return Math.min(size, MAX_CURSOR_PAGE_SIZE);
     }
 
-    private UUID toUuid(String value) {
-        if (value == null || value.isBlank()) {
-            return null;
-        }
-        try {
-            return UUID.fromString(value);
-        } catch (IllegalArgumentException ex) {
-            log.warn("Invalid node id in search index: {}", value);
-            return null;
-        }
+    private List<SearchResult> filterAuthorizedResults(
+        Iterable<SearchHit<NodeDocument>> searchHits,
+        List<String> resultProperties
+    ) {
+        return searchAclFilter.verify(searchHits).stream()
+            .map(hit -> SearchHitProjection.toSearchResult(hit, resultProperties))
+            .collect(Collectors.toList());
     }
 
     /**
@@ -394,7 +426,8 @@ public class FullTextSearchService {
 
         NativeQueryBuilder builder = NativeQuery.builder()
             .withPageable(pageable)
-            .withTrackTotalHits(true);
+            .withTrackTotalHits(true)
+            .withSourceFilter(SearchHitProjection.sourceFilter(List.of()));
 
         builder.withQuery(q -> q.bool(b -> {
             if (searchTerm.isEmpty()) {
@@ -427,12 +460,17 @@ public class FullTextSearchService {
     }
 
     private Query buildAdvancedQuery(SearchRequest request, Pageable pageable) {
+        return buildAdvancedQueryBuilder(request, pageable).build();
+    }
+
+    private NativeQueryBuilder buildAdvancedQueryBuilder(SearchRequest request, Pageable pageable) {
         String searchTerm = request.getQuery() != null ? request.getQuery().trim() : "";
         SearchFilters filters = request.getFilters();
 
         NativeQueryBuilder builder = NativeQuery.builder()
             .withPageable(pageable)
-            .withTrackTotalHits(true);
+            .withTrackTotalHits(true)
+            .withSourceFilter(SearchHitProjection.sourceFilter(request.getResultProperties()));
 
         builder.withQuery(q -> q.bool(b -> {
             // Text search
@@ -510,7 +548,7 @@ public class FullTextSearchService {
 
         applySort(builder, request.getSortBy(), request.getSortDirection());
 
-        return builder.build();
+        return builder;
     }
 
     private void applyFolderScopeFilter(BoolQuery.Builder bool, String folderId, boolean includeChildren) {
@@ -582,24 +620,7 @@ public class FullTextSearchService {
     }
 
     private void applyReadPermissionFilter(BoolQuery.Builder bool) {
-        if (securityService.hasRole("ROLE_ADMIN")) {
-            return;
-        }
-
-        String username = securityService.getCurrentUser();
-        var authorities = securityService.getUserAuthorities(username);
-        if (authorities == null || authorities.isEmpty()) {
-            bool.filter(f -> f.term(t -> t.field("permissions").value("__none__")));
-            return;
-        }
-
-        bool.filter(f -> f.bool(b -> {
-            for (String authority : authorities) {
-                b.should(s -> s.term(t -> t.field("permissions").value(authority)));
-            }
-            b.minimumShouldMatch("1");
-            return b;
-        }));
+        searchAclFilter.apply(bool);
     }
 
     private void applySort(NativeQueryBuilder builder, String sortBy, String sortDirection) {
@@ -739,69 +760,12 @@ public class FullTextSearchService {
         }));
     }
 
-    private SearchResult toSearchResult(SearchHit<NodeDocument> hit) {
-        NodeDocument doc = hit.getContent();
-        Map<String, Object> properties = doc.getProperties() != null ? doc.getProperties() : Map.of();
-        Map<String, List<String>> highlights = hit.getHighlightFields();
-        String effectivePreviewStatus = PreviewStatusFilterHelper.resolveEffectiveStatus(
-            doc.getPreviewStatus(),
-            doc.getMimeType(),
-            doc.getPreviewFailureReason()
-        );
-        String effectivePreviewFailureReason = PreviewStatusFilterHelper.resolveEffectiveFailureReason(
-            doc.getPreviewStatus(),
-            doc.getMimeType(),
-            doc.getPreviewFailureReason()
-        );
-        String effectivePreviewFailureCategory = PreviewStatusFilterHelper.resolveEffectiveFailureCategory(
-            doc.getPreviewStatus(),
-            doc.getMimeType(),
-            doc.getPreviewFailureReason(),
-            doc.getPreviewFailureCategory()
-        );
-        return SearchResult.builder()
-            .id(doc.getId())
-            .name(doc.getName())
-            .description(doc.getDescription())
-            .path(doc.getPath())
-            .nodeType(doc.getNodeType() != null ? doc.getNodeType().name() : null)
-            .parentId(doc.getParentId())
-            .mimeType(doc.getMimeType())
-            .fileSize(doc.getFileSize())
-            .currentVersionLabel(doc.getVersionLabel())
-            .createdBy(doc.getCreatedBy())
-            .createdDate(doc.getCreatedDate())
-            .lastModifiedBy(doc.getLastModifiedBy())
-            .lastModifiedDate(doc.getLastModifiedDate())
-            .score(hit.getScore())
-            .highlights(highlights)
-            .matchFields(SearchHighlightHelper.resolveMatchFields(highlights))
-            .highlightSummary(SearchHighlightHelper.resolveHighlightSummary(highlights))
-            .tags(doc.getTags() != null ? List.copyOf(doc.getTags()) : List.of())
-            .categories(doc.getCategories() != null ? List.copyOf(doc.getCategories()) : List.of())
-            .correspondent(doc.getCorrespondent())
-            .record(SearchRecordProjectionHelper.isRecordProjection(properties))
-            .declaredBy(readString(properties.get("rm:declaredBy")))
-            .declaredAt(readString(properties.get("rm:declaredAt")))
-            .declaredVersionLabel(readString(properties.get("rm:declaredVersionLabel")))
-            .declarationComment(readString(properties.get("rm:declarationComment")))
-            .recordCategoryId(readString(properties.get("rm:recordCategoryId")))
-            .recordCategoryName(readString(properties.get("rm:recordCategoryName")))
-            .recordCategoryPath(readString(properties.get("rm:recordCategoryPath")))
-            .previewStatus(effectivePreviewStatus)
-            .previewFailureReason(effectivePreviewFailureReason)
-            .previewFailureCategory(effectivePreviewFailureCategory)
-            .build();
-    }
-
-    private String readString(Object value) {
-        return value != null ? value.toString() : null;
-    }
-
     private NodeDocument createNodeDocument(Document doc) {
         // Keep legacy helper for compatibility; delegate to central builder to ensure fields stay in sync
         NodeDocument nodeDoc = NodeDocument.fromNode(doc);
         nodeDoc.setPermissions(securityService.resolveReadAuthorities(doc));
+        nodeDoc.setDeniedPermissions(securityService.resolveDeniedReadAuthorities(doc));
+        nodeDoc.setOwnerDepartment(securityService.resolveOwnerDepartment(doc.getCreatedBy()));
         return nodeDoc;
     }
 }
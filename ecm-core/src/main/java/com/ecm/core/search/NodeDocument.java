@@ -22,15 +22,36 @@ import java.util.stream.Collectors;
 @Document(indexName = "ecm_documents")
 @Setting(replicas = 1, shards = 2)
 public class NodeDocument {
+
+    /**
+     * Layout version written by {@link #fromNode}. Bump it when existing entries must gain a new field;
+     * {@link SearchIndexSchemaBackfill} rewrites older entries from the database.
+     * 1: {@code nameSuggest}, {@code deniedPermissions}, and extracted text only in {@code content}
+     * (older entries also carried it in {@code textContent}, {@code extractedText} and
+     * {@code metadata.extractedText}).
+     * 2: {@code ownerDepartment}.
+     */
+    public static final int SCHEMA_VERSION = 2;
     
     @Id
     private String id;
+
+    @Field(type = FieldType.Integer)
+    private Integer schemaVersion;
     
     @Field(type = FieldType.Text, analyzer = "standard")
     private String name;
 
     @Field(type = FieldType.Keyword)
     private String nameSort;
+
+    /** Type-ahead copy of {@code name}, with 2- and 3-gram subfields for prefix suggestions. */
+    @Field(type = FieldType.Search_As_You_Type, analyzer = "standard")
+    private String nameSuggest;
+
+    /** Number of users who marked the node a favorite; popularity signal for suggestions. */
+    @Field(type = FieldType.Integer)
+    private Integer favoriteCount;
     
     @Field(type = FieldType.Text, analyzer = "standard")
     private String description;
@@ -50,15 +71,9 @@ public class NodeDocument {
     @Field(type = FieldType.Long)
     private Long fileSize;
     
-    @Field(type = FieldType.Text, analyzer = "standard")
-    private String textContent;
-
     @Field(type = FieldType.Text, analyzer = "standard")
     private String content;
 
-    @Field(type = FieldType.Text, analyzer = "standard")
-    private String extractedText;
-
     @Field(type = FieldType.Text, analyzer = "standard")
     private String title;
 
@@ -85,6 +100,10 @@ public class NodeDocument {
     
     @Field(type = FieldType.Keyword)
     private String createdBy;
+
+    /** Department of the {@code createdBy} user, for same-department read access. */
+    @Field(type = FieldType.Keyword)
+    private String ownerDepartment;
     
     @Field(type = FieldType.Date, format = DateFormat.date_hour_minute_second_millis)
     private LocalDateTime createdDate;
@@ -127,12 +146,17 @@ public class NodeDocument {
     
     @Field(type = FieldType.Keyword)
     private Set<String> permissions;
+
+    @Field(type = FieldType.Keyword)
+    private Set<String> deniedPermissions;
     
     public static NodeDocument fromNode(Node node) {
         NodeDocument doc = new NodeDocument();
         doc.setId(node.getId().toString());
+        doc.setSchemaVersion(SCHEMA_VERSION);
         doc.setName(node.getName());
         doc.setNameSort(node.getName() != null ? node.getName().toLowerCase() : null);
+        doc.setNameSuggest(node.getName());
         doc.setDescription(node.getDescription());
         doc.setPath(node.getPath());
         doc.setNodeType(node.getNodeType());
@@ -155,10 +179,7 @@ public class NodeDocument {
             doc.setVersionLabel(document.getVersionLabel());
             doc.setCheckedOut(document.isCheckedOut());
             doc.setCheckoutUser(document.getCheckoutUser());
-            // Store extracted text in both textContent and content for search fields
-            doc.setTextContent(document.getTextContent());
             doc.setContent(document.getTextContent());
-            doc.setExtractedText(document.getTextContent());
             doc.setPreviewStatus(SearchPreviewProjection.projectPreviewStatus(document));
             doc.setPreviewFailureReason(SearchPreviewProjection.projectPreviewFailureReason(document));
             doc.setPreviewFailureCategory(SearchPreviewProjection.projectPreviewFailureCategory(document));
@@ -0,0 +1,256 @@
+package com.ecm.core.search;
+
+import com.ecm.core.entity.Node;
+import com.ecm.core.entity.Permission.PermissionType;
+import com.ecm.core.repository.NodeRepository;
+import com.ecm.core.service.SecurityService;
+import co.elastic.clients.elasticsearch._types.FieldValue;
+import co.elastic.clients.elasticsearch._types.query_dsl.BoolQuery;
+import co.elastic.clients.elasticsearch._types.query_dsl.Query;
+import co.elastic.clients.json.JsonData;
+import co.elastic.clients.util.ObjectBuilder;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.codec.digest.DigestUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.elasticsearch.core.SearchHit;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Read-permission enforcement for searches against {@code ecm_documents}.
+ *
+ * <p>The index stores the read authorities of every node in {@link NodeDocument#getPermissions()} and
+ * the authorities with a READ deny anywhere up its inheritance chain in
+ * {@link NodeDocument#getDeniedPermissions()}, so ACLs are applied inside Elasticsearch the way
+ * {@link SecurityService#hasPermission} evaluates them: a node matches when the caller owns it (or a
+ * dynamic authority grants READ by ownership, see {@link SecurityService#resolveReadableOwners}), when
+ * its owner's department is one the caller may read by department
+ * ({@link SecurityService#resolveReadableOwnerDepartments}), or when one of the caller's expanded
+ * authorities ({@link SecurityService#getUserAuthorities}, cached per user) is granted READ and none of
+ * them is denied.
+ *
+ * <p>All of this is decided inside the query, so pages are full and total hits and aggregations only
+ * count readable documents. The index is kept exact for it: a user's department change reindexes the
+ * nodes they own, and expired grants and denies are reindexed by {@code PermissionExpiryScheduler}.
+ * Until {@link SearchIndexSchemaBackfill} has rewritten every entry to {@link NodeDocument#SCHEMA_VERSION},
+ * older entries, which may lack the deny list or owner department, match by ownership only.
+ *
+ * <p>{@link #verify} optionally re-checks a {@code ecm.search.acl.verify-sample-rate} share of hits
+ * against the database, counting and dropping those that fail in {@code search_acl_stale_hits_total}.
+ * It exists to measure index lag; {@code 0} (the default) trusts the index and never shortens a page.
+ */
+@Slf4j
+@Component
+public class SearchAclFilter {
+
+    static final String PERMISSIONS_FIELD = "permissions";
+    static final String DENIED_PERMISSIONS_FIELD = "deniedPermissions";
+    static final String CREATED_BY_FIELD = "createdBy";
+    static final String OWNER_DEPARTMENT_FIELD = "ownerDepartment";
+    static final String SCHEMA_VERSION_FIELD = "schemaVersion";
+
+    private static final String NO_AUTHORITY = "__none__";
+
+    private final SecurityService securityService;
+    private final NodeRepository nodeRepository;
+
+    @Autowired(required = false)
+    private MeterRegistry meterRegistry;
+
+    @Autowired(required = false)
+    private SearchIndexSchemaBackfill schemaBackfill;
+
+    @Value("${ecm.search.acl.verify-sample-rate:0.0}")
+    private double verifySampleRate = 0.0;
+
+    public SearchAclFilter(SecurityService securityService, NodeRepository nodeRepository) {
+        this.securityService = securityService;
+        this.nodeRepository = nodeRepository;
+    }
+
+    /**
+     * Whether the caller bypasses ACL checks.
+     */
+    public boolean isUnrestricted() {
+        return securityService.hasRole("ROLE_ADMIN");
+    }
+
+    /**
+     * Restrict the query to documents the caller owns or reads by the owner's department, or that one of
+     * the caller's authorities may read and none of them is denied. While the schema backfill is pending,
+     * the department and grant branches only match entries already at {@link NodeDocument#SCHEMA_VERSION}.
+     */
+    public void apply(BoolQuery.Builder bool) {
+        if (isUnrestricted()) {
+            return;
+        }
+
+        List<FieldValue> values = readAuthorities().stream().map(FieldValue::of).toList();
+        List<FieldValue> owners = readableOwners().stream().map(FieldValue::of).toList();
+        List<FieldValue> departments = readableOwnerDepartments().stream().map(FieldValue::of).toList();
+        boolean requireCurrentSchema = !isIndexCurrent();
+        bool.filter(f -> f.bool(acl -> {
+            if (!owners.isEmpty()) {
+                acl.should(s -> s.terms(t -> t.field(CREATED_BY_FIELD).terms(v -> v.value(owners))));
+            }
+            if (!departments.isEmpty()) {
+                acl.should(s -> s.bool(department -> {
+                    department.filter(d -> d.terms(t -> t.field(OWNER_DEPARTMENT_FIELD).terms(v -> v.value(departments))));
+                    if (requireCurrentSchema) {
+                        department.filter(SearchAclFilter::currentSchema);
+                    }
+                    return department;
+                }));
+            }
+            if (values.isEmpty()) {
+                acl.should(s -> s.term(t -> t.field(PERMISSIONS_FIELD).value(NO_AUTHORITY)));
+            } else {
+                acl.should(s -> s.bool(granted -> {
+                    granted.filter(g -> g.terms(t -> t.field(PERMISSIONS_FIELD).terms(v -> v.value(values))))
+                        .mustNot(d -> d.terms(t -> t.field(DENIED_PERMISSIONS_FIELD).terms(v -> v.value(values))));
+                    if (requireCurrentSchema) {
+                        granted.filter(SearchAclFilter::currentSchema);
+                    }
+                    return granted;
+                }));
+            }
+            return acl.minimumShouldMatch("1");
+        }));
+    }
+
+    private static ObjectBuilder<Query> currentSchema(Query.Builder query) {
+        return query.range(r -> r.field(SCHEMA_VERSION_FIELD).gte(JsonData.of(NodeDocument.SCHEMA_VERSION)));
+    }
+
+    private boolean isIndexCurrent() {
+        return schemaBackfill != null && schemaBackfill.isIndexCurrent();
+    }
+
+    /**
+     * Cache key for results of {@link #apply}: {@code *} for unrestricted callers, otherwise a SHA-256
+     * over the sorted authorities, readable owners and owner departments, so users with the same sets
+     * share entries.
+     */
+    public String authorityKey() {
+        if (isUnrestricted()) {
+            return "*";
+        }
+        return DigestUtils.sha256Hex(String.join("\n", readAuthorities())
+            + "\n\n" + String.join("\n", readableOwners())
+            + "\n\n" + String.join("\n", readableOwnerDepartments())
+            + "\n\n" + isIndexCurrent());
+    }
+
+    /**
+     * Hits of an ACL-filtered search, minus any sampled hit the database no longer lets the caller read.
+     */
+    public List<SearchHit<NodeDocument>> verify(Iterable<SearchHit<NodeDocument>> hits) {
+        List<SearchHit<NodeDocument>> all = new ArrayList<>();
+        hits.forEach(all::add);
+        if (all.isEmpty() || verifySampleRate <= 0.0 || isUnrestricted()) {
+            return all;
+        }
+
+        Map<SearchHit<NodeDocument>, UUID> checked = new IdentityHashMap<>();
+        for (SearchHit<NodeDocument> hit : all) {
+            if (sampled()) {
+                checked.put(hit, toUuid(hit.getContent().getId()));
+            }
+        }
+        if (checked.isEmpty()) {
+            return all;
+        }
+
+        Map<UUID, Node> nodesById = new HashMap<>();
+        List<UUID> ids = checked.values().stream().filter(id -> id != null).distinct().toList();
+        if (!ids.isEmpty()) {
+            nodeRepository.findAllById(ids).forEach(node -> nodesById.put(node.getId(), node));
+        }
+
+        List<SearchHit<NodeDocument>> verified = new ArrayList<>(all.size());
+        int stale = 0;
+        for (SearchHit<NodeDocument> hit : all) {
+            if (!checked.containsKey(hit)) {
+                verified.add(hit);
+                continue;
+            }
+            UUID nodeId = checked.get(hit);
+            Node node = nodeId != null ? nodesById.get(nodeId) : null;
+            if (node != null && securityService.hasPermission(node, PermissionType.READ)) {
+                verified.add(hit);
+            } else {
+                stale++;
+            }
+        }
+
+        if (stale > 0) {
+            log.warn("Dropped {} of {} sampled search hits whose index ACL is stale", stale, checked.size());
+            if (meterRegistry != null) {
+                meterRegistry.counter("search_acl_stale_hits_total").increment(stale);
+            }
+        }
+        return verified;
+    }
+
+    private boolean sampled() {
+        return verifySampleRate >= 1.0 || ThreadLocalRandom.current().nextDouble() < verifySampleRate;
+    }
+
+    private List<String> readAuthorities() {
+        Set<String> authorities = securityService.getUserAuthorities(securityService.getCurrentUser());
+        if (authorities == null) {
+            return List.of();
+        }
+        return authorities.stream()
+            .filter(authority -> authority != null && !authority.isBlank())
+            .distinct()
+            .sorted()
+            .toList();
+    }
+
+    private List<String> readableOwners() {
+        Set<String> owners = securityService.resolveReadableOwners(securityService.getCurrentUser());
+        if (owners == null) {
+            return List.of();
+        }
+        return owners.stream()
+            .filter(owner -> owner != null && !owner.isBlank())
+            .distinct()
+            .sorted()
+            .toList();
+    }
+
+    private List<String> readableOwnerDepartments() {
+        Set<String> departments = securityService.resolveReadableOwnerDepartments(securityService.getCurrentUser());
+        if (departments == null) {
+            return List.of();
+        }
+        return departments.stream()
+            .filter(department -> department != null && !department.isBlank())
+            .distinct()
+            .sorted()
+            .toList();
+    }
+
+    private UUID toUuid(String value) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        try {
+            return UUID.fromString(value);
+        } catch (IllegalArgumentException ex) {
+            log.warn("Invalid node id in search index: {}", value);
+            return null;
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package com.ecm.core.search;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * Position in a point-in-time search: the PIT id, the sort values of the last returned hit and the
+ * total hit count of the first page. Clients only see it as the opaque {@link #encode() token}; the
+ * query itself (including the ACL filter) is rebuilt from the request on every page.
+ */
+public record SearchCursor(String pitId, List<Object> searchAfter, long totalHits) {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    public String encode() {
+        try {
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(MAPPER.writeValueAsBytes(this));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to encode search cursor", e);
+        }
+    }
+
+    /**
+     * Decode a token from {@link #encode()}; {@code null} for a blank token, meaning "first page".
+     *
+     * @throws IllegalArgumentException when the token is malformed
+     */
+    public static SearchCursor decode(String token) {
+        if (token == null || token.isBlank()) {
+            return null;
+        }
+        try {
+            byte[] json = Base64.getUrlDecoder().decode(token.trim());
+            SearchCursor cursor = MAPPER.readValue(new String(json, StandardCharsets.UTF_8), SearchCursor.class);
+            if (cursor.pitId() == null || cursor.pitId().isBlank()
+                || cursor.searchAfter() == null || cursor.searchAfter().isEmpty()) {
+                throw new IllegalArgumentException("Invalid search cursor");
+            }
+            return cursor;
+        } catch (IllegalArgumentException | JsonProcessingException e) {
+            throw new IllegalArgumentException("Invalid search cursor", e);
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package com.ecm.core.search;
+
+import java.util.List;
+
+/**
+ * One page of a cursor-paginated search. {@code nextCursor} is {@code null} on the last page.
+ */
+public record SearchCursorPage(List<SearchResult> results, long totalHits, String nextCursor) {
+
+    public static SearchCursorPage empty() {
+        return new SearchCursorPage(List.of(), 0L, null);
+    }
+}
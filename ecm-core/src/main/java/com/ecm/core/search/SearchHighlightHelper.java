@@ -9,8 +9,6 @@ final class SearchHighlightHelper {
     private static final List<String> SUMMARY_FIELDS = List.of(
         "description",
         "content",
-        "textContent",
-        "extractedText",
         "title",
         "name"
     );
@@ -19,8 +17,6 @@ final class SearchHighlightHelper {
         "title", "Title",
         "description", "Description",
         "content", "Content",
-        "textContent", "Text",
-        "extractedText", "Extracted text",
         "tags", "Tags",
         "categories", "Categories",
         "correspondent", "Correspondent"
@@ -0,0 +1,165 @@
+package com.ecm.core.search;
+
+import org.springframework.data.elasticsearch.core.SearchHit;
+import org.springframework.data.elasticsearch.core.query.FetchSourceFilter;
+import org.springframework.data.elasticsearch.core.query.SourceFilter;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Maps search hits to {@link SearchResult} rows and limits {@code _source} to the fields those rows
+ * display. Extracted text, {@code metadata}, ACL entries and all but the record and explicitly
+ * requested {@code properties} stay in the index; highlight snippets come back separately.
+ */
+final class SearchHitProjection {
+
+    static final List<String> RESULT_FIELDS = List.of(
+        "id",
+        "name",
+        "description",
+        "path",
+        "nodeType",
+        "parentId",
+        "mimeType",
+        "fileSize",
+        "versionLabel",
+        "createdBy",
+        "createdDate",
+        "lastModifiedBy",
+        "lastModifiedDate",
+        "tags",
+        "categories",
+        "correspondent",
+        "previewStatus",
+        "previewFailureReason",
+        "previewFailureCategory"
+    );
+
+    static final int MAX_REQUESTED_PROPERTIES = 50;
+
+    private SearchHitProjection() {
+    }
+
+    /**
+     * Source filter for result rows plus the given properties. Property names are taken verbatim;
+     * blank names and names containing wildcards are ignored.
+     */
+    static SourceFilter sourceFilter(Collection<String> requestedProperties) {
+        Set<String> includes = new LinkedHashSet<>(RESULT_FIELDS);
+        for (String property : SearchRecordProjectionHelper.RECORD_PROJECTION_PROPERTIES) {
+            includes.add("properties." + property);
+        }
+        for (String property : normalizeProperties(requestedProperties)) {
+            includes.add("properties." + property);
+        }
+        return new FetchSourceFilter(includes.toArray(String[]::new), null);
+    }
+
+    static List<String> normalizeProperties(Collection<String> requestedProperties) {
+        if (requestedProperties == null || requestedProperties.isEmpty()) {
+            return List.of();
+        }
+        List<String> normalized = new ArrayList<>();
+        for (String property : requestedProperties) {
+            if (property == null || property.isBlank() || property.contains("*")) {
+                continue;
+            }
+            String trimmed = property.trim();
+            if (!normalized.contains(trimmed)) {
+                normalized.add(trimmed);
+            }
+            if (normalized.size() >= MAX_REQUESTED_PROPERTIES) {
+                break;
+            }
+        }
+        return normalized;
+    }
+
+    static SearchResult toSearchResult(SearchHit<NodeDocument> hit) {
+        return toSearchResult(hit, List.of());
+    }
+
+    static SearchResult toSearchResult(SearchHit<NodeDocument> hit, Collection<String> requestedProperties) {
+        NodeDocument doc = hit.getContent();
+        Map<String, Object> properties = doc.getProperties() != null ? doc.getProperties() : Map.of();
+        Map<String, List<String>> highlights = hit.getHighlightFields();
+        String effectivePreviewStatus = PreviewStatusFilterHelper.resolveEffectiveStatus(
+            doc.getPreviewStatus(),
+            doc.getMimeType(),
+            doc.getPreviewFailureReason()
+        );
+        String effectivePreviewFailureReason = PreviewStatusFilterHelper.resolveEffectiveFailureReason(
+            doc.getPreviewStatus(),
+            doc.getMimeType(),
+            doc.getPreviewFailureReason()
+        );
+        String effectivePreviewFailureCategory = PreviewStatusFilterHelper.resolveEffectiveFailureCategory(
+            doc.getPreviewStatus(),
+            doc.getMimeType(),
+            doc.getPreviewFailureReason(),
+            doc.getPreviewFailureCategory()
+        );
+        return SearchResult.builder()
+            .id(doc.getId())
+            .name(doc.getName())
+            .description(doc.getDescription())
+            .path(doc.getPath())
+            .nodeType(doc.getNodeType() != null ? doc.getNodeType().name() : null)
+            .parentId(doc.getParentId())
+            .mimeType(doc.getMimeType())
+            .fileSize(doc.getFileSize())
+            .currentVersionLabel(doc.getVersionLabel())
+            .createdBy(doc.getCreatedBy())
+            .createdDate(doc.getCreatedDate())
+            .lastModifiedBy(doc.getLastModifiedBy())
+            .lastModifiedDate(doc.getLastModifiedDate())
+            .score(hit.getScore())
+            .highlights(highlights)
+            .matchFields(SearchHighlightHelper.resolveMatchFields(highlights))
+            .highlightSummary(SearchHighlightHelper.resolveHighlightSummary(highlights))
+            .tags(doc.getTags() != null ? List.copyOf(doc.getTags()) : List.of())
+            .categories(doc.getCategories() != null ? List.copyOf(doc.getCategories()) : List.of())
+            .correspondent(doc.getCorrespondent())
+            .record(SearchRecordProjectionHelper.isRecordProjection(properties))
+            .declaredBy(readString(properties.get("rm:declaredBy")))
+            .declaredAt(readString(properties.get("rm:declaredAt")))
+            .declaredVersionLabel(readString(properties.get("rm:declaredVersionLabel")))
+            .declarationComment(readString(properties.get("rm:declarationComment")))
+            .recordCategoryId(readString(properties.get("rm:recordCategoryId")))
+            .recordCategoryName(readString(properties.get("rm:recordCategoryName")))
+            .recordCategoryPath(readString(properties.get("rm:recordCategoryPath")))
+            .previewStatus(effectivePreviewStatus)
+            .previewFailureReason(effectivePreviewFailureReason)
+            .previewFailureCategory(effectivePreviewFailureCategory)
+            .properties(selectProperties(properties, requestedProperties))
+            .build();
+    }
+
+    private static Map<String, Object> selectProperties(
+        Map<String, Object> properties,
+        Collection<String> requestedProperties
+    ) {
+        List<String> names = normalizeProperties(requestedProperties);
+        if (names.isEmpty()) {
+            return null;
+        }
+        Map<String, Object> selected = new LinkedHashMap<>();
+        for (String name : names) {
+            Object value = properties.get(name);
+            if (value != null) {
+                selected.put(name, value);
+            }
+        }
+        return selected;
+    }
+
+    private static String readString(Object value) {
+        return value != null ? value.toString() : null;
+    }
+}
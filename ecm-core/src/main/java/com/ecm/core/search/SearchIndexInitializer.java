@@ -10,7 +10,7 @@ import org.springframework.data.elasticsearch.core.IndexOperations;
 import org.springframework.stereotype.Component;
 
 /**
- * Ensures the Elasticsearch index exists.
+ * Ensures the Elasticsearch index exists and its mapping has every {@link NodeDocument} field.
  *
  * Elasticsearch is an acceleration layer and can be rebuilt from PostgreSQL, so this initializer
  * is best-effort and must not prevent the application from starting when ES is unavailable.
@@ -35,8 +35,10 @@ public class SearchIndexInitializer implements ApplicationRunner {
             IndexOperations indexOps = elasticsearchOperations.indexOps(NodeDocument.class);
             if (!indexOps.exists()) {
                 indexOps.create();
-                indexOps.putMapping();
             }
+            // Also adds fields introduced since the index was created (e.g. nameSuggest); existing
+            // documents pick them up when they are reindexed.
+            indexOps.putMapping();
         } catch (LinkageError e) {
             log.warn("Elasticsearch index init skipped due to missing/invalid client dependency: {}", e.toString());
         } catch (Exception e) {
@@ -0,0 +1,91 @@
+package com.ecm.core.search;
+
+import com.ecm.core.scheduler.ClusterJob;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+/**
+ * Brings existing {@code ecm_documents} entries up to {@link NodeDocument#SCHEMA_VERSION} after an
+ * upgrade, so fields that only {@link NodeDocument#fromNode} fills (type-ahead names, denied read
+ * authorities) exist without a full {@code rebuildIndex}. Each run rewrites at most
+ * {@code max-batches-per-run} batches of {@code batch-size} entries; once nothing is outdated a run
+ * costs one empty search.
+ *
+ * <p>{@link #isIndexCurrent} lets readers of such fields fall back while the backfill is still running.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class SearchIndexSchemaBackfill {
+
+    private static final long CURRENT_CHECK_INTERVAL_MS = 60_000L;
+
+    private final SearchIndexService searchIndexService;
+
+    @Value("${ecm.search.enabled:true}")
+    private boolean searchEnabled = true;
+
+    @Value("${ecm.search.schema-backfill.enabled:true}")
+    private boolean enabled = true;
+
+    @Value("${ecm.search.schema-backfill.batch-size:500}")
+    private int batchSize = 500;
+
+    @Value("${ecm.search.schema-backfill.max-batches-per-run:20}")
+    private int maxBatchesPerRun = 20;
+
+    private volatile boolean indexCurrent;
+    private volatile long indexCheckedAt;
+
+    /**
+     * Whether no entry below {@link NodeDocument#SCHEMA_VERSION} is left. Asks the index at most once a
+     * minute per node and stays {@code true} once it was, since new entries are always written current.
+     * Errors count as not current.
+     */
+    public boolean isIndexCurrent() {
+        if (indexCurrent) {
+            return true;
+        }
+        long now = System.currentTimeMillis();
+        if (now - indexCheckedAt < CURRENT_CHECK_INTERVAL_MS) {
+            return false;
+        }
+        indexCheckedAt = now;
+        try {
+            indexCurrent = searchIndexService.countOutdatedSchemaEntries() == 0;
+        } catch (Exception e) {
+            log.debug("Could not count outdated search index entries: {}", e.getMessage());
+        }
+        return indexCurrent;
+    }
+
+    @Scheduled(
+        fixedDelayString = "${ecm.search.schema-backfill.fixed-delay-ms:60000}",
+        initialDelayString = "${ecm.search.schema-backfill.initial-delay-ms:60000}"
+    )
+    @ClusterJob
+    public void backfill() {
+        if (!enabled || !searchEnabled) {
+            return;
+        }
+        long rewritten = 0;
+        try {
+            for (int batch = 0; batch < Math.max(1, maxBatchesPerRun); batch++) {
+                int found = searchIndexService.backfillSchema(batchSize);
+                rewritten += found;
+                if (found < batchSize) {
+                    break;
+                }
+            }
+        } catch (Exception e) {
+            log.warn("Search index schema backfill failed after {} entries: {}", rewritten, e.getMessage());
+            return;
+        }
+        if (rewritten > 0) {
+            log.info("Rewrote {} search index entries to schema version {}", rewritten, NodeDocument.SCHEMA_VERSION);
+        }
+    }
+}
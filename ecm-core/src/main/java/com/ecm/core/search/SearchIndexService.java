@@ -2,7 +2,9 @@ package com.ecm.core.search;
 
 import com.ecm.core.entity.Document;
 import com.ecm.core.entity.Node;
+import com.ecm.core.metrics.EcmMetrics;
 import com.ecm.core.repository.DocumentRepository;
+import com.ecm.core.repository.FavoriteRepository;
 import com.ecm.core.repository.NodeRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -21,10 +23,14 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.UUID;
+import java.util.function.BiFunction;
+import java.util.function.LongConsumer;
 import java.util.stream.Collectors;
 
 @Slf4j
@@ -36,19 +42,27 @@ public class SearchIndexService {
     private final NodeRepository nodeRepository;
     private final com.ecm.core.service.SecurityService securityService;
     private final com.ecm.core.service.NodePropertyEncryptionService nodePropertyEncryptionService;
+    private final FavoriteRepository favoriteRepository;
     private final ElasticsearchOperations elasticsearchOperations;
     private static final String INDEX_NAME = "ecm_documents";
+    private static final UUID FIRST_NODE_ID = new UUID(0L, 0L);
 
     @Value("${ecm.search.refresh-after-write:false}")
     private boolean refreshAfterWrite;
 
+    @Value("${ecm.search.subtree-reindex-batch-size:500}")
+    private int subtreeReindexBatchSize = 500;
+
+    @Autowired(required = false)
+    private EcmMetrics metrics = EcmMetrics.noop();
+
     SearchIndexService(
         DocumentRepository documentRepository,
         NodeRepository nodeRepository,
         com.ecm.core.service.SecurityService securityService,
         ElasticsearchOperations elasticsearchOperations
     ) {
-        this(documentRepository, nodeRepository, securityService, null, elasticsearchOperations);
+        this(documentRepository, nodeRepository, securityService, null, null, elasticsearchOperations);
     }
 
     public boolean isDocumentIndexed(String documentId) {
@@ -68,10 +82,12 @@ public class SearchIndexService {
     /**
      * Re-index a single document by id.
      */
+    @Transactional(readOnly = true)
     public void indexDocument(String documentId) {
         indexDocument(documentId, false);
     }
 
+    @Transactional(readOnly = true)
     public void indexDocument(String documentId, boolean refresh) {
         try {
             UUID id = UUID.fromString(documentId);
@@ -111,7 +127,8 @@ public class SearchIndexService {
             NodeDocument nodeDoc = NodeDocument.fromNode(hydrated);
             nodeDoc.setProperties(resolveIndexableProperties(hydrated));
             applyReadPermissions(hydrated, nodeDoc);
-            elasticsearchOperations.save(nodeDoc, IndexCoordinates.of(INDEX_NAME));
+            applyFavoriteCounts(List.of(nodeDoc));
+            saveToIndex(nodeDoc);
             log.debug("Indexed node: {}", hydrated.getId());
         } catch (Exception e) {
             log.error("Failed to index node: {}", node.getId(), e);
@@ -129,7 +146,8 @@ public class SearchIndexService {
             NodeDocument nodeDoc = NodeDocument.fromNode(hydrated);
             nodeDoc.setProperties(resolveIndexableProperties(hydrated));
             applyReadPermissions(hydrated, nodeDoc);
-            elasticsearchOperations.save(nodeDoc, IndexCoordinates.of(INDEX_NAME));
+            applyFavoriteCounts(List.of(nodeDoc));
+            saveToIndex(nodeDoc);
             log.debug("Updated node in index: {}", hydrated.getId());
         } catch (Exception e) {
             log.error("Failed to update node in index: {}", node.getId(), e);
@@ -138,7 +156,7 @@ public class SearchIndexService {
     
     public void deleteNode(UUID nodeId) {
         try {
-            elasticsearchOperations.delete(nodeId.toString(), IndexCoordinates.of(INDEX_NAME));
+            deleteFromIndex(nodeId.toString());
             log.debug("Deleted node from index: {}", nodeId);
         } catch (Exception e) {
             log.error("Failed to delete node from index: {}", nodeId, e);
@@ -154,6 +172,7 @@ public class SearchIndexService {
         }
     }
 
+    @Transactional(readOnly = true)
     public int indexDocumentsByName(String nameQuery, int limit, boolean refresh) {
         if (nameQuery == null || nameQuery.isBlank()) {
             return 0;
@@ -194,17 +213,43 @@ public class SearchIndexService {
         nodeDoc.setProperties(resolveIndexableProperties(hydrated));
         nodeDoc.setMimeType(hydrated.getMimeType());
         nodeDoc.setFileSize(hydrated.getFileSize());
-        nodeDoc.setTextContent(hydrated.getTextContent());
         nodeDoc.setVersionLabel(hydrated.getVersionLabel());
         applyReadPermissions(hydrated, nodeDoc);
+        applyFavoriteCounts(List.of(nodeDoc));
 
-        elasticsearchOperations.save(nodeDoc, IndexCoordinates.of(INDEX_NAME));
+        saveToIndex(nodeDoc);
         log.debug("Updated document in index: {}", hydrated.getId());
     }
 
+    private void saveToIndex(NodeDocument document) {
+        indexRequest("index", 1, () -> elasticsearchOperations.save(document, IndexCoordinates.of(INDEX_NAME)));
+    }
+
+    private void deleteFromIndex(String id) {
+        indexRequest("delete", 1, () -> elasticsearchOperations.delete(id, IndexCoordinates.of(INDEX_NAME)));
+    }
+
+    /**
+     * Run one Elasticsearch write, timing it as {@code ecm_search_index_request_duration} and counting
+     * the documents it carried.
+     */
+    private void indexRequest(String operation, int documents, Runnable request) {
+        long startNanos = System.nanoTime();
+        String outcome = "failure";
+        try {
+            request.run();
+            outcome = "success";
+        } finally {
+            metrics.recordTime("ecm_search_index_request_duration", startNanos, "operation", operation, "outcome", outcome);
+            if (documents > 0) {
+                metrics.count("ecm_search_index_documents_total", documents, "operation", operation, "outcome", outcome);
+            }
+        }
+    }
+
     public void refreshIndex() {
         try {
-            elasticsearchOperations.indexOps(NodeDocument.class).refresh();
+            indexRequest("refresh", 0, () -> elasticsearchOperations.indexOps(NodeDocument.class).refresh());
         } catch (Exception e) {
             log.debug("Failed to refresh search index: {}", e.getMessage());
         }
@@ -217,6 +262,7 @@ public class SearchIndexService {
         return nodePropertyEncryptionService.resolveIndexableProperties(node);
     }
     
+    @Transactional(readOnly = true)
     public void updateNodeChildren(Node parentNode) {
         try {
             if (parentNode == null || parentNode.getPath() == null) {
@@ -244,14 +290,14 @@ public class SearchIndexService {
                     childId = UUID.fromString(childDoc.getId());
                 } catch (IllegalArgumentException ex) {
                     log.warn("Invalid node id in search index: {}", childDoc.getId());
-                    elasticsearchOperations.delete(childDoc.getId(), IndexCoordinates.of(INDEX_NAME));
+                    deleteFromIndex(childDoc.getId());
                     deleted++;
                     continue;
                 }
 
                 Node child = nodeRepository.findByIdIncludeDeleted(childId).orElse(null);
                 if (child == null) {
-                    elasticsearchOperations.delete(childDoc.getId(), IndexCoordinates.of(INDEX_NAME));
+                    deleteFromIndex(childDoc.getId());
                     deleted++;
                     continue;
                 }
@@ -259,7 +305,8 @@ public class SearchIndexService {
                 NodeDocument refreshed = NodeDocument.fromNode(child);
                 refreshed.setProperties(resolveIndexableProperties(child));
                 applyReadPermissions(child, refreshed);
-                elasticsearchOperations.save(refreshed, IndexCoordinates.of(INDEX_NAME));
+                applyFavoriteCounts(List.of(refreshed));
+                saveToIndex(refreshed);
                 updated++;
             }
 
@@ -273,32 +320,85 @@ public class SearchIndexService {
     @Transactional(readOnly = true)
     public void reindexNodeSubtree(Node parentNode) {
         try {
-            if (parentNode == null || parentNode.getPath() == null) {
-                return;
-            }
+            reindexNodeSubtree(parentNode, null);
+        } catch (Exception e) {
+            log.error("Failed to reindex subtree of node: {}", parentNode != null ? parentNode.getId() : null, e);
+        }
+    }
 
-            String pathPrefix = parentNode.getPath() + "/";
-            List<Node> descendants = nodeRepository.findByPathPrefix(pathPrefix);
-            int updated = 0;
+    /**
+     * Reindex all live descendants of {@code parentNode} from the database. Descendant ids are read in
+     * keyset pages of {@code ecm.search.subtree-reindex-batch-size} and every page is written with one
+     * bulk request; {@code progress}, when given, receives the running count after each page. Unlike
+     * {@link #reindexNodeSubtree(Node)} failures are thrown to the caller.
+     *
+     * @return number of indexed descendants
+     */
+    @Transactional(readOnly = true)
+    public long reindexNodeSubtree(Node parentNode, LongConsumer progress) {
+        if (parentNode == null || parentNode.getPath() == null) {
+            return 0L;
+        }
 
-            for (Node descendant : descendants) {
-                Node hydrated = fetchNode(descendant.getId());
-                if (hydrated == null) {
-                    continue;
-                }
+        String pathPrefix = parentNode.getPath() + "/";
+        long updated = reindexInKeysetPages(
+            (afterId, limit) -> nodeRepository.findDescendantIdsByPathPrefixAfter(pathPrefix, afterId, limit),
+            progress);
+        log.debug("Reindexed subtree of node {} from database (updated={})", parentNode.getId(), updated);
+        return updated;
+    }
 
-                NodeDocument refreshed = NodeDocument.fromNode(hydrated);
-                refreshed.setProperties(resolveIndexableProperties(hydrated));
-                applyReadPermissions(hydrated, refreshed);
-                elasticsearchOperations.save(refreshed, IndexCoordinates.of(INDEX_NAME));
-                updated++;
+    /**
+     * Reindex every live node created by {@code owner}, so index-time ACL fields derived from the owner
+     * (such as {@code ownerDepartment}) follow a change to the owner's profile. Paged and bulk-written
+     * like {@link #reindexNodeSubtree(Node, LongConsumer)}.
+     *
+     * @return number of indexed nodes
+     */
+    @Transactional(readOnly = true)
+    public long reindexNodesOwnedBy(String owner) {
+        if (owner == null || owner.isBlank()) {
+            return 0L;
+        }
+        long updated = reindexInKeysetPages(
+            (afterId, limit) -> nodeRepository.findIdsByCreatedByAfter(owner, afterId, limit), null);
+        log.debug("Reindexed nodes owned by {} from database (updated={})", owner, updated);
+        return updated;
+    }
+
+    private long reindexInKeysetPages(BiFunction<UUID, Integer, List<UUID>> nextIds, LongConsumer progress) {
+        int batchSize = Math.max(1, subtreeReindexBatchSize);
+        IndexCoordinates index = IndexCoordinates.of(INDEX_NAME);
+        UUID afterId = FIRST_NODE_ID;
+        long updated = 0;
+
+        while (true) {
+            List<UUID> ids = nextIds.apply(afterId, batchSize);
+            if (ids.isEmpty()) {
+                break;
             }
 
-            log.debug("Reindexed subtree of node {} from database (updated={})",
-                parentNode.getId(), updated);
-        } catch (Exception e) {
-            log.error("Failed to reindex subtree of node: {}", parentNode.getId(), e);
+            List<NodeDocument> batch = new ArrayList<>(ids.size());
+            for (Node node : nodeRepository.findAllById(ids)) {
+                NodeDocument refreshed = NodeDocument.fromNode(node);
+                refreshed.setProperties(resolveIndexableProperties(node));
+                applyReadPermissions(node, refreshed);
+                batch.add(refreshed);
+            }
+            if (!batch.isEmpty()) {
+                applyFavoriteCounts(batch);
+                indexRequest("bulk", batch.size(), () -> elasticsearchOperations.save(batch, index));
+                updated += batch.size();
+            }
+            if (progress != null) {
+                progress.accept(updated);
+            }
+            if (ids.size() < batchSize) {
+                break;
+            }
+            afterId = ids.get(ids.size() - 1);
         }
+        return updated;
     }
 
     @Transactional(readOnly = true)
@@ -325,7 +425,8 @@ public class SearchIndexService {
                 NodeDocument refreshed = NodeDocument.fromNode(hydrated);
                 refreshed.setProperties(resolveIndexableProperties(hydrated));
                 applyReadPermissions(hydrated, refreshed);
-                elasticsearchOperations.save(refreshed, IndexCoordinates.of(INDEX_NAME));
+                applyFavoriteCounts(List.of(refreshed));
+                saveToIndex(refreshed);
                 updated++;
             }
 
@@ -335,6 +436,42 @@ public class SearchIndexService {
         }
     }
     
+    /**
+     * Number of index entries whose {@code schemaVersion} is missing or below {@link NodeDocument#SCHEMA_VERSION}.
+     */
+    public long countOutdatedSchemaEntries() {
+        return elasticsearchOperations.count(outdatedSchemaQuery(), NodeDocument.class, IndexCoordinates.of(INDEX_NAME));
+    }
+
+    /**
+     * Rewrite from the database up to {@code batchSize} index entries whose {@code schemaVersion} is
+     * missing or below {@link NodeDocument#SCHEMA_VERSION}. Entries whose node is gone are deleted.
+     *
+     * @return number of outdated entries found; fewer than {@code batchSize} means none are left
+     */
+    @Transactional(readOnly = true)
+    public int backfillSchema(int batchSize) {
+        CriteriaQuery query = outdatedSchemaQuery();
+        query.setPageable(PageRequest.of(0, Math.max(1, batchSize)));
+        SearchHits<NodeDocument> hits = elasticsearchOperations.search(
+            query, NodeDocument.class, IndexCoordinates.of(INDEX_NAME));
+
+        List<UUID> nodeIds = new ArrayList<>();
+        for (SearchHit<NodeDocument> hit : hits) {
+            try {
+                nodeIds.add(UUID.fromString(hit.getId()));
+            } catch (IllegalArgumentException | NullPointerException e) {
+                deleteFromIndex(hit.getId());
+            }
+        }
+        reindexNodes(nodeIds);
+        return hits.getSearchHits().size();
+    }
+
+    private static CriteriaQuery outdatedSchemaQuery() {
+        return new CriteriaQuery(new Criteria("schemaVersion").greaterThanEqual(NodeDocument.SCHEMA_VERSION).not());
+    }
+
     public List<NodeDocument> search(String queryText, SearchRequest searchRequest) {
         try {
             Query query = buildQuery(queryText, searchRequest);
@@ -359,9 +496,7 @@ public class SearchIndexService {
             query.addCriteria(
                 new Criteria("name").matches(queryText)
                     .or("description").matches(queryText)
-                    .or("textContent").matches(queryText)
-                    .or("extractedText").matches(queryText)
-                    .or("metadata.extractedText").matches(queryText)
+                    .or("content").matches(queryText)
             );
         }
         
@@ -446,8 +581,31 @@ public class SearchIndexService {
         }
         try {
             nodeDoc.setPermissions(securityService.resolveReadAuthorities(node));
+            nodeDoc.setDeniedPermissions(securityService.resolveDeniedReadAuthorities(node));
+            nodeDoc.setOwnerDepartment(securityService.resolveOwnerDepartment(node.getCreatedBy()));
         } catch (Exception e) {
             log.warn("Failed to resolve read authorities for {}: {}", node.getId(), e.getMessage());
         }
     }
+
+    /**
+     * Set {@code favoriteCount} on a batch of documents with one query.
+     */
+    private void applyFavoriteCounts(List<NodeDocument> docs) {
+        if (favoriteRepository == null || docs.isEmpty()) {
+            return;
+        }
+        try {
+            List<UUID> nodeIds = docs.stream().map(doc -> UUID.fromString(doc.getId())).toList();
+            Map<UUID, Integer> counts = new HashMap<>();
+            for (Object[] row : favoriteRepository.countByNodeIds(nodeIds)) {
+                counts.put((UUID) row[0], ((Number) row[1]).intValue());
+            }
+            for (NodeDocument doc : docs) {
+                doc.setFavoriteCount(counts.getOrDefault(UUID.fromString(doc.getId()), 0));
+            }
+        } catch (Exception e) {
+            log.warn("Failed to resolve favorite counts for {} node(s): {}", docs.size(), e.getMessage());
+        }
+    }
 }
@@ -0,0 +1,292 @@
+package com.ecm.core.search;
+
+import com.ecm.core.search.FacetedSearchService.PivotBucket;
+import com.ecm.core.search.FacetedSearchService.PivotDimension;
+import com.ecm.core.search.FacetedSearchService.PivotMetric;
+import com.ecm.core.search.FacetedSearchService.PivotRequest;
+import com.ecm.core.search.FacetedSearchService.PivotResponse;
+import co.elastic.clients.elasticsearch._types.aggregations.Aggregate;
+import co.elastic.clients.elasticsearch._types.aggregations.Aggregation;
+import co.elastic.clients.elasticsearch._types.aggregations.CalendarInterval;
+import co.elastic.clients.elasticsearch._types.aggregations.DateHistogramBucket;
+import co.elastic.clients.elasticsearch._types.aggregations.FiltersBucket;
+import co.elastic.clients.elasticsearch._types.aggregations.StringTermsBucket;
+import co.elastic.clients.elasticsearch._types.query_dsl.Query;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Builds and reads the nested aggregations behind {@link FacetedSearchService#pivot}. Each dimension is
+ * one bucket aggregation ({@code filters} for {@code previewStatus}, {@code date_histogram} for date
+ * fields, {@code terms} otherwise); the second dimension and the metrics are sub-aggregations of every
+ * first-level bucket, so a whole matrix comes back from a single search.
+ */
+final class SearchPivotAggregations {
+
+    static final String PIVOT_AGGREGATION = "pivot";
+    static final String TOTAL_AGGREGATION_PREFIX = "total_";
+    static final int MAX_DIMENSIONS = 2;
+    static final int DEFAULT_TERMS_SIZE = 10;
+    static final int MAX_TERMS_SIZE = 100;
+
+    private static final String PREVIEW_STATUS_FIELD = "previewStatus";
+    private static final String RECORD_CATEGORY_PATH_FIELD = "recordCategoryPath";
+    private static final Set<String> TERMS_FIELDS = Set.of(
+        "mimeType",
+        "nodeType",
+        "createdBy",
+        "lastModifiedBy",
+        "tags",
+        "categories",
+        "correspondent",
+        "lockedBy",
+        "checkoutUser",
+        RECORD_CATEGORY_PATH_FIELD
+    );
+    private static final Set<String> DATE_FIELDS = Set.of("createdDate", "lastModifiedDate");
+    private static final Set<String> METRIC_FIELDS = Set.of("fileSize");
+    private static final Set<String> METRIC_TYPES = Set.of("sum", "avg", "min", "max");
+    private static final Map<String, CalendarInterval> CALENDAR_INTERVALS = Map.of(
+        "day", CalendarInterval.Day,
+        "week", CalendarInterval.Week,
+        "month", CalendarInterval.Month,
+        "quarter", CalendarInterval.Quarter,
+        "year", CalendarInterval.Year
+    );
+
+    private SearchPivotAggregations() {
+    }
+
+    static void validate(PivotRequest request) {
+        if (request == null || request.getDimensions() == null || request.getDimensions().isEmpty()) {
+            throw new IllegalArgumentException("Pivot requires at least one dimension");
+        }
+        List<PivotDimension> dimensions = request.getDimensions();
+        if (dimensions.size() > MAX_DIMENSIONS) {
+            throw new IllegalArgumentException("Pivot supports at most " + MAX_DIMENSIONS + " dimensions");
+        }
+        List<String> seen = new ArrayList<>();
+        for (PivotDimension dimension : dimensions) {
+            String field = dimension != null ? dimension.getField() : null;
+            if (field == null || !(PREVIEW_STATUS_FIELD.equals(field) || TERMS_FIELDS.contains(field)
+                || DATE_FIELDS.contains(field))) {
+                throw new IllegalArgumentException("Unsupported pivot field: " + field);
+            }
+            if (seen.contains(field)) {
+                throw new IllegalArgumentException("Duplicate pivot field: " + field);
+            }
+            seen.add(field);
+            if (DATE_FIELDS.contains(field) && resolveInterval(dimension) == null) {
+                throw new IllegalArgumentException("Unsupported pivot interval: " + dimension.getInterval());
+            }
+        }
+        if (request.getMetrics() != null) {
+            for (PivotMetric metric : request.getMetrics()) {
+                if (metric == null || !METRIC_FIELDS.contains(metric.getField())
+                    || !METRIC_TYPES.contains(metric.getType())) {
+                    throw new IllegalArgumentException("Unsupported pivot metric: " + metric);
+                }
+            }
+        }
+    }
+
+    /**
+     * Top-level aggregations: the nested pivot, plus an un-nested {@code total_<n>} aggregation for every
+     * dimension after the first so callers also get its overall distribution.
+     */
+    static Map<String, Aggregation> build(PivotRequest request) {
+        List<PivotDimension> dimensions = request.getDimensions();
+        List<PivotMetric> metrics = request.getMetrics() != null ? request.getMetrics() : List.of();
+        Map<String, Aggregation> aggregations = new LinkedHashMap<>();
+        aggregations.put(PIVOT_AGGREGATION, buildDimension(dimensions, 0, metrics));
+        for (int i = 1; i < dimensions.size(); i++) {
+            aggregations.put(TOTAL_AGGREGATION_PREFIX + i, buildDimension(List.of(dimensions.get(i)), 0, List.of()));
+        }
+        metrics.forEach(metric -> aggregations.put(metricName(metric), buildMetric(metric)));
+        return aggregations;
+    }
+
+    static PivotResponse parse(PivotRequest request, long totalHits, Map<String, Aggregate> aggregates) {
+        List<PivotDimension> dimensions = request.getDimensions();
+        List<PivotMetric> metrics = request.getMetrics() != null ? request.getMetrics() : List.of();
+
+        List<PivotBucket> buckets = readBuckets(aggregates.get(PIVOT_AGGREGATION), dimensions, 0, metrics);
+        Map<String, List<PivotBucket>> totals = new LinkedHashMap<>();
+        totals.put(dimensions.get(0).getField(), buckets.stream()
+            .map(bucket -> new PivotBucket(bucket.getKey(), bucket.getCount(), Map.of(), List.of()))
+            .toList());
+        for (int i = 1; i < dimensions.size(); i++) {
+            totals.put(dimensions.get(i).getField(), readBuckets(
+                aggregates.get(TOTAL_AGGREGATION_PREFIX + i), List.of(dimensions.get(i)), 0, List.of()));
+        }
+
+        return PivotResponse.builder()
+            .totalHits(totalHits)
+            .metrics(readMetrics(aggregates, metrics))
+            .buckets(buckets)
+            .totals(totals)
+            .build();
+    }
+
+    static String metricName(PivotMetric metric) {
+        return metric.getType() + "_" + metric.getField();
+    }
+
+    private static Aggregation buildDimension(List<PivotDimension> dimensions, int index, List<PivotMetric> metrics) {
+        PivotDimension dimension = dimensions.get(index);
+        String field = dimension.getField();
+        Map<String, Aggregation> subAggregations = new LinkedHashMap<>();
+        if (index + 1 < dimensions.size()) {
+            subAggregations.put(PIVOT_AGGREGATION, buildDimension(dimensions, index + 1, metrics));
+        }
+        metrics.forEach(metric -> subAggregations.put(metricName(metric), buildMetric(metric)));
+
+        return Aggregation.of(a -> {
+            Aggregation.Builder.ContainerBuilder container;
+            if (PREVIEW_STATUS_FIELD.equals(field)) {
+                Map<String, Query> keyedFilters = new LinkedHashMap<>();
+                for (String bucket : previewStatusKeys(dimension)) {
+                    keyedFilters.put(bucket, PreviewStatusFilterHelper.buildFacetBucketQuery(bucket));
+                }
+                container = a.filters(f -> f.filters(b -> b.keyed(keyedFilters)));
+            } else if (DATE_FIELDS.contains(field)) {
+                container = a.dateHistogram(h -> h
+                    .field(field)
+                    .calendarInterval(resolveInterval(dimension))
+                    .minDocCount(1)
+                    .format("yyyy-MM-dd"));
+            } else {
+                List<String> values = dimension.getValues() != null ? dimension.getValues() : List.of();
+                int size = Math.max(resolveTermsSize(dimension), values.size());
+                container = a.terms(t -> {
+                    t.field(RECORD_CATEGORY_PATH_FIELD.equals(field)
+                        ? "properties.rm:recordCategoryPath.keyword"
+                        : field).size(size);
+                    if (!values.isEmpty()) {
+                        t.include(i -> i.terms(values));
+                    }
+                    return t;
+                });
+            }
+            subAggregations.forEach(container::aggregations);
+            return container;
+        });
+    }
+
+    private static Aggregation buildMetric(PivotMetric metric) {
+        String field = metric.getField();
+        return switch (metric.getType()) {
+            case "avg" -> Aggregation.of(a -> a.avg(m -> m.field(field)));
+            case "min" -> Aggregation.of(a -> a.min(m -> m.field(field)));
+            case "max" -> Aggregation.of(a -> a.max(m -> m.field(field)));
+            default -> Aggregation.of(a -> a.sum(m -> m.field(field)));
+        };
+    }
+
+    private static List<PivotBucket> readBuckets(
+        Aggregate aggregate,
+        List<PivotDimension> dimensions,
+        int index,
+        List<PivotMetric> metrics
+    ) {
+        if (aggregate == null) {
+            return List.of();
+        }
+        List<PivotBucket> buckets = new ArrayList<>();
+        if (aggregate.isFilters()) {
+            Map<String, FiltersBucket> keyed = aggregate.filters().buckets().keyed();
+            for (String key : previewStatusKeys(dimensions.get(index))) {
+                FiltersBucket bucket = keyed != null ? keyed.get(key) : null;
+                buckets.add(bucket != null
+                    ? toBucket(key, bucket.docCount(), bucket.aggregations(), dimensions, index, metrics)
+                    : new PivotBucket(key, 0L, Map.of(), List.of()));
+            }
+        } else if (aggregate.isSterms()) {
+            for (StringTermsBucket bucket : aggregate.sterms().buckets().array()) {
+                buckets.add(toBucket(bucket.key().stringValue(), bucket.docCount(), bucket.aggregations(),
+                    dimensions, index, metrics));
+            }
+        } else if (aggregate.isDateHistogram()) {
+            for (DateHistogramBucket bucket : aggregate.dateHistogram().buckets().array()) {
+                String key = bucket.keyAsString() != null ? bucket.keyAsString() : String.valueOf(bucket.key());
+                buckets.add(toBucket(key, bucket.docCount(), bucket.aggregations(), dimensions, index, metrics));
+            }
+        }
+        return buckets;
+    }
+
+    private static PivotBucket toBucket(
+        String key,
+        long count,
+        Map<String, Aggregate> subAggregates,
+        List<PivotDimension> dimensions,
+        int index,
+        List<PivotMetric> metrics
+    ) {
+        List<PivotBucket> nested = index + 1 < dimensions.size()
+            ? readBuckets(subAggregates.get(PIVOT_AGGREGATION), dimensions, index + 1, metrics)
+            : List.of();
+        return new PivotBucket(key, count, readMetrics(subAggregates, metrics), nested);
+    }
+
+    private static Map<String, Double> readMetrics(Map<String, Aggregate> aggregates, List<PivotMetric> metrics) {
+        if (metrics.isEmpty() || aggregates == null) {
+            return Map.of();
+        }
+        Map<String, Double> values = new LinkedHashMap<>();
+        for (PivotMetric metric : metrics) {
+            String name = metricName(metric);
+            Double value = readMetric(aggregates.get(name));
+            if (value != null && !value.isNaN() && !value.isInfinite()) {
+                values.put(name, value);
+            }
+        }
+        return values;
+    }
+
+    private static Double readMetric(Aggregate aggregate) {
+        if (aggregate == null) {
+            return null;
+        }
+        if (aggregate.isSum()) {
+            return aggregate.sum().value();
+        }
+        if (aggregate.isAvg()) {
+            return aggregate.avg().value();
+        }
+        if (aggregate.isMin()) {
+            return aggregate.min().value();
+        }
+        if (aggregate.isMax()) {
+            return aggregate.max().value();
+        }
+        return null;
+    }
+
+    private static List<String> previewStatusKeys(PivotDimension dimension) {
+        return dimension.getValues() != null && !dimension.getValues().isEmpty()
+            ? dimension.getValues()
+            : PreviewStatusFilterHelper.facetBucketKeys();
+    }
+
+    private static int resolveTermsSize(PivotDimension dimension) {
+        Integer size = dimension.getSize();
+        if (size == null || size <= 0) {
+            return DEFAULT_TERMS_SIZE;
+        }
+        return Math.min(size, MAX_TERMS_SIZE);
+    }
+
+    private static CalendarInterval resolveInterval(PivotDimension dimension) {
+        String interval = dimension.getInterval();
+        if (interval == null || interval.isBlank()) {
+            return CalendarInterval.Month;
+        }
+        return CALENDAR_INTERVALS.get(interval.trim().toLowerCase(Locale.ROOT));
+    }
+}
@@ -0,0 +1,142 @@
+package com.ecm.core.search;
+
+import co.elastic.clients.elasticsearch._types.ElasticsearchException;
+import co.elastic.clients.elasticsearch._types.ErrorCause;
+import co.elastic.clients.elasticsearch._types.SortOrder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.elasticsearch.UncategorizedElasticsearchException;
+import org.springframework.data.elasticsearch.client.elc.NativeQueryBuilder;
+import org.springframework.data.elasticsearch.core.ElasticsearchOperations;
+import org.springframework.data.elasticsearch.core.SearchHit;
+import org.springframework.data.elasticsearch.core.SearchHits;
+import org.springframework.data.elasticsearch.core.mapping.IndexCoordinates;
+import org.springframework.data.elasticsearch.core.query.Query;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * {@code search_after} paging over a point-in-time view of {@code ecm_documents}. Unlike {@code from/size}
+ * every page costs the same and is not limited by {@code max_result_window}, and concurrent index
+ * updates cannot shift hits between pages. The caller's sort is extended with {@code _shard_doc} so
+ * every hit has a unique position; the PIT is closed once the last page has been read.
+ */
+@Slf4j
+final class SearchPointInTimePager {
+
+    private static final IndexCoordinates INDEX = IndexCoordinates.of("ecm_documents");
+    private static final String SEARCH_CONTEXT_MISSING = "search_context_missing_exception";
+
+    private final ElasticsearchOperations operations;
+    private final Duration keepAlive;
+
+    SearchPointInTimePager(ElasticsearchOperations operations, Duration keepAlive) {
+        this.operations = operations;
+        this.keepAlive = keepAlive;
+    }
+
+    /**
+     * The page after {@code cursor}, or the first page of a new PIT when {@code cursor} is {@code null}.
+     */
+    PagedHits page(Supplier<NativeQueryBuilder> query, int size, SearchCursor cursor) {
+        boolean first = cursor == null;
+        String pitId = first ? operations.openPointInTime(INDEX, keepAlive) : cursor.pitId();
+        try {
+            NativeQueryBuilder builder = query.get()
+                .withPageable(PageRequest.of(0, size))
+                .withPointInTime(new Query.PointInTime(pitId, keepAlive))
+                .withTrackTotalHits(first)
+                .withSort(s -> s.field(f -> f.field("_shard_doc").order(SortOrder.Asc)));
+            if (!first) {
+                builder.withSearchAfter(cursor.searchAfter());
+            }
+
+            SearchHits<NodeDocument> hits = operations.search(builder.build(), NodeDocument.class, INDEX);
+            String nextPitId = hits.getPointInTimeId() != null ? hits.getPointInTimeId() : pitId;
+            long totalHits = first ? hits.getTotalHits() : cursor.totalHits();
+            List<SearchHit<NodeDocument>> pageHits = hits.getSearchHits();
+            if (pageHits.size() < size) {
+                close(nextPitId);
+                return new PagedHits(pageHits, totalHits, null);
+            }
+            List<Object> sortValues = pageHits.get(pageHits.size() - 1).getSortValues();
+            return new PagedHits(pageHits, totalHits, new SearchCursor(nextPitId, sortValues, totalHits));
+        } catch (RuntimeException e) {
+            close(pitId);
+            throw e;
+        }
+    }
+
+    /**
+     * Hand every page of hits to {@code consumer}, holding at most one page in memory.
+     *
+     * @return number of hits read
+     */
+    long forEachPage(Supplier<NativeQueryBuilder> query, int size, PageConsumer consumer) throws IOException {
+        SearchCursor cursor = null;
+        long read = 0L;
+        try {
+            do {
+                PagedHits page = page(query, size, cursor);
+                cursor = page.next();
+                read += page.hits().size();
+                consumer.accept(page.hits());
+            } while (cursor != null);
+        } finally {
+            if (cursor != null) {
+                close(cursor.pitId());
+            }
+        }
+        return read;
+    }
+
+    /**
+     * Whether {@code failure} means the cursor's point in time is gone (expired or closed), as opposed
+     * to a cluster or query problem that a retry of the same cursor may survive.
+     */
+    static boolean isPointInTimeGone(Throwable failure) {
+        for (Throwable current = failure; current != null; current = current.getCause()) {
+            if (current instanceof ElasticsearchException elastic && hasSearchContextMissing(elastic.error())) {
+                return true;
+            }
+            if (current instanceof UncategorizedElasticsearchException uncategorized
+                && uncategorized.getResponseBody() != null
+                && uncategorized.getResponseBody().contains(SEARCH_CONTEXT_MISSING)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean hasSearchContextMissing(ErrorCause cause) {
+        if (cause == null) {
+            return false;
+        }
+        if (SEARCH_CONTEXT_MISSING.equals(cause.type()) || hasSearchContextMissing(cause.causedBy())) {
+            return true;
+        }
+        return cause.rootCause().stream().anyMatch(SearchPointInTimePager::hasSearchContextMissing);
+    }
+
+    private void close(String pitId) {
+        if (pitId == null) {
+            return;
+        }
+        try {
+            operations.closePointInTime(pitId);
+        } catch (RuntimeException e) {
+            log.debug("Failed to close search point in time: {}", e.getMessage());
+        }
+    }
+
+    record PagedHits(List<SearchHit<NodeDocument>> hits, long totalHits, SearchCursor next) {
+    }
+
+    @FunctionalInterface
+    interface PageConsumer {
+        void accept(List<SearchHit<NodeDocument>> hits) throws IOException;
+    }
+}
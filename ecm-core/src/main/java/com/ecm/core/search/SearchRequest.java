@@ -16,4 +16,8 @@ public class SearchRequest {
     private SimplePageRequest pageable;
     private boolean highlightEnabled = true;
     private List<String> facets;
+    /**
+     * Node properties to return with each result; only these are fetched from the index.
+     */
+    private List<String> resultProperties;
 }
@@ -1,5 +1,6 @@
 package com.ecm.core.search;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -49,6 +50,11 @@ public class SearchResult {
     private String previewStatus;
     private String previewFailureReason;
     private String previewFailureCategory;
+    /**
+     * Properties requested through {@code resultProperties}; absent when none were requested.
+     */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Map<String, Object> properties;
 
     /**
      * Get human-readable file size.
@@ -0,0 +1,133 @@
+package com.ecm.core.search;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Writes search results to a stream one row at a time, as CSV (the saved-search export columns) or
+ * JSON lines. Used with cursor paging so exports of any size run in constant memory.
+ */
+public final class SearchResultExportWriter implements Closeable {
+
+    static final String CSV_HEADER = "Name,Path,Type,MIME Type,Size (bytes),Version,"
+        + "Created By,Created Date,Last Modified By,Last Modified Date\n";
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final int WRITE_BUFFER_BYTES = 64 * 1024;
+
+    private final Writer writer;
+    private final Format format;
+    private long rows;
+
+    public SearchResultExportWriter(OutputStream target, Format format) throws IOException {
+        this.writer = new BufferedWriter(new OutputStreamWriter(target, StandardCharsets.UTF_8), WRITE_BUFFER_BYTES);
+        this.format = format;
+        if (format == Format.CSV) {
+            writer.write(CSV_HEADER);
+        }
+    }
+
+    public void write(SearchResult result) throws IOException {
+        writer.write(format == Format.JSONL ? toJsonLine(result) : toCsvLine(result));
+        rows++;
+    }
+
+    public void flush() throws IOException {
+        writer.flush();
+    }
+
+    public long rows() {
+        return rows;
+    }
+
+    @Override
+    public void close() throws IOException {
+        writer.close();
+    }
+
+    static String toCsvLine(SearchResult r) {
+        return String.join(",",
+            escapeCsv(r.getName()),
+            escapeCsv(r.getPath()),
+            escapeCsv(r.getNodeType()),
+            escapeCsv(r.getMimeType()),
+            escapeCsv(r.getFileSize()),
+            escapeCsv(r.getCurrentVersionLabel()),
+            escapeCsv(r.getCreatedBy()),
+            escapeCsv(r.getCreatedDate()),
+            escapeCsv(r.getLastModifiedBy()),
+            escapeCsv(r.getLastModifiedDate())) + "\n";
+    }
+
+    private static String toJsonLine(SearchResult r) throws IOException {
+        Map<String, Object> row = new LinkedHashMap<>();
+        row.put("id", r.getId());
+        row.put("name", r.getName());
+        row.put("path", r.getPath());
+        row.put("nodeType", r.getNodeType());
+        row.put("mimeType", r.getMimeType());
+        row.put("fileSize", r.getFileSize());
+        row.put("currentVersionLabel", r.getCurrentVersionLabel());
+        row.put("createdBy", r.getCreatedBy());
+        row.put("createdDate", r.getCreatedDate() != null ? r.getCreatedDate().toString() : null);
+        row.put("lastModifiedBy", r.getLastModifiedBy());
+        row.put("lastModifiedDate", r.getLastModifiedDate() != null ? r.getLastModifiedDate().toString() : null);
+        if (r.getProperties() != null) {
+            row.put("properties", r.getProperties());
+        }
+        return MAPPER.writeValueAsString(row) + "\n";
+    }
+
+    private static String escapeCsv(Object value) {
+        if (value == null) {
+            return "";
+        }
+        String text = value.toString();
+        if (text.contains("\"") || text.contains(",") || text.contains("\n") || text.contains("\r")) {
+            return "\"" + text.replace("\"", "\"\"") + "\"";
+        }
+        return text;
+    }
+
+    public enum Format {
+        CSV("csv", "text/csv; charset=UTF-8"),
+        JSONL("jsonl", "application/x-ndjson");
+
+        private final String extension;
+        private final String contentType;
+
+        Format(String extension, String contentType) {
+            this.extension = extension;
+            this.contentType = contentType;
+        }
+
+        public String extension() {
+            return extension;
+        }
+
+        public String contentType() {
+            return contentType;
+        }
+
+        public static Format fromString(String value) {
+            if (value == null || value.isBlank()) {
+                return CSV;
+            }
+            return switch (value.trim().toLowerCase(Locale.ROOT)) {
+                case "csv" -> CSV;
+                case "jsonl", "ndjson", "json-lines" -> JSONL;
+                default -> throw new IllegalArgumentException("Unsupported search export format: " + value);
+            };
+        }
+    }
+}
@@ -47,6 +47,26 @@ public interface DynamicAuthority {
         return 100;
     }
 
+    /**
+     * Owners (usernames in {@code createdBy}) whose nodes this authority lets {@code username} read.
+     * Search filters use this because they cannot call {@link #hasAuthority} per hit.
+     *
+     * @return owner usernames, empty when the authority does not grant READ by ownership
+     */
+    default Set<String> readableOwners(String username) {
+        return Set.of();
+    }
+
+    /**
+     * Owner departments (the indexed department of {@code createdBy}) whose nodes this authority lets
+     * {@code username} read. Search filters match these instead of expanding them into owner lists.
+     *
+     * @return departments, empty when the authority does not grant READ by department
+     */
+    default Set<String> readableOwnerDepartments(String username) {
+        return Set.of();
+    }
+
     /**
      * Check if this authority grants the permission.
      * Returns null if this authority doesn't make a decision.
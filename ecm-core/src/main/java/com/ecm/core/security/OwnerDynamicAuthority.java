@@ -56,6 +56,11 @@ public class OwnerDynamicAuthority implements DynamicAuthority {
         return null;
     }
 
+    @Override
+    public Set<String> readableOwners(String username) {
+        return username != null ? Set.of(username) : Set.of();
+    }
+
     @Override
     public int getPriority() {
         // High priority - owner check should happen early
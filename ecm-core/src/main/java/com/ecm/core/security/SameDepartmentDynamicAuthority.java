@@ -84,6 +84,15 @@ public class SameDepartmentDynamicAuthority implements DynamicAuthority {
         return Set.of(PermissionType.READ);
     }
 
+    @Override
+    public Set<String> readableOwnerDepartments(String username) {
+        if (!enabled) {
+            return Set.of();
+        }
+        String department = getDepartment(username);
+        return department != null ? Set.of(department) : Set.of();
+    }
+
     @Override
     public int getPriority() {
         // Lower priority - check after owner and lock owner
@@ -10,8 +10,11 @@ import javax.crypto.spec.GCMParameterSpec;
 import javax.crypto.spec.SecretKeySpec;
 import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
 import java.security.SecureRandom;
+import java.util.ArrayList;
 import java.util.Base64;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 
@@ -24,6 +27,18 @@ public class SecretCryptoService {
     private static final int IV_LENGTH = 12;
     private static final int TAG_LENGTH_BITS = 128;
 
+    /**
+     * {@link Cipher#getInstance} walks the provider list on every call; a cipher re-initialised with
+     * a fresh key/IV per operation is safe to reuse within one thread.
+     */
+    private static final ThreadLocal<Cipher> CIPHERS = ThreadLocal.withInitial(() -> {
+        try {
+            return Cipher.getInstance(ALGORITHM);
+        } catch (GeneralSecurityException ex) {
+            throw new IllegalStateException("Cipher " + ALGORITHM + " is not available", ex);
+        }
+    });
+
     private final SecretCryptoProperties properties;
     private final SecureRandom secureRandom = new SecureRandom();
     private final Map<String, SecretKeySpec> keyCache = new ConcurrentHashMap<>();
@@ -42,12 +57,41 @@ public class SecretCryptoService {
         }
 
         String keyVersion = properties.getActiveKeyVersion();
-        SecretKeySpec key = resolveKey(keyVersion);
+        return encrypt(value, keyVersion, resolveKey(keyVersion));
+    }
+
+    /**
+     * Bulk variant of {@link #protect(String)} for backfill and rewrap batches: the active key is
+     * resolved once and all values are encrypted on this thread's cipher. The result has the same
+     * order and size as {@code values}.
+     */
+    public List<String> protectAll(List<String> values) {
+        List<String> protectedValues = new ArrayList<>(values.size());
+        if (!properties.isEnabled()) {
+            protectedValues.addAll(values);
+            return protectedValues;
+        }
+        String keyVersion = properties.getActiveKeyVersion();
+        SecretKeySpec key = null;
+        for (String value : values) {
+            if (!StringUtils.hasText(value) || isEncrypted(value)) {
+                protectedValues.add(value);
+                continue;
+            }
+            if (key == null) {
+                key = resolveKey(keyVersion);
+            }
+            protectedValues.add(encrypt(value, keyVersion, key));
+        }
+        return protectedValues;
+    }
+
+    private String encrypt(String value, String keyVersion, SecretKeySpec key) {
         byte[] iv = new byte[IV_LENGTH];
         secureRandom.nextBytes(iv);
 
         try {
-            Cipher cipher = Cipher.getInstance(ALGORITHM);
+            Cipher cipher = CIPHERS.get();
             cipher.init(Cipher.ENCRYPT_MODE, key, new GCMParameterSpec(TAG_LENGTH_BITS, iv));
             byte[] ciphertext = cipher.doFinal(value.getBytes(StandardCharsets.UTF_8));
             ByteBuffer payload = ByteBuffer.allocate(1 + iv.length + ciphertext.length);
@@ -66,7 +110,40 @@ public class SecretCryptoService {
         }
 
         ParsedSecret parsed = parse(value);
-        SecretKeySpec key = resolveKey(parsed.keyVersion());
+        return decrypt(parsed, resolveKey(parsed.keyVersion()));
+    }
+
+    /**
+     * {@link #reveal(String)} applied to each value; plaintext values pass through unchanged. Each
+     * payload carries its own IV, so there is nothing to share between values beyond the cached key.
+     * The result has the same order and size as {@code values}.
+     */
+    public List<String> revealAll(List<String> values) {
+        List<String> revealed = new ArrayList<>(values.size());
+        for (String value : values) {
+            revealed.add(reveal(value));
+        }
+        return revealed;
+    }
+
+    /**
+     * Whether a key for {@code keyVersion} is configured, i.e. payloads of that version can still be read.
+     */
+    public boolean hasKeyVersion(String keyVersion) {
+        return keyVersion != null && StringUtils.hasText(properties.getKeys().get(keyVersion));
+    }
+
+    /**
+     * Key version of an encrypted payload, or {@code null} for plaintext values.
+     */
+    public String keyVersionOf(String value) {
+        if (!StringUtils.hasText(value) || !isEncrypted(value)) {
+            return null;
+        }
+        return parse(value).keyVersion();
+    }
+
+    private String decrypt(ParsedSecret parsed, SecretKeySpec key) {
         byte[] payload = Base64.getDecoder().decode(parsed.payload());
         ByteBuffer buffer = ByteBuffer.wrap(payload);
         int ivLength = Byte.toUnsignedInt(buffer.get());
@@ -76,7 +153,7 @@ public class SecretCryptoService {
         buffer.get(ciphertext);
 
         try {
-            Cipher cipher = Cipher.getInstance(ALGORITHM);
+            Cipher cipher = CIPHERS.get();
             cipher.init(Cipher.DECRYPT_MODE, key, new GCMParameterSpec(TAG_LENGTH_BITS, iv));
             byte[] plaintext = cipher.doFinal(ciphertext);
             return new String(plaintext, StandardCharsets.UTF_8);
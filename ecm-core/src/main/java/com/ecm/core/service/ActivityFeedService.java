@@ -0,0 +1,461 @@
+package com.ecm.core.service;
+
+import com.ecm.core.entity.Activity;
+import com.ecm.core.entity.ActivityFeedEntry;
+import com.ecm.core.entity.FollowSubscription;
+import com.ecm.core.entity.FollowTargetType;
+import com.ecm.core.entity.Node;
+import com.ecm.core.repository.ActivityFeedEntryRepository;
+import com.ecm.core.repository.ActivityRepository;
+import com.ecm.core.repository.FollowSubscriptionRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.ToLongFunction;
+import java.util.stream.Stream;
+
+/**
+ * Fan-out-on-write activity feeds.
+ *
+ * <p>When an activity is posted, one {@link ActivityFeedEntry} is written per follower of the
+ * activity's user, site, or node. Targets with more followers than the fan-out cap are skipped
+ * at write time and merged in at read time instead (fan-in), so a single post to a very busy
+ * site never writes an unbounded number of rows.
+ *
+ * <p>Each entry records one source, the first followed target that produced it. When a follow is
+ * removed, entries another of the user's subscriptions still covers are attributed to that
+ * subscription instead of being deleted.
+ *
+ * <p>Fan-in only applies while a target is above the cap. Activities it posted during that time are
+ * never materialized, so once unfollows bring it back under the cap they no longer appear in the
+ * following feed; they remain in the global, site and node feeds. Raising
+ * {@code ecm.activity.feed.fan-out-cap} has the same effect for targets that drop below the new cap.
+ *
+ * <p>All reads are keyset-paginated by {@code (postedAt, id)} and only the rows that end up on
+ * the returned page are checked for tenant visibility.
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class ActivityFeedService {
+
+    static final int DEFAULT_LIMIT = 20;
+    static final int MAX_LIMIT = 100;
+    private static final int MIN_BATCH_SIZE = 50;
+    private static final int MAX_BATCH_SIZE = 500;
+    private static final int MAX_SCAN_BATCHES = 10;
+    private static final UUID EMPTY_NODE_SENTINEL = UUID.fromString("00000000-0000-0000-0000-000000000000");
+
+    /**
+     * Newest first, matching the database order of {@code postedAt DESC, id DESC}. PostgreSQL
+     * compares UUIDs byte-wise, which is the same as comparing their canonical lowercase form.
+     */
+    static final Comparator<Activity> NEWEST_FIRST = Comparator
+        .comparing(Activity::getPostedAt)
+        .thenComparing(activity -> activity.getId().toString())
+        .reversed();
+
+    /** Sorts after every real row; {@code ffffffff-...} is the largest UUID. */
+    static final KeysetCursor<UUID> HEAD = KeysetCursor.head(new UUID(-1L, -1L));
+
+    private final ActivityFeedEntryRepository feedEntryRepository;
+    private final ActivityRepository activityRepository;
+    private final FollowSubscriptionRepository followSubscriptionRepository;
+    private final TenantWorkspaceScopeService tenantWorkspaceScopeService;
+
+    @Value("${ecm.activity.feed.fan-out-cap:5000}")
+    private long fanOutCap = 5000;
+
+    @Value("${ecm.activity.feed.backfill-limit:200}")
+    private int backfillLimit = 200;
+
+    // ------------------------------------------------------------------ write path
+
+    /**
+     * Materialize feed entries for every follower of the activity's user, site, and node.
+     * Targets above the fan-out cap are left to the fan-in read path.
+     *
+     * <p>Runs in its own transaction once the posting transaction has committed, so a failure here
+     * never marks the caller's transaction rollback-only, and the activity is re-read to use the
+     * {@code postedAt} the database actually stored.
+     *
+     * @return number of feed entries written
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public int fanOut(UUID activityId) {
+        if (activityId == null) {
+            return 0;
+        }
+        return activityRepository.findById(activityId)
+            .map(this::fanOut)
+            .orElseGet(() -> {
+                log.debug("Activity {} no longer exists; nothing to fan out", activityId);
+                return 0;
+            });
+    }
+
+    int fanOut(Activity activity) {
+        if (activity == null || activity.getId() == null) {
+            return 0;
+        }
+        if (activity.getPostedAt() == null) {
+            // Feed order is keyed on postedAt; an unpersisted timestamp would misplace the entry.
+            log.warn("Skipping fan-out for activity {} without a persisted postedAt", activity.getId());
+            return 0;
+        }
+        Map<String, FeedSource> recipients = new LinkedHashMap<>();
+        collectFollowers(FollowTargetType.USER, activity.getUserId(), recipients);
+        collectFollowers(FollowTargetType.SITE, activity.getSiteId(), recipients);
+        collectFollowers(
+            FollowTargetType.NODE,
+            activity.getNodeId() != null ? activity.getNodeId().toString() : null,
+            recipients
+        );
+        if (recipients.isEmpty()) {
+            return 0;
+        }
+
+        List<ActivityFeedEntry> entries = new ArrayList<>(recipients.size());
+        recipients.forEach((userId, source) -> entries.add(newEntry(userId, activity, activity.getPostedAt(), source)));
+        feedEntryRepository.saveAll(entries);
+        log.debug("Fanned out activity {} to {} feeds", activity.getId(), entries.size());
+        return entries.size();
+    }
+
+    /**
+     * Copy the most recent activities of a newly followed target into the follower's feed so the
+     * feed is not empty until the target posts again. Targets above the fan-out cap need no
+     * backfill because they are always read with fan-in.
+     *
+     * @return number of feed entries written
+     */
+    @Transactional
+    public int backfillFollow(String userId, FollowTargetType targetType, String targetId) {
+        if (userId == null || targetType == null || targetId == null || backfillLimit <= 0) {
+            return 0;
+        }
+        if (followSubscriptionRepository.countByTargetTypeAndTargetId(targetType, targetId) > fanOutCap) {
+            return 0;
+        }
+        FanInTargets target = FanInTargets.single(targetType, targetId);
+        List<Activity> recent = fetchTargetActivities(target, HEAD, backfillLimit);
+        if (recent.isEmpty()) {
+            return 0;
+        }
+
+        Set<UUID> existing = new HashSet<>(feedEntryRepository.findActivityIdsForUser(
+            userId,
+            recent.stream().map(Activity::getId).toList()
+        ));
+        FeedSource source = new FeedSource(targetType, targetId);
+        List<ActivityFeedEntry> entries = recent.stream()
+            .filter(activity -> !existing.contains(activity.getId()))
+            .map(activity -> newEntry(userId, activity, activity.getPostedAt(), source))
+            .toList();
+        feedEntryRepository.saveAll(entries);
+        return entries.size();
+    }
+
+    /**
+     * Remove the feed entries a follow subscription contributed. Entries whose activity was posted by,
+     * in, or on another target the user still follows are attributed to that target and kept.
+     * Expects the subscription itself to be deleted already.
+     *
+     * @return number of feed entries deleted
+     */
+    @Transactional
+    public int removeFollow(String userId, FollowTargetType targetType, String targetId) {
+        if (userId == null || targetType == null || targetId == null) {
+            return 0;
+        }
+        List<String> userIds = new ArrayList<>();
+        List<String> siteIds = new ArrayList<>();
+        List<UUID> nodeIds = new ArrayList<>();
+        for (FollowSubscription subscription : followSubscriptionRepository.findByUserIdOrderByCreatedAtDesc(userId)) {
+            if (subscription.getTargetType() == targetType && targetId.equals(subscription.getTargetId())) {
+                continue;
+            }
+            switch (subscription.getTargetType()) {
+                case USER -> userIds.add(subscription.getTargetId());
+                case SITE -> siteIds.add(subscription.getTargetId());
+                case NODE -> nodeIds.add(UUID.fromString(subscription.getTargetId()));
+            }
+        }
+        String sourceType = targetType.name();
+        int kept = 0;
+        if (!userIds.isEmpty()) {
+            kept += feedEntryRepository.reassignSourceToFollowedUsers(userId, sourceType, targetId, userIds);
+        }
+        if (!siteIds.isEmpty()) {
+            kept += feedEntryRepository.reassignSourceToFollowedSites(userId, sourceType, targetId, siteIds);
+        }
+        if (!nodeIds.isEmpty()) {
+            kept += feedEntryRepository.reassignSourceToFollowedNodes(userId, sourceType, targetId, nodeIds);
+        }
+        int deleted = feedEntryRepository.deleteByUserIdAndSource(userId, targetType, targetId);
+        log.debug("Unfollow of {} {} by {}: kept {} feed entries under other subscriptions, deleted {}",
+            targetType, targetId, userId, kept, deleted);
+        return deleted;
+    }
+
+    // ------------------------------------------------------------------ read path
+
+    /**
+     * Personalized feed: materialized entries merged with fan-in reads for followed targets that
+     * exceed the fan-out cap.
+     */
+    @Transactional(readOnly = true)
+    public ActivityFeedSlice getFollowingFeed(String userId, String cursorToken, int limit) {
+        FanInTargets fanIn = resolveFanInTargets(userId);
+        return readFeed(parseCursor(cursorToken), normalizeLimit(limit),
+            (cursor, batchSize) -> fetchFollowingBatch(userId, fanIn, cursor, batchSize));
+    }
+
+    @Transactional(readOnly = true)
+    public ActivityFeedSlice getGlobalFeed(String cursorToken, int limit) {
+        return readFeed(parseCursor(cursorToken), normalizeLimit(limit), (cursor, batchSize) -> {
+            List<Activity> activities = activityRepository.findGlobalFeedBeforeCursor(
+                cursor.time(), cursor.id(), PageRequest.of(0, batchSize));
+            return new FeedBatch(activities, activities.size() < batchSize);
+        });
+    }
+
+    @Transactional(readOnly = true)
+    public ActivityFeedSlice getNodeFeed(UUID nodeId, String cursorToken, int limit) {
+        return readFeed(parseCursor(cursorToken), normalizeLimit(limit), (cursor, batchSize) -> {
+            List<Activity> activities = activityRepository.findNodeFeedBeforeCursor(
+                nodeId, cursor.time(), cursor.id(), PageRequest.of(0, batchSize));
+            return new FeedBatch(activities, activities.size() < batchSize);
+        });
+    }
+
+    /**
+     * Number of activities the following feed shows this user, for offset-paged callers that
+     * report totals. Tenant visibility is applied in the query, matching what the slices return.
+     */
+    @Transactional(readOnly = true)
+    public long countFollowingFeed(String userId) {
+        FanInTargets fanIn = resolveFanInTargets(userId);
+        boolean includeUsers = !fanIn.userIds().isEmpty();
+        boolean includeSites = !fanIn.siteIds().isEmpty();
+        boolean includeNodes = !fanIn.nodeIds().isEmpty();
+        return countVisible(scope -> activityRepository.countVisibleFollowingFeed(
+            userId,
+            includeUsers,
+            includeUsers ? fanIn.userIds() : List.of("__no-followed-user__"),
+            includeSites,
+            includeSites ? fanIn.siteIds() : List.of("__no-followed-site__"),
+            includeNodes,
+            includeNodes ? fanIn.nodeIds() : List.of(EMPTY_NODE_SENTINEL),
+            scope.scoped(), scope.root(), scope.pathPattern(), Node.ArchiveStatus.LIVE));
+    }
+
+    @Transactional(readOnly = true)
+    public long countGlobalFeed() {
+        return countVisible(scope -> activityRepository.countVisibleGlobalFeed(
+            scope.scoped(), scope.root(), scope.pathPattern(), Node.ArchiveStatus.LIVE));
+    }
+
+    @Transactional(readOnly = true)
+    public long countNodeFeed(UUID nodeId) {
+        return countVisible(scope -> activityRepository.countVisibleNodeFeed(
+            nodeId, scope.scoped(), scope.root(), scope.pathPattern(), Node.ArchiveStatus.LIVE));
+    }
+
+    private long countVisible(ToLongFunction<TenantScope> count) {
+        String tenantRootPath = tenantWorkspaceScopeService.resolveCurrentTenantRootPath();
+        if (tenantRootPath == null) {
+            return count.applyAsLong(new TenantScope(false, "", ""));
+        }
+        if (tenantRootPath.isBlank()) {
+            return 0L;
+        }
+        return count.applyAsLong(new TenantScope(true, tenantRootPath, escapeLike(tenantRootPath) + "/%"));
+    }
+
+    private static String escapeLike(String value) {
+        return value.replace("!", "!!").replace("%", "!%").replace("_", "!_");
+    }
+
+    private ActivityFeedSlice readFeed(KeysetCursor<UUID> start, int limit, BatchSource source) {
+        String tenantRootPath = tenantWorkspaceScopeService.resolveCurrentTenantRootPath();
+        int batchSize = Math.min(Math.max(limit * 2, MIN_BATCH_SIZE), MAX_BATCH_SIZE);
+        List<Activity> items = new ArrayList<>(limit);
+        KeysetCursor<UUID> cursor = start;
+
+        for (int round = 0; round < MAX_SCAN_BATCHES; round++) {
+            FeedBatch batch = source.fetch(cursor, batchSize);
+            for (Activity activity : batch.activities()) {
+                if (items.size() == limit) {
+                    return new ActivityFeedSlice(items, cursor.serialize(), true);
+                }
+                cursor = cursorOf(activity);
+                if (tenantWorkspaceScopeService.isActivityVisible(activity, tenantRootPath)) {
+                    items.add(activity);
+                }
+            }
+            if (batch.exhausted()) {
+                return new ActivityFeedSlice(items, items.isEmpty() ? null : cursor.serialize(), false);
+            }
+        }
+        // Scan budget spent on invisible rows: hand back what we have and let the client continue.
+        return new ActivityFeedSlice(items, cursor.serialize(), true);
+    }
+
+    private FeedBatch fetchFollowingBatch(String userId, FanInTargets fanIn, KeysetCursor<UUID> cursor, int batchSize) {
+        List<Activity> materialized = feedEntryRepository.findFeedBeforeCursor(
+                userId, cursor.time(), cursor.id(), PageRequest.of(0, batchSize))
+            .stream()
+            .map(ActivityFeedEntry::getActivity)
+            .toList();
+        if (fanIn.isEmpty()) {
+            return new FeedBatch(materialized, materialized.size() < batchSize);
+        }
+
+        List<Activity> fannedIn = fetchTargetActivities(fanIn, cursor, batchSize);
+        // Anything older than the newest "last row" of a full source may still be missing from
+        // the other source, so only the prefix up to that frontier is safe to emit this round.
+        Activity frontier = null;
+        if (materialized.size() == batchSize) {
+            frontier = materialized.get(materialized.size() - 1);
+        }
+        if (fannedIn.size() == batchSize) {
+            Activity candidate = fannedIn.get(fannedIn.size() - 1);
+            if (frontier == null || NEWEST_FIRST.compare(candidate, frontier) < 0) {
+                frontier = candidate;
+            }
+        }
+
+        Set<UUID> seen = new HashSet<>();
+        Activity limit = frontier;
+        List<Activity> merged = Stream.concat(materialized.stream(), fannedIn.stream())
+            .sorted(NEWEST_FIRST)
+            .filter(activity -> limit == null || NEWEST_FIRST.compare(activity, limit) <= 0)
+            .filter(activity -> seen.add(activity.getId()))
+            .toList();
+        return new FeedBatch(merged, frontier == null);
+    }
+
+    private List<Activity> fetchTargetActivities(FanInTargets targets, KeysetCursor<UUID> cursor, int batchSize) {
+        boolean includeUsers = !targets.userIds().isEmpty();
+        boolean includeSites = !targets.siteIds().isEmpty();
+        boolean includeNodes = !targets.nodeIds().isEmpty();
+        return activityRepository.findTargetFeedBeforeCursor(
+            includeUsers,
+            includeUsers ? targets.userIds() : List.of("__no-followed-user__"),
+            includeSites,
+            includeSites ? targets.siteIds() : List.of("__no-followed-site__"),
+            includeNodes,
+            includeNodes ? targets.nodeIds() : List.of(EMPTY_NODE_SENTINEL),
+            cursor.time(),
+            cursor.id(),
+            PageRequest.of(0, batchSize)
+        );
+    }
+
+    private FanInTargets resolveFanInTargets(String userId) {
+        List<String> userIds = new ArrayList<>();
+        List<String> siteIds = new ArrayList<>();
+        List<UUID> nodeIds = new ArrayList<>();
+        for (FollowSubscription subscription : followSubscriptionRepository.findFanInSubscriptions(userId, fanOutCap)) {
+            switch (subscription.getTargetType()) {
+                case USER -> userIds.add(subscription.getTargetId());
+                case SITE -> siteIds.add(subscription.getTargetId());
+                case NODE -> nodeIds.add(UUID.fromString(subscription.getTargetId()));
+            }
+        }
+        return new FanInTargets(userIds, siteIds, nodeIds);
+    }
+
+    private void collectFollowers(FollowTargetType targetType, String targetId, Map<String, FeedSource> recipients) {
+        if (targetId == null || targetId.isBlank()) {
+            return;
+        }
+        long followers = followSubscriptionRepository.countByTargetTypeAndTargetId(targetType, targetId);
+        if (followers == 0) {
+            return;
+        }
+        if (followers > fanOutCap) {
+            log.debug("Skipping fan-out for {} {} with {} followers (cap {}); served by fan-in",
+                targetType, targetId, followers, fanOutCap);
+            return;
+        }
+        FeedSource source = new FeedSource(targetType, targetId);
+        for (String follower : followSubscriptionRepository.findUserIdsByTarget(targetType, targetId)) {
+            recipients.putIfAbsent(follower, source);
+        }
+    }
+
+    private static ActivityFeedEntry newEntry(String userId, Activity activity, LocalDateTime postedAt, FeedSource source) {
+        ActivityFeedEntry entry = new ActivityFeedEntry();
+        entry.setUserId(userId);
+        entry.setActivity(activity);
+        entry.setPostedAt(postedAt);
+        entry.setSourceType(source.type());
+        entry.setSourceId(source.id());
+        return entry;
+    }
+
+    static KeysetCursor<UUID> parseCursor(String token) {
+        return KeysetCursor.parse(token, UUID::fromString, HEAD, "feed cursor");
+    }
+
+    static KeysetCursor<UUID> cursorOf(Activity activity) {
+        return new KeysetCursor<>(activity.getPostedAt(), activity.getId());
+    }
+
+    private static int normalizeLimit(int limit) {
+        if (limit <= 0) {
+            return DEFAULT_LIMIT;
+        }
+        return Math.min(limit, MAX_LIMIT);
+    }
+
+    // ------------------------------------------------------------------ types
+
+    public record ActivityFeedSlice(
+        List<Activity> items,
+        String nextCursor,
+        boolean hasMore
+    ) {}
+
+    @FunctionalInterface
+    private interface BatchSource {
+        FeedBatch fetch(KeysetCursor<UUID> cursor, int batchSize);
+    }
+
+    private record FeedBatch(List<Activity> activities, boolean exhausted) {}
+
+    private record FeedSource(FollowTargetType type, String id) {}
+
+    private record TenantScope(boolean scoped, String root, String pathPattern) {}
+
+    private record FanInTargets(List<String> userIds, List<String> siteIds, List<UUID> nodeIds) {
+
+        static FanInTargets single(FollowTargetType targetType, String targetId) {
+            return switch (targetType) {
+                case USER -> new FanInTargets(List.of(targetId), List.of(), List.of());
+                case SITE -> new FanInTargets(List.of(), List.of(targetId), List.of());
+                case NODE -> new FanInTargets(List.of(), List.of(), List.of(UUID.fromString(targetId)));
+            };
+        }
+
+        boolean isEmpty() {
+            return userIds.isEmpty() && siteIds.isEmpty() && nodeIds.isEmpty();
+        }
+    }
+}
@@ -2,36 +2,44 @@ package com.ecm.core.service;
 
 import com.ecm.core.entity.Activity;
 import com.ecm.core.repository.ActivityRepository;
+import com.ecm.core.scheduler.ClusterJob;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.support.PageableExecutionUtils;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
+import java.util.function.LongSupplier;
 
 @Service
 @Slf4j
 @RequiredArgsConstructor
 public class ActivityService {
 
-    private static final UUID EMPTY_NODE_SENTINEL = UUID.fromString("00000000-0000-0000-0000-000000000000");
-
     private final ActivityRepository activityRepository;
-    private final FollowingService followingService;
     private final TenantWorkspaceScopeService tenantWorkspaceScopeService;
 
     @org.springframework.beans.factory.annotation.Autowired
     @org.springframework.context.annotation.Lazy
     private NotificationInboxService notificationInboxService;
 
+    @org.springframework.beans.factory.annotation.Autowired
+    @org.springframework.context.annotation.Lazy
+    private ActivityFeedService activityFeedService;
+
     /**
      * Post a new activity entry.
      */
@@ -39,6 +47,17 @@ public class ActivityService {
     public Activity postActivity(String activityType, String userId, String siteId,
                                   UUID nodeId, String nodeName, Map<String, Object> summary) {
         Activity saved = saveActivity(activityType, userId, siteId, nodeId, nodeName, summary);
+        // materialize follower feeds once the activity row is committed
+        if (activityFeedService != null) {
+            UUID activityId = saved.getId();
+            afterCommit(() -> {
+                try {
+                    activityFeedService.fanOut(activityId);
+                } catch (Exception e) {
+                    log.warn("Failed to fan out activity {} to follower feeds: {}", activityId, e.getMessage());
+                }
+            });
+        }
         // route to follower inboxes
         if (notificationInboxService != null) {
             try {
@@ -133,24 +152,8 @@ public class ActivityService {
      */
     @Transactional(readOnly = true)
     public Page<Activity> getFollowingFeed(String userId, Pageable pageable) {
-        FollowingService.FollowingTargets targets = followingService.getFollowingTargets(userId);
-        boolean includeUsers = !targets.userIds().isEmpty();
-        boolean includeSites = !targets.siteIds().isEmpty();
-        boolean includeNodes = !targets.nodeIds().isEmpty();
-
-        if (!includeUsers && !includeSites && !includeNodes) {
-            return Page.empty(pageable);
-        }
-
-        return filterVisibleActivities(activityRepository.findFollowingFeed(
-            includeUsers,
-            includeUsers ? targets.userIds() : List.of("__no-followed-user__"),
-            includeSites,
-            includeSites ? targets.siteIds() : List.of("__no-followed-site__"),
-            includeNodes,
-            includeNodes ? targets.nodeIds() : List.of(EMPTY_NODE_SENTINEL),
-            Pageable.unpaged()
-        ), pageable);
+        return pageFromFeed(pageable, (cursor, limit) -> activityFeedService.getFollowingFeed(userId, cursor, limit),
+            () -> activityFeedService.countFollowingFeed(userId));
     }
 
     /**
@@ -158,7 +161,7 @@ public class ActivityService {
      */
     @Transactional(readOnly = true)
     public Page<Activity> getGlobalFeed(Pageable pageable) {
-        return filterVisibleActivities(activityRepository.findAllByOrderByPostedAtDesc(Pageable.unpaged()), pageable);
+        return pageFromFeed(pageable, activityFeedService::getGlobalFeed, activityFeedService::countGlobalFeed);
     }
 
     /**
@@ -166,7 +169,8 @@ public class ActivityService {
      */
     @Transactional(readOnly = true)
     public Page<Activity> getNodeFeed(UUID nodeId, Pageable pageable) {
-        return filterVisibleActivities(activityRepository.findByNodeIdOrderByPostedAtDesc(nodeId, Pageable.unpaged()), pageable);
+        return pageFromFeed(pageable, (cursor, limit) -> activityFeedService.getNodeFeed(nodeId, cursor, limit),
+            () -> activityFeedService.countNodeFeed(nodeId));
     }
 
     /**
@@ -174,6 +178,7 @@ public class ActivityService {
      */
     @Scheduled(cron = "0 0 3 * * *")
     @Transactional
+    @ClusterJob
     public void cleanupOldActivities() {
         LocalDateTime cutoff = LocalDateTime.now().minusDays(90);
         int deleted = activityRepository.deleteOlderThan(cutoff);
@@ -182,6 +187,32 @@ public class ActivityService {
         }
     }
 
+    /**
+     * Serve an offset page from a keyset feed by reading forward from the head until the page is
+     * covered. Only rows up to the end of the requested page are loaded. The total comes from
+     * {@code count}, which is skipped when the page itself shows where the feed ends.
+     */
+    private Page<Activity> pageFromFeed(Pageable pageable, FeedReader reader, LongSupplier count) {
+        Pageable page = pageable == null || pageable.isUnpaged()
+            ? PageRequest.of(0, ActivityFeedService.DEFAULT_LIMIT)
+            : pageable;
+        long wanted = page.getOffset() + page.getPageSize();
+        List<Activity> loaded = new ArrayList<>();
+        String cursor = null;
+        boolean hasMore = true;
+        while (hasMore && loaded.size() < wanted) {
+            int limit = (int) Math.min(ActivityFeedService.MAX_LIMIT, wanted - loaded.size());
+            ActivityFeedService.ActivityFeedSlice slice = reader.read(cursor, limit);
+            loaded.addAll(slice.items());
+            cursor = slice.nextCursor();
+            hasMore = slice.hasMore() && cursor != null;
+        }
+
+        int fromIndex = (int) Math.min(page.getOffset(), loaded.size());
+        int toIndex = Math.min(fromIndex + page.getPageSize(), loaded.size());
+        return PageableExecutionUtils.getPage(loaded.subList(fromIndex, toIndex), page, count);
+    }
+
     private Page<Activity> filterVisibleActivities(Page<Activity> source, Pageable pageable) {
         String tenantRootPath = tenantWorkspaceScopeService.resolveCurrentTenantRootPath();
         List<Activity> visible = source.getContent().stream()
@@ -202,4 +233,22 @@ public class ActivityService {
         int toIndex = Math.min(fromIndex + pageable.getPageSize(), activities.size());
         return new PageImpl<>(activities.subList(fromIndex, toIndex), pageable, activities.size());
     }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    @FunctionalInterface
+    private interface FeedReader {
+        ActivityFeedService.ActivityFeedSlice read(String cursor, int limit);
+    }
 }
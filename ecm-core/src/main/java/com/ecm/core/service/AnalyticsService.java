@@ -6,6 +6,7 @@ import com.ecm.core.entity.Document;
 import com.ecm.core.entity.Node;
 import com.ecm.core.repository.AuditLogRepository;
 import com.ecm.core.repository.NodeRepository;
+import com.ecm.core.scheduler.ClusterJob;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
@@ -20,7 +21,6 @@ import java.io.IOException;
 import java.io.StringWriter;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
 import java.util.*;
 import java.util.stream.Collectors;
 
@@ -291,45 +291,17 @@ public class AnalyticsService {
     }
 
     /**
-     * Generate CSV content from audit logs
+     * Generate CSV content from audit logs. Only suitable for bounded result sets; large ranges should
+     * go through {@link AuditExportStreamingService}, which shares the same row format.
      */
     private String generateCsv(List<AuditLog> logs) {
-        StringBuilder csv = new StringBuilder();
-        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
-
-        // CSV header
-        csv.append("ID,Event Type,Node ID,Node Name,Username,Event Time,Details,Client IP,User Agent\n");
-
-        // CSV data rows
+        StringBuilder csv = new StringBuilder(AuditExportStreamingService.CSV_HEADER);
         for (AuditLog log : logs) {
-            csv.append(escapeCsv(log.getId() != null ? log.getId().toString() : "")).append(",");
-            csv.append(escapeCsv(log.getEventType())).append(",");
-            csv.append(escapeCsv(log.getNodeId() != null ? log.getNodeId().toString() : "")).append(",");
-            csv.append(escapeCsv(log.getNodeName())).append(",");
-            csv.append(escapeCsv(log.getUsername())).append(",");
-            csv.append(escapeCsv(log.getEventTime() != null ? log.getEventTime().format(formatter) : "")).append(",");
-            csv.append(escapeCsv(log.getDetails())).append(",");
-            csv.append(escapeCsv(log.getClientIp())).append(",");
-            csv.append(escapeCsv(log.getUserAgent())).append("\n");
+            csv.append(AuditExportStreamingService.toCsvLine(log));
         }
-
         return csv.toString();
     }
 
-    /**
-     * Escape CSV field value
-     */
-    private String escapeCsv(String value) {
-        if (value == null) {
-            return "";
-        }
-        // Escape double quotes and wrap in quotes if contains special characters
-        if (value.contains(",") || value.contains("\"") || value.contains("\n") || value.contains("\r")) {
-            return "\"" + value.replace("\"", "\"\"") + "\"";
-        }
-        return value;
-    }
-
     private AuditCategory resolveCategory(String eventType) {
         if (eventType == null) {
             return AuditCategory.OTHER;
@@ -383,6 +355,7 @@ public class AnalyticsService {
      */
     @Scheduled(cron = "0 0 2 * * *")
     @Transactional
+    @ClusterJob
     public void cleanupExpiredAuditLogs() {
         if (auditRetentionDays <= 0) {
             log.info("Audit log retention is disabled (retention-days={})", auditRetentionDays);
@@ -1,5 +1,6 @@
 package com.ecm.core.service;
 
+import com.ecm.core.scheduler.ClusterJob;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.scheduling.annotation.Scheduled;
@@ -13,6 +14,7 @@ public class ArchivePolicyScheduler {
     private final ArchivePolicyService archivePolicyService;
 
     @Scheduled(cron = "${ecm.archive.policy.cron:0 15 3 * * *}")
+    @ClusterJob
     public void runPolicies() {
         ArchivePolicyService.ArchivePolicyBatchExecutionDto result = archivePolicyService.runScheduledPolicies();
         if (result.executedPolicies() > 0) {
@@ -1,7 +1,16 @@
 package com.ecm.core.service;
 
+import com.ecm.core.asynctask.AsyncTaskOrphanHandler;
+import com.ecm.core.asynctask.ClusterAsyncTaskStore;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Lazy;
 import org.springframework.stereotype.Service;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.time.LocalDateTime;
 import java.util.ArrayDeque;
 import java.util.ArrayList;
@@ -12,15 +21,35 @@ import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
-
+import java.util.function.UnaryOperator;
+
+/**
+ * In-memory registry of asynchronous audit exports. Small legacy exports keep their CSV bytes on the
+ * task; streamed exports are spooled to a temp file that is tracked here alongside row-rate progress
+ * and removed when the task is cleaned up or evicted.
+ *
+ * <p>With {@code ecm.async-tasks.cluster.enabled} the tasks are kept in the
+ * {@link ClusterAsyncTaskStore} instead and finished exports are moved to the content store, so
+ * status, progress and downloads work from any node. An export cannot be resumed on another node,
+ * so one orphaned by a node failure is marked failed.
+ */
+@Slf4j
 @Service
-public class AuditExportAsyncTaskRegistry {
+public class AuditExportAsyncTaskRegistry implements AsyncTaskOrphanHandler {
+
+    public static final String CLUSTER_DOMAIN = "audit";
 
     private static final int MAX_ASYNC_TASKS = 200;
 
     private final Map<String, AuditExportAsyncTask> asyncTasks = new ConcurrentHashMap<>();
     private final Deque<String> asyncTaskOrder = new ArrayDeque<>();
     private final Object asyncTaskLock = new Object();
+    private final Map<String, AuditExportFile> exportFiles = new ConcurrentHashMap<>();
+    private final Map<String, AuditExportProgress> exportProgress = new ConcurrentHashMap<>();
+
+    @Autowired
+    @Lazy
+    private ClusterAsyncTaskStore clusterTaskStore;
 
     public AuditExportAsyncTask createTask() {
         String taskId = UUID.randomUUID().toString();
@@ -35,6 +64,11 @@ public class AuditExportAsyncTaskRegistry {
             null
         );
 
+        if (isShared()) {
+            clusterTaskStore.create(CLUSTER_DOMAIN, taskId, stateOf(task), task);
+            trimSharedTerminalTasks();
+            return task;
+        }
         synchronized (asyncTaskLock) {
             asyncTasks.put(taskId, task);
             asyncTaskOrder.addLast(taskId);
@@ -44,34 +78,165 @@ public class AuditExportAsyncTaskRegistry {
     }
 
     public AuditExportAsyncTask get(String taskId) {
+        if (isShared()) {
+            return clusterTaskStore.find(CLUSTER_DOMAIN, taskId, AuditExportAsyncTask.class).orElse(null);
+        }
         return asyncTasks.get(taskId);
     }
 
     public AuditExportAsyncTask markRunning(String taskId) {
-        return asyncTasks.computeIfPresent(taskId, (key, current) ->
+        return mutate(taskId, current ->
             current.status() == AuditExportAsyncStatus.QUEUED ? current.running() : current
         );
     }
 
     public AuditExportAsyncTask complete(String taskId, String filename, byte[] payload, long rowCount) {
-        return asyncTasks.computeIfPresent(taskId, (key, current) ->
+        if (isShared() && payload != null) {
+            try {
+                ClusterAsyncTaskStore.StoredArtifact artifact =
+                    clusterTaskStore.storeArtifact(CLUSTER_DOMAIN, taskId, payload, filename, "text/csv; charset=UTF-8");
+                if (artifact == null) {
+                    return null;
+                }
+            } catch (IOException e) {
+                return fail(taskId, "Failed to store export result: " + e.getMessage());
+            }
+            return completeShared(taskId, filename, rowCount);
+        }
+        return mutate(taskId, current ->
             current.status() == AuditExportAsyncStatus.CANCELLED ? current : current.complete(filename, payload, rowCount)
         );
     }
 
+    /**
+     * Create the spool file a streamed export for {@code taskId} writes into.
+     */
+    public Path allocateExportFile(String taskId, String extension) throws IOException {
+        return Files.createTempFile("athena-audit-export-" + taskId + "-", "." + extension);
+    }
+
+    /**
+     * Complete a streamed export whose result lives in {@code file}. If the task was cancelled (or
+     * removed) while the export was running, the file is deleted instead.
+     */
+    public AuditExportAsyncTask completeWithFile(String taskId,
+                                                 String filename,
+                                                 Path file,
+                                                 String contentType,
+                                                 long rowCount) {
+        if (isShared()) {
+            AuditExportAsyncTask current = get(taskId);
+            if (current == null || current.status() == AuditExportAsyncStatus.CANCELLED) {
+                deleteQuietly(file);
+                return current;
+            }
+            try {
+                if (clusterTaskStore.storeArtifact(CLUSTER_DOMAIN, taskId, file, filename, contentType) == null) {
+                    return null;
+                }
+            } catch (IOException e) {
+                return fail(taskId, "Failed to store export result: " + e.getMessage());
+            } finally {
+                deleteQuietly(file);
+            }
+            return completeShared(taskId, filename, rowCount);
+        }
+        AuditExportAsyncTask updated = asyncTasks.computeIfPresent(taskId, (key, current) -> {
+            if (current.status() == AuditExportAsyncStatus.CANCELLED) {
+                return current;
+            }
+            exportFiles.put(taskId, new AuditExportFile(file, contentType, sizeOf(file)));
+            return current.complete(filename, null, rowCount);
+        });
+        if (updated == null || updated.status() != AuditExportAsyncStatus.COMPLETED) {
+            deleteQuietly(file);
+        }
+        return updated;
+    }
+
+    public AuditExportFile exportFile(String taskId) {
+        return exportFiles.get(taskId);
+    }
+
+    /**
+     * Open the result of a completed export kept in the content store (cluster mode), or return
+     * {@code null} when the task has no stored result.
+     */
+    public AuditExportArtifact openStoredExport(String taskId) throws IOException {
+        if (!isShared()) {
+            return null;
+        }
+        ClusterAsyncTaskStore.StoredArtifact artifact = clusterTaskStore.artifact(CLUSTER_DOMAIN, taskId).orElse(null);
+        if (artifact == null) {
+            return null;
+        }
+        return new AuditExportArtifact(clusterTaskStore.openArtifact(artifact), artifact.contentType(), artifact.sizeBytes());
+    }
+
+    public void updateProgress(String taskId, long rowsWritten, double rowsPerSecond) {
+        AuditExportProgress progress = new AuditExportProgress(rowsWritten, rowsPerSecond, LocalDateTime.now());
+        if (isShared()) {
+            clusterTaskStore.recordProgress(CLUSTER_DOMAIN, taskId, progress);
+            return;
+        }
+        if (asyncTasks.containsKey(taskId)) {
+            exportProgress.put(taskId, progress);
+        }
+    }
+
+    public AuditExportProgress progress(String taskId) {
+        if (isShared()) {
+            return clusterTaskStore.findProgress(CLUSTER_DOMAIN, taskId, AuditExportProgress.class).orElse(null);
+        }
+        return exportProgress.get(taskId);
+    }
+
+    public boolean isCancelled(String taskId) {
+        AuditExportAsyncTask task = isShared()
+            ? clusterTaskStore.findRecent(CLUSTER_DOMAIN, taskId, AuditExportAsyncTask.class).orElse(null)
+            : asyncTasks.get(taskId);
+        return task == null || task.status() == AuditExportAsyncStatus.CANCELLED;
+    }
+
     public AuditExportAsyncTask fail(String taskId, String error) {
-        return asyncTasks.computeIfPresent(taskId, (key, current) ->
+        return mutate(taskId, current ->
             current.status() == AuditExportAsyncStatus.CANCELLED ? current : current.fail(error)
         );
     }
 
     public AuditExportAsyncTask cancel(String taskId, String reason) {
-        return asyncTasks.computeIfPresent(taskId, (key, current) ->
+        return mutate(taskId, current ->
             current.isTerminal() ? current : current.cancel(reason)
         );
     }
 
+    @Override
+    public String orphanDomain() {
+        return CLUSTER_DOMAIN;
+    }
+
+    @Override
+    public void resumeOrphan(String taskId) {
+        abandonOrphan(taskId, "Export was interrupted by a node failure; start a new export");
+    }
+
+    @Override
+    public void abandonOrphan(String taskId, String reason) {
+        mutate(taskId, current -> current.isTerminal() ? current : current.fail(reason));
+    }
+
     public List<AuditExportAsyncTask> list(int limit, AuditExportAsyncStatus statusFilter) {
+        if (isShared()) {
+            List<AuditExportAsyncTask> tasks = sharedTasks();
+            List<AuditExportAsyncTask> items = new ArrayList<>();
+            for (int index = tasks.size() - 1; index >= 0 && items.size() < limit; index--) {
+                AuditExportAsyncTask task = tasks.get(index);
+                if (statusFilter == null || task.status() == statusFilter) {
+                    items.add(task);
+                }
+            }
+            return items;
+        }
         List<AuditExportAsyncTask> items = new ArrayList<>();
         synchronized (asyncTaskLock) {
             Iterator<String> iterator = asyncTaskOrder.descendingIterator();
@@ -96,20 +261,37 @@ public class AuditExportAsyncTaskRegistry {
         long cancelledCount = 0L;
         long failedCount = 0L;
 
-        synchronized (asyncTaskLock) {
-            for (AuditExportAsyncTask task : asyncTasks.values()) {
-                if (task == null) {
+        if (isShared()) {
+            for (Map.Entry<String, Long> entry : clusterTaskStore.countByStatus(CLUSTER_DOMAIN).entrySet()) {
+                AuditExportAsyncStatus status = AuditExportAsyncStatus.valueOf(entry.getKey());
+                if (statusFilter != null && status != statusFilter) {
                     continue;
                 }
-                if (statusFilter != null && task.status() != statusFilter) {
-                    continue;
+                long count = entry.getValue();
+                switch (status) {
+                    case QUEUED -> queuedCount += count;
+                    case RUNNING -> runningCount += count;
+                    case COMPLETED -> completedCount += count;
+                    case CANCELLED -> cancelledCount += count;
+                    case FAILED -> failedCount += count;
                 }
-                switch (task.status()) {
-                    case QUEUED -> queuedCount += 1;
-                    case RUNNING -> runningCount += 1;
-                    case COMPLETED -> completedCount += 1;
-                    case CANCELLED -> cancelledCount += 1;
-                    case FAILED -> failedCount += 1;
+            }
+        } else {
+            synchronized (asyncTaskLock) {
+                for (AuditExportAsyncTask task : asyncTasks.values()) {
+                    if (task == null) {
+                        continue;
+                    }
+                    if (statusFilter != null && task.status() != statusFilter) {
+                        continue;
+                    }
+                    switch (task.status()) {
+                        case QUEUED -> queuedCount += 1;
+                        case RUNNING -> runningCount += 1;
+                        case COMPLETED -> completedCount += 1;
+                        case CANCELLED -> cancelledCount += 1;
+                        case FAILED -> failedCount += 1;
+                    }
                 }
             }
         }
@@ -131,6 +313,18 @@ public class AuditExportAsyncTaskRegistry {
 
     public long cancelActive(AuditExportAsyncStatus statusFilter, String reason) {
         long cancelledCount = 0L;
+        if (isShared()) {
+            for (AuditExportAsyncTask task : sharedTasks()) {
+                if (task.isTerminal() || (statusFilter != null && task.status() != statusFilter)) {
+                    continue;
+                }
+                AuditExportAsyncTask updated = cancel(task.taskId(), reason);
+                if (updated != null && updated.status() == AuditExportAsyncStatus.CANCELLED) {
+                    cancelledCount += 1;
+                }
+            }
+            return cancelledCount;
+        }
         synchronized (asyncTaskLock) {
             for (Map.Entry<String, AuditExportAsyncTask> entry : asyncTasks.entrySet()) {
                 AuditExportAsyncTask task = entry.getValue();
@@ -151,6 +345,9 @@ public class AuditExportAsyncTaskRegistry {
     }
 
     public long activeCount() {
+        if (isShared()) {
+            return summary(null).activeCount();
+        }
         long activeCount = 0L;
         synchronized (asyncTaskLock) {
             for (AuditExportAsyncTask task : asyncTasks.values()) {
@@ -164,6 +361,16 @@ public class AuditExportAsyncTaskRegistry {
     }
 
     public long cleanupTerminal(AuditExportAsyncStatus statusFilter) {
+        if (isShared()) {
+            long deletedCount = 0L;
+            for (AuditExportAsyncTask task : sharedTasks()) {
+                boolean matches = statusFilter == null ? task.isTerminal() : task.status() == statusFilter;
+                if (matches && removeSharedTask(task.taskId())) {
+                    deletedCount += 1;
+                }
+            }
+            return deletedCount;
+        }
         Set<String> taskIdsToDelete = new java.util.HashSet<>();
         synchronized (asyncTaskLock) {
             for (Map.Entry<String, AuditExportAsyncTask> entry : asyncTasks.entrySet()) {
@@ -186,7 +393,10 @@ public class AuditExportAsyncTaskRegistry {
                 return 0L;
             }
 
-            taskIdsToDelete.forEach(asyncTasks::remove);
+            taskIdsToDelete.forEach(taskId -> {
+                asyncTasks.remove(taskId);
+                discardArtifacts(taskId);
+            });
             asyncTaskOrder.removeIf(taskId ->
                 taskIdsToDelete.contains(taskId) || !asyncTasks.containsKey(taskId)
             );
@@ -195,9 +405,65 @@ public class AuditExportAsyncTaskRegistry {
     }
 
     public int size() {
+        if (isShared()) {
+            return (int) summary(null).totalCount();
+        }
         return asyncTasks.size();
     }
 
+    private AuditExportAsyncTask mutate(String taskId, UnaryOperator<AuditExportAsyncTask> updater) {
+        if (isShared()) {
+            return clusterTaskStore.update(CLUSTER_DOMAIN, taskId, AuditExportAsyncTask.class, updater,
+                AuditExportAsyncTaskRegistry::stateOf);
+        }
+        return asyncTasks.computeIfPresent(taskId, (key, current) -> updater.apply(current));
+    }
+
+    private AuditExportAsyncTask completeShared(String taskId, String filename, long rowCount) {
+        AuditExportAsyncTask updated = mutate(taskId, current ->
+            current.status() == AuditExportAsyncStatus.CANCELLED ? current : current.complete(filename, null, rowCount)
+        );
+        if (updated == null || updated.status() != AuditExportAsyncStatus.COMPLETED) {
+            clusterTaskStore.deleteArtifact(CLUSTER_DOMAIN, taskId);
+        }
+        return updated;
+    }
+
+    private boolean isShared() {
+        return clusterTaskStore != null && clusterTaskStore.isEnabled();
+    }
+
+    private List<AuditExportAsyncTask> sharedTasks() {
+        return clusterTaskStore.list(CLUSTER_DOMAIN, AuditExportAsyncTask.class);
+    }
+
+    private boolean removeSharedTask(String taskId) {
+        return clusterTaskStore.delete(CLUSTER_DOMAIN, taskId);
+    }
+
+    private void trimSharedTerminalTasks() {
+        List<AuditExportAsyncTask> tasks = sharedTasks();
+        int excess = tasks.size() - MAX_ASYNC_TASKS;
+        for (AuditExportAsyncTask task : tasks) {
+            if (excess <= 0) {
+                break;
+            }
+            if (task.isTerminal() && removeSharedTask(task.taskId())) {
+                excess -= 1;
+            }
+        }
+    }
+
+    private static ClusterAsyncTaskStore.TaskState stateOf(AuditExportAsyncTask task) {
+        return new ClusterAsyncTaskStore.TaskState(
+            task.status().name(),
+            !task.isTerminal(),
+            null,
+            task.createdAt(),
+            task.finishedAt()
+        );
+    }
+
     private void trimTerminalTasksLocked() {
         if (asyncTasks.size() <= MAX_ASYNC_TASKS) {
             return;
@@ -215,10 +481,38 @@ public class AuditExportAsyncTaskRegistry {
             }
             if (asyncTasks.remove(candidateTaskId, candidate)) {
                 iterator.remove();
+                discardArtifacts(candidateTaskId);
             }
         }
     }
 
+    private void discardArtifacts(String taskId) {
+        exportProgress.remove(taskId);
+        AuditExportFile file = exportFiles.remove(taskId);
+        if (file != null) {
+            deleteQuietly(file.path());
+        }
+    }
+
+    private static long sizeOf(Path file) {
+        try {
+            return Files.size(file);
+        } catch (IOException e) {
+            return -1L;
+        }
+    }
+
+    private static void deleteQuietly(Path file) {
+        if (file == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.warn("Failed to delete audit export file {}: {}", file, e.getMessage());
+        }
+    }
+
     public enum AuditExportAsyncStatus {
         QUEUED,
         RUNNING,
@@ -242,6 +536,12 @@ public class AuditExportAsyncTaskRegistry {
         long terminalCount
     ) {}
 
+    public record AuditExportFile(Path path, String contentType, long sizeBytes) {}
+
+    public record AuditExportArtifact(InputStream content, String contentType, long sizeBytes) {}
+
+    public record AuditExportProgress(long rowsWritten, double rowsPerSecond, LocalDateTime updatedAt) {}
+
     public record AuditExportAsyncTask(
         String taskId,
         LocalDateTime createdAt,
@@ -0,0 +1,226 @@
+package com.ecm.core.service;
+
+import com.ecm.core.entity.AuditCategory;
+import com.ecm.core.entity.AuditLog;
+import com.ecm.core.repository.AuditLogRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CancellationException;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Streams audit log exports straight from a server-side cursor to an output stream.
+ *
+ * <p>Unlike {@link AnalyticsService#exportAuditLogsCsv}, rows are never collected: each row is read
+ * from the JDBC cursor, written, and detached from the persistence context, so heap usage does not
+ * grow with the export range. Output can be CSV (same columns as the in-memory export) or JSON lines,
+ * optionally gzip-compressed.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class AuditExportStreamingService {
+
+    static final String CSV_HEADER = "ID,Event Type,Node ID,Node Name,Username,Event Time,Details,Client IP,User Agent\n";
+
+    private static final DateTimeFormatter CSV_TIME_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+    private static final int WRITE_BUFFER_BYTES = 64 * 1024;
+
+    private final AuditLogRepository auditLogRepository;
+    private final ObjectMapper objectMapper;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${ecm.audit.export.progress-interval-rows:10000}")
+    private int progressIntervalRows = 10_000;
+
+    /**
+     * Write every matching audit row to {@code target} and close it.
+     *
+     * @return number of rows written
+     * @throws CancellationException when {@link ExportListener#isCancelled()} turns true mid-export
+     */
+    @Transactional(readOnly = true)
+    public long write(ExportQuery query,
+                      ExportFormat format,
+                      boolean gzip,
+                      OutputStream target,
+                      ExportListener listener) throws IOException {
+        ExportListener safeListener = listener != null ? listener : ExportListener.NONE;
+        int interval = Math.max(progressIntervalRows, 1);
+        long startedAt = System.nanoTime();
+        long rows = 0L;
+
+        OutputStream out = gzip ? new GZIPOutputStream(target, WRITE_BUFFER_BYTES) : target;
+        try (Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), WRITE_BUFFER_BYTES);
+             Stream<AuditLog> logs = openStream(query)) {
+            if (format == ExportFormat.CSV) {
+                writer.write(CSV_HEADER);
+            }
+            Iterator<AuditLog> iterator = logs.iterator();
+            while (iterator.hasNext()) {
+                AuditLog log = iterator.next();
+                if (format == ExportFormat.JSONL) {
+                    writer.write(toJsonLine(log));
+                } else {
+                    writer.write(toCsvLine(log));
+                }
+                detach(log);
+                rows++;
+                if (rows % interval == 0) {
+                    writer.flush();
+                    safeListener.onProgress(progress(rows, startedAt));
+                    if (safeListener.isCancelled()) {
+                        throw new CancellationException("Audit export cancelled after " + rows + " rows");
+                    }
+                }
+            }
+            writer.flush();
+        }
+
+        ExportProgress finalProgress = progress(rows, startedAt);
+        safeListener.onProgress(finalProgress);
+        log.info("Streamed {} audit rows as {}{} in {} ms ({} rows/s)",
+            rows, format, gzip ? "+gzip" : "", finalProgress.elapsedMs(), Math.round(finalProgress.rowsPerSecond()));
+        return rows;
+    }
+
+    static String toCsvLine(AuditLog log) {
+        return escapeCsv(log.getId() != null ? log.getId().toString() : "") + ","
+            + escapeCsv(log.getEventType()) + ","
+            + escapeCsv(log.getNodeId() != null ? log.getNodeId().toString() : "") + ","
+            + escapeCsv(log.getNodeName()) + ","
+            + escapeCsv(log.getUsername()) + ","
+            + escapeCsv(log.getEventTime() != null ? log.getEventTime().format(CSV_TIME_FORMAT) : "") + ","
+            + escapeCsv(log.getDetails()) + ","
+            + escapeCsv(log.getClientIp()) + ","
+            + escapeCsv(log.getUserAgent()) + "\n";
+    }
+
+    static String escapeCsv(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.contains(",") || value.contains("\"") || value.contains("\n") || value.contains("\r")) {
+            return "\"" + value.replace("\"", "\"\"") + "\"";
+        }
+        return value;
+    }
+
+    private String toJsonLine(AuditLog log) throws IOException {
+        Map<String, Object> row = new LinkedHashMap<>();
+        row.put("id", log.getId() != null ? log.getId().toString() : null);
+        row.put("eventType", log.getEventType());
+        row.put("nodeId", log.getNodeId() != null ? log.getNodeId().toString() : null);
+        row.put("nodeName", log.getNodeName());
+        row.put("username", log.getUsername());
+        row.put("eventTime", log.getEventTime() != null ? log.getEventTime().toString() : null);
+        row.put("details", log.getDetails());
+        row.put("clientIp", log.getClientIp());
+        row.put("userAgent", log.getUserAgent());
+        return objectMapper.writeValueAsString(row) + "\n";
+    }
+
+    private Stream<AuditLog> openStream(ExportQuery query) {
+        String category = query.category() != null ? query.category().name() : null;
+        if (query.nodeId() == null) {
+            return auditLogRepository.streamByFiltersForExportNoNodeId(
+                query.username(), query.eventType(), category, query.from(), query.to());
+        }
+        return auditLogRepository.streamByFiltersForExport(
+            query.username(), query.eventType(), category, query.nodeId(), query.from(), query.to());
+    }
+
+    private void detach(AuditLog log) {
+        if (entityManager != null) {
+            entityManager.detach(log);
+        }
+    }
+
+    private static ExportProgress progress(long rows, long startedAtNanos) {
+        long elapsedNanos = Math.max(System.nanoTime() - startedAtNanos, 1L);
+        double rowsPerSecond = rows * 1_000_000_000d / elapsedNanos;
+        return new ExportProgress(rows, rowsPerSecond, elapsedNanos / 1_000_000L);
+    }
+
+    public enum ExportFormat {
+        CSV("csv", "text/csv; charset=UTF-8"),
+        JSONL("jsonl", "application/x-ndjson");
+
+        private final String extension;
+        private final String contentType;
+
+        ExportFormat(String extension, String contentType) {
+            this.extension = extension;
+            this.contentType = contentType;
+        }
+
+        public String extension() {
+            return extension;
+        }
+
+        public String contentType() {
+            return contentType;
+        }
+
+        public static ExportFormat fromString(String value) {
+            if (value == null || value.isBlank()) {
+                return CSV;
+            }
+            return switch (value.trim().toLowerCase(Locale.ROOT)) {
+                case "csv" -> CSV;
+                case "jsonl", "ndjson", "json-lines" -> JSONL;
+                default -> throw new IllegalArgumentException("Unsupported audit export format: " + value);
+            };
+        }
+    }
+
+    public record ExportQuery(
+        LocalDateTime from,
+        LocalDateTime to,
+        String username,
+        String eventType,
+        UUID nodeId,
+        AuditCategory category
+    ) {}
+
+    public record ExportProgress(long rowsWritten, double rowsPerSecond, long elapsedMs) {}
+
+    /**
+     * Receives progress every {@code ecm.audit.export.progress-interval-rows} rows and at the end;
+     * returning {@code true} from {@link #isCancelled()} aborts the export at the next checkpoint.
+     */
+    public interface ExportListener {
+
+        ExportListener NONE = new ExportListener() {};
+
+        default void onProgress(ExportProgress progress) {
+        }
+
+        default boolean isCancelled() {
+            return false;
+        }
+    }
+}
@@ -9,13 +9,14 @@ import com.ecm.core.entity.AutomationRule;
 import com.ecm.core.entity.Node;
 import com.ecm.core.entity.RuleExecutionResult;
 import com.ecm.core.entity.Version;
+import com.ecm.core.metrics.EcmMetrics;
 import com.ecm.core.repository.AuditCategorySettingRepository;
 import com.ecm.core.repository.AuditLogRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import jakarta.annotation.PostConstruct;
@@ -40,15 +41,28 @@ public class AuditService {
     
     private final AuditLogRepository auditLogRepository;
     private final AuditCategorySettingRepository auditCategorySettingRepository;
+    private final AuditWriteBuffer auditWriteBuffer;
+
+    @Autowired(required = false)
+    private EcmMetrics metrics = EcmMetrics.noop();
 
     @Value("${ecm.audit.disabled-categories:}")
     private String disabledCategoriesRaw;
 
+    /**
+     * Categories written synchronously (bypassing the write-behind buffer) so they are durable
+     * before the audited call returns.
+     */
+    @Value("${ecm.audit.buffer.sync-categories:SECURITY}")
+    private String syncCategoriesRaw;
+
     private final Set<AuditCategory> disabledCategories = EnumSet.noneOf(AuditCategory.class);
+    private final Set<AuditCategory> syncCategories = EnumSet.noneOf(AuditCategory.class);
     private final EnumMap<AuditCategory, Boolean> categoryEnabledCache = new EnumMap<>(AuditCategory.class);
 
     @PostConstruct
     public void init() {
+        syncCategories.addAll(parseCategories(syncCategoriesRaw));
         if (disabledCategoriesRaw == null || disabledCategoriesRaw.isBlank()) {
             ensureCategorySettings();
             refreshCategoryCache();
@@ -70,17 +84,24 @@ public class AuditService {
         refreshCategoryCache();
     }
     
-    @Transactional(propagation = Propagation.REQUIRES_NEW)
     public void logEvent(String eventType, UUID nodeId, String nodeName, String username, String details) {
         logEvent(eventType, nodeId, nodeName, username, details, null);
     }
 
-    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    /**
+     * Record an audit event. Events are handed to {@link AuditWriteBuffer} and inserted in batches
+     * shortly afterwards; categories listed in {@code ecm.audit.buffer.sync-categories} are inserted
+     * in their own transaction before this method returns. Either way the caller's time is recorded as
+     * {@code ecm_audit_write_duration} by category and path.
+     */
     public void logEvent(String eventType, UUID nodeId, String nodeName, String username, String details, String metadata) {
+        long startNanos = System.nanoTime();
+        AuditCategory category = AuditCategory.OTHER;
         try {
             if (!isCategoryEnabled(eventType)) {
                 return;
             }
+            category = resolveCategory(eventType);
             AuditLog logEntry = AuditLog.builder()
                 .eventType(eventType)
                 .nodeId(nodeId)
@@ -90,13 +111,37 @@ public class AuditService {
                 .details(details)
                 .metadata(metadata)
                 .build();
-            
-            auditLogRepository.save(logEntry);
+
+            String path = "buffered";
+            if (syncCategories.contains(category) || !auditWriteBuffer.submit(logEntry)) {
+                path = "sync";
+                auditWriteBuffer.persistNow(logEntry);
+            }
+            metrics.recordTime("ecm_audit_write_duration", startNanos, "category", category.name(), "path", path);
         } catch (Exception e) {
+            metrics.recordTime("ecm_audit_write_duration", startNanos, "category", category.name(), "path", "failed");
             log.error("Failed to save audit log", e);
         }
     }
 
+    private static Set<AuditCategory> parseCategories(String raw) {
+        Set<AuditCategory> categories = EnumSet.noneOf(AuditCategory.class);
+        if (raw == null || raw.isBlank()) {
+            return categories;
+        }
+        for (String value : raw.split("[,\\s]+")) {
+            if (value.isBlank()) {
+                continue;
+            }
+            try {
+                categories.add(AuditCategory.valueOf(value.trim().toUpperCase(Locale.ROOT)));
+            } catch (IllegalArgumentException ex) {
+                log.warn("Unknown audit category '{}'", value);
+            }
+        }
+        return categories;
+    }
+
     private boolean isCategoryEnabled(String eventType) {
         AuditCategory category = resolveCategory(eventType);
         Boolean enabled = categoryEnabledCache.get(category);
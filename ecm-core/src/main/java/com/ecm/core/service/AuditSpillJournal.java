@@ -0,0 +1,248 @@
+package com.ecm.core.service;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.TreeMap;
+
+/**
+ * Append-only overflow journal for {@link AuditWriteBuffer}.
+ *
+ * <p>Events are written as one JSON line each into numbered segment files. The reader always
+ * consumes the oldest segment first and deletes it once every line was acknowledged, so replay
+ * order equals append order. After every acknowledged batch the number of consumed lines is
+ * recorded in a {@code .ack} file next to the segment, so a crash between persisting a batch and
+ * acknowledging it replays only that batch on restart (at-least-once), not the whole segment.
+ *
+ * <p>Events the database refuses outright are appended to a separate dead-letter file that is
+ * never replayed.
+ *
+ * <p>Not thread-safe: {@link AuditWriteBuffer} calls every method while holding its submit lock and
+ * only does the (slow) database write outside it.
+ */
+@Slf4j
+class AuditSpillJournal {
+
+    private static final String SEGMENT_PREFIX = "audit-spill-";
+    private static final String SEGMENT_SUFFIX = ".jsonl";
+    private static final String ACK_SUFFIX = ".ack";
+    static final String DEAD_LETTER_FILE = "audit-dead-letter.jsonl";
+
+    private final Path directory;
+    private final int segmentMaxEvents;
+    private final TreeMap<Long, Path> closedSegments = new TreeMap<>();
+
+    private long nextSegmentNumber;
+    private Path activeSegment;
+    private BufferedWriter activeWriter;
+    private int activeCount;
+
+    private Path readingSegment;
+    private int readingAcknowledged;
+    private final Deque<String> readingLines = new ArrayDeque<>();
+    private volatile long pendingEvents;
+
+    AuditSpillJournal(Path directory, int segmentMaxEvents) throws IOException {
+        this.directory = directory;
+        this.segmentMaxEvents = Math.max(segmentMaxEvents, 1);
+        Files.createDirectories(directory);
+        recover();
+    }
+
+    /**
+     * Append one serialized event. The line is flushed to the OS before returning.
+     */
+    void append(String line) throws IOException {
+        if (activeWriter == null || activeCount >= segmentMaxEvents) {
+            rotate();
+        }
+        activeWriter.write(line);
+        activeWriter.newLine();
+        activeWriter.flush();
+        activeCount++;
+        pendingEvents++;
+    }
+
+    /**
+     * Close the segment currently being appended to so the reader can pick it up.
+     */
+    void sealActiveSegment() throws IOException {
+        if (activeWriter == null) {
+            return;
+        }
+        activeWriter.close();
+        if (activeCount > 0) {
+            closedSegments.put(segmentNumber(activeSegment), activeSegment);
+        } else {
+            Files.deleteIfExists(activeSegment);
+        }
+        activeWriter = null;
+        activeSegment = null;
+        activeCount = 0;
+    }
+
+    boolean hasActiveSegment() {
+        return activeWriter != null && activeCount > 0;
+    }
+
+    /**
+     * Return up to {@code max} of the oldest unacknowledged lines from sealed segments without
+     * consuming them.
+     */
+    List<String> peek(int max) throws IOException {
+        if (readingLines.isEmpty() && !openNextSegment()) {
+            return List.of();
+        }
+        List<String> lines = new ArrayList<>(Math.min(max, readingLines.size()));
+        for (String line : readingLines) {
+            if (lines.size() >= max) {
+                break;
+            }
+            lines.add(line);
+        }
+        return lines;
+    }
+
+    /**
+     * Drop the first {@code count} lines returned by {@link #peek}, deleting the segment once drained.
+     */
+    void acknowledge(int count) throws IOException {
+        for (int i = 0; i < count && !readingLines.isEmpty(); i++) {
+            readingLines.pollFirst();
+            readingAcknowledged++;
+            pendingEvents--;
+        }
+        if (readingSegment == null) {
+            return;
+        }
+        if (readingLines.isEmpty()) {
+            Files.deleteIfExists(readingSegment);
+            Files.deleteIfExists(ackFile(readingSegment));
+            readingSegment = null;
+            readingAcknowledged = 0;
+        } else {
+            writeAcknowledged(readingSegment, readingAcknowledged);
+        }
+    }
+
+    /**
+     * Append an event that can never be inserted to the dead-letter file.
+     */
+    void deadLetter(String line) throws IOException {
+        Files.writeString(directory.resolve(DEAD_LETTER_FILE), line + System.lineSeparator(), StandardCharsets.UTF_8,
+            StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+    }
+
+    long pendingEvents() {
+        return Math.max(pendingEvents, 0L);
+    }
+
+    boolean isEmpty() {
+        return pendingEvents() == 0L && readingLines.isEmpty() && closedSegments.isEmpty() && !hasActiveSegment();
+    }
+
+    void close() throws IOException {
+        if (activeWriter != null) {
+            activeWriter.close();
+            activeWriter = null;
+        }
+    }
+
+    private boolean openNextSegment() throws IOException {
+        while (!closedSegments.isEmpty()) {
+            Path segment = closedSegments.pollFirstEntry().getValue();
+            List<String> lines = Files.readAllLines(segment, StandardCharsets.UTF_8);
+            lines.removeIf(String::isBlank);
+            int acknowledged = Math.min(readAcknowledged(segment), lines.size());
+            if (acknowledged == lines.size()) {
+                Files.deleteIfExists(segment);
+                Files.deleteIfExists(ackFile(segment));
+                continue;
+            }
+            readingSegment = segment;
+            readingAcknowledged = acknowledged;
+            readingLines.addAll(lines.subList(acknowledged, lines.size()));
+            return true;
+        }
+        return false;
+    }
+
+    private void rotate() throws IOException {
+        sealActiveSegment();
+        activeSegment = directory.resolve(SEGMENT_PREFIX + String.format("%019d", nextSegmentNumber++) + SEGMENT_SUFFIX);
+        activeWriter = Files.newBufferedWriter(activeSegment, StandardCharsets.UTF_8,
+            StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+        activeCount = 0;
+    }
+
+    private void recover() throws IOException {
+        long recovered = 0L;
+        try (DirectoryStream<Path> segments = Files.newDirectoryStream(directory, SEGMENT_PREFIX + "*" + SEGMENT_SUFFIX)) {
+            for (Path segment : segments) {
+                long number = segmentNumber(segment);
+                if (number < 0) {
+                    continue;
+                }
+                long lines;
+                try (var stream = Files.lines(segment, StandardCharsets.UTF_8)) {
+                    lines = stream.filter(line -> !line.isBlank()).count();
+                }
+                closedSegments.put(number, segment);
+                recovered += Math.max(lines - readAcknowledged(segment), 0L);
+                nextSegmentNumber = Math.max(nextSegmentNumber, number + 1);
+            }
+        }
+        pendingEvents = recovered;
+        if (recovered > 0) {
+            log.warn("Recovered {} spilled audit events from {}", recovered, directory);
+        }
+    }
+
+    private static Path ackFile(Path segment) {
+        return segment.resolveSibling(segment.getFileName() + ACK_SUFFIX);
+    }
+
+    private static int readAcknowledged(Path segment) throws IOException {
+        Path ack = ackFile(segment);
+        if (!Files.exists(ack)) {
+            return 0;
+        }
+        try {
+            return Math.max(Integer.parseInt(Files.readString(ack, StandardCharsets.UTF_8).trim()), 0);
+        } catch (NumberFormatException e) {
+            // Replaying a few events twice is fine; skipping unpersisted ones is not.
+            log.warn("Ignoring unreadable audit spill acknowledgement {}", ack);
+            return 0;
+        }
+    }
+
+    private static void writeAcknowledged(Path segment, int acknowledged) throws IOException {
+        Path ack = ackFile(segment);
+        Path tmp = ack.resolveSibling(ack.getFileName() + ".tmp");
+        Files.writeString(tmp, Integer.toString(acknowledged), StandardCharsets.UTF_8);
+        Files.move(tmp, ack, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private static long segmentNumber(Path segment) {
+        String name = segment.getFileName().toString();
+        if (!name.startsWith(SEGMENT_PREFIX) || !name.endsWith(SEGMENT_SUFFIX)) {
+            return -1L;
+        }
+        try {
+            return Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+        } catch (NumberFormatException e) {
+            return -1L;
+        }
+    }
+}
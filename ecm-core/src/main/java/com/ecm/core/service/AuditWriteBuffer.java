@@ -0,0 +1,584 @@
+package com.ecm.core.service;
+
+import com.ecm.core.entity.AuditLog;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.Session;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Write-behind buffer for audit events.
+ *
+ * <p>{@link AuditService} hands entries to {@link #submit}; a single writer thread drains them in
+ * FIFO order and inserts them with JDBC batching, either once {@code batch-size} events are waiting
+ * or every {@code flush-interval-ms}. Because there is exactly one writer and the queue is FIFO,
+ * events for the same node are inserted in the order they were logged.
+ *
+ * <p>The in-memory queue is bounded. When it is full, new events go to an on-disk
+ * {@link AuditSpillJournal} and keep going there until the journal has been drained, so ordering is
+ * preserved across the overflow. Spilled segments survive restarts and are replayed on startup.
+ * Events still in memory are flushed (or spilled if the database is unavailable) on shutdown; only a
+ * hard crash can lose them, which is why security-critical events use {@link #persistNow}.
+ *
+ * <p>When a batch insert fails its rows are retried one by one, so a single row the database
+ * rejects cannot hold back everything behind it. Rows whose failure points at the data go to the
+ * journal's dead-letter file. At the first failure that does not (the database went away), the
+ * row-by-row pass stops and that row and everything after it are kept and retried, ahead of newer
+ * events, after a backoff.
+ */
+@Slf4j
+@Component
+public class AuditWriteBuffer {
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    private final PlatformTransactionManager transactionManager;
+    private final MeterRegistry meterRegistry;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${ecm.audit.buffer.enabled:true}")
+    private boolean enabled = true;
+
+    @Value("${ecm.audit.buffer.capacity:10000}")
+    private int capacity = 10_000;
+
+    @Value("${ecm.audit.buffer.batch-size:500}")
+    private int batchSize = 500;
+
+    @Value("${ecm.audit.buffer.flush-interval-ms:200}")
+    private long flushIntervalMs = 200L;
+
+    @Value("${ecm.audit.buffer.retry-backoff-ms:2000}")
+    private long retryBackoffMs = 2000L;
+
+    @Value("${ecm.audit.buffer.spill-dir:/var/ecm/audit-spill}")
+    private String spillDir = "/var/ecm/audit-spill";
+
+    @Value("${ecm.audit.buffer.spill-segment-events:10000}")
+    private int spillSegmentEvents = 10_000;
+
+    @Value("${ecm.audit.buffer.shutdown-timeout-ms:10000}")
+    private long shutdownTimeoutMs = 10_000L;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition workAvailable = lock.newCondition();
+
+    private BlockingQueue<AuditLog> queue;
+    private AuditSpillJournal journal;
+    private boolean spilling;
+    private List<AuditLog> retryBatch;
+    private boolean lastFlushFailed;
+
+    private volatile boolean accepting;
+    private volatile boolean running;
+    private Thread writerThread;
+    private Timer flushTimer;
+
+    public AuditWriteBuffer(PlatformTransactionManager transactionManager, MeterRegistry meterRegistry) {
+        this.transactionManager = transactionManager;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @PostConstruct
+    public void start() {
+        open();
+        if (!accepting) {
+            return;
+        }
+        running = true;
+        writerThread = new Thread(this::runWriter, "audit-writer");
+        writerThread.setDaemon(true);
+        writerThread.start();
+    }
+
+    /**
+     * Create the queue, journal and meters without starting the writer thread.
+     */
+    void open() {
+        queue = new ArrayBlockingQueue<>(Math.max(capacity, 1));
+        flushTimer = Timer.builder("audit_buffer_flush_duration")
+            .description("Time to insert one batch of buffered audit events")
+            .register(meterRegistry);
+        Gauge.builder("audit_buffer_queue_depth", this, AuditWriteBuffer::queueDepth)
+            .description("Audit events waiting in memory")
+            .register(meterRegistry);
+        Gauge.builder("audit_buffer_spilled_events", this, AuditWriteBuffer::spilledEvents)
+            .description("Audit events waiting in the on-disk overflow journal")
+            .register(meterRegistry);
+        if (!enabled) {
+            return;
+        }
+        try {
+            journal = new AuditSpillJournal(Path.of(spillDir), spillSegmentEvents);
+            spilling = !journal.isEmpty();
+        } catch (IOException e) {
+            log.warn("Audit spill directory {} unavailable, overflow will fall back to synchronous writes: {}",
+                spillDir, e.getMessage());
+            journal = null;
+        }
+        accepting = true;
+    }
+
+    public boolean isEnabled() {
+        return accepting;
+    }
+
+    /**
+     * Queue an audit entry for a later batched insert.
+     *
+     * @return {@code false} if the entry could not be buffered; the caller should {@link #persistNow} it
+     */
+    public boolean submit(AuditLog entry) {
+        if (!isEnabled()) {
+            return false;
+        }
+        lock.lock();
+        try {
+            if (!spilling && queue.offer(entry)) {
+                meterRegistry.counter("audit_buffer_events_total", "path", "memory").increment();
+                if (queue.size() >= batchSize) {
+                    workAvailable.signal();
+                }
+                return true;
+            }
+            if (journal == null) {
+                return false;
+            }
+            try {
+                journal.append(serialize(entry));
+                spilling = true;
+                meterRegistry.counter("audit_buffer_events_total", "path", "spill").increment();
+                return true;
+            } catch (IOException e) {
+                log.warn("Failed to spill audit event {}: {}", entry.getEventType(), e.getMessage());
+                return false;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Insert one entry in its own transaction before returning. Used for security-critical events
+     * and whenever buffering is disabled or rejected the entry.
+     */
+    public void persistNow(AuditLog entry) {
+        newTransaction().executeWithoutResult(status -> entityManager.persist(entry));
+        meterRegistry.counter("audit_buffer_events_total", "path", "sync").increment();
+    }
+
+    public int queueDepth() {
+        BlockingQueue<AuditLog> current = queue;
+        return current != null ? current.size() : 0;
+    }
+
+    public long spilledEvents() {
+        AuditSpillJournal current = journal;
+        return current != null ? current.pendingEvents() : 0L;
+    }
+
+    /**
+     * Flush everything currently buffered or spilled. Called by the writer thread on every trigger
+     * and directly on shutdown.
+     *
+     * @return number of events inserted
+     */
+    int flushPending() {
+        lastFlushFailed = false;
+        int flushed = 0;
+        if (retryBatch != null) {
+            FlushOutcome outcome = persistBatchOrRows(retryBatch);
+            flushed += outcome.inserted();
+            if (outcome.retry()) {
+                retryBatch = outcome.pending();
+                return flushed;
+            }
+            retryBatch = null;
+        }
+        while (true) {
+            List<AuditLog> batch = new ArrayList<>(batchSize);
+            queue.drainTo(batch, batchSize);
+            if (!batch.isEmpty()) {
+                FlushOutcome outcome = persistBatchOrRows(batch);
+                flushed += outcome.inserted();
+                if (outcome.retry()) {
+                    retryBatch = outcome.pending();
+                    return flushed;
+                }
+                continue;
+            }
+            int spilled = flushSpilledBatch();
+            if (spilled <= 0) {
+                return flushed;
+            }
+            flushed += spilled;
+        }
+    }
+
+    /**
+     * @return events consumed from the journal (inserted or dead-lettered), 0 when it is drained,
+     *     -1 when the insert failed and should be retried. Lines consumed before such a failure are
+     *     acknowledged, so the retry starts at the first line that did not get in.
+     */
+    private int flushSpilledBatch() {
+        if (journal == null) {
+            return 0;
+        }
+        List<String> lines;
+        lock.lock();
+        try {
+            if (!spilling) {
+                return 0;
+            }
+            lines = journal.peek(batchSize);
+            if (lines.isEmpty() && journal.hasActiveSegment()) {
+                journal.sealActiveSegment();
+                lines = journal.peek(batchSize);
+            }
+            if (lines.isEmpty()) {
+                // Queue was drained before we got here and nothing is left on disk; switch back to memory.
+                if (queue.isEmpty()) {
+                    spilling = false;
+                }
+                return 0;
+            }
+        } catch (IOException e) {
+            log.warn("Failed to read audit spill journal: {}", e.getMessage());
+            lastFlushFailed = true;
+            return -1;
+        } finally {
+            lock.unlock();
+        }
+
+        List<AuditLog> batch = new ArrayList<>(lines.size());
+        List<Integer> lineOfEntry = new ArrayList<>(lines.size());
+        for (int i = 0; i < lines.size(); i++) {
+            AuditLog entry = deserialize(lines.get(i));
+            if (entry != null) {
+                batch.add(entry);
+                lineOfEntry.add(i);
+            }
+        }
+        FlushOutcome outcome = batch.isEmpty() ? FlushOutcome.done(0) : persistBatchOrRows(batch);
+        int consumed = outcome.retry()
+            ? lineOfEntry.get(batch.size() - outcome.pending().size())
+            : lines.size();
+        if (consumed > 0) {
+            lock.lock();
+            try {
+                journal.acknowledge(consumed);
+            } catch (IOException e) {
+                log.warn("Failed to acknowledge audit spill segment: {}", e.getMessage());
+            } finally {
+                lock.unlock();
+            }
+        }
+        return outcome.retry() ? -1 : consumed;
+    }
+
+    /**
+     * Insert a batch in one transaction, falling back to one transaction per row when that fails.
+     * Rows whose error is about the data are dead-lettered. The first row that fails for any other
+     * reason means the database is presumed unavailable: it and the rows after it are returned as
+     * pending for a later retry, while the rows before it stay inserted and are not sent again.
+     */
+    private FlushOutcome persistBatchOrRows(List<AuditLog> batch) {
+        if (persistBatch(batch)) {
+            return FlushOutcome.done(batch.size());
+        }
+        int inserted = 0;
+        for (int i = 0; i < batch.size(); i++) {
+            AuditLog entry = batch.get(i);
+            RuntimeException failure = persistRow(entry);
+            if (failure == null) {
+                inserted++;
+            } else if (isRowSpecific(failure)) {
+                deadLetter(entry);
+            } else {
+                lastFlushFailed = true;
+                log.warn("Audit insert failed after {} of {} rows, keeping the rest for a retry: {}",
+                    i, batch.size(), failure.getMessage());
+                return new FlushOutcome(inserted, new ArrayList<>(batch.subList(i, batch.size())));
+            }
+        }
+        return FlushOutcome.done(inserted);
+    }
+
+    private boolean persistBatch(List<AuditLog> batch) {
+        long startedAt = System.nanoTime();
+        try {
+            newTransaction().executeWithoutResult(status -> {
+                entityManager.unwrap(Session.class).setJdbcBatchSize(batchSize);
+                for (AuditLog entry : batch) {
+                    entityManager.persist(entry);
+                }
+                entityManager.flush();
+                entityManager.clear();
+            });
+            flushTimer.record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+            meterRegistry.summary("audit_buffer_flush_batch_size").record(batch.size());
+            return true;
+        } catch (RuntimeException e) {
+            lastFlushFailed = true;
+            meterRegistry.counter("audit_buffer_flush_failures_total").increment();
+            log.warn("Failed to flush {} audit events, retrying row by row: {}", batch.size(), e.getMessage());
+            // A failed persist may have assigned ids; clear them so the retry inserts fresh rows.
+            batch.forEach(entry -> entry.setId(null));
+            return false;
+        }
+    }
+
+    private RuntimeException persistRow(AuditLog entry) {
+        try {
+            newTransaction().executeWithoutResult(status -> {
+                entityManager.persist(entry);
+                entityManager.flush();
+                entityManager.clear();
+            });
+            return null;
+        } catch (RuntimeException e) {
+            entry.setId(null);
+            return e;
+        }
+    }
+
+    /**
+     * Whether the failure is about this row's content (constraint violation, value too long, bad
+     * data) rather than about reaching the database.
+     */
+    static boolean isRowSpecific(Throwable failure) {
+        for (Throwable cause = failure; cause != null; cause = cause.getCause()) {
+            if (cause instanceof DataIntegrityViolationException
+                || cause instanceof org.hibernate.exception.ConstraintViolationException
+                || cause instanceof org.hibernate.exception.DataException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void deadLetter(AuditLog entry) {
+        meterRegistry.counter("audit_buffer_dead_lettered_total").increment();
+        String line;
+        try {
+            line = serialize(entry);
+        } catch (IOException e) {
+            log.error("Dropping audit event {} for node {}: rejected by the database and not serializable",
+                entry.getEventType(), entry.getNodeId());
+            return;
+        }
+        lock.lock();
+        try {
+            if (journal != null) {
+                journal.deadLetter(line);
+                log.error("Audit event {} for node {} rejected by the database; moved to {}",
+                    entry.getEventType(), entry.getNodeId(), AuditSpillJournal.DEAD_LETTER_FILE);
+                return;
+            }
+        } catch (IOException e) {
+            log.warn("Failed to write audit dead letter: {}", e.getMessage());
+        } finally {
+            lock.unlock();
+        }
+        log.error("Audit event rejected by the database and not stored: {}", line);
+    }
+
+    private void runWriter() {
+        while (running) {
+            boolean failed = false;
+            try {
+                awaitWork(flushIntervalMs);
+                flushPending();
+                failed = lastFlushFailed;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                log.warn("Audit writer cycle failed: {}", e.getMessage());
+                failed = true;
+            }
+            if (failed) {
+                try {
+                    Thread.sleep(Math.max(retryBackoffMs, 1L));
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    private void awaitWork(long timeoutMs) throws InterruptedException {
+        lock.lock();
+        try {
+            if (queue.size() < batchSize && !spilling) {
+                workAvailable.await(Math.max(timeoutMs, 1L), TimeUnit.MILLISECONDS);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (!accepting) {
+            return;
+        }
+        accepting = false;
+        running = false;
+        if (!stopWriter()) {
+            // The writer is stuck in an insert. Flushing beside it would drain and insert the same
+            // events twice, so only hand what is still queued to the journal and leave the rest to it.
+            log.warn("Audit writer still running after {} ms; spilling queued events without a final flush",
+                shutdownTimeoutMs);
+            spillRemaining(false);
+            return;
+        }
+        flushPending();
+        spillRemaining(true);
+    }
+
+    /**
+     * Interrupt the writer thread and wait for it, twice if the first interrupt is not enough.
+     *
+     * @return whether no writer thread is running any more
+     */
+    private boolean stopWriter() {
+        if (writerThread == null) {
+            return true;
+        }
+        long waitMs = Math.max(shutdownTimeoutMs, 1L);
+        try {
+            for (int attempt = 0; attempt < 2 && writerThread.isAlive(); attempt++) {
+                writerThread.interrupt();
+                writerThread.join(waitMs);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return !writerThread.isAlive();
+    }
+
+    /**
+     * Whatever could not be inserted on shutdown is written to the journal for the next start. The
+     * retry batch and the journal itself are only touched once the writer has stopped.
+     */
+    private void spillRemaining(boolean writerStopped) {
+        List<AuditLog> remaining = new ArrayList<>();
+        if (writerStopped && retryBatch != null) {
+            remaining.addAll(retryBatch);
+            retryBatch = null;
+        }
+        queue.drainTo(remaining);
+        lock.lock();
+        try {
+            if (journal == null) {
+                if (!remaining.isEmpty()) {
+                    log.error("Dropping {} buffered audit events on shutdown: no spill journal", remaining.size());
+                }
+                return;
+            }
+            if (!remaining.isEmpty()) {
+                // Only reached when the database is down at shutdown. These may land after older
+                // spilled events; their eventTime still carries the original order.
+                for (AuditLog entry : remaining) {
+                    journal.append(serialize(entry));
+                }
+                log.warn("Spilled {} buffered audit events on shutdown", remaining.size());
+            }
+            if (writerStopped) {
+                journal.close();
+            }
+        } catch (IOException e) {
+            log.error("Failed to spill {} audit events on shutdown: {}", remaining.size(), e.getMessage());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private TransactionTemplate newTransaction() {
+        TransactionTemplate template = new TransactionTemplate(transactionManager);
+        template.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        return template;
+    }
+
+    static String serialize(AuditLog entry) throws IOException {
+        Map<String, Object> row = new LinkedHashMap<>();
+        row.put("eventType", entry.getEventType());
+        row.put("nodeId", entry.getNodeId() != null ? entry.getNodeId().toString() : null);
+        row.put("nodeName", entry.getNodeName());
+        row.put("username", entry.getUsername());
+        row.put("eventTime", entry.getEventTime() != null ? entry.getEventTime().toString() : null);
+        row.put("details", entry.getDetails());
+        row.put("clientIp", entry.getClientIp());
+        row.put("userAgent", entry.getUserAgent());
+        row.put("metadata", entry.getMetadata());
+        return OBJECT_MAPPER.writeValueAsString(row);
+    }
+
+    static AuditLog deserialize(String line) {
+        try {
+            Map<?, ?> row = OBJECT_MAPPER.readValue(line, Map.class);
+            return AuditLog.builder()
+                .eventType(asString(row.get("eventType")))
+                .nodeId(row.get("nodeId") != null ? UUID.fromString(asString(row.get("nodeId"))) : null)
+                .nodeName(asString(row.get("nodeName")))
+                .username(asString(row.get("username")))
+                .eventTime(row.get("eventTime") != null ? LocalDateTime.parse(asString(row.get("eventTime"))) : null)
+                .details(asString(row.get("details")))
+                .clientIp(asString(row.get("clientIp")))
+                .userAgent(asString(row.get("userAgent")))
+                .metadata(asString(row.get("metadata")))
+                .build();
+        } catch (IOException | RuntimeException e) {
+            log.error("Skipping unreadable spilled audit event: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    private static String asString(Object value) {
+        return value != null ? value.toString() : null;
+    }
+
+    /**
+     * @param pending rows left for a retry because the database became unavailable, in their original order
+     */
+    private record FlushOutcome(int inserted, List<AuditLog> pending) {
+
+        static FlushOutcome done(int inserted) {
+            return new FlushOutcome(inserted, List.of());
+        }
+
+        boolean retry() {
+            return !pending.isEmpty();
+        }
+    }
+}
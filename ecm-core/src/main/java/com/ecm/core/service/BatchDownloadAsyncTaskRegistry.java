@@ -1,9 +1,14 @@
 package com.ecm.core.service;
 
+import com.ecm.core.asynctask.ClusterAsyncTaskStore;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Lazy;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.time.Duration;
@@ -20,10 +25,18 @@ import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Predicate;
 import java.util.function.UnaryOperator;
 
+/**
+ * Async batch download tasks. Tasks live in per-node memory by default; with
+ * {@code ecm.async-tasks.cluster.enabled} they are kept in the {@link ClusterAsyncTaskStore} and
+ * finished archives are moved to the content store, so every node sees the same tasks and can
+ * serve their downloads.
+ */
 @Slf4j
 @Service
 public class BatchDownloadAsyncTaskRegistry {
 
+    public static final String CLUSTER_DOMAIN = "batchDownload";
+
     private static final int MAX_ASYNC_TASKS = 100;
     private static final Duration TERMINAL_TASK_RETENTION = Duration.ofHours(24);
     private static final ZoneId SYSTEM_ZONE = ZoneId.systemDefault();
@@ -31,8 +44,18 @@ public class BatchDownloadAsyncTaskRegistry {
     private final Map<String, BatchDownloadAsyncTask> asyncTasks = new ConcurrentHashMap<>();
     private final Deque<String> asyncTaskOrder = new ArrayDeque<>();
     private final Object asyncTaskLock = new Object();
+    private final Map<String, ClusterAsyncTaskStore.StoredArtifact> sharedArtifacts = new ConcurrentHashMap<>();
+
+    @Autowired
+    @Lazy
+    private ClusterAsyncTaskStore clusterTaskStore;
 
     public void register(BatchDownloadAsyncTask task) {
+        if (isShared()) {
+            clusterTaskStore.create(CLUSTER_DOMAIN, task.taskId(), stateOf(task), task);
+            trimSharedTerminalTasks();
+            return;
+        }
         synchronized (asyncTaskLock) {
             asyncTasks.put(task.taskId(), task);
             asyncTaskOrder.remove(task.taskId());
@@ -42,10 +65,17 @@ public class BatchDownloadAsyncTaskRegistry {
     }
 
     public BatchDownloadAsyncTask get(String taskId) {
+        if (isShared()) {
+            return clusterTaskStore.find(CLUSTER_DOMAIN, taskId, BatchDownloadAsyncTask.class).orElse(null);
+        }
         return asyncTasks.get(taskId);
     }
 
     public BatchDownloadAsyncTask update(String taskId, UnaryOperator<BatchDownloadAsyncTask> updater) {
+        if (isShared()) {
+            return clusterTaskStore.update(CLUSTER_DOMAIN, taskId, BatchDownloadAsyncTask.class, updater,
+                BatchDownloadAsyncTaskRegistry::stateOf);
+        }
         BatchDownloadAsyncTask updated = asyncTasks.computeIfPresent(taskId, (key, current) -> updater.apply(current));
         if (updated != null && updated.status().isTerminal()) {
             synchronized (asyncTaskLock) {
@@ -56,6 +86,92 @@ public class BatchDownloadAsyncTaskRegistry {
         return updated;
     }
 
+    /**
+     * Record archive progress. In cluster mode the write is throttled; the final counts are
+     * written by {@link #complete}.
+     */
+    public void updateProgress(String taskId, int filesAdded, long bytesAdded) {
+        if (isShared() && !clusterTaskStore.progressWriteDue(CLUSTER_DOMAIN, taskId)) {
+            return;
+        }
+        update(taskId, task -> task.progress(filesAdded, bytesAdded));
+    }
+
+    /**
+     * Whether the running task should stop. In cluster mode the answer may be up to one progress
+     * write interval old.
+     */
+    public boolean isCancellationRequested(String taskId) {
+        BatchDownloadAsyncTask task = isShared()
+            ? clusterTaskStore.findRecent(CLUSTER_DOMAIN, taskId, BatchDownloadAsyncTask.class).orElse(null)
+            : asyncTasks.get(taskId);
+        return task == null
+            || task.status() == BatchDownloadAsyncStatus.CANCEL_REQUESTED
+            || task.status() == BatchDownloadAsyncStatus.CANCELLED;
+    }
+
+    /**
+     * Mark a running task completed with the archive at {@code archivePath}. In cluster mode the
+     * archive is first moved to the content store; if the task was cancelled or removed meanwhile
+     * the archive is discarded.
+     */
+    public BatchDownloadAsyncTask complete(String taskId, int filesAdded, long bytesAdded, Path archivePath) throws IOException {
+        if (!isShared()) {
+            return update(taskId, task -> task.completed(filesAdded, bytesAdded, archivePath, LocalDateTime.now()));
+        }
+        BatchDownloadAsyncTask current = get(taskId);
+        if (current == null || current.status() != BatchDownloadAsyncStatus.RUNNING) {
+            deleteArchiveIfPresent(archivePath);
+            return current;
+        }
+        ClusterAsyncTaskStore.StoredArtifact artifact;
+        try {
+            artifact = clusterTaskStore.storeArtifact(CLUSTER_DOMAIN, taskId, archivePath, current.filename(), "application/zip");
+        } finally {
+            deleteArchiveIfPresent(archivePath);
+        }
+        BatchDownloadAsyncTask updated = update(taskId, task -> task.status() == BatchDownloadAsyncStatus.RUNNING
+            ? task.completed(filesAdded, bytesAdded, null, LocalDateTime.now())
+            : task);
+        if (artifact != null && (updated == null || updated.status() != BatchDownloadAsyncStatus.COMPLETED)) {
+            clusterTaskStore.deleteArtifact(CLUSTER_DOMAIN, taskId);
+        }
+        return updated;
+    }
+
+    /**
+     * Open the archive of a completed task, or {@code null} when it is not available.
+     */
+    public BatchDownloadArchive openArchive(BatchDownloadAsyncTask task) throws IOException {
+        if (task == null || task.status() != BatchDownloadAsyncStatus.COMPLETED) {
+            return null;
+        }
+        if (!isShared()) {
+            Path archivePath = task.archivePath();
+            if (archivePath == null || !Files.exists(archivePath)) {
+                return null;
+            }
+            return new BatchDownloadArchive(Files.newInputStream(archivePath), Files.size(archivePath));
+        }
+        ClusterAsyncTaskStore.StoredArtifact artifact = sharedArtifact(task);
+        if (artifact == null) {
+            return null;
+        }
+        return new BatchDownloadArchive(clusterTaskStore.openArtifact(artifact), artifact.sizeBytes());
+    }
+
+    public boolean artifactPresent(BatchDownloadAsyncTask task) {
+        return isShared() ? sharedArtifact(task) != null : task.artifactPresent();
+    }
+
+    public Long archiveSizeBytes(BatchDownloadAsyncTask task) {
+        if (!isShared()) {
+            return task.archiveSizeBytes();
+        }
+        ClusterAsyncTaskStore.StoredArtifact artifact = sharedArtifact(task);
+        return artifact != null && artifact.sizeBytes() >= 0 ? artifact.sizeBytes() : null;
+    }
+
     public BatchDownloadSnapshot snapshot(
         int limit,
         int skipCount,
@@ -67,40 +183,35 @@ public class BatchDownloadAsyncTaskRegistry {
         int boundedSkipCount = Math.max(0, skipCount);
         String normalizedQuery = normalizeQuery(query);
         String normalizedOwner = normalizeQuery(ownerFilter);
+        List<BatchDownloadAsyncTask> orderedTasks = orderedTasks();
         List<BatchDownloadAsyncTask> items = new ArrayList<>();
         int filteredCount = 0;
-        synchronized (asyncTaskLock) {
-            Iterator<String> iterator = asyncTaskOrder.descendingIterator();
-            while (iterator.hasNext()) {
-                BatchDownloadAsyncTask task = asyncTasks.get(iterator.next());
-                if (task == null) {
-                    continue;
-                }
-                if (statusFilter != null && task.status() != statusFilter) {
-                    continue;
-                }
-                if (!matchesOwner(task, normalizedOwner)) {
-                    continue;
-                }
-                if (!matchesQuery(task, normalizedQuery)) {
-                    continue;
-                }
-                if (filteredCount++ < boundedSkipCount) {
-                    continue;
-                }
-                if (items.size() < boundedLimit) {
-                    items.add(task);
-                }
+        for (int index = orderedTasks.size() - 1; index >= 0; index--) {
+            BatchDownloadAsyncTask task = orderedTasks.get(index);
+            if (statusFilter != null && task.status() != statusFilter) {
+                continue;
+            }
+            if (!matchesOwner(task, normalizedOwner)) {
+                continue;
+            }
+            if (!matchesQuery(task, normalizedQuery)) {
+                continue;
+            }
+            if (filteredCount++ < boundedSkipCount) {
+                continue;
+            }
+            if (items.size() < boundedLimit) {
+                items.add(task);
             }
         }
 
-        long activeCount = asyncTasks.values().stream()
+        long activeCount = orderedTasks.stream()
             .filter(task -> task.status().isActive())
             .count();
 
         return new BatchDownloadSnapshot(
             items,
-            asyncTasks.size(),
+            orderedTasks.size(),
             filteredCount,
             activeCount,
             boundedSkipCount,
@@ -154,10 +265,7 @@ public class BatchDownloadAsyncTaskRegistry {
         long completedCount = 0L;
         long failedCount = 0L;
 
-        for (BatchDownloadAsyncTask task : asyncTasks.values()) {
-            if (task == null) {
-                continue;
-            }
+        for (BatchDownloadAsyncTask task : orderedTasks()) {
             if (statusFilter != null && task.status() != statusFilter) {
                 continue;
             }
@@ -212,10 +320,21 @@ public class BatchDownloadAsyncTaskRegistry {
     }
 
     public int size() {
+        if (isShared()) {
+            return (int) clusterTaskStore.countByStatus(CLUSTER_DOMAIN).values().stream()
+                .mapToLong(Long::longValue)
+                .sum();
+        }
         return asyncTasks.size();
     }
 
     public long activeCount() {
+        if (isShared()) {
+            return clusterTaskStore.countByStatus(CLUSTER_DOMAIN).entrySet().stream()
+                .filter(entry -> BatchDownloadAsyncStatus.valueOf(entry.getKey()).isActive())
+                .mapToLong(Map.Entry::getValue)
+                .sum();
+        }
         return asyncTasks.values().stream()
             .filter(task -> task.status().isActive())
             .count();
@@ -230,7 +349,7 @@ public class BatchDownloadAsyncTaskRegistry {
         int affectedCount = 0;
         LocalDateTime now = LocalDateTime.now();
         for (String taskId : taskIds) {
-            BatchDownloadAsyncTask current = asyncTasks.get(taskId);
+            BatchDownloadAsyncTask current = get(taskId);
             if (current == null || !current.status().isActive()) {
                 continue;
             }
@@ -267,6 +386,15 @@ public class BatchDownloadAsyncTaskRegistry {
     }
 
     private int cleanupTasks(Predicate<BatchDownloadAsyncTask> predicate) {
+        if (isShared()) {
+            int removedCount = 0;
+            for (BatchDownloadAsyncTask task : orderedTasks()) {
+                if (predicate.test(task) && removeSharedTask(task)) {
+                    removedCount += 1;
+                }
+            }
+            return removedCount;
+        }
         int removedCount = 0;
         synchronized (asyncTaskLock) {
             Iterator<String> iterator = asyncTaskOrder.iterator();
@@ -291,20 +419,80 @@ public class BatchDownloadAsyncTaskRegistry {
     }
 
     private List<String> getTaskIds(Predicate<BatchDownloadAsyncTask> predicate) {
-        List<String> taskIds = new ArrayList<>();
+        return orderedTasks().stream()
+            .filter(predicate)
+            .map(BatchDownloadAsyncTask::taskId)
+            .toList();
+    }
+
+    /**
+     * Tasks oldest first, in the order snapshots list them (newest last).
+     */
+    private List<BatchDownloadAsyncTask> orderedTasks() {
+        if (isShared()) {
+            return clusterTaskStore.list(CLUSTER_DOMAIN, BatchDownloadAsyncTask.class);
+        }
+        List<BatchDownloadAsyncTask> tasks = new ArrayList<>();
         synchronized (asyncTaskLock) {
-            Iterator<String> iterator = asyncTaskOrder.iterator();
-            while (iterator.hasNext()) {
-                String taskId = iterator.next();
+            for (String taskId : asyncTaskOrder) {
                 BatchDownloadAsyncTask task = asyncTasks.get(taskId);
-                if (task != null && predicate.test(task)) {
-                    taskIds.add(taskId);
+                if (task != null) {
+                    tasks.add(task);
                 }
             }
         }
-        return taskIds;
+        return tasks;
     }
 
+    private boolean isShared() {
+        return clusterTaskStore != null && clusterTaskStore.isEnabled();
+    }
+
+    private ClusterAsyncTaskStore.StoredArtifact sharedArtifact(BatchDownloadAsyncTask task) {
+        if (task.status() != BatchDownloadAsyncStatus.COMPLETED) {
+            return null;
+        }
+        ClusterAsyncTaskStore.StoredArtifact artifact = sharedArtifacts.get(task.taskId());
+        if (artifact == null) {
+            artifact = clusterTaskStore.artifact(CLUSTER_DOMAIN, task.taskId()).orElse(null);
+            if (artifact != null) {
+                sharedArtifacts.put(task.taskId(), artifact);
+            }
+        }
+        return artifact;
+    }
+
+    private boolean removeSharedTask(BatchDownloadAsyncTask task) {
+        deleteArchiveIfPresent(task.archivePath());
+        sharedArtifacts.remove(task.taskId());
+        return clusterTaskStore.delete(CLUSTER_DOMAIN, task.taskId());
+    }
+
+    private void trimSharedTerminalTasks() {
+        List<BatchDownloadAsyncTask> tasks = orderedTasks();
+        int excess = tasks.size() - MAX_ASYNC_TASKS;
+        for (BatchDownloadAsyncTask task : tasks) {
+            if (excess <= 0) {
+                break;
+            }
+            if (task.status().isTerminal() && removeSharedTask(task)) {
+                excess -= 1;
+            }
+        }
+    }
+
+    private static ClusterAsyncTaskStore.TaskState stateOf(BatchDownloadAsyncTask task) {
+        return new ClusterAsyncTaskStore.TaskState(
+            task.status().name(),
+            task.status().isActive(),
+            task.createdBy(),
+            task.createdAt(),
+            task.completedAt()
+        );
+    }
+
+    public record BatchDownloadArchive(InputStream content, long sizeBytes) {}
+
     public record BatchDownloadAsyncSummary(
         int totalCount,
         long activeCount,
@@ -409,6 +597,29 @@ public class BatchDownloadAsyncTaskRegistry {
             );
         }
 
+        /**
+         * Back to QUEUED with progress reset, for a task whose previous run was lost with its node.
+         */
+        public BatchDownloadAsyncTask requeued() {
+            return new BatchDownloadAsyncTask(
+                taskId,
+                nodeIds,
+                name,
+                createdBy,
+                filename,
+                BatchDownloadAsyncStatus.QUEUED,
+                totalFiles,
+                0,
+                totalBytes,
+                0L,
+                createdAt,
+                null,
+                null,
+                null,
+                null
+            );
+        }
+
         public BatchDownloadAsyncTask progress(int filesAdded, long bytesAdded) {
             return new BatchDownloadAsyncTask(
                 taskId,
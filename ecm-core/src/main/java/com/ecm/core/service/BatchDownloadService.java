@@ -7,21 +7,21 @@ import com.ecm.core.entity.Permission;
 import com.ecm.core.repository.NodeRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.apache.commons.io.IOUtils;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Objects;
 import java.util.Set;
 import java.util.UUID;
-import java.util.zip.ZipEntry;
-import java.util.zip.ZipOutputStream;
 
 @Slf4j
 @Service
@@ -33,16 +33,17 @@ public class BatchDownloadService {
     private final SecurityService securityService;
     private final FolderService folderService;
     private final TenantWorkspaceScopeService tenantWorkspaceScopeService;
+    private final SmartZipArchiveBuilder smartZipArchiveBuilder;
 
     /**
      * Streams multiple nodes (documents and folders) into a ZIP output stream.
      *
      * @param nodeIds IDs of nodes to download
-     * @param zipOut  The output stream to write the ZIP to
+     * @param out     The output stream to write the ZIP to; left open
      */
     @Transactional(readOnly = true)
-    public void streamNodesAsZip(List<UUID> nodeIds, ZipOutputStream zipOut) {
-        writeNodesAsZip(nodeIds, zipOut, BatchDownloadProgressListener.noop());
+    public void streamNodesAsZip(List<UUID> nodeIds, OutputStream out) {
+        writeNodesAsZip(nodeIds, out, BatchDownloadProgressListener.noop());
     }
 
     @Transactional(readOnly = true)
@@ -285,41 +286,68 @@ public class BatchDownloadService {
 
     /**
      * Writes multiple nodes into a ZIP output stream and reports coarse progress.
+     *
+     * <p>Entries are built by {@link SmartZipArchiveBuilder}: incompressible content is stored,
+     * the rest is deflated in parallel, and entries still appear in traversal order.
+     * {@code onFileAdded} fires as each entry reaches the stream.
      */
     @Transactional(readOnly = true)
     public BatchDownloadArchiveSummary writeNodesAsZip(
         List<UUID> nodeIds,
-        ZipOutputStream zipOut,
+        OutputStream out,
         BatchDownloadProgressListener progressListener
     ) {
         Set<String> usedPaths = new HashSet<>();
         BatchDownloadArchiveProgress progress = new BatchDownloadArchiveProgress();
+        long startedAt = System.nanoTime();
 
-        for (UUID id : nodeIds) {
+        try (SmartZipArchiveWriter zipOut = smartZipArchiveBuilder.open(out)) {
+            for (UUID id : nodeIds) {
+                if (progressListener.isCancellationRequested()) {
+                    return progress.cancelledSummary();
+                }
+                addRequestedNode(id, zipOut, usedPaths, progress, progressListener);
+            }
             if (progressListener.isCancellationRequested()) {
                 return progress.cancelledSummary();
             }
-            try {
-                Node node = nodeRepository.findById(id).orElse(null);
-                if (node == null || node.isDeleted() || !isNodeVisible(node)) {
-                    continue;
-                }
-
-                if (!securityService.hasPermission(node, Permission.PermissionType.READ)) {
-                    log.warn("User {} tried to download node {} without permission", 
-                        securityService.getCurrentUser(), id);
-                    continue;
-                }
+            SmartZipArchiveWriter.ArchiveStats stats = zipOut.finish();
+            long elapsedMs = Math.max((System.nanoTime() - startedAt) / 1_000_000L, 1L);
+            log.info("Batch ZIP built: {} entries ({} stored, {} deflated), {} -> {} bytes in {} ms ({} KB/s)",
+                stats.entries(), stats.storedEntries(), stats.deflatedEntries(), stats.bytesIn(), stats.bytesOut(),
+                elapsedMs, stats.bytesIn() * 1000L / elapsedMs / 1024L);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to write batch download archive", e);
+        }
+        return progress.completedSummary();
+    }
 
-                String rootPath = ""; // Root of the ZIP
-                processNode(node, rootPath, zipOut, usedPaths, progress, progressListener);
+    private void addRequestedNode(
+        UUID id,
+        SmartZipArchiveWriter zipOut,
+        Set<String> usedPaths,
+        BatchDownloadArchiveProgress progress,
+        BatchDownloadProgressListener progressListener
+    ) {
+        try {
+            Node node = nodeRepository.findById(id).orElse(null);
+            if (node == null || node.isDeleted() || !isNodeVisible(node)) {
+                return;
+            }
 
-            } catch (Exception e) {
-                log.error("Error processing node {} for batch download", id, e);
-                // Continue with next node, don't break the whole zip
+            if (!securityService.hasPermission(node, Permission.PermissionType.READ)) {
+                log.warn("User {} tried to download node {} without permission", 
+                    securityService.getCurrentUser(), id);
+                return;
             }
+
+            String rootPath = ""; // Root of the ZIP
+            processNode(node, rootPath, zipOut, usedPaths, progress, progressListener);
+
+        } catch (Exception e) {
+            log.error("Error processing node {} for batch download", id, e);
+            // Continue with next node, don't break the whole zip
         }
-        return progress.completedSummary();
     }
 
     private void inspectNode(Node node, BatchDownloadManifestAccumulator accumulator) {
@@ -347,7 +375,7 @@ public class BatchDownloadService {
     private void processNode(
         Node node,
         String currentPath,
-        ZipOutputStream zipOut,
+        SmartZipArchiveWriter zipOut,
         Set<String> usedPaths,
         BatchDownloadArchiveProgress progress,
         BatchDownloadProgressListener progressListener
@@ -365,36 +393,48 @@ public class BatchDownloadService {
     private void addDocumentToZip(
         Document doc,
         String path,
-        ZipOutputStream zipOut,
+        SmartZipArchiveWriter zipOut,
         Set<String> usedPaths,
         BatchDownloadArchiveProgress progress,
         BatchDownloadProgressListener progressListener
     ) throws IOException {
-        String entryPath = path + doc.getName();
-        entryPath = ensureUniquePath(entryPath, usedPaths);
-
-        ZipEntry zipEntry = new ZipEntry(entryPath);
-        zipOut.putNextEntry(zipEntry);
-
-        long bytesWritten = 0L;
-        try (InputStream contentStream = contentService.getContent(doc.getContentId())) {
-            bytesWritten = IOUtils.copyLarge(contentStream, zipOut);
+        String entryPath = ensureUniquePath(path + doc.getName(), usedPaths);
+        SmartZipArchiveWriter.EntryListener onWritten = (size, compressedSize, stored) -> {
+            progress.recordFile(size);
+            progressListener.onFileAdded(doc.getId(), entryPath, size, progress.filesAdded(), progress.bytesAdded());
+        };
+
+        InputStream contentStream;
+        try {
+            contentStream = contentService.getContent(doc.getContentId());
         } catch (Exception e) {
-            log.error("Failed to read content for document {}", doc.getId(), e);
-            byte[] message = ("Error reading content: " + e.getMessage()).getBytes();
-            zipOut.write(message);
-            bytesWritten = message.length;
+            addContentErrorEntry(doc, entryPath, e, zipOut, onWritten);
+            return;
+        }
+        try (contentStream) {
+            zipOut.addEntry(entryPath, doc.getMimeType(), doc.getLastModifiedDate(), contentStream, onWritten);
+        } catch (SmartZipArchiveWriter.EntryContentException e) {
+            addContentErrorEntry(doc, entryPath, e.getCause(), zipOut, onWritten);
         }
+    }
 
-        zipOut.closeEntry();
-        progress.recordFile(bytesWritten);
-        progressListener.onFileAdded(doc.getId(), entryPath, bytesWritten, progress.filesAdded(), progress.bytesAdded());
+    private void addContentErrorEntry(
+        Document doc,
+        String entryPath,
+        Throwable cause,
+        SmartZipArchiveWriter zipOut,
+        SmartZipArchiveWriter.EntryListener onWritten
+    ) throws IOException {
+        log.error("Failed to read content for document {}", doc.getId(), cause);
+        String reason = cause != null ? cause.getMessage() : "unknown error";
+        byte[] message = ("Error reading content: " + reason).getBytes(StandardCharsets.UTF_8);
+        zipOut.addEntry(entryPath, "text/plain", doc.getLastModifiedDate(), new ByteArrayInputStream(message), onWritten);
     }
 
     private void addFolderToZip(
         Folder folder,
         String path,
-        ZipOutputStream zipOut,
+        SmartZipArchiveWriter zipOut,
         Set<String> usedPaths,
         BatchDownloadArchiveProgress progress,
         BatchDownloadProgressListener progressListener
@@ -403,9 +443,7 @@ public class BatchDownloadService {
         folderPath = ensureUniquePath(folderPath, usedPaths);
 
         // Add empty folder entry
-        ZipEntry zipEntry = new ZipEntry(folderPath);
-        zipOut.putNextEntry(zipEntry);
-        zipOut.closeEntry();
+        zipOut.addDirectory(folderPath, folder.getLastModifiedDate());
 
         // Recursively add children
         // Note: For very large trees, this might be slow. 
@@ -61,6 +61,9 @@ public class CheckOutCheckInService {
     @Lazy
     private RecordsManagementService recordsManagementService;
 
+    @Autowired
+    private ExtractedTextStore extractedTextStore;
+
     @Autowired
     public CheckOutCheckInService(
         DocumentRepository documentRepository,
@@ -459,6 +462,7 @@ public class CheckOutCheckInService {
             String textContent = (String) extracted.get("textContent");
             if (textContent != null) {
                 wc.setTextContent(textContent);
+                extractedTextStore.storePending(wc);
             }
             wc.setLastModifiedBy(currentUser);
             wc.setLastModifiedDate(LocalDateTime.now());
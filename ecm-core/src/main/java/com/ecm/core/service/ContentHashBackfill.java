@@ -0,0 +1,221 @@
+package com.ecm.core.service;
+
+import com.ecm.core.scheduler.ClusterJob;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.codec.digest.DigestUtils;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+import java.util.Locale;
+import java.util.UUID;
+
+/**
+ * Re-hashes content recorded before uploads stored the plain SHA-256 (rows with
+ * {@code content_hash_legacy}, see migration 112), a batch of documents and then of versions per run.
+ *
+ * <p>A flagged hash that already equals the blob's SHA-256 only loses the flag. Any other value is
+ * replaced by the SHA-256 wherever it is stored: documents (including their preview hashes), versions and
+ * the antivirus verdict cache, so rows that deduplicated or copied that blob, and the verdict recorded for
+ * it, move to the new key together. The document rewrite bumps the node's {@code version}, so a session
+ * that loaded the old hash fails its optimistic check instead of writing it back.
+ *
+ * <p>{@link #isComplete} lets uploads keep looking up old-format hashes until nothing is flagged.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ContentHashBackfill {
+
+    private static final long COMPLETE_CHECK_INTERVAL_MS = 60_000L;
+
+    private static final String DOCUMENT_BATCH_SQL = """
+        SELECT d.id, d.content_id, d.content_hash FROM documents d
+        WHERE d.content_hash_legacy AND d.id > ?
+        ORDER BY d.id
+        LIMIT ?
+        """;
+
+    private static final String VERSION_BATCH_SQL = """
+        SELECT v.id, v.content_id, v.content_hash FROM versions v
+        WHERE v.content_hash_legacy AND v.id > ?
+        ORDER BY v.id
+        LIMIT ?
+        """;
+
+    private static final String CLEAR_DOCUMENT_SQL = "UPDATE documents SET content_hash_legacy = FALSE WHERE id = ?";
+
+    private static final String CLEAR_VERSION_SQL = "UPDATE versions SET content_hash_legacy = FALSE WHERE id = ?";
+
+    private static final String REHASH_DOCUMENTS_SQL = """
+        WITH claimed AS (
+            UPDATE nodes n SET version = COALESCE(n.version, 0) + 1
+            FROM documents d
+            WHERE d.id = n.id AND d.content_hash = ?
+            RETURNING n.id
+        )
+        UPDATE documents SET content_hash = ?, content_hash_legacy = FALSE,
+            preview_content_hash = CASE WHEN preview_content_hash = ? THEN ? ELSE preview_content_hash END,
+            preview_failure_content_hash =
+                CASE WHEN preview_failure_content_hash = ? THEN ? ELSE preview_failure_content_hash END
+        WHERE id IN (SELECT id FROM claimed)
+        """;
+
+    private static final String REHASH_VERSIONS_SQL = """
+        UPDATE versions SET content_hash = ?, content_hash_legacy = FALSE, version = COALESCE(version, 0) + 1
+        WHERE content_hash = ?
+        """;
+
+    private static final String REKEY_VERDICT_SQL = """
+        UPDATE content_scan_verdicts SET content_hash = ?
+        WHERE content_hash = ?
+          AND NOT EXISTS (SELECT 1 FROM content_scan_verdicts WHERE content_hash = ?)
+        """;
+
+    private static final String DROP_VERDICT_SQL = "DELETE FROM content_scan_verdicts WHERE content_hash = ?";
+
+    private static final String ANY_FLAGGED_SQL = """
+        SELECT EXISTS (SELECT 1 FROM documents WHERE content_hash_legacy)
+            OR EXISTS (SELECT 1 FROM versions WHERE content_hash_legacy)
+        """;
+
+    private static final UUID FIRST_ID = new UUID(0L, 0L);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ContentService contentService;
+
+    @Value("${ecm.storage.hash-backfill.enabled:true}")
+    private boolean enabled = true;
+
+    @Value("${ecm.storage.hash-backfill.batch-size:100}")
+    private int batchSize = 100;
+
+    private volatile UUID documentCursor = FIRST_ID;
+    private volatile UUID versionCursor = FIRST_ID;
+    private volatile boolean complete;
+    private volatile long completeCheckedAt;
+
+    /**
+     * Whether no flagged row is left. Asks the database at most once a minute per node and stays
+     * {@code true} once it was, since new rows are never flagged. Errors count as not complete.
+     */
+    public boolean isComplete() {
+        if (complete) {
+            return true;
+        }
+        long now = System.currentTimeMillis();
+        if (now - completeCheckedAt < COMPLETE_CHECK_INTERVAL_MS) {
+            return false;
+        }
+        completeCheckedAt = now;
+        try {
+            complete = Boolean.FALSE.equals(jdbcTemplate.queryForObject(ANY_FLAGGED_SQL, Boolean.class));
+        } catch (Exception e) {
+            log.debug("Could not check for old-format content hashes: {}", e.getMessage());
+        }
+        return complete;
+    }
+
+    /**
+     * Re-hash one batch of flagged documents, or of versions once no document is left. Returns the
+     * number of rows handled.
+     */
+    @Scheduled(
+        fixedDelayString = "${ecm.storage.hash-backfill.interval-ms:30000}",
+        initialDelayString = "${ecm.storage.hash-backfill.initial-delay-ms:120000}")
+    @ClusterJob
+    public int backfill() {
+        if (!enabled || complete) {
+            return 0;
+        }
+        UUID cursor = documentCursor;
+        List<HashedRow> documents = batch(DOCUMENT_BATCH_SQL, cursor);
+        if (!documents.isEmpty()) {
+            documentCursor = documents.get(documents.size() - 1).id();
+            return rehash(documents, CLEAR_DOCUMENT_SQL);
+        }
+        if (!FIRST_ID.equals(cursor)) {
+            // Rows skipped on read errors are retried on the next pass
+            documentCursor = FIRST_ID;
+            return 0;
+        }
+
+        cursor = versionCursor;
+        List<HashedRow> versions = batch(VERSION_BATCH_SQL, cursor);
+        if (!versions.isEmpty()) {
+            versionCursor = versions.get(versions.size() - 1).id();
+            return rehash(versions, CLEAR_VERSION_SQL);
+        }
+        if (FIRST_ID.equals(cursor)) {
+            complete = true;
+            log.info("Content hash backfill complete");
+        } else {
+            versionCursor = FIRST_ID;
+        }
+        return 0;
+    }
+
+    private List<HashedRow> batch(String sql, UUID cursor) {
+        return jdbcTemplate.query(sql,
+            (rs, rowNum) -> new HashedRow(
+                rs.getObject("id", UUID.class), rs.getString("content_id"), rs.getString("content_hash")),
+            cursor, Math.max(1, batchSize));
+    }
+
+    private int rehash(List<HashedRow> rows, String clearSql) {
+        int handled = 0;
+        int rewritten = 0;
+        for (HashedRow row : rows) {
+            String sha256;
+            try {
+                sha256 = sha256(row.contentId());
+            } catch (IOException e) {
+                log.debug("Could not re-hash content {} of {}: {}", row.contentId(), row.id(), e.getMessage());
+                continue;
+            }
+            handled++;
+            if (sha256 == null || row.contentHash() == null
+                || sha256.equals(row.contentHash().toLowerCase(Locale.ROOT))) {
+                // Already plain, or nothing to hash: the consistency scan reports missing content
+                jdbcTemplate.update(clearSql, row.id());
+                continue;
+            }
+            String legacy = row.contentHash();
+            transactionTemplate.executeWithoutResult(status -> {
+                jdbcTemplate.update(REHASH_DOCUMENTS_SQL, legacy, sha256, legacy, sha256, legacy, sha256);
+                jdbcTemplate.update(REHASH_VERSIONS_SQL, sha256, legacy);
+                jdbcTemplate.update(REKEY_VERDICT_SQL, sha256, legacy, sha256);
+                jdbcTemplate.update(DROP_VERDICT_SQL, legacy);
+                // A concurrent write may have replaced this row's hash since the batch was read
+                jdbcTemplate.update(clearSql, row.id());
+            });
+            rewritten++;
+        }
+        if (handled > 0) {
+            log.debug("Re-hashed {} content rows, {} with an old-format hash", handled, rewritten);
+        }
+        return handled;
+    }
+
+    private String sha256(String contentId) throws IOException {
+        if (contentId == null) {
+            return null;
+        }
+        try (InputStream in = contentService.getContent(contentId)) {
+            return DigestUtils.sha256Hex(in);
+        } catch (FileNotFoundException e) {
+            return null;
+        }
+    }
+
+    record HashedRow(UUID id, String contentId, String contentHash) {
+    }
+}
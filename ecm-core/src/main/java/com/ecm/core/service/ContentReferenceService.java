@@ -3,6 +3,7 @@ package com.ecm.core.service;
 import com.ecm.core.entity.ContentReference;
 import com.ecm.core.entity.ContentReference.OwnerType;
 import com.ecm.core.repository.ContentReferenceRepository;
+import com.ecm.core.scheduler.ClusterJob;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
@@ -157,6 +158,7 @@ public class ContentReferenceService {
      */
     @Scheduled(cron = "${ecm.storage.orphan-cleanup.cron:0 0 3 * * *}")
     @Transactional
+    @ClusterJob
     public void cleanupOrphanedContent() {
         if (!orphanCleanupEnabled) {
             return;
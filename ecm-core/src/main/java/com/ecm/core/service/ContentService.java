@@ -2,11 +2,13 @@ package com.ecm.core.service;
 
 import com.ecm.core.entity.Document;
 import com.ecm.core.entity.Version;
+import com.ecm.core.metrics.EcmMetrics;
 import com.ecm.core.repository.ContentReferenceRepository;
 import com.ecm.core.repository.DocumentRepository;
 import com.ecm.core.repository.VersionRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.codec.binary.Hex;
 import org.apache.commons.codec.digest.DigestUtils;
 import org.apache.commons.io.FileUtils;
 import org.apache.commons.io.FilenameUtils;
@@ -14,29 +16,30 @@ import org.apache.tika.Tika;
 import org.apache.tika.exception.TikaException;
 import org.apache.tika.metadata.Metadata;
 import org.apache.tika.metadata.TikaCoreProperties;
-import org.apache.tika.parser.AutoDetectParser;
-import org.apache.tika.parser.ParseContext;
-import org.apache.tika.parser.Parser;
-import org.apache.tika.sax.BodyContentHandler;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.multipart.MultipartFile;
-import org.xml.sax.SAXException;
 
 import java.io.*;
 import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.DirectoryStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.nio.file.StandardCopyOption;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 @Slf4j
 @Service
@@ -48,6 +51,7 @@ public class ContentService {
     private final VersionRepository versionRepository;
     private final TenantQuotaService tenantQuotaService;
     private final ContentReferenceRepository contentReferenceRepository;
+    private final TextExtractionService textExtractionService;
     
     @Value("${ecm.storage.root-path}")
     private String rootPath;
@@ -57,6 +61,13 @@ public class ContentService {
     
     private final Tika tika = new Tika();
 
+    @Autowired(required = false)
+    private EcmMetrics metrics = EcmMetrics.noop();
+
+    @Lazy
+    @Autowired(required = false)
+    private ContentHashBackfill contentHashBackfill;
+
     private static final Set<String> GENERIC_MIME_TYPES = Set.of(
         "application/octet-stream",
         "binary/octet-stream",
@@ -68,19 +79,44 @@ public class ContentService {
     }
     
     public String storeContent(InputStream inputStream, String filename) throws IOException {
+        return storeContentWithHash(inputStream, filename).contentId();
+    }
+
+    /**
+     * Store content and report its SHA-256 and whether an existing blob was reused.
+     */
+    public StoredContent storeContentWithHash(InputStream inputStream, String filename) throws IOException {
+        long startNanos = System.nanoTime();
+        String mimeFamily = EcmMetrics.mimeFamilyForFilename(filename);
+        String outcome = "failed";
+        try {
+            StoredContent stored = writeContent(inputStream, filename, mimeFamily);
+            outcome = stored.deduplicated() ? "deduplicated" : "stored";
+            return stored;
+        } finally {
+            metrics.recordTime("ecm_content_write_duration", startNanos, "mime_family", mimeFamily, "outcome", outcome);
+        }
+    }
+
+    private StoredContent writeContent(InputStream inputStream, String filename, String mimeFamily) throws IOException {
         // Create temp file
         Path tempFile = Files.createTempFile(Paths.get(tempPath), "upload_", "_" + filename);
         
         try {
             // Copy to temp file and calculate hash
-            String contentHash;
+            UploadHash hash;
+            boolean withLegacyHash = contentHashBackfill != null && !contentHashBackfill.isComplete();
             try (InputStream is = inputStream;
                  OutputStream os = Files.newOutputStream(tempFile)) {
-                contentHash = copyAndHash(is, os);
+                hash = copyAndHash(is, os, withLegacyHash);
             }
+            String contentHash = hash.sha256();
             
             // Check if content already exists (deduplication)
             String existingContentId = findExistingContent(contentHash);
+            if (existingContentId == null && hash.legacySha256() != null) {
+                existingContentId = findExistingContent(hash.legacySha256());
+            }
             if (existingContentId != null) {
                 log.debug("Content already exists with hash: {}, reusing content ID: {}",
                     contentHash, existingContentId);
@@ -88,9 +124,12 @@ public class ContentService {
                 // incoming size before returning (ADR-002: the dedup fast path must participate in
                 // the same quota contract as a normal write). On exceed the finally block below
                 // still deletes the temp file.
-                tenantQuotaService.assertQuotaAvailable(Files.size(tempFile));
+                long incomingSize = Files.size(tempFile);
+                tenantQuotaService.assertQuotaAvailable(incomingSize);
+                metrics.recordBytes("ecm_content_write_bytes", incomingSize,
+                    "mime_family", mimeFamily, "outcome", "deduplicated");
                 Files.deleteIfExists(tempFile);
-                return existingContentId;
+                return new StoredContent(existingContentId, contentHash, true);
             }
             
             // Generate content ID and storage path
@@ -114,27 +153,37 @@ public class ContentService {
             try {
                 long storedSize = Files.size(storagePath);
                 tenantQuotaService.assertQuotaAvailable(storedSize);
+                metrics.recordBytes("ecm_content_write_bytes", storedSize,
+                    "mime_family", mimeFamily, "outcome", "stored");
             } catch (TenantQuotaService.QuotaExceededException ex) {
                 log.warn("Quota exceeded after write, deleting stored content: {}", contentId);
                 Files.deleteIfExists(storagePath);
                 throw ex;
             }
 
-            return contentId;
+            return new StoredContent(contentId, contentHash, false);
             
         } finally {
             Files.deleteIfExists(tempFile);
         }
     }
     
+    /**
+     * Open stored content. Open latency is timed here; the bytes actually read are recorded when the
+     * caller closes the stream.
+     */
     public InputStream getContent(String contentId) throws IOException {
+        long startNanos = System.nanoTime();
         Path contentPath = getStoragePath(contentId);
         
         if (!Files.exists(contentPath)) {
+            metrics.recordTime("ecm_content_read_open_duration", startNanos, "outcome", "missing");
             throw new FileNotFoundException("Content not found: " + contentId);
         }
         
-        return Files.newInputStream(contentPath);
+        InputStream in = Files.newInputStream(contentPath);
+        metrics.recordTime("ecm_content_read_open_duration", startNanos, "outcome", "found");
+        return metrics.countBytesRead(in, "ecm_content_read_bytes");
     }
     
     public void deleteContent(String contentId) throws IOException {
@@ -158,6 +207,34 @@ public class ContentService {
         return Files.exists(contentPath);
     }
 
+    /**
+     * Day directories of the content store as {@code yyyy/MM/dd} paths relative to the storage root,
+     * oldest first. Together with {@link #openStorageDay(String)} this visits every stored blob.
+     */
+    public List<String> listStorageDays() throws IOException {
+        Path root = Paths.get(rootPath);
+        if (!Files.isDirectory(root)) {
+            return List.of();
+        }
+        List<String> days = new ArrayList<>();
+        for (Path year : storageSubdirectories(root, 4)) {
+            for (Path month : storageSubdirectories(year, 2)) {
+                for (Path day : storageSubdirectories(month, 2)) {
+                    days.add(year.getFileName() + "/" + month.getFileName() + "/" + day.getFileName());
+                }
+            }
+        }
+        return days;
+    }
+
+    /**
+     * Blob files of one day directory from {@link #listStorageDays()}; each file name is a content id.
+     * The caller closes the stream.
+     */
+    public DirectoryStream<Path> openStorageDay(String day) throws IOException {
+        return Files.newDirectoryStream(Paths.get(rootPath).resolve(day), Files::isRegularFile);
+    }
+
     /**
      * Store content from a raw stream when filename is not important.
      */
@@ -165,34 +242,33 @@ public class ContentService {
         return storeContent(inputStream, "upload.bin");
     }
     
+    /**
+     * Tika metadata, extracted text ({@code textContent}) and SHA-256 ({@code contentHash}) of stored content.
+     * Extraction goes through the shared {@link TextExtractionService}, so content parsed before is not
+     * parsed again.
+     */
     public Map<String, Object> extractMetadata(String contentId) throws IOException {
         Map<String, Object> metadata = new HashMap<>();
-        
+
+        String contentHash;
         try (InputStream is = getContent(contentId)) {
-            Metadata tikaMetadata = new Metadata();
-            BodyContentHandler handler = new BodyContentHandler(-1);
-            Parser parser = new AutoDetectParser();
-            ParseContext context = new ParseContext();
-            
-            try {
-                parser.parse(is, handler, tikaMetadata, context);
-                
-                // Extract metadata
-                for (String name : tikaMetadata.names()) {
-                    metadata.put(name, tikaMetadata.get(name));
-                }
-                
-                // Extract text content
-                String textContent = handler.toString();
-                if (textContent != null && !textContent.trim().isEmpty()) {
-                    metadata.put("textContent", textContent);
-                }
-                
-            } catch (SAXException | TikaException e) {
-                log.error("Error extracting metadata from content: {}", contentId, e);
+            contentHash = DigestUtils.sha256Hex(is);
+        }
+        metadata.put("contentHash", contentHash);
+
+        try {
+            TextExtractionService.ExtractionResult extraction =
+                textExtractionService.extract(contentHash, null, () -> getContent(contentId));
+            metadata.putAll(extraction.metadata());
+
+            String textContent = extraction.text();
+            if (!textContent.trim().isEmpty()) {
+                metadata.put("textContent", textContent);
             }
+        } catch (TikaException e) {
+            log.error("Error extracting metadata from content: {}", contentId, e);
         }
-        
+
         return metadata;
     }
     
@@ -288,16 +364,28 @@ public class ContentService {
         return newContentId;
     }
     
-    private String copyAndHash(InputStream input, OutputStream output) throws IOException {
+    /**
+     * Copy the upload and hash it. With {@code withLegacyHash} it also computes the value uploads stored
+     * before migration 112, which fed every read chunk to the digest twice and kept the hex of the result,
+     * so content that ContentHashBackfill has not re-hashed yet is still found. That value depends on the
+     * chunks the stream returns, so it only matches when the upload is read the same way as the original.
+     */
+    private UploadHash copyAndHash(InputStream input, OutputStream output, boolean withLegacyHash) throws IOException {
         byte[] buffer = new byte[8192];
         int bytesRead;
+        java.security.MessageDigest legacy = withLegacyHash ? DigestUtils.getSha256Digest() : null;
         
         try (var digestStream = new DigestOutputStream(output, DigestUtils.getSha256Digest())) {
             while ((bytesRead = input.read(buffer)) != -1) {
                 digestStream.write(buffer, 0, bytesRead);
+                if (legacy != null) {
+                    legacy.update(buffer, 0, bytesRead);
+                    legacy.update(buffer, 0, bytesRead);
+                }
             }
             
-            return DigestUtils.sha256Hex(digestStream.getMessageDigest().digest());
+            return new UploadHash(Hex.encodeHexString(digestStream.getMessageDigest().digest()),
+                legacy != null ? DigestUtils.sha256Hex(legacy.digest()) : null);
         }
     }
     
@@ -324,6 +412,19 @@ public class ContentService {
         return versionRepository.countByContentIdAndDeletedFalse(contentId) > 0;
     }
     
+    private static List<Path> storageSubdirectories(Path parent, int nameLength) throws IOException {
+        try (Stream<Path> children = Files.list(parent)) {
+            return children
+                .filter(Files::isDirectory)
+                .filter(child -> {
+                    String name = child.getFileName().toString();
+                    return name.length() == nameLength && name.chars().allMatch(Character::isDigit);
+                })
+                .sorted()
+                .toList();
+        }
+    }
+
     private String generateContentId() {
         LocalDateTime now = LocalDateTime.now();
         String timestamp = now.format(DateTimeFormatter.ofPattern("yyyyMMddHHmmss"));
@@ -341,6 +442,16 @@ public class ContentService {
         return Paths.get(rootPath, year, month, day, contentId);
     }
     
+    /**
+     * Result of {@link #storeContentWithHash}: {@code deduplicated} means the id belongs to an
+     * existing blob that other documents may share.
+     */
+    public record StoredContent(String contentId, String contentHash, boolean deduplicated) {
+    }
+
+    private record UploadHash(String sha256, String legacySha256) {
+    }
+
     private static class DigestOutputStream extends FilterOutputStream {
         private final java.security.MessageDigest digest;
         
@@ -358,7 +469,8 @@ public class ContentService {
         @Override
         public void write(byte[] b, int off, int len) throws IOException {
             digest.update(b, off, len);
-            super.write(b, off, len);
+            // FilterOutputStream would write (and digest) the array again one byte at a time
+            out.write(b, off, len);
         }
         
         public java.security.MessageDigest getMessageDigest() {
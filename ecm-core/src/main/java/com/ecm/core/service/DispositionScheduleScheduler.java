@@ -1,5 +1,6 @@
 package com.ecm.core.service;
 
+import com.ecm.core.scheduler.ClusterJob;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.scheduling.annotation.Scheduled;
@@ -13,6 +14,7 @@ public class DispositionScheduleScheduler {
     private final DispositionScheduleService dispositionScheduleService;
 
     @Scheduled(cron = "${ecm.disposition.schedule.cron:0 35 3 * * *}")
+    @ClusterJob
     public void runSchedules() {
         DispositionScheduleService.DispositionBatchExecutionDto result = dispositionScheduleService.runScheduledSchedules();
         if (result.executedSchedules() > 0) {
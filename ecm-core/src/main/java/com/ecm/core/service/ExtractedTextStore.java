@@ -0,0 +1,182 @@
+package com.ecm.core.service;
+
+import com.ecm.core.entity.Document;
+import com.ecm.core.entity.ExtractedText;
+import com.ecm.core.scheduler.ClusterJob;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Writes the compressed rows of {@code extracted_texts} that documents reference through
+ * {@code extracted_text_hash}.
+ *
+ * <p>Services that set text on a document call {@link #storePending} before saving it, so the row the
+ * document's foreign key points at is written first, on the same transaction. Storing touches {@code last_referenced_at}; {@link #purgeUnreferenced} only deletes unreferenced rows
+ * that have not been touched within the grace period, so it never races a document that is about to
+ * reference one.
+ *
+ * <p>{@link #migrateInlineText} moves text still held inline in {@code documents.text_content} into the
+ * store, a batch per run. Each move is conditioned on, and bumps, the node's {@code version} read with the
+ * text, so it skips rows changed since and a session that loaded the row earlier fails its optimistic
+ * check instead of writing the inline text back over the move.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ExtractedTextStore {
+
+    private static final String UPSERT_SQL = """
+        INSERT INTO extracted_texts (text_hash, compressed_text, text_length, created_at, last_referenced_at)
+        VALUES (?, ?, ?, ?, ?)
+        ON CONFLICT (text_hash) DO UPDATE SET last_referenced_at = EXCLUDED.last_referenced_at
+        """;
+
+    private static final String INLINE_BATCH_SQL = """
+        SELECT d.id, d.text_content, n.version FROM documents d
+        JOIN nodes n ON n.id = d.id
+        WHERE d.text_content IS NOT NULL AND d.id > ?
+        ORDER BY d.id
+        LIMIT ?
+        """;
+
+    private static final String MOVE_INLINE_SQL = """
+        WITH claimed AS (
+            UPDATE nodes n SET version = COALESCE(n.version, 0) + 1
+            FROM documents d
+            WHERE n.id = ? AND d.id = n.id AND d.text_content IS NOT NULL
+              AND n.version IS NOT DISTINCT FROM ?
+            RETURNING n.id
+        )
+        UPDATE documents SET extracted_text_hash = ?, text_content = NULL
+        WHERE id IN (SELECT id FROM claimed)
+        """;
+
+    private static final String PURGE_SQL = """
+        DELETE FROM extracted_texts WHERE text_hash IN (
+            SELECT t.text_hash FROM extracted_texts t
+            WHERE t.last_referenced_at < ?
+              AND NOT EXISTS (SELECT 1 FROM documents d WHERE d.extracted_text_hash = t.text_hash)
+            LIMIT ?
+        )
+        """;
+
+    private static final UUID FIRST_ID = new UUID(0L, 0L);
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Value("${ecm.extracted-text.migration.enabled:true}")
+    private boolean migrationEnabled = true;
+
+    @Value("${ecm.extracted-text.migration.batch-size:200}")
+    private int migrationBatchSize = 200;
+
+    @Value("${ecm.extracted-text.purge.enabled:true}")
+    private boolean purgeEnabled = true;
+
+    @Value("${ecm.extracted-text.purge.grace-hours:24}")
+    private long purgeGraceHours = 24;
+
+    @Value("${ecm.extracted-text.purge.batch-size:1000}")
+    private int purgeBatchSize = 1000;
+
+    private volatile UUID migrationCursor = FIRST_ID;
+    private volatile boolean migrationComplete;
+
+    /**
+     * Write the text set on the document through {@link Document#setTextContent}, if any. Call before
+     * saving the document.
+     */
+    public void storePending(Document document) {
+        ExtractedText pending = document.pendingExtractedText();
+        if (pending != null) {
+            store(pending);
+        }
+    }
+
+    /**
+     * Make sure the text is in the store, sharing the row of any document with identical text.
+     */
+    public void store(ExtractedText text) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.update(UPSERT_SQL,
+            text.getTextHash(),
+            text.getCompressedText(),
+            text.getTextLength(),
+            Timestamp.valueOf(text.getCreatedAt()),
+            now);
+    }
+
+    /**
+     * Move one batch of inline {@code text_content} into the store. Returns the number of documents moved.
+     */
+    @Scheduled(
+        fixedDelayString = "${ecm.extracted-text.migration.interval-ms:30000}",
+        initialDelayString = "${ecm.extracted-text.migration.initial-delay-ms:60000}")
+    @ClusterJob
+    public int migrateInlineText() {
+        if (!migrationEnabled || migrationComplete) {
+            return 0;
+        }
+
+        UUID cursor = migrationCursor;
+        List<InlineText> batch = jdbcTemplate.query(INLINE_BATCH_SQL,
+            (rs, rowNum) -> new InlineText(
+                rs.getObject("id", UUID.class), rs.getString("text_content"), rs.getObject("version", Long.class)),
+            cursor, Math.max(1, migrationBatchSize));
+
+        if (batch.isEmpty()) {
+            if (FIRST_ID.equals(cursor)) {
+                migrationComplete = true;
+                log.info("Inline extracted text migration complete");
+            } else {
+                migrationCursor = FIRST_ID;
+            }
+            return 0;
+        }
+
+        int moved = 0;
+        for (InlineText inline : batch) {
+            if (inline.text().isEmpty()) {
+                moved += jdbcTemplate.update(MOVE_INLINE_SQL, inline.id(), inline.version(), null);
+                continue;
+            }
+            ExtractedText text = ExtractedText.of(inline.text());
+            store(text);
+            moved += jdbcTemplate.update(MOVE_INLINE_SQL, inline.id(), inline.version(), text.getTextHash());
+        }
+        migrationCursor = batch.get(batch.size() - 1).id();
+        log.debug("Moved extracted text of {} documents into the store", moved);
+        return moved;
+    }
+
+    /**
+     * Delete a batch of rows no document references any more.
+     */
+    @Scheduled(
+        fixedDelayString = "${ecm.extracted-text.purge.interval-ms:3600000}",
+        initialDelayString = "${ecm.extracted-text.purge.interval-ms:3600000}")
+    @ClusterJob
+    public int purgeUnreferenced() {
+        if (!purgeEnabled) {
+            return 0;
+        }
+        Timestamp cutoff = Timestamp.valueOf(LocalDateTime.now().minusHours(Math.max(0, purgeGraceHours)));
+        int purged = jdbcTemplate.update(PURGE_SQL, cutoff, Math.max(1, purgeBatchSize));
+        if (purged > 0) {
+            log.info("Purged {} unreferenced extracted texts", purged);
+        }
+        return purged;
+    }
+
+    record InlineText(UUID id, String text, Long version) {
+    }
+}
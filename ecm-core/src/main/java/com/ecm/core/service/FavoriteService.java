@@ -3,10 +3,12 @@ package com.ecm.core.service;
 import com.ecm.core.entity.Favorite;
 import com.ecm.core.entity.Folder;
 import com.ecm.core.entity.Node;
+import com.ecm.core.event.NodesReindexRequestedEvent;
 import com.ecm.core.repository.FavoriteRepository;
 import com.ecm.core.repository.NodeRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
@@ -28,6 +30,7 @@ public class FavoriteService {
     private final NodeRepository nodeRepository;
     private final SecurityService securityService;
     private final TenantWorkspaceScopeService tenantWorkspaceScopeService;
+    private final ApplicationEventPublisher eventPublisher;
 
     /**
      * Add a node to favorites for the current user.
@@ -87,7 +90,9 @@ public class FavoriteService {
             .build();
 
         log.info("User {} added node {} to favorites", userId, nodeId);
-        return favoriteRepository.save(favorite);
+        Favorite saved = favoriteRepository.save(favorite);
+        requestFavoriteCountReindex(nodeId, userId);
+        return saved;
     }
 
     @Transactional
@@ -107,13 +112,16 @@ public class FavoriteService {
             .build();
 
         log.info("User {} added folder {} to favorite sites", userId, nodeId);
-        return favoriteRepository.save(favorite);
+        Favorite saved = favoriteRepository.save(favorite);
+        requestFavoriteCountReindex(nodeId, userId);
+        return saved;
     }
 
     @Transactional
     public void removeFavoriteForUser(String userId, UUID nodeId) {
         Favorite favorite = getFavoriteForUser(userId, nodeId);
         favoriteRepository.delete(favorite);
+        requestFavoriteCountReindex(nodeId, userId);
         log.info("User {} removed node {} from favorites", userId, nodeId);
     }
 
@@ -166,4 +174,9 @@ public class FavoriteService {
             && node.getArchiveStatus() == Node.ArchiveStatus.LIVE
             && tenantWorkspaceScopeService.isPathVisible(node.getPath());
     }
+
+    // The favorite count is indexed as a search suggestion weight.
+    private void requestFavoriteCountReindex(UUID nodeId, String userId) {
+        eventPublisher.publishEvent(new NodesReindexRequestedEvent(List.of(nodeId), userId));
+    }
 }
@@ -26,6 +26,10 @@ public class FollowingService {
     private final NodeRepository nodeRepository;
     private final TenantWorkspaceScopeService tenantWorkspaceScopeService;
 
+    @org.springframework.beans.factory.annotation.Autowired
+    @org.springframework.context.annotation.Lazy
+    private ActivityFeedService activityFeedService;
+
     @Transactional(readOnly = true)
     public List<FollowSubscriptionDto> listCurrentUserSubscriptions() {
         return followSubscriptionRepository.findByUserIdOrderByCreatedAtDesc(securityService.getCurrentUser())
@@ -63,7 +67,11 @@ public class FollowingService {
         subscription.setUserId(userId);
         subscription.setTargetType(targetType);
         subscription.setTargetId(normalizedTargetId);
-        return toDto(followSubscriptionRepository.save(subscription));
+        FollowSubscriptionDto saved = toDto(followSubscriptionRepository.save(subscription));
+        if (activityFeedService != null) {
+            activityFeedService.backfillFollow(userId, targetType, normalizedTargetId);
+        }
+        return saved;
     }
 
     @Transactional
@@ -76,6 +84,9 @@ public class FollowingService {
         }
 
         followSubscriptionRepository.deleteByUserIdAndTargetTypeAndTargetId(userId, targetType, normalizedTargetId);
+        if (activityFeedService != null) {
+            activityFeedService.removeFollow(userId, targetType, normalizedTargetId);
+        }
     }
 
     @Transactional(readOnly = true)
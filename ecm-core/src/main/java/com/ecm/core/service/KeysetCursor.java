@@ -0,0 +1,53 @@
+package com.ecm.core.service;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.function.Function;
+
+/**
+ * Opaque keyset position for lists ordered by {@code (time DESC, id DESC)}, serialized as
+ * {@code <ISO_LOCAL_DATE_TIME>|<id>}. An absent token parses to the caller's head cursor, which
+ * sorts after every real row so the first page runs the same query as later pages.
+ *
+ * @param <K> type of the tie-breaking id
+ */
+record KeysetCursor<K>(LocalDateTime time, K id) {
+
+    private static final LocalDateTime HEAD_TIME = LocalDateTime.of(9999, 12, 31, 23, 59, 59);
+
+    /**
+     * Head cursor whose id must sort after every real id of the list.
+     */
+    static <K> KeysetCursor<K> head(K maxId) {
+        return new KeysetCursor<>(HEAD_TIME, maxId);
+    }
+
+    /**
+     * @param head   returned for a blank token
+     * @param label  cursor name used in the error message, e.g. {@code "feed cursor"}
+     * @throws IllegalArgumentException when the token is malformed
+     */
+    static <K> KeysetCursor<K> parse(String token, Function<String, K> idParser, KeysetCursor<K> head, String label) {
+        if (token == null || token.isBlank()) {
+            return head;
+        }
+        String normalized = token.trim();
+        int separator = normalized.indexOf('|');
+        if (separator <= 0 || separator == normalized.length() - 1) {
+            throw new IllegalArgumentException("Invalid " + label + ": " + token);
+        }
+        try {
+            return new KeysetCursor<>(
+                LocalDateTime.parse(normalized.substring(0, separator), DateTimeFormatter.ISO_LOCAL_DATE_TIME),
+                idParser.apply(normalized.substring(separator + 1))
+            );
+        } catch (DateTimeParseException | IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid " + label + ": " + token, e);
+        }
+    }
+
+    String serialize() {
+        return time.format(DateTimeFormatter.ISO_LOCAL_DATE_TIME) + "|" + id;
+    }
+}
@@ -5,16 +5,23 @@ import com.ecm.core.entity.PropertyDefinition;
 import com.ecm.core.security.secret.SecretCryptoService;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashSet;
 import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.UUID;
 
 @Service
 @RequiredArgsConstructor
@@ -26,24 +33,64 @@ public class NodePropertyEncryptionService {
     private final SecretCryptoService secretCryptoService;
     private final ObjectMapper objectMapper;
 
+    @Value("${ecm.security.secret.property-cache.enabled:true}")
+    private boolean propertyCacheEnabled = true;
+
+    @Value("${ecm.security.secret.property-cache.max-entries:10000}")
+    private long propertyCacheMaxEntries = 10000L;
+
+    @Value("${ecm.security.secret.property-cache.ttl-seconds:300}")
+    private long propertyCacheTtlSeconds = 300L;
+
+    /**
+     * Decrypted values per node row version. Entries remember the payloads they were decrypted from,
+     * so a rewrapped or rewritten value never hits a stale entry, and they are dropped once one of
+     * their key versions is no longer configured.
+     */
+    private Cache<DecryptedPropertiesKey, DecryptedProperties> decryptedPropertyCache;
+
+    @PostConstruct
+    void initDecryptedPropertyCache() {
+        if (!propertyCacheEnabled || propertyCacheMaxEntries <= 0) {
+            decryptedPropertyCache = null;
+            return;
+        }
+        decryptedPropertyCache = CacheBuilder.newBuilder()
+            .maximumSize(propertyCacheMaxEntries)
+            .expireAfterWrite(Duration.ofSeconds(Math.max(1L, propertyCacheTtlSeconds)))
+            .build();
+    }
+
     public Map<String, Object> resolveReadableProperties(Node node) {
         if (node == null) {
             return new LinkedHashMap<>();
         }
         Map<String, Object> resolved = redactProtectedPayloads(node.getProperties());
-        if (node.getEncryptedProperties() == null || node.getEncryptedProperties().isEmpty()) {
+        Map<String, String> payloads = protectedPayloads(node);
+        if (payloads.isEmpty()) {
             return resolved;
         }
 
-        for (String key : resolveEncryptedPropertyKeys(node)) {
-            String protectedValue = node.getEncryptedProperties().get(key);
-            if (protectedValue != null) {
-                resolved.put(key, deserializeValue(secretCryptoService.reveal(protectedValue)));
-            }
+        DecryptedProperties decrypted = cachedDecryption(node, payloads);
+        if (decrypted == null) {
+            List<String> plaintexts = new ArrayList<>(payloads.size());
+            payloads.values().forEach(payload -> plaintexts.add(secretCryptoService.reveal(payload)));
+            decrypted = toDecryptedProperties(payloads, plaintexts);
+            cacheDecryption(node, decrypted);
         }
+        decrypted.values().forEach((key, value) -> resolved.put(key, copyValue(value)));
         return resolved;
     }
 
+    /**
+     * Drops all cached decrypted values, e.g. after keys were rotated out of the configuration.
+     */
+    public void clearDecryptedPropertyCache() {
+        if (decryptedPropertyCache != null) {
+            decryptedPropertyCache.invalidateAll();
+        }
+    }
+
     public Map<String, Object> resolveResponseProperties(Node node) {
         if (node == null) {
             return new LinkedHashMap<>();
@@ -160,6 +207,83 @@ public class NodePropertyEncryptionService {
         return List.copyOf(keys);
     }
 
+    private Map<String, String> protectedPayloads(Node node) {
+        if (node.getEncryptedProperties() == null || node.getEncryptedProperties().isEmpty()) {
+            return Map.of();
+        }
+        Map<String, String> payloads = new LinkedHashMap<>();
+        for (String key : resolveEncryptedPropertyKeys(node)) {
+            String protectedValue = node.getEncryptedProperties().get(key);
+            if (protectedValue != null) {
+                payloads.put(key, protectedValue);
+            }
+        }
+        return payloads;
+    }
+
+    private DecryptedProperties cachedDecryption(Node node, Map<String, String> payloads) {
+        DecryptedPropertiesKey cacheKey = cacheKey(node);
+        if (cacheKey == null) {
+            return null;
+        }
+        DecryptedProperties cached = decryptedPropertyCache.getIfPresent(cacheKey);
+        if (cached == null || !cached.payloads().equals(payloads)) {
+            return null;
+        }
+        for (String keyVersion : cached.keyVersions()) {
+            if (!secretCryptoService.hasKeyVersion(keyVersion)) {
+                decryptedPropertyCache.invalidate(cacheKey);
+                return null;
+            }
+        }
+        return cached;
+    }
+
+    private void cacheDecryption(Node node, DecryptedProperties decrypted) {
+        DecryptedPropertiesKey cacheKey = cacheKey(node);
+        if (cacheKey != null) {
+            decryptedPropertyCache.put(cacheKey, decrypted);
+        }
+    }
+
+    private DecryptedPropertiesKey cacheKey(Node node) {
+        if (decryptedPropertyCache == null || node.getId() == null || node.getEntityVersion() == null) {
+            return null;
+        }
+        return new DecryptedPropertiesKey(node.getId(), node.getEntityVersion());
+    }
+
+    private DecryptedProperties toDecryptedProperties(Map<String, String> payloads, List<String> plaintexts) {
+        Map<String, Object> values = new LinkedHashMap<>();
+        Set<String> keyVersions = new HashSet<>();
+        int index = 0;
+        for (Map.Entry<String, String> payload : payloads.entrySet()) {
+            values.put(payload.getKey(), deserializeValue(plaintexts.get(index++)));
+            String keyVersion = secretCryptoService.keyVersionOf(payload.getValue());
+            if (keyVersion != null) {
+                keyVersions.add(keyVersion);
+            }
+        }
+        return new DecryptedProperties(Map.copyOf(payloads), values, Set.copyOf(keyVersions));
+    }
+
+    /**
+     * Cached values are shared between callers, which are free to modify what they get back.
+     */
+    private Object copyValue(Object value) {
+        if (value instanceof Map<?, ?> mapValue) {
+            Map<Object, Object> copy = new LinkedHashMap<>();
+            mapValue.forEach((key, nestedValue) -> copy.put(key, copyValue(nestedValue)));
+            return copy;
+        }
+        if (value instanceof Collection<?> collectionValue) {
+            List<Object> copy = new ArrayList<>(collectionValue.size());
+            collectionValue.forEach(nestedValue -> copy.add(copyValue(nestedValue)));
+            return copy;
+        }
+        return value;
+    }
+
     private String serializeValue(Object value) {
         try {
             return objectMapper.writeValueAsString(value);
@@ -205,4 +329,14 @@ public class NodePropertyEncryptionService {
         int delimiterIndex = remainder.indexOf(':');
         return delimiterIndex > 0 && delimiterIndex < remainder.length() - 1;
     }
+
+    private record DecryptedPropertiesKey(UUID nodeId, Long entityVersion) {
+    }
+
+    private record DecryptedProperties(
+        Map<String, String> payloads,
+        Map<String, Object> values,
+        Set<String> keyVersions
+    ) {
+    }
 }
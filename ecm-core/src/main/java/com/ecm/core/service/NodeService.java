@@ -16,6 +16,7 @@ import com.ecm.core.repository.*;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.context.annotation.Lazy;
 import org.springframework.data.domain.Page;
@@ -68,6 +69,16 @@ public class NodeService {
     @Lazy
     private NodeDependentCleanupService nodeDependentCleanupService;
 
+    @Autowired
+    @Lazy
+    private SubtreeRepathTaskRegistry subtreeRepathTaskRegistry;
+
+    @Value("${ecm.node.move.path-rewrite-batch-size:5000}")
+    private int pathRewriteBatchSize = 5000;
+
+    @Value("${ecm.node.move.async-repath-threshold:1000}")
+    private long asyncRepathThreshold = 1000L;
+
     @Autowired
     public NodeService(
         NodeRepository nodeRepository,
@@ -307,6 +318,16 @@ public class NodeService {
     }
 
     public Node moveNode(UUID nodeId, UUID targetParentId) {
+        return moveSubtree(nodeId, targetParentId).node();
+    }
+
+    /**
+     * Move a node and rewrite the paths of its live descendants with set-based updates of at most
+     * {@code ecm.node.move.path-rewrite-batch-size} rows each. When at least
+     * {@code ecm.node.move.async-repath-threshold} descendants moved, the search index refresh runs as a
+     * tracked re-path task whose id is part of the result.
+     */
+    public SubtreeMoveResult moveSubtree(UUID nodeId, UUID targetParentId) {
         Node node = getNode(nodeId);
         Folder targetParent = folderRepository.findById(targetParentId)
             .orElseThrow(() -> new IllegalArgumentException("Target parent not found: " + targetParentId));
@@ -333,23 +354,41 @@ public class NodeService {
             throw new IllegalArgumentException("Node with name already exists in target folder: " + node.getName());
         }
 
+        // Descendant paths are rewritten in the database, so take both prefixes from there rather than
+        // from entities that an earlier move in this transaction may have left with a stale path.
+        String oldPath = nodeRepository.findPathById(node.getId()).orElse(node.getPath());
+        String targetPath = nodeRepository.findPathById(targetParent.getId()).orElse(targetParent.getPath());
+
         Node oldParent = node.getParent();
         node.setParent(targetParent);
-        node.setPath(targetParent.getPath() + "/" + node.getName());
+        node.setPath(targetPath + "/" + node.getName());
 
         Node movedNode = nodeRepository.save(node);
-        refreshDescendantPaths(movedNode);
+        long descendantCount = rewriteDescendantPaths(movedNode, oldPath);
+        if (movedNode instanceof Folder) {
+            // The path rewrite cleared the persistence context; continue with managed copies.
+            movedNode = nodeRepository.findById(movedNode.getId()).orElse(movedNode);
+            oldParent = oldParent != null ? nodeRepository.findById(oldParent.getId()).orElse(oldParent) : null;
+            targetParent = folderRepository.findById(targetParent.getId()).orElse(targetParent);
+        }
+
+        String currentUser = securityService.getCurrentUser();
+        String repathTaskId = null;
+        if (subtreeRepathTaskRegistry != null && descendantCount >= Math.max(1L, asyncRepathThreshold)) {
+            repathTaskId = subtreeRepathTaskRegistry.register(movedNode, descendantCount, currentUser).taskId();
+        }
 
         RepositoryLifecyclePublisher.publishNodeMoved(
             eventPublisher,
             movedNode,
             oldParent,
             targetParent,
-            securityService.getCurrentUser(),
-            movedNode instanceof Document ? AutomationRule.TriggerType.DOCUMENT_MOVED : null
+            currentUser,
+            movedNode instanceof Document ? AutomationRule.TriggerType.DOCUMENT_MOVED : null,
+            repathTaskId
         );
 
-        return movedNode;
+        return new SubtreeMoveResult(movedNode, descendantCount, repathTaskId);
     }
 
     /**
@@ -1046,17 +1085,28 @@ public class NodeService {
         nodeRepository.softDeleteByPathPrefix(node.getPath(), deletedAt, currentUser);
     }
 
-    private void refreshDescendantPaths(Node parent) {
-        if (!(parent instanceof Folder)) {
-            return;
+    private long rewriteDescendantPaths(Node movedNode, String oldPath) {
+        if (!(movedNode instanceof Folder) || oldPath == null || oldPath.equals(movedNode.getPath())) {
+            return 0L;
         }
 
-        List<Node> children = nodeRepository.findByParentIdAndDeletedFalse(parent.getId());
-        for (Node child : children) {
-            child.setPath(parent.getPath() + "/" + child.getName());
-            Node savedChild = nodeRepository.save(child);
-            refreshDescendantPaths(savedChild);
+        String oldPrefix = oldPath + "/";
+        String newPrefix = movedNode.getPath() + "/";
+        if (newPrefix.startsWith(oldPrefix)) {
+            // Rewritten rows would keep matching the old prefix
+            throw new IllegalArgumentException("Cannot move node to its own descendant");
         }
+
+        int batchSize = Math.max(1, pathRewriteBatchSize);
+        long rewritten = 0;
+        int updated;
+        do {
+            updated = nodeRepository.rewriteDescendantPaths(oldPrefix, newPrefix, batchSize);
+            rewritten += updated;
+        } while (updated >= batchSize);
+
+        log.debug("Rewrote {} descendant paths from {} to {}", rewritten, oldPrefix, newPrefix);
+        return rewritten;
     }
 
     private UUID resolveScopedParentId(UUID requestedParentId) {
@@ -1184,4 +1234,15 @@ public class NodeService {
         int affectedNodeCount
     ) {
     }
+
+    /**
+     * Outcome of {@link #moveSubtree}: {@code repathTaskId} is set when the index refresh of the
+     * descendants is tracked by {@link SubtreeRepathTaskRegistry}.
+     */
+    public record SubtreeMoveResult(
+        Node node,
+        long descendantCount,
+        String repathTaskId
+    ) {
+    }
 }
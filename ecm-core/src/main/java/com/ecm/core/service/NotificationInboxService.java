@@ -3,6 +3,7 @@ package com.ecm.core.service;
 import com.ecm.core.entity.Activity;
 import com.ecm.core.entity.Notification;
 import com.ecm.core.repository.NotificationRepository;
+import com.ecm.core.scheduler.ClusterJob;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
@@ -149,6 +150,7 @@ public class NotificationInboxService {
 
     @Scheduled(cron = "0 30 3 * * *")
     @Transactional
+    @ClusterJob
     public void cleanupOldNotifications() {
         LocalDateTime cutoff = LocalDateTime.now().minusDays(90);
         int deleted = notificationRepository.deleteOlderThan(cutoff);
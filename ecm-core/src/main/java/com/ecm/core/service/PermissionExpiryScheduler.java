@@ -0,0 +1,41 @@
+package com.ecm.core.service;
+
+import com.ecm.core.scheduler.ClusterJob;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+/**
+ * Removes expired permission entries shortly after they expire. The search index copies grants and
+ * denies into {@code permissions}/{@code deniedPermissions}, and nothing else reindexes a node when an
+ * entry merely passes its expiry date, so {@link SecurityService#cleanupExpiredPermissions} also
+ * refreshes the affected subtrees in the index.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class PermissionExpiryScheduler {
+
+    private final SecurityService securityService;
+
+    @Value("${ecm.security.permission-expiry.enabled:true}")
+    private boolean enabled;
+
+    @Scheduled(
+        fixedDelayString = "${ecm.security.permission-expiry.fixed-delay-ms:60000}",
+        initialDelayString = "${ecm.security.permission-expiry.initial-delay-ms:60000}"
+    )
+    @ClusterJob
+    public void cleanupExpiredPermissions() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            securityService.cleanupExpiredPermissions();
+        } catch (Exception e) {
+            log.warn("Expired permission cleanup failed: {}", e.getMessage());
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package com.ecm.core.service;
 
+import com.ecm.core.scheduler.ClusterJob;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
@@ -25,6 +26,7 @@ public class PropertyEncryptionBackfillRecoveryScheduler {
         fixedDelayString = "${ecm.property-encryption.backfill.recovery.fixed-delay-ms:300000}",
         initialDelayString = "${ecm.property-encryption.backfill.recovery.initial-delay-ms:300000}"
     )
+    @ClusterJob
     public void recoverStaleBackfillJobs() {
         if (!recoveryEnabled) {
             return;
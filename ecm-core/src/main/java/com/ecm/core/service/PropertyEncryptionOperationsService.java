@@ -30,6 +30,7 @@ import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -523,6 +524,14 @@ public class PropertyEncryptionOperationsService {
     public PropertyEncryptionBackfillCandidateUpdateResult applyBackfillCandidateUpdate(
         PropertyBackfillCandidateRow candidate,
         String modifiedBy
+    ) {
+        return applyBackfillCandidateUpdate(candidate, modifiedBy, null);
+    }
+
+    private PropertyEncryptionBackfillCandidateUpdateResult applyBackfillCandidateUpdate(
+        PropertyBackfillCandidateRow candidate,
+        String modifiedBy,
+        String precomputedProtectedValue
     ) {
         if (candidate == null) {
             throw new IllegalArgumentException("Backfill candidate is required");
@@ -542,7 +551,9 @@ public class PropertyEncryptionOperationsService {
         if (!secretCryptoService.isEnabled()) {
             throw new IllegalStateException("Secret crypto must be enabled before backfill candidate updates");
         }
-        String protectedValue = secretCryptoService.protect(candidate.getPlaintextJson());
+        String protectedValue = precomputedProtectedValue != null
+            ? precomputedProtectedValue
+            : secretCryptoService.protect(candidate.getPlaintextJson());
         if (!hasText(protectedValue) || !secretCryptoService.isEncrypted(protectedValue)) {
             throw new IllegalStateException("Backfill candidate encryption did not produce an encrypted payload");
         }
@@ -856,6 +867,8 @@ public class PropertyEncryptionOperationsService {
             if (candidates.isEmpty()) {
                 break;
             }
+            Map<PropertyRewrapCandidateRow, String> rewrappedValues =
+                rewrapBatch(candidates, targetKeyVersion, attemptedCandidates);
             boolean attemptedAnyCandidate = false;
             for (PropertyRewrapCandidateRow candidate : candidates) {
                 if (isRewrapCancelRequested(jobId)) {
@@ -869,7 +882,7 @@ public class PropertyEncryptionOperationsService {
                 remainingValueCount--;
                 try {
                     PropertyEncryptionRewrapCandidateUpdateResult result =
-                        applyRewrapCandidateUpdate(candidate, targetKeyVersion, actor);
+                        applyRewrapCandidateUpdate(candidate, targetKeyVersion, actor, rewrappedValues.get(candidate));
                     if (result.rewrapped()) {
                         rewrapped++;
                     } else {
@@ -896,6 +909,15 @@ public class PropertyEncryptionOperationsService {
         PropertyRewrapCandidateRow candidate,
         String targetKeyVersion,
         String modifiedBy
+    ) {
+        return applyRewrapCandidateUpdate(candidate, targetKeyVersion, modifiedBy, null);
+    }
+
+    private PropertyEncryptionRewrapCandidateUpdateResult applyRewrapCandidateUpdate(
+        PropertyRewrapCandidateRow candidate,
+        String targetKeyVersion,
+        String modifiedBy,
+        String precomputedRewrappedValue
     ) {
         if (candidate == null) {
             throw new IllegalArgumentException("Rewrap candidate is required");
@@ -932,8 +954,9 @@ public class PropertyEncryptionOperationsService {
             throw new IllegalStateException("Missing secret encryption key for source version " + sourceKeyVersion);
         }
 
-        String plaintextValue = secretCryptoService.reveal(encryptedValue);
-        String rewrappedValue = secretCryptoService.protect(plaintextValue);
+        String rewrappedValue = precomputedRewrappedValue != null
+            ? precomputedRewrappedValue
+            : secretCryptoService.protect(secretCryptoService.reveal(encryptedValue));
         if (!hasText(rewrappedValue)
             || !secretCryptoService.isEncrypted(rewrappedValue)
             || !rewrappedValue.startsWith("enc:" + targetKeyVersion + ":")) {
@@ -960,6 +983,56 @@ public class PropertyEncryptionOperationsService {
         );
     }
 
+    /**
+     * Re-encrypts a candidate batch with two bulk calls. Candidates the per-candidate path would skip
+     * or reject are left out; if a bulk call fails, no value is precomputed and each candidate is
+     * rewrapped on its own, so the failure is reported for the candidate that caused it.
+     */
+    private Map<PropertyRewrapCandidateRow, String> rewrapBatch(
+        List<PropertyRewrapCandidateRow> candidates,
+        String targetKeyVersion,
+        Set<String> attemptedCandidates
+    ) {
+        List<String> configuredKeyVersions = configuredKeyVersions();
+        List<PropertyRewrapCandidateRow> eligible = new ArrayList<>();
+        for (PropertyRewrapCandidateRow candidate : candidates) {
+            if (candidate == null
+                || attemptedCandidates.contains(rewrapCandidateKey(candidate))
+                || !hasText(candidate.getEncryptedValue())) {
+                continue;
+            }
+            try {
+                String sourceKeyVersion = encryptedPayloadKeyVersion(candidate.getEncryptedValue());
+                if (!sourceKeyVersion.equals(targetKeyVersion) && configuredKeyVersions.contains(sourceKeyVersion)) {
+                    eligible.add(candidate);
+                }
+            } catch (IllegalStateException ignored) {
+                // malformed payload, rejected by the per-candidate path
+            }
+        }
+
+        Map<PropertyRewrapCandidateRow, String> rewrapped = new IdentityHashMap<>();
+        if (eligible.isEmpty()) {
+            return rewrapped;
+        }
+        try {
+            List<String> plaintexts = secretCryptoService.revealAll(
+                eligible.stream().map(PropertyRewrapCandidateRow::getEncryptedValue).toList()
+            );
+            List<String> rewrappedValues = plaintexts.size() == eligible.size()
+                ? secretCryptoService.protectAll(plaintexts)
+                : List.of();
+            if (rewrappedValues.size() == eligible.size()) {
+                for (int i = 0; i < eligible.size(); i++) {
+                    rewrapped.put(eligible.get(i), rewrappedValues.get(i));
+                }
+            }
+        } catch (RuntimeException ex) {
+            rewrapped.clear();
+        }
+        return rewrapped;
+    }
+
     private boolean isRewrapCancelRequested(UUID jobId) {
         return rewrapJobRepository.existsByIdAndStatus(jobId, RewrapJobStatus.CANCEL_REQUESTED);
     }
@@ -1070,6 +1143,8 @@ public class PropertyEncryptionOperationsService {
                 if (candidates.isEmpty()) {
                     break;
                 }
+                Map<PropertyBackfillCandidateRow, String> protectedValues =
+                    protectBackfillBatch(candidates, attemptedCandidates);
                 boolean attemptedAnyCandidate = false;
                 for (PropertyBackfillCandidateRow candidate : candidates) {
                     if (isBackfillCancelRequested(jobId)) {
@@ -1083,7 +1158,7 @@ public class PropertyEncryptionOperationsService {
                     remainingForDefinition--;
                     try {
                         PropertyEncryptionBackfillCandidateUpdateResult result =
-                            applyBackfillCandidateUpdate(candidate, actor);
+                            applyBackfillCandidateUpdate(candidate, actor, protectedValues.get(candidate));
                         if (result.migrated()) {
                             migrated++;
                         } else {
@@ -1107,6 +1182,38 @@ public class PropertyEncryptionOperationsService {
         return new BackfillRunCounters(processed, migrated, skipped, failed, lastError, false);
     }
 
+    /**
+     * Encrypts a candidate batch with one bulk call; if it fails, no value is precomputed and each
+     * candidate is encrypted on its own, so the failure is reported for the candidate that caused it.
+     */
+    private Map<PropertyBackfillCandidateRow, String> protectBackfillBatch(
+        List<PropertyBackfillCandidateRow> candidates,
+        Set<String> attemptedCandidates
+    ) {
+        List<PropertyBackfillCandidateRow> eligible = candidates.stream()
+            .filter(candidate -> candidate != null && candidate.getPlaintextJson() != null)
+            .filter(candidate -> !attemptedCandidates.contains(candidateKey(candidate)))
+            .toList();
+
+        Map<PropertyBackfillCandidateRow, String> protectedValues = new IdentityHashMap<>();
+        if (eligible.isEmpty()) {
+            return protectedValues;
+        }
+        try {
+            List<String> encrypted = secretCryptoService.protectAll(
+                eligible.stream().map(PropertyBackfillCandidateRow::getPlaintextJson).toList()
+            );
+            if (encrypted.size() == eligible.size()) {
+                for (int i = 0; i < eligible.size(); i++) {
+                    protectedValues.put(eligible.get(i), encrypted.get(i));
+                }
+            }
+        } catch (RuntimeException ex) {
+            protectedValues.clear();
+        }
+        return protectedValues;
+    }
+
     private boolean isBackfillCancelRequested(UUID jobId) {
         return backfillJobRepository.existsByIdAndStatus(jobId, BackfillJobStatus.CANCEL_REQUESTED);
     }
@@ -14,6 +14,7 @@ import com.ecm.core.pipeline.PipelineResult;
 import com.ecm.core.repository.RmReportPresetExecutionRepository;
 import com.ecm.core.repository.RmReportPresetRepository;
 import com.ecm.core.repository.UserRepository;
+import com.ecm.core.scheduler.ClusterJob;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -287,6 +288,7 @@ public class RmReportPresetDeliveryService {
     }
 
     @Scheduled(cron = "${ecm.rm.report-presets.scheduler-cron:0 */5 * * * *}")
+    @ClusterJob
     public void runScheduledDeliveries() {
         processDueScheduledDeliveries();
     }
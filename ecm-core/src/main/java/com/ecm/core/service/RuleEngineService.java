@@ -5,6 +5,7 @@ import com.ecm.core.entity.AutomationRule.TriggerType;
 import com.ecm.core.entity.RuleAction.ActionType;
 import com.ecm.core.entity.RuleCondition.ConditionType;
 import com.ecm.core.entity.RuleExecutionResult.ActionExecutionResult;
+import com.ecm.core.metrics.EcmMetrics;
 import com.ecm.core.model.Category;
 import com.ecm.core.model.Tag;
 import com.ecm.core.repository.*;
@@ -88,6 +89,9 @@ public class RuleEngineService {
     @Autowired
     private TemplateService templateService;
 
+    @Autowired(required = false)
+    private EcmMetrics metrics = EcmMetrics.noop();
+
     private final Map<UUID, RuleRunLedgerRecord> ruleRunLedgerById = new ConcurrentHashMap<>();
     private final Deque<UUID> ruleRunLedgerOrder = new ConcurrentLinkedDeque<>();
     private final Map<String, UUID> ruleRunIdempotencyIndex = new ConcurrentHashMap<>();
@@ -648,12 +652,14 @@ public class RuleEngineService {
     @Transactional
     public RuleExecutionResult executeRule(AutomationRule rule, Document document, TriggerType trigger) {
         LocalDateTime startTime = LocalDateTime.now();
+        long startNanos = System.nanoTime();
 
         try {
             // Evaluate condition
             boolean matches = evaluateCondition(rule.getCondition(), document);
 
             if (!matches) {
+                recordRuleExecution(trigger, "not_matched", startNanos);
                 return RuleExecutionResult.notMatched(rule, document, "Condition not satisfied");
             }
 
@@ -679,7 +685,11 @@ public class RuleEngineService {
                 .collect(Collectors.toList());
 
             for (RuleAction action : sortedActions) {
+                long actionStartNanos = System.nanoTime();
                 ActionExecutionResult actionResult = executeAction(action, document);
+                metrics.recordTime("ecm_rule_action_duration", actionStartNanos,
+                    "action", String.valueOf(action.getType()),
+                    "outcome", actionResult.isSuccess() ? "success" : "failure");
                 result.addActionResult(actionResult);
 
                 if (!actionResult.isSuccess()) {
@@ -711,6 +721,7 @@ public class RuleEngineService {
                 log.warn("Failed to write rule execution audit log: {}", e.getMessage());
             }
 
+            recordRuleExecution(trigger, allActionsSucceeded ? "success" : "failure", startNanos);
             return result;
 
         } catch (Exception e) {
@@ -730,10 +741,16 @@ public class RuleEngineService {
                 log.warn("Failed to write rule execution audit log: {}", ae.getMessage());
             }
 
+            recordRuleExecution(trigger, "error", startNanos);
             return failedResult;
         }
     }
 
+    private void recordRuleExecution(TriggerType trigger, String outcome, long startNanos) {
+        metrics.recordTime("ecm_rule_execution_duration", startNanos,
+            "trigger", String.valueOf(trigger), "outcome", outcome);
+    }
+
     private boolean isDryRunUnsupportedAction(ActionType actionType) {
         return false;
     }
@@ -6,7 +6,9 @@ import com.ecm.core.repository.SavedSearchRepository;
 import com.ecm.core.search.FacetedSearchService;
 import com.ecm.core.search.FacetedSearchService.FacetedSearchRequest;
 import com.ecm.core.search.FacetedSearchService.FacetedSearchResponse;
+import com.ecm.core.search.SearchCursorPage;
 import com.ecm.core.search.SearchResult;
+import com.ecm.core.search.SearchResultExportWriter;
 import com.ecm.core.search.SimplePageRequest;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
@@ -14,6 +16,7 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.io.IOException;
 import java.util.Arrays;
 import java.util.LinkedHashMap;
 import java.util.List;
@@ -260,6 +263,38 @@ public class SavedSearchService {
         }
     }
 
+    /**
+     * Execute a saved search one cursor page at a time; see {@link FacetedSearchService#searchAfter}.
+     */
+    @Transactional(readOnly = true)
+    public SearchCursorPage executeSavedSearchPage(UUID id, String cursor) {
+        FacetedSearchRequest request = toOwnedSearchRequest(id, "execute");
+        return facetedSearchService.searchAfter(request, cursor);
+    }
+
+    /**
+     * Stream every hit of a saved search as CSV or JSON lines. Owner-only like
+     * {@link #exportSavedSearchCsv}, but uncapped: hits are read page by page from a point in time and
+     * written as they arrive.
+     *
+     * @return number of rows written
+     */
+    public long streamSavedSearchExport(UUID id, SearchResultExportWriter writer) throws IOException {
+        FacetedSearchRequest request = toOwnedSearchRequest(id, "export");
+        request.setHighlightEnabled(false);
+        return facetedSearchService.exportSearch(request, writer);
+    }
+
+    private FacetedSearchRequest toOwnedSearchRequest(UUID id, String action) {
+        String userId = securityService.getCurrentUser();
+        SavedSearch search = savedSearchRepository.findById(id)
+            .orElseThrow(() -> new IllegalArgumentException("Saved search not found"));
+        if (!search.getUserId().equals(userId)) {
+            throw new SecurityException("Not authorized to " + action + " this saved search");
+        }
+        return objectMapper.convertValue(search.getQueryParams(), FacetedSearchRequest.class);
+    }
+
     private static final int DEFAULT_EXPORT_LIMIT = 1000;
     private static final int MAX_EXPORT_LIMIT = 5000;
 
@@ -6,6 +6,7 @@ import com.ecm.core.entity.Document;
 import com.ecm.core.entity.RuleExecutionResult;
 import com.ecm.core.repository.AutomationRuleRepository;
 import com.ecm.core.repository.DocumentRepository;
+import com.ecm.core.scheduler.ClusterJob;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
@@ -55,6 +56,7 @@ public class ScheduledRuleRunner {
      */
     @Scheduled(fixedDelayString = "${ecm.rules.scheduled.poll-interval-ms:60000}")
     @Transactional
+    @ClusterJob
     public void runScheduledRules() {
         if (!rulesEnabled || !scheduledRulesEnabled) {
             return;
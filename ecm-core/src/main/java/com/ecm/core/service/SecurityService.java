@@ -8,12 +8,14 @@ import com.ecm.core.entity.Permission.AuthorityType;
 import com.ecm.core.entity.Role.Privilege;
 import com.ecm.core.entity.Group.GroupType;
 import com.ecm.core.event.RepositoryLifecyclePublisher;
+import com.ecm.core.metrics.PermissionCheckMetrics;
 import com.ecm.core.repository.*;
 import com.ecm.core.security.DynamicAuthority;
 import com.ecm.core.security.PermissionContext;
 import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.context.ApplicationEventPublisher;
@@ -44,6 +46,9 @@ public class SecurityService {
     private final List<DynamicAuthority> dynamicAuthorities;
     private final ApplicationEventPublisher eventPublisher;
 
+    @Autowired(required = false)
+    private PermissionCheckMetrics permissionMetrics = PermissionCheckMetrics.noop();
+
     @PostConstruct
     public void init() {
         // Sort dynamic authorities by priority (lower value = higher priority)
@@ -94,6 +99,13 @@ public class SecurityService {
     
     @Cacheable(value = "permissions", key = "T(com.ecm.core.service.SecurityService).permissionCacheKey(#node, #permissionType, #username)")
     public boolean hasPermission(Node node, PermissionType permissionType, String username) {
+        long startNanos = System.nanoTime();
+        boolean granted = evaluatePermission(node, permissionType, username);
+        permissionMetrics.evaluated(permissionType, granted, startNanos);
+        return granted;
+    }
+
+    private boolean evaluatePermission(Node node, PermissionType permissionType, String username) {
         // Admin has all permissions for the evaluated user.
         // Note: do not use the caller's authorities when evaluating another user.
         if (hasRole("ROLE_ADMIN", username)) {
@@ -436,6 +448,93 @@ public class SecurityService {
         return resolveReadAuthorities(nodeRepository.findById(nodeId).orElse(null));
     }
 
+    /**
+     * Owners whose nodes {@code username} may read regardless of ACLs: the user themself (owner
+     * fallback) plus whatever the READ-granting dynamic authorities add, e.g. same-department colleagues.
+     */
+    public Set<String> resolveReadableOwners(String username) {
+        if (username == null || username.isBlank()) {
+            return Collections.emptySet();
+        }
+        Set<String> owners = new HashSet<>();
+        owners.add(username);
+        for (DynamicAuthority dynamicAuthority : dynamicAuthorities) {
+            Set<PermissionType> applicable = dynamicAuthority.getApplicablePermissions();
+            if (applicable == null || applicable.contains(PermissionType.READ)) {
+                owners.addAll(dynamicAuthority.readableOwners(username));
+            }
+        }
+        return owners;
+    }
+
+    /**
+     * Owner departments whose nodes {@code username} may read regardless of ACLs, as granted by the
+     * READ-granting dynamic authorities (same-department access). Empty when none applies.
+     */
+    public Set<String> resolveReadableOwnerDepartments(String username) {
+        if (username == null || username.isBlank()) {
+            return Collections.emptySet();
+        }
+        Set<String> departments = new HashSet<>();
+        for (DynamicAuthority dynamicAuthority : dynamicAuthorities) {
+            Set<PermissionType> applicable = dynamicAuthority.getApplicablePermissions();
+            if (applicable == null || applicable.contains(PermissionType.READ)) {
+                departments.addAll(dynamicAuthority.readableOwnerDepartments(username));
+            }
+        }
+        return departments;
+    }
+
+    /**
+     * Department of the given owner, indexed next to {@code createdBy} so same-department access can be
+     * filtered without listing every colleague.
+     */
+    public String resolveOwnerDepartment(String owner) {
+        if (owner == null || owner.isBlank()) {
+            return null;
+        }
+        return userRepository.findByUsername(owner)
+            .map(User::getDepartment)
+            .filter(department -> !department.isBlank())
+            .orElse(null);
+    }
+
+    /**
+     * Authorities with an unexpired READ deny on the node or anywhere up its inheritance chain. A deny
+     * on any of a user's authorities overrides grants through the others (see {@code checkNodePermissions}),
+     * so the search index excludes these next to {@link #resolveReadAuthorities(Node)}.
+     */
+    public Set<String> resolveDeniedReadAuthorities(Node node) {
+        if (node == null) {
+            return Collections.emptySet();
+        }
+        Set<String> denied = new HashSet<>();
+        Node current = node;
+        while (current != null) {
+            for (Permission permission : permissionRepository.findByNodeId(current.getId())) {
+                if (permission.getPermission() == PermissionType.READ
+                    && !permission.isAllowed()
+                    && !permission.isExpired()
+                    && permission.getAuthority() != null) {
+                    denied.add(permission.getAuthority());
+                }
+            }
+            if (current.isInheritPermissions() && current.getParent() != null) {
+                current = current.getParent();
+            } else {
+                break;
+            }
+        }
+        return denied;
+    }
+
+    public Set<String> resolveDeniedReadAuthorities(UUID nodeId) {
+        if (nodeId == null) {
+            return Collections.emptySet();
+        }
+        return resolveDeniedReadAuthorities(nodeRepository.findById(nodeId).orElse(null));
+    }
+
     private List<Permission> collectPermissionsForNode(Node node) {
         if (node == null) {
             return List.of();
@@ -555,10 +654,10 @@ public class SecurityService {
     @CacheEvict(value = "permissions", allEntries = true)
     public void cleanupExpiredPermissions() {
         List<Permission> expiredPermissions = permissionRepository.findExpiredPermissions();
-        log.info("Cleaning up {} expired permissions", expiredPermissions.size());
         if (expiredPermissions.isEmpty()) {
             return;
         }
+        log.info("Cleaning up {} expired permissions", expiredPermissions.size());
 
         Set<UUID> affectedNodeIds = expiredPermissions.stream()
             .map(Permission::getNode)
@@ -593,7 +692,9 @@ public class SecurityService {
         Node current = node;
         boolean allowed = false;
         boolean denied = false;
+        int depth = 0;
         while (current != null) {
+            depth++;
             // Check direct permissions on current node
             List<Permission> permissions = permissionRepository.findByNodeId(current.getId());
             
@@ -618,6 +719,7 @@ public class SecurityService {
                 break;
             }
         }
+        permissionMetrics.ancestorsWalked(depth);
         if (denied) {
             return false;
         }
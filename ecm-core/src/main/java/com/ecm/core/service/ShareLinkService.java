@@ -9,6 +9,7 @@ import com.ecm.core.exception.ResourceNotFoundException;
 import com.ecm.core.repository.NodeRepository;
 import com.ecm.core.repository.ShareLinkAccessLogRepository;
 import com.ecm.core.repository.ShareLinkRepository;
+import com.ecm.core.scheduler.ClusterJob;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.scheduling.annotation.Scheduled;
@@ -255,6 +256,7 @@ public class ShareLinkService {
      */
     @Scheduled(cron = "0 0 * * * *") // Every hour
     @Transactional
+    @ClusterJob
     public void cleanupShareLinks() {
         LocalDateTime now = LocalDateTime.now();
 
@@ -12,6 +12,7 @@ import com.ecm.core.integration.email.notify.EmailNotificationService;
 import com.ecm.core.repository.SiteInvitationRepository;
 import com.ecm.core.repository.SiteMemberRepository;
 import com.ecm.core.repository.SiteRepository;
+import com.ecm.core.scheduler.ClusterJob;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Value;
@@ -384,6 +385,7 @@ public class SiteInvitationService {
 
     @Scheduled(cron = "0 0 3 * * *")
     @Transactional
+    @ClusterJob
     public void cleanupExpired() {
         List<SiteInvitation> expired = invitationRepository
             .findByExpiresAtBeforeAndStatus(LocalDateTime.now(), Status.PENDING);
@@ -0,0 +1,176 @@
+package com.ecm.core.service;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+/**
+ * Opens {@link SmartZipArchiveWriter}s that share one bounded compression pool.
+ *
+ * <p>Already-compressed formats (images, audio/video, archives, PDF, OOXML/ODF containers) are
+ * stored without deflating; everything else is probed and deflated on the pool, so large exports
+ * use every core instead of one.
+ */
+@Slf4j
+@Component
+public class SmartZipArchiveBuilder {
+
+    private static final Set<String> INCOMPRESSIBLE_MIME_TYPES = Set.of(
+        "application/pdf",
+        "application/zip",
+        "application/x-zip-compressed",
+        "application/gzip",
+        "application/x-gzip",
+        "application/x-7z-compressed",
+        "application/x-rar-compressed",
+        "application/vnd.rar",
+        "application/x-bzip2",
+        "application/x-xz",
+        "application/zstd",
+        "application/java-archive",
+        "application/epub+zip",
+        "image/jpeg",
+        "image/png",
+        "image/gif",
+        "image/webp",
+        "image/heic",
+        "image/avif"
+    );
+
+    private static final Set<String> INCOMPRESSIBLE_MIME_PREFIXES = Set.of(
+        "video/",
+        "application/vnd.openxmlformats-officedocument.",
+        "application/vnd.oasis.opendocument."
+    );
+
+    private static final Set<String> COMPRESSIBLE_AUDIO_TYPES = Set.of(
+        "audio/wav",
+        "audio/x-wav",
+        "audio/wave",
+        "audio/aiff",
+        "audio/x-aiff"
+    );
+
+    @Value("${ecm.download.zip.compression-threads:0}")
+    private int compressionThreads = 0;
+
+    @Value("${ecm.download.zip.compression-level:6}")
+    private int compressionLevel = 6;
+
+    @Value("${ecm.download.zip.max-in-flight-entries:0}")
+    private int maxInFlightEntries = 0;
+
+    @Value("${ecm.download.zip.memory-spool-bytes:1048576}")
+    private int memorySpoolBytes = 1024 * 1024;
+
+    @Value("${ecm.download.zip.probe-bytes:65536}")
+    private int probeBytes = 64 * 1024;
+
+    @Value("${ecm.download.zip.probe-min-savings:0.05}")
+    private double probeMinSavings = 0.05d;
+
+    @Value("${ecm.download.zip.stored-mime-types:}")
+    private String storedMimeTypes = "";
+
+    private volatile ExecutorService executor;
+    private volatile Set<String> configuredStoredTypes;
+
+    /**
+     * Start a ZIP on {@code target}. The caller must {@link SmartZipArchiveWriter#finish()} or
+     * {@link SmartZipArchiveWriter#close()} it; the target stream itself stays open.
+     */
+    public SmartZipArchiveWriter open(OutputStream target) {
+        int threads = resolvedThreads();
+        SmartZipArchiveWriter.Settings settings = new SmartZipArchiveWriter.Settings(
+            Math.min(Math.max(compressionLevel, 0), 9),
+            maxInFlightEntries > 0 ? maxInFlightEntries : threads * 2,
+            Math.max(memorySpoolBytes, 0),
+            Math.max(probeBytes, 1024),
+            probeMinSavings,
+            this::isIncompressible
+        );
+        return new SmartZipArchiveWriter(target, executor(threads), settings);
+    }
+
+    boolean isIncompressible(String mimeType) {
+        if (mimeType == null || mimeType.isBlank()) {
+            return false;
+        }
+        String normalized = mimeType.split(";", 2)[0].trim().toLowerCase(Locale.ROOT);
+        if (INCOMPRESSIBLE_MIME_TYPES.contains(normalized) || storedTypes().contains(normalized)) {
+            return true;
+        }
+        if (normalized.startsWith("audio/")) {
+            return !COMPRESSIBLE_AUDIO_TYPES.contains(normalized);
+        }
+        return INCOMPRESSIBLE_MIME_PREFIXES.stream().anyMatch(normalized::startsWith);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        ExecutorService current = executor;
+        if (current == null) {
+            return;
+        }
+        current.shutdown();
+        try {
+            if (!current.awaitTermination(10, TimeUnit.SECONDS)) {
+                current.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            current.shutdownNow();
+        }
+    }
+
+    private int resolvedThreads() {
+        return compressionThreads > 0 ? compressionThreads : Math.max(Runtime.getRuntime().availableProcessors(), 1);
+    }
+
+    private ExecutorService executor(int threads) {
+        ExecutorService current = executor;
+        if (current != null) {
+            return current;
+        }
+        synchronized (this) {
+            if (executor == null) {
+                executor = Executors.newFixedThreadPool(threads, daemonThreads());
+                log.info("ZIP compression pool started with {} thread(s)", threads);
+            }
+            return executor;
+        }
+    }
+
+    private Set<String> storedTypes() {
+        Set<String> types = configuredStoredTypes;
+        if (types == null) {
+            types = storedMimeTypes == null ? Set.of() : Arrays.stream(storedMimeTypes.split(","))
+                .map(value -> value.trim().toLowerCase(Locale.ROOT))
+                .filter(value -> !value.isEmpty())
+                .collect(Collectors.toUnmodifiableSet());
+            configuredStoredTypes = types;
+        }
+        return types;
+    }
+
+    private static ThreadFactory daemonThreads() {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, "zip-deflate-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
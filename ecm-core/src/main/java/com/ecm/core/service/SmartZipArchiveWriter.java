@@ -0,0 +1,489 @@
+package com.ecm.core.service;
+
+import org.apache.commons.compress.archivers.zip.Zip64Mode;
+import org.apache.commons.compress.archivers.zip.ZipArchiveEntry;
+import org.apache.commons.compress.archivers.zip.ZipArchiveOutputStream;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.function.Predicate;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.ZipEntry;
+
+/**
+ * Streaming ZIP writer that compresses entries in parallel and still emits them in submission order.
+ *
+ * <p>Each entry's content is spooled on the calling thread (memory up to a threshold, then a temp
+ * file) and handed to a worker that computes the CRC and decides between STORED and DEFLATED:
+ * known incompressible MIME types are stored, other entries are probed by deflating a leading
+ * sample, and an entry whose deflated form is not smaller is stored as well. Finished entries are
+ * handed to commons-compress as raw entries with sizes and CRC known, so the output is a plain,
+ * forward-only stream without data descriptors; {@link Zip64Mode#AsNeeded} adds ZIP64 records
+ * whenever a size, offset or the entry count exceeds the classic limits.
+ *
+ * <p>{@code ParallelScatterZipCreator} is not used: it holds every entry until the end and writes
+ * them grouped by worker thread, while this writer streams entries in order with a bounded number
+ * in flight.
+ *
+ * <p>Not thread-safe: one thread adds entries and owns the output; only compression runs on the
+ * supplied executor. {@link #close()} discards unwritten entries but never closes the target stream.
+ */
+public final class SmartZipArchiveWriter implements Closeable {
+
+    private static final int EXTERNAL_ATTR_DIRECTORY = 0x10;
+    private static final int COPY_BUFFER_BYTES = 64 * 1024;
+
+    private final CountingOutputStream out;
+    private final ZipArchiveOutputStream zip;
+    private final ExecutorService executor;
+    private final Settings settings;
+    private final Deque<PendingEntry> pending = new ArrayDeque<>();
+
+    private int entries;
+    private int storedEntries;
+    private int deflatedEntries;
+    private long bytesIn;
+    private boolean finished;
+    private boolean closed;
+
+    SmartZipArchiveWriter(OutputStream target, ExecutorService executor, Settings settings) {
+        this.out = new CountingOutputStream(new BufferedOutputStream(target, COPY_BUFFER_BYTES));
+        this.zip = new ZipArchiveOutputStream(out);
+        this.zip.setUseZip64(Zip64Mode.AsNeeded);
+        this.executor = executor;
+        this.settings = settings;
+    }
+
+    /**
+     * Queue a directory entry; {@code name} must end with {@code /}.
+     */
+    public void addDirectory(String name, LocalDateTime modifiedAt) throws IOException {
+        ensureOpen();
+        PreparedEntry directory = new PreparedEntry(ZipEntry.STORED, 0L, 0L, 0L, null, true);
+        enqueue(new PendingEntry(checkName(name), modifiedAt, CompletableFuture.completedFuture(directory), null, null));
+    }
+
+    /**
+     * Queue a file entry. {@code content} is fully read (but not closed) before this method returns;
+     * if reading fails an {@link EntryContentException} is thrown and nothing is added. Earlier
+     * entries whose compression has finished may be written to the target meanwhile.
+     */
+    public void addEntry(String name,
+                         String mimeType,
+                         LocalDateTime modifiedAt,
+                         InputStream content,
+                         EntryListener listener) throws IOException {
+        ensureOpen();
+        String entryName = checkName(name);
+        Spool raw;
+        try {
+            raw = Spool.capture(content, settings.memorySpoolBytes());
+        } catch (IOException | RuntimeException e) {
+            throw new EntryContentException("Failed to read content for " + name, e);
+        }
+        boolean incompressible = settings.incompressibleMimeType().test(mimeType);
+        Future<PreparedEntry> prepared;
+        try {
+            prepared = executor.submit(() -> prepare(raw, incompressible));
+        } catch (RuntimeException e) {
+            raw.close();
+            throw e;
+        }
+        enqueue(new PendingEntry(entryName, modifiedAt, prepared, raw, listener));
+    }
+
+    /**
+     * Write every queued entry and the central directory, then flush the target.
+     */
+    public ArchiveStats finish() throws IOException {
+        ensureOpen();
+        while (!pending.isEmpty()) {
+            writeHead();
+        }
+        zip.finish();
+        // Releases the archive stream's deflater; CountingOutputStream does not pass close() on.
+        zip.close();
+        out.flush();
+        finished = true;
+        return stats();
+    }
+
+    public ArchiveStats stats() {
+        return new ArchiveStats(entries, storedEntries, deflatedEntries, bytesIn, out.count());
+    }
+
+    /**
+     * Release spooled content of entries that were not written. Does not close the target stream.
+     */
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        for (PendingEntry entry : pending) {
+            if (entry.future().cancel(false)) {
+                if (entry.source() != null) {
+                    entry.source().close();
+                }
+                continue;
+            }
+            try {
+                PreparedEntry prepared = entry.future().get();
+                if (prepared.data() != null) {
+                    prepared.data().close();
+                }
+            } catch (Exception ignored) {
+                // A failed worker has already released its spools.
+            }
+        }
+        pending.clear();
+    }
+
+    private void enqueue(PendingEntry entry) throws IOException {
+        pending.addLast(entry);
+        while (!pending.isEmpty() && (pending.size() > settings.maxInFlightEntries() || pending.peekFirst().future().isDone())) {
+            writeHead();
+        }
+    }
+
+    private void writeHead() throws IOException {
+        PendingEntry entry = pending.pollFirst();
+        PreparedEntry prepared = await(entry.future());
+        try {
+            ZipArchiveEntry zipEntry = new ZipArchiveEntry(entry.name());
+            zipEntry.setMethod(prepared.method());
+            zipEntry.setCrc(prepared.crc());
+            zipEntry.setSize(prepared.size());
+            zipEntry.setCompressedSize(prepared.compressedSize());
+            zipEntry.setTime(entryTime(entry.modifiedAt()));
+            if (prepared.directory()) {
+                zipEntry.setExternalAttributes(EXTERNAL_ATTR_DIRECTORY);
+            }
+            try (InputStream data = prepared.data() != null ? prepared.data().open() : InputStream.nullInputStream()) {
+                zip.addRawArchiveEntry(zipEntry, data);
+            }
+        } finally {
+            if (prepared.data() != null) {
+                prepared.data().close();
+            }
+        }
+        entries++;
+        if (!prepared.directory()) {
+            bytesIn += prepared.size();
+            if (prepared.method() == ZipEntry.STORED) {
+                storedEntries++;
+            } else {
+                deflatedEntries++;
+            }
+        }
+        if (entry.listener() != null) {
+            entry.listener().onEntryWritten(prepared.size(), prepared.compressedSize(), prepared.method() == ZipEntry.STORED);
+        }
+    }
+
+    private PreparedEntry prepare(Spool raw, boolean incompressible) throws IOException {
+        try {
+            if (incompressible || !worthDeflating(raw)) {
+                return stored(raw);
+            }
+            CRC32 crc = new CRC32();
+            Deflater deflater = new Deflater(settings.compressionLevel(), true);
+            SpoolOutputStream compressed = new SpoolOutputStream(settings.memorySpoolBytes());
+            try (InputStream in = raw.open();
+                 DeflaterOutputStream deflated = new DeflaterOutputStream(compressed, deflater, COPY_BUFFER_BYTES)) {
+                byte[] buffer = new byte[COPY_BUFFER_BYTES];
+                int read;
+                while ((read = in.read(buffer)) != -1) {
+                    crc.update(buffer, 0, read);
+                    deflated.write(buffer, 0, read);
+                }
+                deflated.finish();
+            } catch (IOException | RuntimeException e) {
+                compressed.discard();
+                throw e;
+            } finally {
+                deflater.end();
+            }
+            Spool compressedSpool = compressed.toSpool();
+            if (compressedSpool.size() >= raw.size()) {
+                compressedSpool.close();
+                return new PreparedEntry(ZipEntry.STORED, crc.getValue(), raw.size(), raw.size(), raw, false);
+            }
+            raw.close();
+            return new PreparedEntry(ZipEntry.DEFLATED, crc.getValue(), raw.size(), compressedSpool.size(), compressedSpool, false);
+        } catch (IOException | RuntimeException e) {
+            raw.close();
+            throw e;
+        }
+    }
+
+    private PreparedEntry stored(Spool raw) throws IOException {
+        CRC32 crc = new CRC32();
+        try (InputStream in = raw.open()) {
+            byte[] buffer = new byte[COPY_BUFFER_BYTES];
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                crc.update(buffer, 0, read);
+            }
+        }
+        return new PreparedEntry(ZipEntry.STORED, crc.getValue(), raw.size(), raw.size(), raw, false);
+    }
+
+    /**
+     * Deflate a leading sample at the fastest level and keep DEFLATED only if it saves enough.
+     */
+    private boolean worthDeflating(Spool raw) throws IOException {
+        if (raw.size() == 0L) {
+            return false;
+        }
+        byte[] sample;
+        try (InputStream in = raw.open()) {
+            sample = in.readNBytes((int) Math.min(raw.size(), settings.probeBytes()));
+        }
+        Deflater probe = new Deflater(Deflater.BEST_SPEED, true);
+        try {
+            probe.setInput(sample);
+            probe.finish();
+            byte[] buffer = new byte[COPY_BUFFER_BYTES];
+            long compressedBytes = 0L;
+            while (!probe.finished()) {
+                compressedBytes += probe.deflate(buffer);
+            }
+            return compressedBytes <= sample.length * (1.0d - settings.probeMinSavings());
+        } finally {
+            probe.end();
+        }
+    }
+
+    private static PreparedEntry await(Future<PreparedEntry> future) throws IOException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while waiting for ZIP entry compression", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException io) {
+                throw io;
+            }
+            throw new IOException("ZIP entry compression failed", cause);
+        }
+    }
+
+    private void ensureOpen() {
+        if (closed || finished) {
+            throw new IllegalStateException("ZIP archive is already " + (finished ? "finished" : "closed"));
+        }
+    }
+
+    private static String checkName(String name) {
+        if (name.getBytes(StandardCharsets.UTF_8).length > 0xFFFF) {
+            throw new IllegalArgumentException("ZIP entry name too long: " + name.substring(0, 64) + "...");
+        }
+        return name;
+    }
+
+    /**
+     * Entry time in epoch millis, clamped to the DOS date range and rounded down to its two-second
+     * resolution, so the entry carries a plain DOS timestamp.
+     */
+    static long entryTime(LocalDateTime time) {
+        LocalDateTime value = time != null ? time : LocalDateTime.now();
+        if (value.getYear() < 1980) {
+            value = LocalDateTime.of(1980, 1, 1, 0, 0);
+        }
+        value = value.withNano(0).withSecond(value.getSecond() & ~1);
+        return value.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    /**
+     * Receives the final sizes of an entry once it has been written to the target, in entry order.
+     */
+    @FunctionalInterface
+    public interface EntryListener {
+        void onEntryWritten(long size, long compressedSize, boolean stored);
+    }
+
+    /**
+     * Raised when an entry's source content cannot be read; the archive itself is still usable.
+     */
+    public static class EntryContentException extends IOException {
+        public EntryContentException(String message, Throwable cause) {
+            super(message, cause);
+        }
+    }
+
+    public record ArchiveStats(int entries, int storedEntries, int deflatedEntries, long bytesIn, long bytesOut) {}
+
+    record Settings(
+        int compressionLevel,
+        int maxInFlightEntries,
+        int memorySpoolBytes,
+        int probeBytes,
+        double probeMinSavings,
+        Predicate<String> incompressibleMimeType
+    ) {}
+
+    private record PendingEntry(String name, LocalDateTime modifiedAt, Future<PreparedEntry> future, Spool source, EntryListener listener) {}
+
+    private record PreparedEntry(int method, long crc, long size, long compressedSize, Spool data, boolean directory) {}
+
+    /**
+     * Entry bytes held in memory or, past the threshold, in a temp file deleted on close.
+     */
+    private static final class Spool implements Closeable {
+        private final byte[] bytes;
+        private final int length;
+        private final Path file;
+        private final long size;
+
+        private Spool(byte[] bytes, int length, Path file, long size) {
+            this.bytes = bytes;
+            this.length = length;
+            this.file = file;
+            this.size = size;
+        }
+
+        static Spool capture(InputStream in, int memoryLimit) throws IOException {
+            SpoolOutputStream spool = new SpoolOutputStream(memoryLimit);
+            try {
+                in.transferTo(spool);
+                return spool.toSpool();
+            } catch (IOException | RuntimeException e) {
+                spool.discard();
+                throw e;
+            }
+        }
+
+        long size() {
+            return size;
+        }
+
+        InputStream open() throws IOException {
+            return file != null ? Files.newInputStream(file) : new ByteArrayInputStream(bytes, 0, length);
+        }
+
+        @Override
+        public void close() {
+            if (file != null) {
+                try {
+                    Files.deleteIfExists(file);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+        }
+    }
+
+    /**
+     * Buffers in memory until {@code memoryLimit} bytes, then continues into a temp file.
+     */
+    private static final class SpoolOutputStream extends OutputStream {
+        private final int memoryLimit;
+        private byte[] buffer = new byte[1024];
+        private int count;
+        private Path file;
+        private OutputStream fileOut;
+        private long size;
+
+        SpoolOutputStream(int memoryLimit) {
+            this.memoryLimit = Math.max(memoryLimit, 0);
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            write(new byte[] {(byte) b}, 0, 1);
+        }
+
+        @Override
+        public void write(byte[] data, int offset, int len) throws IOException {
+            if (fileOut == null && count + len > memoryLimit) {
+                file = Files.createTempFile("athena-zip-spool-", ".bin");
+                fileOut = new BufferedOutputStream(Files.newOutputStream(file), COPY_BUFFER_BYTES);
+                fileOut.write(buffer, 0, count);
+                buffer = null;
+            }
+            if (fileOut != null) {
+                fileOut.write(data, offset, len);
+            } else {
+                if (count + len > buffer.length) {
+                    buffer = Arrays.copyOf(buffer, Math.min(Math.max(buffer.length * 2, count + len), Math.max(memoryLimit, count + len)));
+                }
+                System.arraycopy(data, offset, buffer, count, len);
+                count += len;
+            }
+            size += len;
+        }
+
+        Spool toSpool() throws IOException {
+            if (fileOut != null) {
+                fileOut.close();
+                return new Spool(null, 0, file, size);
+            }
+            return new Spool(buffer, count, null, size);
+        }
+
+        void discard() {
+            try {
+                if (fileOut != null) {
+                    fileOut.close();
+                }
+                if (file != null) {
+                    Files.deleteIfExists(file);
+                }
+            } catch (IOException ignored) {
+                // Best effort: the temp directory is cleaned up by the OS eventually.
+            }
+        }
+    }
+
+    private static final class CountingOutputStream extends OutputStream {
+        private final OutputStream delegate;
+        private long count;
+
+        CountingOutputStream(OutputStream delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            delegate.write(b);
+            count++;
+        }
+
+        @Override
+        public void write(byte[] data, int offset, int len) throws IOException {
+            delegate.write(data, offset, len);
+            count += len;
+        }
+
+        @Override
+        public void flush() throws IOException {
+            delegate.flush();
+        }
+
+        long count() {
+            return count;
+        }
+    }
+}
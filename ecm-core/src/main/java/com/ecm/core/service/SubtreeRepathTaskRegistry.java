@@ -0,0 +1,229 @@
+package com.ecm.core.service;
+
+import com.ecm.core.asynctask.AsyncTaskOrphanHandler;
+import com.ecm.core.asynctask.ClusterAsyncTaskStore;
+import com.ecm.core.entity.Node;
+import com.ecm.core.repository.NodeRepository;
+import com.ecm.core.search.SearchIndexService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.UnaryOperator;
+
+/**
+ * Tracks the search index re-path jobs of large subtree moves. {@link NodeService#moveSubtree} rewrites
+ * the descendant paths in the database and registers a task here; the move event handler then runs
+ * the bulk reindex through {@link #run} after commit, and clients poll the task by the id returned
+ * with the move.
+ *
+ * <p>With {@code ecm.async-tasks.cluster.enabled} the tasks live in the {@link ClusterAsyncTaskStore}.
+ * Reindexing a subtree is idempotent, so a task orphaned by a node failure is simply run again.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class SubtreeRepathTaskRegistry implements AsyncTaskOrphanHandler {
+
+    public static final String CLUSTER_DOMAIN = "subtree-repath";
+
+    private static final int MAX_TASKS = 200;
+
+    private final NodeRepository nodeRepository;
+    private final SearchIndexService searchIndexService;
+
+    private final Map<String, SubtreeRepathTask> tasks = new ConcurrentHashMap<>();
+    private final Deque<String> taskOrder = new ArrayDeque<>();
+    private final Object taskLock = new Object();
+
+    @Autowired
+    @Lazy
+    private ClusterAsyncTaskStore clusterTaskStore;
+
+    /**
+     * Register a queued re-path task for a moved subtree. Called inside the move transaction, so with
+     * the cluster store the task only becomes visible if the move commits.
+     */
+    public SubtreeRepathTask register(Node node, long descendantCount, String createdBy) {
+        String taskId = UUID.randomUUID().toString();
+        SubtreeRepathTask task = new SubtreeRepathTask(
+            taskId,
+            node.getId(),
+            node.getPath(),
+            descendantCount,
+            0L,
+            SubtreeRepathStatus.QUEUED,
+            null,
+            createdBy,
+            LocalDateTime.now(),
+            null
+        );
+
+        if (isShared()) {
+            clusterTaskStore.create(CLUSTER_DOMAIN, taskId, stateOf(task), task);
+            return task;
+        }
+        synchronized (taskLock) {
+            tasks.put(taskId, task);
+            taskOrder.addLast(taskId);
+            trimTerminalTasksLocked();
+        }
+        return task;
+    }
+
+    public SubtreeRepathTask get(String taskId) {
+        if (taskId == null) {
+            return null;
+        }
+        if (isShared()) {
+            return clusterTaskStore.findRecent(CLUSTER_DOMAIN, taskId, SubtreeRepathTask.class).orElse(null);
+        }
+        return tasks.get(taskId);
+    }
+
+    /**
+     * Reindex the moved subtree and record the outcome on the task.
+     */
+    public SubtreeRepathTask run(String taskId, Node node) {
+        SubtreeRepathTask started = mutate(taskId, current -> current.isTerminal() ? current : current.running());
+        if (started == null || started.status() != SubtreeRepathStatus.RUNNING) {
+            return started;
+        }
+        try {
+            long indexed = searchIndexService.reindexNodeSubtree(node, count -> {
+                if (!isShared() || clusterTaskStore.progressWriteDue(CLUSTER_DOMAIN, taskId)) {
+                    mutate(taskId, current -> current.isTerminal() ? current : current.progress(count));
+                }
+            });
+            log.info("Re-path task {} reindexed {} descendants of {}", taskId, indexed, node.getPath());
+            return mutate(taskId, current -> current.complete(indexed));
+        } catch (RuntimeException e) {
+            log.error("Re-path task {} failed for {}", taskId, node.getPath(), e);
+            return mutate(taskId, current -> current.fail(e.getMessage()));
+        }
+    }
+
+    @Override
+    public String orphanDomain() {
+        return CLUSTER_DOMAIN;
+    }
+
+    @Override
+    public void resumeOrphan(String taskId) {
+        SubtreeRepathTask task = get(taskId);
+        if (task == null || task.isTerminal()) {
+            return;
+        }
+        Node node = nodeRepository.findByIdAndDeletedFalse(task.nodeId()).orElse(null);
+        if (node == null) {
+            abandonOrphan(taskId, "Moved node no longer exists");
+            return;
+        }
+        run(taskId, node);
+    }
+
+    @Override
+    public void abandonOrphan(String taskId, String reason) {
+        mutate(taskId, current -> current.isTerminal() ? current : current.fail(reason));
+    }
+
+    private SubtreeRepathTask mutate(String taskId, UnaryOperator<SubtreeRepathTask> updater) {
+        if (isShared()) {
+            return clusterTaskStore.update(CLUSTER_DOMAIN, taskId, SubtreeRepathTask.class, updater,
+                SubtreeRepathTaskRegistry::stateOf);
+        }
+        return tasks.computeIfPresent(taskId, (key, current) -> updater.apply(current));
+    }
+
+    private boolean isShared() {
+        return clusterTaskStore != null && clusterTaskStore.isEnabled();
+    }
+
+    private static ClusterAsyncTaskStore.TaskState stateOf(SubtreeRepathTask task) {
+        return new ClusterAsyncTaskStore.TaskState(
+            task.status().name(),
+            !task.isTerminal(),
+            task.createdBy(),
+            task.createdAt(),
+            task.finishedAt()
+        );
+    }
+
+    private void trimTerminalTasksLocked() {
+        if (tasks.size() <= MAX_TASKS) {
+            return;
+        }
+        taskOrder.removeIf(taskId -> {
+            if (tasks.size() <= MAX_TASKS) {
+                return false;
+            }
+            SubtreeRepathTask task = tasks.get(taskId);
+            if (task == null) {
+                return true;
+            }
+            if (task.isTerminal()) {
+                tasks.remove(taskId);
+                return true;
+            }
+            return false;
+        });
+    }
+
+    public enum SubtreeRepathStatus {
+        QUEUED,
+        RUNNING,
+        COMPLETED,
+        FAILED;
+
+        public boolean isTerminal() {
+            return this == COMPLETED || this == FAILED;
+        }
+    }
+
+    public record SubtreeRepathTask(
+        String taskId,
+        UUID nodeId,
+        String path,
+        long descendantCount,
+        long indexedCount,
+        SubtreeRepathStatus status,
+        String error,
+        String createdBy,
+        LocalDateTime createdAt,
+        LocalDateTime finishedAt
+    ) {
+        public SubtreeRepathTask running() {
+            return with(0L, SubtreeRepathStatus.RUNNING, null, null);
+        }
+
+        public SubtreeRepathTask progress(long indexed) {
+            return with(indexed, status, null, null);
+        }
+
+        public SubtreeRepathTask complete(long indexed) {
+            return with(indexed, SubtreeRepathStatus.COMPLETED, null, LocalDateTime.now());
+        }
+
+        public SubtreeRepathTask fail(String errorMessage) {
+            return with(indexedCount, SubtreeRepathStatus.FAILED, errorMessage, LocalDateTime.now());
+        }
+
+        public boolean isTerminal() {
+            return status != null && status.isTerminal();
+        }
+
+        private SubtreeRepathTask with(long indexed, SubtreeRepathStatus nextStatus, String nextError,
+                                       LocalDateTime nextFinishedAt) {
+            return new SubtreeRepathTask(taskId, nodeId, path, descendantCount, indexed, nextStatus, nextError,
+                createdBy, createdAt, nextFinishedAt);
+        }
+    }
+}
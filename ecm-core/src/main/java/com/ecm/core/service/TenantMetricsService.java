@@ -24,7 +24,7 @@ public class TenantMetricsService {
         Tenant tenant = tenantRepository.findByTenantDomainIgnoreCaseAndDeletedFalse(tenantDomain.trim())
             .orElseThrow(() -> new NoSuchElementException("Tenant not found: " + tenantDomain));
 
-        long storageUsedBytes = tenantQuotaService.calculateUsedBytes(tenant);
+        long storageUsedBytes = tenantQuotaService.usedBytes(tenant);
         Long quotaBytes = tenant.getQuotaBytes();
 
         String rootPath = resolveRootPath(tenant);
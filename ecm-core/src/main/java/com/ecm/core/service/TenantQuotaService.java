@@ -8,6 +8,9 @@ import com.ecm.core.repository.TenantRepository;
 import com.ecm.core.repository.VersionRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
 import org.springframework.stereotype.Service;
 
 import java.util.UUID;
@@ -22,6 +25,13 @@ public class TenantQuotaService {
     private final NodeRepository nodeRepository;
     private final VersionRepository versionRepository;
 
+    @Autowired
+    @Lazy
+    private TenantUsageLedgerService tenantUsageLedgerService;
+
+    @Value("${ecm.tenant.usage.ledger-enabled:true}")
+    private boolean usageLedgerEnabled = true;
+
     /**
      * Check whether storing {@code additionalBytes} would exceed the current tenant's quota.
      * Does nothing if the tenant has no quota configured (quotaBytes == null).
@@ -36,7 +46,7 @@ public class TenantQuotaService {
         if (tenant == null || tenant.getQuotaBytes() == null) {
             return; // No quota configured
         }
-        long used = calculateUsedBytes(tenant);
+        long used = usedBytes(tenant);
         long remaining = tenant.getQuotaBytes() - used;
         if (additionalBytes > remaining) {
             throw new QuotaExceededException(
@@ -60,10 +70,29 @@ public class TenantQuotaService {
         if (tenant == null || tenant.getQuotaBytes() == null) {
             return true;
         }
-        long used = calculateUsedBytes(tenant);
+        long used = usedBytes(tenant);
         return declaredBytes <= (tenant.getQuotaBytes() - used);
     }
 
+    /**
+     * Current storage usage of the tenant as read from the incremental usage ledger. Falls back to
+     * {@link #calculateUsedBytes} when the ledger is disabled or cannot be read.
+     */
+    public long usedBytes(Tenant tenant) {
+        if (usageLedgerEnabled && tenantUsageLedgerService != null) {
+            try {
+                return tenantUsageLedgerService.usedBytes(tenant);
+            } catch (RuntimeException e) {
+                log.warn("Tenant usage ledger unavailable for {}, recounting: {}", tenant.getTenantDomain(), e.getMessage());
+            }
+        }
+        return calculateUsedBytes(tenant);
+    }
+
+    /**
+     * Recount the tenant's storage usage by summing every document under its workspace root.
+     * Cost grows with the tenant's size; request paths should use {@link #usedBytes} instead.
+     */
     public long calculateUsedBytes(Tenant tenant) {
         if (tenant.getRootNodeId() == null) {
             return 0;
@@ -0,0 +1,116 @@
+package com.ecm.core.service;
+
+import com.ecm.core.entity.Tenant;
+import com.ecm.core.entity.TenantUsage;
+import com.ecm.core.repository.TenantRepository;
+import com.ecm.core.repository.TenantUsageDeltaRepository;
+import com.ecm.core.repository.TenantUsageRepository;
+import com.ecm.core.scheduler.ClusterJob;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.NoSuchElementException;
+import java.util.UUID;
+
+/**
+ * Read side and compaction of the per-tenant storage usage ledger.
+ *
+ * <p>Usage is {@code tenant_usage.used_bytes} plus the tenant's pending rows in
+ * {@code tenant_usage_deltas} (written by {@link TenantUsageTracker}), so a quota check costs one
+ * indexed lookup regardless of how many documents the tenant holds. Compaction folds the delta
+ * tail into the counter to keep that lookup short.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class TenantUsageLedgerService {
+
+    private final TenantRepository tenantRepository;
+    private final TenantUsageRepository tenantUsageRepository;
+    private final TenantUsageDeltaRepository tenantUsageDeltaRepository;
+    private final TenantUsageReconciliationService reconciliationService;
+    private final PlatformTransactionManager transactionManager;
+
+    @Value("${ecm.tenant.usage.ledger-enabled:true}")
+    private boolean enabled = true;
+
+    /**
+     * Current storage usage of the tenant. The first call for a tenant without a ledger row
+     * initializes it with a full recount.
+     */
+    public long usedBytes(Tenant tenant) {
+        if (tenant.getRootNodeId() == null) {
+            return 0L;
+        }
+        return tenantUsageRepository.findCurrentUsedBytes(tenant.getId())
+            .orElseGet(() -> reconciliationService.reconcile(tenant, true).actualBytes());
+    }
+
+    @Scheduled(
+        fixedDelayString = "${ecm.tenant.usage.compaction-interval-ms:60000}",
+        initialDelayString = "${ecm.tenant.usage.compaction-interval-ms:60000}"
+    )
+    @ClusterJob
+    public void compactPendingDeltas() {
+        if (!enabled) {
+            return;
+        }
+        int compacted = 0;
+        for (UUID tenantId : tenantUsageDeltaRepository.findTenantIdsWithDeltas()) {
+            try {
+                Integer updated = new TransactionTemplate(transactionManager)
+                    .execute(status -> tenantUsageRepository.compactDeltas(tenantId));
+                if (updated != null && updated > 0) {
+                    compacted++;
+                }
+            } catch (RuntimeException e) {
+                log.warn("Tenant usage compaction failed for tenant {}: {}", tenantId, e.getMessage());
+            }
+        }
+        if (compacted > 0) {
+            log.debug("Compacted usage deltas for {} tenant(s)", compacted);
+        }
+    }
+
+    public TenantUsageSnapshot getUsage(String tenantDomain) {
+        Tenant tenant = findTenant(tenantDomain);
+        long usedBytes = usedBytes(tenant);
+        TenantUsage usage = tenantUsageRepository.findById(tenant.getId()).orElse(null);
+        return new TenantUsageSnapshot(
+            tenant.getTenantDomain(),
+            usedBytes,
+            usage != null ? usedBytes - usage.getUsedBytes() : 0L,
+            usage != null ? usage.getCompactedAt() : null,
+            usage != null ? usage.getReconciledAt() : null,
+            usage != null ? usage.getLastDriftBytes() : null
+        );
+    }
+
+    public TenantUsageReconciliationService.ReconciliationReport reconcile(String tenantDomain, boolean correct) {
+        Tenant tenant = findTenant(tenantDomain);
+        if (tenant.getRootNodeId() == null) {
+            throw new IllegalArgumentException("Tenant has no workspace root: " + tenant.getTenantDomain());
+        }
+        return reconciliationService.reconcile(tenant, correct);
+    }
+
+    private Tenant findTenant(String tenantDomain) {
+        return tenantRepository.findByTenantDomainIgnoreCaseAndDeletedFalse(tenantDomain.trim())
+            .orElseThrow(() -> new NoSuchElementException("Tenant not found: " + tenantDomain));
+    }
+
+    public record TenantUsageSnapshot(
+        String tenantDomain,
+        long usedBytes,
+        long pendingDeltaBytes,
+        LocalDateTime compactedAt,
+        LocalDateTime reconciledAt,
+        Long lastDriftBytes
+    ) {}
+}
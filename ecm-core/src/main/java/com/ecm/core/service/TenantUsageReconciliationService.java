@@ -0,0 +1,155 @@
+package com.ecm.core.service;
+
+import com.ecm.core.entity.Tenant;
+import com.ecm.core.entity.TenantUsage;
+import com.ecm.core.repository.TenantRepository;
+import com.ecm.core.repository.TenantUsageDeltaRepository;
+import com.ecm.core.repository.TenantUsageRepository;
+import com.ecm.core.scheduler.ClusterJob;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+/**
+ * Recomputes tenant storage usage from scratch and compares it with the incremental ledger.
+ *
+ * <p>The recount and the consumption of pending deltas run in one REPEATABLE READ transaction, so
+ * both see the same snapshot: every delta visible to the recount is replaced by it, while deltas
+ * committed afterwards stay pending and are compacted normally. The same routine initializes the
+ * ledger row of a tenant that has none yet; when two callers initialize it at once, the loser's
+ * snapshot cannot see the winner's row, so it is retried once in a fresh transaction that does.
+ */
+@Slf4j
+@Service
+public class TenantUsageReconciliationService {
+
+    private final TenantRepository tenantRepository;
+    private final TenantUsageRepository tenantUsageRepository;
+    private final TenantUsageDeltaRepository tenantUsageDeltaRepository;
+    private final TenantQuotaService tenantQuotaService;
+    private final PlatformTransactionManager transactionManager;
+    private final DistributionSummary driftSummary;
+
+    @Value("${ecm.tenant.usage.ledger-enabled:true}")
+    private boolean enabled = true;
+
+    @Value("${ecm.tenant.usage.reconcile-correct-drift:true}")
+    private boolean correctDrift = true;
+
+    public TenantUsageReconciliationService(TenantRepository tenantRepository,
+                                            TenantUsageRepository tenantUsageRepository,
+                                            TenantUsageDeltaRepository tenantUsageDeltaRepository,
+                                            TenantQuotaService tenantQuotaService,
+                                            PlatformTransactionManager transactionManager,
+                                            MeterRegistry meterRegistry) {
+        this.tenantRepository = tenantRepository;
+        this.tenantUsageRepository = tenantUsageRepository;
+        this.tenantUsageDeltaRepository = tenantUsageDeltaRepository;
+        this.tenantQuotaService = tenantQuotaService;
+        this.transactionManager = transactionManager;
+        this.driftSummary = DistributionSummary.builder("tenant_usage_reconcile_drift_bytes")
+            .description("Absolute difference between ledger and recomputed tenant usage")
+            .baseUnit("bytes")
+            .register(meterRegistry);
+    }
+
+    @Scheduled(cron = "${ecm.tenant.usage.reconcile-cron:0 30 3 * * *}")
+    @ClusterJob
+    public void reconcileAll() {
+        if (!enabled) {
+            return;
+        }
+        int drifted = 0;
+        int failed = 0;
+        for (Tenant tenant : tenantRepository.findByDeletedFalseOrderByTenantDomainAsc()) {
+            if (tenant.getRootNodeId() == null) {
+                continue;
+            }
+            try {
+                if (reconcile(tenant, correctDrift).driftBytes() != 0L) {
+                    drifted++;
+                }
+            } catch (RuntimeException e) {
+                failed++;
+                log.warn("Tenant usage reconciliation failed for {}: {}", tenant.getTenantDomain(), e.getMessage());
+            }
+        }
+        log.info("Tenant usage reconciliation finished: {} tenant(s) drifted, {} failed", drifted, failed);
+    }
+
+    /**
+     * Recount usage for the tenant and, when {@code correct} is set, replace the ledger value with
+     * the recount. A tenant without a ledger row is always initialized.
+     */
+    public ReconciliationReport reconcile(Tenant tenant, boolean correct) {
+        TransactionTemplate template = new TransactionTemplate(transactionManager);
+        template.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        template.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+        try {
+            return template.execute(status -> doReconcile(tenant, correct));
+        } catch (ConcurrencyFailureException | DataIntegrityViolationException e) {
+            log.debug("Storage usage ledger of tenant {} changed concurrently, retrying: {}",
+                tenant.getTenantDomain(), e.getMessage());
+            return template.execute(status -> doReconcile(tenant, correct));
+        }
+    }
+
+    private ReconciliationReport doReconcile(Tenant tenant, boolean correct) {
+        long actual = tenantQuotaService.calculateUsedBytes(tenant);
+        LocalDateTime now = LocalDateTime.now();
+        Optional<TenantUsage> existing = tenantUsageRepository.findById(tenant.getId());
+
+        if (existing.isEmpty()) {
+            if (tenantUsageRepository.insertIfAbsent(tenant.getId(), actual, now) == 1) {
+                tenantUsageDeltaRepository.drainDeltaBytes(tenant.getId());
+                log.info("Initialized storage usage ledger for tenant {} at {} bytes", tenant.getTenantDomain(), actual);
+                return new ReconciliationReport(tenant.getTenantDomain(), null, actual, 0L, true, now);
+            }
+            existing = tenantUsageRepository.findById(tenant.getId());
+            if (existing.isEmpty()) {
+                throw new ConcurrencyFailureException("Storage usage ledger of tenant "
+                    + tenant.getTenantDomain() + " was initialized concurrently");
+            }
+        }
+
+        TenantUsage usage = existing.get();
+        long ledger;
+        if (correct) {
+            ledger = usage.getUsedBytes() + tenantUsageDeltaRepository.drainDeltaBytes(tenant.getId());
+            usage.setUsedBytes(actual);
+        } else {
+            ledger = usage.getUsedBytes() + tenantUsageDeltaRepository.sumDeltaBytesByTenantId(tenant.getId());
+        }
+        long drift = actual - ledger;
+        usage.setReconciledAt(now);
+        usage.setLastDriftBytes(drift);
+        tenantUsageRepository.save(usage);
+
+        driftSummary.record(Math.abs(drift));
+        if (drift != 0L) {
+            log.warn("Tenant {} storage ledger drifted by {} bytes (ledger={}, actual={}){}",
+                tenant.getTenantDomain(), drift, ledger, actual, correct ? ", corrected" : "");
+        }
+        return new ReconciliationReport(tenant.getTenantDomain(), ledger, actual, drift, correct, now);
+    }
+
+    public record ReconciliationReport(
+        String tenantDomain,
+        Long ledgerBytes,
+        long actualBytes,
+        long driftBytes,
+        boolean corrected,
+        LocalDateTime reconciledAt
+    ) {}
+}
@@ -0,0 +1,267 @@
+package com.ecm.core.service;
+
+import com.ecm.core.entity.Document;
+import com.ecm.core.entity.Tenant;
+import com.ecm.core.entity.Version;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.action.spi.AfterTransactionCompletionProcess;
+import org.hibernate.action.spi.BeforeTransactionCompletionProcess;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.event.spi.EventSource;
+import org.hibernate.event.spi.PreDeleteEvent;
+import org.hibernate.event.spi.PreDeleteEventListener;
+import org.hibernate.event.spi.PreInsertEvent;
+import org.hibernate.event.spi.PreInsertEventListener;
+import org.hibernate.event.spi.PreUpdateEvent;
+import org.hibernate.event.spi.PreUpdateEventListener;
+
+import java.sql.Array;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Hibernate listener that turns document and version writes into tenant usage deltas.
+ *
+ * <p>The first time a transaction touches a document, its committed contribution (live file size
+ * plus non-current retained versions, the same model as
+ * {@link TenantQuotaService#calculateUsedBytes}) is captured before Hibernate writes anything. Right
+ * before commit — after the final flush — the contribution is read again and the difference is
+ * appended to {@code tenant_usage_deltas} for the tenant owning the old and the new path, inside
+ * the same transaction. Create, soft delete, restore, purge, new versions and moves between tenant
+ * workspaces are therefore all accounted for without knowing which service made the change.
+ *
+ * <p>Bulk JPQL/SQL updates bypass entity events; the drift they cause is corrected by
+ * {@link TenantUsageReconciliationService}.
+ */
+@Slf4j
+public class TenantUsageTracker implements PreInsertEventListener, PreUpdateEventListener, PreDeleteEventListener {
+
+    private static final String CONTRIBUTION_SQL = """
+        SELECT d.id, n.path, n.is_deleted, COALESCE(d.file_size, 0),
+               CASE WHEN d.current_version_id IS NULL THEN 0
+                    ELSE COALESCE((SELECT SUM(v.file_size) FROM versions v
+                                   WHERE v.document_id = d.id AND v.id <> d.current_version_id), 0)
+               END
+        FROM documents d
+        JOIN nodes n ON n.id = d.id
+        WHERE d.id = ANY (?)
+        """;
+
+    private static final String TENANT_ROOTS_SQL = """
+        SELECT t.id, n.path
+        FROM tenants t
+        JOIN nodes n ON n.id = t.root_node_id
+        WHERE t.is_deleted = false
+        """;
+
+    private static final String INSERT_DELTA_SQL =
+        "INSERT INTO tenant_usage_deltas (tenant_id, delta_bytes, created_at) VALUES (?, ?, now())";
+
+    private final long rootCacheTtlMs;
+    private final Map<SharedSessionContractImplementor, PendingUsage> pendingBySession = new ConcurrentHashMap<>();
+
+    private volatile List<TenantRoot> tenantRoots;
+    private volatile long tenantRootsLoadedAt;
+
+    public TenantUsageTracker(long rootCacheTtlMs) {
+        this.rootCacheTtlMs = rootCacheTtlMs;
+    }
+
+    @Override
+    public boolean onPreInsert(PreInsertEvent event) {
+        touch(event.getEntity(), event.getSession());
+        return false;
+    }
+
+    @Override
+    public boolean onPreUpdate(PreUpdateEvent event) {
+        touch(event.getEntity(), event.getSession());
+        return false;
+    }
+
+    @Override
+    public boolean onPreDelete(PreDeleteEvent event) {
+        touch(event.getEntity(), event.getSession());
+        return false;
+    }
+
+    /**
+     * Drop the cached tenant root paths so the next commit reloads them.
+     */
+    public void invalidateTenantRoots() {
+        tenantRoots = null;
+    }
+
+    int pendingSessionCount() {
+        return pendingBySession.size();
+    }
+
+    private void touch(Object entity, EventSource session) {
+        if (entity instanceof Tenant) {
+            invalidateTenantRoots();
+            return;
+        }
+        UUID documentId = documentIdOf(entity);
+        if (documentId == null) {
+            return;
+        }
+        PendingUsage pending = pendingBySession.get(session);
+        if (pending == null) {
+            pending = new PendingUsage();
+            pendingBySession.put(session, pending);
+            session.getActionQueue().registerProcess((BeforeTransactionCompletionProcess) this::recordDeltas);
+            session.getActionQueue().registerProcess(
+                (AfterTransactionCompletionProcess) (success, completed) -> pendingBySession.remove(completed));
+        }
+        if (pending.before.containsKey(documentId)) {
+            return;
+        }
+        try {
+            Contribution before = session.doReturningWork(connection ->
+                loadContributions(connection, List.of(documentId)).get(documentId));
+            pending.before.put(documentId, before != null ? before : Contribution.NONE);
+        } catch (RuntimeException e) {
+            // Leave the document out of the ledger rather than failing the business write;
+            // reconciliation picks up whatever is missed here.
+            log.warn("Could not snapshot storage usage of document {}: {}", documentId, e.getMessage());
+        }
+    }
+
+    private void recordDeltas(SessionImplementor session) {
+        PendingUsage pending = pendingBySession.get(session);
+        if (pending == null || pending.before.isEmpty()) {
+            return;
+        }
+        try {
+            session.doWork(connection -> {
+                Map<UUID, Contribution> after = loadContributions(connection, new ArrayList<>(pending.before.keySet()));
+                Map<UUID, Long> deltas = new LinkedHashMap<>();
+                for (Map.Entry<UUID, Contribution> entry : pending.before.entrySet()) {
+                    Contribution before = entry.getValue();
+                    Contribution current = after.getOrDefault(entry.getKey(), Contribution.NONE);
+                    if (before.bytes() == current.bytes() && samePath(before, current)) {
+                        continue;
+                    }
+                    addDelta(deltas, connection, before.path(), -before.bytes());
+                    addDelta(deltas, connection, current.path(), current.bytes());
+                }
+                insertDeltas(connection, deltas);
+            });
+        } catch (RuntimeException e) {
+            log.warn("Could not record tenant usage deltas: {}", e.getMessage());
+        }
+    }
+
+    private void addDelta(Map<UUID, Long> deltas, Connection connection, String path, long bytes) throws SQLException {
+        if (bytes == 0L || path == null) {
+            return;
+        }
+        UUID tenantId = resolveTenant(connection, path);
+        if (tenantId != null) {
+            deltas.merge(tenantId, bytes, Long::sum);
+        }
+    }
+
+    private static void insertDeltas(Connection connection, Map<UUID, Long> deltas) throws SQLException {
+        boolean any = false;
+        try (PreparedStatement statement = connection.prepareStatement(INSERT_DELTA_SQL)) {
+            for (Map.Entry<UUID, Long> delta : deltas.entrySet()) {
+                if (delta.getValue() == 0L) {
+                    continue;
+                }
+                statement.setObject(1, delta.getKey());
+                statement.setLong(2, delta.getValue());
+                statement.addBatch();
+                any = true;
+            }
+            if (any) {
+                statement.executeBatch();
+            }
+        }
+    }
+
+    private static Map<UUID, Contribution> loadContributions(Connection connection, List<UUID> documentIds) throws SQLException {
+        Map<UUID, Contribution> contributions = new HashMap<>();
+        try (PreparedStatement statement = connection.prepareStatement(CONTRIBUTION_SQL)) {
+            Array ids = connection.createArrayOf("uuid", documentIds.toArray());
+            statement.setArray(1, ids);
+            try (ResultSet rs = statement.executeQuery()) {
+                while (rs.next()) {
+                    UUID id = rs.getObject(1, UUID.class);
+                    String path = rs.getString(2);
+                    boolean deleted = rs.getBoolean(3);
+                    long bytes = deleted ? 0L : rs.getLong(4) + rs.getLong(5);
+                    contributions.put(id, new Contribution(path, bytes));
+                }
+            }
+        }
+        return contributions;
+    }
+
+    private UUID resolveTenant(Connection connection, String path) throws SQLException {
+        for (TenantRoot root : tenantRoots(connection)) {
+            if (path.startsWith(root.pathPrefix())) {
+                return root.tenantId();
+            }
+        }
+        return null;
+    }
+
+    private List<TenantRoot> tenantRoots(Connection connection) throws SQLException {
+        List<TenantRoot> roots = tenantRoots;
+        long now = System.currentTimeMillis();
+        if (roots != null && now - tenantRootsLoadedAt < rootCacheTtlMs) {
+            return roots;
+        }
+        List<TenantRoot> loaded = new ArrayList<>();
+        try (PreparedStatement statement = connection.prepareStatement(TENANT_ROOTS_SQL);
+             ResultSet rs = statement.executeQuery()) {
+            while (rs.next()) {
+                String rootPath = rs.getString(2);
+                if (rootPath != null) {
+                    loaded.add(new TenantRoot(rs.getObject(1, UUID.class), rootPath + "/"));
+                }
+            }
+        }
+        // Longest prefix first so a nested workspace wins over an enclosing one.
+        loaded.sort(Comparator.comparingInt((TenantRoot root) -> root.pathPrefix().length()).reversed());
+        tenantRoots = List.copyOf(loaded);
+        tenantRootsLoadedAt = now;
+        return tenantRoots;
+    }
+
+    private static UUID documentIdOf(Object entity) {
+        if (entity instanceof Document document) {
+            return document.getId();
+        }
+        if (entity instanceof Version version && version.getDocument() != null) {
+            return version.getDocument().getId();
+        }
+        return null;
+    }
+
+    private static boolean samePath(Contribution before, Contribution after) {
+        return before.path() == null ? after.path() == null : before.path().equals(after.path());
+    }
+
+    private record Contribution(String path, long bytes) {
+        static final Contribution NONE = new Contribution(null, 0L);
+    }
+
+    private record TenantRoot(UUID tenantId, String pathPrefix) {}
+
+    private static final class PendingUsage {
+        private final Map<UUID, Contribution> before = new LinkedHashMap<>();
+    }
+}
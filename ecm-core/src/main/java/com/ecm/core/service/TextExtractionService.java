@@ -0,0 +1,438 @@
+package com.ecm.core.service;
+
+import com.ecm.core.config.TenantContext;
+import com.ecm.core.metrics.EcmMetrics;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.tika.Tika;
+import org.apache.tika.exception.TikaException;
+import org.apache.tika.exception.WriteLimitReachedException;
+import org.apache.tika.metadata.Metadata;
+import org.apache.tika.metadata.TikaCoreProperties;
+import org.apache.tika.parser.AutoDetectParser;
+import org.apache.tika.parser.ParseContext;
+import org.apache.tika.parser.Parser;
+import org.apache.tika.sax.BodyContentHandler;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.xml.sax.SAXException;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Shared Apache Tika text extraction for the ingest pipeline, {@link ContentService#extractMetadata}
+ * and text conversion.
+ *
+ * <p>Parsing runs on at most {@code ecm.tika.workers} daemon worker threads, never on the caller's
+ * thread, with a hard per-document timeout. A parse that overruns is interrupted and its worker
+ * abandoned: the slot is handed to a fresh thread so a pathological file cannot pin extraction
+ * capacity, and once
+ * {@code ecm.tika.max-abandoned-workers} stuck parses are outstanding, new extractions fail fast until
+ * they finish. Each parse reads at most {@code ecm.tika.max-input-bytes} of content, rejecting larger
+ * files rather than parsing a truncated prefix, and keeps at most {@code ecm.tika.max-text-length}
+ * characters of text. Workers share the JVM heap, so a parser's own working memory is bounded only by
+ * those limits and Tika's zip bomb protection in {@link AutoDetectParser}, not isolated per parse.
+ *
+ * <p>Results are cached by content hash and Tika version, so the same blob stored for another document
+ * is not parsed again. Parse times are recorded in {@code tika_extraction_duration} through
+ * {@link EcmMetrics}, per MIME family and outcome and under the caller's tenant.
+ */
+@Slf4j
+@Service
+public class TextExtractionService {
+
+    static final String PARSER_VERSION = Tika.getString();
+
+    @Autowired(required = false)
+    private MeterRegistry meterRegistry;
+
+    @Autowired(required = false)
+    private EcmMetrics metrics = EcmMetrics.noop();
+
+    @Value("${ecm.tika.max-text-length:10485760}")
+    private int maxTextLength = 10_485_760;
+
+    @Value("${ecm.tika.max-input-bytes:536870912}")
+    private long maxInputBytes = 536_870_912L;
+
+    @Value("${ecm.tika.workers:2}")
+    private int workers = 2;
+
+    @Value("${ecm.tika.timeout-ms:120000}")
+    private long timeoutMs = 120_000L;
+
+    @Value("${ecm.tika.queue-wait-ms:300000}")
+    private long queueWaitMs = 300_000L;
+
+    @Value("${ecm.tika.max-abandoned-workers:4}")
+    private int maxAbandonedWorkers = 4;
+
+    @Value("${ecm.tika.cache.max-chars:33554432}")
+    private long cacheMaxChars = 33_554_432L;
+
+    @Value("${ecm.tika.cache.ttl-seconds:3600}")
+    private long cacheTtlSeconds = 3600L;
+
+    private final Parser parser = new AutoDetectParser();
+    private final AtomicInteger abandoned = new AtomicInteger();
+
+    private ExecutorService executor;
+    private Semaphore slots;
+    private Cache<String, ExtractionResult> cache;
+
+    @PostConstruct
+    public void start() {
+        int poolSize = Math.max(1, workers);
+        slots = new Semaphore(poolSize, true);
+        executor = Executors.newCachedThreadPool(workerThreadFactory());
+        cache = cacheMaxChars > 0
+            ? CacheBuilder.newBuilder()
+                .maximumWeight(cacheMaxChars)
+                .weigher((String key, ExtractionResult value) -> value.weight())
+                .expireAfterAccess(Duration.ofSeconds(Math.max(1L, cacheTtlSeconds)))
+                .build()
+            : null;
+        if (meterRegistry != null) {
+            meterRegistry.gauge("tika_extraction_abandoned_workers", abandoned);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Extract text and metadata from stored content.
+     *
+     * @param contentHash SHA-256 of the content, or {@code null} when unknown (not cached then)
+     * @param filename    original filename, used as a detection hint
+     * @param source      opens the content; called on a worker thread, at most once
+     * @throws TikaException when the content cannot be parsed, the parse times out or no worker is free
+     */
+    public ExtractionResult extract(String contentHash, String filename, ContentSource source)
+            throws IOException, TikaException {
+        String cacheKey = contentHash != null && !contentHash.isBlank() && cache != null
+            ? contentHash + ":" + maxTextLength + ":" + PARSER_VERSION
+            : null;
+        if (cacheKey != null) {
+            ExtractionResult cached = cache.getIfPresent(cacheKey);
+            count("tika_extraction_cache_requests", cached != null ? "hit" : "miss");
+            if (cached != null) {
+                return cached;
+            }
+        }
+
+        ExtractionResult result = parseOnWorker(filename, source);
+        if (cacheKey != null) {
+            cache.put(cacheKey, result);
+        }
+        return result;
+    }
+
+    private ExtractionResult parseOnWorker(String filename, ContentSource source) throws IOException, TikaException {
+        if (abandoned.get() >= Math.max(1, maxAbandonedWorkers)) {
+            count("tika_extraction_rejected", "abandoned");
+            throw new TikaException("Text extraction unavailable: " + abandoned.get() + " parses still stuck");
+        }
+        try {
+            if (!slots.tryAcquire(Math.max(0L, queueWaitMs), TimeUnit.MILLISECONDS)) {
+                count("tika_extraction_rejected", "busy");
+                throw new TikaException("Text extraction busy: no worker free within " + queueWaitMs + "ms");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new TikaException("Interrupted while waiting for an extraction worker", e);
+        }
+
+        // Settled by whichever comes first: the parse finishing (frees the slot) or the caller giving up
+        // (abandons the worker and hands its slot to a new one).
+        AtomicBoolean settled = new AtomicBoolean(false);
+        AtomicReference<Thread> worker = new AtomicReference<>();
+        TenantContext.Snapshot tenant = TenantContext.capture();
+        Future<ExtractionResult> future;
+        try {
+            future = executor.submit(() -> {
+                worker.set(Thread.currentThread());
+                TenantContext.restore(tenant);
+                try {
+                    if (settled.get()) {
+                        throw new TikaException("Text extraction abandoned before it started");
+                    }
+                    return parse(filename, source);
+                } finally {
+                    TenantContext.clear();
+                    worker.set(null);
+                    if (settled.compareAndSet(false, true)) {
+                        slots.release();
+                    } else {
+                        abandoned.decrementAndGet();
+                        log.info("Abandoned Tika parse of {} finished", filename);
+                    }
+                }
+            });
+        } catch (RuntimeException e) {
+            slots.release();
+            throw new TikaException("Failed to start text extraction", e);
+        }
+
+        try {
+            return future.get(Math.max(1L, timeoutMs), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            if (!abandon(settled, worker)) {
+                return awaitFinished(future);
+            }
+            count("tika_extraction_timeouts", null);
+            log.warn("Tika parse of {} exceeded {}ms, worker abandoned", filename, timeoutMs);
+            throw new TikaException("Text extraction timed out after " + timeoutMs + "ms");
+        } catch (InterruptedException e) {
+            abandon(settled, worker);
+            Thread.currentThread().interrupt();
+            throw new TikaException("Interrupted during text extraction", e);
+        } catch (ExecutionException e) {
+            throw unwrap(e);
+        }
+    }
+
+    /**
+     * Give up on a running parse unless it already finished. The task itself is not cancelled, so its
+     * cleanup always runs and releases the abandoned count.
+     */
+    private boolean abandon(AtomicBoolean settled, AtomicReference<Thread> worker) {
+        if (!settled.compareAndSet(false, true)) {
+            return false;
+        }
+        abandoned.incrementAndGet();
+        slots.release();
+        Thread thread = worker.get();
+        if (thread != null) {
+            thread.interrupt();
+        }
+        return true;
+    }
+
+    private static ExtractionResult awaitFinished(Future<ExtractionResult> future) throws IOException, TikaException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new TikaException("Interrupted during text extraction", e);
+        } catch (ExecutionException e) {
+            throw unwrap(e);
+        }
+    }
+
+    private static TikaException unwrap(ExecutionException e) throws IOException {
+        Throwable cause = e.getCause();
+        if (cause instanceof IOException io) {
+            throw io;
+        }
+        if (cause instanceof TikaException tika) {
+            return tika;
+        }
+        if (cause instanceof OutOfMemoryError) {
+            return new TikaException("Text extraction ran out of memory", cause);
+        }
+        return new TikaException("Text extraction failed: " + cause, cause);
+    }
+
+    private ExtractionResult parse(String filename, ContentSource source) throws IOException, TikaException {
+        long start = System.nanoTime();
+        Metadata metadata = new Metadata();
+        if (filename != null) {
+            metadata.set(TikaCoreProperties.RESOURCE_NAME_KEY, filename);
+        }
+        BodyContentHandler handler = new BodyContentHandler(maxTextLength > 0 ? maxTextLength : -1);
+        ParseContext parseContext = new ParseContext();
+        parseContext.set(Parser.class, parser);
+
+        boolean truncated = false;
+        String outcome = "success";
+        InputLimit in = null;
+        try (InputStream raw = source.open()) {
+            in = new InputLimit(raw, maxInputBytes);
+            parser.parse(in, handler, metadata, parseContext);
+            in.check();
+        } catch (SAXException e) {
+            if (in != null && in.exceeded()) {
+                outcome = "too_large";
+                throw tooLarge(e);
+            }
+            if (!WriteLimitReachedException.isWriteLimitReached(e)) {
+                outcome = "failure";
+                throw new TikaException("Parse error: " + e.getMessage(), e);
+            }
+            truncated = true;
+        } catch (IOException | TikaException | RuntimeException e) {
+            if (in != null && in.exceeded()) {
+                outcome = "too_large";
+                throw tooLarge(e);
+            }
+            outcome = "failure";
+            throw e;
+        } finally {
+            metrics.recordTime("tika_extraction_duration", start,
+                "mime_family", EcmMetrics.mimeFamily(metadata.get(Metadata.CONTENT_TYPE)), "outcome", outcome);
+        }
+
+        Map<String, String> values = new LinkedHashMap<>();
+        for (String name : metadata.names()) {
+            String value = metadata.get(name);
+            if (value != null) {
+                values.put(name, value);
+            }
+        }
+        return new ExtractionResult(handler.toString(), values, truncated);
+    }
+
+    private TikaException tooLarge(Exception cause) {
+        count("tika_extraction_rejected", "too_large");
+        return new TikaException("Content exceeds the " + maxInputBytes + " byte extraction limit", cause);
+    }
+
+    private void count(String name, String result) {
+        if (meterRegistry == null) {
+            return;
+        }
+        if (result == null) {
+            meterRegistry.counter(name).increment();
+        } else {
+            meterRegistry.counter(name, "result", result).increment();
+        }
+    }
+
+    private static ThreadFactory workerThreadFactory() {
+        AtomicInteger sequence = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, "tika-extract-" + sequence.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    /**
+     * Fails reads past {@code ecm.tika.max-input-bytes}; no limit when that is not positive. Mark and
+     * reset are not passed through, so every byte a parser pulls is counted once.
+     */
+    private static final class InputLimit extends FilterInputStream {
+
+        private final long limit;
+        private long count;
+        private boolean exceeded;
+
+        InputLimit(InputStream in, long limit) {
+            super(in);
+            this.limit = limit > 0 ? limit : Long.MAX_VALUE;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b >= 0) {
+                advance(1);
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] buffer, int off, int len) throws IOException {
+            int n = super.read(buffer, off, len);
+            if (n > 0) {
+                advance(n);
+            }
+            return n;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            long skipped = super.skip(n);
+            if (skipped > 0) {
+                advance(skipped);
+            }
+            return skipped;
+        }
+
+        @Override
+        public boolean markSupported() {
+            return false;
+        }
+
+        @Override
+        public void mark(int readLimit) {
+        }
+
+        @Override
+        public void reset() throws IOException {
+            throw new IOException("mark/reset not supported");
+        }
+
+        boolean exceeded() {
+            return exceeded;
+        }
+
+        /**
+         * Throws when the limit was hit, even if the parser swallowed the failed read.
+         */
+        void check() throws IOException {
+            if (exceeded) {
+                throw new IOException("Read past " + limit + " bytes");
+            }
+        }
+
+        private void advance(long n) throws IOException {
+            count += n;
+            if (count > limit) {
+                exceeded = true;
+                check();
+            }
+        }
+    }
+
+    @FunctionalInterface
+    public interface ContentSource {
+        InputStream open() throws IOException;
+    }
+
+    /**
+     * Text and Tika metadata of one parse. {@code truncated} is set when the text hit
+     * {@code ecm.tika.max-text-length}.
+     */
+    public record ExtractionResult(String text, Map<String, String> metadata, boolean truncated) {
+
+        public ExtractionResult {
+            text = text != null ? text : "";
+            metadata = metadata != null ? Map.copyOf(metadata) : Map.of();
+        }
+
+        public String get(String name) {
+            return metadata.get(name);
+        }
+
+        int weight() {
+            return Math.max(1, text.length() + metadata.size() * 64);
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package com.ecm.core.service;
 
+import com.ecm.core.scheduler.ClusterJob;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.scheduling.annotation.Scheduled;
@@ -13,6 +14,7 @@ public class TransferReplicationScheduler {
     private final TransferReplicationService transferReplicationService;
 
     @Scheduled(cron = "${ecm.transfer.replication.scheduler-cron:0 */5 * * * *}")
+    @ClusterJob(mode = ClusterJob.Mode.PARTITIONED)
     public void runScheduledDefinitionsAndRetries() {
         TransferReplicationService.ScheduledReplicationBatchDto scheduled = transferReplicationService.runScheduledDefinitions();
         TransferReplicationService.RetriedReplicationBatchDto retries = transferReplicationService.runDueRetries();
@@ -26,6 +28,7 @@ public class TransferReplicationScheduler {
     }
 
     @Scheduled(cron = "${ecm.transfer.replication.cleanup-cron:0 20 4 * * *}")
+    @ClusterJob
     public void cleanupExpiredJobs() {
         TransferReplicationService.ReplicationJobRetentionCleanupDto cleanup = transferReplicationService.cleanupExpiredJobs();
         if (cleanup.deletedJobs() > 0) {
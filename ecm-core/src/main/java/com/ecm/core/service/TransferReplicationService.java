@@ -11,6 +11,7 @@ import com.ecm.core.repository.NodeRepository;
 import com.ecm.core.repository.ReplicationDefinitionRepository;
 import com.ecm.core.repository.ReplicationJobRepository;
 import com.ecm.core.repository.TransferTargetRepository;
+import com.ecm.core.scheduler.SchedulerPartition;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
@@ -250,7 +251,10 @@ public class TransferReplicationService {
 
     public ScheduledReplicationBatchDto runScheduledDefinitions() {
         List<ReplicationDefinition> dueDefinitions = replicationDefinitionRepository
-            .findByEnabledTrueAndCronExpressionIsNotNullAndNextRunAtIsNotNullAndNextRunAtLessThanEqual(LocalDateTime.now());
+            .findByEnabledTrueAndCronExpressionIsNotNullAndNextRunAtIsNotNullAndNextRunAtLessThanEqual(LocalDateTime.now())
+            .stream()
+            .filter(definition -> SchedulerPartition.current().owns(definition.getId()))
+            .toList();
         int queuedCount = 0;
         int skippedCount = 0;
         for (ReplicationDefinition definition : dueDefinitions) {
@@ -277,7 +281,9 @@ public class TransferReplicationService {
         List<ReplicationJob> dueRetries = replicationJobRepository.findByStatusAndScheduledForLessThanEqual(
             ReplicationJobStatus.PENDING,
             LocalDateTime.now()
-        );
+        ).stream()
+            .filter(job -> SchedulerPartition.current().owns(job.getId()))
+            .toList();
         int startedCount = 0;
         int skippedCount = 0;
         for (ReplicationJob job : dueRetries) {
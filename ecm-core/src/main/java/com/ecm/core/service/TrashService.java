@@ -5,6 +5,7 @@ import com.ecm.core.entity.Node;
 import com.ecm.core.entity.Permission.PermissionType;
 import com.ecm.core.repository.NodeRepository;
 import com.ecm.core.repository.RenditionResourceRepository;
+import com.ecm.core.scheduler.ClusterJob;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -281,6 +282,7 @@ public class TrashService {
      */
     @Scheduled(cron = "0 0 2 * * *") // Run daily at 2 AM
     @Transactional
+    @ClusterJob
     public void purgeOldTrashItems() {
         if (!autoPurgeEnabled) {
             log.debug("Auto-purge is disabled");
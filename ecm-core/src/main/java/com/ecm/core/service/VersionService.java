@@ -50,6 +50,9 @@ public class VersionService {
     @Lazy
     private LegalHoldService legalHoldService;
 
+    @Autowired
+    private ExtractedTextStore extractedTextStore;
+
     @Autowired
     @Lazy
     private RecordsManagementService recordsManagementService;
@@ -144,6 +147,7 @@ public class VersionService {
         String textContent = (String) metadata.get("textContent");
         if (textContent != null) {
             document.setTextContent(textContent);
+            extractedTextStore.storePending(document);
         }
         
         documentRepository.save(document);
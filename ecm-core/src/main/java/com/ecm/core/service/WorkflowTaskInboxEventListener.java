@@ -0,0 +1,100 @@
+package com.ecm.core.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.flowable.common.engine.api.delegate.event.FlowableEngineEventType;
+import org.flowable.common.engine.api.delegate.event.FlowableEntityEvent;
+import org.flowable.common.engine.api.delegate.event.FlowableEvent;
+import org.flowable.common.engine.api.delegate.event.FlowableEventListener;
+import org.flowable.identitylink.api.IdentityLink;
+import org.flowable.task.api.Task;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Supplier;
+
+/**
+ * Collects the ids of tasks touched inside a Flowable command and refreshes their inbox rows
+ * once, after the surrounding Spring transaction commits. Refreshing after commit keeps the
+ * projection off the engine's critical path and guarantees the projector reads committed data;
+ * a rolled-back transaction leaves the projection untouched.
+ */
+@Slf4j
+public class WorkflowTaskInboxEventListener implements FlowableEventListener {
+
+    private static final Object PENDING_KEY = WorkflowTaskInboxEventListener.class.getName() + ".pending";
+
+    private final Supplier<WorkflowTaskInboxProjector> projector;
+
+    public WorkflowTaskInboxEventListener(Supplier<WorkflowTaskInboxProjector> projector) {
+        this.projector = projector;
+    }
+
+    @Override
+    public void onEvent(FlowableEvent event) {
+        String taskId = resolveTaskId(event);
+        if (taskId == null) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            projector.get().refresh(taskId);
+            return;
+        }
+        @SuppressWarnings("unchecked")
+        Set<String> pending = (Set<String>) TransactionSynchronizationManager.getResource(PENDING_KEY);
+        if (pending == null) {
+            Set<String> taskIds = new LinkedHashSet<>();
+            TransactionSynchronizationManager.bindResource(PENDING_KEY, taskIds);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    projector.get().refreshAll(List.copyOf(taskIds));
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(PENDING_KEY);
+                }
+            });
+            pending = taskIds;
+        }
+        pending.add(taskId);
+    }
+
+    static String resolveTaskId(FlowableEvent event) {
+        if (!(event instanceof FlowableEntityEvent entityEvent) || !(event.getType() instanceof FlowableEngineEventType type)) {
+            return null;
+        }
+        Object entity = entityEvent.getEntity();
+        return switch (type) {
+            case TASK_CREATED, TASK_ASSIGNED, TASK_COMPLETED, ENTITY_UPDATED, ENTITY_DELETED, ENTITY_CREATED -> {
+                if (entity instanceof Task task) {
+                    yield task.getId();
+                }
+                if (entity instanceof IdentityLink link) {
+                    yield link.getTaskId();
+                }
+                yield null;
+            }
+            default -> null;
+        };
+    }
+
+    @Override
+    public boolean isFailOnException() {
+        // A projection problem must never roll back the workflow operation itself.
+        return false;
+    }
+
+    @Override
+    public boolean isFireOnTransactionLifecycleEvent() {
+        return false;
+    }
+
+    @Override
+    public String getOnTransaction() {
+        return null;
+    }
+}
@@ -0,0 +1,98 @@
+package com.ecm.core.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Pushes task-inbox change notifications to connected browsers over server-sent events.
+ * Subscribers are matched against the changed task's audience (assignee, owner, candidate
+ * users and candidate groups); the client then re-fetches the affected page and counts.
+ *
+ * <p>Emitters are held in memory, so each node only notifies its own connections about
+ * changes committed on that node. Clients should treat events as hints and keep polling
+ * {@code /counts} at a low rate.
+ */
+@Slf4j
+@Component
+public class WorkflowTaskInboxNotifier {
+
+    static final String EVENT_NAME = "task-inbox";
+
+    private final List<Subscription> subscriptions = new CopyOnWriteArrayList<>();
+
+    @Value("${ecm.workflow.inbox.sse-timeout-ms:1800000}")
+    private long sseTimeoutMs = 1_800_000L;
+
+    @Value("${ecm.workflow.inbox.max-subscribers:2000}")
+    private int maxSubscribers = 2000;
+
+    public SseEmitter subscribe(String username, Set<String> candidateKeys) {
+        if (subscriptions.size() >= maxSubscribers) {
+            throw new IllegalStateException("Too many task inbox subscribers");
+        }
+        SseEmitter emitter = new SseEmitter(sseTimeoutMs);
+        Subscription subscription = new Subscription(
+            username.toLowerCase(Locale.ROOT),
+            Set.copyOf(candidateKeys),
+            emitter
+        );
+        subscriptions.add(subscription);
+        emitter.onCompletion(() -> subscriptions.remove(subscription));
+        emitter.onTimeout(() -> subscriptions.remove(subscription));
+        emitter.onError(error -> subscriptions.remove(subscription));
+        return emitter;
+    }
+
+    public void publish(WorkflowTaskInboxProjector.Audience audience) {
+        if (audience == null || subscriptions.isEmpty()) {
+            return;
+        }
+        Map<String, Object> payload = Map.of(
+            "taskId", audience.taskId(),
+            "state", audience.state()
+        );
+        for (Subscription subscription : subscriptions) {
+            if (!matches(subscription, audience)) {
+                continue;
+            }
+            try {
+                subscription.emitter().send(SseEmitter.event().name(EVENT_NAME).data(payload));
+            } catch (IOException | IllegalStateException e) {
+                subscriptions.remove(subscription);
+                subscription.emitter().completeWithError(e);
+            }
+        }
+    }
+
+    public int subscriberCount() {
+        return subscriptions.size();
+    }
+
+    private static boolean matches(Subscription subscription, WorkflowTaskInboxProjector.Audience audience) {
+        if (audience.shared() || audience.users().contains(subscription.username())) {
+            return true;
+        }
+        return intersects(subscription.candidateKeys(), audience.groups());
+    }
+
+    private static boolean intersects(Set<String> keys, Collection<String> groups) {
+        for (String group : groups) {
+            if (keys.contains(group)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private record Subscription(String username, Set<String> candidateKeys, SseEmitter emitter) {}
+}
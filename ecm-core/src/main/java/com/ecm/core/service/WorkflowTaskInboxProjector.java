@@ -0,0 +1,459 @@
+package com.ecm.core.service;
+
+import com.ecm.core.entity.WorkflowTaskInboxEntry;
+import com.ecm.core.entity.WorkflowTaskInboxLink;
+import com.ecm.core.repository.WorkflowTaskInboxEntryRepository;
+import com.ecm.core.repository.WorkflowTaskInboxLinkRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.flowable.engine.HistoryService;
+import org.flowable.engine.RepositoryService;
+import org.flowable.engine.RuntimeService;
+import org.flowable.engine.TaskService;
+import org.flowable.engine.history.HistoricProcessInstance;
+import org.flowable.engine.repository.ProcessDefinition;
+import org.flowable.identitylink.api.IdentityLink;
+import org.flowable.task.api.Task;
+import org.flowable.task.api.TaskInfo;
+import org.flowable.task.api.history.HistoricTaskInstance;
+import org.flowable.variable.api.history.HistoricVariableInstance;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Keeps {@code workflow_task_inbox} in sync with Flowable. Each refresh re-reads one task from
+ * the engine and overwrites its projection row, so refreshes are idempotent and safe to repeat
+ * (after-commit events, rebuilds, or both). {@link #findDriftedTaskIds()} finds rows a lost
+ * after-commit refresh left behind so {@code WorkflowTaskInboxReconcileScheduler} can refresh them.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class WorkflowTaskInboxProjector {
+
+    private static final int REBUILD_PAGE_SIZE = 500;
+
+    private final TaskService taskService;
+    private final HistoryService historyService;
+    private final RuntimeService runtimeService;
+    private final RepositoryService repositoryService;
+    private final WorkflowTaskInboxEntryRepository entryRepository;
+    private final WorkflowTaskInboxLinkRepository linkRepository;
+
+    @org.springframework.beans.factory.annotation.Autowired
+    @org.springframework.context.annotation.Lazy
+    private WorkflowTaskInboxNotifier notifier;
+
+    @Value("${ecm.workflow.inbox.enabled:true}")
+    private boolean enabled = true;
+
+    @Value("${ecm.workflow.inbox.rebuild-on-startup:true}")
+    private boolean rebuildOnStartup = true;
+
+    @Value("${ecm.workflow.inbox.rebuild-history-days:30}")
+    private int rebuildHistoryDays = 30;
+
+    /**
+     * Refresh a set of tasks touched by one committed Flowable transaction.
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void refreshAll(Collection<String> taskIds) {
+        if (!enabled || taskIds == null) {
+            return;
+        }
+        List<Audience> changes = new ArrayList<>();
+        for (String taskId : new LinkedHashSet<>(taskIds)) {
+            try {
+                changes.add(refreshInternal(taskId));
+            } catch (Exception e) {
+                log.warn("Failed to refresh workflow inbox projection for task {}: {}", taskId, e.getMessage());
+            }
+        }
+        if (notifier != null) {
+            changes.forEach(notifier::publish);
+        }
+    }
+
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void refresh(String taskId) {
+        refreshAll(List.of(taskId));
+    }
+
+    /**
+     * Re-project every active task plus tasks completed within {@code rebuild-history-days}.
+     *
+     * @return number of tasks projected
+     */
+    @Transactional
+    public int rebuild() {
+        int projected = 0;
+        int offset = 0;
+        while (true) {
+            List<Task> page = taskService.createTaskQuery()
+                .orderByTaskId().asc()
+                .listPage(offset, REBUILD_PAGE_SIZE);
+            for (Task task : page) {
+                project(task);
+                projected++;
+            }
+            if (page.size() < REBUILD_PAGE_SIZE) {
+                break;
+            }
+            offset += REBUILD_PAGE_SIZE;
+        }
+
+        Date completedAfter = Date.from(LocalDateTime.now()
+            .minusDays(Math.max(rebuildHistoryDays, 0))
+            .atZone(ZoneId.systemDefault())
+            .toInstant());
+        offset = 0;
+        while (true) {
+            List<HistoricTaskInstance> page = historyService.createHistoricTaskInstanceQuery()
+                .finished()
+                .taskCompletedAfter(completedAfter)
+                .orderByHistoricTaskInstanceEndTime().asc()
+                .listPage(offset, REBUILD_PAGE_SIZE);
+            for (HistoricTaskInstance task : page) {
+                projectCompleted(task);
+                projected++;
+            }
+            if (page.size() < REBUILD_PAGE_SIZE) {
+                break;
+            }
+            offset += REBUILD_PAGE_SIZE;
+        }
+        log.info("Rebuilt workflow task inbox projection: {} tasks", projected);
+        return projected;
+    }
+
+    @Async
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildIfEmpty() {
+        if (!enabled || !rebuildOnStartup) {
+            return;
+        }
+        try {
+            if (entryRepository.count() == 0) {
+                rebuild();
+            }
+        } catch (Exception e) {
+            log.warn("Initial workflow inbox projection rebuild failed: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Active Flowable tasks whose row is missing or differs in state, name, assignee, owner, due date
+     * or delegation state, plus ACTIVE rows whose task is no longer active. Candidate and participant
+     * link changes alone are not detected; {@link #rebuild()} re-projects those.
+     */
+    @Transactional(readOnly = true)
+    public Set<String> findDriftedTaskIds() {
+        if (!enabled) {
+            return Set.of();
+        }
+        Set<String> drifted = new LinkedHashSet<>();
+        Set<String> activeTaskIds = new HashSet<>();
+        int offset = 0;
+        while (true) {
+            List<Task> page = taskService.createTaskQuery()
+                .orderByTaskId().asc()
+                .listPage(offset, REBUILD_PAGE_SIZE);
+            Map<String, WorkflowTaskInboxEntry> rows = new HashMap<>();
+            entryRepository.findAllById(page.stream().map(Task::getId).toList())
+                .forEach(row -> rows.put(row.getTaskId(), row));
+            for (Task task : page) {
+                activeTaskIds.add(task.getId());
+                if (!matches(rows.get(task.getId()), task)) {
+                    drifted.add(task.getId());
+                }
+            }
+            if (page.size() < REBUILD_PAGE_SIZE) {
+                break;
+            }
+            offset += REBUILD_PAGE_SIZE;
+        }
+        for (String taskId : entryRepository.findTaskIdsByState(WorkflowTaskInboxEntry.State.ACTIVE)) {
+            if (!activeTaskIds.contains(taskId)) {
+                drifted.add(taskId);
+            }
+        }
+        return drifted;
+    }
+
+    private static boolean matches(WorkflowTaskInboxEntry row, Task task) {
+        return row != null
+            && row.getState() == WorkflowTaskInboxEntry.State.ACTIVE
+            && Objects.equals(row.getName(), task.getName())
+            && Objects.equals(row.getAssignee(), trimToNull(task.getAssignee()))
+            && Objects.equals(row.getOwner(), trimToNull(task.getOwner()))
+            && Objects.equals(row.getDueDate(), toLocalDateTime(task.getDueDate()))
+            && Objects.equals(row.getDelegationState(),
+                task.getDelegationState() != null ? task.getDelegationState().name() : null);
+    }
+
+    Audience refreshInternal(String taskId) {
+        Audience before = entryRepository.findById(taskId)
+            .map(entry -> Audience.of(entry, linkRepository.findByTaskId(taskId)))
+            .orElse(null);
+
+        Task task = taskService.createTaskQuery().taskId(taskId).singleResult();
+        if (task != null) {
+            return project(task).mergedWith(before);
+        }
+        HistoricTaskInstance historic = historyService.createHistoricTaskInstanceQuery()
+            .taskId(taskId)
+            .singleResult();
+        if (historic != null && historic.getEndTime() != null) {
+            return projectCompleted(historic).mergedWith(before);
+        }
+        // Deleted without history (e.g. the process was deleted and history is off).
+        linkRepository.deleteByTaskId(taskId);
+        entryRepository.deleteById(taskId);
+        return Audience.removed(taskId).mergedWith(before);
+    }
+
+    private Audience project(Task task) {
+        WorkflowTaskInboxEntry entry = entryRepository.findById(task.getId()).orElseGet(WorkflowTaskInboxEntry::new);
+        applyCommon(entry, task);
+        entry.setState(WorkflowTaskInboxEntry.State.ACTIVE);
+        entry.setDelegationState(task.getDelegationState() != null ? task.getDelegationState().name() : null);
+        entry.setCompletedAt(null);
+        entry.setSortTime(firstNonNull(toLocalDateTime(task.getCreateTime()), LocalDateTime.now()));
+        entry.setUpdatedAt(LocalDateTime.now());
+        entryRepository.save(entry);
+
+        List<WorkflowTaskInboxLink> links = new ArrayList<>();
+        for (IdentityLink link : taskService.getIdentityLinksForTask(task.getId())) {
+            WorkflowTaskInboxLink.LinkType type = "candidate".equalsIgnoreCase(link.getType())
+                ? WorkflowTaskInboxLink.LinkType.CANDIDATE
+                : WorkflowTaskInboxLink.LinkType.PARTICIPANT;
+            String userId = trimToNull(link.getUserId());
+            String groupId = trimToNull(link.getGroupId());
+            if (userId == null && groupId == null) {
+                continue;
+            }
+            links.add(link(task.getId(), type, userId, groupId, null));
+        }
+        Map<String, Object> variables = task.getProcessInstanceId() != null
+            ? runtimeService.getVariables(task.getProcessInstanceId())
+            : Map.of();
+        for (UUID nodeId : resolveBusinessNodeIds(entry.getBusinessKey(), variables)) {
+            links.add(link(task.getId(), WorkflowTaskInboxLink.LinkType.BUSINESS_NODE, null, null, nodeId));
+        }
+        linkRepository.deleteByTaskId(task.getId());
+        linkRepository.saveAll(links);
+        return Audience.of(entry, links);
+    }
+
+    private Audience projectCompleted(HistoricTaskInstance task) {
+        WorkflowTaskInboxEntry entry = entryRepository.findById(task.getId()).orElseGet(WorkflowTaskInboxEntry::new);
+        applyCommon(entry, task);
+        entry.setState(WorkflowTaskInboxEntry.State.COMPLETED);
+        entry.setDelegationState(null);
+        entry.setCompletedAt(toLocalDateTime(task.getEndTime()));
+        entry.setSortTime(firstNonNull(entry.getCompletedAt(), toLocalDateTime(task.getCreateTime()), LocalDateTime.now()));
+        entry.setUpdatedAt(LocalDateTime.now());
+        entryRepository.save(entry);
+
+        // Completed tasks are listed by assignee only; keep just the tenant visibility links.
+        List<WorkflowTaskInboxLink> links = new ArrayList<>();
+        for (UUID nodeId : resolveBusinessNodeIds(entry.getBusinessKey(), historicVariables(task.getProcessInstanceId()))) {
+            links.add(link(task.getId(), WorkflowTaskInboxLink.LinkType.BUSINESS_NODE, null, null, nodeId));
+        }
+        linkRepository.deleteByTaskId(task.getId());
+        linkRepository.saveAll(links);
+        return Audience.of(entry, links);
+    }
+
+    private void applyCommon(WorkflowTaskInboxEntry entry, TaskInfo task) {
+        boolean newEntry = entry.getUpdatedAt() == null;
+        boolean definitionChanged = entry.getProcessDefinitionKey() == null
+            || !Objects.equals(entry.getProcessDefinitionId(), task.getProcessDefinitionId());
+
+        entry.setTaskId(task.getId());
+        entry.setName(task.getName());
+        entry.setDescription(truncate(task.getDescription(), 4000));
+        entry.setAssignee(trimToNull(task.getAssignee()));
+        entry.setOwner(trimToNull(task.getOwner()));
+        entry.setTaskCreatedAt(toLocalDateTime(task.getCreateTime()));
+        entry.setDueDate(toLocalDateTime(task.getDueDate()));
+        entry.setProcessInstanceId(task.getProcessInstanceId());
+        entry.setProcessDefinitionId(task.getProcessDefinitionId());
+        entry.setTaskDefinitionKey(task.getTaskDefinitionKey());
+
+        // Definition and process metadata are immutable for a task; only look them up once.
+        if (definitionChanged && task.getProcessDefinitionId() != null) {
+            ProcessDefinition definition = repositoryService.createProcessDefinitionQuery()
+                .processDefinitionId(task.getProcessDefinitionId())
+                .singleResult();
+            entry.setProcessDefinitionKey(definition != null ? definition.getKey() : null);
+            entry.setProcessDefinitionName(definition != null ? definition.getName() : null);
+            entry.setProcessDefinitionVersion(definition != null ? definition.getVersion() : null);
+        }
+        if (newEntry && task.getProcessInstanceId() != null) {
+            HistoricProcessInstance process = historyService.createHistoricProcessInstanceQuery()
+                .processInstanceId(task.getProcessInstanceId())
+                .singleResult();
+            entry.setBusinessKey(process != null ? trimToNull(process.getBusinessKey()) : null);
+            entry.setStartedBy(process != null ? trimToNull(process.getStartUserId()) : null);
+        }
+    }
+
+    private Map<String, Object> historicVariables(String processInstanceId) {
+        if (processInstanceId == null) {
+            return Map.of();
+        }
+        Map<String, Object> variables = new LinkedHashMap<>();
+        for (HistoricVariableInstance variable : historyService.createHistoricVariableInstanceQuery()
+            .processInstanceId(processInstanceId)
+            .list()) {
+            variables.put(variable.getVariableName(), variable.getValue());
+        }
+        return variables;
+    }
+
+    /**
+     * Same candidate sources as {@code WorkflowService} uses for tenant-scoped process
+     * visibility: business key, {@code documentId}, {@code nodeId} and {@code attachedItemIds}.
+     */
+    static Set<UUID> resolveBusinessNodeIds(String businessKey, Map<String, Object> variables) {
+        LinkedHashSet<UUID> nodeIds = new LinkedHashSet<>();
+        addNodeId(nodeIds, businessKey);
+        if (variables == null || variables.isEmpty()) {
+            return nodeIds;
+        }
+        addNodeId(nodeIds, variables.get("documentId"));
+        addNodeId(nodeIds, variables.get("nodeId"));
+        Object attachedItemIds = variables.get("attachedItemIds");
+        if (attachedItemIds instanceof List<?> listValue) {
+            listValue.forEach(itemId -> addNodeId(nodeIds, itemId));
+        } else {
+            addNodeId(nodeIds, attachedItemIds);
+        }
+        return nodeIds;
+    }
+
+    private static void addNodeId(Set<UUID> nodeIds, Object candidate) {
+        String normalized = candidate != null ? trimToNull(candidate.toString()) : null;
+        if (normalized == null) {
+            return;
+        }
+        try {
+            nodeIds.add(UUID.fromString(normalized));
+        } catch (IllegalArgumentException ignored) {
+            // Non-node business keys carry no tenant scope.
+        }
+    }
+
+    private static WorkflowTaskInboxLink link(
+        String taskId,
+        WorkflowTaskInboxLink.LinkType type,
+        String userId,
+        String groupId,
+        UUID nodeId
+    ) {
+        WorkflowTaskInboxLink link = new WorkflowTaskInboxLink();
+        link.setTaskId(taskId);
+        link.setLinkType(type);
+        link.setUserId(userId);
+        link.setGroupId(groupId);
+        link.setNodeId(nodeId);
+        return link;
+    }
+
+    private static LocalDateTime toLocalDateTime(Date date) {
+        return date != null ? LocalDateTime.ofInstant(date.toInstant(), ZoneId.systemDefault()) : null;
+    }
+
+    @SafeVarargs
+    private static <T> T firstNonNull(T... values) {
+        for (T value : values) {
+            if (value != null) {
+                return value;
+            }
+        }
+        return null;
+    }
+
+    private static String trimToNull(String value) {
+        if (value == null) {
+            return null;
+        }
+        String trimmed = value.trim();
+        return trimmed.isEmpty() ? null : trimmed;
+    }
+
+    private static String truncate(String value, int maxLength) {
+        if (value == null || value.length() <= maxLength) {
+            return value;
+        }
+        return value.substring(0, maxLength);
+    }
+
+    /**
+     * Who may see a change to one task: users and candidate groups before and after the change.
+     * {@code shared} marks unassigned tasks, which appear in every user's SHARED view.
+     */
+    public record Audience(String taskId, String state, Set<String> users, Set<String> groups, boolean shared) {
+
+        static Audience of(WorkflowTaskInboxEntry entry, Collection<WorkflowTaskInboxLink> links) {
+            Set<String> users = new LinkedHashSet<>();
+            Set<String> groups = new LinkedHashSet<>();
+            addLower(users, entry.getAssignee());
+            addLower(users, entry.getOwner());
+            for (WorkflowTaskInboxLink link : links) {
+                if (link.getLinkType() == WorkflowTaskInboxLink.LinkType.BUSINESS_NODE) {
+                    continue;
+                }
+                addLower(users, link.getUserId());
+                if (link.getGroupId() != null) {
+                    groups.add(link.getGroupId());
+                }
+            }
+            boolean shared = entry.getState() == WorkflowTaskInboxEntry.State.ACTIVE && entry.getAssignee() == null;
+            return new Audience(entry.getTaskId(), entry.getState().name(), users, groups, shared);
+        }
+
+        static Audience removed(String taskId) {
+            return new Audience(taskId, "DELETED", new LinkedHashSet<>(), new LinkedHashSet<>(), false);
+        }
+
+        Audience mergedWith(Audience previous) {
+            if (previous == null) {
+                return this;
+            }
+            Set<String> mergedUsers = new LinkedHashSet<>(users);
+            mergedUsers.addAll(previous.users());
+            Set<String> mergedGroups = new LinkedHashSet<>(groups);
+            mergedGroups.addAll(previous.groups());
+            return new Audience(taskId, state, mergedUsers, mergedGroups, shared || previous.shared());
+        }
+
+        private static void addLower(Set<String> target, String value) {
+            if (value != null && !value.isBlank()) {
+                target.add(value.trim().toLowerCase(Locale.ROOT));
+            }
+        }
+    }
+}
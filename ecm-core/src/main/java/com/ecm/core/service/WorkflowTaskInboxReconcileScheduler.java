@@ -0,0 +1,54 @@
+package com.ecm.core.service;
+
+import com.ecm.core.scheduler.ClusterJob;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Periodically repairs the workflow task inbox projection. After-commit refreshes are lost when a
+ * node stops between the Flowable commit and the refresh, or the refresh itself fails, and the
+ * startup rebuild only runs against an empty table, so drifted rows are found and refreshed here.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class WorkflowTaskInboxReconcileScheduler {
+
+    private static final int REFRESH_BATCH_SIZE = 200;
+
+    private final WorkflowTaskInboxProjector projector;
+
+    @Value("${ecm.workflow.inbox.reconcile.enabled:true}")
+    private boolean enabled;
+
+    @Scheduled(
+        fixedDelayString = "${ecm.workflow.inbox.reconcile.fixed-delay-ms:300000}",
+        initialDelayString = "${ecm.workflow.inbox.reconcile.initial-delay-ms:300000}"
+    )
+    @ClusterJob
+    public void reconcile() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            Set<String> drifted = projector.findDriftedTaskIds();
+            if (drifted.isEmpty()) {
+                return;
+            }
+            List<String> taskIds = new ArrayList<>(drifted);
+            for (int from = 0; from < taskIds.size(); from += REFRESH_BATCH_SIZE) {
+                projector.refreshAll(taskIds.subList(from, Math.min(from + REFRESH_BATCH_SIZE, taskIds.size())));
+            }
+            log.info("Reconciled workflow task inbox projection: refreshed {} drifted tasks", taskIds.size());
+        } catch (Exception e) {
+            log.warn("Workflow task inbox reconcile failed: {}", e.getMessage());
+        }
+    }
+}
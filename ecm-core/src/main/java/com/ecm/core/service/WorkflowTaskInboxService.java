@@ -0,0 +1,419 @@
+package com.ecm.core.service;
+
+import com.ecm.core.entity.Node;
+import com.ecm.core.entity.WorkflowTaskInboxEntry;
+import com.ecm.core.entity.WorkflowTaskInboxLink;
+import com.ecm.core.repository.UserRepository;
+import com.ecm.core.repository.WorkflowTaskInboxEntryRepository;
+import com.ecm.core.repository.WorkflowTaskInboxLinkRepository;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Subquery;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Read side of the workflow task inbox. Every scope and filter is a single indexed query
+ * against {@code workflow_task_inbox}, paged by keyset on {@code (sort_time, task_id)} and
+ * counted with one {@code COUNT} per scope, instead of loading and merging Flowable task
+ * queries in memory like {@link WorkflowService#listTasks}.
+ */
+@Service
+@RequiredArgsConstructor
+public class WorkflowTaskInboxService {
+
+    public static final List<String> SCOPES = List.of(
+        "ASSIGNED", "CLAIMABLE", "SHARED", "INVOLVED", "ALL_ACTIVE", "COMPLETED", "ALL"
+    );
+
+    private static final int MAX_LIMIT = 200;
+    private static final Sort KEYSET_SORT = Sort.by(Sort.Order.desc("sortTime"), Sort.Order.desc("taskId"));
+    /** Sorts after every real task id. */
+    private static final KeysetCursor<String> HEAD = KeysetCursor.head("\uffff");
+
+    private final WorkflowTaskInboxEntryRepository entryRepository;
+    private final WorkflowTaskInboxLinkRepository linkRepository;
+    private final UserRepository userRepository;
+    private final SecurityService securityService;
+    private final TenantWorkspaceScopeService tenantWorkspaceScopeService;
+    private final WorkflowTaskInboxNotifier notifier;
+
+    @Value("${ecm.workflow.inbox.enabled:true}")
+    private boolean enabled = true;
+
+    /**
+     * Whether the projection is maintained; callers fall back to {@link WorkflowService#listTasks} when not.
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @Transactional(readOnly = true)
+    public InboxPage listTasks(InboxFilter filter, String cursor, int limit) {
+        String username = resolveUser(filter.assignee());
+        String scope = normalizeScope(filter.scope());
+        validateCandidateScope(scope, filter);
+        Set<String> candidateKeys = resolveCandidateKeys(username);
+        String tenantRootPath = tenantWorkspaceScopeService.resolveCurrentTenantRootPath();
+        if (tenantRootPath != null && tenantRootPath.isBlank()) {
+            return new InboxPage(List.of(), null, false);
+        }
+
+        int pageSize = Math.min(Math.max(limit, 1), MAX_LIMIT);
+        KeysetCursor<String> after = KeysetCursor.parse(cursor, Function.identity(), HEAD, "task inbox cursor");
+        Specification<WorkflowTaskInboxEntry> spec = scopeSpec(scope, username, candidateKeys)
+            .and(filterSpec(filter))
+            .and(tenantSpec(tenantRootPath))
+            .and(keysetSpec(after));
+        List<WorkflowTaskInboxEntry> rows = entryRepository
+            .findAll(spec, PageRequest.of(0, pageSize + 1, KEYSET_SORT))
+            .getContent();
+
+        boolean hasMore = rows.size() > pageSize;
+        List<WorkflowTaskInboxEntry> pageRows = hasMore ? rows.subList(0, pageSize) : rows;
+        Map<String, List<WorkflowTaskInboxLink>> linksByTask = pageRows.isEmpty()
+            ? Map.of()
+            : linkRepository.findByTaskIdIn(pageRows.stream().map(WorkflowTaskInboxEntry::getTaskId).toList()).stream()
+                .collect(Collectors.groupingBy(WorkflowTaskInboxLink::getTaskId));
+
+        List<WorkflowService.WorkflowTaskSummary> items = new ArrayList<>(pageRows.size());
+        for (WorkflowTaskInboxEntry row : pageRows) {
+            items.add(toSummary(row, linksByTask.getOrDefault(row.getTaskId(), List.of()), username, candidateKeys));
+        }
+        String nextCursor = hasMore && !pageRows.isEmpty()
+            ? cursorOf(pageRows.get(pageRows.size() - 1)).serialize()
+            : null;
+        return new InboxPage(items, nextCursor, hasMore);
+    }
+
+    /**
+     * Number of tasks per inbox scope for the same filters, one indexed COUNT each.
+     */
+    @Transactional(readOnly = true)
+    public Map<String, Long> countTasks(InboxFilter filter) {
+        String username = resolveUser(filter.assignee());
+        Set<String> candidateKeys = resolveCandidateKeys(username);
+        String tenantRootPath = tenantWorkspaceScopeService.resolveCurrentTenantRootPath();
+        Map<String, Long> counts = new LinkedHashMap<>();
+        for (String scope : SCOPES) {
+            if (tenantRootPath != null && tenantRootPath.isBlank()) {
+                counts.put(scope, 0L);
+                continue;
+            }
+            counts.put(scope, entryRepository.count(
+                scopeSpec(scope, username, candidateKeys)
+                    .and(filterSpec(filter))
+                    .and(tenantSpec(tenantRootPath))
+            ));
+        }
+        return counts;
+    }
+
+    @Transactional(readOnly = true)
+    public SseEmitter subscribe() {
+        String username = securityService.getCurrentUser();
+        return notifier.subscribe(username, resolveCandidateKeys(username));
+    }
+
+    /**
+     * The inbox owner: the {@code assignee} override when given, else the caller, as in
+     * {@link WorkflowService#listTasks}.
+     */
+    private String resolveUser(String assigneeOverride) {
+        String override = trimToNull(assigneeOverride);
+        return override != null ? override : securityService.getCurrentUser();
+    }
+
+    /**
+     * Candidate filters only make sense for unassigned tasks, as in {@link WorkflowService#listTasks}.
+     */
+    private static void validateCandidateScope(String scope, InboxFilter filter) {
+        if (trimToNull(filter.candidateUser()) == null && trimToNull(filter.candidateGroup()) == null) {
+            return;
+        }
+        if (!Set.of("CLAIMABLE", "SHARED", "ALL_ACTIVE").contains(scope)) {
+            throw new IllegalArgumentException("Filtering on candidateUser or candidateGroup is only allowed for active shared or claimable scopes");
+        }
+    }
+
+    /**
+     * Username plus group names and ids, the same keys Flowable candidate groups are matched
+     * against in {@link WorkflowService}.
+     */
+    Set<String> resolveCandidateKeys(String username) {
+        LinkedHashSet<String> keys = new LinkedHashSet<>();
+        String normalizedUsername = trimToNull(username);
+        if (normalizedUsername == null) {
+            return keys;
+        }
+        keys.add(normalizedUsername);
+        userRepository.findByUsername(normalizedUsername).ifPresent(user -> user.getGroups().forEach(group -> {
+            String groupName = trimToNull(group.getName());
+            if (groupName != null) {
+                keys.add(groupName);
+            }
+            if (group.getId() != null) {
+                keys.add(group.getId().toString());
+            }
+        }));
+        return keys;
+    }
+
+    static String normalizeScope(String scope) {
+        String normalized = trimToNull(scope);
+        if (normalized == null) {
+            return "ASSIGNED";
+        }
+        String upper = normalized.toUpperCase(Locale.ROOT);
+        if (!SCOPES.contains(upper)) {
+            throw new IllegalArgumentException("Unsupported workflow task scope: " + scope);
+        }
+        return upper;
+    }
+
+    private Specification<WorkflowTaskInboxEntry> scopeSpec(String scope, String username, Set<String> candidateKeys) {
+        return (root, query, cb) -> {
+            Predicate active = cb.equal(root.get("state"), WorkflowTaskInboxEntry.State.ACTIVE);
+            Predicate completed = cb.equal(root.get("state"), WorkflowTaskInboxEntry.State.COMPLETED);
+            Predicate assignedToUser = cb.equal(root.get("assignee"), username);
+            Predicate unassigned = cb.isNull(root.get("assignee"));
+            return switch (scope) {
+                case "ASSIGNED" -> cb.and(active, assignedToUser);
+                case "CLAIMABLE" -> cb.and(active, unassigned,
+                    linkExists(root, query, cb, List.of(WorkflowTaskInboxLink.LinkType.CANDIDATE), username, candidateKeys));
+                case "SHARED" -> cb.and(active, unassigned);
+                case "INVOLVED" -> cb.and(active, cb.or(
+                    assignedToUser,
+                    cb.equal(root.get("owner"), username),
+                    linkExists(root, query, cb,
+                        List.of(WorkflowTaskInboxLink.LinkType.CANDIDATE, WorkflowTaskInboxLink.LinkType.PARTICIPANT),
+                        username, candidateKeys)
+                ));
+                case "ALL_ACTIVE" -> cb.and(active, cb.or(assignedToUser, unassigned));
+                case "COMPLETED" -> cb.and(completed, assignedToUser);
+                case "ALL" -> cb.or(assignedToUser, cb.and(active, unassigned));
+                default -> throw new IllegalArgumentException("Unsupported workflow task scope: " + scope);
+            };
+        };
+    }
+
+    private Specification<WorkflowTaskInboxEntry> filterSpec(InboxFilter filter) {
+        return (root, query, cb) -> {
+            List<Predicate> predicates = new ArrayList<>();
+            String owner = trimToNull(filter.owner());
+            if (owner != null) {
+                predicates.add(cb.equal(cb.lower(root.get("owner")), owner.toLowerCase(Locale.ROOT)));
+            }
+            String processId = trimToNull(filter.processId());
+            if (processId != null) {
+                predicates.add(cb.equal(root.get("processInstanceId"), processId));
+            }
+            String businessKey = trimToNull(filter.businessKey());
+            if (businessKey != null) {
+                predicates.add(cb.like(cb.lower(root.get("businessKey")), containsPattern(businessKey)));
+            }
+            String candidateUser = trimToNull(filter.candidateUser());
+            if (candidateUser != null) {
+                predicates.add(linkMatches(root, query, cb, "userId", candidateUser));
+            }
+            String candidateGroup = trimToNull(filter.candidateGroup());
+            if (candidateGroup != null) {
+                predicates.add(linkMatches(root, query, cb, "groupId", candidateGroup));
+            }
+            String text = trimToNull(filter.query());
+            if (text != null) {
+                String pattern = containsPattern(text);
+                predicates.add(cb.or(
+                    cb.like(cb.lower(root.get("name")), pattern),
+                    cb.like(cb.lower(root.get("description")), pattern),
+                    cb.like(cb.lower(root.get("assignee")), pattern),
+                    cb.like(cb.lower(root.get("owner")), pattern),
+                    cb.like(cb.lower(root.get("taskDefinitionKey")), pattern),
+                    cb.like(cb.lower(root.get("processDefinitionKey")), pattern),
+                    cb.like(cb.lower(root.get("processDefinitionName")), pattern),
+                    cb.like(cb.lower(root.get("businessKey")), pattern),
+                    cb.like(cb.lower(root.get("startedBy")), pattern)
+                ));
+            }
+            return cb.and(predicates.toArray(new Predicate[0]));
+        };
+    }
+
+    /**
+     * Tenant-scoped callers only see tasks whose process references a live node under the
+     * tenant root, mirroring {@code WorkflowService#isProcessVisible}.
+     */
+    private Specification<WorkflowTaskInboxEntry> tenantSpec(String tenantRootPath) {
+        return (root, query, cb) -> {
+            if (tenantRootPath == null) {
+                return cb.conjunction();
+            }
+            Subquery<String> visible = query.subquery(String.class);
+            Root<WorkflowTaskInboxLink> link = visible.from(WorkflowTaskInboxLink.class);
+            Root<Node> node = visible.from(Node.class);
+            visible.select(link.get("taskId")).where(
+                cb.equal(link.get("taskId"), root.get("taskId")),
+                cb.equal(link.get("linkType"), WorkflowTaskInboxLink.LinkType.BUSINESS_NODE),
+                cb.equal(node.get("id"), link.get("nodeId")),
+                cb.isFalse(node.get("deleted")),
+                cb.equal(node.get("archiveStatus"), Node.ArchiveStatus.LIVE),
+                cb.or(
+                    cb.equal(node.get("path"), tenantRootPath),
+                    cb.like(node.get("path"), escapeLike(tenantRootPath) + "/%", '\\')
+                )
+            );
+            return cb.exists(visible);
+        };
+    }
+
+    private static KeysetCursor<String> cursorOf(WorkflowTaskInboxEntry entry) {
+        return new KeysetCursor<>(entry.getSortTime(), entry.getTaskId());
+    }
+
+    private Specification<WorkflowTaskInboxEntry> keysetSpec(KeysetCursor<String> after) {
+        return (root, query, cb) -> cb.or(
+            cb.lessThan(root.get("sortTime"), after.time()),
+            cb.and(
+                cb.equal(root.get("sortTime"), after.time()),
+                cb.lessThan(root.get("taskId"), after.id())
+            )
+        );
+    }
+
+    private Predicate linkExists(
+        Root<WorkflowTaskInboxEntry> root,
+        jakarta.persistence.criteria.CriteriaQuery<?> query,
+        CriteriaBuilder cb,
+        List<WorkflowTaskInboxLink.LinkType> types,
+        String username,
+        Set<String> candidateKeys
+    ) {
+        Subquery<String> subquery = query.subquery(String.class);
+        Root<WorkflowTaskInboxLink> link = subquery.from(WorkflowTaskInboxLink.class);
+        Predicate identity = cb.equal(cb.lower(link.get("userId")), username.toLowerCase(Locale.ROOT));
+        if (!candidateKeys.isEmpty()) {
+            identity = cb.or(identity, link.get("groupId").in(candidateKeys));
+        }
+        subquery.select(link.get("taskId")).where(
+            cb.equal(link.get("taskId"), root.get("taskId")),
+            link.get("linkType").in(types),
+            identity
+        );
+        return cb.exists(subquery);
+    }
+
+    private Predicate linkMatches(
+        Root<WorkflowTaskInboxEntry> root,
+        jakarta.persistence.criteria.CriteriaQuery<?> query,
+        CriteriaBuilder cb,
+        String attribute,
+        String value
+    ) {
+        Subquery<String> subquery = query.subquery(String.class);
+        Root<WorkflowTaskInboxLink> link = subquery.from(WorkflowTaskInboxLink.class);
+        subquery.select(link.get("taskId")).where(
+            cb.equal(link.get("taskId"), root.get("taskId")),
+            cb.equal(link.get("linkType"), WorkflowTaskInboxLink.LinkType.CANDIDATE),
+            cb.equal(cb.lower(link.get(attribute)), value.toLowerCase(Locale.ROOT))
+        );
+        return cb.exists(subquery);
+    }
+
+    private WorkflowService.WorkflowTaskSummary toSummary(
+        WorkflowTaskInboxEntry row,
+        List<WorkflowTaskInboxLink> links,
+        String username,
+        Set<String> candidateKeys
+    ) {
+        boolean active = row.getState() == WorkflowTaskInboxEntry.State.ACTIVE;
+        boolean claimable = active && row.getAssignee() == null && links.stream()
+            .filter(link -> link.getLinkType() == WorkflowTaskInboxLink.LinkType.CANDIDATE)
+            .anyMatch(link -> (link.getUserId() != null && link.getUserId().equalsIgnoreCase(username))
+                || (link.getGroupId() != null && candidateKeys.contains(link.getGroupId())));
+        String status;
+        if (!active) {
+            status = "COMPLETED";
+        } else if ("PENDING".equalsIgnoreCase(row.getDelegationState())) {
+            status = "DELEGATED";
+        } else if (row.getAssignee() == null) {
+            status = claimable ? "CLAIMABLE" : "SHARED";
+        } else {
+            status = "ASSIGNED";
+        }
+        return new WorkflowService.WorkflowTaskSummary(
+            row.getTaskId(),
+            row.getName(),
+            row.getAssignee(),
+            row.getOwner(),
+            row.getDelegationState(),
+            row.getDescription(),
+            toDate(row.getTaskCreatedAt()),
+            toDate(row.getDueDate()),
+            row.getProcessInstanceId(),
+            row.getProcessDefinitionId(),
+            row.getTaskDefinitionKey(),
+            row.getProcessDefinitionKey(),
+            row.getProcessDefinitionName(),
+            row.getProcessDefinitionVersion(),
+            row.getBusinessKey(),
+            row.getStartedBy(),
+            claimable,
+            status,
+            toDate(row.getCompletedAt()),
+            toDate(row.getSortTime())
+        );
+    }
+
+    private static Date toDate(LocalDateTime value) {
+        return value != null ? Date.from(value.atZone(ZoneId.systemDefault()).toInstant()) : null;
+    }
+
+    private static String containsPattern(String value) {
+        return "%" + escapeLike(value.toLowerCase(Locale.ROOT)) + "%";
+    }
+
+    private static String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+
+    private static String trimToNull(String value) {
+        if (value == null) {
+            return null;
+        }
+        String trimmed = value.trim();
+        return trimmed.isEmpty() ? null : trimmed;
+    }
+
+    public record InboxFilter(
+        String scope,
+        String query,
+        String businessKey,
+        String assignee,
+        String processId,
+        String owner,
+        String candidateUser,
+        String candidateGroup
+    ) {}
+
+    public record InboxPage(List<WorkflowService.WorkflowTaskSummary> items, String nextCursor, boolean hasMore) {}
+}
@@ -199,7 +199,8 @@ class AsyncTaskLifecycleServiceTest {
                     true,
                     true,
                     false,
-                    true
+                    true,
+                    null
                 )),
                 1,
                 0,
@@ -292,7 +293,8 @@ class AsyncTaskLifecycleServiceTest {
                     true,
                     true,
                     false,
-                    true
+                    true,
+                    null
                 )),
                 1,
                 0,
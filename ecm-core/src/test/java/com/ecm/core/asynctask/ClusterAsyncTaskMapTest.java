@@ -0,0 +1,109 @@
+package com.ecm.core.asynctask;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.UnaryOperator;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ClusterAsyncTaskMapTest {
+
+    private static final String DOMAIN = "previewExport";
+
+    @Mock private ClusterAsyncTaskStore store;
+
+    private ClusterAsyncTaskMap<ExportTask> tasks;
+
+    @BeforeEach
+    void setUp() {
+        tasks = new ClusterAsyncTaskMap<>(
+            () -> store,
+            DOMAIN,
+            ExportTask.class,
+            task -> new ClusterAsyncTaskStore.TaskState(
+                task.status(), "RUNNING".equals(task.status()), null, task.createdAt(), null),
+            (task, reason) -> new ExportTask(task.createdAt(), "FAILED")
+        );
+    }
+
+    @Test
+    @DisplayName("Tasks stay in the local map while the cluster store is disabled")
+    void keepsTasksLocallyWhenStoreDisabled() {
+        when(store.isEnabled()).thenReturn(false);
+        ExportTask task = new ExportTask(LocalDateTime.of(2026, 3, 1, 9, 0), "RUNNING");
+
+        tasks.put("task-1", task);
+
+        assertEquals(task, tasks.get("task-1"));
+        assertTrue(tasks.remove("task-1", task));
+        assertEquals(0, tasks.size());
+        verify(store, atLeastOnce()).isEnabled();
+        verifyNoMoreInteractions(store);
+    }
+
+    @Test
+    @DisplayName("Shared tasks are created, updated and orphan-failed through the cluster store")
+    void delegatesToStoreWhenEnabled() {
+        when(store.isEnabled()).thenReturn(true);
+        ExportTask running = new ExportTask(LocalDateTime.of(2026, 3, 1, 9, 0), "RUNNING");
+        ExportTask failed = new ExportTask(running.createdAt(), "FAILED");
+        when(store.update(eq(DOMAIN), eq("task-1"), eq(ExportTask.class), any(), any())).thenAnswer(invocation -> {
+            UnaryOperator<ExportTask> updater = invocation.getArgument(3);
+            return updater.apply(running);
+        });
+
+        tasks.put("task-1", running);
+        tasks.abandonOrphan("task-1", "node died");
+
+        verify(store).create(eq(DOMAIN), eq("task-1"), any(), eq(running));
+        assertEquals(failed, tasks.computeIfPresent("task-1", (key, current) -> failed));
+    }
+
+    @Test
+    @DisplayName("The id order is rebuilt from every node's tasks by creation time")
+    void syncOrderListsTasksFromOtherNodesByCreation() {
+        when(store.isEnabled()).thenReturn(true);
+        Map<String, ExportTask> shared = new LinkedHashMap<>();
+        shared.put("task-late", new ExportTask(LocalDateTime.of(2026, 3, 1, 10, 0), "COMPLETED"));
+        shared.put("task-early", new ExportTask(LocalDateTime.of(2026, 3, 1, 9, 0), "RUNNING"));
+        when(store.listWithIds(DOMAIN, ExportTask.class)).thenReturn(shared);
+        Deque<String> order = new ArrayDeque<>(List.of("task-gone"));
+
+        tasks.syncOrder(order);
+
+        assertEquals(List.of("task-early", "task-late"), List.copyOf(order));
+    }
+
+    @Test
+    @DisplayName("Removing a shared task returns the value it deleted")
+    void removeReturnsDeletedSharedTask() {
+        when(store.isEnabled()).thenReturn(true);
+        ExportTask task = new ExportTask(LocalDateTime.of(2026, 3, 1, 9, 0), "COMPLETED");
+        when(store.find(DOMAIN, "task-1", ExportTask.class)).thenReturn(Optional.of(task));
+        when(store.delete(DOMAIN, "task-1")).thenReturn(true);
+
+        assertEquals(task, tasks.remove("task-1"));
+    }
+
+    record ExportTask(LocalDateTime createdAt, String status) {}
+}
@@ -0,0 +1,257 @@
+package com.ecm.core.asynctask;
+
+import com.ecm.core.entity.AsyncTaskRecord;
+import com.ecm.core.repository.AsyncTaskRecordRepository;
+import com.ecm.core.service.BatchDownloadAsyncTaskRegistry.BatchDownloadAsyncStatus;
+import com.ecm.core.service.BatchDownloadAsyncTaskRegistry.BatchDownloadAsyncTask;
+import com.ecm.core.service.ContentService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ClusterAsyncTaskStoreTest {
+
+    private static final String DOMAIN = "batchDownload";
+    private static final LocalDateTime DATABASE_NOW = LocalDateTime.of(2026, 3, 1, 12, 0);
+
+    @Mock private AsyncTaskRecordRepository repository;
+    @Mock private ContentService contentService;
+    @Mock private PlatformTransactionManager transactionManager;
+    @Mock private ObjectProvider<AsyncTaskOrphanHandler> orphanHandlers;
+    @Mock private AsyncTaskOrphanHandler orphanHandler;
+
+    private ClusterAsyncTaskStore store;
+
+    @BeforeEach
+    void setUp() {
+        store = new ClusterAsyncTaskStore(repository, contentService, new ObjectMapper().findAndRegisterModules(),
+            transactionManager, orphanHandlers);
+        ReflectionTestUtils.setField(store, "enabled", true);
+        ReflectionTestUtils.setField(store, "configuredNodeId", "node-a");
+        Mockito.lenient().when(repository.currentTimestamp()).thenReturn(Timestamp.valueOf(DATABASE_NOW));
+    }
+
+    @Test
+    @DisplayName("New active tasks are leased to this node and round-trip through the JSON payload")
+    void createLeasesActiveTaskAndRoundTripsPayload() {
+        BatchDownloadAsyncTask task = task("task-1", BatchDownloadAsyncStatus.QUEUED);
+
+        store.create(DOMAIN, task.taskId(), state(task), task);
+
+        ArgumentCaptor<AsyncTaskRecord> saved = ArgumentCaptor.forClass(AsyncTaskRecord.class);
+        Mockito.verify(repository).save(saved.capture());
+        AsyncTaskRecord record = saved.getValue();
+        assertEquals("node-a", record.getOwnerNode());
+        assertEquals(DATABASE_NOW.plusMinutes(1), record.getLeaseExpiresAt());
+        assertEquals("QUEUED", record.getStatus());
+
+        when(repository.findByDomainAndTaskId(DOMAIN, "task-1")).thenReturn(Optional.of(record));
+        BatchDownloadAsyncTask loaded = store.find(DOMAIN, "task-1", BatchDownloadAsyncTask.class).orElseThrow();
+        assertEquals(task, loaded);
+    }
+
+    @Test
+    @DisplayName("Updates retry after a concurrent modification and release the lease on terminal status")
+    void updateRetriesOnOptimisticConflictAndReleasesLease() {
+        BatchDownloadAsyncTask task = task("task-2", BatchDownloadAsyncStatus.RUNNING);
+        store.create(DOMAIN, task.taskId(), state(task), task);
+        ArgumentCaptor<AsyncTaskRecord> saved = ArgumentCaptor.forClass(AsyncTaskRecord.class);
+        Mockito.verify(repository).save(saved.capture());
+        AsyncTaskRecord record = saved.getValue();
+        when(repository.findByDomainAndTaskId(DOMAIN, "task-2")).thenReturn(Optional.of(record));
+        when(repository.touchLease(any(), eq("node-a"), eq(record.getLeaseToken()), any())).thenReturn(1);
+        Mockito.doThrow(new ObjectOptimisticLockingFailureException(AsyncTaskRecord.class, record.getId()))
+            .doNothing()
+            .when(transactionManager).commit(any());
+
+        BatchDownloadAsyncTask updated = store.update(DOMAIN, "task-2", BatchDownloadAsyncTask.class,
+            current -> current.failed("boom", LocalDateTime.now()), ClusterAsyncTaskStoreTest::state);
+
+        assertEquals(BatchDownloadAsyncStatus.FAILED, updated.status());
+        Mockito.verify(transactionManager, Mockito.times(2)).commit(any());
+        assertFalse(record.isActive());
+        assertNull(record.getOwnerNode());
+        assertNull(record.getLeaseExpiresAt());
+        assertNull(record.getLeaseToken());
+    }
+
+    @Test
+    @DisplayName("A node that lost its lease cannot overwrite the task or attach an artifact")
+    void writesAfterLostLeaseAreFenced() throws Exception {
+        BatchDownloadAsyncTask task = task("task-3", BatchDownloadAsyncStatus.RUNNING);
+        store.create(DOMAIN, task.taskId(), state(task), task);
+        ArgumentCaptor<AsyncTaskRecord> saved = ArgumentCaptor.forClass(AsyncTaskRecord.class);
+        Mockito.verify(repository).save(saved.capture());
+        AsyncTaskRecord record = saved.getValue();
+        String payload = record.getPayload();
+        when(repository.findByDomainAndTaskId(DOMAIN, "task-3")).thenReturn(Optional.of(record));
+        when(repository.touchLease(any(), eq("node-a"), eq(record.getLeaseToken()), any())).thenReturn(0);
+        when(contentService.storeContent(any(), eq("archive.zip"))).thenReturn("content-new");
+
+        BatchDownloadAsyncTask updated = store.update(DOMAIN, "task-3", BatchDownloadAsyncTask.class,
+            current -> current.failed("boom", LocalDateTime.now()), ClusterAsyncTaskStoreTest::state);
+        ClusterAsyncTaskStore.StoredArtifact artifact =
+            store.storeArtifact(DOMAIN, "task-3", new byte[] {1, 2, 3}, "archive.zip", "application/zip");
+
+        assertNull(updated);
+        assertNull(artifact);
+        assertEquals(payload, record.getPayload());
+        assertEquals("RUNNING", record.getStatus());
+        assertNull(record.getArtifactContentId());
+        Mockito.verify(contentService).deleteContent("content-new");
+    }
+
+    @Test
+    @DisplayName("Storing an artifact deletes the blob it replaces")
+    void storeArtifactDeletesReplacedBlob() throws Exception {
+        AsyncTaskRecord record = orphan("task-4", 0);
+        record.setArtifactContentId("content-old");
+        when(repository.findByDomainAndTaskId(DOMAIN, "task-4")).thenReturn(Optional.of(record));
+        when(contentService.storeContent(any(), eq("archive.zip"))).thenReturn("content-new");
+
+        ClusterAsyncTaskStore.StoredArtifact artifact =
+            store.storeArtifact(DOMAIN, "task-4", new byte[] {1, 2, 3}, "archive.zip", "application/zip");
+
+        assertEquals("content-new", artifact.contentId());
+        assertEquals("content-new", record.getArtifactContentId());
+        assertEquals(3L, record.getArtifactSizeBytes());
+        Mockito.verify(contentService).deleteContent("content-old");
+        Mockito.verify(contentService, Mockito.never()).deleteContent("content-new");
+    }
+
+    @Test
+    @DisplayName("Orphaned tasks are claimed once and resumed, or abandoned after too many recoveries")
+    void recoverOrphansClaimsAndDispatchesToDomainHandler() {
+        AsyncTaskRecord resumable = orphan("task-resume", 0);
+        AsyncTaskRecord exhausted = orphan("task-exhausted", 3);
+        AsyncTaskRecord taken = orphan("task-taken", 0);
+        when(repository.findExpiredLeases(20))
+            .thenReturn(List.of(resumable, exhausted, taken));
+        when(orphanHandlers.orderedStream()).thenReturn(Stream.of(orphanHandler));
+        when(orphanHandler.orphanDomain()).thenReturn(DOMAIN);
+        when(repository.claimExpiredLease(eq(resumable.getId()), eq("node-a"), any(), eq(60_000L))).thenReturn(1);
+        when(repository.claimExpiredLease(eq(exhausted.getId()), eq("node-a"), any(), eq(60_000L))).thenReturn(1);
+        when(repository.claimExpiredLease(eq(taken.getId()), eq("node-a"), any(), eq(60_000L))).thenReturn(0);
+
+        store.recoverOrphans();
+
+        Mockito.verify(orphanHandler).resumeOrphan("task-resume");
+        Mockito.verify(orphanHandler).abandonOrphan(eq("task-exhausted"), any());
+        Mockito.verify(orphanHandler, Mockito.never()).resumeOrphan("task-taken");
+        Mockito.verify(orphanHandler, Mockito.never()).abandonOrphan(eq("task-taken"), any());
+    }
+
+    @Test
+    @DisplayName("Heartbeats extend leases from the database clock")
+    void heartbeatRenewsLeasesOnDatabaseClock() {
+        when(repository.renewLeases("node-a", 60_000L)).thenReturn(2);
+
+        store.heartbeat();
+
+        Mockito.verify(repository).renewLeases("node-a", 60_000L);
+    }
+
+    @Test
+    @DisplayName("A guarded delete only removes the task while it is still stored as expected")
+    void deleteWithExpectedTaskSkipsChangedRow() {
+        BatchDownloadAsyncTask task = task("task-5", BatchDownloadAsyncStatus.COMPLETED);
+        store.create(DOMAIN, task.taskId(), state(task), task);
+        ArgumentCaptor<AsyncTaskRecord> saved = ArgumentCaptor.forClass(AsyncTaskRecord.class);
+        Mockito.verify(repository).save(saved.capture());
+        AsyncTaskRecord record = saved.getValue();
+        when(repository.findByDomainAndTaskId(DOMAIN, "task-5")).thenReturn(Optional.of(record));
+
+        boolean staleDeleted = store.delete(DOMAIN, "task-5", task("task-5", BatchDownloadAsyncStatus.RUNNING));
+        boolean currentDeleted = store.delete(DOMAIN, "task-5", task);
+
+        assertFalse(staleDeleted);
+        assertTrue(currentDeleted);
+        Mockito.verify(repository, Mockito.times(1)).delete(record);
+    }
+
+    @Test
+    @DisplayName("Handlers registered outside the context receive orphans of their domain")
+    void recoverOrphansDispatchesToRegisteredHandler() {
+        AsyncTaskRecord orphan = orphan("task-registered", 0);
+        when(repository.findExpiredLeases(20)).thenReturn(List.of(orphan));
+        when(orphanHandlers.orderedStream()).thenReturn(Stream.empty());
+        when(orphanHandler.orphanDomain()).thenReturn(DOMAIN);
+        when(repository.claimExpiredLease(eq(orphan.getId()), eq("node-a"), any(), eq(60_000L))).thenReturn(1);
+        store.registerOrphanHandler(orphanHandler);
+
+        store.recoverOrphans();
+
+        Mockito.verify(orphanHandler).resumeOrphan("task-registered");
+    }
+
+    private static BatchDownloadAsyncTask task(String taskId, BatchDownloadAsyncStatus status) {
+        LocalDateTime createdAt = LocalDateTime.of(2026, 3, 1, 9, 0);
+        return new BatchDownloadAsyncTask(
+            taskId,
+            List.of(UUID.fromString("00000000-0000-0000-0000-000000000001")),
+            "archive",
+            "alice",
+            "archive_20260301_0900.zip",
+            status,
+            3,
+            1,
+            300L,
+            100L,
+            createdAt,
+            status == BatchDownloadAsyncStatus.QUEUED ? null : createdAt.plusSeconds(5),
+            null,
+            null,
+            null
+        );
+    }
+
+    private static ClusterAsyncTaskStore.TaskState state(BatchDownloadAsyncTask task) {
+        return new ClusterAsyncTaskStore.TaskState(
+            task.status().name(),
+            task.status().isActive(),
+            task.createdBy(),
+            task.createdAt(),
+            task.completedAt()
+        );
+    }
+
+    private static AsyncTaskRecord orphan(String taskId, int recoveryAttempts) {
+        AsyncTaskRecord record = new AsyncTaskRecord();
+        record.setId(UUID.randomUUID());
+        record.setDomain(DOMAIN);
+        record.setTaskId(taskId);
+        record.setStatus("RUNNING");
+        record.setActive(true);
+        record.setOwnerNode("node-b");
+        record.setLeaseExpiresAt(LocalDateTime.now().minusMinutes(5));
+        record.setRecoveryAttempts(recoveryAttempts);
+        record.setPayload("{}");
+        return record;
+    }
+}
@@ -1,6 +1,7 @@
 package com.ecm.core.controller;
 
 import com.ecm.core.entity.Activity;
+import com.ecm.core.service.ActivityFeedService;
 import com.ecm.core.service.ActivityService;
 import com.ecm.core.service.SecurityService;
 import org.junit.jupiter.api.BeforeEach;
@@ -24,6 +25,7 @@ import java.util.Map;
 import java.util.UUID;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
@@ -34,11 +36,12 @@ class ActivityControllerTest {
 
     private MockMvc mockMvc;
     @Mock private ActivityService activityService;
+    @Mock private ActivityFeedService activityFeedService;
     @Mock private SecurityService securityService;
 
     @BeforeEach
     void setUp() {
-        ActivityController controller = new ActivityController(activityService, securityService);
+        ActivityController controller = new ActivityController(activityService, activityFeedService, securityService);
         ObjectMapper objectMapper = new ObjectMapper();
         objectMapper.registerModule(new JavaTimeModule());
         MappingJackson2HttpMessageConverter converter = new MappingJackson2HttpMessageConverter(objectMapper);
@@ -111,6 +114,34 @@ class ActivityControllerTest {
             .andExpect(status().isOk());
     }
 
+    @Test
+    @DisplayName("GET /activities/following/feed returns keyset page with next cursor")
+    void followingKeysetFeedReturnsCursor() throws Exception {
+        Activity a = activity("node.updated", "bob", "plan.docx");
+        when(securityService.getCurrentUser()).thenReturn("alice");
+        when(activityFeedService.getFollowingFeed("alice", "2026-01-01T10:00:00|" + a.getId(), 1))
+            .thenReturn(new ActivityFeedService.ActivityFeedSlice(List.of(a), "next-token", true));
+
+        mockMvc.perform(get("/api/v1/activities/following/feed")
+                .param("cursor", "2026-01-01T10:00:00|" + a.getId())
+                .param("limit", "1"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.items.length()").value(1))
+            .andExpect(jsonPath("$.items[0].nodeName").value("plan.docx"))
+            .andExpect(jsonPath("$.nextCursor").value("next-token"))
+            .andExpect(jsonPath("$.hasMore").value(true));
+    }
+
+    @Test
+    @DisplayName("GET /activities/feed rejects malformed cursor")
+    void globalKeysetFeedRejectsMalformedCursor() throws Exception {
+        when(activityFeedService.getGlobalFeed(eq("garbage"), anyInt()))
+            .thenThrow(new IllegalArgumentException("Invalid feed cursor: garbage"));
+
+        mockMvc.perform(get("/api/v1/activities/feed").param("cursor", "garbage"))
+            .andExpect(status().isBadRequest());
+    }
+
     private Activity activity(String type, String user, String nodeName) {
         Activity a = new Activity();
         a.setId(UUID.randomUUID());
@@ -10,6 +10,7 @@ import com.ecm.core.asynctask.AsyncTaskLifecycleService;
 import com.ecm.core.asynctask.AsyncTaskSummarySnapshot;
 import com.ecm.core.service.AnalyticsService;
 import com.ecm.core.service.AuditExportAsyncTaskRegistry;
+import com.ecm.core.service.AuditExportStreamingService;
 import com.ecm.core.service.AuditService;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -59,6 +60,9 @@ class AnalyticsControllerSecurityTest {
     @MockBean
     private AsyncTaskAcknowledgementService asyncTaskAcknowledgementService;
 
+    @MockBean
+    private AuditExportStreamingService auditExportStreamingService;
+
     @Configuration
     @EnableWebSecurity
     @EnableMethodSecurity(prePostEnabled = true)
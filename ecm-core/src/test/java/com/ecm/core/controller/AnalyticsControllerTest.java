@@ -19,6 +19,7 @@ import com.ecm.core.entity.AuditCategorySetting;
 import com.ecm.core.entity.AuditLog;
 import com.ecm.core.service.AnalyticsService;
 import com.ecm.core.service.AuditExportAsyncTaskRegistry;
+import com.ecm.core.service.AuditExportStreamingService;
 import com.ecm.core.service.AuditService;
 import org.hamcrest.Matchers;
 import org.junit.jupiter.api.AfterEach;
@@ -36,6 +37,8 @@ import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 import org.springframework.test.util.ReflectionTestUtils;
 
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
@@ -76,6 +79,9 @@ class AnalyticsControllerTest {
     @Mock
     private AsyncTaskAcknowledgementService asyncTaskAcknowledgementService;
 
+    @Mock
+    private AuditExportStreamingService auditExportStreamingService;
+
     private AuditExportAsyncTaskRegistry auditExportAsyncTaskRegistry;
     private AnalyticsController analyticsController;
 
@@ -92,7 +98,8 @@ class AnalyticsControllerTest {
             auditExportAsyncTaskRegistry,
             asyncTaskGovernanceService,
             asyncTaskLifecycleService,
-            asyncTaskAcknowledgementService
+            asyncTaskAcknowledgementService,
+            auditExportStreamingService
         );
         ReflectionTestUtils.setField(analyticsController, "auditExportMaxRangeDays", 30);
         mockMvc = MockMvcBuilders.standaloneSetup(analyticsController).build();
@@ -310,8 +317,8 @@ class AnalyticsControllerTest {
     @Test
     @DisplayName("Audit export async start/list flow works")
     void auditExportAsyncStartAndListFlowWorks() throws Exception {
-        Mockito.when(analyticsService.exportAuditLogsCsv(Mockito.any(), Mockito.any(), Mockito.any(), Mockito.any(), Mockito.any(), Mockito.any()))
-            .thenReturn(new AnalyticsService.AuditExportResult("header\nrow\n", 1));
+        Mockito.when(auditExportStreamingService.write(Mockito.any(), Mockito.any(), Mockito.anyBoolean(), Mockito.any(), Mockito.any()))
+            .thenReturn(1L);
 
         MvcResult startResult = mockMvc.perform(post("/api/v1/analytics/audit/export-async")
                 .param("from", "2026-01-05T00:00:00")
@@ -337,11 +344,70 @@ class AnalyticsControllerTest {
         awaitAuditExportAsyncTaskTerminalStatus(taskId);
     }
 
+    @Test
+    @DisplayName("Audit export async streams JSON lines to a stored gzip file with progress")
+    void auditExportAsyncStreamsJsonLinesToStoredGzipFile() throws Exception {
+        byte[] streamed = "{\"id\":\"1\"}\n".getBytes(StandardCharsets.UTF_8);
+        Mockito.when(auditExportStreamingService.write(Mockito.any(), Mockito.any(), Mockito.anyBoolean(), Mockito.any(), Mockito.any()))
+            .thenAnswer(invocation -> {
+                OutputStream out = invocation.getArgument(3);
+                AuditExportStreamingService.ExportListener listener = invocation.getArgument(4);
+                out.write(streamed);
+                listener.onProgress(new AuditExportStreamingService.ExportProgress(1L, 250d, 4L));
+                return 1L;
+            });
+
+        MvcResult startResult = mockMvc.perform(post("/api/v1/analytics/audit/export-async")
+                .param("from", "2026-01-05T00:00:00")
+                .param("to", "2026-01-06T00:00:00")
+                .param("format", "jsonl")
+                .param("gzip", "true"))
+            .andExpect(status().isOk())
+            .andReturn();
+        String taskId = objectMapper.readTree(startResult.getResponse().getContentAsString())
+            .path("taskId")
+            .asText();
+        assertEquals("COMPLETED", awaitAuditExportAsyncTaskTerminalStatus(taskId));
+
+        mockMvc.perform(get("/api/v1/analytics/audit/export-async/{taskId}", taskId))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.filename").value("audit_logs_20260105_to_20260106.jsonl.gz"))
+            .andExpect(jsonPath("$.rowCount").value(1))
+            .andExpect(jsonPath("$.rowsWritten").value(1))
+            .andExpect(jsonPath("$.rowsPerSecond").value(250));
+
+        mockMvc.perform(get("/api/v1/analytics/audit/export-async/{taskId}/download", taskId))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType("application/gzip"))
+            .andExpect(header().string("X-Audit-Export-Count", "1"))
+            .andExpect(content().bytes(streamed));
+
+        ArgumentCaptor<AuditExportStreamingService.ExportFormat> formatCaptor =
+            ArgumentCaptor.forClass(AuditExportStreamingService.ExportFormat.class);
+        Mockito.verify(auditExportStreamingService).write(
+            Mockito.any(), formatCaptor.capture(), Mockito.eq(true), Mockito.any(), Mockito.any());
+        assertEquals(AuditExportStreamingService.ExportFormat.JSONL, formatCaptor.getValue());
+
+        mockMvc.perform(post("/api/v1/analytics/audit/export-async/cleanup"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.deletedCount").value(1));
+    }
+
+    @Test
+    @DisplayName("Audit export async rejects unknown format")
+    void auditExportAsyncRejectsUnknownFormat() throws Exception {
+        mockMvc.perform(post("/api/v1/analytics/audit/export-async")
+                .param("from", "2026-01-05T00:00:00")
+                .param("to", "2026-01-06T00:00:00")
+                .param("format", "xml"))
+            .andExpect(status().isBadRequest());
+    }
+
     @Test
     @DisplayName("Audit export async list supports COMPLETED status filter")
     void auditExportAsyncListFiltersByCompletedStatus() throws Exception {
-        Mockito.when(analyticsService.exportAuditLogsCsv(Mockito.any(), Mockito.any(), Mockito.any(), Mockito.any(), Mockito.any(), Mockito.any()))
-            .thenReturn(new AnalyticsService.AuditExportResult("header\nrow\n", 1));
+        Mockito.when(auditExportStreamingService.write(Mockito.any(), Mockito.any(), Mockito.anyBoolean(), Mockito.any(), Mockito.any()))
+            .thenReturn(1L);
 
         MvcResult startResult = mockMvc.perform(post("/api/v1/analytics/audit/export-async")
                 .param("from", "2026-01-05T00:00:00")
@@ -369,8 +435,8 @@ class AnalyticsControllerTest {
     @Test
     @DisplayName("Audit export async summary returns aggregate counters")
     void auditExportAsyncSummaryReturnsAggregateCounters() throws Exception {
-        Mockito.when(analyticsService.exportAuditLogsCsv(Mockito.any(), Mockito.any(), Mockito.any(), Mockito.any(), Mockito.any(), Mockito.any()))
-            .thenReturn(new AnalyticsService.AuditExportResult("header\nrow\n", 1));
+        Mockito.when(auditExportStreamingService.write(Mockito.any(), Mockito.any(), Mockito.anyBoolean(), Mockito.any(), Mockito.any()))
+            .thenReturn(1L);
 
         String taskId = startAuditExportAsyncTask();
         assertEquals("COMPLETED", awaitAuditExportAsyncTaskTerminalStatus(taskId));
@@ -406,8 +472,8 @@ class AnalyticsControllerTest {
     @Test
     @DisplayName("Audit export async summary supports COMPLETED status filter")
     void auditExportAsyncSummaryFiltersByCompletedStatus() throws Exception {
-        Mockito.when(analyticsService.exportAuditLogsCsv(Mockito.any(), Mockito.any(), Mockito.any(), Mockito.any(), Mockito.any(), Mockito.any()))
-            .thenReturn(new AnalyticsService.AuditExportResult("header\nrow\n", 1));
+        Mockito.when(auditExportStreamingService.write(Mockito.any(), Mockito.any(), Mockito.anyBoolean(), Mockito.any(), Mockito.any()))
+            .thenReturn(1L);
 
         String taskId = startAuditExportAsyncTask();
         assertEquals("COMPLETED", awaitAuditExportAsyncTaskTerminalStatus(taskId));
@@ -439,13 +505,13 @@ class AnalyticsControllerTest {
         CountDownLatch startedLatch = new CountDownLatch(1);
         CountDownLatch releaseLatch = new CountDownLatch(1);
 
-        Mockito.when(analyticsService.exportAuditLogsCsv(Mockito.any(), Mockito.any(), Mockito.any(), Mockito.any(), Mockito.any(), Mockito.any()))
+        Mockito.when(auditExportStreamingService.write(Mockito.any(), Mockito.any(), Mockito.anyBoolean(), Mockito.any(), Mockito.any()))
             .thenAnswer(invocation -> {
                 startedLatch.countDown();
                 if (!releaseLatch.await(2, TimeUnit.SECONDS)) {
                     throw new RuntimeException("simulated export timeout");
                 }
-                return new AnalyticsService.AuditExportResult("header\nrow\n", 1);
+                return 1L;
             });
 
         String taskId = startAuditExportAsyncTask();
@@ -491,8 +557,8 @@ class AnalyticsControllerTest {
     @Test
     @DisplayName("Audit export async cleanup without status removes all terminal tasks")
     void auditExportAsyncCleanupWithoutStatusRemovesTerminalTasks() throws Exception {
-        Mockito.when(analyticsService.exportAuditLogsCsv(Mockito.any(), Mockito.any(), Mockito.any(), Mockito.any(), Mockito.any(), Mockito.any()))
-            .thenReturn(new AnalyticsService.AuditExportResult("header\nrow\n", 1))
+        Mockito.when(auditExportStreamingService.write(Mockito.any(), Mockito.any(), Mockito.anyBoolean(), Mockito.any(), Mockito.any()))
+            .thenReturn(1L)
             .thenThrow(new RuntimeException("simulated export failure"));
 
         String completedTaskId = startAuditExportAsyncTask();
@@ -517,8 +583,8 @@ class AnalyticsControllerTest {
     @Test
     @DisplayName("Audit export async cleanup with COMPLETED status only removes completed tasks")
     void auditExportAsyncCleanupWithCompletedStatusOnlyRemovesCompletedTasks() throws Exception {
-        Mockito.when(analyticsService.exportAuditLogsCsv(Mockito.any(), Mockito.any(), Mockito.any(), Mockito.any(), Mockito.any(), Mockito.any()))
-            .thenReturn(new AnalyticsService.AuditExportResult("header\nrow\n", 1))
+        Mockito.when(auditExportStreamingService.write(Mockito.any(), Mockito.any(), Mockito.anyBoolean(), Mockito.any(), Mockito.any()))
+            .thenReturn(1L)
             .thenThrow(new RuntimeException("simulated export failure"));
 
         String completedTaskId = startAuditExportAsyncTask();
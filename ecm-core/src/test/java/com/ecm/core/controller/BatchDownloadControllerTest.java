@@ -19,6 +19,7 @@ import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 
+import java.io.OutputStream;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
@@ -101,12 +102,13 @@ class BatchDownloadControllerTest {
         doAnswer(invocation -> {
             BatchDownloadService.BatchDownloadProgressListener listener = invocation.getArgument(2);
             listener.onFileAdded(nodeId, "sample.txt", 2L, 1, 2L);
-            ZipOutputStream zipOut = invocation.getArgument(1);
+            ZipOutputStream zipOut = new ZipOutputStream(invocation.getArgument(1, OutputStream.class));
             zipOut.putNextEntry(new java.util.zip.ZipEntry("sample.txt"));
             zipOut.write("ok".getBytes(StandardCharsets.UTF_8));
             zipOut.closeEntry();
+            zipOut.finish();
             return new BatchDownloadService.BatchDownloadArchiveSummary(1, 2L, false);
-        }).when(batchDownloadService).writeNodesAsZip(anyList(), any(ZipOutputStream.class), any(BatchDownloadService.BatchDownloadProgressListener.class));
+        }).when(batchDownloadService).writeNodesAsZip(anyList(), any(OutputStream.class), any(BatchDownloadService.BatchDownloadProgressListener.class));
 
         MvcResult startResult = mockMvc.perform(post("/api/v1/nodes/download/batch-async")
                 .contentType(MediaType.APPLICATION_JSON)
@@ -79,7 +79,7 @@ class LdapSyncControllerSecurityTest {
             new LdapConnectionStatus(true, "ou=people", "ou=groups", "ok")
         );
         when(ldapSyncService.syncNow()).thenReturn(
-            new LdapSyncResult("manual", LocalDateTime.now(), 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, List.of())
+            new LdapSyncResult("manual", LocalDateTime.now(), 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, false, 0, 0L, 0.0, List.of())
         );
 
         mockMvc.perform(post("/api/v1/admin/ldap/test-connection"))
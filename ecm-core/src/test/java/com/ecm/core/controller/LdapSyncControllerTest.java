@@ -66,6 +66,10 @@ class LdapSyncControllerTest {
                 0,
                 3,
                 1,
+                false,
+                4,
+                120L,
+                33.3,
                 List.of("warning")
             )
         );
@@ -7,6 +7,7 @@ import com.ecm.core.entity.Group;
 import com.ecm.core.entity.Document;
 import com.ecm.core.entity.Node;
 import com.ecm.core.entity.User;
+import com.ecm.core.event.UserDepartmentChangedEvent;
 import com.ecm.core.model.Comment;
 import com.ecm.core.repository.FavoriteRepository;
 import com.ecm.core.repository.CommentRepository;
@@ -21,10 +22,12 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
@@ -44,6 +47,7 @@ import java.util.UUID;
 
 import static org.hamcrest.Matchers.containsString;
 import static org.hamcrest.Matchers.hasItems;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
@@ -83,6 +87,9 @@ class PeopleControllerTest {
     @Mock
     private SiteMembershipService siteMembershipService;
 
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     @InjectMocks
     private PeopleController peopleController;
 
@@ -400,6 +407,11 @@ class PeopleControllerTest {
             .andExpect(jsonPath("$.avatarUrl").value("https://example.com/alice.png"))
             .andExpect(jsonPath("$.locale").value("en_GB"))
             .andExpect(jsonPath("$.timezone").value("Europe/London"));
+
+        ArgumentCaptor<UserDepartmentChangedEvent> eventCaptor = ArgumentCaptor.forClass(UserDepartmentChangedEvent.class);
+        Mockito.verify(eventPublisher).publishEvent(eventCaptor.capture());
+        assertEquals("alice", eventCaptor.getValue().getUsername());
+        assertEquals("Finance", eventCaptor.getValue().getDepartment());
     }
 
     @Test
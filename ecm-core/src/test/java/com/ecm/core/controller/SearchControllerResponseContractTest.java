@@ -148,11 +148,16 @@ class SearchControllerResponseContractTest {
                 List.of(),
                 1
             );
-        FacetedSearchService.FacetedSearchResponse pivotCellResponse =
-            facetedResponse(Page.empty(), Map.of(), List.of(), 1);
+        FacetedSearchService.PivotResponse pivotMatrixResponse = FacetedSearchService.PivotResponse.builder()
+            .totalHits(1)
+            .buckets(List.of(new FacetedSearchService.PivotBucket("FAILED", 1, Map.of(), List.of(
+                new FacetedSearchService.PivotBucket("application/pdf", 1, Map.of(), List.of())
+            ))))
+            .build();
 
         Mockito.when(facetedSearchService.search(Mockito.any()))
-            .thenReturn(envelopeResponse, statsResponse, pivotBucketResponse, pivotCellResponse);
+            .thenReturn(envelopeResponse, statsResponse, pivotBucketResponse);
+        Mockito.when(facetedSearchService.pivot(Mockito.any())).thenReturn(pivotMatrixResponse);
 
         MvcResult mvcResult = mockMvc.perform(post("/api/v1/search/query")
                 .contentType(MediaType.APPLICATION_JSON)
@@ -32,6 +32,7 @@ import java.time.Instant;
 import java.time.LocalDateTime;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.TimeUnit;
+import java.util.ArrayList;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
@@ -333,24 +334,15 @@ class SearchControllerTest {
                 .suggestions(List.of())
                 .build();
 
-        Mockito.when(facetedSearchService.search(Mockito.any())).thenAnswer(invocation -> {
-            FacetedSearchService.FacetedSearchRequest req = invocation.getArgument(0);
-            SearchFilters requestFilters = req.getFilters() != null ? req.getFilters() : new SearchFilters();
-            boolean matrixCall = requestFilters.getPreviewStatuses() != null
-                && requestFilters.getPreviewStatuses().size() == 1
-                && requestFilters.getMimeTypes() != null
-                && requestFilters.getMimeTypes().size() == 1;
-            if (!matrixCall) {
-                return bucketResponse;
-            }
-            return FacetedSearchService.FacetedSearchResponse.builder()
-                .results(Page.empty())
-                .facets(Map.of())
-                .totalHits(7)
-                .queryTime(0)
-                .suggestions(List.of())
-                .build();
-        });
+        Mockito.when(facetedSearchService.search(Mockito.any())).thenReturn(bucketResponse);
+        Mockito.when(facetedSearchService.pivot(Mockito.any())).thenReturn(
+            FacetedSearchService.PivotResponse.builder()
+                .totalHits(9)
+                .buckets(List.of(new FacetedSearchService.PivotBucket("READY", 2, Map.of(), List.of(
+                    new FacetedSearchService.PivotBucket("application/pdf", 7, Map.of(), List.of())
+                ))))
+                .build()
+        );
 
         mockMvc.perform(post("/api/v1/search/query")
                 .contentType(MediaType.APPLICATION_JSON)
@@ -484,7 +476,6 @@ class SearchControllerTest {
         matrixCounts.put("PROCESSING|application/json", 51L);
         matrixCounts.put("PROCESSING|image/png", 52L);
         matrixCounts.put("PROCESSING|application/pdf", 53L);
-        matrixCounts.put("PROCESSING|text/plain", 54L);
         matrixCounts.put("FAILED|application/json", 31L);
         matrixCounts.put("FAILED|image/png", 32L);
         matrixCounts.put("FAILED|application/pdf", 33L);
@@ -494,26 +485,25 @@ class SearchControllerTest {
         matrixCounts.put("READY|application/pdf", 23L);
         matrixCounts.put("READY|text/plain", 24L);
 
-        Mockito.when(facetedSearchService.search(Mockito.any())).thenAnswer(invocation -> {
-            FacetedSearchService.FacetedSearchRequest req = invocation.getArgument(0);
-            SearchFilters requestFilters = req.getFilters() != null ? req.getFilters() : new SearchFilters();
-            List<String> previewStatuses = requestFilters.getPreviewStatuses();
-            List<String> mimeTypes = requestFilters.getMimeTypes();
-            boolean matrixCall = previewStatuses != null && previewStatuses.size() == 1
-                && mimeTypes != null && mimeTypes.size() == 1;
-
-            if (!matrixCall) {
-                return bucketResponse;
+        Mockito.when(facetedSearchService.search(Mockito.any())).thenReturn(bucketResponse);
+        Mockito.when(facetedSearchService.pivot(Mockito.any())).thenAnswer(invocation -> {
+            FacetedSearchService.PivotRequest req = invocation.getArgument(0);
+            List<String> previewStatuses = req.getDimensions().get(0).getValues();
+            List<String> mimeTypes = req.getDimensions().get(1).getValues();
+            // Aggregation buckets come back in their own order and omit empty cells.
+            List<FacetedSearchService.PivotBucket> rows = new ArrayList<>();
+            for (int i = previewStatuses.size() - 1; i >= 0; i--) {
+                String previewStatus = previewStatuses.get(i);
+                List<FacetedSearchService.PivotBucket> cells = new ArrayList<>();
+                for (String mimeType : mimeTypes) {
+                    Long count = matrixCounts.get(previewStatus + "|" + mimeType);
+                    if (count != null) {
+                        cells.add(new FacetedSearchService.PivotBucket(mimeType, count, Map.of(), List.of()));
+                    }
+                }
+                rows.add(new FacetedSearchService.PivotBucket(previewStatus, 0L, Map.of(), cells));
             }
-
-            String key = previewStatuses.get(0) + "|" + mimeTypes.get(0);
-            return FacetedSearchService.FacetedSearchResponse.builder()
-                .results(Page.empty())
-                .facets(Map.of())
-                .totalHits(matrixCounts.getOrDefault(key, 0L))
-                .queryTime(0)
-                .suggestions(List.of())
-                .build();
+            return FacetedSearchService.PivotResponse.builder().totalHits(77).buckets(rows).build();
         });
 
         mockMvc.perform(post("/api/v1/search/advanced/stats/pivot")
@@ -546,15 +536,15 @@ class SearchControllerTest {
             .andExpect(jsonPath("$.matrix[0].mimeTypeCounts[0].mimeType").value("application/json"))
             .andExpect(jsonPath("$.matrix[0].mimeTypeCounts[0].count").value(61))
             .andExpect(jsonPath("$.matrix[1].mimeTypeCounts[2].count").value(53))
+            .andExpect(jsonPath("$.matrix[1].mimeTypeCounts[3].count").value(0))
             .andExpect(jsonPath("$.matrix[3].mimeTypeCounts[3].count").value(24))
             .andExpect(jsonPath("$.generatedAt").isNotEmpty());
 
         ArgumentCaptor<FacetedSearchService.FacetedSearchRequest> requestCaptor = ArgumentCaptor.forClass(
             FacetedSearchService.FacetedSearchRequest.class
         );
-        Mockito.verify(facetedSearchService, Mockito.times(17)).search(requestCaptor.capture());
-        List<FacetedSearchService.FacetedSearchRequest> capturedRequests = requestCaptor.getAllValues();
-        FacetedSearchService.FacetedSearchRequest firstCall = capturedRequests.get(0);
+        Mockito.verify(facetedSearchService, Mockito.times(1)).search(requestCaptor.capture());
+        FacetedSearchService.FacetedSearchRequest firstCall = requestCaptor.getValue();
         assertEquals("  pivot   benchmark  ", firstCall.getQuery());
         assertEquals(List.of("previewStatus", "mimeType"), firstCall.getFacetFields());
         assertEquals(1, firstCall.getPageable().getSize());
@@ -562,17 +552,20 @@ class SearchControllerTest {
         assertTrue(!firstCall.isHighlightEnabled());
         assertTrue(!firstCall.isIncludeSuggestions());
 
-        long matrixCallCount = 0L;
-        for (int i = 1; i < capturedRequests.size(); i++) {
-            FacetedSearchService.FacetedSearchRequest captured = capturedRequests.get(i);
-            SearchFilters requestFilters = captured.getFilters();
-            assertEquals(List.of("ops"), requestFilters.getTags());
-            assertTrue(!requestFilters.isIncludeChildren());
-            assertEquals(1, requestFilters.getPreviewStatuses().size());
-            assertEquals(1, requestFilters.getMimeTypes().size());
-            matrixCallCount++;
-        }
-        assertEquals(16L, matrixCallCount);
+        ArgumentCaptor<FacetedSearchService.PivotRequest> pivotCaptor = ArgumentCaptor.forClass(
+            FacetedSearchService.PivotRequest.class
+        );
+        Mockito.verify(facetedSearchService, Mockito.times(1)).pivot(pivotCaptor.capture());
+        FacetedSearchService.PivotRequest pivotRequest = pivotCaptor.getValue();
+        assertEquals("  pivot   benchmark  ", pivotRequest.getQuery());
+        assertEquals(List.of("ops"), pivotRequest.getFilters().getTags());
+        assertTrue(!pivotRequest.getFilters().isIncludeChildren());
+        assertEquals("previewStatus", pivotRequest.getDimensions().get(0).getField());
+        assertEquals(List.of("PENDING", "PROCESSING", "FAILED", "READY"),
+            pivotRequest.getDimensions().get(0).getValues());
+        assertEquals("mimeType", pivotRequest.getDimensions().get(1).getField());
+        assertEquals(List.of("application/json", "image/png", "application/pdf", "text/plain"),
+            pivotRequest.getDimensions().get(1).getValues());
     }
 
     @Test
@@ -2,6 +2,7 @@ package com.ecm.core.controller;
 
 import com.ecm.core.service.TenantMetricsService;
 import com.ecm.core.service.TenantService;
+import com.ecm.core.service.TenantUsageLedgerService;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -44,6 +45,9 @@ class TenantAdminControllerSecurityTest {
     @MockBean
     private TenantMetricsService tenantMetricsService;
 
+    @MockBean
+    private TenantUsageLedgerService tenantUsageLedgerService;
+
     @Configuration
     @EnableWebSecurity
     @EnableMethodSecurity(prePostEnabled = true)
@@ -107,6 +111,14 @@ class TenantAdminControllerSecurityTest {
             .andExpect(status().isUnauthorized());
     }
 
+    @Test
+    @WithMockUser(roles = "USER")
+    @DisplayName("non-admin POST /admin/tenants/{domain}/usage/reconcile returns 403")
+    void nonAdminReconcileUsageReturns403() throws Exception {
+        mockMvc.perform(post("/api/v1/admin/tenants/{domain}/usage/reconcile", "acme"))
+            .andExpect(status().isForbidden());
+    }
+
     @Test
     @WithMockUser(roles = "USER")
     @DisplayName("authenticated user can list tenants (isAuthenticated() gate; admin enforcement is service-side)")
@@ -2,6 +2,8 @@ package com.ecm.core.controller;
 
 import com.ecm.core.service.TenantMetricsService;
 import com.ecm.core.service.TenantService;
+import com.ecm.core.service.TenantUsageLedgerService;
+import com.ecm.core.service.TenantUsageReconciliationService;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import org.junit.jupiter.api.BeforeEach;
@@ -34,13 +36,14 @@ class TenantAdminControllerTest {
 
     @Mock private TenantService tenantService;
     @Mock private TenantMetricsService tenantMetricsService;
+    @Mock private TenantUsageLedgerService tenantUsageLedgerService;
 
     private MockMvc mockMvc;
     private ObjectMapper objectMapper;
 
     @BeforeEach
     void setUp() {
-        TenantAdminController controller = new TenantAdminController(tenantService, tenantMetricsService);
+        TenantAdminController controller = new TenantAdminController(tenantService, tenantMetricsService, tenantUsageLedgerService);
         objectMapper = new ObjectMapper();
         objectMapper.registerModule(new JavaTimeModule());
         mockMvc = MockMvcBuilders.standaloneSetup(controller)
@@ -136,6 +139,24 @@ class TenantAdminControllerTest {
             .andExpect(jsonPath("$.folderCount").value(3));
     }
 
+    @Test
+    @DisplayName("POST /admin/tenants/{domain}/usage/reconcile returns drift report")
+    void reconcileTenantUsageReturnsDrift() throws Exception {
+        when(tenantUsageLedgerService.reconcile("acme", false)).thenReturn(
+            new TenantUsageReconciliationService.ReconciliationReport(
+                "acme", 900L, 1024L, 124L, false, LocalDateTime.of(2026, 3, 1, 3, 30)
+            )
+        );
+
+        mockMvc.perform(post("/api/v1/admin/tenants/{tenantDomain}/usage/reconcile", "acme")
+                .param("correct", "false"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.ledgerBytes").value(900))
+            .andExpect(jsonPath("$.actualBytes").value(1024))
+            .andExpect(jsonPath("$.driftBytes").value(124))
+            .andExpect(jsonPath("$.corrected").value(false));
+    }
+
     private TenantService.TenantDto dto(String domain, String name, boolean enabled, boolean systemDefault) {
         return new TenantService.TenantDto(
             UUID.randomUUID(),
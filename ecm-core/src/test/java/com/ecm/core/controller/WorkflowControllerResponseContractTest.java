@@ -1,6 +1,7 @@
 package com.ecm.core.controller;
 
 import com.ecm.core.service.WorkflowService;
+import com.ecm.core.service.WorkflowTaskInboxService;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.flowable.engine.repository.ProcessDefinition;
@@ -33,12 +34,15 @@ class WorkflowControllerResponseContractTest {
     @Mock
     private WorkflowService workflowService;
 
+    @Mock
+    private WorkflowTaskInboxService inboxService;
+
     private MockMvc mockMvc;
     private ObjectMapper objectMapper;
 
     @BeforeEach
     void setup() {
-        mockMvc = MockMvcBuilders.standaloneSetup(new WorkflowController(workflowService))
+        mockMvc = MockMvcBuilders.standaloneSetup(new WorkflowController(workflowService, inboxService))
             .setControllerAdvice(new RestExceptionHandler())
             .build();
         objectMapper = new ObjectMapper();
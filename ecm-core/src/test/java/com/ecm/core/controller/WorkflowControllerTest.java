@@ -1,6 +1,7 @@
 package com.ecm.core.controller;
 
 import com.ecm.core.service.WorkflowService;
+import com.ecm.core.service.WorkflowTaskInboxService;
 import org.flowable.engine.repository.ProcessDefinition;
 import org.flowable.engine.runtime.ProcessInstance;
 import org.flowable.task.api.Task;
@@ -39,6 +40,9 @@ class WorkflowControllerTest {
     @Mock
     private WorkflowService workflowService;
 
+    @Mock
+    private WorkflowTaskInboxService inboxService;
+
     @InjectMocks
     private WorkflowController workflowController;
 
@@ -714,6 +718,49 @@ class WorkflowControllerTest {
         Mockito.verify(workflowService).listTasks("SHARED", "approve", "doc-1", null, null, null, null, null);
     }
 
+    @Test
+    @DisplayName("Workflow task inbox reads one bounded page from the task projection when it is enabled")
+    void workflowTaskInboxReadsProjectionWhenEnabled() throws Exception {
+        WorkflowTaskInboxService.InboxFilter filter = new WorkflowTaskInboxService.InboxFilter(
+            "ASSIGNED", "approve", null, null, null, null, null, null);
+        Mockito.when(inboxService.isEnabled()).thenReturn(true);
+        Mockito.when(inboxService.listTasks(filter, null, 200)).thenReturn(new WorkflowTaskInboxService.InboxPage(List.of(
+            new WorkflowService.WorkflowTaskSummary(
+                "task-2",
+                "Approve document",
+                "alice",
+                null,
+                null,
+                null,
+                new Date(1_700_000_000_000L),
+                null,
+                "pi-2",
+                "def-1",
+                "approvalTask",
+                "documentApproval",
+                "Document Approval Workflow",
+                3,
+                "doc-2",
+                "bob",
+                false,
+                "ASSIGNED",
+                null,
+                new Date(1_700_000_000_000L)
+            )
+        ), "cursor-2", true));
+
+        mockMvc.perform(get("/api/v1/workflows/tasks")
+                .param("scope", "ASSIGNED")
+                .param("query", "approve"))
+            .andExpect(status().isOk())
+            .andExpect(header().string("X-Next-Cursor", "cursor-2"))
+            .andExpect(jsonPath("$", hasSize(1)))
+            .andExpect(jsonPath("$[0].id").value("task-2"));
+
+        Mockito.verify(inboxService).listTasks(filter, null, 200);
+        Mockito.verifyNoMoreInteractions(workflowService);
+    }
+
     @Test
     @DisplayName("Workflow process browser returns paged summaries")
     void workflowProcessBrowserReturnsPagedSummaries() throws Exception {
@@ -0,0 +1,74 @@
+package com.ecm.core.entity;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DocumentTextContentTest {
+
+    @Test
+    @DisplayName("setTextContent keeps the text pending under its hash")
+    void setTextContentPendsCompressedText() {
+        String text = "quarterly report ".repeat(200);
+        Document document = new Document();
+
+        document.setTextContent(text);
+
+        ExtractedText pending = document.pendingExtractedText();
+        assertEquals(text, document.getTextContent());
+        assertEquals(ExtractedText.hashOf(text), document.getExtractedTextHash());
+        assertEquals(pending.getTextHash(), document.getExtractedTextHash());
+        assertEquals(text.length(), pending.getTextLength());
+        assertTrue(pending.getCompressedText().length < text.length() / 10);
+    }
+
+    @Test
+    @DisplayName("Identical text shares one hash and compressed text round-trips")
+    void identicalTextSharesHash() {
+        ExtractedText first = ExtractedText.of("héllo wörld");
+        ExtractedText second = ExtractedText.of("héllo wörld");
+        ExtractedText other = ExtractedText.of("hello world");
+
+        assertEquals(first.getTextHash(), second.getTextHash());
+        assertNotEquals(first.getTextHash(), other.getTextHash());
+        assertArrayEquals(first.getCompressedText(), second.getCompressedText());
+        assertEquals("héllo wörld", ExtractedText.decompress(first.getCompressedText()));
+    }
+
+    @Test
+    @DisplayName("Clearing the text drops the reference and the legacy inline text")
+    void clearingTextDropsReference() {
+        Document document = new Document();
+        ReflectionTestUtils.setField(document, "legacyTextContent", "inline text");
+        assertEquals("inline text", document.getTextContent());
+
+        document.setTextContent("");
+
+        assertNull(document.getTextContent());
+        assertNull(document.getExtractedTextHash());
+        assertNull(document.pendingExtractedText());
+        assertNull(ReflectionTestUtils.getField(document, "legacyTextContent"));
+    }
+
+    @Test
+    @DisplayName("Loaded documents read the referenced text")
+    void loadedDocumentReadsStoredText() {
+        ExtractedText stored = ExtractedText.of("stored text");
+        ExtractedText loaded = new ExtractedText();
+        ReflectionTestUtils.setField(loaded, "textHash", stored.getTextHash());
+        ReflectionTestUtils.setField(loaded, "compressedText", stored.getCompressedText());
+
+        Document document = new Document();
+        document.setExtractedTextHash(stored.getTextHash());
+        ReflectionTestUtils.setField(document, "extractedText", loaded);
+
+        assertEquals("stored text", document.getTextContent());
+        assertNull(document.pendingExtractedText());
+    }
+}
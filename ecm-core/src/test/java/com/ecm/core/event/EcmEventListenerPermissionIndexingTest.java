@@ -7,15 +7,18 @@ import com.ecm.core.preview.PreviewQueueService;
 import com.ecm.core.search.SearchIndexService;
 import com.ecm.core.service.AuditService;
 import com.ecm.core.service.NotificationService;
+import com.ecm.core.service.SubtreeRepathTaskRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
 
 import java.util.UUID;
 
+import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 
@@ -77,6 +80,22 @@ class EcmEventListenerPermissionIndexingTest {
         verify(searchIndexService, never()).updateNodeChildren(movedFolder);
     }
 
+    @Test
+    @DisplayName("tracked node move runs the subtree reindex through its re-path task")
+    void trackedNodeMoveRunsRepathTask() {
+        SubtreeRepathTaskRegistry registry = mock(SubtreeRepathTaskRegistry.class);
+        ReflectionTestUtils.setField(listener, "subtreeRepathTaskRegistry", registry);
+        Folder sourceParent = folder("Source", "/Sites/source");
+        Folder targetParent = folder("Target", "/Sites/target");
+        Folder movedFolder = folder("Contracts", "/Sites/target/contracts");
+
+        listener.handleNodeMoved(new NodeMovedEvent(movedFolder, sourceParent, targetParent, "alice", "task-1"));
+
+        verify(searchIndexService).updateNode(movedFolder);
+        verify(registry).run("task-1", movedFolder);
+        verify(searchIndexService, never()).reindexNodeSubtree(movedFolder);
+    }
+
     @Test
     @DisplayName("subtree reindex request reindexes descendants from database")
     void subtreeReindexRequestReindexesDescendantsFromDatabase() {
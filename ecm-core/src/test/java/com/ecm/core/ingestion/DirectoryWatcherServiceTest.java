@@ -8,6 +8,7 @@ import com.ecm.core.service.TenantContextResolverService.TenantResolution;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
@@ -15,7 +16,13 @@ import org.springframework.mock.web.MockMultipartFile;
 import org.springframework.test.util.ReflectionTestUtils;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
@@ -109,6 +116,48 @@ class DirectoryWatcherServiceTest {
         assertEquals("caller-tenant", TenantContext.getCurrentTenantDomain());
     }
 
+    @Test
+    void ingestsUnderItsClaimAndKeepsTheOriginalName(@TempDir Path watchFolder) throws Exception {
+        UUID folderId = UUID.randomUUID();
+        ReflectionTestUtils.setField(service, "enabled", true);
+        ReflectionTestUtils.setField(service, "watchFolderPath", watchFolder.toString());
+        ReflectionTestUtils.setField(service, "targetFolderId", folderId);
+        Files.writeString(watchFolder.resolve("invoice.txt"), "hello");
+        when(tenantContextResolverService.resolveTenantForTargetFolder(folderId))
+            .thenReturn(TenantResolution.resolved("acme", UUID.randomUUID()));
+        when(uploadService.uploadDocument(any(), eq(folderId), isNull())).thenAnswer(inv -> {
+            MultipartFile uploaded = inv.getArgument(0);
+            assertEquals("invoice.txt", uploaded.getOriginalFilename());
+            // Renamed first, so a node sharing the folder cannot pick it up as well
+            assertTrue(Files.exists(watchFolder.resolve("invoice.txt.ingesting")));
+            assertFalse(Files.exists(watchFolder.resolve("invoice.txt")));
+            return null;
+        });
+
+        service.pollDirectory();
+
+        verify(uploadService).uploadDocument(any(), eq(folderId), isNull());
+        try (Stream<Path> left = Files.list(watchFolder)) {
+            assertEquals(0, left.count());
+        }
+    }
+
+    @Test
+    void leavesFilesClaimedByAnotherNodeAndReleasesStaleClaims(@TempDir Path watchFolder) throws Exception {
+        ReflectionTestUtils.setField(service, "enabled", true);
+        ReflectionTestUtils.setField(service, "watchFolderPath", watchFolder.toString());
+        Path claimed = Files.writeString(watchFolder.resolve("fresh.txt.ingesting"), "hello");
+        Path stale = Files.writeString(watchFolder.resolve("stale.txt.ingesting"), "hello");
+        Files.setLastModifiedTime(stale, FileTime.from(Instant.now().minus(Duration.ofHours(2))));
+
+        service.pollDirectory();
+
+        verifyNoInteractions(uploadService);
+        assertTrue(Files.exists(claimed));
+        assertFalse(Files.exists(stale));
+        assertTrue(Files.exists(watchFolder.resolve("stale.txt")));
+    }
+
     private MultipartFile file(String name) {
         return new MockMultipartFile(name, name, "text/plain", "hello".getBytes());
     }
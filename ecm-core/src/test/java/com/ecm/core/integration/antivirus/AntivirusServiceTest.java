@@ -0,0 +1,252 @@
+package com.ecm.core.integration.antivirus;
+
+import com.ecm.core.entity.ContentScanVerdict;
+import com.ecm.core.integration.antivirus.AntivirusService.VirusDetectedException;
+import com.ecm.core.integration.antivirus.AntivirusService.VirusScanResult;
+import com.ecm.core.repository.ContentScanVerdictRepository;
+import com.ecm.core.service.AuditService;
+import com.ecm.core.service.ContentService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class AntivirusServiceTest {
+
+    private static final String EICAR = "X5O!P%@AP[4\\PZX54(P^)7CC)7}$EICAR-STANDARD-ANTIVIRUS-TEST-FILE!$H+H*";
+
+    @Mock private AuditService auditService;
+    @Mock private ContentService contentService;
+    @Mock private ContentScanVerdictRepository verdictRepository;
+
+    private final Map<String, byte[]> contents = new ConcurrentHashMap<>();
+    private final Map<String, ContentScanVerdict> verdicts = new ConcurrentHashMap<>();
+    private FakeClamd clamd;
+    private AntivirusService service;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        clamd = new FakeClamd("26001");
+        lenient().when(contentService.getContent(anyString()))
+            .thenAnswer(invocation -> new ByteArrayInputStream(contents.get(invocation.<String>getArgument(0))));
+        lenient().when(contentService.exists(anyString())).thenAnswer(invocation -> contents.containsKey(invocation.<String>getArgument(0)));
+        lenient().when(contentService.getContentSize(anyString()))
+            .thenAnswer(invocation -> (long) contents.get(invocation.<String>getArgument(0)).length);
+        lenient().when(verdictRepository.findById(anyString()))
+            .thenAnswer(invocation -> Optional.ofNullable(verdicts.get(invocation.<String>getArgument(0))));
+        lenient().when(verdictRepository.save(any(ContentScanVerdict.class))).thenAnswer(invocation -> {
+            ContentScanVerdict verdict = invocation.getArgument(0);
+            verdicts.put(verdict.getContentHash(), verdict);
+            return verdict;
+        });
+
+        service = new AntivirusService(auditService, contentService, verdictRepository, new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(service, "enabled", true);
+        ReflectionTestUtils.setField(service, "clamdHost", "127.0.0.1");
+        ReflectionTestUtils.setField(service, "clamdPort", clamd.port());
+        ReflectionTestUtils.setField(service, "clamdTimeout", 5000);
+        ReflectionTestUtils.setField(service, "onThreatAction", "reject");
+        service.init();
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        service.shutdown();
+        clamd.close();
+    }
+
+    @Test
+    @DisplayName("Scans share one persistent clamd session and infected content is rejected")
+    void pooledSessionIsReusedAcrossScans() throws Exception {
+        contents.put("c1", "first document".getBytes(StandardCharsets.US_ASCII));
+        contents.put("c2", "second document".getBytes(StandardCharsets.US_ASCII));
+        contents.put("c3", EICAR.getBytes(StandardCharsets.US_ASCII));
+
+        assertTrue(service.scanStoredContent("c1", "h1", "a.txt", null).isClean());
+        assertTrue(service.scanStoredContent("c2", "h2", "b.txt", null).isClean());
+        VirusDetectedException detected = assertThrows(VirusDetectedException.class,
+            () -> service.scanStoredContent("c3", "h3", "eicar.txt", null));
+
+        assertEquals("Eicar-Test-Signature", detected.getThreatName());
+        assertEquals(1, clamd.sessions.get());
+        assertEquals(3, clamd.instreams.get());
+        assertEquals(ContentScanVerdict.STATUS_INFECTED, verdicts.get("h3").getStatus());
+    }
+
+    @Test
+    @DisplayName("Identical content is answered from the verdict cache until the signatures change")
+    void verdictCacheIsKeyedByHashAndSignatureVersion() throws Exception {
+        contents.put("c1", "attachment".getBytes(StandardCharsets.US_ASCII));
+
+        VirusScanResult first = service.scanStoredContent("c1", "same-hash", "mail-1.pdf", null);
+        VirusScanResult second = service.scanStoredContent("c1", "same-hash", "mail-2.pdf", null);
+
+        assertTrue(first.isClean());
+        assertTrue(second.isClean());
+        assertEquals(1, clamd.instreams.get());
+        assertEquals("26001", verdicts.get("same-hash").getSignatureVersion());
+
+        clamd.signatureVersion = "26002";
+        service.refreshSignatureVersion();
+        assertTrue(service.scanStoredContent("c1", "same-hash", "mail-3.pdf", null).isClean());
+
+        assertEquals(2, clamd.instreams.get());
+        assertEquals("26002", verdicts.get("same-hash").getSignatureVersion());
+    }
+
+    @Test
+    @DisplayName("Background rescan re-verifies stale clean verdicts and reports new detections")
+    void rescanReverifiesStaleCleanVerdicts() {
+        contents.put("c9", EICAR.getBytes(StandardCharsets.US_ASCII));
+        ContentScanVerdict stale = new ContentScanVerdict();
+        stale.setContentHash("h9");
+        stale.setContentId("c9");
+        stale.setSignatureVersion("25000");
+        stale.setStatus(ContentScanVerdict.STATUS_CLEAN);
+        stale.setScannedAt(LocalDateTime.now().minusDays(1));
+        when(verdictRepository.findStale(eq(ContentScanVerdict.STATUS_CLEAN), eq("26001"), any()))
+            .thenReturn(List.of(stale));
+
+        service.rescanStaleVerdicts();
+
+        assertEquals(ContentScanVerdict.STATUS_INFECTED, stale.getStatus());
+        assertEquals("Eicar-Test-Signature", stale.getThreatName());
+        assertEquals("26001", stale.getSignatureVersion());
+        verify(auditService).logEvent(eq("SECURITY_EVENT"), isNull(), eq("c9"), eq("system"),
+            contains("VIRUS_DETECTED_RESCAN"));
+    }
+
+    /**
+     * Minimal clamd speaking PING, VERSION and INSTREAM, standalone or inside IDSESSION.
+     */
+    private static final class FakeClamd implements AutoCloseable {
+
+        final AtomicInteger sessions = new AtomicInteger();
+        final AtomicInteger instreams = new AtomicInteger();
+        volatile String signatureVersion;
+        private final ServerSocket server;
+
+        FakeClamd(String signatureVersion) throws IOException {
+            this.signatureVersion = signatureVersion;
+            this.server = new ServerSocket(0, 50, InetAddress.getLoopbackAddress());
+            Thread acceptor = new Thread(this::acceptLoop, "fake-clamd");
+            acceptor.setDaemon(true);
+            acceptor.start();
+        }
+
+        int port() {
+            return server.getLocalPort();
+        }
+
+        private void acceptLoop() {
+            while (!server.isClosed()) {
+                try {
+                    Socket socket = server.accept();
+                    Thread handler = new Thread(() -> handle(socket), "fake-clamd-conn");
+                    handler.setDaemon(true);
+                    handler.start();
+                } catch (IOException e) {
+                    return;
+                }
+            }
+        }
+
+        private void handle(Socket socket) {
+            try (socket) {
+                DataInputStream in = new DataInputStream(socket.getInputStream());
+                OutputStream out = socket.getOutputStream();
+                boolean session = false;
+                int id = 0;
+                String command;
+                while ((command = readCommand(in)) != null) {
+                    if (command.equals("zIDSESSION")) {
+                        session = true;
+                        sessions.incrementAndGet();
+                        continue;
+                    }
+                    if (command.equals("zEND")) {
+                        return;
+                    }
+                    String reply = switch (command) {
+                        case "zPING" -> "PONG";
+                        case "zVERSION" -> "ClamAV 1.0.1/" + signatureVersion + "/Mon Mar 13 08:21:55 2023";
+                        case "zINSTREAM" -> scanStream(in);
+                        default -> "UNKNOWN COMMAND";
+                    };
+                    id++;
+                    out.write(((session ? id + ": " : "") + reply + "\0").getBytes(StandardCharsets.US_ASCII));
+                    out.flush();
+                    if (!session) {
+                        return;
+                    }
+                }
+            } catch (IOException ignored) {
+                // Client went away
+            }
+        }
+
+        private String scanStream(DataInputStream in) throws IOException {
+            instreams.incrementAndGet();
+            ByteArrayOutputStream data = new ByteArrayOutputStream();
+            int length;
+            while ((length = in.readInt()) > 0) {
+                data.write(in.readNBytes(length));
+            }
+            return data.toString(StandardCharsets.US_ASCII).contains("EICAR-STANDARD-ANTIVIRUS-TEST-FILE")
+                ? "stream: Eicar-Test-Signature FOUND"
+                : "stream: OK";
+        }
+
+        private static String readCommand(InputStream in) throws IOException {
+            ByteArrayOutputStream command = new ByteArrayOutputStream();
+            int b;
+            while ((b = in.read()) != -1) {
+                if (b == 0) {
+                    return command.toString(StandardCharsets.US_ASCII);
+                }
+                command.write(b);
+            }
+            return null;
+        }
+
+        @Override
+        public void close() throws IOException {
+            server.close();
+        }
+    }
+}
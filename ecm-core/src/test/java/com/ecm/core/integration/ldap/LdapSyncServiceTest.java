@@ -1,19 +1,27 @@
 package com.ecm.core.integration.ldap;
 
 import com.ecm.core.entity.Group;
+import com.ecm.core.entity.LdapSyncState;
 import com.ecm.core.entity.User;
+import com.ecm.core.event.UserDepartmentChangedEvent;
 import com.ecm.core.repository.GroupRepository;
+import com.ecm.core.repository.LdapSyncStateRepository;
 import com.ecm.core.repository.UserRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
@@ -23,6 +31,10 @@ import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -38,27 +50,65 @@ class LdapSyncServiceTest {
     @Mock
     private GroupRepository groupRepository;
 
-    @InjectMocks
+    @Mock
+    private LdapSyncStateRepository syncStateRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    private final LdapSyncProperties properties = new LdapSyncProperties();
+
+    private final List<User> storedUsers = new ArrayList<>();
+
+    private final List<Group> storedGroups = new ArrayList<>();
+
     private LdapSyncService ldapSyncService;
 
     @BeforeEach
     void setUp() {
-        Mockito.lenient().when(userRepository.findByUsername(anyString())).thenReturn(Optional.empty());
-        Mockito.lenient().when(userRepository.findByEmail(anyString())).thenReturn(Optional.empty());
-        Mockito.lenient().when(groupRepository.findByName(anyString())).thenReturn(Optional.empty());
-        Mockito.lenient().when(userRepository.save(any(User.class))).thenAnswer(invocation -> invocation.getArgument(0));
-        Mockito.lenient().when(groupRepository.save(any(Group.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        ldapSyncService = new LdapSyncService(
+            directoryClient,
+            userRepository,
+            groupRepository,
+            syncStateRepository,
+            properties,
+            new TransactionTemplate(transactionManager),
+            eventPublisher
+        );
+        Mockito.lenient().when(userRepository.findAllByUsernameIn(any())).thenReturn(List.of());
+        Mockito.lenient().when(userRepository.findAllByEmailIn(any())).thenReturn(List.of());
+        Mockito.lenient().when(groupRepository.findAllByNameIn(any())).thenReturn(List.of());
+        Mockito.lenient().when(syncStateRepository.findById(anyString())).thenReturn(Optional.empty());
+        Mockito.lenient().when(syncStateRepository.save(any(LdapSyncState.class))).thenAnswer(invocation -> invocation.getArgument(0));
         Mockito.lenient().when(userRepository.saveAll(org.mockito.ArgumentMatchers.<Iterable<User>>any()))
-            .thenAnswer(invocation -> {
-                Iterable<User> users = invocation.getArgument(0);
-                return users instanceof List<?> list ? list : java.util.stream.StreamSupport.stream(users.spliterator(), false).toList();
-            });
+            .thenAnswer(invocation -> store(storedUsers, invocation.getArgument(0)));
+        Mockito.lenient().when(groupRepository.saveAll(org.mockito.ArgumentMatchers.<Iterable<Group>>any()))
+            .thenAnswer(invocation -> store(storedGroups, invocation.getArgument(0)));
+        Mockito.lenient().when(userRepository.findAllByDirectoryManagedTrueAndDirectorySource("ldap"))
+            .thenAnswer(invocation -> List.copyOf(storedUsers));
+        Mockito.lenient().when(groupRepository.findAllByDirectoryManagedTrueAndDirectorySource("ldap"))
+            .thenAnswer(invocation -> List.copyOf(storedGroups));
+        Mockito.lenient().when(userRepository.findAllByDirectoryManagedTrueAndDirectorySourceAndDirectoryExternalIdIn(
+            eq("ldap"), any())).thenAnswer(invocation -> storedUsers.stream()
+                .filter(user -> invocation.<Collection<String>>getArgument(1).contains(user.getDirectoryExternalId()))
+                .toList());
+        Mockito.lenient().when(groupRepository.findAllByDirectoryManagedTrueAndDirectorySourceAndDirectoryExternalIdIn(
+            eq("ldap"), any())).thenAnswer(invocation -> storedGroups.stream()
+                .filter(group -> invocation.<Collection<String>>getArgument(1).contains(group.getDirectoryExternalId()))
+                .toList());
+        Mockito.lenient().when(userRepository.findAllByDirectoryManagedTrueAndDirectorySourceAndDirectoryDnIn(
+            eq("ldap"), any())).thenAnswer(invocation -> storedUsers.stream()
+                .filter(user -> invocation.<Collection<String>>getArgument(1).contains(user.getDirectoryDn()))
+                .toList());
     }
 
     @Test
     @DisplayName("syncNow creates mirrored users groups and memberships")
     void syncNowCreatesMirroredUsersGroupsAndMemberships() {
-        when(directoryClient.fetchSnapshot()).thenReturn(new LdapDirectorySnapshot(
+        directory(new DirectoryEntries(
             List.of(
                 new LdapDirectoryUser(
                     "user-1",
@@ -86,8 +136,6 @@ class LdapSyncServiceTest {
                 )
             )
         ));
-        when(userRepository.findAllByDirectoryManagedTrueAndDirectorySource("ldap")).thenReturn(List.of());
-        when(groupRepository.findAllByDirectoryManagedTrueAndDirectorySource("ldap")).thenReturn(List.of());
 
         LdapSyncResult result = ldapSyncService.syncNow();
 
@@ -96,9 +144,10 @@ class LdapSyncServiceTest {
         assertEquals(1, result.membershipsChanged());
         assertEquals(0, result.unresolvedMembers());
 
-        ArgumentCaptor<User> userCaptor = ArgumentCaptor.forClass(User.class);
-        verify(userRepository).save(userCaptor.capture());
-        User alice = userCaptor.getValue();
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<User>> userCaptor = ArgumentCaptor.forClass(List.class);
+        verify(userRepository, atLeastOnce()).saveAll(userCaptor.capture());
+        User alice = userCaptor.getAllValues().get(0).get(0);
         assertTrue(alice.isDirectoryManaged());
         assertEquals("ldap", alice.getDirectorySource());
         assertEquals(1, alice.getGroups().size());
@@ -124,9 +173,9 @@ class LdapSyncServiceTest {
         editors.setEnabled(true);
         editors.addUser(alice);
 
-        when(directoryClient.fetchSnapshot()).thenReturn(new LdapDirectorySnapshot(List.of(), List.of()));
-        when(userRepository.findAllByDirectoryManagedTrueAndDirectorySource("ldap")).thenReturn(List.of(alice));
-        when(groupRepository.findAllByDirectoryManagedTrueAndDirectorySource("ldap")).thenReturn(List.of(editors));
+        directory(new DirectoryEntries(List.of(), List.of()));
+        storedUsers.addAll(List.of(alice));
+        storedGroups.addAll(List.of(editors));
 
         LdapSyncResult result = ldapSyncService.syncNow();
 
@@ -149,7 +198,7 @@ class LdapSyncServiceTest {
         existing.setDirectoryExternalId("user-1");
         existing.setEnabled(true);
 
-        when(directoryClient.fetchSnapshot()).thenReturn(new LdapDirectorySnapshot(
+        directory(new DirectoryEntries(
             List.of(
                 new LdapDirectoryUser(
                     "user-1",
@@ -166,8 +215,7 @@ class LdapSyncServiceTest {
             ),
             List.of()
         ));
-        when(userRepository.findAllByDirectoryManagedTrueAndDirectorySource("ldap")).thenReturn(List.of(existing));
-        when(groupRepository.findAllByDirectoryManagedTrueAndDirectorySource("ldap")).thenReturn(List.of());
+        storedUsers.addAll(List.of(existing));
 
         LdapSyncResult result = ldapSyncService.syncNow();
 
@@ -175,4 +223,213 @@ class LdapSyncServiceTest {
         assertEquals(1, result.usersUpdated());
         assertTrue(result.warnings().stream().anyMatch(warning -> warning.contains("Preserved local username alice")));
     }
+
+    @Test
+    @DisplayName("syncNow announces department changes of existing users so their nodes are reindexed")
+    void syncNowPublishesDepartmentChangeForExistingUsers() {
+        User alice = managedUser("user-1", "alice");
+        alice.setDepartment("Sales");
+
+        directory(new DirectoryEntries(
+            List.of(
+                new LdapDirectoryUser(
+                    "user-1",
+                    "alice",
+                    "alice@example.com",
+                    "Alice",
+                    "Lee",
+                    "Alice Lee",
+                    "Finance",
+                    null,
+                    true,
+                    "uid=alice,ou=people,dc=example,dc=com"
+                ),
+                new LdapDirectoryUser(
+                    "user-2",
+                    "bob",
+                    "bob@example.com",
+                    "Bob",
+                    "Ng",
+                    "Bob Ng",
+                    "Finance",
+                    null,
+                    true,
+                    "uid=bob,ou=people,dc=example,dc=com"
+                )
+            ),
+            List.of()
+        ));
+        storedUsers.addAll(List.of(alice));
+
+        ldapSyncService.syncNow();
+
+        ArgumentCaptor<UserDepartmentChangedEvent> eventCaptor = ArgumentCaptor.forClass(UserDepartmentChangedEvent.class);
+        verify(eventPublisher).publishEvent(eventCaptor.capture());
+        assertEquals("alice", eventCaptor.getValue().getUsername());
+        assertEquals("Sales", eventCaptor.getValue().getPreviousDepartment());
+        assertEquals("Finance", eventCaptor.getValue().getDepartment());
+        assertEquals("Finance", alice.getDepartment());
+    }
+
+    @Test
+    @DisplayName("runScheduledSync applies only directory changes after the last full sync")
+    void runScheduledSyncAppliesIncrementalChanges() {
+        LdapSyncState state = new LdapSyncState();
+        state.setDirectorySource("ldap");
+        state.setUserWatermark("20260401000000Z");
+        state.setGroupWatermark("20260401000000Z");
+        state.setLastFullSyncAt(LocalDateTime.now().minusHours(1));
+        when(syncStateRepository.findById("ldap")).thenReturn(Optional.of(state));
+
+        User alice = managedUser("user-1", "alice");
+        User bob = managedUser("user-2", "bob");
+
+        directoryChanges("20260401000000Z", "20260401000000Z", new DirectoryEntries(
+            List.of(),
+            List.of(
+                new LdapDirectoryGroup(
+                    "group-1",
+                    "editors",
+                    "Editors",
+                    null,
+                    null,
+                    true,
+                    "cn=editors,ou=groups,dc=example,dc=com",
+                    Set.of("uid=bob,ou=people,dc=example,dc=com")
+                )
+            ),
+            false,
+            null,
+            "20260402000000Z"
+        ));
+        storedUsers.addAll(List.of(alice, bob));
+
+        LdapSyncResult result = ldapSyncService.runScheduledSync();
+
+        verify(directoryClient, never()).readDirectory(any());
+        assertTrue(result.incremental());
+        assertEquals(1, result.directoryEntries());
+        assertEquals(1, result.groupsCreated());
+        assertEquals(1, result.membershipsChanged());
+        assertEquals(0, result.usersDisabled());
+        assertEquals(0, result.unresolvedMembers());
+        assertTrue(alice.isEnabled());
+        assertEquals("editors", bob.getGroups().iterator().next().getName());
+        assertEquals("20260401000000Z", state.getUserWatermark());
+        assertEquals("20260402000000Z", state.getGroupWatermark());
+        verify(syncStateRepository).save(state);
+    }
+
+    @Test
+    @DisplayName("syncNow applies each directory page in its own transaction as it is read")
+    void syncNowAppliesEachPageAsItArrives() {
+        User carol = managedUser("user-3", "carol");
+        storedUsers.add(carol);
+        LdapDirectoryUser alice = directoryUser("user-1", "alice");
+        LdapDirectoryUser bob = directoryUser("user-2", "bob");
+        when(directoryClient.readDirectory(any())).thenAnswer(invocation -> {
+            LdapDirectoryPageHandler handler = invocation.getArgument(0);
+            handler.users(List.of(alice));
+            assertTrue(storedUsers.stream().anyMatch(user -> "alice".equals(user.getUsername())));
+            handler.users(List.of(bob));
+            handler.groups(List.of(new LdapDirectoryGroup(
+                "group-1",
+                "editors",
+                "Editors",
+                null,
+                null,
+                true,
+                "cn=editors,ou=groups,dc=example,dc=com",
+                Set.of(alice.dn(), bob.dn(), "uid=carol,ou=people,dc=example,dc=com")
+            )));
+            return new LdapDirectoryScan(true, 2, 1, null, null);
+        });
+
+        LdapSyncResult result = ldapSyncService.syncNow();
+
+        verify(transactionManager, times(4)).getTransaction(any());
+        assertEquals(2, result.usersCreated());
+        assertEquals(3, result.directoryEntries());
+        assertEquals(2, result.membershipsChanged());
+        assertEquals(1, result.unresolvedMembers());
+        assertEquals(1, result.usersDisabled());
+        assertFalse(carol.isEnabled());
+        assertTrue(carol.getGroups().isEmpty());
+    }
+
+    private void directory(DirectoryEntries entries) {
+        when(directoryClient.readDirectory(any()))
+            .thenAnswer(invocation -> deliver(invocation.getArgument(0), entries));
+    }
+
+    private void directoryChanges(String userWatermark, String groupWatermark, DirectoryEntries entries) {
+        when(directoryClient.readChanges(eq(userWatermark), eq(groupWatermark), any()))
+            .thenAnswer(invocation -> deliver(invocation.getArgument(2), entries));
+    }
+
+    private static LdapDirectoryScan deliver(LdapDirectoryPageHandler handler, DirectoryEntries entries) {
+        if (!entries.users().isEmpty()) {
+            handler.users(entries.users());
+        }
+        if (!entries.groups().isEmpty()) {
+            handler.groups(entries.groups());
+        }
+        return new LdapDirectoryScan(
+            entries.complete(),
+            entries.users().size(),
+            entries.groups().size(),
+            entries.userWatermark(),
+            entries.groupWatermark()
+        );
+    }
+
+    private static <T> Iterable<T> store(List<T> stored, Iterable<T> saved) {
+        for (T entity : saved) {
+            if (stored.stream().noneMatch(existing -> existing == entity)) {
+                stored.add(entity);
+            }
+        }
+        return saved;
+    }
+
+    private LdapDirectoryUser directoryUser(String externalId, String username) {
+        return new LdapDirectoryUser(
+            externalId,
+            username,
+            username + "@example.com",
+            null,
+            null,
+            username,
+            null,
+            null,
+            true,
+            "uid=" + username + ",ou=people,dc=example,dc=com"
+        );
+    }
+
+    private User managedUser(String externalId, String username) {
+        User user = new User();
+        user.setUsername(username);
+        user.setEmail(username + "@example.com");
+        user.setDirectoryManaged(true);
+        user.setDirectorySource("ldap");
+        user.setDirectoryExternalId(externalId);
+        user.setDirectoryDn("uid=" + username + ",ou=people,dc=example,dc=com");
+        user.setEnabled(true);
+        return user;
+    }
+
+    /** Directory entries handed to the sync as one user page and one group page. */
+    private record DirectoryEntries(
+        List<LdapDirectoryUser> users,
+        List<LdapDirectoryGroup> groups,
+        boolean complete,
+        String userWatermark,
+        String groupWatermark
+    ) {
+
+        DirectoryEntries(List<LdapDirectoryUser> users, List<LdapDirectoryGroup> groups) {
+            this(users, groups, true, null, null);
+        }
+    }
 }
@@ -6,6 +6,7 @@ import com.ecm.core.integration.mail.model.MailAccount;
 import com.ecm.core.integration.mail.model.MailRule;
 import com.ecm.core.integration.mail.model.ProcessedMail;
 import com.ecm.core.integration.mail.repository.MailAccountRepository;
+import com.ecm.core.integration.mail.repository.MailFolderWatermarkRepository;
 import com.ecm.core.integration.mail.repository.MailRuleRepository;
 import com.ecm.core.integration.mail.repository.ProcessedMailRepository;
 import com.ecm.core.repository.DocumentRepository;
@@ -81,6 +82,9 @@ class MailFetcherServiceDiagnosticsTest {
     @Mock
     private TenantContextResolverService tenantContextResolverService;
 
+    @Mock
+    private MailFolderWatermarkRepository watermarkRepository;
+
     private MailFetcherService service;
 
     @BeforeEach
@@ -97,7 +101,8 @@ class MailFetcherServiceDiagnosticsTest {
             emailIngestionService,
             meterRegistry,
             mailOAuthService,
-            tenantContextResolverService
+            tenantContextResolverService,
+            watermarkRepository
         );
     }
 
@@ -152,7 +157,8 @@ class MailFetcherServiceDiagnosticsTest {
             emailIngestionService,
             new SimpleMeterRegistry(),
             mailOAuthService,
-            tenantContextResolverService
+            tenantContextResolverService,
+            watermarkRepository
         );
 
         when(accountRepository.findByEnabledTrue()).thenReturn(List.of());
@@ -5,6 +5,7 @@ import com.ecm.core.integration.email.EmailIngestionService;
 import com.ecm.core.integration.mail.model.MailAccount;
 import com.ecm.core.integration.mail.model.MailRule;
 import com.ecm.core.integration.mail.repository.MailAccountRepository;
+import com.ecm.core.integration.mail.repository.MailFolderWatermarkRepository;
 import com.ecm.core.integration.mail.repository.MailRuleRepository;
 import com.ecm.core.integration.mail.repository.ProcessedMailRepository;
 import com.ecm.core.repository.DocumentRepository;
@@ -55,6 +56,7 @@ class MailFetcherServiceExportValidationTest {
     @Mock private MeterRegistry meterRegistry;
     @Mock private MailOAuthService mailOAuthService;
     @Mock private TenantContextResolverService tenantContextResolverService;
+    @Mock private MailFolderWatermarkRepository watermarkRepository;
 
     private MailFetcherService service;
 
@@ -76,7 +78,8 @@ class MailFetcherServiceExportValidationTest {
             emailIngestionService,
             meterRegistry,
             mailOAuthService,
-            tenantContextResolverService
+            tenantContextResolverService,
+            watermarkRepository
         );
     }
 
@@ -0,0 +1,200 @@
+package com.ecm.core.integration.mail.service;
+
+import com.ecm.core.integration.email.EmailIngestionService;
+import com.ecm.core.integration.mail.model.MailAccount;
+import com.ecm.core.integration.mail.model.MailFolderWatermark;
+import com.ecm.core.integration.mail.model.MailRule;
+import com.ecm.core.integration.mail.repository.MailAccountRepository;
+import com.ecm.core.integration.mail.repository.MailFolderWatermarkRepository;
+import com.ecm.core.integration.mail.repository.MailRuleRepository;
+import com.ecm.core.integration.mail.repository.ProcessedMailRepository;
+import com.ecm.core.repository.DocumentRepository;
+import com.ecm.core.repository.NodeRepository;
+import com.ecm.core.service.DocumentUploadService;
+import com.ecm.core.service.NodeService;
+import com.ecm.core.service.TagService;
+import com.ecm.core.service.TenantContextResolverService;
+import com.icegreen.greenmail.util.GreenMail;
+import com.icegreen.greenmail.util.GreenMailUtil;
+import com.icegreen.greenmail.util.ServerSetupTest;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.when;
+
+/**
+ * Drives the live fetch path against an embedded GreenMail IMAP server. The rule never matches, so
+ * nothing is ingested and the found-message counts show which UIDs each run asked the server for.
+ * Unmatched messages are deferred, so tests that only look at the UID range clear the deferred list.
+ */
+@ExtendWith(MockitoExtension.class)
+class MailFetcherServiceIncrementalFetchTest {
+
+    @Mock private MailAccountRepository accountRepository;
+    @Mock private MailRuleRepository ruleRepository;
+    @Mock private ProcessedMailRepository processedMailRepository;
+    @Mock private DocumentRepository documentRepository;
+    @Mock private NodeRepository nodeRepository;
+    @Mock private DocumentUploadService uploadService;
+    @Mock private NodeService nodeService;
+    @Mock private TagService tagService;
+    @Mock private EmailIngestionService emailIngestionService;
+    @Mock private MailOAuthService mailOAuthService;
+    @Mock private TenantContextResolverService tenantContextResolverService;
+    @Mock private MailFolderWatermarkRepository watermarkRepository;
+
+    private final Map<String, MailFolderWatermark> watermarks = new ConcurrentHashMap<>();
+    private GreenMail greenMail;
+    private MailAccount account;
+    private MailFetcherService service;
+
+    @BeforeEach
+    void setUp() {
+        greenMail = new GreenMail(ServerSetupTest.SMTP_IMAP);
+        greenMail.start();
+        greenMail.setUser("reader@example.com", "reader", "secret");
+
+        account = new MailAccount();
+        account.setId(UUID.randomUUID());
+        account.setName("greenmail");
+        account.setHost("127.0.0.1");
+        account.setPort(greenMail.getImap().getPort());
+        account.setUsername("reader");
+        account.setPassword("secret");
+        account.setSecurity(MailAccount.SecurityType.NONE);
+
+        MailRule rule = new MailRule();
+        rule.setId(UUID.randomUUID());
+        rule.setName("never-matches");
+        rule.setFolder("INBOX");
+        rule.setSubjectFilter("no-such-subject-anywhere");
+
+        when(accountRepository.findByEnabledTrue()).thenReturn(List.of(account));
+        when(accountRepository.save(any(MailAccount.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(ruleRepository.findAllByEnabledTrueOrderByPriorityAsc()).thenReturn(List.of(rule));
+        lenient().when(processedMailRepository.findUidsByAccountIdAndFolderAndUidIn(eq(account.getId()), eq("INBOX"), any()))
+            .thenReturn(List.of());
+        when(watermarkRepository.findByAccountIdAndFolder(eq(account.getId()), anyString()))
+            .thenAnswer(invocation -> Optional.ofNullable(watermarks.get(invocation.<String>getArgument(1))));
+        lenient().when(watermarkRepository.save(any(MailFolderWatermark.class))).thenAnswer(invocation -> {
+            MailFolderWatermark watermark = invocation.getArgument(0);
+            watermarks.put(watermark.getFolder(), watermark);
+            return watermark;
+        });
+
+        service = new MailFetcherService(
+            accountRepository,
+            ruleRepository,
+            processedMailRepository,
+            documentRepository,
+            nodeRepository,
+            uploadService,
+            nodeService,
+            tagService,
+            emailIngestionService,
+            new SimpleMeterRegistry(),
+            mailOAuthService,
+            tenantContextResolverService,
+            watermarkRepository
+        );
+    }
+
+    @AfterEach
+    void tearDown() {
+        service.shutdown();
+        greenMail.stop();
+    }
+
+    @Test
+    @DisplayName("Later runs only fetch UIDs above the watermark")
+    void fetchesOnlyNewUidsAfterBaseline() {
+        deliver("first");
+        deliver("second");
+
+        assertEquals(2, service.fetchAllAccounts(true).foundMessages());
+        MailFolderWatermark watermark = watermarks.get("INBOX");
+        assertNotNull(watermark);
+        assertTrue(watermark.getUidValidity() > 0);
+        long baselineUid = watermark.getLastUid();
+        assertTrue(baselineUid > 0);
+
+        deliver("third");
+        // Pretend the new UID was already handled: an unread search would still report it.
+        watermark.setLastUid(baselineUid + 1);
+        watermark.setDeferredUids(null);
+        assertEquals(0, service.fetchAllAccounts(true).foundMessages());
+
+        watermark.setLastUid(baselineUid);
+        watermark.setDeferredUids(null);
+        assertEquals(1, service.fetchAllAccounts(true).foundMessages());
+        assertEquals(baselineUid + 1, watermarks.get("INBOX").getLastUid());
+    }
+
+    @Test
+    @DisplayName("Messages passed over without being handled stay deferred below the watermark")
+    void unhandledMessagesAreDeferredAndRechecked() {
+        deliver("first");
+        deliver("second");
+
+        assertEquals(2, service.fetchAllAccounts(true).foundMessages());
+        MailFolderWatermark watermark = watermarks.get("INBOX");
+        long baselineUid = watermark.getLastUid();
+        assertEquals((baselineUid - 1) + "," + baselineUid, watermark.getDeferredUids());
+
+        // Nothing new arrived, but the unmatched messages are looked at again (e.g. after a rule change).
+        assertEquals(2, service.fetchAllAccounts(true).foundMessages());
+        assertEquals(baselineUid, watermarks.get("INBOX").getLastUid());
+
+        // Once a message has a processed row it drops out of the deferred list.
+        when(processedMailRepository.findUidsByAccountIdAndFolderAndUidIn(eq(account.getId()), eq("INBOX"), any()))
+            .thenReturn(List.of(Long.toString(baselineUid - 1)));
+        deliver("third");
+        assertEquals(3, service.fetchAllAccounts(true).foundMessages());
+        assertEquals(baselineUid + 1, watermarks.get("INBOX").getLastUid());
+        assertEquals(baselineUid + "," + (baselineUid + 1), watermarks.get("INBOX").getDeferredUids());
+    }
+
+    @Test
+    @DisplayName("A changed UIDVALIDITY discards the watermark and rescans unread messages")
+    void uidValidityChangeTriggersFullRescan() {
+        deliver("first");
+        assertEquals(1, service.fetchAllAccounts(true).foundMessages());
+
+        MailFolderWatermark watermark = watermarks.get("INBOX");
+        long serverValidity = watermark.getUidValidity();
+        watermark.setUidValidity(serverValidity + 1);
+        watermark.setLastUid(1000L);
+
+        deliver("second");
+        // A fetch above UID 1000 would find nothing; the unread scan finds at least the new message.
+        assertTrue(service.fetchAllAccounts(true).foundMessages() >= 1);
+        assertEquals(serverValidity, watermarks.get("INBOX").getUidValidity());
+        assertTrue(watermarks.get("INBOX").getLastUid() < 1000L);
+    }
+
+    private void deliver(String subject) {
+        int expected = greenMail.getReceivedMessages().length + 1;
+        GreenMailUtil.sendTextEmail("reader@example.com", "sender@example.com", subject, "body of " + subject,
+            ServerSetupTest.SMTP);
+        assertTrue(greenMail.waitForIncomingEmail(5000, expected));
+    }
+}
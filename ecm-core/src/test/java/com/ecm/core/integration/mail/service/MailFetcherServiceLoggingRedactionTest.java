@@ -6,6 +6,7 @@ import ch.qos.logback.classic.spi.ILoggingEvent;
 import ch.qos.logback.core.read.ListAppender;
 import com.ecm.core.integration.email.EmailIngestionService;
 import com.ecm.core.integration.mail.repository.MailAccountRepository;
+import com.ecm.core.integration.mail.repository.MailFolderWatermarkRepository;
 import com.ecm.core.integration.mail.repository.MailRuleRepository;
 import com.ecm.core.integration.mail.model.MailAccount;
 import com.ecm.core.integration.mail.repository.ProcessedMailRepository;
@@ -77,6 +78,7 @@ class MailFetcherServiceLoggingRedactionTest {
     private MeterRegistry meterRegistry;
     @Mock private MailOAuthService mailOAuthService;
     @Mock private TenantContextResolverService tenantContextResolverService;
+    @Mock private MailFolderWatermarkRepository watermarkRepository;
 
     private MailFetcherService service;
     private Logger fetcherLogger;
@@ -97,7 +99,8 @@ class MailFetcherServiceLoggingRedactionTest {
             emailIngestionService,
             meterRegistry,
             mailOAuthService,
-            tenantContextResolverService
+            tenantContextResolverService,
+            watermarkRepository
         );
         fetcherLogger = (Logger) LoggerFactory.getLogger(MailFetcherService.class);
         appender = new ListAppender<>();
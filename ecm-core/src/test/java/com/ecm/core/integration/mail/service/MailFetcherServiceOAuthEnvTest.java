@@ -3,6 +3,7 @@ package com.ecm.core.integration.mail.service;
 import com.ecm.core.integration.email.EmailIngestionService;
 import com.ecm.core.integration.mail.model.MailAccount;
 import com.ecm.core.integration.mail.repository.MailAccountRepository;
+import com.ecm.core.integration.mail.repository.MailFolderWatermarkRepository;
 import com.ecm.core.integration.mail.repository.MailRuleRepository;
 import com.ecm.core.integration.mail.repository.ProcessedMailRepository;
 import com.ecm.core.repository.DocumentRepository;
@@ -65,6 +66,9 @@ class MailFetcherServiceOAuthEnvTest {
     @Mock
     private TenantContextResolverService tenantContextResolverService;
 
+    @Mock
+    private MailFolderWatermarkRepository watermarkRepository;
+
     private MailFetcherService service;
 
     @BeforeEach
@@ -81,7 +85,8 @@ class MailFetcherServiceOAuthEnvTest {
             emailIngestionService,
             meterRegistry,
             mailOAuthService,
-            tenantContextResolverService
+            tenantContextResolverService,
+            watermarkRepository
         );
     }
 
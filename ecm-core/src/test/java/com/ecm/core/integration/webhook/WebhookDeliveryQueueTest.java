@@ -0,0 +1,160 @@
+package com.ecm.core.integration.webhook;
+
+import com.ecm.core.entity.WebhookDelivery;
+import com.ecm.core.exception.IllegalOperationException;
+import com.ecm.core.repository.WebhookDeliveryRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class WebhookDeliveryQueueTest {
+
+    @Mock
+    private WebhookDeliveryRepository deliveryRepository;
+
+    private WebhookDeliveryQueue queue;
+
+    @BeforeEach
+    void setUp() {
+        queue = new WebhookDeliveryQueue(deliveryRepository);
+        ReflectionTestUtils.setField(queue, "maxAttempts", 3);
+    }
+
+    @Test
+    void backoffGrowsExponentiallyAndIsCapped() {
+        long first = WebhookDeliveryQueue.backoffDelayMs(1, 1000L, 60_000L);
+        long third = WebhookDeliveryQueue.backoffDelayMs(3, 1000L, 60_000L);
+        long large = WebhookDeliveryQueue.backoffDelayMs(40, 1000L, 60_000L);
+
+        assertTrue(first >= 1000L && first <= 1200L, "first retry: " + first);
+        assertTrue(third >= 4000L && third <= 4800L, "third retry: " + third);
+        assertEquals(60_000L, large);
+    }
+
+    @Test
+    void failedDeliveryIsRescheduledUntilMaxAttemptsThenDeadLettered() {
+        WebhookDelivery delivery = delivery(WebhookDelivery.Status.IN_FLIGHT, 1);
+        when(deliveryRepository.findAllById(List.of(delivery.getId()))).thenReturn(List.of(delivery));
+
+        queue.markFailed(List.of(delivery.getId()), 503, "HTTP 503", 12L);
+
+        assertEquals(WebhookDelivery.Status.PENDING, delivery.getStatus());
+        assertEquals(2, delivery.getAttempts());
+        assertNull(delivery.getClaimedAt());
+        assertTrue(delivery.getNextAttemptAt().isAfter(LocalDateTime.now()));
+
+        queue.markFailed(List.of(delivery.getId()), 503, "HTTP 503", 12L);
+
+        assertEquals(WebhookDelivery.Status.DEAD, delivery.getStatus());
+        assertEquals(3, delivery.getAttempts());
+        assertEquals(503, delivery.getLastStatusCode());
+    }
+
+    @Test
+    void nonRetryableFailureIsDeadLetteredOnFirstAttempt() {
+        WebhookDelivery delivery = delivery(WebhookDelivery.Status.IN_FLIGHT, 0);
+        when(deliveryRepository.findAllById(List.of(delivery.getId()))).thenReturn(List.of(delivery));
+
+        queue.markFailed(List.of(delivery.getId()), 410, "HTTP 410", 5L, false);
+
+        assertEquals(WebhookDelivery.Status.DEAD, delivery.getStatus());
+        assertEquals(1, delivery.getAttempts());
+        assertEquals("HTTP 410", delivery.getLastError());
+    }
+
+    @Test
+    void onlyTransportErrorsServerErrorsTimeoutsAndThrottlingAreRetryable() {
+        assertTrue(WebhookDeliveryClient.Result.failure(null, "Connection refused").retryable());
+        assertTrue(WebhookDeliveryClient.Result.failure(502, "HTTP 502").retryable());
+        assertTrue(WebhookDeliveryClient.Result.failure(408, "HTTP 408").retryable());
+        assertTrue(WebhookDeliveryClient.Result.failure(429, "HTTP 429").retryable());
+        assertFalse(WebhookDeliveryClient.Result.failure(404, "HTTP 404").retryable());
+        assertFalse(WebhookDeliveryClient.Result.success(200).retryable());
+    }
+
+    @Test
+    void claimReturnsNothingOnceTheSubscriptionHasMaxConcurrencyBatchesInFlight() {
+        UUID subscriptionId = UUID.randomUUID();
+        when(deliveryRepository.countInFlightBatches(subscriptionId)).thenReturn(2L);
+
+        assertTrue(queue.claim(subscriptionId, 10, 2).isEmpty());
+
+        verify(deliveryRepository).lockSubscriptionForClaim(subscriptionId);
+        verify(deliveryRepository, never()).lockDueDeliveries(any(), any(), anyInt());
+    }
+
+    @Test
+    void claimMarksOneBatchInFlightUnderOneBatchId() {
+        UUID subscriptionId = UUID.randomUUID();
+        WebhookDelivery first = delivery(WebhookDelivery.Status.PENDING, 0);
+        WebhookDelivery second = delivery(WebhookDelivery.Status.PENDING, 0);
+        when(deliveryRepository.countInFlightBatches(subscriptionId)).thenReturn(1L);
+        when(deliveryRepository.lockDueDeliveries(eq(subscriptionId), any(), eq(10))).thenReturn(List.of(first, second));
+        when(deliveryRepository.saveAll(List.of(first, second))).thenReturn(List.of(first, second));
+
+        List<WebhookDelivery> claimed = queue.claim(subscriptionId, 10, 2);
+
+        assertEquals(2, claimed.size());
+        assertEquals(WebhookDelivery.Status.IN_FLIGHT, first.getStatus());
+        assertNotNull(first.getClaimBatchId());
+        assertEquals(first.getClaimBatchId(), second.getClaimBatchId());
+    }
+
+    @Test
+    void staleClaimsSpendAnAttemptAgainstMaxAttempts() {
+        when(deliveryRepository.releaseStaleClaims(any(), any(), eq(3), any())).thenReturn(4);
+
+        assertEquals(4, queue.releaseStaleClaims());
+
+        verify(deliveryRepository).releaseStaleClaims(any(LocalDateTime.class), any(LocalDateTime.class), eq(3),
+            eq("Worker lease expired before an outcome was recorded"));
+    }
+
+    @Test
+    void replayResetsDeadLetterAndRejectsOtherStates() {
+        WebhookDelivery dead = delivery(WebhookDelivery.Status.DEAD, 3);
+        WebhookDelivery delivered = delivery(WebhookDelivery.Status.DELIVERED, 1);
+        when(deliveryRepository.findById(dead.getId())).thenReturn(Optional.of(dead));
+        when(deliveryRepository.findById(delivered.getId())).thenReturn(Optional.of(delivered));
+        when(deliveryRepository.save(dead)).thenReturn(dead);
+
+        queue.replay(dead.getId());
+
+        assertEquals(WebhookDelivery.Status.PENDING, dead.getStatus());
+        assertEquals(0, dead.getAttempts());
+        assertThrows(IllegalOperationException.class, () -> queue.replay(delivered.getId()));
+    }
+
+    private static WebhookDelivery delivery(WebhookDelivery.Status status, int attempts) {
+        WebhookDelivery delivery = new WebhookDelivery();
+        delivery.setId(UUID.randomUUID());
+        delivery.setSubscriptionId(UUID.randomUUID());
+        delivery.setEventType("NODE_CREATED");
+        delivery.setStatus(status);
+        delivery.setAttempts(attempts);
+        delivery.setClaimedAt(LocalDateTime.now());
+        return delivery;
+    }
+}
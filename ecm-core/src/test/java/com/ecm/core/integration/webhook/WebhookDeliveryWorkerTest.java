@@ -0,0 +1,256 @@
+package com.ecm.core.integration.webhook;
+
+import com.ecm.core.entity.WebhookDelivery;
+import com.ecm.core.entity.WebhookSubscription;
+import com.ecm.core.repository.WebhookDeliveryRepository;
+import com.ecm.core.repository.WebhookSubscriptionRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.Headers;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class WebhookDeliveryWorkerTest {
+
+    @Mock
+    private WebhookSubscriptionRepository subscriptionRepository;
+
+    @Mock
+    private WebhookDeliveryQueue deliveryQueue;
+
+    @Mock
+    private WebhookDeliveryClient deliveryClient;
+
+    @Mock
+    private WebhookDeliveryRepository deliveryRepository;
+
+    private WebhookCircuitBreaker circuitBreaker;
+    private SimpleMeterRegistry meterRegistry;
+    private WebhookDeliveryWorker worker;
+
+    private HttpServer server;
+    private WebhookDeliveryWorker endpointWorker;
+    private final AtomicInteger endpointStatus = new AtomicInteger(200);
+    private final List<Headers> receivedHeaders = Collections.synchronizedList(new ArrayList<>());
+    private final List<String> receivedBodies = Collections.synchronizedList(new ArrayList<>());
+
+    @BeforeEach
+    void setUp() {
+        circuitBreaker = new WebhookCircuitBreaker();
+        circuitBreaker.setFailureThreshold(2);
+        meterRegistry = new SimpleMeterRegistry();
+        worker = new WebhookDeliveryWorker(
+            subscriptionRepository, deliveryQueue, deliveryClient, circuitBreaker, meterRegistry, 4);
+    }
+
+    @AfterEach
+    void tearDown() {
+        worker.shutdown();
+        if (endpointWorker != null) {
+            endpointWorker.shutdown();
+        }
+        if (server != null) {
+            server.stop(0);
+        }
+    }
+
+    @Test
+    void dispatchClaimsUpToTheClusterWideConcurrencyLimit() throws Exception {
+        WebhookSubscription subscription = subscription(2, 5);
+        CountDownLatch release = new CountDownLatch(1);
+        when(deliveryQueue.claim(subscription.getId(), 5, 2))
+            .thenAnswer(invocation -> List.of(delivery(subscription.getId())))
+            .thenAnswer(invocation -> List.of(delivery(subscription.getId())))
+            .thenReturn(List.of());
+        when(deliveryClient.send(eq(subscription), anyList())).thenAnswer(invocation -> {
+            release.await(5, TimeUnit.SECONDS);
+            return WebhookDeliveryClient.Result.success(200);
+        });
+
+        int dispatched = worker.dispatch(subscription);
+
+        assertEquals(2, dispatched);
+        // the queue reports the limit reached while both batches are still in flight
+        assertEquals(0, worker.dispatch(subscription));
+
+        release.countDown();
+        verify(deliveryQueue, timeout(2000).times(2)).markDelivered(anyList(), eq(200), any(Long.class));
+        verify(deliveryQueue, times(3)).claim(subscription.getId(), 5, 2);
+    }
+
+    @Test
+    void repeatedFailuresOpenCircuitAndStopClaiming() {
+        WebhookSubscription subscription = subscription(1, 1);
+        List<WebhookDelivery> batch = List.of(delivery(subscription.getId()));
+        when(deliveryClient.send(subscription, batch))
+            .thenReturn(WebhookDeliveryClient.Result.failure(503, "HTTP 503"));
+
+        worker.deliver(subscription, batch);
+        worker.deliver(subscription, batch);
+
+        assertEquals(WebhookCircuitBreaker.State.OPEN, circuitBreaker.snapshot(subscription.getId()).state());
+        assertEquals(0, worker.dispatch(subscription));
+        verify(deliveryQueue, never()).claim(eq(subscription.getId()), anyInt(), anyInt());
+        assertEquals(2.0, meterRegistry.counter("webhook_deliveries_total",
+            "subscription", subscription.getId().toString(), "outcome", "failure").count());
+    }
+
+    @Test
+    void batchSizeDefaultsToOneAndIsCappedByGlobalMaximum() {
+        assertEquals(1, worker.resolveBatchSize(subscription(null, null)));
+        assertEquals(100, worker.resolveBatchSize(subscription(1, 5000)));
+    }
+
+    @Test
+    void deliveryToLocalEndpointCarriesSignedHeaders() throws Exception {
+        WebhookSubscription subscription = startEndpoint("s3cr3t");
+        WebhookDelivery delivery = trackedDelivery(subscription.getId());
+
+        endpointWorker.deliver(subscription, List.of(delivery));
+
+        assertEquals(1, receivedBodies.size());
+        Headers headers = receivedHeaders.get(0);
+        String body = receivedBodies.get(0);
+        assertEquals(WebhookDeliveryClient.signPayload("s3cr3t", body),
+            headers.getFirst(WebhookDeliveryClient.SIGNATURE_HEADER));
+        assertEquals("NODE_CREATED", headers.getFirst(WebhookDeliveryClient.EVENT_HEADER));
+        assertEquals(delivery.getId().toString(), headers.getFirst(WebhookDeliveryClient.DELIVERY_HEADER));
+        assertEquals("1", headers.getFirst(WebhookDeliveryClient.BATCH_SIZE_HEADER));
+        assertNotNull(headers.getFirst(WebhookDeliveryClient.TIMESTAMP_HEADER));
+        assertTrue(headers.getFirst("Content-Type").startsWith("application/json"));
+        assertTrue(body.contains("\"deliveryId\":\"" + delivery.getId() + "\""));
+        assertEquals(WebhookDelivery.Status.DELIVERED, delivery.getStatus());
+        assertEquals(200, delivery.getLastStatusCode());
+    }
+
+    @Test
+    void serverErrorFromLocalEndpointIsRetriedUntilDelivered() throws Exception {
+        WebhookSubscription subscription = startEndpoint(null);
+        WebhookDelivery delivery = trackedDelivery(subscription.getId());
+        endpointStatus.set(503);
+
+        endpointWorker.deliver(subscription, List.of(delivery));
+
+        assertEquals(WebhookDelivery.Status.PENDING, delivery.getStatus());
+        assertEquals(1, delivery.getAttempts());
+        assertEquals(503, delivery.getLastStatusCode());
+        assertTrue(delivery.getNextAttemptAt().isAfter(LocalDateTime.now()));
+        assertEquals(1, circuitBreaker.snapshot(subscription.getId()).consecutiveFailures());
+        assertNull(receivedHeaders.get(0).getFirst(WebhookDeliveryClient.SIGNATURE_HEADER));
+
+        endpointStatus.set(200);
+        endpointWorker.deliver(subscription, List.of(delivery));
+
+        assertEquals(2, receivedBodies.size());
+        assertEquals(WebhookDelivery.Status.DELIVERED, delivery.getStatus());
+        assertEquals(2, delivery.getAttempts());
+    }
+
+    @Test
+    void clientErrorFromLocalEndpointIsDeadLetteredWithoutRetry() throws Exception {
+        WebhookSubscription subscription = startEndpoint("s3cr3t");
+        WebhookDelivery delivery = trackedDelivery(subscription.getId());
+        endpointStatus.set(400);
+
+        endpointWorker.deliver(subscription, List.of(delivery));
+
+        assertEquals(1, receivedBodies.size());
+        assertEquals(WebhookDelivery.Status.DEAD, delivery.getStatus());
+        assertEquals(1, delivery.getAttempts());
+        assertEquals(400, delivery.getLastStatusCode());
+        assertEquals(WebhookCircuitBreaker.State.CLOSED, circuitBreaker.snapshot(subscription.getId()).state());
+        verify(subscriptionRepository).recordDeliveryFailure(eq(subscription.getId()), any(), eq(400), eq("HTTP 400"));
+    }
+
+    /**
+     * Starts a JDK HTTP server answering with {@link #endpointStatus} and a worker wired to the
+     * real client and queue, so requests go over the wire and outcomes land on the delivery rows.
+     */
+    private WebhookSubscription startEndpoint(String secret) throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/hook", exchange -> {
+            receivedHeaders.add(exchange.getRequestHeaders());
+            receivedBodies.add(new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8));
+            byte[] response = "{}".getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(endpointStatus.get(), response.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(response);
+            }
+        });
+        server.start();
+
+        WebhookDeliveryQueue queue = new WebhookDeliveryQueue(deliveryRepository);
+        ReflectionTestUtils.setField(queue, "maxAttempts", 5);
+        endpointWorker = new WebhookDeliveryWorker(subscriptionRepository, queue,
+            new WebhookDeliveryClient(new RestTemplate(), new ObjectMapper()), circuitBreaker, meterRegistry, 1);
+
+        WebhookSubscription subscription = subscription(1, 1);
+        subscription.setUrl("http://127.0.0.1:" + server.getAddress().getPort() + "/hook");
+        subscription.setSecret(secret);
+        return subscription;
+    }
+
+    private WebhookDelivery trackedDelivery(UUID subscriptionId) {
+        WebhookDelivery delivery = delivery(subscriptionId);
+        delivery.setPayload(Map.of("nodeId", "n-1", "name", "contract.pdf"));
+        when(deliveryRepository.findAllById(List.of(delivery.getId()))).thenReturn(List.of(delivery));
+        return delivery;
+    }
+
+    private static WebhookSubscription subscription(Integer maxConcurrency, Integer batchSize) {
+        WebhookSubscription subscription = WebhookSubscription.builder()
+            .name("hook")
+            .url("http://localhost/hook")
+            .enabled(true)
+            .deliveryMaxConcurrency(maxConcurrency)
+            .deliveryBatchSize(batchSize)
+            .build();
+        subscription.setId(UUID.randomUUID());
+        return subscription;
+    }
+
+    private static WebhookDelivery delivery(UUID subscriptionId) {
+        WebhookDelivery delivery = new WebhookDelivery();
+        delivery.setId(UUID.randomUUID());
+        delivery.setSubscriptionId(subscriptionId);
+        delivery.setEventType("NODE_CREATED");
+        delivery.setStatus(WebhookDelivery.Status.IN_FLIGHT);
+        return delivery;
+    }
+}
@@ -0,0 +1,113 @@
+package com.ecm.core.metrics;
+
+import com.ecm.core.config.TenantContext;
+import com.ecm.core.service.TenantService;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class EcmMetricsTest {
+
+    private SimpleMeterRegistry registry;
+    private EcmMetrics metrics;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        metrics = new EcmMetrics(registry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        TenantContext.clear();
+    }
+
+    @Test
+    @DisplayName("Tenants beyond the configured limit share the 'other' tag value")
+    void tenantTagIsBounded() {
+        ReflectionTestUtils.setField(metrics, "maxTenantTags", 2);
+
+        assertEquals(TenantService.DEFAULT_TENANT_DOMAIN, metrics.tenantTag());
+        TenantContext.setCurrentTenantDomain("Acme.example");
+        assertEquals("acme.example", metrics.tenantTag());
+        TenantContext.setCurrentTenantDomain("globex.example");
+        assertEquals(EcmMetrics.OTHER_TENANT, metrics.tenantTag());
+        TenantContext.setCurrentTenantDomain("acme.example");
+        assertEquals("acme.example", metrics.tenantTag(), "tenants already tagged keep their value");
+    }
+
+    @Test
+    @DisplayName("Timers carry the caller's tags plus tenant")
+    void recordTimeTagsTenant() {
+        TenantContext.setCurrentTenantDomain("acme.example");
+
+        metrics.recordTime("ecm_content_write_duration", System.nanoTime(), "mime_family", "pdf", "outcome", "stored");
+
+        Timer timer = registry.find("ecm_content_write_duration")
+            .tags("mime_family", "pdf", "outcome", "stored", "tenant", "acme.example")
+            .timer();
+        assertNotNull(timer);
+        assertEquals(1L, timer.count());
+    }
+
+    @Test
+    @DisplayName("Bytes read through the wrapped stream are recorded once on close")
+    void countBytesReadRecordsOnClose() throws Exception {
+        InputStream in = metrics.countBytesRead(new ByteArrayInputStream(new byte[5000]), "ecm_content_read_bytes");
+
+        in.read();
+        in.readAllBytes();
+        assertTrue(registry.find("ecm_content_read_bytes").summaries().isEmpty(), "nothing recorded before close");
+        in.close();
+        in.close();
+
+        DistributionSummary summary = registry.find("ecm_content_read_bytes").summary();
+        assertNotNull(summary);
+        assertEquals(1L, summary.count());
+        assertEquals(5000.0, summary.totalAmount());
+    }
+
+    @Test
+    @DisplayName("Without a registry nothing is recorded and streams pass through unchanged")
+    void noopWithoutRegistry() {
+        EcmMetrics noop = EcmMetrics.noop();
+        InputStream in = new ByteArrayInputStream(new byte[1]);
+
+        assertFalse(noop.isEnabled());
+        assertSame(in, noop.countBytesRead(in, "ecm_content_read_bytes"));
+        noop.recordTime("ecm_content_write_duration", System.nanoTime());
+        noop.increment("ecm_permission_checks_total");
+    }
+
+    @Test
+    @DisplayName("MIME types and file names map onto the fixed family set")
+    void mimeFamilies() {
+        assertEquals("pdf", EcmMetrics.mimeFamily("application/pdf"));
+        assertEquals("text", EcmMetrics.mimeFamily("text/plain; charset=UTF-8"));
+        assertEquals("office",
+            EcmMetrics.mimeFamily("application/vnd.openxmlformats-officedocument.wordprocessingml.document"));
+        assertEquals("image", EcmMetrics.mimeFamily("IMAGE/PNG"));
+        assertEquals("unknown", EcmMetrics.mimeFamily(null));
+        assertEquals("unknown", EcmMetrics.mimeFamily("application/octet-stream"));
+        assertEquals("other", EcmMetrics.mimeFamily("application/x-custom-thing"));
+
+        assertEquals("office", EcmMetrics.mimeFamilyForFilename("Report.DOCX"));
+        assertEquals("email", EcmMetrics.mimeFamilyForFilename("inbox/message.eml"));
+        assertEquals("unknown", EcmMetrics.mimeFamilyForFilename("README"));
+        assertEquals("other", EcmMetrics.mimeFamilyForFilename("drawing.dwg"));
+    }
+}
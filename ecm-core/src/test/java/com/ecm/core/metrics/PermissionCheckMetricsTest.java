@@ -0,0 +1,74 @@
+package com.ecm.core.metrics;
+
+import com.ecm.core.entity.Permission.PermissionType;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class PermissionCheckMetricsTest {
+
+    @Mock
+    private ProceedingJoinPoint joinPoint;
+
+    private SimpleMeterRegistry registry;
+    private PermissionCheckMetrics permissionMetrics;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        permissionMetrics = new PermissionCheckMetrics(new EcmMetrics(registry));
+        lenient().when(joinPoint.getArgs()).thenReturn(new Object[] {null, PermissionType.READ, "alice"});
+    }
+
+    @Test
+    @DisplayName("A call answered without evaluation counts as a cache hit")
+    void countsCacheHit() throws Throwable {
+        when(joinPoint.proceed()).thenReturn(true);
+
+        permissionMetrics.countCacheHits(joinPoint);
+
+        assertEquals(1.0, checks("hit", "granted"));
+        assertEquals(0.0, checks("miss", "granted"));
+    }
+
+    @Test
+    @DisplayName("A call that evaluated counts once as a miss and times the evaluation")
+    void countsCacheMiss() throws Throwable {
+        when(joinPoint.proceed()).thenAnswer(invocation -> {
+            permissionMetrics.evaluated(PermissionType.READ, false, System.nanoTime());
+            return false;
+        });
+
+        permissionMetrics.countCacheHits(joinPoint);
+
+        assertEquals(0.0, checks("hit", "denied"));
+        assertEquals(1.0, checks("miss", "denied"));
+        assertEquals(1L, registry.get("ecm_permission_evaluation_duration").tag("permission", "READ").timer().count());
+    }
+
+    @Test
+    @DisplayName("Ancestor depth is recorded as a distribution")
+    void recordsAncestorDepth() {
+        permissionMetrics.ancestorsWalked(4);
+        permissionMetrics.ancestorsWalked(2);
+
+        assertEquals(6.0, registry.get("ecm_permission_ancestor_depth").summary().totalAmount());
+    }
+
+    private double checks(String cache, String result) {
+        var counter = registry.find("ecm_permission_checks_total")
+            .tags("permission", "READ", "cache", cache, "result", result)
+            .counter();
+        return counter == null ? 0.0 : counter.count();
+    }
+}
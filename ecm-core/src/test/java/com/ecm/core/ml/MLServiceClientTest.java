@@ -0,0 +1,151 @@
+package com.ecm.core.ml;
+
+import com.ecm.core.ml.MLServiceClient.ClassificationResult;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MLServiceClientTest {
+
+    private static final ObjectMapper JSON = new ObjectMapper();
+
+    private HttpServer server;
+    private final List<Integer> batchSizes = Collections.synchronizedList(new ArrayList<>());
+    private final AtomicInteger singleCalls = new AtomicInteger();
+    private final AtomicReference<byte[]> ocrBody = new AtomicReference<>();
+    private final AtomicReference<String> ocrContentType = new AtomicReference<>();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private MLServiceClient client;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext(MLServiceClient.HEALTH_PATH, exchange ->
+            respond(exchange, 200, "{\"status\":\"healthy\",\"modelLoaded\":true,\"modelVersion\":\"stub\"}"));
+        server.createContext(MLServiceClient.CLASSIFY_PATH, exchange -> {
+            singleCalls.incrementAndGet();
+            JsonNode request = JSON.readTree(exchange.getRequestBody());
+            respond(exchange, 200, JSON.writeValueAsString(prediction(request.get("text").asText())));
+        });
+        server.createContext(MLServiceClient.OCR_PATH, exchange -> {
+            ocrContentType.set(exchange.getRequestHeaders().getFirst("Content-Type"));
+            ocrBody.set(exchange.getRequestBody().readAllBytes());
+            respond(exchange, 200, "{\"text\":\"scanned\",\"pages\":1,\"language\":\"eng\",\"truncated\":false}");
+        });
+        server.start();
+
+        client = new MLServiceClient(new ObjectMapper(), meterRegistry);
+        ReflectionTestUtils.setField(client, "mlServiceUrl", "http://127.0.0.1:" + server.getAddress().getPort());
+        ReflectionTestUtils.setField(client, "batchMaxDelayMs", 200L);
+    }
+
+    @AfterEach
+    void tearDown() {
+        client.stop();
+        server.stop(0);
+    }
+
+    @Test
+    @DisplayName("Concurrent classify calls are sent as one batch and answered in order")
+    void classifyAsyncCoalescesIntoBatchRequest() {
+        server.createContext(MLServiceClient.CLASSIFY_BATCH_PATH, exchange -> {
+            JsonNode items = JSON.readTree(exchange.getRequestBody()).get("items");
+            batchSizes.add(items.size());
+            List<Object> results = new ArrayList<>();
+            items.forEach(item -> results.add(prediction(item.get("text").asText())));
+            respond(exchange, 200, JSON.writeValueAsString(Map.of("results", results)));
+        });
+        client.start();
+
+        List<CompletableFuture<ClassificationResult>> futures = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            futures.add(client.classifyAsync(text("category" + i)));
+        }
+
+        for (int i = 0; i < 5; i++) {
+            ClassificationResult result = futures.get(i).join();
+            assertTrue(result.isSuccess());
+            assertEquals("category" + i, result.getSuggestedCategory());
+        }
+        assertEquals(List.of(5), batchSizes);
+        assertEquals(0, singleCalls.get());
+        assertEquals(5.0, meterRegistry.get("ml_batch_size").tag("operation", "classify").summary().totalAmount());
+        assertEquals(1L, meterRegistry.get("ml_request_duration")
+            .tag("operation", "classify_batch").tag("outcome", "success").timer().count());
+    }
+
+    @Test
+    @DisplayName("A service without batch endpoints is served one request per item")
+    void classifyFallsBackToSingleRequestsWhenBatchEndpointMissing() {
+        server.createContext(MLServiceClient.CLASSIFY_BATCH_PATH, exchange -> respond(exchange, 404, "{}"));
+        client.start();
+
+        CompletableFuture<ClassificationResult> first = client.classifyAsync(text("invoice"));
+        CompletableFuture<ClassificationResult> second = client.classifyAsync(text("contract"));
+
+        assertEquals("invoice", first.join().getSuggestedCategory());
+        assertEquals("contract", second.join().getSuggestedCategory());
+        assertEquals(2, singleCalls.get());
+
+        assertEquals("report", client.classify(text("report")).getSuggestedCategory());
+        assertEquals(3, singleCalls.get());
+    }
+
+    @Test
+    @DisplayName("OCR uploads the stream as a multipart file part")
+    void ocrStreamsMultipartUpload() {
+        client.start();
+        byte[] content = "%PDF-1.7 scanned page".getBytes(StandardCharsets.US_ASCII);
+
+        MLServiceClient.OcrResult result = client.ocr(new ByteArrayInputStream(content), content.length,
+            "scan \"1\".pdf", "application/pdf", "eng", 2, 5000);
+
+        assertTrue(result.isSuccess());
+        assertEquals("scanned", result.getText());
+        assertTrue(ocrContentType.get().startsWith("multipart/form-data; boundary="));
+        String body = new String(ocrBody.get(), StandardCharsets.ISO_8859_1);
+        assertTrue(body.contains("name=\"file\"; filename=\"scan \\\"1\\\".pdf\""));
+        assertTrue(body.contains("Content-Type: application/pdf\r\n\r\n%PDF-1.7 scanned page\r\n--"));
+    }
+
+    private static String text(String category) {
+        return category + " " + "lorem ipsum dolor sit amet ".repeat(3);
+    }
+
+    private static Map<String, Object> prediction(String text) {
+        String category = text.substring(0, text.indexOf(' '));
+        return Map.of("prediction", category, "confidence", 0.9, "alternatives", List.of());
+    }
+
+    private static void respond(HttpExchange exchange, int status, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+}
@@ -6,6 +6,7 @@ import com.ecm.core.repository.DocumentRepository;
 import com.ecm.core.search.SearchIndexService;
 import com.ecm.core.service.ContentService;
 import com.ecm.core.service.CorrespondentService;
+import com.ecm.core.service.ExtractedTextStore;
 import org.junit.jupiter.api.Assumptions;
 import org.junit.jupiter.api.Test;
 import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
@@ -15,6 +16,7 @@ import org.testcontainers.containers.GenericContainer;
 import org.testcontainers.utility.DockerImageName;
 
 import java.io.ByteArrayInputStream;
+import java.io.InputStream;
 import java.util.HashMap;
 import java.util.Optional;
 import java.util.UUID;
@@ -53,7 +55,8 @@ class OcrQueueServiceRedisBackendTest {
                 correspondentService,
                 searchIndexService,
                 mlServiceClient,
-                template
+                template,
+                mock(ExtractedTextStore.class)
             );
 
             ReflectionTestUtils.setField(service, "ocrEnabled", true);
@@ -77,7 +80,7 @@ class OcrQueueServiceRedisBackendTest {
             doc.setContentId("content-1");
             doc.setTextContent("");
 
-            when(documentRepository.findById(docId)).thenReturn(Optional.of(doc));
+            when(documentRepository.findWithTextById(docId)).thenReturn(Optional.of(doc));
             when(documentRepository.save(any(Document.class))).thenAnswer(invocation -> invocation.getArgument(0));
             when(contentService.getContent("content-1")).thenReturn(new ByteArrayInputStream("pdf".getBytes()));
 
@@ -88,7 +91,7 @@ class OcrQueueServiceRedisBackendTest {
                 .language("eng")
                 .truncated(false)
                 .build();
-            when(mlServiceClient.ocr(any(), any(), any(), any(), anyInt(), anyInt())).thenReturn(ocrResult);
+            when(mlServiceClient.ocr(any(InputStream.class), anyLong(), any(), any(), any(), anyInt(), anyInt())).thenReturn(ocrResult);
 
             OcrQueueService.OcrQueueStatus enqueued = service.enqueue(docId, false);
             assertTrue(enqueued.queued());
@@ -7,11 +7,13 @@ import com.ecm.core.repository.DocumentRepository;
 import com.ecm.core.search.SearchIndexService;
 import com.ecm.core.service.ContentService;
 import com.ecm.core.service.CorrespondentService;
+import com.ecm.core.service.ExtractedTextStore;
 import org.junit.jupiter.api.Test;
 import org.springframework.data.redis.core.StringRedisTemplate;
 import org.springframework.test.util.ReflectionTestUtils;
 
 import java.io.ByteArrayInputStream;
+import java.io.InputStream;
 import java.time.Instant;
 import java.util.HashMap;
 import java.util.Optional;
@@ -30,8 +32,9 @@ class OcrQueueServiceTest {
         SearchIndexService searchIndexService = mock(SearchIndexService.class);
         MLServiceClient mlServiceClient = mock(MLServiceClient.class);
         StringRedisTemplate redisTemplate = mock(StringRedisTemplate.class);
+        ExtractedTextStore extractedTextStore = mock(ExtractedTextStore.class);
 
-        OcrQueueService service = new OcrQueueService(documentRepository, contentService, correspondentService, searchIndexService, mlServiceClient, redisTemplate);
+        OcrQueueService service = new OcrQueueService(documentRepository, contentService, correspondentService, searchIndexService, mlServiceClient, redisTemplate, extractedTextStore);
         ReflectionTestUtils.setField(service, "ocrEnabled", false);
 
         UUID docId = UUID.randomUUID();
@@ -41,7 +44,7 @@ class OcrQueueServiceTest {
         doc.setMimeType("application/pdf");
         doc.setFileSize(123L);
 
-        when(documentRepository.findById(docId)).thenReturn(Optional.of(doc));
+        when(documentRepository.findWithTextById(docId)).thenReturn(Optional.of(doc));
 
         OcrQueueService.OcrQueueStatus status = service.enqueue(docId, false);
         assertFalse(status.queued());
@@ -56,8 +59,9 @@ class OcrQueueServiceTest {
         SearchIndexService searchIndexService = mock(SearchIndexService.class);
         MLServiceClient mlServiceClient = mock(MLServiceClient.class);
         StringRedisTemplate redisTemplate = mock(StringRedisTemplate.class);
+        ExtractedTextStore extractedTextStore = mock(ExtractedTextStore.class);
 
-        OcrQueueService service = new OcrQueueService(documentRepository, contentService, correspondentService, searchIndexService, mlServiceClient, redisTemplate);
+        OcrQueueService service = new OcrQueueService(documentRepository, contentService, correspondentService, searchIndexService, mlServiceClient, redisTemplate, extractedTextStore);
         ReflectionTestUtils.setField(service, "ocrEnabled", true);
         ReflectionTestUtils.setField(service, "queueEnabled", true);
         ReflectionTestUtils.setField(service, "batchSize", 1);
@@ -78,7 +82,7 @@ class OcrQueueServiceTest {
         doc.setContentId("content-1");
         doc.setTextContent("");
 
-        when(documentRepository.findById(docId)).thenReturn(Optional.of(doc));
+        when(documentRepository.findWithTextById(docId)).thenReturn(Optional.of(doc));
         when(documentRepository.save(any(Document.class))).thenAnswer(invocation -> invocation.getArgument(0));
         when(contentService.getContent("content-1")).thenReturn(new ByteArrayInputStream("pdf".getBytes()));
 
@@ -89,12 +93,13 @@ class OcrQueueServiceTest {
             .language("eng")
             .truncated(false)
             .build();
-        when(mlServiceClient.ocr(any(), any(), any(), any(), anyInt(), anyInt())).thenReturn(ocrResult);
+        when(mlServiceClient.ocr(any(InputStream.class), anyLong(), any(), any(), any(), anyInt(), anyInt())).thenReturn(ocrResult);
 
         service.enqueue(docId, false);
         service.processQueue();
 
         assertEquals("hello ocr", doc.getTextContent());
+        verify(extractedTextStore).storePending(doc);
         assertEquals("READY", doc.getMetadata().get("ocrStatus"));
         assertEquals("ml-service", doc.getMetadata().get("ocrProvider"));
         assertEquals("eng", doc.getMetadata().get("ocrLanguage"));
@@ -117,8 +122,9 @@ class OcrQueueServiceTest {
         SearchIndexService searchIndexService = mock(SearchIndexService.class);
         MLServiceClient mlServiceClient = mock(MLServiceClient.class);
         StringRedisTemplate redisTemplate = mock(StringRedisTemplate.class);
+        ExtractedTextStore extractedTextStore = mock(ExtractedTextStore.class);
 
-        OcrQueueService service = new OcrQueueService(documentRepository, contentService, correspondentService, searchIndexService, mlServiceClient, redisTemplate);
+        OcrQueueService service = new OcrQueueService(documentRepository, contentService, correspondentService, searchIndexService, mlServiceClient, redisTemplate, extractedTextStore);
         ReflectionTestUtils.setField(service, "ocrEnabled", true);
         ReflectionTestUtils.setField(service, "queueEnabled", true);
         ReflectionTestUtils.setField(service, "batchSize", 1);
@@ -141,7 +147,7 @@ class OcrQueueServiceTest {
         doc.setTextContent("");
         doc.setCorrespondent(null);
 
-        when(documentRepository.findById(docId)).thenReturn(Optional.of(doc));
+        when(documentRepository.findWithTextById(docId)).thenReturn(Optional.of(doc));
         when(documentRepository.save(any(Document.class))).thenAnswer(invocation -> invocation.getArgument(0));
         when(contentService.getContent("content-1")).thenReturn(new ByteArrayInputStream("pdf".getBytes()));
 
@@ -152,7 +158,7 @@ class OcrQueueServiceTest {
             .language("eng")
             .truncated(false)
             .build();
-        when(mlServiceClient.ocr(any(), any(), any(), any(), anyInt(), anyInt())).thenReturn(ocrResult);
+        when(mlServiceClient.ocr(any(InputStream.class), anyLong(), any(), any(), any(), anyInt(), anyInt())).thenReturn(ocrResult);
 
         Correspondent correspondent = new Correspondent();
         correspondent.setName("ACME");
@@ -41,7 +41,8 @@ class ContentStorageProcessorTest {
             .inputStream(input)
             .build();
 
-        when(contentService.storeContent(any(InputStream.class), eq(filename))).thenReturn("cid");
+        when(contentService.storeContentWithHash(any(InputStream.class), eq(filename)))
+            .thenReturn(new ContentService.StoredContent("cid", "abc123", false));
         when(contentService.getContentSize("cid")).thenReturn((long) payload.length);
         when(contentService.detectMimeType("cid", filename)).thenReturn("application/pdf");
 
@@ -49,6 +50,7 @@ class ContentStorageProcessorTest {
 
         assertThat(result.isSuccess()).isTrue();
         assertThat(context.getContentId()).isEqualTo("cid");
+        assertThat(context.getContentHash()).isEqualTo("abc123");
         assertThat(context.getFileSize()).isEqualTo(payload.length);
         assertThat(context.getMimeType()).isEqualTo("application/pdf");
         verify(contentService).detectMimeType("cid", filename);
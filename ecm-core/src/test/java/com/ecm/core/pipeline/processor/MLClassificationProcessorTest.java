@@ -0,0 +1,129 @@
+package com.ecm.core.pipeline.processor;
+
+import com.ecm.core.entity.AutomationRule.TriggerType;
+import com.ecm.core.entity.Document;
+import com.ecm.core.ml.MLServiceClient;
+import com.ecm.core.ml.MLServiceClient.ClassificationResult;
+import com.ecm.core.model.Category;
+import com.ecm.core.pipeline.DocumentContext;
+import com.ecm.core.pipeline.ProcessingResult;
+import com.ecm.core.repository.CategoryRepository;
+import com.ecm.core.repository.DocumentRepository;
+import com.ecm.core.search.SearchIndexService;
+import com.ecm.core.service.CategoryService;
+import com.ecm.core.service.RuleEngineService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class MLClassificationProcessorTest {
+
+    private static final String TEXT = "Invoice 2026-031 for consulting services rendered in February, payable in 30 days.";
+
+    @Mock private MLServiceClient mlServiceClient;
+    @Mock private CategoryRepository categoryRepository;
+    @Mock private CategoryService categoryService;
+    @Mock private DocumentRepository documentRepository;
+    @Mock private PlatformTransactionManager transactionManager;
+    @Mock private RuleEngineService ruleEngineService;
+    @Mock private SearchIndexService searchIndexService;
+
+    private MLClassificationProcessor processor;
+    private Document document;
+
+    @BeforeEach
+    void setUp() {
+        processor = new MLClassificationProcessor(mlServiceClient, categoryRepository, categoryService,
+            documentRepository, transactionManager);
+        ReflectionTestUtils.setField(processor, "ruleEngineService", ruleEngineService);
+        ReflectionTestUtils.setField(processor, "searchIndexService", searchIndexService);
+        ReflectionTestUtils.setField(processor, "autoClassifyEnabled", true);
+        ReflectionTestUtils.setField(processor, "autoApplyThreshold", 0.85);
+        document = new Document();
+        document.setId(UUID.randomUUID());
+        document.setName("invoice.pdf");
+        when(mlServiceClient.isAvailable()).thenReturn(true);
+    }
+
+    @Test
+    @DisplayName("Synchronous mode applies the category before rules and indexing run")
+    void synchronousModeAppliesCategoryInPipeline() {
+        when(mlServiceClient.classify(TEXT)).thenReturn(result("Invoices", 0.95));
+        when(categoryRepository.findByName("Invoices")).thenReturn(Optional.of(category("Invoices")));
+
+        ProcessingResult result = processor.process(context());
+
+        assertThat(result.getData()).containsEntry("autoApplied", true);
+        assertThat(document.getCategories()).extracting(Category::getName).containsExactly("Invoices");
+        verify(mlServiceClient, never()).classifyAsync(any());
+        verify(ruleEngineService, never()).evaluateAndExecute(any(), any());
+    }
+
+    @Test
+    @DisplayName("Deferred apply fires DOCUMENT_CATEGORIZED rules and reindexes the document")
+    void deferredApplyTriggersRulesAndReindex() {
+        ReflectionTestUtils.setField(processor, "asyncClassify", true);
+        when(mlServiceClient.classifyAsync(TEXT)).thenReturn(CompletableFuture.completedFuture(result("Invoices", 0.95)));
+        when(documentRepository.findById(document.getId())).thenReturn(Optional.of(document));
+        when(categoryRepository.findByName("Invoices")).thenReturn(Optional.of(category("Invoices")));
+        when(ruleEngineService.evaluateAndExecute(document, TriggerType.DOCUMENT_CATEGORIZED)).thenReturn(List.of());
+
+        ProcessingResult result = processor.process(context());
+
+        assertThat(result.getData()).containsEntry("classificationPending", true);
+        assertThat(document.getCategories()).extracting(Category::getName).containsExactly("Invoices");
+        verify(documentRepository).save(document);
+        verify(ruleEngineService).evaluateAndExecute(document, TriggerType.DOCUMENT_CATEGORIZED);
+        verify(searchIndexService).updateDocument(document);
+    }
+
+    @Test
+    @DisplayName("Deferred results below the auto-apply threshold neither fire rules nor reindex")
+    void deferredLowConfidenceLeavesDocumentAlone() {
+        ReflectionTestUtils.setField(processor, "asyncClassify", true);
+        when(mlServiceClient.classifyAsync(TEXT)).thenReturn(CompletableFuture.completedFuture(result("Invoices", 0.5)));
+
+        processor.process(context());
+
+        verify(documentRepository, never()).findById(any());
+        verify(ruleEngineService, never()).evaluateAndExecute(any(), any());
+        verify(searchIndexService, never()).updateDocument(any());
+    }
+
+    private DocumentContext context() {
+        DocumentContext context = DocumentContext.builder().extractedText(TEXT).build();
+        context.setDocument(document);
+        return context;
+    }
+
+    private static ClassificationResult result(String category, double confidence) {
+        return ClassificationResult.builder()
+            .suggestedCategory(category)
+            .confidence(confidence)
+            .success(true)
+            .build();
+    }
+
+    private static Category category(String name) {
+        Category category = new Category();
+        category.setName(name);
+        return category;
+    }
+}
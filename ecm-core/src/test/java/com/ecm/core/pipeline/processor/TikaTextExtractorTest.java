@@ -3,14 +3,14 @@ package com.ecm.core.pipeline.processor;
 import com.ecm.core.pipeline.DocumentContext;
 import com.ecm.core.pipeline.ProcessingResult;
 import com.ecm.core.service.ContentService;
+import com.ecm.core.service.TextExtractionService;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.test.util.ReflectionTestUtils;
 
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
@@ -28,12 +28,20 @@ class TikaTextExtractorTest {
     @Mock
     private ContentService contentService;
 
-    @InjectMocks
+    private TextExtractionService textExtractionService;
+
     private TikaTextExtractor extractor;
 
     @BeforeEach
     void setUp() {
-        ReflectionTestUtils.setField(extractor, "maxTextLength", 10485760);
+        textExtractionService = new TextExtractionService();
+        textExtractionService.start();
+        extractor = new TikaTextExtractor(contentService, textExtractionService);
+    }
+
+    @AfterEach
+    void tearDown() {
+        textExtractionService.shutdown();
     }
 
     @Test
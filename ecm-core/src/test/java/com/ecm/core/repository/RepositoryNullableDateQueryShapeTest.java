@@ -9,6 +9,7 @@ import java.lang.reflect.Method;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
@@ -66,6 +67,26 @@ class RepositoryNullableDateQueryShapeTest {
         assertFalse(queryValue(method).contains(":nodeId"));
     }
 
+    @Test
+    @DisplayName("streaming audit export avoids nullable timestamp predicates and has a no-node-id variant")
+    void streamingAuditExportAvoidsNullableTimestampPredicates() throws Exception {
+        assertUsesCoalesce(AuditLogRepository.class, "streamByFiltersForExport",
+            String.class, String.class, String.class, UUID.class, LocalDateTime.class, LocalDateTime.class);
+        assertUsesCoalesce(AuditLogRepository.class, "streamByFiltersForExportNoNodeId",
+            String.class, String.class, String.class, LocalDateTime.class, LocalDateTime.class);
+
+        Method method = AuditLogRepository.class.getDeclaredMethod(
+            "streamByFiltersForExportNoNodeId",
+            String.class,
+            String.class,
+            String.class,
+            LocalDateTime.class,
+            LocalDateTime.class
+        );
+        assertTrue(Stream.class.isAssignableFrom(method.getReturnType()));
+        assertFalse(queryValue(method).contains(":nodeId"));
+    }
+
     private static void assertUsesCoalesce(Class<?> repository, String methodName, Class<?>... parameterTypes)
         throws Exception {
         String query = queryValue(repository.getDeclaredMethod(methodName, parameterTypes));
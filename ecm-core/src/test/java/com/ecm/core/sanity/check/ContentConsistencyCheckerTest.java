@@ -0,0 +1,195 @@
+package com.ecm.core.sanity.check;
+
+import com.ecm.core.entity.ConsistencyScanCheckpoint;
+import com.ecm.core.repository.ConsistencyScanCheckpointRepository;
+import com.ecm.core.repository.DocumentRepository;
+import com.ecm.core.repository.VersionRepository;
+import com.ecm.core.sanity.SanityCheckReport;
+import com.ecm.core.service.ContentService;
+import org.apache.commons.codec.digest.DigestUtils;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ContentConsistencyCheckerTest {
+
+    @Mock
+    private DocumentRepository documentRepository;
+
+    @Mock
+    private VersionRepository versionRepository;
+
+    @Mock
+    private ConsistencyScanCheckpointRepository checkpointRepository;
+
+    @Mock
+    private ContentService contentService;
+
+    @TempDir
+    Path storeDay;
+
+    private ContentConsistencyChecker checker;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        checker = new ContentConsistencyChecker(documentRepository, versionRepository, checkpointRepository,
+            contentService);
+        ReflectionTestUtils.setField(checker, "batchSize", 2);
+        ReflectionTestUtils.setField(checker, "threads", 2);
+        ReflectionTestUtils.setField(checker, "hashSampleRate", 1.0);
+        lenient().when(checkpointRepository.findById(ContentConsistencyChecker.SCAN_NAME)).thenReturn(Optional.empty());
+        lenient().when(versionRepository.findContentRowsAfter(any(UUID.class), anyInt())).thenReturn(List.of());
+        lenient().when(contentService.listStorageDays()).thenReturn(List.of());
+    }
+
+    @Test
+    @DisplayName("Verifies existence, size and checksum page by page and completes the checkpoint")
+    void reportsMissingTruncatedAndCorruptContent() throws Exception {
+        byte[] content = "quarterly report".getBytes(StandardCharsets.UTF_8);
+        UUID intact = new UUID(0L, 1L);
+        UUID missing = new UUID(0L, 2L);
+        UUID truncated = new UUID(0L, 3L);
+        UUID corrupt = new UUID(0L, 4L);
+        when(documentRepository.findContentRowsAfter(new UUID(0L, 0L), 2)).thenReturn(rows(
+            row(intact, "20240101000000_a", content.length, DigestUtils.sha256Hex(content)),
+            row(missing, "20240101000000_b", 10, null)));
+        when(documentRepository.findContentRowsAfter(missing, 2)).thenReturn(rows(
+            row(truncated, "20240101000000_c", 999, null),
+            row(corrupt, "20240101000000_d", content.length, DigestUtils.sha256Hex("other"))));
+        when(documentRepository.findContentRowsAfter(corrupt, 2)).thenReturn(List.of());
+        when(contentService.getContentSize("20240101000000_a")).thenReturn((long) content.length);
+        when(contentService.getContentSize("20240101000000_b")).thenThrow(new NoSuchFileException("b"));
+        when(contentService.getContentSize("20240101000000_c")).thenReturn(10L);
+        when(contentService.getContentSize("20240101000000_d")).thenReturn((long) content.length);
+        when(contentService.getContent(any())).thenAnswer(invocation -> new ByteArrayInputStream(content));
+
+        SanityCheckReport report = checker.check(false);
+
+        assertThat(report.getStatus()).isEqualTo(SanityCheckReport.Status.WARNING);
+        assertThat(report.getItemsChecked()).isEqualTo(4);
+        assertThat(report.getIssues()).hasSize(3);
+        assertThat(report.getIssues()).anySatisfy(issue -> assertThat(issue).startsWith("Missing content for document " + missing));
+        assertThat(report.getIssues()).anySatisfy(issue -> assertThat(issue).startsWith("Size mismatch for document " + truncated));
+        assertThat(report.getIssues()).anySatisfy(issue -> assertThat(issue).startsWith("Checksum mismatch for document " + corrupt));
+
+        ConsistencyScanCheckpoint checkpoint = savedCheckpoint();
+        assertThat(checkpoint.getCompletedAt()).isNotNull();
+        assertThat(checkpoint.getLastDocumentId()).isEqualTo(corrupt);
+        assertThat(checkpoint.getItemsChecked()).isEqualTo(4L);
+        assertThat(checkpoint.getIssuesFound()).isEqualTo(3L);
+    }
+
+    @Test
+    @DisplayName("Leaves old-format hashes to the backfill instead of reporting them as mismatches")
+    void skipsLegacyFlaggedHashes() throws Exception {
+        byte[] content = "quarterly report".getBytes(StandardCharsets.UTF_8);
+        UUID legacy = new UUID(0L, 1L);
+        UUID corrupt = new UUID(0L, 2L);
+        when(documentRepository.findContentRowsAfter(any(UUID.class), anyInt())).thenReturn(rows(
+            row(legacy, "20240101000000_a", content.length, DigestUtils.sha256Hex("double digested"), true),
+            row(corrupt, "20240101000000_b", content.length, DigestUtils.sha256Hex("other"), false)));
+        when(contentService.getContentSize(any())).thenReturn((long) content.length);
+        when(contentService.getContent("20240101000000_b")).thenAnswer(invocation -> new ByteArrayInputStream(content));
+
+        SanityCheckReport report = checker.check(false);
+
+        assertThat(report.getIssues()).hasSize(1);
+        assertThat(report.getIssues().get(0)).startsWith("Checksum mismatch for document " + corrupt);
+        verify(contentService, never()).getContent("20240101000000_a");
+    }
+
+    @Test
+    @DisplayName("Reports unreferenced blobs older than the grace period")
+    void reportsOrphanedBlobs() throws Exception {
+        Path referenced = Files.writeString(storeDay.resolve("20240101000000_ref"), "kept");
+        Path orphan = Files.writeString(storeDay.resolve("20240101000000_orphan"), "lost");
+        Path fresh = Files.writeString(storeDay.resolve("20240101000000_fresh"), "uploading");
+        FileTime old = FileTime.from(Instant.now().minus(3, ChronoUnit.DAYS));
+        Files.setLastModifiedTime(referenced, old);
+        Files.setLastModifiedTime(orphan, old);
+
+        when(documentRepository.findContentRowsAfter(any(UUID.class), anyInt())).thenReturn(List.of());
+        when(contentService.listStorageDays()).thenReturn(List.of("2024/01/01"));
+        when(contentService.openStorageDay("2024/01/01")).thenAnswer(invocation -> Files.newDirectoryStream(storeDay));
+        when(documentRepository.findReferencedContentIds(anyCollection()))
+            .thenReturn(List.of("20240101000000_ref"));
+
+        SanityCheckReport report = checker.check(false);
+
+        assertThat(report.getItemsChecked()).isEqualTo(3);
+        assertThat(report.getIssues()).singleElement()
+            .satisfies(issue -> assertThat(issue).startsWith("Orphaned blob 20240101000000_orphan (4 bytes)"));
+        assertThat(fresh).exists();
+        assertThat(savedCheckpoint().getLastBlobDay()).isEqualTo("2024/01/01");
+    }
+
+    @Test
+    @DisplayName("Resumes an unfinished scan from its checkpoint")
+    void resumesFromCheckpoint() throws Exception {
+        UUID lastVersion = new UUID(0L, 42L);
+        ConsistencyScanCheckpoint existing = new ConsistencyScanCheckpoint();
+        existing.setScanName(ContentConsistencyChecker.SCAN_NAME);
+        existing.setPhase(ConsistencyScanCheckpoint.Phase.VERSIONS);
+        existing.setLastVersionId(lastVersion);
+        existing.setItemsChecked(1_000L);
+        existing.setStartedAt(LocalDateTime.now().minusDays(2));
+        when(checkpointRepository.findById(ContentConsistencyChecker.SCAN_NAME)).thenReturn(Optional.of(existing));
+
+        SanityCheckReport report = checker.check(false);
+
+        assertThat(report.getStatus()).isEqualTo(SanityCheckReport.Status.SUCCESS);
+        verify(documentRepository, never()).findContentRowsAfter(any(UUID.class), anyInt());
+        verify(versionRepository).findContentRowsAfter(eq(lastVersion), eq(2));
+        assertThat(existing.getCompletedAt()).isNotNull();
+        assertThat(existing.getItemsChecked()).isEqualTo(1_000L);
+    }
+
+    private ConsistencyScanCheckpoint savedCheckpoint() {
+        ArgumentCaptor<ConsistencyScanCheckpoint> captor = ArgumentCaptor.forClass(ConsistencyScanCheckpoint.class);
+        verify(checkpointRepository, atLeastOnce()).save(captor.capture());
+        return captor.getValue();
+    }
+
+    private static Object[] row(UUID id, String contentId, long fileSize, String contentHash) {
+        return row(id, contentId, fileSize, contentHash, false);
+    }
+
+    private static Object[] row(UUID id, String contentId, long fileSize, String contentHash, boolean legacyHash) {
+        return new Object[] {id, contentId, fileSize, contentHash, legacyHash};
+    }
+
+    private static List<Object[]> rows(Object[]... rows) {
+        return List.of(rows);
+    }
+}
@@ -0,0 +1,182 @@
+package com.ecm.core.scheduler;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.scheduling.support.ScheduledMethodRunnable;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Scheduler aspect — cluster lease skip and partition binding")
+class ScheduledRunAspectClusterTest {
+
+    @Mock private ProceedingJoinPoint joinPoint;
+    @Mock private MethodSignature signature;
+    @Mock private ObjectProvider<SchedulerClusterCoordinator> coordinatorProvider;
+    @Mock private SchedulerClusterCoordinator coordinator;
+
+    private final SchedulerRunRegistry registry = new SchedulerRunRegistry();
+    private ScheduledRunAspect aspect;
+
+    @BeforeEach
+    void setUp() {
+        aspect = new ScheduledRunAspect(registry, coordinatorProvider);
+        lenient().when(joinPoint.getSignature()).thenReturn(signature);
+        lenient().when(joinPoint.getTarget()).thenReturn(new Jobs());
+        lenient().when(coordinatorProvider.getIfAvailable()).thenReturn(coordinator);
+        lenient().when(coordinator.isEnabled()).thenReturn(true);
+    }
+
+    @Test
+    @DisplayName("A single-runner tick whose lease is held elsewhere is recorded as SKIPPED and not invoked")
+    void skipsWhenLeaseHeldElsewhere() throws Throwable {
+        when(signature.getMethod()).thenReturn(Jobs.class.getMethod("purge"));
+        String jobId = SchedulerJobIds.of(Jobs.class, Jobs.class.getMethod("purge"));
+        when(coordinator.tryAcquire(jobId)).thenReturn(false);
+
+        Object result = onSchedulerThread(() -> aspect.recordScheduledRun(joinPoint));
+
+        assertEquals(0, result, "primitive return types get their default when skipped");
+        verify(joinPoint, never()).proceed();
+        SchedulerRunRegistry.RunRecord record = registry.get(jobId);
+        assertEquals(SchedulerRunRegistry.Status.SKIPPED, record.lastStatus());
+        assertEquals(1L, record.skipCount());
+        assertEquals(0L, record.runCount());
+        assertNull(record.lastRunAt());
+    }
+
+    @Test
+    @DisplayName("The lease holder runs the job and hands the lease back to the heartbeat afterwards")
+    void runsWhenLeaseAcquired() throws Throwable {
+        when(signature.getMethod()).thenReturn(Jobs.class.getMethod("purge"));
+        String jobId = SchedulerJobIds.of(Jobs.class, Jobs.class.getMethod("purge"));
+        when(coordinator.tryAcquire(jobId)).thenReturn(true);
+        when(joinPoint.proceed()).thenReturn(3);
+
+        assertEquals(3, onSchedulerThread(() -> aspect.recordScheduledRun(joinPoint)));
+
+        verify(coordinator).finished(jobId);
+        assertEquals(SchedulerRunRegistry.Status.SUCCESS, registry.get(jobId).lastStatus());
+    }
+
+    @Test
+    @DisplayName("A partitioned run sees this node's partition only while it runs")
+    void bindsPartitionForPartitionedJobs() throws Throwable {
+        when(signature.getMethod()).thenReturn(Jobs.class.getMethod("fetch"));
+        SchedulerPartition partition = new SchedulerPartition("node-a", List.of("node-a", "node-b"));
+        when(coordinator.partition()).thenReturn(partition);
+        AtomicReference<SchedulerPartition> seen = new AtomicReference<>();
+        when(joinPoint.proceed()).thenAnswer(invocation -> {
+            seen.set(SchedulerPartition.current());
+            return null;
+        });
+
+        onSchedulerThread(() -> aspect.recordScheduledRun(joinPoint));
+
+        assertEquals(partition, seen.get());
+        assertEquals(SchedulerPartition.all(), SchedulerPartition.current());
+        verify(coordinator, never()).tryAcquire(anyString());
+    }
+
+    @Test
+    @DisplayName("Jobs without @ClusterJob run on every node")
+    void unannotatedJobsRunLocally() throws Throwable {
+        when(signature.getMethod()).thenReturn(Jobs.class.getMethod("poll"));
+
+        onSchedulerThread(() -> aspect.recordScheduledRun(joinPoint));
+
+        verify(joinPoint).proceed();
+        verify(coordinator, never()).tryAcquire(anyString());
+    }
+
+    @Test
+    @DisplayName("A direct call runs the job even while another node holds the lease")
+    void directCallsBypassLease() throws Throwable {
+        when(signature.getMethod()).thenReturn(Jobs.class.getMethod("purge"));
+        String jobId = SchedulerJobIds.of(Jobs.class, Jobs.class.getMethod("purge"));
+        when(joinPoint.proceed()).thenReturn(5);
+
+        assertEquals(5, aspect.recordScheduledRun(joinPoint));
+
+        verify(coordinator, never()).tryAcquire(anyString());
+        assertEquals(SchedulerRunRegistry.Status.SUCCESS, registry.get(jobId).lastStatus());
+    }
+
+    @Test
+    @DisplayName("A job called from inside a running tick is not coordinated again")
+    void nestedCallsInsideTickBypassLease() throws Throwable {
+        when(signature.getMethod()).thenReturn(Jobs.class.getMethod("purge"));
+        String jobId = SchedulerJobIds.of(Jobs.class, Jobs.class.getMethod("purge"));
+        when(coordinator.tryAcquire(jobId)).thenReturn(true);
+        AtomicReference<Object> nested = new AtomicReference<>();
+        when(joinPoint.proceed()).thenAnswer(invocation -> {
+            if (nested.get() == null) {
+                nested.set("running");
+                nested.set(aspect.recordScheduledRun(joinPoint));
+            }
+            return 2;
+        });
+
+        onSchedulerThread(() -> aspect.recordScheduledRun(joinPoint));
+
+        assertEquals(2, nested.get());
+        verify(coordinator).tryAcquire(jobId);
+    }
+
+    /**
+     * Runs {@code call} the way Spring's scheduler runs a {@code @Scheduled} method.
+     */
+    private static Object onSchedulerThread(Tick.Call call) throws Exception {
+        Tick tick = new Tick(call);
+        new ScheduledMethodRunnable(tick, Tick.class.getMethod("run")).run();
+        return tick.result;
+    }
+
+    public static class Tick {
+        private final Call call;
+        private Object result;
+
+        Tick(Call call) {
+            this.call = call;
+        }
+
+        public void run() throws Throwable {
+            result = call.call();
+        }
+
+        @FunctionalInterface
+        interface Call {
+            Object call() throws Throwable;
+        }
+    }
+
+    static class Jobs {
+        @ClusterJob
+        public int purge() {
+            return 0;
+        }
+
+        @ClusterJob(mode = ClusterJob.Mode.PARTITIONED)
+        public void fetch() {
+        }
+
+        public void poll() {
+        }
+    }
+}
@@ -0,0 +1,131 @@
+package com.ecm.core.scheduler;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class SchedulerClusterCoordinatorTest {
+
+    private static final String JOB = "com.ecm.core.service.TrashService#purgeOldTrashItems";
+
+    @Mock private JdbcTemplate jdbcTemplate;
+
+    private SchedulerClusterCoordinator coordinator;
+
+    @BeforeEach
+    void setUp() {
+        coordinator = new SchedulerClusterCoordinator(jdbcTemplate);
+        ReflectionTestUtils.setField(coordinator, "enabled", true);
+        ReflectionTestUtils.setField(coordinator, "configuredNodeId", "node-a");
+    }
+
+    @Test
+    @DisplayName("Disabled coordination runs every job locally without touching the database")
+    void disabledRunsEverything() {
+        ReflectionTestUtils.setField(coordinator, "enabled", false);
+
+        assertTrue(coordinator.tryAcquire(JOB));
+        assertSame(SchedulerPartition.all(), coordinator.partition());
+        assertTrue(coordinator.leases().isEmpty());
+        verifyNoInteractions(jdbcTemplate);
+    }
+
+    @Test
+    @DisplayName("A lease held by another node skips the run; a database failure also skips")
+    void acquireFollowsLeaseUpsert() {
+        when(jdbcTemplate.update(contains("INSERT INTO scheduler_leases"), eq(JOB), eq("node-a"), eq(300_000L)))
+            .thenReturn(1, 0)
+            .thenThrow(new DataAccessResourceFailureException("down"));
+
+        assertTrue(coordinator.tryAcquire(JOB));
+        assertFalse(coordinator.tryAcquire(JOB));
+        assertFalse(coordinator.tryAcquire(JOB));
+    }
+
+    @Test
+    @DisplayName("Heartbeat extends leases of running jobs only and refreshes the live node set")
+    void heartbeatRenewsRunningLeases() {
+        lenient().when(jdbcTemplate.update(contains("INSERT INTO scheduler_leases"), eq(JOB), eq("node-a"), eq(300_000L)))
+            .thenReturn(1);
+        lenient().when(jdbcTemplate.update(contains("UPDATE scheduler_leases"), any(), eq(JOB), eq("node-a")))
+            .thenReturn(1);
+        when(jdbcTemplate.queryForList(contains("FROM scheduler_nodes"), eq(String.class), any()))
+            .thenReturn(List.of("node-a", "node-b"));
+
+        coordinator.tryAcquire(JOB);
+        coordinator.heartbeat();
+        coordinator.finished(JOB);
+        coordinator.heartbeat();
+
+        verify(jdbcTemplate).update(contains("UPDATE scheduler_leases"), eq(300_000L), eq(JOB), eq("node-a"));
+        verify(jdbcTemplate, times(2)).queryForList(contains("LOCALTIMESTAMP"), eq(String.class), eq(90_000L));
+        assertEquals(List.of("node-a", "node-b"), coordinator.liveNodes());
+        assertEquals(List.of("node-a", "node-b"), coordinator.partition().liveNodes());
+    }
+
+    @Test
+    @DisplayName("Partition includes this node even before its own heartbeat is visible")
+    void partitionIncludesSelf() {
+        when(jdbcTemplate.queryForList(contains("FROM scheduler_nodes"), eq(String.class), any()))
+            .thenReturn(List.of("node-b", "node-c"));
+
+        SchedulerPartition partition = coordinator.partition();
+
+        assertEquals("node-a", partition.nodeId());
+        assertEquals(List.of("node-a", "node-b", "node-c"), partition.liveNodes());
+        verify(jdbcTemplate, never()).update(contains("UPDATE scheduler_leases"), any(), anyString(), anyString());
+    }
+
+    @Test
+    @DisplayName("Every key is owned by exactly one live node and a single node owns all keys")
+    void partitionsAssignEachKeyOnce() {
+        List<String> nodes = List.of("node-a", "node-b", "node-c");
+        List<SchedulerPartition> partitions = nodes.stream()
+            .map(node -> new SchedulerPartition(node, nodes))
+            .toList();
+
+        int[] perNode = new int[nodes.size()];
+        IntStream.range(0, 3_000).forEach(key -> {
+            int owners = 0;
+            for (int i = 0; i < partitions.size(); i++) {
+                if (partitions.get(i).owns("account-" + key)) {
+                    owners++;
+                    perNode[i]++;
+                }
+            }
+            assertEquals(1, owners, "key " + key);
+        });
+        for (int count : perNode) {
+            assertTrue(count > 700, "keys spread across nodes: " + count);
+        }
+
+        SchedulerPartition alone = new SchedulerPartition("node-a", List.of("node-a"));
+        assertTrue(IntStream.range(0, 100).allMatch(key -> alone.owns("account-" + key)));
+        assertTrue(SchedulerPartition.current().owns("anything"));
+    }
+}
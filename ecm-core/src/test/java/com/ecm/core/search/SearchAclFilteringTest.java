@@ -84,6 +84,8 @@ class SearchAclFilteringTest {
     @Test
     @DisplayName("Full-text search filters unauthorized hits for non-admins")
     void fullTextSearchFiltersUnauthorizedHits() {
+        verifyEveryHit();
+
         UUID allowedId = UUID.randomUUID();
         UUID deniedId = UUID.randomUUID();
 
@@ -212,6 +214,333 @@ class SearchAclFilteringTest {
         assertTrue(hasPathScopeFilter(nativeQuery.getQuery(), tenantRoot.getPath()));
     }
 
+    @Test
+    @DisplayName("Full-text search restricts the query to the caller's authorities")
+    void fullTextSearchAppliesAuthorityTermsFilter() {
+        Mockito.when(elasticsearchOperations.search(
+                Mockito.any(Query.class),
+                Mockito.eq(NodeDocument.class),
+                Mockito.any(IndexCoordinates.class)))
+            .thenReturn(searchHits());
+        Mockito.when(securityService.hasRole("ROLE_ADMIN")).thenReturn(false);
+
+        fullTextSearchService.search("query", 0, 10, null, null);
+
+        ArgumentCaptor<Query> queryCaptor = ArgumentCaptor.forClass(Query.class);
+        Mockito.verify(elasticsearchOperations).search(
+            queryCaptor.capture(),
+            Mockito.eq(NodeDocument.class),
+            Mockito.any(IndexCoordinates.class)
+        );
+
+        NativeQuery nativeQuery = (NativeQuery) queryCaptor.getValue();
+        assertEquals(Set.of("alice", "EVERYONE"), extractPermissionTerms(nativeQuery.getQuery()));
+    }
+
+    @Test
+    @DisplayName("ACL filter excludes nodes denied to any caller authority unless the caller owns them")
+    void aclFilterExcludesDeniedAuthoritiesExceptForOwners() {
+        Mockito.when(elasticsearchOperations.search(
+                Mockito.any(Query.class),
+                Mockito.eq(NodeDocument.class),
+                Mockito.any(IndexCoordinates.class)))
+            .thenReturn(searchHits());
+        Mockito.when(securityService.hasRole("ROLE_ADMIN")).thenReturn(false);
+        Mockito.when(securityService.resolveReadableOwners("alice")).thenReturn(Set.of("alice", "bob"));
+
+        fullTextSearchService.search("query", 0, 10, null, null);
+
+        ArgumentCaptor<Query> queryCaptor = ArgumentCaptor.forClass(Query.class);
+        Mockito.verify(elasticsearchOperations).search(
+            queryCaptor.capture(),
+            Mockito.eq(NodeDocument.class),
+            Mockito.any(IndexCoordinates.class)
+        );
+
+        var esQuery = ((NativeQuery) queryCaptor.getValue()).getQuery();
+        var acl = esQuery.bool().filter().stream()
+            .filter(co.elastic.clients.elasticsearch._types.query_dsl.Query::isBool)
+            .map(co.elastic.clients.elasticsearch._types.query_dsl.Query::bool)
+            .filter(bool -> "1".equals(bool.minimumShouldMatch()))
+            .findFirst()
+            .orElseThrow();
+        assertEquals(2, acl.should().size());
+        assertEquals(Set.of("alice", "bob"), extractAclTerms(esQuery, SearchAclFilter.CREATED_BY_FIELD));
+        var granted = acl.should().get(1).bool();
+        assertEquals(Set.of("alice", "EVERYONE"), granted.mustNot().get(0).terms().terms().value().stream()
+            .map(value -> value.stringValue())
+            .collect(Collectors.toSet()));
+        assertEquals(SearchAclFilter.DENIED_PERMISSIONS_FIELD, granted.mustNot().get(0).terms().field());
+    }
+
+    @Test
+    @DisplayName("Suggestions drop hits the database check rejects")
+    void suggestionsVerifyHitsAgainstDatabase() {
+        verifyEveryHit();
+
+        UUID allowedId = UUID.randomUUID();
+        UUID deniedId = UUID.randomUUID();
+        NodeDocument allowedDoc = NodeDocument.builder().id(allowedId.toString()).name("Budget 2024").build();
+        NodeDocument deniedDoc = NodeDocument.builder().id(deniedId.toString()).name("Budget secret").build();
+        Mockito.when(elasticsearchOperations.search(
+                Mockito.any(Query.class),
+                Mockito.eq(NodeDocument.class),
+                Mockito.any(IndexCoordinates.class)))
+            .thenReturn(searchHits(searchHit(allowedDoc), searchHit(deniedDoc)));
+        Mockito.when(securityService.hasRole("ROLE_ADMIN")).thenReturn(false);
+        Document allowedNode = new Document();
+        allowedNode.setId(allowedId);
+        Document deniedNode = new Document();
+        deniedNode.setId(deniedId);
+        Mockito.when(nodeRepository.findAllById(Mockito.<UUID>anyIterable()))
+            .thenReturn(List.of(allowedNode, deniedNode));
+        Mockito.when(securityService.hasPermission(allowedNode, PermissionType.READ)).thenReturn(true);
+        Mockito.when(securityService.hasPermission(deniedNode, PermissionType.READ)).thenReturn(false);
+
+        assertEquals(List.of("Budget 2024"), facetedSearchService.getSuggestions("bud", 5));
+    }
+
+    @Test
+    @DisplayName("Suggestions use the type-ahead field under the ACL filter and fetch only names")
+    void suggestionsApplyAclFilterAndFetchOnlyNames() {
+        NodeDocument first = NodeDocument.builder()
+            .schemaVersion(NodeDocument.SCHEMA_VERSION)
+            .id(UUID.randomUUID().toString())
+            .name("Budget 2024")
+            .build();
+        NodeDocument duplicate = NodeDocument.builder()
+            .schemaVersion(NodeDocument.SCHEMA_VERSION)
+            .id(UUID.randomUUID().toString())
+            .name("Budget 2024")
+            .build();
+        NodeDocument second = NodeDocument.builder()
+            .schemaVersion(NodeDocument.SCHEMA_VERSION)
+            .id(UUID.randomUUID().toString())
+            .name("Budget plan")
+            .build();
+        Mockito.when(elasticsearchOperations.search(
+                Mockito.any(Query.class),
+                Mockito.eq(NodeDocument.class),
+                Mockito.any(IndexCoordinates.class)))
+            .thenReturn(searchHits(searchHit(first), searchHit(duplicate), searchHit(second)));
+        Mockito.when(securityService.hasRole("ROLE_ADMIN")).thenReturn(false);
+
+        List<String> suggestions = facetedSearchService.getSuggestions("bud", 5);
+
+        assertEquals(List.of("Budget 2024", "Budget plan"), suggestions);
+
+        ArgumentCaptor<Query> queryCaptor = ArgumentCaptor.forClass(Query.class);
+        Mockito.verify(elasticsearchOperations).search(
+            queryCaptor.capture(),
+            Mockito.eq(NodeDocument.class),
+            Mockito.any(IndexCoordinates.class)
+        );
+        NativeQuery nativeQuery = (NativeQuery) queryCaptor.getValue();
+        assertTrue(nativeQuery.getQuery().isFunctionScore());
+        var inner = nativeQuery.getQuery().functionScore().query();
+        assertEquals(Set.of("alice", "EVERYONE"), extractPermissionTerms(inner));
+        assertTrue(inner.bool().must().get(0).multiMatch().fields().contains("nameSuggest"));
+        assertEquals(List.of("name"), List.of(nativeQuery.getSourceFilter().getIncludes()));
+    }
+
+    @Test
+    @DisplayName("Suggestions also match a name prefix while the index schema backfill is pending")
+    void suggestionsFallBackToNamePrefixWhileBackfillPending() {
+        SearchIndexSchemaBackfill schemaBackfill = Mockito.mock(SearchIndexSchemaBackfill.class);
+        Mockito.when(schemaBackfill.isIndexCurrent()).thenReturn(false);
+        ReflectionTestUtils.setField(facetedSearchService, "schemaBackfill", schemaBackfill);
+        Mockito.when(elasticsearchOperations.search(
+                Mockito.any(Query.class),
+                Mockito.eq(NodeDocument.class),
+                Mockito.any(IndexCoordinates.class)))
+            .thenReturn(searchHits());
+        Mockito.when(securityService.hasRole("ROLE_ADMIN")).thenReturn(false);
+
+        facetedSearchService.getSuggestions("bud", 5);
+
+        ArgumentCaptor<Query> queryCaptor = ArgumentCaptor.forClass(Query.class);
+        Mockito.verify(elasticsearchOperations).search(
+            queryCaptor.capture(),
+            Mockito.eq(NodeDocument.class),
+            Mockito.any(IndexCoordinates.class)
+        );
+        var inner = ((NativeQuery) queryCaptor.getValue()).getQuery().functionScore().query();
+        var either = inner.bool().must().get(0).bool();
+        assertEquals("1", either.minimumShouldMatch());
+        assertTrue(either.should().get(0).multiMatch().fields().contains("nameSuggest"));
+        assertEquals("name", either.should().get(1).matchPhrasePrefix().field());
+    }
+
+    @Test
+    @DisplayName("Pivot runs one aggregation-only search under the ACL filter and caches per authority set")
+    void pivotAppliesAclFilterAndCachesPerAuthoritySet() {
+        Mockito.when(elasticsearchOperations.search(
+                Mockito.any(Query.class),
+                Mockito.eq(NodeDocument.class),
+                Mockito.any(IndexCoordinates.class)))
+            .thenReturn(searchHits());
+        Mockito.when(securityService.hasRole("ROLE_ADMIN")).thenReturn(false);
+        facetedSearchService.initPivotCache();
+        FacetedSearchService.PivotRequest request = new FacetedSearchService.PivotRequest();
+        request.setQuery("invoice");
+        request.setDimensions(List.of(
+            FacetedSearchService.PivotDimension.of("previewStatus"),
+            FacetedSearchService.PivotDimension.of("mimeType")
+        ));
+
+        facetedSearchService.pivot(request);
+        facetedSearchService.pivot(request);
+
+        ArgumentCaptor<Query> queryCaptor = ArgumentCaptor.forClass(Query.class);
+        Mockito.verify(elasticsearchOperations).search(
+            queryCaptor.capture(),
+            Mockito.eq(NodeDocument.class),
+            Mockito.any(IndexCoordinates.class)
+        );
+        NativeQuery nativeQuery = (NativeQuery) queryCaptor.getValue();
+        assertEquals(Set.of("alice", "EVERYONE"), extractPermissionTerms(nativeQuery.getQuery()));
+        assertEquals(0, nativeQuery.getMaxResults());
+        assertTrue(nativeQuery.getAggregations().containsKey("pivot"));
+
+        Mockito.when(securityService.getUserAuthorities("alice")).thenReturn(Set.of("alice", "GROUP_finance"));
+        facetedSearchService.pivot(request);
+
+        Mockito.verify(elasticsearchOperations, Mockito.times(2)).search(
+            Mockito.any(Query.class),
+            Mockito.eq(NodeDocument.class),
+            Mockito.any(IndexCoordinates.class)
+        );
+    }
+
+    @Test
+    @DisplayName("Full-text search trusts index ACLs without database checks by default")
+    void fullTextSearchTrustsIndexAclByDefault() {
+        NodeDocument firstDoc = NodeDocument.builder()
+            .schemaVersion(NodeDocument.SCHEMA_VERSION)
+            .id(UUID.randomUUID().toString())
+            .name("first")
+            .build();
+        NodeDocument secondDoc = NodeDocument.builder()
+            .schemaVersion(NodeDocument.SCHEMA_VERSION)
+            .id(UUID.randomUUID().toString())
+            .name("second")
+            .build();
+
+        Mockito.when(elasticsearchOperations.search(
+                Mockito.any(Query.class),
+                Mockito.eq(NodeDocument.class),
+                Mockito.any(IndexCoordinates.class)))
+            .thenReturn(searchHits(searchHit(firstDoc), searchHit(secondDoc)));
+        Mockito.when(securityService.hasRole("ROLE_ADMIN")).thenReturn(false);
+
+        var results = fullTextSearchService.search("query", 0, 10, null, null);
+
+        assertEquals(2, results.getTotalElements());
+        assertEquals(2, results.getContent().size());
+        Mockito.verifyNoInteractions(nodeRepository);
+        Mockito.verify(securityService, Mockito.never()).hasPermission(Mockito.any(), Mockito.any());
+    }
+
+    @Test
+    @DisplayName("A non-admin page is as full as the index returned and keeps the exact total")
+    void nonAdminPageIsFullWithExactTotal() {
+        backfillCurrent(true);
+        Mockito.when(securityService.resolveReadableOwnerDepartments("alice")).thenReturn(Set.of("Finance"));
+        SearchHit<NodeDocument>[] page = java.util.stream.IntStream.range(0, 10)
+            .mapToObj(i -> searchHit(NodeDocument.builder()
+                .schemaVersion(i % 2 == 0 ? NodeDocument.SCHEMA_VERSION : null)
+                .id(UUID.randomUUID().toString())
+                .name("doc-" + i)
+                .createdBy("bob")
+                .ownerDepartment("Finance")
+                .build()))
+            .toArray(SearchHit[]::new);
+        Mockito.when(elasticsearchOperations.search(
+                Mockito.any(Query.class),
+                Mockito.eq(NodeDocument.class),
+                Mockito.any(IndexCoordinates.class)))
+            .thenReturn(searchHits(37, page));
+        Mockito.when(securityService.hasRole("ROLE_ADMIN")).thenReturn(false);
+
+        var results = fullTextSearchService.search("query", 0, 10, null, null);
+
+        assertEquals(10, results.getContent().size());
+        assertEquals(37, results.getTotalElements());
+        assertEquals(4, results.getTotalPages());
+        Mockito.verifyNoInteractions(nodeRepository);
+        Mockito.verify(securityService, Mockito.never()).hasPermission(Mockito.any(), Mockito.any());
+    }
+
+    @Test
+    @DisplayName("While the schema backfill is pending only ownership matches entries below the current schema")
+    void grantAndDepartmentBranchesRequireCurrentSchemaWhileBackfillPending() {
+        backfillCurrent(false);
+        Mockito.when(elasticsearchOperations.search(
+                Mockito.any(Query.class),
+                Mockito.eq(NodeDocument.class),
+                Mockito.any(IndexCoordinates.class)))
+            .thenReturn(searchHits());
+        Mockito.when(securityService.hasRole("ROLE_ADMIN")).thenReturn(false);
+        Mockito.when(securityService.resolveReadableOwners("alice")).thenReturn(Set.of("alice"));
+        Mockito.when(securityService.resolveReadableOwnerDepartments("alice")).thenReturn(Set.of("Finance"));
+
+        fullTextSearchService.search("query", 0, 10, null, null);
+
+        var acl = aclClause(capturedQuery());
+        assertEquals(3, acl.should().size());
+        assertTrue(acl.should().get(0).isTerms());
+        assertTrue(hasCurrentSchemaFilter(acl.should().get(1).bool()));
+        assertTrue(hasCurrentSchemaFilter(acl.should().get(2).bool()));
+    }
+
+    @Test
+    @DisplayName("Once the schema backfill is done the ACL clauses carry no schema filter")
+    void aclDropsSchemaFilterOnceBackfillIsCurrent() {
+        backfillCurrent(true);
+        Mockito.when(elasticsearchOperations.search(
+                Mockito.any(Query.class),
+                Mockito.eq(NodeDocument.class),
+                Mockito.any(IndexCoordinates.class)))
+            .thenReturn(searchHits());
+        Mockito.when(securityService.hasRole("ROLE_ADMIN")).thenReturn(false);
+        Mockito.when(securityService.resolveReadableOwnerDepartments("alice")).thenReturn(Set.of("Finance"));
+
+        fullTextSearchService.search("query", 0, 10, null, null);
+
+        var acl = aclClause(capturedQuery());
+        assertFalse(hasCurrentSchemaFilter(acl.should().get(0).bool()));
+        assertFalse(hasCurrentSchemaFilter(acl.should().get(1).bool()));
+    }
+
+    @Test
+    @DisplayName("Same-department access filters on the owner's indexed department without database checks")
+    void sameDepartmentAccessFiltersOnOwnerDepartment() {
+        NodeDocument colleagueDoc = NodeDocument.builder()
+            .schemaVersion(NodeDocument.SCHEMA_VERSION)
+            .id(UUID.randomUUID().toString())
+            .name("colleague")
+            .createdBy("bob")
+            .ownerDepartment("Finance")
+            .build();
+
+        Mockito.when(elasticsearchOperations.search(
+                Mockito.any(Query.class),
+                Mockito.eq(NodeDocument.class),
+                Mockito.any(IndexCoordinates.class)))
+            .thenReturn(searchHits(searchHit(colleagueDoc)));
+        Mockito.when(securityService.hasRole("ROLE_ADMIN")).thenReturn(false);
+        Mockito.when(securityService.resolveReadableOwners("alice")).thenReturn(Set.of("alice"));
+        Mockito.when(securityService.resolveReadableOwnerDepartments("alice")).thenReturn(Set.of("Finance"));
+
+        var results = fullTextSearchService.search("query", 0, 10, null, null);
+
+        assertEquals(1, results.getContent().size());
+        Mockito.verifyNoInteractions(nodeRepository);
+        var esQuery = capturedQuery();
+        assertEquals(Set.of("Finance"), extractAclTerms(esQuery, SearchAclFilter.OWNER_DEPARTMENT_FIELD));
+        assertEquals(Set.of("alice"), extractAclTerms(esQuery, SearchAclFilter.CREATED_BY_FIELD));
+    }
+
     @Test
     @DisplayName("Full-text search returns empty results when search is disabled")
     void fullTextSearchReturnsEmptyWhenDisabled() {
@@ -227,10 +556,12 @@ class SearchAclFilteringTest {
     @DisplayName("Full-text search skips hits with missing node IDs for non-admins")
     void fullTextSearchSkipsMissingNodeIds() {
         NodeDocument blankDoc = NodeDocument.builder()
+            .schemaVersion(NodeDocument.SCHEMA_VERSION)
             .id(" ")
             .name("blank")
             .build();
         NodeDocument invalidDoc = NodeDocument.builder()
+            .schemaVersion(NodeDocument.SCHEMA_VERSION)
             .id("not-a-uuid")
             .name("invalid")
             .build();
@@ -254,6 +585,8 @@ class SearchAclFilteringTest {
     @Test
     @DisplayName("Full-text search returns empty when user lacks permissions")
     void fullTextSearchReturnsEmptyWhenNoPermissions() {
+        verifyEveryHit();
+
         UUID firstId = UUID.randomUUID();
         UUID secondId = UUID.randomUUID();
 
@@ -295,6 +628,8 @@ class SearchAclFilteringTest {
     @Test
     @DisplayName("Full-text search filters hits for nodes missing from the repository")
     void fullTextSearchSkipsMissingNodes() {
+        verifyEveryHit();
+
         UUID existingId = UUID.randomUUID();
         UUID missingId = UUID.randomUUID();
 
@@ -333,6 +668,8 @@ class SearchAclFilteringTest {
     @Test
     @DisplayName("Faceted search builds facets from authorized hits only")
     void facetedSearchBuildsFacetsFromAuthorizedHits() {
+        verifyEveryHit();
+
         UUID allowedId = UUID.randomUUID();
         UUID deniedId = UUID.randomUUID();
 
@@ -460,6 +797,8 @@ class SearchAclFilteringTest {
     @Test
     @DisplayName("Available facets filter unauthorized hits for non-admins")
     void availableFacetsFiltersUnauthorizedHits() {
+        verifyEveryHit();
+
         UUID allowedId = UUID.randomUUID();
         UUID deniedId = UUID.randomUUID();
 
@@ -528,11 +867,13 @@ class SearchAclFilteringTest {
     @DisplayName("Faceted search skips hits with missing node IDs for non-admins")
     void facetedSearchSkipsMissingNodeIds() {
         NodeDocument blankDoc = NodeDocument.builder()
+            .schemaVersion(NodeDocument.SCHEMA_VERSION)
             .id("")
             .name("blank")
             .mimeType("application/pdf")
             .build();
         NodeDocument invalidDoc = NodeDocument.builder()
+            .schemaVersion(NodeDocument.SCHEMA_VERSION)
             .id("not-a-uuid")
             .name("invalid")
             .mimeType("image/png")
@@ -704,6 +1045,8 @@ class SearchAclFilteringTest {
     @Test
     @DisplayName("Faceted search filters hits for nodes missing from the repository")
     void facetedSearchSkipsMissingNodes() {
+        verifyEveryHit();
+
         UUID existingId = UUID.randomUUID();
         UUID missingId = UUID.randomUUID();
 
@@ -810,6 +1153,47 @@ class SearchAclFilteringTest {
         assertTrue(hasPathScopeFilter(nativeQuery.getQuery(), tenantRoot.getPath()));
     }
 
+    private void backfillCurrent(boolean current) {
+        SearchIndexSchemaBackfill schemaBackfill = Mockito.mock(SearchIndexSchemaBackfill.class);
+        Mockito.when(schemaBackfill.isIndexCurrent()).thenReturn(current);
+        ReflectionTestUtils.setField(
+            ReflectionTestUtils.getField(fullTextSearchService, "searchAclFilter"), "schemaBackfill", schemaBackfill);
+    }
+
+    private co.elastic.clients.elasticsearch._types.query_dsl.Query capturedQuery() {
+        ArgumentCaptor<Query> queryCaptor = ArgumentCaptor.forClass(Query.class);
+        Mockito.verify(elasticsearchOperations).search(
+            queryCaptor.capture(),
+            Mockito.eq(NodeDocument.class),
+            Mockito.any(IndexCoordinates.class)
+        );
+        return ((NativeQuery) queryCaptor.getValue()).getQuery();
+    }
+
+    private static co.elastic.clients.elasticsearch._types.query_dsl.BoolQuery aclClause(
+        co.elastic.clients.elasticsearch._types.query_dsl.Query esQuery
+    ) {
+        return esQuery.bool().filter().stream()
+            .filter(co.elastic.clients.elasticsearch._types.query_dsl.Query::isBool)
+            .map(co.elastic.clients.elasticsearch._types.query_dsl.Query::bool)
+            .filter(bool -> "1".equals(bool.minimumShouldMatch()))
+            .findFirst()
+            .orElseThrow();
+    }
+
+    private static boolean hasCurrentSchemaFilter(co.elastic.clients.elasticsearch._types.query_dsl.BoolQuery bool) {
+        return bool.filter().stream()
+            .filter(co.elastic.clients.elasticsearch._types.query_dsl.Query::isRange)
+            .anyMatch(range -> SearchAclFilter.SCHEMA_VERSION_FIELD.equals(range.range().field()));
+    }
+
+    private void verifyEveryHit() {
+        ReflectionTestUtils.setField(
+            ReflectionTestUtils.getField(fullTextSearchService, "searchAclFilter"), "verifySampleRate", 1.0);
+        ReflectionTestUtils.setField(
+            ReflectionTestUtils.getField(facetedSearchService, "searchAclFilter"), "verifySampleRate", 1.0);
+    }
+
     private static SearchHit<NodeDocument> searchHit(NodeDocument doc) {
         return new SearchHit<>(
             "ecm_documents",
@@ -828,8 +1212,13 @@ class SearchAclFilteringTest {
 
     @SafeVarargs
     private static SearchHits<NodeDocument> searchHits(SearchHit<NodeDocument>... hits) {
+        return searchHits(hits.length, hits);
+    }
+
+    @SafeVarargs
+    private static SearchHits<NodeDocument> searchHits(long totalHits, SearchHit<NodeDocument>... hits) {
         return new SearchHitsImpl<>(
-            hits.length,
+            totalHits,
             TotalHitsRelation.EQUAL_TO,
             1.0f,
             null,
@@ -856,6 +1245,32 @@ class SearchAclFilteringTest {
             .collect(Collectors.toSet());
     }
 
+    private static Set<String> extractPermissionTerms(co.elastic.clients.elasticsearch._types.query_dsl.Query esQuery) {
+        return extractAclTerms(esQuery, SearchAclFilter.PERMISSIONS_FIELD);
+    }
+
+    private static Set<String> extractAclTerms(
+        co.elastic.clients.elasticsearch._types.query_dsl.Query esQuery,
+        String field
+    ) {
+        if (!esQuery.isBool()) {
+            return Set.of();
+        }
+
+        var bool = esQuery.bool();
+        Set<String> values = new java.util.HashSet<>();
+        java.util.stream.Stream.of(bool.filter(), bool.should(), bool.mustNot())
+            .flatMap(List::stream)
+            .forEach(clause -> {
+                if (clause.isTerms() && field.equals(clause.terms().field())) {
+                    clause.terms().terms().value().forEach(value -> values.add(value.stringValue()));
+                } else if (clause.isBool()) {
+                    values.addAll(extractAclTerms(clause, field));
+                }
+            });
+        return values;
+    }
+
     private static boolean hasStringTermFilter(
         co.elastic.clients.elasticsearch._types.query_dsl.Query esQuery,
         String field,
@@ -0,0 +1,80 @@
+package com.ecm.core.search;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.data.elasticsearch.core.SearchHit;
+import org.springframework.data.elasticsearch.core.query.SourceFilter;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SearchHitProjectionTest {
+
+    @Test
+    void shouldFetchOnlyResultFieldsAndRecordProperties() {
+        SourceFilter filter = SearchHitProjection.sourceFilter(null);
+        List<String> includes = Arrays.asList(filter.getIncludes());
+
+        assertTrue(includes.containsAll(SearchHitProjection.RESULT_FIELDS));
+        assertTrue(includes.contains("properties.rm:recordCategoryPath"));
+        assertFalse(includes.contains("content"));
+        assertFalse(includes.contains("textContent"));
+        assertFalse(includes.contains("extractedText"));
+        assertFalse(includes.contains("metadata"));
+        assertFalse(includes.contains("properties"));
+        assertFalse(includes.contains("permissions"));
+    }
+
+    @Test
+    void shouldAddExplicitlyRequestedPropertiesButNotWildcards() {
+        SourceFilter filter = SearchHitProjection.sourceFilter(List.of("cm:title", " ", "cm:*", "cm:title"));
+        List<String> includes = Arrays.asList(filter.getIncludes());
+
+        assertEquals(1, includes.stream().filter("properties.cm:title"::equals).count());
+        assertFalse(includes.contains("properties.cm:*"));
+    }
+
+    @Test
+    void shouldReturnRequestedPropertiesOnly() {
+        NodeDocument doc = NodeDocument.builder()
+            .id("doc-1")
+            .name("contract.pdf")
+            .tags(Set.of("legal"))
+            .properties(Map.of(
+                "cm:title", "Contract",
+                "rm:declaredBy", "records-admin"
+            ))
+            .build();
+
+        SearchResult plain = SearchHitProjection.toSearchResult(hit(doc));
+        SearchResult projected = SearchHitProjection.toSearchResult(hit(doc), List.of("cm:title", "cm:missing"));
+
+        assertNull(plain.getProperties());
+        assertTrue(plain.isRecord());
+        assertEquals("records-admin", plain.getDeclaredBy());
+        assertEquals(List.of("legal"), plain.getTags());
+        assertEquals(Map.of("cm:title", "Contract"), projected.getProperties());
+    }
+
+    private static SearchHit<NodeDocument> hit(NodeDocument doc) {
+        return new SearchHit<>(
+            "ecm_documents",
+            doc.getId(),
+            null,
+            1.0f,
+            null,
+            Map.of(),
+            Map.of(),
+            null,
+            null,
+            List.of(),
+            doc
+        );
+    }
+}
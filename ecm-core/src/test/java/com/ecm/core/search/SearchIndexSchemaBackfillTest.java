@@ -0,0 +1,61 @@
+package com.ecm.core.search;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class SearchIndexSchemaBackfillTest {
+
+    @Mock
+    private SearchIndexService searchIndexService;
+
+    private SearchIndexSchemaBackfill backfill;
+
+    @BeforeEach
+    void setUp() {
+        backfill = new SearchIndexSchemaBackfill(searchIndexService);
+        ReflectionTestUtils.setField(backfill, "batchSize", 2);
+        ReflectionTestUtils.setField(backfill, "maxBatchesPerRun", 5);
+    }
+
+    @Test
+    @DisplayName("A run rewrites batches until one comes back short")
+    void runStopsAfterShortBatch() {
+        when(searchIndexService.backfillSchema(2)).thenReturn(2, 2, 1);
+
+        backfill.backfill();
+
+        verify(searchIndexService, times(3)).backfillSchema(2);
+    }
+
+    @Test
+    @DisplayName("Index is reported current once no outdated entry is left, and stays current")
+    void indexCurrentLatchesOnceNothingIsOutdated() {
+        when(searchIndexService.countOutdatedSchemaEntries()).thenReturn(0L);
+
+        assertTrue(backfill.isIndexCurrent());
+        assertTrue(backfill.isIndexCurrent());
+        verify(searchIndexService, times(1)).countOutdatedSchemaEntries();
+    }
+
+    @Test
+    @DisplayName("Outdated entries keep the index reported as not current between checks")
+    void outdatedEntriesAreRecheckedAtMostOncePerInterval() {
+        when(searchIndexService.countOutdatedSchemaEntries()).thenReturn(12L);
+
+        assertFalse(backfill.isIndexCurrent());
+        assertFalse(backfill.isIndexCurrent());
+        verify(searchIndexService, times(1)).countOutdatedSchemaEntries();
+    }
+}
@@ -4,6 +4,7 @@ import com.ecm.core.entity.Document;
 import com.ecm.core.entity.Folder;
 import com.ecm.core.entity.Node;
 import com.ecm.core.repository.DocumentRepository;
+import com.ecm.core.repository.FavoriteRepository;
 import com.ecm.core.repository.NodeRepository;
 import com.ecm.core.service.NodePropertyEncryptionService;
 import com.ecm.core.service.SecurityService;
@@ -15,15 +16,24 @@ import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.elasticsearch.core.ElasticsearchOperations;
+import org.springframework.data.elasticsearch.core.SearchHit;
+import org.springframework.data.elasticsearch.core.SearchHits;
+import org.springframework.data.elasticsearch.core.SearchHitsImpl;
+import org.springframework.data.elasticsearch.core.TotalHitsRelation;
 import org.springframework.data.elasticsearch.core.mapping.IndexCoordinates;
+import org.springframework.data.elasticsearch.core.query.Query;
+import org.springframework.test.util.ReflectionTestUtils;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.Set;
 import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -35,6 +45,7 @@ class SearchIndexServiceSubtreeReindexTest {
     @Mock private NodeRepository nodeRepository;
     @Mock private SecurityService securityService;
     @Mock private NodePropertyEncryptionService nodePropertyEncryptionService;
+    @Mock private FavoriteRepository favoriteRepository;
     @Mock private ElasticsearchOperations elasticsearchOperations;
 
     private SearchIndexService searchIndexService;
@@ -46,12 +57,59 @@ class SearchIndexServiceSubtreeReindexTest {
             nodeRepository,
             securityService,
             nodePropertyEncryptionService,
+            favoriteRepository,
             elasticsearchOperations
         );
     }
 
     @Test
-    @DisplayName("reindexNodeSubtree reloads descendants from database using refreshed paths")
+    @DisplayName("reindexNodeSubtree pages descendant ids by keyset and reports progress per page")
+    void reindexNodeSubtreePagesDescendantIds() {
+        ReflectionTestUtils.setField(searchIndexService, "subtreeReindexBatchSize", 1);
+        UUID firstId = UUID.randomUUID();
+        UUID secondId = UUID.randomUUID();
+        Folder parent = folder(UUID.randomUUID(), "Projects", "/Sites/Target/Projects");
+        Folder first = folder(firstId, "A", "/Sites/Target/Projects/A");
+        Folder second = folder(secondId, "B", "/Sites/Target/Projects/B");
+
+        when(nodeRepository.findDescendantIdsByPathPrefixAfter("/Sites/Target/Projects/", new UUID(0L, 0L), 1))
+            .thenReturn(List.of(firstId));
+        when(nodeRepository.findDescendantIdsByPathPrefixAfter("/Sites/Target/Projects/", firstId, 1))
+            .thenReturn(List.of(secondId));
+        when(nodeRepository.findDescendantIdsByPathPrefixAfter("/Sites/Target/Projects/", secondId, 1))
+            .thenReturn(List.of());
+        when(nodeRepository.findAllById(List.of(firstId))).thenReturn(List.of(first));
+        when(nodeRepository.findAllById(List.of(secondId))).thenReturn(List.of(second));
+
+        List<Long> progress = new ArrayList<>();
+        long indexed = searchIndexService.reindexNodeSubtree(parent, progress::add);
+
+        assertEquals(2L, indexed);
+        assertEquals(List.of(1L, 2L), progress);
+        verify(elasticsearchOperations, times(2)).save(any(Iterable.class), any(IndexCoordinates.class));
+    }
+
+    @Test
+    @DisplayName("reindexNodesOwnedBy rewrites the owner's nodes with their current department")
+    void reindexNodesOwnedByRefreshesOwnerDepartment() {
+        UUID documentId = UUID.randomUUID();
+        Document owned = document(documentId, "plan.pdf", "/Sites/Target/plan.pdf");
+        owned.setCreatedBy("alice");
+
+        when(nodeRepository.findIdsByCreatedByAfter("alice", new UUID(0L, 0L), 500)).thenReturn(List.of(documentId));
+        when(nodeRepository.findAllById(List.of(documentId))).thenReturn(List.of(owned));
+        when(securityService.resolveOwnerDepartment("alice")).thenReturn("Finance");
+
+        long indexed = searchIndexService.reindexNodesOwnedBy("alice");
+
+        assertEquals(1L, indexed);
+        ArgumentCaptor<Iterable<NodeDocument>> batchCaptor = ArgumentCaptor.forClass(Iterable.class);
+        verify(elasticsearchOperations).save(batchCaptor.capture(), any(IndexCoordinates.class));
+        assertEquals("Finance", batchCaptor.getValue().iterator().next().getOwnerDepartment());
+    }
+
+    @Test
+    @DisplayName("reindexNodeSubtree reloads descendants from database and writes them in one bulk request")
     void reindexNodeSubtreeReloadsDescendantsFromDatabase() {
         UUID parentId = UUID.randomUUID();
         UUID childFolderId = UUID.randomUUID();
@@ -65,10 +123,10 @@ class SearchIndexServiceSubtreeReindexTest {
         childDocument.setParent(childFolder);
         childDocument.setProperties(Map.of("acme:secretCode", "SEC-43"));
 
-        when(nodeRepository.findByPathPrefix("/Sites/Target/Projects/"))
+        when(nodeRepository.findDescendantIdsByPathPrefixAfter("/Sites/Target/Projects/", new UUID(0L, 0L), 500))
+            .thenReturn(List.of(childFolderId, childDocumentId));
+        when(nodeRepository.findAllById(List.of(childFolderId, childDocumentId)))
             .thenReturn(List.of(childFolder, childDocument));
-        when(nodeRepository.findById(childFolderId)).thenReturn(java.util.Optional.of(childFolder));
-        when(nodeRepository.findById(childDocumentId)).thenReturn(java.util.Optional.of(childDocument));
         when(securityService.resolveReadAuthorities(childFolder)).thenReturn(Set.of("EVERYONE"));
         when(securityService.resolveReadAuthorities(childDocument)).thenReturn(Set.of("EVERYONE", "alice"));
         when(nodePropertyEncryptionService.resolveIndexableProperties(childFolder))
@@ -78,10 +136,12 @@ class SearchIndexServiceSubtreeReindexTest {
 
         searchIndexService.reindexNodeSubtree(parent);
 
-        ArgumentCaptor<NodeDocument> documentCaptor = ArgumentCaptor.forClass(NodeDocument.class);
-        verify(elasticsearchOperations, times(2)).save(documentCaptor.capture(), any(IndexCoordinates.class));
+        ArgumentCaptor<Iterable<NodeDocument>> batchCaptor = ArgumentCaptor.forClass(Iterable.class);
+        verify(elasticsearchOperations).save(batchCaptor.capture(), any(IndexCoordinates.class));
 
-        List<NodeDocument> saved = documentCaptor.getAllValues();
+        List<NodeDocument> saved = new ArrayList<>();
+        batchCaptor.getValue().forEach(saved::add);
+        assertEquals(2, saved.size());
         assertEquals("/Sites/Target/Projects/Q1", saved.get(0).getPath());
         assertEquals("/Sites/Target/Projects/Q1/report.pdf", saved.get(1).getPath());
         assertEquals(Set.of("EVERYONE"), saved.get(0).getPermissions());
@@ -90,6 +150,36 @@ class SearchIndexServiceSubtreeReindexTest {
         assertEquals(Map.of("acme:publicCode", "PUB-2"), saved.get(1).getProperties());
     }
 
+    @Test
+    @DisplayName("backfillSchema rewrites outdated entries with the current schema and drops invalid ids")
+    void backfillSchemaRewritesOutdatedEntries() {
+        UUID documentId = UUID.randomUUID();
+        Document outdated = document(documentId, "report.pdf", "/Sites/Target/report.pdf");
+        when(elasticsearchOperations.search(any(Query.class), eq(NodeDocument.class), any(IndexCoordinates.class)))
+            .thenReturn(searchHits(documentId.toString(), "not-a-uuid"));
+        when(nodeRepository.findById(documentId)).thenReturn(Optional.of(outdated));
+        when(securityService.resolveDeniedReadAuthorities(outdated)).thenReturn(Set.of("GROUP_contractors"));
+
+        int found = searchIndexService.backfillSchema(10);
+
+        assertEquals(2, found);
+        ArgumentCaptor<NodeDocument> savedCaptor = ArgumentCaptor.forClass(NodeDocument.class);
+        verify(elasticsearchOperations).save(savedCaptor.capture(), any(IndexCoordinates.class));
+        assertEquals(NodeDocument.SCHEMA_VERSION, savedCaptor.getValue().getSchemaVersion());
+        assertEquals("report.pdf", savedCaptor.getValue().getNameSuggest());
+        assertEquals(Set.of("GROUP_contractors"), savedCaptor.getValue().getDeniedPermissions());
+        verify(elasticsearchOperations).delete(eq("not-a-uuid"), any(IndexCoordinates.class));
+    }
+
+    private static SearchHits<NodeDocument> searchHits(String... ids) {
+        List<SearchHit<NodeDocument>> hits = new ArrayList<>();
+        for (String id : ids) {
+            hits.add(new SearchHit<>("ecm_documents", id, null, 1.0f, null, Map.of(), Map.of(), null, null,
+                List.of(), NodeDocument.builder().id(id).build()));
+        }
+        return new SearchHitsImpl<>(hits.size(), TotalHitsRelation.EQUAL_TO, 1.0f, null, null, hits, null, null);
+    }
+
     private Folder folder(UUID id, String name, String path) {
         Folder folder = new Folder();
         folder.setId(id);
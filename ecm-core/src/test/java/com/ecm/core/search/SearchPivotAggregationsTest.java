@@ -0,0 +1,120 @@
+package com.ecm.core.search;
+
+import com.ecm.core.search.FacetedSearchService.PivotBucket;
+import com.ecm.core.search.FacetedSearchService.PivotDimension;
+import com.ecm.core.search.FacetedSearchService.PivotMetric;
+import com.ecm.core.search.FacetedSearchService.PivotRequest;
+import com.ecm.core.search.FacetedSearchService.PivotResponse;
+import co.elastic.clients.elasticsearch._types.FieldValue;
+import co.elastic.clients.elasticsearch._types.aggregations.Aggregate;
+import co.elastic.clients.elasticsearch._types.aggregations.Aggregation;
+import co.elastic.clients.elasticsearch._types.aggregations.CalendarInterval;
+import co.elastic.clients.elasticsearch._types.aggregations.FiltersBucket;
+import co.elastic.clients.elasticsearch._types.aggregations.StringTermsBucket;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SearchPivotAggregationsTest {
+
+    @Test
+    @DisplayName("Second dimension and metrics are nested under every first-level bucket")
+    void buildsNestedAggregations() {
+        PivotRequest request = statusByMimeRequest();
+
+        Map<String, Aggregation> aggregations = SearchPivotAggregations.build(request);
+
+        assertEquals(List.of("pivot", "total_1", "sum_fileSize"), List.copyOf(aggregations.keySet()));
+        Aggregation pivot = aggregations.get("pivot");
+        assertTrue(pivot.isFilters());
+        assertEquals(List.of("FAILED", "READY"), List.copyOf(pivot.filters().filters().keyed().keySet()));
+
+        Aggregation nested = pivot.aggregations().get("pivot");
+        assertTrue(nested.isTerms());
+        assertEquals("mimeType", nested.terms().field());
+        assertEquals(2, nested.terms().size());
+        assertEquals(List.of("application/pdf", "image/png"), nested.terms().include().terms());
+        assertTrue(nested.aggregations().get("sum_fileSize").isSum());
+        assertTrue(pivot.aggregations().get("sum_fileSize").isSum());
+        assertTrue(aggregations.get("total_1").aggregations().isEmpty());
+    }
+
+    @Test
+    @DisplayName("Date dimensions use a calendar histogram")
+    void buildsDateHistogram() {
+        PivotRequest request = new PivotRequest();
+        request.setDimensions(List.of(new PivotDimension("createdDate", null, "week", null)));
+
+        Aggregation pivot = SearchPivotAggregations.build(request).get("pivot");
+
+        assertTrue(pivot.isDateHistogram());
+        assertEquals(CalendarInterval.Week, pivot.dateHistogram().calendarInterval());
+    }
+
+    @Test
+    @DisplayName("Parses nested buckets, fills missing filter buckets and reads metrics")
+    void parsesNestedBuckets() {
+        PivotRequest request = statusByMimeRequest();
+        Aggregate pdfCount = Aggregate.of(a -> a.sterms(t -> t.buckets(b -> b.array(List.of(
+            StringTermsBucket.of(bucket -> bucket
+                .key(FieldValue.of("application/pdf"))
+                .docCount(4)
+                .aggregations("sum_fileSize", Aggregate.of(s -> s.sum(m -> m.value(400.0)))))
+        )))));
+        Aggregate pivot = Aggregate.of(a -> a.filters(f -> f.buckets(b -> b.keyed(Map.of(
+            "FAILED", FiltersBucket.of(bucket -> bucket
+                .docCount(4)
+                .aggregations("pivot", pdfCount)
+                .aggregations("sum_fileSize", Aggregate.of(s -> s.sum(m -> m.value(400.0)))))
+        )))));
+
+        PivotResponse response = SearchPivotAggregations.parse(request, 9L, Map.of("pivot", pivot));
+
+        assertEquals(9L, response.getTotalHits());
+        PivotBucket failed = response.getBuckets().get(0);
+        assertEquals("FAILED", failed.getKey());
+        assertEquals(4L, failed.getCount());
+        assertEquals(Map.of("sum_fileSize", 400.0), failed.getMetrics());
+        assertEquals("application/pdf", failed.getBuckets().get(0).getKey());
+        assertEquals(4L, failed.getBuckets().get(0).getCount());
+        PivotBucket ready = response.getBuckets().get(1);
+        assertEquals("READY", ready.getKey());
+        assertEquals(0L, ready.getCount());
+        assertEquals(List.of(), response.getTotals().get("mimeType"));
+    }
+
+    @Test
+    @DisplayName("Rejects unsupported dimensions and metrics")
+    void rejectsUnsupportedRequests() {
+        PivotRequest tooMany = new PivotRequest();
+        tooMany.setDimensions(List.of(
+            PivotDimension.of("mimeType"), PivotDimension.of("tags"), PivotDimension.of("createdBy")));
+        PivotRequest unknownField = new PivotRequest();
+        unknownField.setDimensions(List.of(PivotDimension.of("textContent")));
+        PivotRequest unknownMetric = new PivotRequest();
+        unknownMetric.setDimensions(List.of(PivotDimension.of("mimeType")));
+        unknownMetric.setMetrics(List.of(new PivotMetric("name", "sum")));
+
+        assertThrows(IllegalArgumentException.class, () -> SearchPivotAggregations.validate(new PivotRequest()));
+        assertThrows(IllegalArgumentException.class, () -> SearchPivotAggregations.validate(tooMany));
+        assertThrows(IllegalArgumentException.class, () -> SearchPivotAggregations.validate(unknownField));
+        assertThrows(IllegalArgumentException.class, () -> SearchPivotAggregations.validate(unknownMetric));
+    }
+
+    private static PivotRequest statusByMimeRequest() {
+        PivotRequest request = new PivotRequest();
+        request.setDimensions(List.of(
+            new PivotDimension("previewStatus", null, null, List.of("FAILED", "READY")),
+            new PivotDimension("mimeType", 1, null, List.of("application/pdf", "image/png"))
+        ));
+        request.setMetrics(List.of(new PivotMetric("fileSize", "sum")));
+        SearchPivotAggregations.validate(request);
+        return request;
+    }
+}
@@ -0,0 +1,182 @@
+package com.ecm.core.search;
+
+import co.elastic.clients.elasticsearch._types.ElasticsearchException;
+import co.elastic.clients.elasticsearch._types.ErrorResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.elasticsearch.client.elc.NativeQuery;
+import org.springframework.data.elasticsearch.core.ElasticsearchOperations;
+import org.springframework.data.elasticsearch.core.SearchHit;
+import org.springframework.data.elasticsearch.core.SearchHits;
+import org.springframework.data.elasticsearch.core.SearchHitsImpl;
+import org.springframework.data.elasticsearch.core.TotalHitsRelation;
+import org.springframework.data.elasticsearch.core.mapping.IndexCoordinates;
+import org.springframework.data.elasticsearch.core.query.Query;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@ExtendWith(MockitoExtension.class)
+class SearchPointInTimePagerTest {
+
+    @Mock
+    private ElasticsearchOperations operations;
+
+    private SearchPointInTimePager pager;
+
+    @BeforeEach
+    void setUp() {
+        pager = new SearchPointInTimePager(operations, Duration.ofMinutes(1));
+    }
+
+    @Test
+    @DisplayName("First page opens a point in time and returns a cursor after the last hit")
+    void firstPageOpensPointInTime() {
+        Mockito.when(operations.openPointInTime(Mockito.any(IndexCoordinates.class), Mockito.any(Duration.class)))
+            .thenReturn("pit-1");
+        Mockito.when(operations.search(Mockito.any(Query.class), Mockito.eq(NodeDocument.class),
+                Mockito.any(IndexCoordinates.class)))
+            .thenReturn(hits(10, "pit-2", hit("a", 2.0, 5), hit("b", 1.0, 7)));
+
+        SearchPointInTimePager.PagedHits page = pager.page(NativeQuery::builder, 2, null);
+
+        assertEquals(2, page.hits().size());
+        assertEquals(10L, page.totalHits());
+        assertEquals("pit-2", page.next().pitId());
+        assertEquals(List.of(1.0, 7L), page.next().searchAfter());
+
+        ArgumentCaptor<Query> queryCaptor = ArgumentCaptor.forClass(Query.class);
+        Mockito.verify(operations).search(queryCaptor.capture(), Mockito.eq(NodeDocument.class),
+            Mockito.any(IndexCoordinates.class));
+        NativeQuery query = (NativeQuery) queryCaptor.getValue();
+        assertEquals("pit-1", query.getPointInTime().id());
+        assertNull(query.getSearchAfter());
+        Mockito.verify(operations, Mockito.never()).closePointInTime(Mockito.anyString());
+    }
+
+    @Test
+    @DisplayName("A short page continues from the cursor, keeps the first total and closes the point in time")
+    void lastPageClosesPointInTime() {
+        Mockito.when(operations.search(Mockito.any(Query.class), Mockito.eq(NodeDocument.class),
+                Mockito.any(IndexCoordinates.class)))
+            .thenReturn(hits(0, null, hit("c", 0.5, 9)));
+        SearchCursor cursor = new SearchCursor("pit-2", List.of(1.0, 7), 3L);
+
+        SearchPointInTimePager.PagedHits page = pager.page(NativeQuery::builder, 2, cursor);
+
+        assertNull(page.next());
+        assertEquals(3L, page.totalHits());
+        ArgumentCaptor<Query> queryCaptor = ArgumentCaptor.forClass(Query.class);
+        Mockito.verify(operations).search(queryCaptor.capture(), Mockito.eq(NodeDocument.class),
+            Mockito.any(IndexCoordinates.class));
+        assertEquals(List.of(1.0, 7), queryCaptor.getValue().getSearchAfter());
+        Mockito.verify(operations).closePointInTime("pit-2");
+        Mockito.verify(operations, Mockito.never())
+            .openPointInTime(Mockito.any(IndexCoordinates.class), Mockito.any(Duration.class));
+    }
+
+    @Test
+    @DisplayName("forEachPage walks all pages and still closes the point in time when the consumer fails")
+    void forEachPageClosesOnFailure() throws IOException {
+        Mockito.when(operations.openPointInTime(Mockito.any(IndexCoordinates.class), Mockito.any(Duration.class)))
+            .thenReturn("pit-1");
+        Mockito.when(operations.search(Mockito.any(Query.class), Mockito.eq(NodeDocument.class),
+                Mockito.any(IndexCoordinates.class)))
+            .thenReturn(hits(3, "pit-1", hit("a", 2.0, 1), hit("b", 1.0, 2)))
+            .thenReturn(hits(3, "pit-1", hit("c", 0.5, 3)));
+
+        List<String> seen = new ArrayList<>();
+        long read = pager.forEachPage(NativeQuery::builder, 2,
+            page -> page.forEach(hit -> seen.add(hit.getContent().getId())));
+
+        assertEquals(3L, read);
+        assertEquals(List.of("a", "b", "c"), seen);
+        Mockito.verify(operations).closePointInTime("pit-1");
+
+        Mockito.clearInvocations(operations);
+        Mockito.when(operations.search(Mockito.any(Query.class), Mockito.eq(NodeDocument.class),
+                Mockito.any(IndexCoordinates.class)))
+            .thenReturn(hits(3, "pit-1", hit("a", 2.0, 1), hit("b", 1.0, 2)));
+        assertThrows(IOException.class, () -> pager.forEachPage(NativeQuery::builder, 2, page -> {
+            throw new IOException("client went away");
+        }));
+        Mockito.verify(operations).closePointInTime("pit-1");
+    }
+
+    @Test
+    @DisplayName("Only a missing search context marks the point in time as gone")
+    void detectsMissingSearchContext() {
+        ElasticsearchException expired = new ElasticsearchException("es/search", ErrorResponse.of(r -> r
+            .status(404)
+            .error(e -> e.type("search_phase_execution_exception").reason("all shards failed")
+                .rootCause(c -> c.type("search_context_missing_exception").reason("No search context found")))));
+        ElasticsearchException unavailable = new ElasticsearchException("es/search", ErrorResponse.of(r -> r
+            .status(503)
+            .error(e -> e.type("cluster_block_exception").reason("blocked"))));
+
+        assertTrue(SearchPointInTimePager.isPointInTimeGone(new RuntimeException("wrapped", expired)));
+        assertFalse(SearchPointInTimePager.isPointInTimeGone(unavailable));
+        assertFalse(SearchPointInTimePager.isPointInTimeGone(new IllegalStateException("timeout")));
+    }
+
+    @Test
+    @DisplayName("Cursor tokens round-trip and malformed tokens are rejected")
+    void cursorTokensRoundTrip() {
+        SearchCursor cursor = new SearchCursor("pit-1", List.of(1.5, "contract.pdf", 42), 17L);
+
+        SearchCursor decoded = SearchCursor.decode(cursor.encode());
+
+        assertEquals(cursor, decoded);
+        assertNull(SearchCursor.decode(" "));
+        assertFalse(cursor.encode().contains("pit-1"));
+        assertThrows(IllegalArgumentException.class, () -> SearchCursor.decode("not-a-cursor"));
+        assertThrows(IllegalArgumentException.class,
+            () -> SearchCursor.decode(new SearchCursor("pit-1", List.of(), 0L).encode()));
+    }
+
+    private static SearchHit<NodeDocument> hit(String id, double score, long shardDoc) {
+        NodeDocument doc = NodeDocument.builder().id(id).name(id).build();
+        return new SearchHit<>(
+            "ecm_documents",
+            id,
+            null,
+            (float) score,
+            new Object[] {score, shardDoc},
+            Map.of(),
+            Map.of(),
+            null,
+            null,
+            List.of(),
+            doc
+        );
+    }
+
+    @SafeVarargs
+    private static SearchHits<NodeDocument> hits(long total, String pitId, SearchHit<NodeDocument>... hits) {
+        return new SearchHitsImpl<>(
+            total,
+            TotalHitsRelation.EQUAL_TO,
+            1.0f,
+            null,
+            pitId,
+            List.of(hits),
+            null,
+            null
+        );
+    }
+}
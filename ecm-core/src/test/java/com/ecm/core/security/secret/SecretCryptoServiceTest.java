@@ -3,10 +3,14 @@ package com.ecm.core.security.secret;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 
+import java.util.Arrays;
+import java.util.List;
 import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 class SecretCryptoServiceTest {
@@ -49,6 +53,32 @@ class SecretCryptoServiceTest {
         assertEquals("legacy-token", service.reveal(rewritten));
     }
 
+    @Test
+    @DisplayName("Bulk protect and reveal keep order and pass plaintext and empty values through")
+    void bulkProtectAndRevealKeepOrder() {
+        SecretCryptoProperties properties = new SecretCryptoProperties();
+        properties.setEnabled(true);
+        properties.setActiveKeyVersion("v1");
+        properties.setKeys(Map.of("v1", KEY_V1));
+
+        SecretCryptoService service = new SecretCryptoService(properties);
+        service.register();
+
+        List<String> protectedValues = service.protectAll(Arrays.asList("first", "", null, "second"));
+
+        assertEquals(4, protectedValues.size());
+        assertTrue(protectedValues.get(0).startsWith("enc:v1:"));
+        assertEquals("", protectedValues.get(1));
+        assertNull(protectedValues.get(2));
+        assertEquals("v1", service.keyVersionOf(protectedValues.get(3)));
+        assertEquals(
+            Arrays.asList("first", "", null, "second", "legacy"),
+            service.revealAll(Arrays.asList(protectedValues.get(0), "", null, protectedValues.get(3), "legacy"))
+        );
+        assertTrue(service.hasKeyVersion("v1"));
+        assertFalse(service.hasKeyVersion("v2"));
+    }
+
     @Test
     @DisplayName("Disabled encryption leaves plaintext untouched")
     void disabledEncryptionLeavesPlaintextUntouched() {
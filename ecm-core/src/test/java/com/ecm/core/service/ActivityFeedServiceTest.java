@@ -0,0 +1,248 @@
+package com.ecm.core.service;
+
+import com.ecm.core.entity.Activity;
+import com.ecm.core.entity.ActivityFeedEntry;
+import com.ecm.core.entity.FollowSubscription;
+import com.ecm.core.entity.FollowTargetType;
+import com.ecm.core.entity.Node;
+import com.ecm.core.repository.ActivityFeedEntryRepository;
+import com.ecm.core.repository.ActivityRepository;
+import com.ecm.core.repository.FollowSubscriptionRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ActivityFeedServiceTest {
+
+    private static final LocalDateTime BASE = LocalDateTime.of(2026, 3, 1, 12, 0);
+
+    @Mock private ActivityFeedEntryRepository feedEntryRepository;
+    @Mock private ActivityRepository activityRepository;
+    @Mock private FollowSubscriptionRepository followSubscriptionRepository;
+    @Mock private TenantWorkspaceScopeService tenantWorkspaceScopeService;
+
+    private ActivityFeedService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new ActivityFeedService(
+            feedEntryRepository, activityRepository, followSubscriptionRepository, tenantWorkspaceScopeService
+        );
+        ReflectionTestUtils.setField(service, "fanOutCap", 2L);
+    }
+
+    @Test
+    @DisplayName("fanOut writes one entry per distinct follower and skips targets above the cap")
+    @SuppressWarnings("unchecked")
+    void fanOutWritesEntriesAndSkipsHotTargets() {
+        Activity activity = activity(BASE, "node.created");
+        activity.setUserId("alice");
+        activity.setSiteId("busy-site");
+        when(followSubscriptionRepository.countByTargetTypeAndTargetId(FollowTargetType.USER, "alice")).thenReturn(2L);
+        when(followSubscriptionRepository.findUserIdsByTarget(FollowTargetType.USER, "alice"))
+            .thenReturn(List.of("bob", "carol"));
+        when(followSubscriptionRepository.countByTargetTypeAndTargetId(FollowTargetType.SITE, "busy-site")).thenReturn(50L);
+        when(followSubscriptionRepository.countByTargetTypeAndTargetId(FollowTargetType.NODE, activity.getNodeId().toString()))
+            .thenReturn(1L);
+        when(followSubscriptionRepository.findUserIdsByTarget(FollowTargetType.NODE, activity.getNodeId().toString()))
+            .thenReturn(List.of("bob"));
+        when(activityRepository.findById(activity.getId())).thenReturn(Optional.of(activity));
+
+        int written = service.fanOut(activity.getId());
+
+        assertEquals(2, written);
+        ArgumentCaptor<List<ActivityFeedEntry>> captor = ArgumentCaptor.forClass(List.class);
+        verify(feedEntryRepository).saveAll(captor.capture());
+        List<ActivityFeedEntry> entries = captor.getValue();
+        assertEquals(List.of("bob", "carol"), entries.stream().map(ActivityFeedEntry::getUserId).toList());
+        assertTrue(entries.stream().allMatch(entry -> entry.getSourceType() == FollowTargetType.USER));
+        assertTrue(entries.stream().allMatch(entry -> BASE.equals(entry.getPostedAt())));
+        verify(followSubscriptionRepository, never()).findUserIdsByTarget(FollowTargetType.SITE, "busy-site");
+    }
+
+    @Test
+    @DisplayName("fanOut skips activities without a persisted postedAt instead of stamping the current time")
+    void fanOutSkipsActivityWithoutPostedAt() {
+        Activity activity = activity(null, "node.created");
+        when(activityRepository.findById(activity.getId())).thenReturn(Optional.of(activity));
+
+        assertEquals(0, service.fanOut(activity.getId()));
+        verifyNoInteractions(followSubscriptionRepository, feedEntryRepository);
+    }
+
+    @Test
+    @DisplayName("fanOut runs in its own transaction")
+    void fanOutUsesIndependentTransaction() throws Exception {
+        Transactional transactional = ActivityFeedService.class.getMethod("fanOut", UUID.class)
+            .getAnnotation(Transactional.class);
+
+        assertNotNull(transactional);
+        assertEquals(Propagation.REQUIRES_NEW, transactional.propagation());
+    }
+
+    @Test
+    @DisplayName("following feed merges materialized and fan-in rows newest first without duplicates")
+    void followingFeedMergesFanInTargets() {
+        Activity newest = activity(BASE.plusMinutes(3), "a");
+        Activity shared = activity(BASE.plusMinutes(2), "b");
+        Activity oldest = activity(BASE.plusMinutes(1), "c");
+        FollowSubscription hotSite = new FollowSubscription();
+        hotSite.setTargetType(FollowTargetType.SITE);
+        hotSite.setTargetId("busy-site");
+        when(followSubscriptionRepository.findFanInSubscriptions("alice", 2L)).thenReturn(List.of(hotSite));
+        when(feedEntryRepository.findFeedBeforeCursor(eq("alice"), any(), any(), any(Pageable.class)))
+            .thenReturn(List.of(entry(shared), entry(oldest)));
+        when(activityRepository.findTargetFeedBeforeCursor(
+            eq(false), anyList(), eq(true), eq(List.of("busy-site")), eq(false), anyList(), any(), any(), any(Pageable.class)))
+            .thenReturn(List.of(newest, shared));
+        when(tenantWorkspaceScopeService.isActivityVisible(any(), eq((String) null))).thenReturn(true);
+
+        ActivityFeedService.ActivityFeedSlice slice = service.getFollowingFeed("alice", null, 2);
+
+        assertEquals(List.of(newest.getId(), shared.getId()), slice.items().stream().map(Activity::getId).toList());
+        assertTrue(slice.hasMore());
+        assertEquals(ActivityFeedService.cursorOf(shared).serialize(), slice.nextCursor());
+    }
+
+    @Test
+    @DisplayName("global feed checks visibility only on scanned rows and reports end of feed")
+    void globalFeedFiltersInvisibleRowsOnPage() {
+        Activity visible = activity(BASE.plusMinutes(2), "visible");
+        Activity hidden = activity(BASE.plusMinutes(1), "hidden");
+        when(tenantWorkspaceScopeService.resolveCurrentTenantRootPath()).thenReturn("/Root/Tenants/acme");
+        when(activityRepository.findGlobalFeedBeforeCursor(any(), any(), any(Pageable.class)))
+            .thenReturn(List.of(visible, hidden));
+        when(tenantWorkspaceScopeService.isActivityVisible(visible, "/Root/Tenants/acme")).thenReturn(true);
+        when(tenantWorkspaceScopeService.isActivityVisible(hidden, "/Root/Tenants/acme")).thenReturn(false);
+
+        ActivityFeedService.ActivityFeedSlice slice = service.getGlobalFeed(null, 10);
+
+        assertEquals(List.of(visible), slice.items());
+        assertFalse(slice.hasMore());
+        verify(activityRepository, times(1)).findGlobalFeedBeforeCursor(any(), any(), any(Pageable.class));
+    }
+
+    @Test
+    @DisplayName("feed counts apply the tenant root in the query and escape LIKE wildcards")
+    void countsScopeToTenantRoot() {
+        when(tenantWorkspaceScopeService.resolveCurrentTenantRootPath()).thenReturn("/Root/Tenants/acme_eu");
+        when(activityRepository.countVisibleGlobalFeed(true, "/Root/Tenants/acme_eu", "/Root/Tenants/acme!_eu/%",
+            Node.ArchiveStatus.LIVE)).thenReturn(7L);
+
+        assertEquals(7L, service.countGlobalFeed());
+    }
+
+    @Test
+    @DisplayName("feed counts are zero for a blank tenant root")
+    void countsAreZeroForBlankTenantRoot() {
+        when(tenantWorkspaceScopeService.resolveCurrentTenantRootPath()).thenReturn(" ");
+
+        assertEquals(0L, service.countNodeFeed(UUID.randomUUID()));
+        verifyNoInteractions(activityRepository);
+    }
+
+    @Test
+    @DisplayName("cursor round-trips and malformed cursors are rejected")
+    void cursorRoundTrip() {
+        Activity activity = activity(BASE, "x");
+        String token = ActivityFeedService.cursorOf(activity).serialize();
+
+        KeysetCursor<UUID> parsed = ActivityFeedService.parseCursor(token);
+
+        assertEquals(BASE, parsed.time());
+        assertEquals(activity.getId(), parsed.id());
+        assertSame(ActivityFeedService.HEAD, ActivityFeedService.parseCursor(" "));
+        assertThrows(IllegalArgumentException.class, () -> ActivityFeedService.parseCursor("not-a-cursor"));
+        assertThrows(IllegalArgumentException.class, () -> ActivityFeedService.parseCursor("2026-03-01T12:00|not-a-uuid"));
+    }
+
+    @Test
+    @DisplayName("backfillFollow copies recent target activities that are not already in the feed")
+    @SuppressWarnings("unchecked")
+    void backfillFollowSkipsExistingEntries() {
+        Activity first = activity(BASE.plusMinutes(2), "a");
+        Activity second = activity(BASE.plusMinutes(1), "b");
+        when(followSubscriptionRepository.countByTargetTypeAndTargetId(FollowTargetType.SITE, "finance")).thenReturn(1L);
+        when(activityRepository.findTargetFeedBeforeCursor(
+            anyBoolean(), anyList(), eq(true), eq(List.of("finance")), anyBoolean(), anyList(), any(), any(), any(Pageable.class)))
+            .thenReturn(List.of(first, second));
+        when(feedEntryRepository.findActivityIdsForUser(eq("alice"), anyList())).thenReturn(List.of(first.getId()));
+
+        int written = service.backfillFollow("alice", FollowTargetType.SITE, "finance");
+
+        assertEquals(1, written);
+        ArgumentCaptor<List<ActivityFeedEntry>> captor = ArgumentCaptor.forClass(List.class);
+        verify(feedEntryRepository).saveAll(captor.capture());
+        assertSame(second, captor.getValue().get(0).getActivity());
+        assertEquals("finance", captor.getValue().get(0).getSourceId());
+    }
+
+    @Test
+    @DisplayName("removeFollow keeps entries another subscription still covers before deleting the rest")
+    void removeFollowReattributesEntriesStillFollowed() {
+        UUID nodeId = UUID.randomUUID();
+        when(followSubscriptionRepository.findByUserIdOrderByCreatedAtDesc("alice")).thenReturn(List.of(
+            subscription(FollowTargetType.USER, "bob"),
+            subscription(FollowTargetType.NODE, nodeId.toString())
+        ));
+        when(feedEntryRepository.reassignSourceToFollowedUsers("alice", "SITE", "finance", List.of("bob"))).thenReturn(3);
+        when(feedEntryRepository.reassignSourceToFollowedNodes("alice", "SITE", "finance", List.of(nodeId))).thenReturn(1);
+        when(feedEntryRepository.deleteByUserIdAndSource("alice", FollowTargetType.SITE, "finance")).thenReturn(5);
+
+        int deleted = service.removeFollow("alice", FollowTargetType.SITE, "finance");
+
+        assertEquals(5, deleted);
+        var order = inOrder(feedEntryRepository);
+        order.verify(feedEntryRepository).reassignSourceToFollowedUsers("alice", "SITE", "finance", List.of("bob"));
+        order.verify(feedEntryRepository).reassignSourceToFollowedNodes("alice", "SITE", "finance", List.of(nodeId));
+        order.verify(feedEntryRepository).deleteByUserIdAndSource("alice", FollowTargetType.SITE, "finance");
+        verify(feedEntryRepository, never()).reassignSourceToFollowedSites(any(), any(), any(), anyList());
+    }
+
+    private static FollowSubscription subscription(FollowTargetType targetType, String targetId) {
+        FollowSubscription subscription = new FollowSubscription();
+        subscription.setUserId("alice");
+        subscription.setTargetType(targetType);
+        subscription.setTargetId(targetId);
+        return subscription;
+    }
+
+    private static ActivityFeedEntry entry(Activity activity) {
+        ActivityFeedEntry entry = new ActivityFeedEntry();
+        entry.setUserId("alice");
+        entry.setActivity(activity);
+        entry.setPostedAt(activity.getPostedAt());
+        return entry;
+    }
+
+    private static Activity activity(LocalDateTime postedAt, String type) {
+        Activity activity = new Activity();
+        activity.setId(UUID.randomUUID());
+        activity.setActivityType(type);
+        activity.setUserId("someone");
+        activity.setNodeId(UUID.randomUUID());
+        activity.setPostedAt(postedAt);
+        return activity;
+    }
+}
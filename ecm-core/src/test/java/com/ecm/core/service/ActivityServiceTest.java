@@ -17,6 +17,8 @@ import org.springframework.data.domain.PageRequest;
 import org.springframework.test.util.ReflectionTestUtils;
 import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.util.List;
 import java.util.Map;
@@ -30,16 +32,17 @@ import static org.mockito.Mockito.*;
 class ActivityServiceTest {
 
     @Mock private ActivityRepository activityRepository;
-    @Mock private FollowingService followingService;
     @Mock private TenantWorkspaceScopeService tenantWorkspaceScopeService;
     @Mock private NotificationInboxService notificationInboxService;
+    @Mock private ActivityFeedService activityFeedService;
 
     private ActivityService service;
 
     @BeforeEach
     void setUp() {
-        service = new ActivityService(activityRepository, followingService, tenantWorkspaceScopeService);
+        service = new ActivityService(activityRepository, tenantWorkspaceScopeService);
         ReflectionTestUtils.setField(service, "notificationInboxService", notificationInboxService);
+        ReflectionTestUtils.setField(service, "activityFeedService", activityFeedService);
     }
 
     @Nested
@@ -81,6 +84,44 @@ class ActivityServiceTest {
             assertTrue(result.getSummary().isEmpty());
         }
 
+        @Test
+        @DisplayName("fans out by id once the posting transaction commits")
+        void fansOutAfterCommit() {
+            UUID activityId = UUID.randomUUID();
+            when(activityRepository.save(any())).thenAnswer(inv -> {
+                Activity a = inv.getArgument(0);
+                a.setId(activityId);
+                return a;
+            });
+
+            TransactionSynchronizationManager.initSynchronization();
+            try {
+                service.postActivity("node.created", "alice", null, null, null, null);
+                verify(activityFeedService, never()).fanOut(any(UUID.class));
+
+                TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+            } finally {
+                TransactionSynchronizationManager.clearSynchronization();
+            }
+
+            verify(activityFeedService).fanOut(activityId);
+        }
+
+        @Test
+        @DisplayName("fan-out failure does not propagate to the caller")
+        void fanOutFailureIsSwallowed() {
+            when(activityRepository.save(any())).thenAnswer(inv -> {
+                Activity a = inv.getArgument(0);
+                a.setId(UUID.randomUUID());
+                return a;
+            });
+            when(activityFeedService.fanOut(any(UUID.class))).thenThrow(new IllegalStateException("db down"));
+
+            Activity result = assertDoesNotThrow(() -> service.postActivity("node.created", "alice", null, null, null, null));
+
+            assertNotNull(result.getId());
+        }
+
         @Test
         @DisplayName("posts direct notification activity without follower fan-out")
         void postsDirectNotificationActivity() {
@@ -156,83 +197,70 @@ class ActivityServiceTest {
         }
 
         @Test
-        @DisplayName("getFollowingFeed returns empty page when user follows nothing")
-        void getFollowingFeedReturnsEmptyWhenNoSubscriptions() {
-            PageRequest pageable = PageRequest.of(0, 10);
-            when(followingService.getFollowingTargets("alice"))
-                .thenReturn(new FollowingService.FollowingTargets(List.of(), List.of(), List.of()));
+        @DisplayName("getFollowingFeed reads the keyset feed up to the requested page")
+        void getFollowingFeedReadsKeysetFeed() {
+            Activity activity = activity();
+            when(activityFeedService.getFollowingFeed("alice", null, 10))
+                .thenReturn(new ActivityFeedService.ActivityFeedSlice(List.of(activity), null, false));
 
-            Page<Activity> result = service.getFollowingFeed("alice", pageable);
+            Page<Activity> result = service.getFollowingFeed("alice", PageRequest.of(0, 10));
 
-            assertTrue(result.isEmpty());
-            verify(activityRepository, never()).findFollowingFeed(anyBoolean(), anyList(), anyBoolean(), anyList(), anyBoolean(), anyList(), any());
+            assertEquals(List.of(activity), result.getContent());
+            assertEquals(1, result.getTotalElements());
+            verifyNoInteractions(activityRepository);
         }
 
         @Test
-        @DisplayName("getFollowingFeed delegates to repository with followed targets")
-        void getFollowingFeedDelegatesToRepository() {
-            UUID nodeId = UUID.randomUUID();
-            PageRequest pageable = PageRequest.of(0, 10);
-            Page<Activity> page = new PageImpl<>(List.of(new Activity()));
-            when(followingService.getFollowingTargets("alice"))
-                .thenReturn(new FollowingService.FollowingTargets(List.of("bob"), List.of("finance"), List.of(nodeId)));
-            when(activityRepository.findFollowingFeed(
-                eq(true),
-                eq(List.of("bob")),
-                eq(true),
-                eq(List.of("finance")),
-                eq(true),
-                eq(List.of(nodeId)),
-                eq(Pageable.unpaged())
-            )).thenReturn(page);
-            when(tenantWorkspaceScopeService.resolveCurrentTenantRootPath()).thenReturn(null);
-            when(tenantWorkspaceScopeService.isActivityVisible(any(), eq((String) null))).thenReturn(true);
-
-            Page<Activity> result = service.getFollowingFeed("alice", pageable);
-
-            assertEquals(1, result.getContent().size());
+        @DisplayName("getGlobalFeed skips earlier pages by following the cursor")
+        void getGlobalFeedFollowsCursorToLaterPage() {
+            Activity first = activity();
+            Activity second = activity();
+            Activity third = activity();
+            when(activityFeedService.getGlobalFeed(null, 4))
+                .thenReturn(new ActivityFeedService.ActivityFeedSlice(List.of(first, second), "c1", true));
+            when(activityFeedService.getGlobalFeed("c1", 2))
+                .thenReturn(new ActivityFeedService.ActivityFeedSlice(List.of(third), "c2", true));
+            when(activityFeedService.getGlobalFeed("c2", 1))
+                .thenReturn(new ActivityFeedService.ActivityFeedSlice(List.of(), null, false));
+
+            Page<Activity> result = service.getGlobalFeed(PageRequest.of(1, 2));
+
+            assertEquals(List.of(third), result.getContent());
+            assertEquals(3, result.getTotalElements());
+            assertFalse(result.hasNext());
+            verify(activityFeedService, never()).countGlobalFeed();
         }
 
         @Test
-        @DisplayName("getGlobalFeed delegates to repository")
-        void getGlobalFeed() {
-            when(activityRepository.findAllByOrderByPostedAtDesc(eq(Pageable.unpaged())))
-                .thenReturn(new PageImpl<>(List.of(new Activity(), new Activity())));
-            when(tenantWorkspaceScopeService.resolveCurrentTenantRootPath()).thenReturn(null);
-            when(tenantWorkspaceScopeService.isActivityVisible(any(), eq((String) null))).thenReturn(true);
-
-            assertEquals(2, service.getGlobalFeed(PageRequest.of(0, 20)).getContent().size());
+        @DisplayName("getGlobalFeed reports the counted total while the feed has more rows")
+        void getGlobalFeedReportsCountedTotal() {
+            when(activityFeedService.getGlobalFeed(null, 2))
+                .thenReturn(new ActivityFeedService.ActivityFeedSlice(List.of(activity(), activity()), "c1", true));
+            when(activityFeedService.countGlobalFeed()).thenReturn(5L);
+
+            Page<Activity> result = service.getGlobalFeed(PageRequest.of(0, 2));
+
+            assertEquals(2, result.getContent().size());
+            assertEquals(5, result.getTotalElements());
+            assertEquals(3, result.getTotalPages());
+            assertTrue(result.hasNext());
+            verify(activityFeedService, times(1)).getGlobalFeed(any(), anyInt());
         }
 
         @Test
-        @DisplayName("getNodeFeed delegates to repository")
-        void getNodeFeed() {
+        @DisplayName("getNodeFeed bounds unpaged requests to the default page size")
+        void getNodeFeedBoundsUnpagedRequests() {
             UUID nodeId = UUID.randomUUID();
-            when(activityRepository.findByNodeIdOrderByPostedAtDesc(eq(nodeId), eq(Pageable.unpaged())))
-                .thenReturn(new PageImpl<>(List.of(new Activity())));
-            when(tenantWorkspaceScopeService.resolveCurrentTenantRootPath()).thenReturn(null);
-            when(tenantWorkspaceScopeService.isActivityVisible(any(), eq((String) null))).thenReturn(true);
+            when(activityFeedService.getNodeFeed(nodeId, null, ActivityFeedService.DEFAULT_LIMIT))
+                .thenReturn(new ActivityFeedService.ActivityFeedSlice(List.of(activity()), null, false));
 
-            assertEquals(1, service.getNodeFeed(nodeId, PageRequest.of(0, 10)).getContent().size());
+            assertEquals(1, service.getNodeFeed(nodeId, Pageable.unpaged()).getContent().size());
         }
+    }
 
-        @Test
-        @DisplayName("scoped tenant filters cross-workspace activities from global feed")
-        void getGlobalFeedFiltersCrossWorkspaceActivities() {
-            Activity visible = new Activity();
-            visible.setId(UUID.randomUUID());
-            Activity hidden = new Activity();
-            hidden.setId(UUID.randomUUID());
-            when(activityRepository.findAllByOrderByPostedAtDesc(Pageable.unpaged()))
-                .thenReturn(new PageImpl<>(List.of(visible, hidden)));
-            when(tenantWorkspaceScopeService.resolveCurrentTenantRootPath()).thenReturn("/Acme Workspace [acme]");
-            when(tenantWorkspaceScopeService.isActivityVisible(visible, "/Acme Workspace [acme]")).thenReturn(true);
-            when(tenantWorkspaceScopeService.isActivityVisible(hidden, "/Acme Workspace [acme]")).thenReturn(false);
-
-            Page<Activity> result = service.getGlobalFeed(PageRequest.of(0, 20));
-
-            assertEquals(1, result.getTotalElements());
-            assertEquals(visible.getId(), result.getContent().get(0).getId());
-        }
+    private static Activity activity() {
+        Activity activity = new Activity();
+        activity.setId(UUID.randomUUID());
+        return activity;
     }
 }
@@ -0,0 +1,156 @@
+package com.ecm.core.service;
+
+import com.ecm.core.entity.AuditCategory;
+import com.ecm.core.entity.AuditLog;
+import com.ecm.core.repository.AuditLogRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@ExtendWith(MockitoExtension.class)
+class AuditExportStreamingServiceTest {
+
+    private static final LocalDateTime FROM = LocalDateTime.of(2026, 1, 1, 0, 0);
+    private static final LocalDateTime TO = LocalDateTime.of(2026, 4, 1, 0, 0);
+
+    @Mock
+    private AuditLogRepository auditLogRepository;
+
+    @Mock
+    private EntityManager entityManager;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private AuditExportStreamingService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new AuditExportStreamingService(auditLogRepository, objectMapper);
+        ReflectionTestUtils.setField(service, "entityManager", entityManager);
+        ReflectionTestUtils.setField(service, "progressIntervalRows", 2);
+    }
+
+    @Test
+    @DisplayName("CSV export writes header, escapes values and detaches every row")
+    void csvExportWritesRowsAndDetaches() throws Exception {
+        AuditLog quoted = auditLog("NODE_CREATED", "report, \"final\"");
+        AuditLog plain = auditLog("NODE_DELETED", "plain");
+        Mockito.when(auditLogRepository.streamByFiltersForExportNoNodeId(null, null, "NODE", FROM, TO))
+            .thenReturn(Stream.of(quoted, plain));
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        long rows = service.write(query(null, AuditCategory.NODE), AuditExportStreamingService.ExportFormat.CSV,
+            false, out, null);
+
+        String csv = out.toString(StandardCharsets.UTF_8);
+        assertEquals(2L, rows);
+        assertTrue(csv.startsWith(AuditExportStreamingService.CSV_HEADER));
+        assertTrue(csv.contains("\"report, \"\"final\"\"\""));
+        assertEquals(3, csv.split("\n").length);
+        Mockito.verify(entityManager).detach(quoted);
+        Mockito.verify(entityManager).detach(plain);
+    }
+
+    @Test
+    @DisplayName("JSON lines export can be gzip-compressed and uses the node-scoped cursor")
+    void jsonLinesGzipExportUsesNodeScopedCursor() throws Exception {
+        UUID nodeId = UUID.randomUUID();
+        Mockito.when(auditLogRepository.streamByFiltersForExport("alice", null, null, nodeId, FROM, TO))
+            .thenReturn(Stream.of(auditLog("VERSION_CREATED", "v2")));
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        AuditExportStreamingService.ExportQuery query = new AuditExportStreamingService.ExportQuery(
+            FROM, TO, "alice", null, nodeId, null);
+        long rows = service.write(query, AuditExportStreamingService.ExportFormat.JSONL, true, out, null);
+
+        String body;
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(out.toByteArray()))) {
+            body = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+        JsonNode line = objectMapper.readTree(body.trim());
+        assertEquals(1L, rows);
+        assertEquals("VERSION_CREATED", line.path("eventType").asText());
+        assertEquals("v2", line.path("nodeName").asText());
+        assertEquals("alice", line.path("username").asText());
+    }
+
+    @Test
+    @DisplayName("Progress is reported per interval and cancellation stops the cursor")
+    void progressIsReportedAndCancellationStopsExport() {
+        AtomicInteger produced = new AtomicInteger();
+        Stream<AuditLog> logs = IntStream.range(0, 10)
+            .mapToObj(i -> {
+                produced.incrementAndGet();
+                return auditLog("NODE_CREATED", "doc-" + i);
+            });
+        Mockito.when(auditLogRepository.streamByFiltersForExportNoNodeId(null, null, null, FROM, TO))
+            .thenReturn(logs);
+
+        List<AuditExportStreamingService.ExportProgress> reports = new ArrayList<>();
+        AuditExportStreamingService.ExportListener listener = new AuditExportStreamingService.ExportListener() {
+            @Override
+            public void onProgress(AuditExportStreamingService.ExportProgress progress) {
+                reports.add(progress);
+            }
+
+            @Override
+            public boolean isCancelled() {
+                return reports.size() >= 2;
+            }
+        };
+
+        assertThrows(CancellationException.class, () -> service.write(query(null, null),
+            AuditExportStreamingService.ExportFormat.CSV, false, new ByteArrayOutputStream(), listener));
+        assertEquals(2, reports.size());
+        assertEquals(2L, reports.get(0).rowsWritten());
+        assertEquals(4L, reports.get(1).rowsWritten());
+        assertTrue(reports.get(1).rowsPerSecond() > 0);
+        assertEquals(4, produced.get());
+    }
+
+    @Test
+    @DisplayName("Unknown export format is rejected")
+    void unknownFormatIsRejected() {
+        assertEquals(AuditExportStreamingService.ExportFormat.CSV, AuditExportStreamingService.ExportFormat.fromString(null));
+        assertEquals(AuditExportStreamingService.ExportFormat.JSONL, AuditExportStreamingService.ExportFormat.fromString("NDJSON"));
+        assertThrows(IllegalArgumentException.class, () -> AuditExportStreamingService.ExportFormat.fromString("xml"));
+    }
+
+    private static AuditExportStreamingService.ExportQuery query(UUID nodeId, AuditCategory category) {
+        return new AuditExportStreamingService.ExportQuery(FROM, TO, null, null, nodeId, category);
+    }
+
+    private static AuditLog auditLog(String eventType, String nodeName) {
+        AuditLog log = new AuditLog();
+        log.setId(UUID.randomUUID());
+        log.setEventType(eventType);
+        log.setNodeName(nodeName);
+        log.setUsername("alice");
+        log.setEventTime(LocalDateTime.of(2026, 2, 1, 12, 0));
+        return log;
+    }
+}
@@ -0,0 +1,289 @@
+package com.ecm.core.service;
+
+import com.ecm.core.entity.AuditLog;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceException;
+import org.hibernate.Session;
+import org.hibernate.exception.ConstraintViolationException;
+import org.hibernate.exception.DataException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.CannotCreateTransactionException;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@ExtendWith(MockitoExtension.class)
+class AuditWriteBufferTest {
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private EntityManager entityManager;
+
+    @Mock
+    private Session session;
+
+    @TempDir
+    Path spillDir;
+
+    private SimpleMeterRegistry meterRegistry;
+    private final List<String> persisted = new ArrayList<>();
+    private AuditWriteBuffer buffer;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        Mockito.lenient().when(entityManager.unwrap(Session.class)).thenReturn(session);
+        Mockito.lenient().doAnswer(invocation -> {
+            AuditLog entry = invocation.getArgument(0);
+            persisted.add(entry.getNodeName());
+            return null;
+        }).when(entityManager).persist(Mockito.any(AuditLog.class));
+        buffer = newBuffer(2);
+    }
+
+    @AfterEach
+    void tearDown() {
+        buffer.shutdown();
+    }
+
+    @Test
+    @DisplayName("Buffered events are inserted in submission order in JDBC batches")
+    void bufferedEventsAreFlushedInOrder() {
+        assertTrue(buffer.submit(event("a")));
+        assertTrue(buffer.submit(event("b")));
+        assertEquals(2, buffer.queueDepth());
+        assertEquals(2.0, meterRegistry.get("audit_buffer_queue_depth").gauge().value());
+
+        assertEquals(2, buffer.flushPending());
+
+        assertEquals(List.of("a", "b"), persisted);
+        assertEquals(0, buffer.queueDepth());
+        Mockito.verify(session).setJdbcBatchSize(100);
+        Mockito.verify(entityManager).flush();
+        assertEquals(1L, meterRegistry.get("audit_buffer_flush_duration").timer().count());
+    }
+
+    @Test
+    @DisplayName("Overflow spills to disk and is replayed after the in-memory events")
+    void overflowSpillsToDiskAndPreservesOrder() throws Exception {
+        for (String name : List.of("a", "b", "c", "d", "e")) {
+            assertTrue(buffer.submit(event(name)));
+        }
+        assertEquals(2, buffer.queueDepth());
+        assertEquals(3L, buffer.spilledEvents());
+
+        assertEquals(5, buffer.flushPending());
+
+        assertEquals(List.of("a", "b", "c", "d", "e"), persisted);
+        assertEquals(0L, buffer.spilledEvents());
+        try (Stream<Path> files = Files.list(spillDir)) {
+            assertEquals(0L, files.count());
+        }
+
+        assertTrue(buffer.submit(event("f")));
+        assertEquals(1, buffer.queueDepth());
+    }
+
+    @Test
+    @DisplayName("While the database is down the batch is kept and retried before newer events")
+    void failedFlushIsRetriedInOrder() {
+        Mockito.doThrow(new PersistenceException("database down"))
+            .doThrow(new PersistenceException("database down"))
+            .doNothing()
+            .when(entityManager).flush();
+        AuditLog first = event("a");
+        buffer.submit(first);
+
+        assertEquals(0, buffer.flushPending());
+        assertNull(first.getId());
+        assertEquals(1.0, meterRegistry.get("audit_buffer_flush_failures_total").counter().count());
+
+        buffer.submit(event("b"));
+        assertEquals(2, buffer.flushPending());
+        assertEquals(List.of("a", "a", "a", "b"), persisted);
+        assertFalse(Files.exists(spillDir.resolve(AuditSpillJournal.DEAD_LETTER_FILE)));
+    }
+
+    @Test
+    @DisplayName("An outage during the row-by-row pass keeps the remaining rows for a retry instead of dead-lettering them")
+    void outageDuringRowFallbackKeepsRemainingRows() {
+        Mockito.doThrow(new PersistenceException("database down"))
+            .doNothing()
+            .doThrow(new PersistenceException("connection reset"))
+            .doNothing()
+            .when(entityManager).flush();
+        buffer.submit(event("a"));
+        buffer.submit(event("b"));
+
+        assertEquals(1, buffer.flushPending());
+        assertFalse(Files.exists(spillDir.resolve(AuditSpillJournal.DEAD_LETTER_FILE)));
+
+        persisted.clear();
+        assertEquals(1, buffer.flushPending());
+        assertEquals(List.of("b"), persisted);
+        assertEquals(0.0, meterRegistry.counter("audit_buffer_dead_lettered_total").count());
+    }
+
+    @Test
+    @DisplayName("Shutdown does not flush beside a writer that is still inserting and spills the queue instead")
+    void shutdownDoesNotFlushBesideBusyWriter() throws Exception {
+        CountDownLatch writing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Mockito.doAnswer(invocation -> {
+            writing.countDown();
+            while (true) {
+                try {
+                    release.await();
+                    return null;
+                } catch (InterruptedException ignored) {
+                    // keep blocking like a driver call that ignores interrupts
+                }
+            }
+        }).when(entityManager).flush();
+        buffer.shutdown();
+        buffer = new AuditWriteBuffer(transactionManager, meterRegistry);
+        ReflectionTestUtils.setField(buffer, "entityManager", entityManager);
+        ReflectionTestUtils.setField(buffer, "capacity", 2);
+        ReflectionTestUtils.setField(buffer, "flushIntervalMs", 10L);
+        ReflectionTestUtils.setField(buffer, "shutdownTimeoutMs", 50L);
+        ReflectionTestUtils.setField(buffer, "spillDir", spillDir.toString());
+        buffer.start();
+
+        try {
+            buffer.submit(event("a"));
+            assertTrue(writing.await(5, TimeUnit.SECONDS));
+            buffer.submit(event("b"));
+
+            buffer.shutdown();
+
+            assertEquals(List.of("a"), persisted);
+            assertEquals(1L, buffer.spilledEvents());
+        } finally {
+            release.countDown();
+        }
+    }
+
+    @Test
+    @DisplayName("A row the database rejects is dead-lettered and does not block the rest of its batch")
+    void rejectedRowIsDeadLetteredAndBatchProceeds() throws Exception {
+        List<String> inTransaction = new ArrayList<>();
+        Mockito.doAnswer(invocation -> {
+            AuditLog entry = invocation.getArgument(0);
+            persisted.add(entry.getNodeName());
+            inTransaction.add(entry.getNodeName());
+            return null;
+        }).when(entityManager).persist(Mockito.any(AuditLog.class));
+        Mockito.doAnswer(invocation -> {
+            boolean poisoned = inTransaction.contains("bad");
+            inTransaction.clear();
+            if (poisoned) {
+                throw new PersistenceException("value too long",
+                    new DataException("value too long for type character varying(255)", new SQLException()));
+            }
+            return null;
+        }).when(entityManager).flush();
+        buffer.submit(event("a"));
+        buffer.submit(event("bad"));
+
+        assertEquals(1, buffer.flushPending());
+
+        assertEquals(List.of("a", "bad", "a", "bad"), persisted);
+        List<String> deadLetters = Files.readAllLines(spillDir.resolve(AuditSpillJournal.DEAD_LETTER_FILE));
+        assertEquals(1, deadLetters.size());
+        assertEquals("bad", AuditWriteBuffer.deserialize(deadLetters.get(0)).getNodeName());
+        assertEquals(1.0, meterRegistry.get("audit_buffer_dead_lettered_total").counter().count());
+
+        persisted.clear();
+        buffer.submit(event("c"));
+        assertEquals(1, buffer.flushPending());
+        assertEquals(List.of("c"), persisted);
+    }
+
+    @Test
+    @DisplayName("Data errors count as row-specific, connection errors do not")
+    void classifiesRowSpecificFailures() {
+        assertTrue(AuditWriteBuffer.isRowSpecific(
+            new DataIntegrityViolationException("duplicate key")));
+        assertTrue(AuditWriteBuffer.isRowSpecific(new PersistenceException("constraint",
+            new ConstraintViolationException("null value", new SQLException(), "audit_log_event_type"))));
+        assertFalse(AuditWriteBuffer.isRowSpecific(
+            new CannotCreateTransactionException("connection refused")));
+    }
+
+    @Test
+    @DisplayName("Spilled events survive a restart")
+    void spilledEventsSurviveRestart() {
+        for (String name : List.of("a", "b", "c")) {
+            buffer.submit(event(name));
+        }
+        Mockito.doThrow(new PersistenceException("database down")).when(entityManager).flush();
+        buffer.shutdown();
+        persisted.clear();
+        Mockito.doNothing().when(entityManager).flush();
+
+        buffer = newBuffer(2);
+        assertEquals(3L, buffer.spilledEvents());
+        assertEquals(3, buffer.flushPending());
+        assertEquals(List.of("c", "a", "b"), persisted);
+    }
+
+    @Test
+    @DisplayName("Disabled buffer rejects events so callers persist synchronously")
+    void disabledBufferRejectsEvents() {
+        AuditWriteBuffer disabled = new AuditWriteBuffer(transactionManager, new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(disabled, "entityManager", entityManager);
+        ReflectionTestUtils.setField(disabled, "enabled", false);
+        disabled.open();
+
+        assertFalse(disabled.submit(event("a")));
+        disabled.persistNow(event("a"));
+        assertEquals(List.of("a"), persisted);
+    }
+
+    private AuditWriteBuffer newBuffer(int capacity) {
+        AuditWriteBuffer created = new AuditWriteBuffer(transactionManager, meterRegistry);
+        ReflectionTestUtils.setField(created, "entityManager", entityManager);
+        ReflectionTestUtils.setField(created, "capacity", capacity);
+        ReflectionTestUtils.setField(created, "batchSize", 100);
+        ReflectionTestUtils.setField(created, "spillDir", spillDir.toString());
+        created.open();
+        return created;
+    }
+
+    private static AuditLog event(String nodeName) {
+        return AuditLog.builder()
+            .eventType("NODE_MOVED")
+            .nodeId(UUID.randomUUID())
+            .nodeName(nodeName)
+            .username("admin")
+            .eventTime(LocalDateTime.now())
+            .build();
+    }
+}
@@ -12,15 +12,23 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.Random;
 import java.util.UUID;
-import java.util.zip.ZipOutputStream;
-import java.io.ByteArrayOutputStream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -50,7 +58,8 @@ class BatchDownloadServiceTest {
             contentService,
             securityService,
             folderService,
-            tenantWorkspaceScopeService
+            tenantWorkspaceScopeService,
+            new SmartZipArchiveBuilder()
         );
     }
 
@@ -169,13 +178,79 @@ class BatchDownloadServiceTest {
 
         ByteArrayOutputStream bytes = new ByteArrayOutputStream();
         BatchDownloadService.BatchDownloadArchiveSummary summary =
-            batchDownloadService.writeNodesAsZip(List.of(documentId), new ZipOutputStream(bytes), BatchDownloadService.BatchDownloadProgressListener.noop());
+            batchDownloadService.writeNodesAsZip(List.of(documentId), bytes, BatchDownloadService.BatchDownloadProgressListener.noop());
 
         assertEquals(0, summary.filesAdded());
         assertEquals(0L, summary.bytesAdded());
         assertFalse(summary.cancelled());
     }
 
+    @Test
+    @DisplayName("ZIP streaming stores incompressible types, deflates text and keeps traversal order")
+    void writeNodesAsZipChoosesMethodPerEntryAndKeepsOrder() throws IOException {
+        UUID folderId = UUID.randomUUID();
+        Folder project = folder(folderId, "project");
+        Document notes = document(UUID.randomUUID(), "notes.txt", 0L, false);
+        notes.setContentId("notes");
+        Document photo = document(UUID.randomUUID(), "photo.jpg", 0L, false);
+        photo.setContentId("photo");
+        photo.setMimeType("image/jpeg");
+        Document broken = document(UUID.randomUUID(), "broken.txt", 0L, false);
+        broken.setContentId("broken");
+        byte[] text = "quarterly report line\n".repeat(2_000).getBytes(StandardCharsets.UTF_8);
+        byte[] jpeg = new byte[4_096];
+        new Random(42).nextBytes(jpeg);
+
+        when(nodeRepository.findById(folderId)).thenReturn(Optional.of(project));
+        when(nodeRepository.findByParentIdAndDeletedFalse(folderId)).thenReturn(List.of(notes, photo, broken));
+        when(securityService.hasPermission(any(Node.class), eq(Permission.PermissionType.READ))).thenReturn(true);
+        when(contentService.getContent("notes")).thenReturn(new ByteArrayInputStream(text));
+        when(contentService.getContent("photo")).thenReturn(new ByteArrayInputStream(jpeg));
+        when(contentService.getContent("broken")).thenThrow(new IOException("blob missing"));
+
+        List<String> reported = new ArrayList<>();
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        BatchDownloadService.BatchDownloadArchiveSummary summary = batchDownloadService.writeNodesAsZip(
+            List.of(folderId), bytes, new BatchDownloadService.BatchDownloadProgressListener() {
+                @Override
+                public boolean isCancellationRequested() {
+                    return false;
+                }
+
+                @Override
+                public void onFileAdded(UUID nodeId, String entryPath, long bytesWritten, int filesAdded, long totalBytesAdded) {
+                    reported.add(entryPath);
+                }
+            });
+
+        assertEquals(3, summary.filesAdded());
+        assertEquals(List.of("project/notes.txt", "project/photo.jpg", "project/broken.txt"), reported);
+
+        List<String> names = new ArrayList<>();
+        try (ZipInputStream zip = new ZipInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+            ZipEntry entry;
+            while ((entry = zip.getNextEntry()) != null) {
+                names.add(entry.getName());
+                byte[] content = zip.readAllBytes();
+                switch (entry.getName()) {
+                    case "project/notes.txt" -> {
+                        assertEquals(ZipEntry.DEFLATED, entry.getMethod());
+                        assertTrue(entry.getCompressedSize() < text.length);
+                        assertEquals(text.length, content.length);
+                    }
+                    case "project/photo.jpg" -> {
+                        assertEquals(ZipEntry.STORED, entry.getMethod());
+                        assertEquals(jpeg.length, content.length);
+                    }
+                    case "project/broken.txt" ->
+                        assertTrue(new String(content, StandardCharsets.UTF_8).startsWith("Error reading content"));
+                    default -> assertTrue(entry.isDirectory());
+                }
+            }
+        }
+        assertEquals(List.of("project/", "project/notes.txt", "project/photo.jpg", "project/broken.txt"), names);
+    }
+
     private Document document(UUID id, String name, long size, boolean deleted) {
         Document document = new Document();
         document.setId(id);
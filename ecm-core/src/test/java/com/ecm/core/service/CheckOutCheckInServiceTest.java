@@ -41,6 +41,7 @@ class CheckOutCheckInServiceTest {
     @Mock private ContentService contentService;
     @Mock private ApplicationEventPublisher eventPublisher;
     @Mock private VersionService versionService;
+    @Mock private ExtractedTextStore extractedTextStore;
 
     private CheckOutCheckInService service;
 
@@ -57,6 +58,7 @@ class CheckOutCheckInServiceTest {
             eventPublisher
         );
         ReflectionTestUtils.setField(service, "versionService", versionService);
+        ReflectionTestUtils.setField(service, "extractedTextStore", extractedTextStore);
     }
 
     // ===================================================================== checkout
@@ -484,6 +486,7 @@ class CheckOutCheckInServiceTest {
 
             assertEquals("uploaded-content", wc.getContentId());
             assertEquals("uploaded-content", result.getContentId());
+            verify(extractedTextStore).storePending(wc);
             verify(contentReferenceService).syncOwnerReference("old-content", "uploaded-content", OwnerType.WORKING_COPY, wcId);
             verify(versionService).createVersion(eq(originalId), any(), eq("report-v2.docx"), eq("check-in upload"), eq(true));
         }
@@ -0,0 +1,110 @@
+package com.ecm.core.service;
+
+import com.ecm.core.service.ContentHashBackfill.HashedRow;
+import org.apache.commons.codec.digest.DigestUtils;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.io.FileNotFoundException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ContentHashBackfillTest {
+
+    private static final UUID FIRST_ID = new UUID(0L, 0L);
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private ContentService contentService;
+
+    private ContentHashBackfill backfill;
+
+    @BeforeEach
+    void setUp() {
+        backfill = new ContentHashBackfill(jdbcTemplate, new TransactionTemplate(transactionManager), contentService);
+    }
+
+    @Test
+    @DisplayName("Replaces an old-format hash everywhere it is stored and only unflags hashes that are already plain")
+    void rehashesLegacyRows() throws Exception {
+        byte[] content = "quarterly report".getBytes(StandardCharsets.UTF_8);
+        String sha256 = DigestUtils.sha256Hex(content);
+        String legacy = DigestUtils.sha256Hex("double digested");
+        UUID legacyRow = new UUID(0L, 1L);
+        UUID plainRow = new UUID(0L, 2L);
+        UUID missingRow = new UUID(0L, 3L);
+        when(jdbcTemplate.query(contains("FROM documents"), ArgumentMatchers.<RowMapper<HashedRow>>any(), eq(FIRST_ID), any()))
+            .thenReturn(List.of(
+                new HashedRow(legacyRow, "20240101000000_a", legacy),
+                new HashedRow(plainRow, "20240101000000_b", sha256.toUpperCase()),
+                new HashedRow(missingRow, "20240101000000_c", legacy)));
+        when(contentService.getContent("20240101000000_a")).thenReturn(new ByteArrayInputStream(content));
+        when(contentService.getContent("20240101000000_b")).thenReturn(new ByteArrayInputStream(content));
+        when(contentService.getContent("20240101000000_c")).thenThrow(new FileNotFoundException("c"));
+
+        assertEquals(3, backfill.backfill());
+
+        verify(jdbcTemplate).update(contains("UPDATE nodes n SET version"), eq(legacy), eq(sha256), eq(legacy),
+            eq(sha256), eq(legacy), eq(sha256));
+        verify(jdbcTemplate).update(contains("UPDATE versions SET content_hash = ?"), eq(sha256), eq(legacy));
+        verify(jdbcTemplate).update(contains("UPDATE content_scan_verdicts"), eq(sha256), eq(legacy), eq(sha256));
+        verify(jdbcTemplate).update(contains("DELETE FROM content_scan_verdicts"), eq(legacy));
+        verify(jdbcTemplate).update(contains("UPDATE documents SET content_hash_legacy = FALSE"), eq(legacyRow));
+        verify(jdbcTemplate).update(contains("UPDATE documents SET content_hash_legacy = FALSE"), eq(plainRow));
+        verify(jdbcTemplate).update(contains("UPDATE documents SET content_hash_legacy = FALSE"), eq(missingRow));
+        verify(jdbcTemplate, times(1)).update(contains("UPDATE nodes n SET version"), any(), any(), any(), any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("Moves on to versions once no document is flagged and finishes after a clean pass over both")
+    void finishesAfterDocumentsAndVersions() throws Exception {
+        byte[] content = "minutes".getBytes(StandardCharsets.UTF_8);
+        UUID versionId = new UUID(0L, 7L);
+        when(jdbcTemplate.query(contains("FROM documents"), ArgumentMatchers.<RowMapper<HashedRow>>any(), any(), any()))
+            .thenReturn(List.of());
+        when(jdbcTemplate.query(contains("FROM versions"), ArgumentMatchers.<RowMapper<HashedRow>>any(), any(), any()))
+            .thenReturn(List.of(new HashedRow(versionId, "20240101000000_v", DigestUtils.sha256Hex(content))))
+            .thenReturn(List.of())
+            .thenReturn(List.of());
+        when(contentService.getContent("20240101000000_v")).thenReturn(new ByteArrayInputStream(content));
+
+        assertEquals(1, backfill.backfill());
+        verify(jdbcTemplate).update(contains("UPDATE versions SET content_hash_legacy = FALSE"), eq(versionId));
+
+        assertEquals(0, backfill.backfill());
+        assertEquals(0, backfill.backfill());
+        assertTrue(backfill.isComplete());
+        assertEquals(0, backfill.backfill());
+        verify(jdbcTemplate, times(3)).query(contains("FROM versions"), ArgumentMatchers.<RowMapper<HashedRow>>any(),
+            any(), any());
+        verify(jdbcTemplate, never()).queryForObject(anyString(), eq(Boolean.class));
+    }
+}
@@ -0,0 +1,132 @@
+package com.ecm.core.service;
+
+import com.ecm.core.entity.Document;
+import com.ecm.core.repository.ContentReferenceRepository;
+import com.ecm.core.repository.DocumentRepository;
+import com.ecm.core.repository.VersionRepository;
+import org.apache.commons.codec.digest.DigestUtils;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ContentServiceUploadHashTest {
+
+    @Mock
+    private DocumentRepository documentRepository;
+
+    @Mock
+    private VersionRepository versionRepository;
+
+    @Mock
+    private TenantQuotaService tenantQuotaService;
+
+    @Mock
+    private ContentReferenceRepository contentReferenceRepository;
+
+    @Mock
+    private TextExtractionService textExtractionService;
+
+    @Mock
+    private ContentHashBackfill contentHashBackfill;
+
+    @TempDir
+    Path storage;
+
+    private ContentService contentService;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        contentService = new ContentService(documentRepository, versionRepository, tenantQuotaService,
+            contentReferenceRepository, textExtractionService);
+        Path root = Files.createDirectories(storage.resolve("content"));
+        Path temp = Files.createDirectories(storage.resolve("temp"));
+        ReflectionTestUtils.setField(contentService, "rootPath", root.toString());
+        ReflectionTestUtils.setField(contentService, "tempPath", temp.toString());
+    }
+
+    @Test
+    @DisplayName("Uploads record the plain SHA-256 of the stored bytes")
+    void recordsPlainSha256() throws Exception {
+        byte[] content = new byte[20_000];
+        for (int i = 0; i < content.length; i++) {
+            content[i] = (byte) i;
+        }
+        when(documentRepository.findByContentHash(anyString())).thenReturn(Optional.empty());
+
+        ContentService.StoredContent stored =
+            contentService.storeContentWithHash(new ByteArrayInputStream(content), "report.bin");
+
+        assertEquals(DigestUtils.sha256Hex(content), stored.contentHash());
+        assertFalse(stored.deduplicated());
+        try (InputStream in = contentService.getContent(stored.contentId())) {
+            assertArrayEquals(content, in.readAllBytes());
+        }
+    }
+
+    @Test
+    @DisplayName("Until the backfill finishes, an upload matching an old-format hash reuses that content")
+    void reusesContentStoredUnderOldFormatHash() throws Exception {
+        byte[] content = "quarterly report".getBytes(StandardCharsets.UTF_8);
+        ReflectionTestUtils.setField(contentService, "contentHashBackfill", contentHashBackfill);
+        when(contentHashBackfill.isComplete()).thenReturn(false);
+        Document existing = new Document();
+        existing.setContentId("20240101000000_legacy");
+        when(documentRepository.findByContentHash(DigestUtils.sha256Hex(content))).thenReturn(Optional.empty());
+        when(documentRepository.findByContentHash(legacyHash(content))).thenReturn(Optional.of(existing));
+
+        ContentService.StoredContent stored =
+            contentService.storeContentWithHash(new ByteArrayInputStream(content), "report.txt");
+
+        assertTrue(stored.deduplicated());
+        assertEquals("20240101000000_legacy", stored.contentId());
+        assertEquals(DigestUtils.sha256Hex(content), stored.contentHash());
+    }
+
+    @Test
+    @DisplayName("Once the backfill is complete, uploads look up the plain hash only")
+    void skipsOldFormatLookupAfterBackfill() throws Exception {
+        byte[] content = "quarterly report".getBytes(StandardCharsets.UTF_8);
+        ReflectionTestUtils.setField(contentService, "contentHashBackfill", contentHashBackfill);
+        when(contentHashBackfill.isComplete()).thenReturn(true);
+        when(documentRepository.findByContentHash(DigestUtils.sha256Hex(content))).thenReturn(Optional.empty());
+
+        ContentService.StoredContent stored =
+            contentService.storeContentWithHash(new ByteArrayInputStream(content), "report.txt");
+
+        assertFalse(stored.deduplicated());
+        verify(documentRepository, never()).findByContentHash(legacyHash(content));
+    }
+
+    /**
+     * The value uploads stored before migration 112 for content read in a single chunk: each chunk
+     * was digested twice and the hex of the digest's digest was kept.
+     */
+    private static String legacyHash(byte[] chunk) {
+        byte[] twice = new byte[chunk.length * 2];
+        System.arraycopy(chunk, 0, twice, 0, chunk.length);
+        System.arraycopy(chunk, 0, twice, chunk.length, chunk.length);
+        return DigestUtils.sha256Hex(DigestUtils.sha256(twice));
+    }
+}
@@ -0,0 +1,110 @@
+package com.ecm.core.service;
+
+import com.ecm.core.entity.Document;
+import com.ecm.core.entity.ExtractedText;
+import com.ecm.core.service.ExtractedTextStore.InlineText;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.ArgumentMatchers.nullable;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ExtractedTextStoreTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    private ExtractedTextStore store;
+
+    @BeforeEach
+    void setUp() {
+        store = new ExtractedTextStore(jdbcTemplate);
+    }
+
+    @Test
+    @DisplayName("Text set on a document is stored before the document is saved")
+    void storesPendingText() {
+        Document document = new Document();
+        document.setTextContent("invoice 42");
+
+        store.storePending(document);
+
+        verify(jdbcTemplate).update(contains("ON CONFLICT (text_hash)"),
+            eq(ExtractedText.hashOf("invoice 42")), any(), eq(10), any(), any());
+    }
+
+    @Test
+    @DisplayName("Documents whose text was not changed write nothing")
+    void ignoresUnchangedDocuments() {
+        store.storePending(new Document());
+
+        verifyNoInteractions(jdbcTemplate);
+    }
+
+    @Test
+    @DisplayName("Inline text migration moves a batch into the store and finishes after a clean pass")
+    void migrationMovesInlineText() {
+        UUID firstId = UUID.randomUUID();
+        UUID secondId = UUID.randomUUID();
+        when(jdbcTemplate.query(anyString(), ArgumentMatchers.<RowMapper<InlineText>>any(), any(), any()))
+            .thenReturn(List.of(new InlineText(firstId, "alpha", 3L), new InlineText(secondId, "", null)))
+            .thenReturn(List.of())
+            .thenReturn(List.of());
+        when(jdbcTemplate.update(contains("UPDATE documents"), any(UUID.class), nullable(Object.class),
+            nullable(Object.class))).thenReturn(1);
+
+        assertEquals(2, store.migrateInlineText());
+        verify(jdbcTemplate).update(contains("UPDATE documents"), eq(firstId), eq(3L), eq(ExtractedText.hashOf("alpha")));
+        verify(jdbcTemplate).update(contains("UPDATE documents"), eq(secondId), isNull(), isNull());
+        verify(jdbcTemplate, times(1)).update(contains("INSERT INTO extracted_texts"),
+            any(), any(), any(), any(), any());
+
+        assertEquals(0, store.migrateInlineText());
+        assertEquals(0, store.migrateInlineText());
+        assertEquals(0, store.migrateInlineText());
+        verify(jdbcTemplate, times(3)).query(anyString(), ArgumentMatchers.<RowMapper<InlineText>>any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("Inline text migration skips rows whose version changed since the batch was read")
+    void migrationSkipsRowsChangedSinceRead() {
+        UUID id = UUID.randomUUID();
+        when(jdbcTemplate.query(anyString(), ArgumentMatchers.<RowMapper<InlineText>>any(), any(), any()))
+            .thenReturn(List.of(new InlineText(id, "alpha", 7L)));
+        when(jdbcTemplate.update(contains("UPDATE documents"), eq(id), eq(7L), anyString())).thenReturn(0);
+
+        assertEquals(0, store.migrateInlineText());
+        verify(jdbcTemplate).update(contains("n.version IS NOT DISTINCT FROM ?"), eq(id), eq(7L),
+            eq(ExtractedText.hashOf("alpha")));
+    }
+
+    @Test
+    @DisplayName("Purge is skipped when disabled")
+    void purgeDisabled() {
+        ReflectionTestUtils.setField(store, "purgeEnabled", false);
+
+        assertEquals(0, store.purgeUnreferenced());
+        verifyNoInteractions(jdbcTemplate);
+    }
+}
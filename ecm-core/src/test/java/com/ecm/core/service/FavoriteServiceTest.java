@@ -10,6 +10,7 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 
@@ -28,12 +29,14 @@ class FavoriteServiceTest {
     @Mock private NodeRepository nodeRepository;
     @Mock private SecurityService securityService;
     @Mock private TenantWorkspaceScopeService tenantWorkspaceScopeService;
+    @Mock private ApplicationEventPublisher eventPublisher;
 
     private FavoriteService service;
 
     @BeforeEach
     void setUp() {
-        service = new FavoriteService(favoriteRepository, nodeRepository, securityService, tenantWorkspaceScopeService);
+        service = new FavoriteService(favoriteRepository, nodeRepository, securityService, tenantWorkspaceScopeService,
+            eventPublisher);
     }
 
     @Test
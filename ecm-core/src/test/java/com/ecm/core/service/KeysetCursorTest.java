@@ -0,0 +1,37 @@
+package com.ecm.core.service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class KeysetCursorTest {
+
+    private static final KeysetCursor<String> HEAD = KeysetCursor.head("\uffff");
+
+    @Test
+    @DisplayName("string ids round-trip, including ids that contain the separator")
+    void roundTripsStringIds() {
+        KeysetCursor<String> cursor = new KeysetCursor<>(LocalDateTime.of(2026, 3, 1, 9, 30, 15), "task|42");
+
+        KeysetCursor<String> parsed = KeysetCursor.parse(cursor.serialize(), Function.identity(), HEAD, "task inbox cursor");
+
+        assertEquals(cursor, parsed);
+    }
+
+    @Test
+    @DisplayName("blank tokens yield the caller's head and malformed tokens name the cursor")
+    void blankAndMalformedTokens() {
+        assertSame(HEAD, KeysetCursor.parse(null, Function.identity(), HEAD, "task inbox cursor"));
+        assertSame(HEAD, KeysetCursor.parse("  ", Function.identity(), HEAD, "task inbox cursor"));
+
+        IllegalArgumentException missingId = assertThrows(IllegalArgumentException.class,
+            () -> KeysetCursor.parse("2026-03-01T09:30:15|", Function.identity(), HEAD, "task inbox cursor"));
+        assertTrue(missingId.getMessage().startsWith("Invalid task inbox cursor"));
+        assertThrows(IllegalArgumentException.class,
+            () -> KeysetCursor.parse("yesterday|task-1", Function.identity(), HEAD, "task inbox cursor"));
+    }
+}
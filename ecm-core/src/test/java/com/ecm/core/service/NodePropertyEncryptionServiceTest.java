@@ -16,10 +16,13 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
@@ -86,6 +89,37 @@ class NodePropertyEncryptionServiceTest {
         assertEquals("SEC-42", readable.get("acme:secretCode"));
     }
 
+    @Test
+    @DisplayName("resolveReadableProperties reuses decrypted values until the row version or payload changes")
+    @SuppressWarnings("unchecked")
+    void resolveReadablePropertiesCachesDecryptedValuesPerRowVersion() {
+        Document document = new Document();
+        document.setId(UUID.randomUUID());
+        document.setEntityVersion(3L);
+        document.setTypeQName("acme:contract");
+        document.setEncryptedProperties(new HashMap<>(Map.of("acme:secretCode", "enc:v1:secret")));
+
+        when(dictionaryService.getPropertiesForType("acme:contract")).thenReturn(List.of(typedProperty("secretCode", true)));
+        when(secretCryptoService.reveal("enc:v1:secret")).thenReturn("{\"code\":\"SEC-42\"}");
+        when(secretCryptoService.keyVersionOf("enc:v1:secret")).thenReturn("v1");
+        when(secretCryptoService.hasKeyVersion("v1")).thenReturn(true);
+        nodePropertyEncryptionService.initDecryptedPropertyCache();
+
+        Map<String, Object> first = nodePropertyEncryptionService.resolveReadableProperties(document);
+        ((Map<String, Object>) first.get("acme:secretCode")).put("code", "changed-by-caller");
+        Map<String, Object> second = nodePropertyEncryptionService.resolveReadableProperties(document);
+
+        assertEquals(Map.of("code", "SEC-42"), second.get("acme:secretCode"));
+        verify(secretCryptoService, times(1)).reveal("enc:v1:secret");
+
+        document.setEncryptedProperties(new HashMap<>(Map.of("acme:secretCode", "enc:v2:rewrapped")));
+        when(secretCryptoService.reveal("enc:v2:rewrapped")).thenReturn("{\"code\":\"SEC-42\"}");
+
+        nodePropertyEncryptionService.resolveReadableProperties(document);
+
+        verify(secretCryptoService).reveal("enc:v2:rewrapped");
+    }
+
     @Test
     @DisplayName("resolveResponseProperties masks encrypted model properties without decrypting")
     void resolveResponsePropertiesMasksEncryptedModelPropertiesWithoutDecrypting() {
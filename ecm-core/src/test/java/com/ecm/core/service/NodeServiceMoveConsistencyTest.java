@@ -1,6 +1,5 @@
 package com.ecm.core.service;
 
-import com.ecm.core.entity.Document;
 import com.ecm.core.entity.Folder;
 import com.ecm.core.entity.Node;
 import com.ecm.core.entity.Permission.PermissionType;
@@ -10,6 +9,8 @@ import com.ecm.core.repository.DocumentRepository;
 import com.ecm.core.repository.FolderRepository;
 import com.ecm.core.repository.NodeRepository;
 import com.ecm.core.repository.PermissionRepository;
+import com.ecm.core.service.SubtreeRepathTaskRegistry.SubtreeRepathTask;
+import org.junit.jupiter.api.Assumptions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -17,14 +18,39 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.boot.SpringBootConfiguration;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
 import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.ComponentScan;
+import org.springframework.context.annotation.FilterType;
+import org.springframework.data.domain.AuditorAware;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.config.EnableJpaAuditing;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.utility.DockerImageName;
 
-import java.util.List;
+import java.time.LocalDateTime;
 import java.util.Optional;
 import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -57,25 +83,125 @@ class NodeServiceMoveConsistencyTest {
     }
 
     @Test
-    @DisplayName("moveNode refreshes descendant paths before publishing move event")
-    void moveNodeRefreshesDescendantPaths() {
+    @DisplayName("moveNode rewrites descendant paths with set-based updates before publishing move event")
+    void moveNodeRewritesDescendantPathsInBatches() {
+        ReflectionTestUtils.setField(nodeService, "pathRewriteBatchSize", 2);
+        Fixture fixture = stubMove();
+        when(nodeRepository.rewriteDescendantPaths("/Sites/Source/Projects/", "/Sites/Target/Projects/", 2))
+            .thenReturn(2, 1);
+
+        Node moved = nodeService.moveNode(fixture.movedFolderId(), fixture.targetParentId());
+
+        assertEquals("/Sites/Target/Projects", moved.getPath());
+        verify(nodeRepository, times(2)).rewriteDescendantPaths("/Sites/Source/Projects/", "/Sites/Target/Projects/", 2);
+        verify(nodeRepository, never()).findByParentIdAndDeletedFalse(fixture.movedFolderId());
+
+        ArgumentCaptor<NodeMovedEvent> eventCaptor = ArgumentCaptor.forClass(NodeMovedEvent.class);
+        verify(eventPublisher).publishEvent(eventCaptor.capture());
+        assertEquals("/Sites/Target/Projects", eventCaptor.getValue().getNode().getPath());
+        assertNull(eventCaptor.getValue().getRepathTaskId());
+    }
+
+    @Test
+    @DisplayName("moving a subtree above the threshold registers a tracked re-path task")
+    void largeSubtreeMoveRegistersRepathTask() {
+        SubtreeRepathTaskRegistry registry = mock(SubtreeRepathTaskRegistry.class);
+        ReflectionTestUtils.setField(nodeService, "subtreeRepathTaskRegistry", registry);
+        ReflectionTestUtils.setField(nodeService, "asyncRepathThreshold", 3L);
+        Fixture fixture = stubMove();
+        when(nodeRepository.rewriteDescendantPaths("/Sites/Source/Projects/", "/Sites/Target/Projects/", 5000))
+            .thenReturn(3);
+        when(registry.register(any(Node.class), eq(3L), eq("alice"))).thenAnswer(invocation -> new SubtreeRepathTask(
+            "task-1", fixture.movedFolderId(), "/Sites/Target/Projects", 3L, 0L,
+            SubtreeRepathTaskRegistry.SubtreeRepathStatus.QUEUED, null, "alice", LocalDateTime.now(), null));
+
+        NodeService.SubtreeMoveResult result = nodeService.moveSubtree(fixture.movedFolderId(), fixture.targetParentId());
+
+        assertEquals(3L, result.descendantCount());
+        assertEquals("task-1", result.repathTaskId());
+        ArgumentCaptor<NodeMovedEvent> eventCaptor = ArgumentCaptor.forClass(NodeMovedEvent.class);
+        verify(eventPublisher).publishEvent(eventCaptor.capture());
+        assertEquals("task-1", eventCaptor.getValue().getRepathTaskId());
+    }
+
+    @Test
+    @DisplayName("the path rewrite clears the persistence context and the move continues with a re-fetched node")
+    void moveContinuesWithRefetchedNodeAfterPathRewrite() throws Exception {
+        Modifying modifying = NodeRepository.class
+            .getMethod("rewriteDescendantPaths", String.class, String.class, int.class)
+            .getAnnotation(Modifying.class);
+        assertTrue(modifying.clearAutomatically());
+
+        Fixture fixture = stubMove();
+        when(nodeRepository.rewriteDescendantPaths("/Sites/Source/Projects/", "/Sites/Target/Projects/", 5000))
+            .thenReturn(1);
+        Folder reloaded = folder(fixture.movedFolderId(), "Projects", "/Sites/Target/Projects");
+        when(nodeRepository.findById(fixture.movedFolderId())).thenReturn(Optional.of(reloaded));
+
+        Node moved = nodeService.moveNode(fixture.movedFolderId(), fixture.targetParentId());
+
+        assertSame(reloaded, moved);
+        ArgumentCaptor<NodeMovedEvent> eventCaptor = ArgumentCaptor.forClass(NodeMovedEvent.class);
+        verify(eventPublisher).publishEvent(eventCaptor.capture());
+        assertSame(reloaded, eventCaptor.getValue().getNode());
+    }
+
+    @Test
+    @DisplayName("a descendant loaded before the path rewrite cannot be saved back with its old path")
+    void staleDescendantSaveAfterPathRewriteFailsOptimisticLock() {
+        DockerImageName image = DockerImageName.parse("postgres:15-alpine");
+        try (PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>(image)
+            .withDatabaseName("ecm_move")
+            .withUsername("ecm")
+            .withPassword("ecm")) {
+            try {
+                postgres.start();
+            } catch (IllegalStateException e) {
+                Assumptions.assumeTrue(false, "Docker not available for Testcontainers: " + e.getMessage());
+            }
+
+            new ApplicationContextRunner()
+                .withUserConfiguration(JpaTestConfig.class)
+                .withPropertyValues(
+                    "spring.datasource.url=" + postgres.getJdbcUrl(),
+                    "spring.datasource.driver-class-name=org.postgresql.Driver",
+                    "spring.datasource.username=" + postgres.getUsername(),
+                    "spring.datasource.password=" + postgres.getPassword(),
+                    "spring.jpa.hibernate.ddl-auto=create-drop",
+                    "spring.jpa.database-platform=org.hibernate.dialect.PostgreSQLDialect",
+                    "spring.liquibase.enabled=false"
+                )
+                .run(context -> {
+                    NodeRepository repository = context.getBean(NodeRepository.class);
+                    TransactionTemplate transaction = new TransactionTemplate(
+                        context.getBean(PlatformTransactionManager.class));
+
+                    Folder projects = repository.save(persistedFolder("Projects", null));
+                    Folder plans = repository.save(persistedFolder("Plans", projects));
+                    assertEquals("/Projects/Plans", plans.getPath());
+                    Node staleCopy = repository.findById(plans.getId()).orElseThrow();
+
+                    Integer rewritten = transaction.execute(status ->
+                        repository.rewriteDescendantPaths("/Projects/", "/Archive/Projects/", 100));
+                    assertEquals(1, rewritten);
+
+                    staleCopy.setDescription("edited by a concurrent request");
+                    assertThrows(ObjectOptimisticLockingFailureException.class, () -> repository.save(staleCopy));
+                    assertEquals("/Archive/Projects/Plans", repository.findPathById(plans.getId()).orElseThrow());
+                });
+        }
+    }
+
+    private Fixture stubMove() {
         UUID currentParentId = UUID.randomUUID();
         UUID targetParentId = UUID.randomUUID();
         UUID movedFolderId = UUID.randomUUID();
-        UUID childFolderId = UUID.randomUUID();
-        UUID childDocumentId = UUID.randomUUID();
 
         Folder currentParent = folder(currentParentId, "Source", "/Sites/Source");
         Folder targetParent = folder(targetParentId, "Target", "/Sites/Target");
         Folder movedFolder = folder(movedFolderId, "Projects", "/Sites/Source/Projects");
         movedFolder.setParent(currentParent);
 
-        Folder childFolder = folder(childFolderId, "Q1", "/Sites/Source/Projects/Q1");
-        childFolder.setParent(movedFolder);
-
-        Document childDocument = document(childDocumentId, "report.pdf", "/Sites/Source/Projects/Q1/report.pdf");
-        childDocument.setParent(childFolder);
-
         when(nodeRepository.findByIdAndDeletedFalseAndArchiveStatus(movedFolderId, Node.ArchiveStatus.LIVE))
             .thenReturn(Optional.of(movedFolder));
         when(folderRepository.findById(targetParentId)).thenReturn(Optional.of(targetParent));
@@ -83,20 +209,14 @@ class NodeServiceMoveConsistencyTest {
         when(securityService.hasPermission(movedFolder, PermissionType.DELETE)).thenReturn(true);
         when(securityService.hasPermission(targetParent, PermissionType.CREATE_CHILDREN)).thenReturn(true);
         when(nodeRepository.findByParentIdAndName(targetParentId, "Projects")).thenReturn(Optional.empty());
-        when(nodeRepository.findByParentIdAndDeletedFalse(movedFolderId)).thenReturn(List.of(childFolder));
-        when(nodeRepository.findByParentIdAndDeletedFalse(childFolderId)).thenReturn(List.of(childDocument));
+        when(nodeRepository.findPathById(movedFolderId)).thenReturn(Optional.of("/Sites/Source/Projects"));
+        when(nodeRepository.findPathById(targetParentId)).thenReturn(Optional.of("/Sites/Target"));
         when(nodeRepository.save(any(Node.class))).thenAnswer(invocation -> invocation.getArgument(0));
         when(securityService.getCurrentUser()).thenReturn("alice");
+        return new Fixture(movedFolderId, targetParentId);
+    }
 
-        Node moved = nodeService.moveNode(movedFolderId, targetParentId);
-
-        assertEquals("/Sites/Target/Projects", moved.getPath());
-        assertEquals("/Sites/Target/Projects/Q1", childFolder.getPath());
-        assertEquals("/Sites/Target/Projects/Q1/report.pdf", childDocument.getPath());
-
-        ArgumentCaptor<NodeMovedEvent> eventCaptor = ArgumentCaptor.forClass(NodeMovedEvent.class);
-        verify(eventPublisher).publishEvent(eventCaptor.capture());
-        assertEquals("/Sites/Target/Projects", eventCaptor.getValue().getNode().getPath());
+    private record Fixture(UUID movedFolderId, UUID targetParentId) {
     }
 
     private Folder folder(UUID id, String name, String path) {
@@ -109,14 +229,30 @@ class NodeServiceMoveConsistencyTest {
         return folder;
     }
 
-    private Document document(UUID id, String name, String path) {
-        Document document = new Document();
-        document.setId(id);
-        document.setName(name);
-        document.setPath(path);
-        document.setMimeType("application/pdf");
-        document.setArchiveStatus(Node.ArchiveStatus.LIVE);
-        document.setStatus(Node.NodeStatus.ACTIVE);
-        return document;
+    private static Folder persistedFolder(String name, Folder parent) {
+        LocalDateTime now = LocalDateTime.now();
+        Folder folder = new Folder();
+        folder.setName(name);
+        folder.setParent(parent);
+        folder.setTypeQName("cm:folder");
+        folder.setCreatedBy("test");
+        folder.setCreatedDate(now);
+        folder.setLastModifiedDate(now);
+        return folder;
+    }
+
+    @SpringBootConfiguration
+    @EnableAutoConfiguration
+    @EnableJpaAuditing
+    @EntityScan(basePackages = {"com.ecm.core.entity", "com.ecm.core.model"})
+    @EnableJpaRepositories(
+        basePackageClasses = NodeRepository.class,
+        includeFilters = @ComponentScan.Filter(type = FilterType.ASSIGNABLE_TYPE, classes = NodeRepository.class)
+    )
+    static class JpaTestConfig {
+        @Bean
+        AuditorAware<String> auditorAware() {
+            return () -> Optional.of("test");
+        }
     }
 }
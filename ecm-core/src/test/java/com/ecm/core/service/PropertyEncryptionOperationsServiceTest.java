@@ -40,6 +40,7 @@ import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
@@ -323,10 +324,10 @@ class PropertyEncryptionOperationsServiceTest {
         when(secretCryptoService.isEncrypted("enc:v1:two")).thenReturn(true);
         when(secretCryptoService.isEncrypted("enc:v2:one")).thenReturn(true);
         when(secretCryptoService.isEncrypted("enc:v2:two")).thenReturn(true);
-        when(secretCryptoService.reveal("enc:v1:one")).thenReturn("\"SEC-1\"");
-        when(secretCryptoService.reveal("enc:v1:two")).thenReturn("\"SEC-2\"");
-        when(secretCryptoService.protect("\"SEC-1\"")).thenReturn("enc:v2:one");
-        when(secretCryptoService.protect("\"SEC-2\"")).thenReturn("enc:v2:two");
+        when(secretCryptoService.revealAll(List.of("enc:v1:one", "enc:v1:two")))
+            .thenReturn(List.of("\"SEC-1\"", "\"SEC-2\""));
+        when(secretCryptoService.protectAll(List.of("\"SEC-1\"", "\"SEC-2\"")))
+            .thenReturn(List.of("enc:v2:one", "enc:v2:two"));
         when(nodeRepository.rewrapEncryptedPropertyIfUnchanged(
             eq(firstNodeId),
             eq("acme:secretCode"),
@@ -365,8 +366,9 @@ class PropertyEncryptionOperationsServiceTest {
         assertEquals(1L, result.skippedValueCount());
         assertEquals(0L, result.failedValueCount());
         assertNull(result.lastError());
-        verify(secretCryptoService).reveal("enc:v1:one");
-        verify(secretCryptoService).protect("\"SEC-1\"");
+        verify(secretCryptoService).revealAll(List.of("enc:v1:one", "enc:v1:two"));
+        verify(secretCryptoService, never()).reveal(anyString());
+        verify(secretCryptoService, never()).protect(anyString());
     }
 
     @Test
@@ -831,8 +833,8 @@ class PropertyEncryptionOperationsServiceTest {
                 candidate(firstNodeId, "acme:secretCode", "\"SEC-1\"", 3L),
                 candidate(secondNodeId, "acme:secretCode", "\"SEC-2\"", 4L)
             ));
-        when(secretCryptoService.protect("\"SEC-1\"")).thenReturn("enc:v1:one");
-        when(secretCryptoService.protect("\"SEC-2\"")).thenReturn("enc:v1:two");
+        when(secretCryptoService.protectAll(List.of("\"SEC-1\"", "\"SEC-2\"")))
+            .thenReturn(List.of("enc:v1:one", "enc:v1:two"));
         when(secretCryptoService.isEncrypted("enc:v1:one")).thenReturn(true);
         when(secretCryptoService.isEncrypted("enc:v1:two")).thenReturn(true);
         when(nodeRepository.backfillEncryptedPropertyIfUnchanged(
@@ -896,6 +898,7 @@ class PropertyEncryptionOperationsServiceTest {
         when(nodeRepository.countBackfillReadyByPropertyKeyAndDeletedFalse("acme:secretCode")).thenReturn(1L);
         when(nodeRepository.findBackfillCandidatesByPropertyKeyAndDeletedFalse("acme:secretCode", 1))
             .thenReturn(List.of(candidate(nodeId, "acme:secretCode", "\"SEC-FAIL\"", 3L)));
+        when(secretCryptoService.protectAll(List.of("\"SEC-FAIL\""))).thenThrow(new IllegalStateException("encrypt failed"));
         when(secretCryptoService.protect("\"SEC-FAIL\"")).thenThrow(new IllegalStateException("encrypt failed"));
 
         PropertyEncryptionOperationsService.PropertyEncryptionBackfillJobDto result =
@@ -6,6 +6,7 @@ import com.ecm.core.search.FacetedSearchService;
 import com.ecm.core.search.FacetedSearchService.FacetedSearchRequest;
 import com.ecm.core.search.FacetedSearchService.FacetedSearchResponse;
 import com.ecm.core.search.SearchResult;
+import com.ecm.core.search.SearchResultExportWriter;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -17,6 +18,7 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 
+import java.io.ByteArrayOutputStream;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Map;
@@ -24,10 +26,13 @@ import java.util.Optional;
 import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -142,4 +147,35 @@ class SavedSearchServiceCsvExportTest {
 
         assertThrows(IllegalArgumentException.class, () -> service.exportSavedSearchCsv(id, null));
     }
+
+    @Test
+    @DisplayName("streamed export reads every hit through the cursor export without highlighting")
+    void streamedExportUsesCursorExport() throws Exception {
+        when(securityService.getCurrentUser()).thenReturn("alice");
+        when(savedSearchRepository.findById(id)).thenReturn(Optional.of(ownedSearch()));
+        SearchResultExportWriter writer = new SearchResultExportWriter(
+            new ByteArrayOutputStream(), SearchResultExportWriter.Format.CSV);
+
+        service.streamSavedSearchExport(id, writer);
+
+        ArgumentCaptor<FacetedSearchRequest> captor = ArgumentCaptor.forClass(FacetedSearchRequest.class);
+        verify(facetedSearchService).exportSearch(captor.capture(), eq(writer));
+        assertEquals("contract", captor.getValue().getQuery());
+        assertFalse(captor.getValue().isHighlightEnabled());
+    }
+
+    @Test
+    @DisplayName("non-owner cannot stream an export or page through results")
+    void nonOwnerRejectedForStreamingAndCursor() throws Exception {
+        SavedSearch foreign = ownedSearch();
+        foreign.setUserId("bob");
+        when(securityService.getCurrentUser()).thenReturn("alice");
+        when(savedSearchRepository.findById(id)).thenReturn(Optional.of(foreign));
+        SearchResultExportWriter writer = new SearchResultExportWriter(
+            new ByteArrayOutputStream(), SearchResultExportWriter.Format.JSONL);
+
+        assertThrows(SecurityException.class, () -> service.streamSavedSearchExport(id, writer));
+        assertThrows(SecurityException.class, () -> service.executeSavedSearchPage(id, null));
+        verifyNoInteractions(facetedSearchService);
+    }
 }
@@ -27,6 +27,7 @@ import java.util.Optional;
 import java.util.Set;
 import java.util.UUID;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.Mockito.when;
@@ -139,6 +140,24 @@ class SecurityServiceAclTest {
         assertTrue(allowed);
     }
 
+    @Test
+    @DisplayName("Denied read authorities span the inheritance chain for the search index")
+    void deniedReadAuthoritiesSpanInheritanceChain() {
+        Document parent = document("parent", "admin");
+        Document child = document("child", "admin");
+        child.setParent(parent);
+        child.setInheritPermissions(true);
+
+        Permission parentDeny = permission(parent, "alice", PermissionType.READ, false);
+        Permission parentWriteDeny = permission(parent, "GROUP_sales", PermissionType.WRITE, false);
+        Permission childAllow = permission(child, "GROUP_finance", PermissionType.READ, true);
+
+        when(permissionRepository.findByNodeId(child.getId())).thenReturn(List.of(childAllow));
+        when(permissionRepository.findByNodeId(parent.getId())).thenReturn(List.of(parentDeny, parentWriteDeny));
+
+        assertEquals(Set.of("alice"), securityService.resolveDeniedReadAuthorities(child));
+    }
+
     private static Document document(String name, String createdBy) {
         Document document = new Document();
         document.setId(UUID.randomUUID());
@@ -0,0 +1,172 @@
+package com.ecm.core.service;
+
+import org.apache.commons.compress.archivers.zip.ZipArchiveEntry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Random;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+import java.util.zip.ZipInputStream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SmartZipArchiveWriterTest {
+
+    private final SmartZipArchiveBuilder builder = new SmartZipArchiveBuilder();
+
+    @TempDir
+    Path tempDir;
+
+    @AfterEach
+    void tearDown() {
+        builder.shutdown();
+    }
+
+    @Test
+    @DisplayName("Sample probe stores random data under a compressible MIME type and deflates text")
+    void probeDecidesStoredOrDeflated() throws Exception {
+        byte[] random = new byte[200_000];
+        new Random(7).nextBytes(random);
+        byte[] text = "invoice;customer;amount\n".repeat(10_000).getBytes(StandardCharsets.UTF_8);
+        ReflectionTestUtils.setField(builder, "memorySpoolBytes", 64 * 1024);
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        SmartZipArchiveWriter.ArchiveStats stats;
+        try (SmartZipArchiveWriter writer = builder.open(bytes)) {
+            writer.addEntry("random.bin", "application/octet-stream", LocalDateTime.of(2026, 5, 4, 10, 30),
+                new ByteArrayInputStream(random), null);
+            writer.addEntry("export.csv", "text/csv", LocalDateTime.of(2026, 5, 4, 10, 30),
+                new ByteArrayInputStream(text), null);
+            stats = writer.finish();
+        }
+
+        assertEquals(1, stats.storedEntries());
+        assertEquals(1, stats.deflatedEntries());
+        try (ZipInputStream zip = new ZipInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+            ZipEntry first = zip.getNextEntry();
+            assertEquals("random.bin", first.getName());
+            assertEquals(ZipEntry.STORED, first.getMethod());
+            assertArrayEquals(random, zip.readAllBytes());
+            ZipEntry second = zip.getNextEntry();
+            assertEquals("export.csv", second.getName());
+            assertEquals(ZipEntry.DEFLATED, second.getMethod());
+            assertArrayEquals(text, zip.readAllBytes());
+            assertEquals(LocalDateTime.of(2026, 5, 4, 10, 30), second.getTimeLocal());
+        }
+    }
+
+    @Test
+    @DisplayName("More than 65535 entries produce a ZIP64 end of central directory")
+    void manyEntriesUseZip64EndRecord() throws Exception {
+        Path archive = tempDir.resolve("many.zip");
+        try (OutputStream out = Files.newOutputStream(archive);
+             SmartZipArchiveWriter writer = builder.open(out)) {
+            for (int i = 0; i < 70_000; i++) {
+                writer.addDirectory("d" + i + "/", null);
+            }
+            writer.addEntry("last.txt", "text/plain", null,
+                new ByteArrayInputStream("done".getBytes(StandardCharsets.UTF_8)), null);
+            writer.finish();
+        }
+
+        try (ZipFile zip = new ZipFile(archive.toFile())) {
+            assertEquals(70_001, zip.size());
+            ZipEntry last = zip.getEntry("last.txt");
+            assertEquals("done", new String(zip.getInputStream(last).readAllBytes(), StandardCharsets.UTF_8));
+            assertTrue(zip.getEntry("d69999/").isDirectory());
+        }
+        try (org.apache.commons.compress.archivers.zip.ZipFile zip =
+                 new org.apache.commons.compress.archivers.zip.ZipFile(archive.toFile())) {
+            assertEquals(70_001, Collections.list(zip.getEntries()).size());
+            ZipArchiveEntry last = zip.getEntry("last.txt");
+            assertEquals("done", new String(zip.getInputStream(last).readAllBytes(), StandardCharsets.UTF_8));
+        }
+    }
+
+    /**
+     * Writes about 8 GiB of temp files (spool plus archive), so it only runs with
+     * {@code -Decm.test.large-zip=true}.
+     */
+    @Test
+    @EnabledIfSystemProperty(named = "ecm.test.large-zip", matches = "true")
+    @DisplayName("An entry over 4 GiB and the entry after it read back through ZIP64 in both readers")
+    void entryOver4GiBUsesZip64() throws Exception {
+        long size = 0x1_0000_0000L + 1024;
+        Path archive = tempDir.resolve("large.zip");
+        try (OutputStream out = Files.newOutputStream(archive);
+             SmartZipArchiveWriter writer = builder.open(out)) {
+            writer.addEntry("large.bin", "application/zip", null, zeros(size), null);
+            writer.addEntry("after.txt", "text/plain", null,
+                new ByteArrayInputStream("after".getBytes(StandardCharsets.UTF_8)), null);
+            writer.finish();
+        }
+
+        try (ZipFile zip = new ZipFile(archive.toFile())) {
+            assertEquals(size, zip.getEntry("large.bin").getSize());
+            assertEquals("after", new String(zip.getInputStream(zip.getEntry("after.txt")).readAllBytes(),
+                StandardCharsets.UTF_8));
+        }
+        try (org.apache.commons.compress.archivers.zip.ZipFile zip =
+                 new org.apache.commons.compress.archivers.zip.ZipFile(archive.toFile())) {
+            assertEquals(size, zip.getEntry("large.bin").getSize());
+            assertEquals("after", new String(zip.getInputStream(zip.getEntry("after.txt")).readAllBytes(),
+                StandardCharsets.UTF_8));
+        }
+    }
+
+    @Test
+    @DisplayName("Known container formats are never deflated")
+    void containerMimeTypesAreIncompressible() {
+        assertTrue(builder.isIncompressible("application/pdf"));
+        assertTrue(builder.isIncompressible("video/mp4"));
+        assertTrue(builder.isIncompressible("application/vnd.openxmlformats-officedocument.wordprocessingml.document"));
+        assertTrue(builder.isIncompressible("IMAGE/JPEG; charset=binary"));
+        assertFalse(builder.isIncompressible("audio/wav"));
+        assertFalse(builder.isIncompressible("text/plain"));
+        assertFalse(builder.isIncompressible(null));
+    }
+
+    private static InputStream zeros(long size) {
+        return new InputStream() {
+            private long remaining = size;
+
+            @Override
+            public int read() {
+                if (remaining == 0) {
+                    return -1;
+                }
+                remaining--;
+                return 0;
+            }
+
+            @Override
+            public int read(byte[] buffer, int off, int len) {
+                if (remaining == 0) {
+                    return -1;
+                }
+                int n = (int) Math.min(len, remaining);
+                Arrays.fill(buffer, off, off + n, (byte) 0);
+                remaining -= n;
+                return n;
+            }
+        };
+    }
+}
@@ -0,0 +1,76 @@
+package com.ecm.core.service;
+
+import com.ecm.core.entity.Folder;
+import com.ecm.core.repository.NodeRepository;
+import com.ecm.core.search.SearchIndexService;
+import com.ecm.core.service.SubtreeRepathTaskRegistry.SubtreeRepathStatus;
+import com.ecm.core.service.SubtreeRepathTaskRegistry.SubtreeRepathTask;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.UUID;
+import java.util.function.LongConsumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class SubtreeRepathTaskRegistryTest {
+
+    @Mock private NodeRepository nodeRepository;
+    @Mock private SearchIndexService searchIndexService;
+
+    private SubtreeRepathTaskRegistry registry;
+    private Folder folder;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SubtreeRepathTaskRegistry(nodeRepository, searchIndexService);
+        folder = new Folder();
+        folder.setId(UUID.randomUUID());
+        folder.setName("Projects");
+        folder.setPath("/Sites/Target/Projects");
+    }
+
+    @Test
+    @DisplayName("run reindexes the subtree and records progress and completion")
+    void runCompletesTask() {
+        SubtreeRepathTask task = registry.register(folder, 3L, "alice");
+        when(searchIndexService.reindexNodeSubtree(eq(folder), any(LongConsumer.class))).thenAnswer(invocation -> {
+            LongConsumer progress = invocation.getArgument(1);
+            progress.accept(2L);
+            assertEquals(2L, registry.get(task.taskId()).indexedCount());
+            assertEquals(SubtreeRepathStatus.RUNNING, registry.get(task.taskId()).status());
+            progress.accept(3L);
+            return 3L;
+        });
+
+        SubtreeRepathTask finished = registry.run(task.taskId(), folder);
+
+        assertEquals(SubtreeRepathStatus.COMPLETED, finished.status());
+        assertEquals(3L, finished.indexedCount());
+        assertEquals(3L, finished.descendantCount());
+        assertNotNull(finished.finishedAt());
+    }
+
+    @Test
+    @DisplayName("a failing bulk reindex marks the task failed")
+    void runFailureMarksTaskFailed() {
+        SubtreeRepathTask task = registry.register(folder, 10L, "alice");
+        when(searchIndexService.reindexNodeSubtree(eq(folder), any(LongConsumer.class)))
+            .thenThrow(new IllegalStateException("bulk rejected"));
+
+        SubtreeRepathTask failed = registry.run(task.taskId(), folder);
+
+        assertEquals(SubtreeRepathStatus.FAILED, failed.status());
+        assertEquals("bulk rejected", failed.error());
+        assertEquals(SubtreeRepathStatus.FAILED, registry.get(task.taskId()).status());
+    }
+}
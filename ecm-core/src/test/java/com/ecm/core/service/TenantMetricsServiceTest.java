@@ -42,7 +42,7 @@ class TenantMetricsServiceTest {
         Tenant tenant = tenant("acme", "Acme Corp", true, 10_000_000L, rootId);
         when(tenantRepository.findByTenantDomainIgnoreCaseAndDeletedFalse("acme"))
             .thenReturn(Optional.of(tenant));
-        when(tenantQuotaService.calculateUsedBytes(tenant)).thenReturn(3_500_000L);
+        when(tenantQuotaService.usedBytes(tenant)).thenReturn(3_500_000L);
         when(nodeRepository.findById(rootId)).thenReturn(Optional.of(folderWithPath(rootId, "/acme workspace")));
         when(nodeRepository.countByDeletedFalseAndPathLike("/acme workspace/%")).thenReturn(20L);
         when(documentRepository.countByDeletedFalseAndPathLike("/acme workspace/%")).thenReturn(15L);
@@ -63,7 +63,7 @@ class TenantMetricsServiceTest {
         Tenant tenant = tenant("acme", "Acme Corp", true, null, rootId);
         when(tenantRepository.findByTenantDomainIgnoreCaseAndDeletedFalse("acme"))
             .thenReturn(Optional.of(tenant));
-        when(tenantQuotaService.calculateUsedBytes(tenant)).thenReturn(1_000L);
+        when(tenantQuotaService.usedBytes(tenant)).thenReturn(1_000L);
         when(nodeRepository.findById(rootId)).thenReturn(Optional.of(folderWithPath(rootId, "/acme workspace")));
         when(nodeRepository.countByDeletedFalseAndPathLike("/acme workspace/%")).thenReturn(25L);
         when(documentRepository.countByDeletedFalseAndPathLike("/acme workspace/%")).thenReturn(18L);
@@ -82,7 +82,7 @@ class TenantMetricsServiceTest {
         Tenant tenant = tenant("acme", "Acme Corp", true, 10_000_000L, rootId);
         when(tenantRepository.findByTenantDomainIgnoreCaseAndDeletedFalse("acme"))
             .thenReturn(Optional.of(tenant));
-        when(tenantQuotaService.calculateUsedBytes(tenant)).thenReturn(3_000_000L);
+        when(tenantQuotaService.usedBytes(tenant)).thenReturn(3_000_000L);
         when(nodeRepository.findById(rootId)).thenReturn(Optional.of(folderWithPath(rootId, "/acme workspace")));
         when(nodeRepository.countByDeletedFalseAndPathLike("/acme workspace/%")).thenReturn(0L);
         when(documentRepository.countByDeletedFalseAndPathLike("/acme workspace/%")).thenReturn(0L);
@@ -100,7 +100,7 @@ class TenantMetricsServiceTest {
         Tenant tenant = tenant("acme", "Acme Corp", true, 1_000L, rootId);
         when(tenantRepository.findByTenantDomainIgnoreCaseAndDeletedFalse("acme"))
             .thenReturn(Optional.of(tenant));
-        when(tenantQuotaService.calculateUsedBytes(tenant)).thenReturn(1_500L);
+        when(tenantQuotaService.usedBytes(tenant)).thenReturn(1_500L);
         when(nodeRepository.findById(rootId)).thenReturn(Optional.of(folderWithPath(rootId, "/acme workspace")));
         when(nodeRepository.countByDeletedFalseAndPathLike("/acme workspace/%")).thenReturn(0L);
         when(documentRepository.countByDeletedFalseAndPathLike("/acme workspace/%")).thenReturn(0L);
@@ -117,7 +117,7 @@ class TenantMetricsServiceTest {
         Tenant tenant = tenant("acme", "Acme Corp", true, null, rootId);
         when(tenantRepository.findByTenantDomainIgnoreCaseAndDeletedFalse("acme"))
             .thenReturn(Optional.of(tenant));
-        when(tenantQuotaService.calculateUsedBytes(tenant)).thenReturn(5_000L);
+        when(tenantQuotaService.usedBytes(tenant)).thenReturn(5_000L);
         when(nodeRepository.findById(rootId)).thenReturn(Optional.of(folderWithPath(rootId, "/acme workspace")));
         when(nodeRepository.countByDeletedFalseAndPathLike("/acme workspace/%")).thenReturn(0L);
         when(documentRepository.countByDeletedFalseAndPathLike("/acme workspace/%")).thenReturn(0L);
@@ -148,7 +148,7 @@ class TenantMetricsServiceTest {
         Tenant tenant = tenant("acme", "Acme Corp", true, 5_000L, null);
         when(tenantRepository.findByTenantDomainIgnoreCaseAndDeletedFalse("acme"))
             .thenReturn(Optional.of(tenant));
-        when(tenantQuotaService.calculateUsedBytes(tenant)).thenReturn(0L);
+        when(tenantQuotaService.usedBytes(tenant)).thenReturn(0L);
 
         TenantMetricsService.TenantMetrics metrics = service.getMetrics("acme");
 
@@ -14,7 +14,9 @@ import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
+import org.mockito.Mockito;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
 
 import java.util.Optional;
 import java.util.UUID;
@@ -142,6 +144,39 @@ class TenantQuotaServiceTest {
         assertEquals(8_000_000L, ex.getUsedBytes());
     }
 
+    @Test
+    @DisplayName("quota checks read the usage ledger instead of recounting the workspace")
+    void quotaCheckUsesUsageLedger() {
+        TenantContext.setCurrentTenantDomain("acme");
+        TenantUsageLedgerService ledger = Mockito.mock(TenantUsageLedgerService.class);
+        ReflectionTestUtils.setField(service, "tenantUsageLedgerService", ledger);
+        Tenant tenant = tenant("acme", 10_000_000L);
+        tenant.setRootNodeId(UUID.randomUUID());
+        when(tenantRepository.findByTenantDomainIgnoreCaseAndDeletedFalse("acme"))
+            .thenReturn(Optional.of(tenant));
+        when(ledger.usedBytes(tenant)).thenReturn(9_000_000L);
+
+        assertTrue(service.hasAvailableQuota(1_000_000));
+        assertFalse(service.hasAvailableQuota(1_000_001));
+        Mockito.verifyNoInteractions(documentRepository, versionRepository);
+    }
+
+    @Test
+    @DisplayName("usedBytes falls back to a recount when the ledger cannot be read")
+    void usedBytesFallsBackToRecount() {
+        TenantUsageLedgerService ledger = Mockito.mock(TenantUsageLedgerService.class);
+        ReflectionTestUtils.setField(service, "tenantUsageLedgerService", ledger);
+        UUID rootId = UUID.randomUUID();
+        Tenant tenant = tenant("acme", 10_000_000L);
+        tenant.setRootNodeId(rootId);
+        when(ledger.usedBytes(tenant)).thenThrow(new IllegalStateException("ledger offline"));
+        when(nodeRepository.findById(rootId)).thenReturn(Optional.of(folderWithPath(rootId, "/acme workspace")));
+        when(documentRepository.sumFileSizeByPathPrefix("/acme workspace/%")).thenReturn(4_000L);
+        when(versionRepository.sumNonCurrentVersionFileSizeByPathPrefix("/acme workspace/%")).thenReturn(1_000L);
+
+        assertEquals(5_000L, service.usedBytes(tenant));
+    }
+
     private Tenant tenant(String domain, Long quotaBytes) {
         Tenant tenant = new Tenant();
         tenant.setTenantDomain(domain);
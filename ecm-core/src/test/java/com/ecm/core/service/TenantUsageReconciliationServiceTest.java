@@ -0,0 +1,157 @@
+package com.ecm.core.service;
+
+import com.ecm.core.entity.Tenant;
+import com.ecm.core.entity.TenantUsage;
+import com.ecm.core.repository.TenantRepository;
+import com.ecm.core.repository.TenantUsageDeltaRepository;
+import com.ecm.core.repository.TenantUsageRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class TenantUsageReconciliationServiceTest {
+
+    @Mock private TenantRepository tenantRepository;
+    @Mock private TenantUsageRepository tenantUsageRepository;
+    @Mock private TenantUsageDeltaRepository tenantUsageDeltaRepository;
+    @Mock private TenantQuotaService tenantQuotaService;
+    @Mock private PlatformTransactionManager transactionManager;
+
+    private SimpleMeterRegistry meterRegistry;
+    private TenantUsageReconciliationService service;
+    private Tenant tenant;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        service = new TenantUsageReconciliationService(tenantRepository, tenantUsageRepository,
+            tenantUsageDeltaRepository, tenantQuotaService, transactionManager, meterRegistry);
+        tenant = new Tenant();
+        tenant.setId(UUID.randomUUID());
+        tenant.setTenantDomain("acme");
+        tenant.setRootNodeId(UUID.randomUUID());
+    }
+
+    @Test
+    @DisplayName("First reconciliation initializes the ledger row from a recount in a repeatable-read transaction")
+    void missingLedgerRowIsInitialized() {
+        when(tenantQuotaService.calculateUsedBytes(tenant)).thenReturn(8_000L);
+        when(tenantUsageRepository.findById(tenant.getId())).thenReturn(Optional.empty());
+        when(tenantUsageRepository.insertIfAbsent(eq(tenant.getId()), eq(8_000L), any())).thenReturn(1);
+
+        TenantUsageReconciliationService.ReconciliationReport report = service.reconcile(tenant, true);
+
+        assertNull(report.ledgerBytes());
+        assertEquals(8_000L, report.actualBytes());
+        assertEquals(0L, report.driftBytes());
+        Mockito.verify(tenantUsageDeltaRepository).drainDeltaBytes(tenant.getId());
+        Mockito.verify(tenantUsageRepository, Mockito.never()).save(any(TenantUsage.class));
+
+        ArgumentCaptor<TransactionDefinition> definition = ArgumentCaptor.forClass(TransactionDefinition.class);
+        Mockito.verify(transactionManager).getTransaction(definition.capture());
+        assertEquals(TransactionDefinition.ISOLATION_REPEATABLE_READ, definition.getValue().getIsolationLevel());
+        assertEquals(TransactionDefinition.PROPAGATION_REQUIRES_NEW, definition.getValue().getPropagationBehavior());
+    }
+
+    @Test
+    @DisplayName("Losing the race to initialize the ledger row retries against the row the winner wrote")
+    void concurrentInitializationRetriesAgainstExistingRow() {
+        TenantUsage usage = usage(8_000L);
+        when(tenantQuotaService.calculateUsedBytes(tenant)).thenReturn(8_000L);
+        when(tenantUsageRepository.findById(tenant.getId()))
+            .thenReturn(Optional.empty())
+            .thenReturn(Optional.empty())
+            .thenReturn(Optional.of(usage));
+        when(tenantUsageRepository.insertIfAbsent(eq(tenant.getId()), eq(8_000L), any())).thenReturn(0);
+
+        TenantUsageReconciliationService.ReconciliationReport report = service.reconcile(tenant, true);
+
+        assertEquals(8_000L, report.ledgerBytes());
+        assertEquals(0L, report.driftBytes());
+        Mockito.verify(tenantUsageRepository, Mockito.times(1)).insertIfAbsent(eq(tenant.getId()), eq(8_000L), any());
+        Mockito.verify(tenantUsageRepository).save(usage);
+        Mockito.verify(transactionManager, Mockito.times(2)).getTransaction(any());
+    }
+
+    @Test
+    @DisplayName("Drift between ledger and recount is reported and corrected")
+    void driftIsReportedAndCorrected() {
+        TenantUsage usage = usage(5_000L);
+        when(tenantQuotaService.calculateUsedBytes(tenant)).thenReturn(7_500L);
+        when(tenantUsageRepository.findById(tenant.getId())).thenReturn(Optional.of(usage));
+        when(tenantUsageDeltaRepository.drainDeltaBytes(tenant.getId())).thenReturn(2_000L);
+
+        TenantUsageReconciliationService.ReconciliationReport report = service.reconcile(tenant, true);
+
+        assertEquals(7_000L, report.ledgerBytes());
+        assertEquals(500L, report.driftBytes());
+        assertTrue(report.corrected());
+        assertEquals(7_500L, usage.getUsedBytes());
+        assertEquals(500L, usage.getLastDriftBytes());
+        assertEquals(500.0, meterRegistry.get("tenant_usage_reconcile_drift_bytes").summary().totalAmount());
+    }
+
+    @Test
+    @DisplayName("Report-only reconciliation leaves counter and pending deltas untouched")
+    void reportOnlyKeepsLedger() {
+        TenantUsage usage = usage(5_000L);
+        when(tenantQuotaService.calculateUsedBytes(tenant)).thenReturn(4_000L);
+        when(tenantUsageRepository.findById(tenant.getId())).thenReturn(Optional.of(usage));
+        when(tenantUsageDeltaRepository.sumDeltaBytesByTenantId(tenant.getId())).thenReturn(-500L);
+
+        TenantUsageReconciliationService.ReconciliationReport report = service.reconcile(tenant, false);
+
+        assertEquals(4_500L, report.ledgerBytes());
+        assertEquals(-500L, report.driftBytes());
+        assertEquals(5_000L, usage.getUsedBytes());
+        Mockito.verify(tenantUsageDeltaRepository, Mockito.never()).drainDeltaBytes(any());
+    }
+
+    @Test
+    @DisplayName("Scheduled reconciliation skips tenants without a workspace and survives failures")
+    void reconcileAllSkipsRootlessAndContinuesAfterFailure() {
+        Tenant rootless = new Tenant();
+        rootless.setId(UUID.randomUUID());
+        rootless.setTenantDomain("default");
+        Tenant broken = new Tenant();
+        broken.setId(UUID.randomUUID());
+        broken.setTenantDomain("broken");
+        broken.setRootNodeId(UUID.randomUUID());
+        when(tenantRepository.findByDeletedFalseOrderByTenantDomainAsc()).thenReturn(List.of(tenant, broken, rootless));
+        when(tenantQuotaService.calculateUsedBytes(tenant)).thenReturn(100L);
+        when(tenantQuotaService.calculateUsedBytes(broken)).thenThrow(new IllegalStateException("scan failed"));
+        when(tenantUsageRepository.findById(tenant.getId())).thenReturn(Optional.of(usage(100L)));
+
+        service.reconcileAll();
+
+        Mockito.verify(tenantQuotaService, Mockito.never()).calculateUsedBytes(rootless);
+        Mockito.verify(tenantUsageRepository).save(any(TenantUsage.class));
+    }
+
+    private TenantUsage usage(long usedBytes) {
+        TenantUsage usage = new TenantUsage();
+        usage.setTenantId(tenant.getId());
+        usage.setUsedBytes(usedBytes);
+        return usage;
+    }
+}
@@ -0,0 +1,155 @@
+package com.ecm.core.service;
+
+import com.ecm.core.config.TenantContext;
+import com.ecm.core.metrics.EcmMetrics;
+import com.ecm.core.service.TextExtractionService.ExtractionResult;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.tika.exception.TikaException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TextExtractionServiceTest {
+
+    private TextExtractionService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new TextExtractionService();
+    }
+
+    @AfterEach
+    void tearDown() {
+        service.shutdown();
+    }
+
+    @Test
+    @DisplayName("Extracts text and metadata on a worker")
+    void extractsTextAndMetadata() throws Exception {
+        service.start();
+        String html = "<html><head><title>Quarterly</title></head><body>Revenue grew</body></html>";
+
+        ExtractionResult result = service.extract(null, "report.html", () -> stream(html));
+
+        assertTrue(result.text().contains("Revenue grew"));
+        assertEquals("Quarterly", result.get("dc:title"));
+        assertFalse(result.truncated());
+    }
+
+    @Test
+    @DisplayName("Content with a known hash is parsed once")
+    void cachesByContentHash() throws Exception {
+        service.start();
+        AtomicInteger opened = new AtomicInteger();
+
+        ExtractionResult first = service.extract("abc123", "a.txt", () -> {
+            opened.incrementAndGet();
+            return stream("shared content");
+        });
+        ExtractionResult second = service.extract("abc123", "b.txt", () -> {
+            opened.incrementAndGet();
+            return stream("shared content");
+        });
+        service.extract(null, "c.txt", () -> {
+            opened.incrementAndGet();
+            return stream("shared content");
+        });
+
+        assertSame(first, second);
+        assertEquals(2, opened.get());
+    }
+
+    @Test
+    @DisplayName("Text beyond the limit is truncated instead of failing")
+    void truncatesAtTextLimit() throws Exception {
+        ReflectionTestUtils.setField(service, "maxTextLength", 100);
+        service.start();
+
+        ExtractionResult result = service.extract(null, "long.txt", () -> stream("word ".repeat(1000)));
+
+        assertTrue(result.truncated());
+        assertTrue(result.text().length() <= 100);
+    }
+
+    @Test
+    @DisplayName("Content over the input limit is rejected instead of parsed from a prefix")
+    void rejectsContentOverInputLimit() throws Exception {
+        ReflectionTestUtils.setField(service, "maxInputBytes", 1024L);
+        service.start();
+
+        TikaException tooLarge = assertThrows(TikaException.class,
+            () -> service.extract(null, "big.txt", () -> stream("word ".repeat(1000))));
+
+        assertTrue(tooLarge.getMessage().contains("1024 byte extraction limit"));
+        assertTrue(service.extract(null, "small.txt", () -> stream("fits")).text().contains("fits"));
+    }
+
+    @Test
+    @DisplayName("Parse time is recorded per MIME family under the caller's tenant")
+    void recordsDurationPerMimeFamilyAndTenant() throws Exception {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        ReflectionTestUtils.setField(service, "metrics", new EcmMetrics(registry));
+        service.start();
+        TenantContext.setCurrentTenantDomain("acme");
+        try {
+            service.extract(null, "note.txt", () -> stream("plain text"));
+        } finally {
+            TenantContext.clear();
+        }
+
+        Timer timer = registry.find("tika_extraction_duration")
+            .tags("mime_family", "text", "outcome", "success", "tenant", "acme")
+            .timer();
+        assertNotNull(timer);
+        assertEquals(1, timer.count());
+    }
+
+    @Test
+    @DisplayName("A parse that overruns the timeout fails and frees its slot")
+    void timesOutStuckParse() throws Exception {
+        ReflectionTestUtils.setField(service, "workers", 1);
+        ReflectionTestUtils.setField(service, "timeoutMs", 200L);
+        ReflectionTestUtils.setField(service, "queueWaitMs", 1000L);
+        service.start();
+        CountDownLatch released = new CountDownLatch(1);
+
+        TikaException timeout = assertThrows(TikaException.class,
+            () -> service.extract(null, "stuck.txt", () -> new InputStream() {
+                @Override
+                public int read() {
+                    try {
+                        released.await(10, TimeUnit.SECONDS);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    return -1;
+                }
+            }));
+        assertTrue(timeout.getMessage().contains("timed out"));
+
+        ExtractionResult next = service.extract(null, "next.txt", () -> stream("still working"));
+        assertTrue(next.text().contains("still working"));
+        released.countDown();
+    }
+
+    private static InputStream stream(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+}
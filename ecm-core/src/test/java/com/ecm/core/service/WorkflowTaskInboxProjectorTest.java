@@ -0,0 +1,211 @@
+package com.ecm.core.service;
+
+import com.ecm.core.entity.WorkflowTaskInboxEntry;
+import com.ecm.core.entity.WorkflowTaskInboxLink;
+import com.ecm.core.repository.WorkflowTaskInboxEntryRepository;
+import com.ecm.core.repository.WorkflowTaskInboxLinkRepository;
+import org.flowable.engine.HistoryService;
+import org.flowable.engine.RepositoryService;
+import org.flowable.engine.RuntimeService;
+import org.flowable.engine.TaskService;
+import org.flowable.engine.history.HistoricProcessInstance;
+import org.flowable.engine.history.HistoricProcessInstanceQuery;
+import org.flowable.engine.repository.ProcessDefinition;
+import org.flowable.engine.repository.ProcessDefinitionQuery;
+import org.flowable.identitylink.api.IdentityLink;
+import org.flowable.task.api.Task;
+import org.flowable.task.api.TaskQuery;
+import org.flowable.task.api.history.HistoricTaskInstanceQuery;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class WorkflowTaskInboxProjectorTest {
+
+    @Mock private TaskService taskService;
+    @Mock private HistoryService historyService;
+    @Mock private RuntimeService runtimeService;
+    @Mock private RepositoryService repositoryService;
+    @Mock private WorkflowTaskInboxEntryRepository entryRepository;
+    @Mock private WorkflowTaskInboxLinkRepository linkRepository;
+    @Mock private WorkflowTaskInboxNotifier notifier;
+
+    private WorkflowTaskInboxProjector projector;
+
+    @BeforeEach
+    void setUp() {
+        projector = new WorkflowTaskInboxProjector(
+            taskService, historyService, runtimeService, repositoryService, entryRepository, linkRepository);
+        ReflectionTestUtils.setField(projector, "notifier", notifier);
+    }
+
+    @Test
+    @DisplayName("refresh projects an active task with candidate links and business nodes")
+    @SuppressWarnings("unchecked")
+    void refreshProjectsActiveTask() {
+        UUID documentId = UUID.randomUUID();
+        Task task = mock(Task.class);
+        when(task.getId()).thenReturn("task-1");
+        when(task.getName()).thenReturn("Review");
+        when(task.getProcessInstanceId()).thenReturn("pi-1");
+        when(task.getProcessDefinitionId()).thenReturn("def-1");
+        when(task.getCreateTime()).thenReturn(new Date());
+        stubTaskQuery(task);
+        stubDefinition();
+        stubProcess(documentId.toString());
+
+        IdentityLink group = mock(IdentityLink.class);
+        when(group.getType()).thenReturn("candidate");
+        when(group.getGroupId()).thenReturn("reviewers");
+        when(taskService.getIdentityLinksForTask("task-1")).thenReturn(List.of(group));
+        when(runtimeService.getVariables("pi-1")).thenReturn(Map.of("documentId", documentId.toString()));
+        when(entryRepository.findById("task-1")).thenReturn(Optional.empty());
+
+        projector.refresh("task-1");
+
+        ArgumentCaptor<WorkflowTaskInboxEntry> entry = ArgumentCaptor.forClass(WorkflowTaskInboxEntry.class);
+        verify(entryRepository).save(entry.capture());
+        assertEquals(WorkflowTaskInboxEntry.State.ACTIVE, entry.getValue().getState());
+        assertEquals("documentApproval", entry.getValue().getProcessDefinitionKey());
+        assertEquals(documentId.toString(), entry.getValue().getBusinessKey());
+        assertEquals("alice", entry.getValue().getStartedBy());
+
+        ArgumentCaptor<List<WorkflowTaskInboxLink>> links = ArgumentCaptor.forClass(List.class);
+        verify(linkRepository).deleteByTaskId("task-1");
+        verify(linkRepository).saveAll(links.capture());
+        assertEquals(2, links.getValue().size());
+        assertEquals(WorkflowTaskInboxLink.LinkType.CANDIDATE, links.getValue().get(0).getLinkType());
+        assertEquals(documentId, links.getValue().get(1).getNodeId());
+
+        ArgumentCaptor<WorkflowTaskInboxProjector.Audience> audience =
+            ArgumentCaptor.forClass(WorkflowTaskInboxProjector.Audience.class);
+        verify(notifier).publish(audience.capture());
+        assertTrue(audience.getValue().shared());
+        assertEquals(Set.of("reviewers"), audience.getValue().groups());
+    }
+
+    @Test
+    @DisplayName("refresh drops the projection when the task vanished without history")
+    void refreshDeletesVanishedTask() {
+        WorkflowTaskInboxEntry existing = new WorkflowTaskInboxEntry();
+        existing.setTaskId("task-2");
+        existing.setAssignee("bob");
+        existing.setState(WorkflowTaskInboxEntry.State.ACTIVE);
+        when(entryRepository.findById("task-2")).thenReturn(Optional.of(existing));
+        when(linkRepository.findByTaskId("task-2")).thenReturn(List.of());
+        stubTaskQuery(null);
+        HistoricTaskInstanceQuery historicQuery = mock(HistoricTaskInstanceQuery.class);
+        when(historyService.createHistoricTaskInstanceQuery()).thenReturn(historicQuery);
+        when(historicQuery.taskId("task-2")).thenReturn(historicQuery);
+        when(historicQuery.singleResult()).thenReturn(null);
+
+        projector.refresh("task-2");
+
+        verify(linkRepository).deleteByTaskId("task-2");
+        verify(entryRepository).deleteById("task-2");
+        ArgumentCaptor<WorkflowTaskInboxProjector.Audience> audience =
+            ArgumentCaptor.forClass(WorkflowTaskInboxProjector.Audience.class);
+        verify(notifier).publish(audience.capture());
+        assertEquals("DELETED", audience.getValue().state());
+        assertTrue(audience.getValue().users().contains("bob"));
+    }
+
+    @Test
+    @DisplayName("findDriftedTaskIds reports missing, changed and no longer active rows")
+    void findsDriftedTasks() {
+        Task unchanged = activeTask("task-1", "alice");
+        Task reassigned = activeTask("task-2", "carol");
+        Task missing = mock(Task.class);
+        when(missing.getId()).thenReturn("task-3");
+        TaskQuery taskQuery = mock(TaskQuery.class);
+        when(taskService.createTaskQuery()).thenReturn(taskQuery);
+        when(taskQuery.orderByTaskId()).thenReturn(taskQuery);
+        when(taskQuery.asc()).thenReturn(taskQuery);
+        when(taskQuery.listPage(0, 500)).thenReturn(List.of(unchanged, reassigned, missing));
+        when(entryRepository.findAllById(List.of("task-1", "task-2", "task-3")))
+            .thenReturn(List.of(activeRow("task-1", "alice"), activeRow("task-2", "bob")));
+        when(entryRepository.findTaskIdsByState(WorkflowTaskInboxEntry.State.ACTIVE))
+            .thenReturn(List.of("task-1", "task-2", "task-9"));
+
+        Set<String> drifted = projector.findDriftedTaskIds();
+
+        assertEquals(Set.of("task-2", "task-3", "task-9"), drifted);
+    }
+
+    @Test
+    @DisplayName("business node ids come from the business key and item variables")
+    void resolvesBusinessNodeIds() {
+        UUID first = UUID.randomUUID();
+        UUID second = UUID.randomUUID();
+
+        Set<UUID> nodeIds = WorkflowTaskInboxProjector.resolveBusinessNodeIds(
+            "not-a-node",
+            Map.of("nodeId", first.toString(), "attachedItemIds", List.of(first.toString(), second.toString()))
+        );
+
+        assertEquals(Set.of(first, second), nodeIds);
+    }
+
+    private static Task activeTask(String id, String assignee) {
+        Task task = mock(Task.class);
+        when(task.getId()).thenReturn(id);
+        when(task.getName()).thenReturn("Review");
+        when(task.getAssignee()).thenReturn(assignee);
+        return task;
+    }
+
+    private static WorkflowTaskInboxEntry activeRow(String taskId, String assignee) {
+        WorkflowTaskInboxEntry row = new WorkflowTaskInboxEntry();
+        row.setTaskId(taskId);
+        row.setName("Review");
+        row.setAssignee(assignee);
+        row.setState(WorkflowTaskInboxEntry.State.ACTIVE);
+        return row;
+    }
+
+    private void stubTaskQuery(Task result) {
+        TaskQuery taskQuery = mock(TaskQuery.class);
+        when(taskService.createTaskQuery()).thenReturn(taskQuery);
+        when(taskQuery.taskId(any())).thenReturn(taskQuery);
+        when(taskQuery.singleResult()).thenReturn(result);
+    }
+
+    private void stubDefinition() {
+        ProcessDefinition definition = mock(ProcessDefinition.class);
+        when(definition.getKey()).thenReturn("documentApproval");
+        ProcessDefinitionQuery definitionQuery = mock(ProcessDefinitionQuery.class);
+        when(repositoryService.createProcessDefinitionQuery()).thenReturn(definitionQuery);
+        when(definitionQuery.processDefinitionId("def-1")).thenReturn(definitionQuery);
+        when(definitionQuery.singleResult()).thenReturn(definition);
+    }
+
+    private void stubProcess(String businessKey) {
+        HistoricProcessInstance process = mock(HistoricProcessInstance.class);
+        when(process.getBusinessKey()).thenReturn(businessKey);
+        when(process.getStartUserId()).thenReturn("alice");
+        HistoricProcessInstanceQuery processQuery = mock(HistoricProcessInstanceQuery.class);
+        when(historyService.createHistoricProcessInstanceQuery()).thenReturn(processQuery);
+        when(processQuery.processInstanceId("pi-1")).thenReturn(processQuery);
+        when(processQuery.singleResult()).thenReturn(process);
+    }
+}
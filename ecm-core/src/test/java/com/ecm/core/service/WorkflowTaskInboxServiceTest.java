@@ -0,0 +1,112 @@
+package com.ecm.core.service;
+
+import com.ecm.core.entity.WorkflowTaskInboxEntry;
+import com.ecm.core.repository.UserRepository;
+import com.ecm.core.repository.WorkflowTaskInboxEntryRepository;
+import com.ecm.core.repository.WorkflowTaskInboxLinkRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class WorkflowTaskInboxServiceTest {
+
+    @Mock private WorkflowTaskInboxEntryRepository entryRepository;
+    @Mock private WorkflowTaskInboxLinkRepository linkRepository;
+    @Mock private UserRepository userRepository;
+    @Mock private SecurityService securityService;
+    @Mock private TenantWorkspaceScopeService tenantWorkspaceScopeService;
+    @Mock private WorkflowTaskInboxNotifier notifier;
+
+    private WorkflowTaskInboxService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new WorkflowTaskInboxService(
+            entryRepository, linkRepository, userRepository, securityService, tenantWorkspaceScopeService, notifier);
+    }
+
+    @Test
+    @DisplayName("listTasks reads another user's inbox for a non-admin assignee override, as the Flowable path does")
+    @SuppressWarnings("unchecked")
+    void listTasksHonoursAssigneeOverrideForNonAdmins() {
+        when(userRepository.findByUsername("bob")).thenReturn(Optional.empty());
+        when(entryRepository.findAll(any(Specification.class), any(Pageable.class))).thenReturn(new PageImpl<>(List.of()));
+
+        WorkflowTaskInboxService.InboxPage page = service.listTasks(filter("ASSIGNED", "bob", null), null, 50);
+
+        assertTrue(page.items().isEmpty());
+        verify(userRepository).findByUsername("bob");
+        verify(securityService, never()).isAdmin(any());
+        verify(securityService, never()).getCurrentUser();
+    }
+
+    @Test
+    @DisplayName("listTasks rejects candidate filters outside claimable and shared scopes")
+    void listTasksRejectsCandidateFilterForAssignedScope() {
+        when(securityService.getCurrentUser()).thenReturn("alice");
+
+        assertThrows(IllegalArgumentException.class,
+            () -> service.listTasks(filter("ASSIGNED", null, "reviewers"), null, 50));
+        verifyNoInteractions(entryRepository);
+    }
+
+    @Test
+    @DisplayName("listTasks returns at most one bounded page and a cursor for the rest")
+    @SuppressWarnings("unchecked")
+    void listTasksReturnsBoundedPageWithCursor() {
+        when(securityService.getCurrentUser()).thenReturn("alice");
+        when(userRepository.findByUsername("alice")).thenReturn(Optional.empty());
+        LocalDateTime now = LocalDateTime.of(2026, 1, 1, 12, 0);
+        List<WorkflowTaskInboxEntry> rows = IntStream.range(0, 201)
+            .mapToObj(i -> entry("task-" + i, now.minusMinutes(i)))
+            .toList();
+        when(entryRepository.findAll(any(Specification.class), any(Pageable.class))).thenReturn(new PageImpl<>(rows));
+        when(linkRepository.findByTaskIdIn(anyList())).thenReturn(List.of());
+
+        WorkflowTaskInboxService.InboxPage page = service.listTasks(filter("ASSIGNED", null, null), null, 10_000);
+
+        ArgumentCaptor<Pageable> pageable = ArgumentCaptor.forClass(Pageable.class);
+        verify(entryRepository).findAll(any(Specification.class), pageable.capture());
+        assertEquals(201, pageable.getValue().getPageSize());
+        assertEquals(200, page.items().size());
+        assertTrue(page.hasMore());
+        assertNotNull(page.nextCursor());
+    }
+
+    private static WorkflowTaskInboxService.InboxFilter filter(String scope, String assignee, String candidateGroup) {
+        return new WorkflowTaskInboxService.InboxFilter(scope, null, null, assignee, null, null, null, candidateGroup);
+    }
+
+    private static WorkflowTaskInboxEntry entry(String taskId, LocalDateTime sortTime) {
+        WorkflowTaskInboxEntry entry = new WorkflowTaskInboxEntry();
+        entry.setTaskId(taskId);
+        entry.setState(WorkflowTaskInboxEntry.State.ACTIVE);
+        entry.setAssignee("alice");
+        entry.setSortTime(sortTime);
+        return entry;
+    }
+}
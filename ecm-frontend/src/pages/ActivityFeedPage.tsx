@@ -19,7 +19,7 @@ import {
 import { Notifications, Refresh } from '@mui/icons-material';
 import { useNavigate } from 'react-router-dom';
 import { toast } from 'react-toastify';
-import activityService, { ActivityPage } from 'services/activityService';
+import activityService, { ActivityDto, ActivityPage } from 'services/activityService';
 import followingService, { FollowSubscriptionDto } from 'services/followingService';
 import { useAppSelector } from 'store';
 import authService from 'services/authService';
@@ -45,7 +45,10 @@ const ActivityFeedPage: React.FC = () => {
   const [activityFilter, setActivityFilter] = useState('');
   const [targetKind, setTargetKind] = useState<ActivityTargetKind | 'ALL'>('ALL');
   const [page, setPage] = useState(0);
-  const [data, setData] = useState<ActivityPage | null>(null);
+  const [activities, setActivities] = useState<ActivityDto[] | null>(null);
+  const [totalPages, setTotalPages] = useState(0);
+  const [nextCursor, setNextCursor] = useState<string | null>(null);
+  const [loadingMore, setLoadingMore] = useState(false);
   const [subscriptions, setSubscriptions] = useState<FollowSubscriptionDto[]>([]);
   const [loading, setLoading] = useState(false);
   const [queryApplied, setQueryApplied] = useState(false);
@@ -99,31 +102,46 @@ const ActivityFeedPage: React.FC = () => {
   const load = async () => {
     setLoading(true);
     try {
-      let result: ActivityPage;
-      if (scope === 'mine' && effectiveUser?.username) {
-        result = await activityService.getUserFeed(effectiveUser.username, page);
-      } else if (scope === 'following') {
+      if (scope === 'following') {
+        // The following feed is keyset-paginated: the first page starts at the head and
+        // "Load more" continues from the returned cursor.
         const [followingFeed, followingSubscriptions] = await Promise.all([
-          activityService.getFollowingFeed(page),
+          activityService.getFollowingFeed(),
           followingService.list(),
         ]);
-        result = followingFeed;
+        setActivities(followingFeed.items);
+        setNextCursor(followingFeed.hasMore ? followingFeed.nextCursor : null);
+        setTotalPages(0);
         setSubscriptions(followingSubscriptions);
+        return;
+      }
+      let result: ActivityPage;
+      if (scope === 'mine' && effectiveUser?.username) {
+        result = await activityService.getUserFeed(effectiveUser.username, page);
       } else if (scope === 'site' && siteId.trim()) {
         result = await activityService.getSiteFeed(siteId.trim(), page);
-        setSubscriptions([]);
       } else {
         result = await activityService.getGlobalFeed(page);
-        setSubscriptions([]);
       }
-      if (scope === 'mine') {
-        setSubscriptions([]);
-      }
-      setData(result);
+      setSubscriptions([]);
+      setActivities(result.content);
+      setTotalPages(result.totalPages);
+      setNextCursor(null);
     } catch { toast.error('Failed to load activity feed'); }
     finally { setLoading(false); }
   };
 
+  const loadMore = async () => {
+    if (!nextCursor) return;
+    setLoadingMore(true);
+    try {
+      const more = await activityService.getFollowingFeed(nextCursor);
+      setActivities((prev) => [...(prev ?? []), ...more.items]);
+      setNextCursor(more.hasMore ? more.nextCursor : null);
+    } catch { toast.error('Failed to load more activities'); }
+    finally { setLoadingMore(false); }
+  };
+
   useEffect(() => {
     if (!queryApplied) return;
     void load();
@@ -136,7 +154,7 @@ const ActivityFeedPage: React.FC = () => {
     return 'default' as const;
   };
 
-  const visibleActivities = data?.content.filter(
+  const visibleActivities = activities?.filter(
     (activity) =>
       matchesActivityFilter(activity, deferredActivityFilter)
       && matchesActivityTargetKind(activity, targetKind)
@@ -332,17 +350,24 @@ const ActivityFeedPage: React.FC = () => {
                 </CardContent>
               </Card>
             ))}
-            {(!data || visibleActivities.length === 0) && (
+            {(!activities || visibleActivities.length === 0) && (
               <Paper sx={{ p: 4, textAlign: 'center' }}>
                 <Typography color="text.secondary">
-                  {data && data.content.length > 0 ? 'No activities match the current filter' : 'No activities to display'}
+                  {activities && activities.length > 0 ? 'No activities match the current filter' : 'No activities to display'}
                 </Typography>
               </Paper>
             )}
           </Stack>
-          {data && data.totalPages > 1 && (
+          {scope !== 'following' && totalPages > 1 && (
+            <Box display="flex" justifyContent="center" mt={2}>
+              <Pagination count={totalPages} page={page + 1} onChange={(_, v) => setPage(v - 1)} />
+            </Box>
+          )}
+          {scope === 'following' && nextCursor && (
             <Box display="flex" justifyContent="center" mt={2}>
-              <Pagination count={data.totalPages} page={page + 1} onChange={(_, v) => setPage(v - 1)} />
+              <Button variant="outlined" onClick={() => void loadMore()} disabled={loadingMore}>
+                {loadingMore ? 'Loading...' : 'Load more'}
+              </Button>
             </Box>
           )}
         </>
@@ -2,6 +2,7 @@ import api from './api';
 import activityService, {
   ACTIVITY_UNEXPECTED_RESPONSE_MESSAGE,
   ActivityDto,
+  ActivityFeedResponse,
   ActivityPage,
 } from './activityService';
 
@@ -84,17 +85,40 @@ describe('activityService response guards', () => {
     });
   });
 
-  it('returns guarded following activity pages and keeps default paging', async () => {
-    const response = page();
+  it('reads the following feed by cursor from the keyset endpoint', async () => {
+    const response: ActivityFeedResponse = {
+      items: [activity],
+      nextCursor: '2026-05-14T10:00:00|activity-1',
+      hasMore: true,
+    };
     mockedApi.get.mockResolvedValueOnce(response);
 
     await expect(activityService.getFollowingFeed()).resolves.toEqual(response);
 
-    expect(mockedApi.get).toHaveBeenCalledWith('/activities/following', {
-      params: { page: 0, size: 20 },
+    expect(mockedApi.get).toHaveBeenCalledWith('/activities/following/feed', {
+      params: { limit: 20 },
+    });
+  });
+
+  it('forwards the following feed cursor for later pages', async () => {
+    const response: ActivityFeedResponse = { items: [], nextCursor: null, hasMore: false };
+    mockedApi.get.mockResolvedValueOnce(response);
+
+    await expect(activityService.getFollowingFeed('2026-05-14T10:00:00|activity-1', 10)).resolves.toEqual(response);
+
+    expect(mockedApi.get).toHaveBeenCalledWith('/activities/following/feed', {
+      params: { cursor: '2026-05-14T10:00:00|activity-1', limit: 10 },
     });
   });
 
+  it('rejects malformed following feed responses', async () => {
+    mockedApi.get.mockResolvedValueOnce(page());
+
+    await expect(activityService.getFollowingFeed()).rejects.toThrow(
+      ACTIVITY_UNEXPECTED_RESPONSE_MESSAGE,
+    );
+  });
+
   it('returns guarded node activity pages and keeps the node route', async () => {
     const response = page();
     mockedApi.get.mockResolvedValueOnce(response);
@@ -22,6 +22,12 @@ export interface ActivityPage {
   size: number;
 }
 
+export interface ActivityFeedResponse {
+  items: ActivityDto[];
+  nextCursor: string | null;
+  hasMore: boolean;
+}
+
 const isObject = (value: unknown): value is Record<string, unknown> => (
   value !== null && typeof value === 'object' && !Array.isArray(value)
 );
@@ -66,6 +72,18 @@ const assertActivityPage = (value: unknown): ActivityPage => (
   isActivityPage(value) ? value : assertUnexpectedResponse()
 );
 
+const isActivityFeedResponse = (value: unknown): value is ActivityFeedResponse => (
+  isObject(value)
+    && Array.isArray(value.items)
+    && value.items.every(isActivityDto)
+    && isStringOrNullish(value.nextCursor)
+    && typeof value.hasMore === 'boolean'
+);
+
+const assertActivityFeedResponse = (value: unknown): ActivityFeedResponse => (
+  isActivityFeedResponse(value) ? value : assertUnexpectedResponse()
+);
+
 class ActivityService {
   async getGlobalFeed(page = 0, size = 20): Promise<ActivityPage> {
     const result = await api.get<unknown>('/activities', { params: { page, size } });
@@ -82,9 +100,10 @@ class ActivityService {
     return assertActivityPage(result);
   }
 
-  async getFollowingFeed(page = 0, size = 20): Promise<ActivityPage> {
-    const result = await api.get<unknown>('/activities/following', { params: { page, size } });
-    return assertActivityPage(result);
+  async getFollowingFeed(cursor: string | null = null, limit = 20): Promise<ActivityFeedResponse> {
+    const params = cursor ? { cursor, limit } : { limit };
+    const result = await api.get<unknown>('/activities/following/feed', { params });
+    return assertActivityFeedResponse(result);
   }
 
   async getNodeFeed(nodeId: string, page = 0, size = 20): Promise<ActivityPage> {
@@ -42,6 +42,18 @@ class TagSuggestRequest(BaseModel):
 class TagSuggestResponse(BaseModel):
     tags: List[str]
 
+class ClassifyBatchRequest(BaseModel):
+    items: List[ClassifyRequest]
+
+class ClassifyBatchResponse(BaseModel):
+    results: List[ClassifyResponse]
+
+class TagSuggestBatchRequest(BaseModel):
+    items: List[TagSuggestRequest]
+
+class TagSuggestBatchResponse(BaseModel):
+    results: List[TagSuggestResponse]
+
 class HealthResponse(BaseModel):
     status: str
     modelLoaded: bool
@@ -152,57 +164,71 @@ async def health_check():
         modelVersion=model_data.get("version") if isinstance(model_data, dict) else None
     )
 
-@app.post("/api/ml/classify", response_model=ClassifyResponse)
-async def classify_document(request: ClassifyRequest):
-    """Classify document"""
-    global model_data
-
+def _classify_one(request: ClassifyRequest) -> ClassifyResponse:
     candidates = request.candidates or None
 
-    try:
-        if model_data and isinstance(model_data, dict) and model_data.get("category_keywords"):
-            tokens = _extract_tokens(request.text)
-            token_counts = Counter(tokens)
-
-            available_categories = list(model_data.get("category_keywords", {}).keys())
-            target_categories = candidates or available_categories or ["General", "Business", "Technical"]
-
-            scores = {}
-            for cat in target_categories:
-                keywords = set(model_data.get("category_keywords", {}).get(cat, []))
-                if not keywords:
-                    scores[cat] = 0
-                    continue
-                scores[cat] = sum(count for token, count in token_counts.items() if token in keywords)
-
-            total = sum(scores.values())
-            if total <= 0:
-                prediction, confidence, alternatives = _classify_heuristic(request.text, candidates=target_categories)
-                return ClassifyResponse(prediction=prediction, confidence=confidence, alternatives=alternatives)
-
-            sorted_scores = sorted(scores.items(), key=lambda x: x[1], reverse=True)
-            prediction = sorted_scores[0][0]
-            confidence = float(sorted_scores[0][1] / total)
-            alternatives = [
-                {"category": cat, "confidence": float(score / total)}
-                for cat, score in sorted_scores[:3]
-            ]
+    if model_data and isinstance(model_data, dict) and model_data.get("category_keywords"):
+        tokens = _extract_tokens(request.text)
+        token_counts = Counter(tokens)
+
+        available_categories = list(model_data.get("category_keywords", {}).keys())
+        target_categories = candidates or available_categories or ["General", "Business", "Technical"]
+
+        scores = {}
+        for cat in target_categories:
+            keywords = set(model_data.get("category_keywords", {}).get(cat, []))
+            if not keywords:
+                scores[cat] = 0
+                continue
+            scores[cat] = sum(count for token, count in token_counts.items() if token in keywords)
+
+        total = sum(scores.values())
+        if total <= 0:
+            prediction, confidence, alternatives = _classify_heuristic(request.text, candidates=target_categories)
             return ClassifyResponse(prediction=prediction, confidence=confidence, alternatives=alternatives)
 
-        prediction, confidence, alternatives = _classify_heuristic(request.text, candidates=candidates)
+        sorted_scores = sorted(scores.items(), key=lambda x: x[1], reverse=True)
+        prediction = sorted_scores[0][0]
+        confidence = float(sorted_scores[0][1] / total)
+        alternatives = [
+            {"category": cat, "confidence": float(score / total)}
+            for cat, score in sorted_scores[:3]
+        ]
         return ClassifyResponse(prediction=prediction, confidence=confidence, alternatives=alternatives)
 
+    prediction, confidence, alternatives = _classify_heuristic(request.text, candidates=candidates)
+    return ClassifyResponse(prediction=prediction, confidence=confidence, alternatives=alternatives)
+
+def _suggest_tags_one(request: TagSuggestRequest) -> TagSuggestResponse:
+    if request.text is None or len(request.text) < 10:
+        return TagSuggestResponse(tags=[])
+    return TagSuggestResponse(tags=_suggest_tags_simple(request.text, request.maxTags))
+
+@app.post("/api/ml/classify", response_model=ClassifyResponse)
+async def classify_document(request: ClassifyRequest):
+    """Classify document"""
+    try:
+        return _classify_one(request)
+    except Exception as e:
+        raise HTTPException(status_code=500, detail=str(e))
+
+@app.post("/api/ml/classify/batch", response_model=ClassifyBatchResponse)
+async def classify_documents(request: ClassifyBatchRequest):
+    """Classify several documents in one call; results keep the request order"""
+    try:
+        return ClassifyBatchResponse(results=[_classify_one(item) for item in request.items])
     except Exception as e:
         raise HTTPException(status_code=500, detail=str(e))
 
 @app.post("/api/ml/suggest-tags", response_model=TagSuggestResponse)
 async def suggest_tags(request: TagSuggestRequest):
     """Suggest tags for given text"""
-    if request.text is None or len(request.text) < 10:
-        return TagSuggestResponse(tags=[])
+    return _suggest_tags_one(request)
 
-    tags = _suggest_tags_simple(request.text, request.maxTags)
-    return TagSuggestResponse(tags=tags)
+@app.post("/api/ml/suggest-tags/batch", response_model=TagSuggestBatchResponse)
+async def suggest_tags_batch(request: TagSuggestBatchRequest):
+    """Suggest tags for several texts in one call; results keep the request order"""
+    return TagSuggestBatchResponse(results=[_suggest_tags_one(item) for item in request.items])
 
 @app.post("/api/ml/ocr", response_model=OcrResponse)
 async def ocr_extract_text(
@@ -0,0 +1,89 @@
+#!/usr/bin/env python3
+"""Compare two JMH JSON result files (mvn -Pbenchmark ... writes ecm-core/target/jmh-result.json).
+
+Usage:
+  scripts/jmh-compare.py baseline.json current.json [--threshold 10] [--fail-on-regression]
+
+A benchmark counts as regressed when it got worse by more than the threshold percentage and the
+difference is larger than the two runs' combined error margins. Throughput modes are better when
+higher; time modes are better when lower.
+"""
+import argparse
+import json
+import math
+import sys
+
+
+def load(path: str) -> dict:
+    with open(path, "r", encoding="utf-8") as handle:
+        runs = json.load(handle)
+    results = {}
+    for run in runs:
+        params = run.get("params") or {}
+        key = run["benchmark"] + "".join(f" {name}={params[name]}" for name in sorted(params))
+        metric = run["primaryMetric"]
+        # JMH writes "NaN" when a single iteration leaves no error estimate.
+        error = float(metric.get("scoreError") or 0.0)
+        results[key] = {
+            "mode": run["mode"],
+            "score": metric["score"],
+            "error": 0.0 if math.isnan(error) else error,
+            "unit": metric["scoreUnit"],
+        }
+    return results
+
+
+def short_name(key: str) -> str:
+    name, _, params = key.partition(" ")
+    parts = name.split(".")
+    label = ".".join(parts[-2:])
+    return f"{label} {params}".strip()
+
+
+def main() -> int:
+    parser = argparse.ArgumentParser(description="Compare two JMH JSON result files")
+    parser.add_argument("baseline")
+    parser.add_argument("current")
+    parser.add_argument("--threshold", type=float, default=10.0, help="percent change that counts (default 10)")
+    parser.add_argument("--fail-on-regression", action="store_true", help="exit 1 when anything regressed")
+    args = parser.parse_args()
+
+    baseline = load(args.baseline)
+    current = load(args.current)
+
+    regressions = 0
+    rows = []
+    for key in sorted(set(baseline) | set(current)):
+        before = baseline.get(key)
+        after = current.get(key)
+        if before is None or after is None:
+            rows.append((short_name(key), "-" if before is None else f"{before['score']:.3f}",
+                         "-" if after is None else f"{after['score']:.3f}", "", "new" if before is None else "removed"))
+            continue
+        higher_is_better = after["mode"] == "thrpt"
+        delta = after["score"] - before["score"]
+        change = 0.0 if before["score"] == 0 else delta / before["score"] * 100.0
+        worse = -change if higher_is_better else change
+        significant = abs(delta) > before["error"] + after["error"]
+        if worse > args.threshold and significant:
+            verdict = "REGRESSION"
+            regressions += 1
+        elif -worse > args.threshold and significant:
+            verdict = "improved"
+        else:
+            verdict = ""
+        rows.append((short_name(key), f"{before['score']:.3f}", f"{after['score']:.3f} {after['unit']}",
+                     f"{change:+.1f}%", verdict))
+
+    widths = [max(len(row[i]) for row in rows + [("benchmark", "baseline", "current", "change", "")])
+              for i in range(5)]
+    header = ("benchmark", "baseline", "current", "change", "")
+    for row in [header] + rows:
+        print("  ".join(value.ljust(widths[i]) for i, value in enumerate(row)).rstrip())
+
+    print(f"\n{regressions} regression(s) beyond {args.threshold:g}%")
+    return 1 if regressions and args.fail_on_regression else 0
+
+
+if __name__ == "__main__":
+    sys.exit(main())